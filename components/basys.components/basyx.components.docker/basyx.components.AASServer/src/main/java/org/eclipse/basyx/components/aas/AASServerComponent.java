@@ -22,12 +22,14 @@ import javax.xml.parsers.ParserConfigurationException;
 import org.apache.catalina.servlets.DefaultServlet;
 import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
 import org.eclipse.basyx.aas.aggregator.AASAggregator;
+import org.eclipse.basyx.aas.aggregator.ConcurrentAASAggregator;
 import org.eclipse.basyx.aas.aggregator.api.IAASAggregator;
 import org.eclipse.basyx.aas.aggregator.restapi.AASAggregatorProvider;
 import org.eclipse.basyx.aas.metamodel.map.descriptor.AASDescriptor;
 import org.eclipse.basyx.aas.registration.api.IAASRegistry;
 import org.eclipse.basyx.aas.registration.proxy.AASRegistryProxy;
 import org.eclipse.basyx.aas.restapi.api.IAASAPIFactory;
+import org.eclipse.basyx.aas.restapi.concurrent.ConcurrentAASAPIFactory;
 import org.eclipse.basyx.aas.restapi.vab.VABAASAPIFactory;
 import org.eclipse.basyx.components.IComponent;
 import org.eclipse.basyx.components.aas.aasx.AASXPackageManager;
@@ -45,6 +47,9 @@ import org.eclipse.basyx.components.json.JSONAASBundleFactory;
 import org.eclipse.basyx.components.xml.XMLAASBundleFactory;
 import org.eclipse.basyx.submodel.metamodel.api.ISubmodel;
 import org.eclipse.basyx.submodel.restapi.api.ISubmodelAPIFactory;
+import org.eclipse.basyx.submodel.restapi.concurrent.ConcurrentSubmodelAPIFactory;
+import org.eclipse.basyx.submodel.restapi.events.EventingSubmodelAPIFactory;
+import org.eclipse.basyx.submodel.restapi.snapshot.SnapshotSubmodelAPIFactory;
 import org.eclipse.basyx.support.bundle.AASBundle;
 import org.eclipse.basyx.support.bundle.AASBundleDescriptorFactory;
 import org.eclipse.basyx.support.bundle.AASBundleHelper;
@@ -107,7 +112,7 @@ public class AASServerComponent implements IComponent {
 
 	/**
 	 * Sets and enables mqtt connection configuration for this component. Has to be called before the component is
-	 * started. Currently only works for InMemory backend.
+	 * started. Currently only works for the InMemory backends.
 	 * 
 	 * @param configuration
 	 */
@@ -318,12 +323,34 @@ public class AASServerComponent implements IComponent {
 		IAASAggregator aggregator = null;
 		if (backendType == AASServerBackend.INMEMORY && mqttConfig == null) {
 			logger.info("Using InMemory backend");
-			aggregator = new AASAggregator(registry);
+			IAASAPIFactory aasApiProvider = new VABAASAPIFactory();
+			ISubmodelAPIFactory smApiProvider = new EventingSubmodelAPIFactory();
+			aggregator = new AASAggregator(aasApiProvider, smApiProvider, registry);
 		} else if (backendType == AASServerBackend.INMEMORY && mqttConfig != null) {
 			logger.info("Using InMemory backend with MQTT providers");
 			IAASAPIFactory aasApiProvider = new VABAASAPIFactory();
-			ISubmodelAPIFactory smApiProvider = new MqttSubmodelAPIFactory(mqttConfig);
+			ISubmodelAPIFactory smApiProvider = new EventingSubmodelAPIFactory(new MqttSubmodelAPIFactory(mqttConfig));
 			aggregator = new AASAggregator(aasApiProvider, smApiProvider, registry);
+		} else if (backendType == AASServerBackend.CONCURRENT_INMEMORY && mqttConfig == null) {
+			logger.info("Using concurrent InMemory backend");
+			IAASAPIFactory aasApiProvider = new ConcurrentAASAPIFactory();
+			ISubmodelAPIFactory smApiProvider = new EventingSubmodelAPIFactory(new ConcurrentSubmodelAPIFactory());
+			aggregator = new ConcurrentAASAggregator(aasApiProvider, smApiProvider, registry);
+		} else if (backendType == AASServerBackend.CONCURRENT_INMEMORY && mqttConfig != null) {
+			logger.info("Using concurrent InMemory backend with MQTT providers");
+			IAASAPIFactory aasApiProvider = new ConcurrentAASAPIFactory();
+			ISubmodelAPIFactory smApiProvider = new EventingSubmodelAPIFactory(new ConcurrentSubmodelAPIFactory(new MqttSubmodelAPIFactory(mqttConfig)));
+			aggregator = new ConcurrentAASAggregator(aasApiProvider, smApiProvider, registry);
+		} else if (backendType == AASServerBackend.SNAPSHOT_INMEMORY && mqttConfig == null) {
+			logger.info("Using snapshot InMemory backend");
+			IAASAPIFactory aasApiProvider = new ConcurrentAASAPIFactory();
+			ISubmodelAPIFactory smApiProvider = new EventingSubmodelAPIFactory(new SnapshotSubmodelAPIFactory());
+			aggregator = new ConcurrentAASAggregator(aasApiProvider, smApiProvider, registry);
+		} else if (backendType == AASServerBackend.SNAPSHOT_INMEMORY && mqttConfig != null) {
+			logger.info("Using snapshot InMemory backend with MQTT providers");
+			IAASAPIFactory aasApiProvider = new ConcurrentAASAPIFactory();
+			ISubmodelAPIFactory smApiProvider = new EventingSubmodelAPIFactory(new MqttSubmodelAPIFactory(mqttConfig, new SnapshotSubmodelAPIFactory()));
+			aggregator = new ConcurrentAASAggregator(aasApiProvider, smApiProvider, registry);
 		} else if ( backendType == AASServerBackend.MONGODB ) {
 			logger.info("Using MongoDB backend");
 			aggregator = loadMongoDBAggregator();
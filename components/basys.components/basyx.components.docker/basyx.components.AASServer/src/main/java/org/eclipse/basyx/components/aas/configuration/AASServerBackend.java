@@ -24,6 +24,8 @@ public enum AASServerBackend {
 	 * Enum values of KeyElements
 	 */
 	INMEMORY("InMemory"),
+	CONCURRENT_INMEMORY("ConcurrentInMemory"),
+	SNAPSHOT_INMEMORY("SnapshotInMemory"),
 	MONGODB("MongoDB");
 	
 	private String literal;
@@ -40,6 +40,7 @@ import org.eclipse.basyx.submodel.metamodel.map.qualifier.Referable;
 import org.eclipse.basyx.submodel.restapi.SubmodelProvider;
 import org.eclipse.basyx.submodel.restapi.api.ISubmodelAPI;
 import org.eclipse.basyx.submodel.restapi.api.ISubmodelAPIFactory;
+import org.eclipse.basyx.submodel.restapi.events.EventingSubmodelAPI;
 import org.eclipse.basyx.vab.exception.provider.ResourceNotFoundException;
 import org.eclipse.basyx.vab.modelprovider.api.IModelProvider;
 import org.eclipse.basyx.vab.protocol.api.IConnectorFactory;
@@ -139,7 +140,8 @@ public class MongoDBAASAggregator implements IAASAggregator {
 		this.smApiProvider = sm -> {
 			MongoDBSubmodelAPI api = new MongoDBSubmodelAPI(config, sm.getIdentification().getId());
 			api.setSubmodel(sm);
-			return api;
+			// Events are only published to the clients of this server instance
+			return new EventingSubmodelAPI(api);
 		};
 	}
 
@@ -218,7 +220,7 @@ public class MongoDBAASAggregator implements IAASAggregator {
 	}
 
 	private void addSubmodelProvidersById(String smId, MultiSubmodelProvider provider) {
-		ISubmodelAPI smApi = new MongoDBSubmodelAPI(smId);
+		ISubmodelAPI smApi = new EventingSubmodelAPI(new MongoDBSubmodelAPI(smId));
 		SubmodelProvider smProvider = new SubmodelProvider(smApi);
 		provider.addSubmodel(smProvider);
 	}
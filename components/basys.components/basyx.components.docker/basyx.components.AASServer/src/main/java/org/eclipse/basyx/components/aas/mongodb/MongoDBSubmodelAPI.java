@@ -18,6 +18,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.function.Consumer;
 
 import org.eclipse.basyx.components.configuration.BaSyxMongoDBConfiguration;
 import org.eclipse.basyx.submodel.metamodel.api.ISubmodel;
@@ -34,12 +35,14 @@ import org.eclipse.basyx.submodel.restapi.SubmodelElementProvider;
 import org.eclipse.basyx.submodel.restapi.api.ISubmodelAPI;
 import org.eclipse.basyx.vab.exception.provider.MalformedRequestException;
 import org.eclipse.basyx.vab.exception.provider.ResourceNotFoundException;
+import org.eclipse.basyx.vab.exception.provider.VersionConflictException;
 import org.eclipse.basyx.vab.modelprovider.VABPathTools;
 import org.eclipse.basyx.vab.modelprovider.api.IModelProvider;
 import org.eclipse.basyx.vab.modelprovider.map.VABMapProvider;
 import org.springframework.data.mongodb.core.MongoOperations;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 
 import com.mongodb.client.MongoClient;
 import com.mongodb.client.MongoClients;
@@ -47,12 +50,32 @@ import com.mongodb.client.MongoClients;
 /**
  * Implements the ISubmodelAPI for a mongoDB backend.
  * 
+ * Changes of elements are written with a conditional update, that only matches
+ * if the submodel document has not been changed since it has been read. If it
+ * has been changed in the meantime, the change is applied again to the current
+ * document. The document carries the versions of the elements, so that values
+ * can be updated conditionally by
+ * {@link #compareAndSetSubmodelElementValue(String, long, Object)}.
+ * 
  * @author espen
  */
 public class MongoDBSubmodelAPI implements ISubmodelAPI {
 	private static final String DEFAULT_CONFIG_PATH = "mongodb.properties";
 	private static final String SMIDPATH = Identifiable.IDENTIFICATION + "." + Identifier.ID;
 
+	// Version of the submodel document, incremented by each change
+	private static final String VERSION = "_version";
+
+	// Version of the last change or replacement of each element, by idShort path
+	private static final String ELEMENT_VERSIONS = "_elementVersions";
+
+	// Version of the last change of an element contained in a collection, by
+	// idShort path of the collection
+	private static final String CONTENT_VERSIONS = "_contentVersions";
+
+	// Expected version of unconditional changes
+	private static final long ANY_VERSION = -1;
+
 	protected BaSyxMongoDBConfiguration config;
 	protected MongoOperations mongoOps;
 	protected String collection;
@@ -109,7 +132,8 @@ public class MongoDBSubmodelAPI implements ISubmodelAPI {
 
 	/**
 	 * Depending on whether the model is already in the db, this method inserts or replaces the existing data.
-	 * The new submodel id for this API is taken from the given submodel.
+	 * The new submodel id for this API is taken from the given submodel. Replacing a submodel is a change of
+	 * all of its elements, i.e. their versions continue the version of the replaced submodel.
 	 * 
 	 * @param sm
 	 */
@@ -118,15 +142,44 @@ public class MongoDBSubmodelAPI implements ISubmodelAPI {
 		this.setSubmodelId(id);
 
 		Query hasId = query(where(SMIDPATH).is(smId));
-		Object replaced = mongoOps.findAndReplace(hasId, sm, collection);
-		if (replaced == null) {
-			mongoOps.insert(sm, collection);
+		while (true) {
+			Submodel current = mongoOps.findOne(hasId, Submodel.class, collection);
+			if (current == null) {
+				mongoOps.insert(sm, collection);
+				return;
+			}
+
+			// Versions read before the replacement must not match any element afterwards
+			long version = getVersion(current);
+			long next = version + 1;
+			Map<String, Object> elementVersions = new HashMap<>();
+			for (String idShort : sm.getSubmodelElements().keySet()) {
+				elementVersions.put(idShort, next);
+			}
+			Submodel stored = new Submodel();
+			stored.putAll(sm);
+			stored.put(VERSION, next);
+			stored.put(ELEMENT_VERSIONS, elementVersions);
+
+			Query unchanged = query(where(SMIDPATH).is(smId).and(VERSION).is(version == 0 ? null : version));
+			if (mongoOps.findAndReplace(unchanged, stored, collection) != null) {
+				return;
+			}
 		}
 	}
 
-	@SuppressWarnings("unchecked")
 	@Override
 	public ISubmodel getSubmodel() {
+		Submodel result = loadSubmodel();
+		// Remove the versions, they are not part of the submodel
+		result.remove(VERSION);
+		result.remove(ELEMENT_VERSIONS);
+		result.remove(CONTENT_VERSIONS);
+		return result;
+	}
+
+	@SuppressWarnings("unchecked")
+	private Submodel loadSubmodel() {
 		// Query Submodel from MongoDB
 		Query hasId = query(where(SMIDPATH).is(smId));
 		Submodel result = mongoOps.findOne(hasId, Submodel.class, collection);
@@ -155,13 +208,7 @@ public class MongoDBSubmodelAPI implements ISubmodelAPI {
 
 	@Override
 	public void addSubmodelElement(ISubmodelElement elem) {
-		// Get sm from db
-		Submodel sm = (Submodel) getSubmodel();
-		// Add element
-		sm.addSubmodelElement(elem);
-		// Replace db entry
-		Query hasId = query(where(SMIDPATH).is(smId));
-		mongoOps.findAndReplace(hasId, sm, collection);
+		change(elem.getIdShort(), ANY_VERSION, sm -> sm.addSubmodelElement(elem));
 	}
 
 	private ISubmodelElement getTopLevelSubmodelElement(String idShort) {
@@ -183,14 +230,9 @@ public class MongoDBSubmodelAPI implements ISubmodelAPI {
 		return SubmodelElement.createAsFacade((Map<String, Object>) elementVABObj);
 	}
 
-	private void deleteTopLevelSubmodelElement(String idShort) {
-		// Get sm from db
-		Submodel sm = (Submodel) getSubmodel();
+	private void deleteTopLevelSubmodelElement(Submodel sm, String idShort) {
 		// Remove element
 		sm.getSubmodelElements().remove(idShort);
-		// Replace db entry
-		Query hasId = query(where(SMIDPATH).is(smId));
-		mongoOps.findAndReplace(hasId, sm, collection);
 	}
 
 	@Override
@@ -200,8 +242,7 @@ public class MongoDBSubmodelAPI implements ISubmodelAPI {
 	}
 
 
-	private void addNestedSubmodelElement(List<String> idShorts, ISubmodelElement elem) {
-		Submodel sm = (Submodel) getSubmodel();
+	private void addNestedSubmodelElement(Submodel sm, List<String> idShorts, ISubmodelElement elem) {
 		// > 1 idShorts => add new sm element to an existing sm element
 		if (idShorts.size() > 1) {
 			idShorts = idShorts.subList(0, idShorts.size() - 1);
@@ -209,16 +250,10 @@ public class MongoDBSubmodelAPI implements ISubmodelAPI {
 			ISubmodelElement parentElement = getNestedSubmodelElement(sm, idShorts);
 			if (parentElement instanceof SubmodelElementCollection) {
 				((SubmodelElementCollection) parentElement).addSubmodelElement(elem);
-				// Replace db entry
-				Query hasId = query(where(SMIDPATH).is(smId));
-				mongoOps.findAndReplace(hasId, sm, collection);
 			}
 		} else {
 			// else => directly add it to the submodel
 			sm.addSubmodelElement(elem);
-			// Replace db entry
-			Query hasId = query(where(SMIDPATH).is(smId));
-			mongoOps.findAndReplace(hasId, sm, collection);
 		}
 	}
 
@@ -228,22 +263,15 @@ public class MongoDBSubmodelAPI implements ISubmodelAPI {
 		return sm.getSubmodelElements().values();
 	}
 
-	private void updateTopLevelSubmodelElement(String idShort, Object newValue) {
-		// Get sm from db
-		Submodel sm = (Submodel) getSubmodel();
+	private void updateTopLevelSubmodelElement(Submodel sm, String idShort, Object newValue) {
 		// Unwrap value
 		newValue = unwrapParameter(newValue);
 		// Get and update property value
 		getElementProvider(sm, idShort).setValue(Property.VALUE, newValue);
-		// Replace db entry
-		Query hasId = query(where(SMIDPATH).is(smId));
-		mongoOps.findAndReplace(hasId, sm, collection);
 	}
 
 	@SuppressWarnings("unchecked")
-	private void updateNestedSubmodelElement(List<String> idShorts, Object newValue) {
-		Submodel sm = (Submodel) getSubmodel();
-
+	private void updateNestedSubmodelElement(Submodel sm, List<String> idShorts, Object newValue) {
 		// Get parent SM element
 		ISubmodelElement element = getNestedSubmodelElement(sm, idShorts);
 
@@ -251,10 +279,16 @@ public class MongoDBSubmodelAPI implements ISubmodelAPI {
 		IModelProvider mapProvider = new VABMapProvider((Map<String, Object>) element);
 		IModelProvider elemProvider = SubmodelElementProvider.getElementProvider(mapProvider);
 		elemProvider.setValue(Property.VALUE, newValue);
+	}
 
-		// Replace db entry
-		Query hasId = query(where(SMIDPATH).is(smId));
-		mongoOps.findAndReplace(hasId, sm, collection);
+	private void updateSubmodelElement(Submodel sm, String idShortPath, Object newValue) {
+		if (idShortPath.contains("/")) {
+			String[] splitted = VABPathTools.splitPath(idShortPath);
+			List<String> idShorts = Arrays.asList(splitted);
+			updateNestedSubmodelElement(sm, idShorts, newValue);
+		} else {
+			updateTopLevelSubmodelElement(sm, idShortPath, newValue);
+		}
 	}
 
 	private Object getTopLevelSubmodelElementValue(String idShort) {
@@ -322,23 +356,18 @@ public class MongoDBSubmodelAPI implements ISubmodelAPI {
 		throw new MalformedRequestException("Invoke not supported by this backend");
 	}
 
-	private void deleteNestedSubmodelElement(List<String> idShorts) {
+	private void deleteNestedSubmodelElement(Submodel sm, List<String> idShorts) {
 		if ( idShorts.size() == 1 ) {
-			deleteSubmodelElement(idShorts.get(0));
+			deleteTopLevelSubmodelElement(sm, idShorts.get(0));
 			return;
 		}
 		
-		// Get sm from db
-		Submodel sm = (Submodel) getSubmodel();
 		// Get parent collection
 		List<String> parentIds = idShorts.subList(0, idShorts.size() - 1);
 		ISubmodelElement parentElement = getNestedSubmodelElement(sm, parentIds);
 		// Remove element
 		SubmodelElementCollection coll = (SubmodelElementCollection) parentElement;
 		coll.deleteSubmodelElement(idShorts.get(idShorts.size() - 1));
-		// Replace db entry
-		Query hasId = query(where(SMIDPATH).is(smId));
-		mongoOps.findAndReplace(hasId, sm, collection);
 	}
 
 	private Object invokeNestedOperation(List<String> idShorts, Object... params) {
@@ -370,24 +399,39 @@ public class MongoDBSubmodelAPI implements ISubmodelAPI {
 
 	@Override
 	public void deleteSubmodelElement(String idShortPath) {
-		if(idShortPath.contains("/")) {
-			String[] splitted = VABPathTools.splitPath(idShortPath);
-			List<String> idShorts = Arrays.asList(splitted);
-			deleteNestedSubmodelElement(idShorts);
-		}else {
-			deleteTopLevelSubmodelElement(idShortPath);
-		}
+		change(idShortPath, ANY_VERSION, sm -> {
+			if(idShortPath.contains("/")) {
+				String[] splitted = VABPathTools.splitPath(idShortPath);
+				List<String> idShorts = Arrays.asList(splitted);
+				deleteNestedSubmodelElement(sm, idShorts);
+			}else {
+				deleteTopLevelSubmodelElement(sm, idShortPath);
+			}
+		});
 	}
 
 	@Override
 	public void updateSubmodelElement(String idShortPath, Object newValue) {
-		if(idShortPath.contains("/")) {
-			String[] splitted = VABPathTools.splitPath(idShortPath);
-			List<String> idShorts = Arrays.asList(splitted);
-			updateNestedSubmodelElement(idShorts, newValue);
-		}else {
-			updateTopLevelSubmodelElement(idShortPath, newValue);
+		change(idShortPath, ANY_VERSION, sm -> updateSubmodelElement(sm, idShortPath, newValue));
+	}
+
+	@Override
+	public boolean supportsVersions() {
+		return true;
+	}
+
+	@Override
+	public long getSubmodelElementVersion(String idShortPath) {
+		Submodel sm = loadSubmodel();
+		return getElementVersion(sm, idShortPath);
+	}
+
+	@Override
+	public long compareAndSetSubmodelElementValue(String idShortPath, long expectedVersion, Object newValue) {
+		if (expectedVersion < 0) {
+			throw new MalformedRequestException("Invalid version " + expectedVersion);
 		}
+		return change(idShortPath, expectedVersion, sm -> updateSubmodelElement(sm, idShortPath, newValue));
 	}
 
 	@Override
@@ -423,6 +467,101 @@ public class MongoDBSubmodelAPI implements ISubmodelAPI {
 	public void addSubmodelElement(String idShortPath, ISubmodelElement elem) {
 		String[] splitted = VABPathTools.splitPath(idShortPath);
 		List<String> idShorts = Arrays.asList(splitted);
-		addNestedSubmodelElement(idShorts, elem);
+		change(idShortPath, ANY_VERSION, sm -> addNestedSubmodelElement(sm, idShorts, elem));
+	}
+
+	/**
+	 * Applies a change to an element of the submodel and writes the changed
+	 * elements with a conditional update, which only matches the document if its
+	 * version is still the one that has been read. Otherwise, the change is
+	 * applied again to the current document.
+	 * 
+	 * @param idShortPath
+	 *            path to the changed element
+	 * @param expectedVersion
+	 *            version of the element the change is based on,
+	 *            {@link #ANY_VERSION} for unconditional changes
+	 * @param change
+	 *            changes the element in the submodel read from the database
+	 * @return the new version of the element
+	 * @throws VersionConflictException
+	 *             if the element does not have the expected version
+	 */
+	private long change(String idShortPath, long expectedVersion, Consumer<Submodel> change) {
+		while (true) {
+			Submodel sm = loadSubmodel();
+			if (expectedVersion != ANY_VERSION && getElementVersion(sm, idShortPath) != expectedVersion) {
+				throw new VersionConflictException("Element '" + idShortPath + "' has been changed since version " + expectedVersion);
+			}
+			change.accept(sm);
+
+			long version = getVersion(sm);
+			long next = version + 1;
+			Map<String, Object> elementVersions = getVersions(sm, ELEMENT_VERSIONS);
+			Map<String, Object> contentVersions = getVersions(sm, CONTENT_VERSIONS);
+			changeVersions(sm, idShortPath, next, elementVersions, contentVersions);
+
+			// Documents that have not been changed yet do not have a version
+			Query unchanged = query(where(SMIDPATH).is(smId).and(VERSION).is(version == 0 ? null : version));
+			Update update = Update.update(Submodel.SUBMODELELEMENT, sm.get(Submodel.SUBMODELELEMENT)).set(VERSION, next).set(ELEMENT_VERSIONS,
+					elementVersions).set(CONTENT_VERSIONS, contentVersions);
+			if (mongoOps.updateFirst(unchanged, update, collection).getMatchedCount() > 0) {
+				return next;
+			}
+		}
+	}
+
+	/**
+	 * Returns the version of an element, which is the version of the last change
+	 * of the element, of one of the elements it contains or of the last
+	 * replacement of one of the collections containing it
+	 */
+	private long getElementVersion(Submodel sm, String idShortPath) {
+		List<String> idShorts = Arrays.asList(VABPathTools.splitPath(idShortPath));
+		// Throws if the element does not exist
+		getNestedSubmodelElement(sm, idShorts);
+
+		Map<String, Object> elementVersions = getVersions(sm, ELEMENT_VERSIONS);
+		long version = toVersion(getVersions(sm, CONTENT_VERSIONS).get(String.join("/", idShorts)));
+		for (int i = 1; i <= idShorts.size(); i++) {
+			version = Math.max(version, toVersion(elementVersions.get(String.join("/", idShorts.subList(0, i)))));
+		}
+		return version;
+	}
+
+	/**
+	 * Sets the element version of a changed element and the content versions of
+	 * the collections containing it, so that changes do not affect the versions
+	 * of other elements in the same collections. The versions of deleted elements
+	 * are dropped, together with the versions of the elements they contained.
+	 */
+	private void changeVersions(Submodel sm, String idShortPath, long version, Map<String, Object> elementVersions, Map<String, Object> contentVersions) {
+		List<String> idShorts = Arrays.asList(VABPathTools.splitPath(idShortPath));
+		for (int i = 1; i < idShorts.size(); i++) {
+			contentVersions.put(String.join("/", idShorts.subList(0, i)), version);
+		}
+
+		String changed = String.join("/", idShorts);
+		try {
+			getNestedSubmodelElement(sm, idShorts);
+			elementVersions.put(changed, version);
+		} catch (ResourceNotFoundException e) {
+			elementVersions.keySet().removeIf(key -> key.equals(changed) || key.startsWith(changed + "/"));
+			contentVersions.keySet().removeIf(key -> key.equals(changed) || key.startsWith(changed + "/"));
+		}
+	}
+
+	private long getVersion(Submodel sm) {
+		return toVersion(sm.get(VERSION));
+	}
+
+	private long toVersion(Object version) {
+		return version instanceof Number ? ((Number) version).longValue() : 0;
+	}
+
+	@SuppressWarnings("unchecked")
+	private Map<String, Object> getVersions(Submodel sm, String key) {
+		Object versions = sm.get(key);
+		return versions instanceof Map<?, ?> ? new HashMap<>((Map<String, Object>) versions) : new HashMap<>();
 	}
 }
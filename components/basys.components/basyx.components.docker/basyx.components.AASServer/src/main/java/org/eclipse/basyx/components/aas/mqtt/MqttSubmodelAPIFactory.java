@@ -32,6 +32,7 @@ public class MqttSubmodelAPIFactory implements ISubmodelAPIFactory {
 	private static Logger logger = LoggerFactory.getLogger(MqttSubmodelAPIFactory.class);
 
 	private BaSyxMqttConfiguration config;
+	private ISubmodelAPIFactory observedApiFactory;
 
 	/**
 	 * Constructor with MQTT configuration for providing submodel APIs
@@ -39,7 +40,21 @@ public class MqttSubmodelAPIFactory implements ISubmodelAPIFactory {
 	 * @param config
 	 */
 	public MqttSubmodelAPIFactory(BaSyxMqttConfiguration config) {
+		this(config, null);
+	}
+
+	/**
+	 * Constructor with MQTT configuration for providing submodel APIs that emit
+	 * the events of the APIs of another factory
+	 * 
+	 * @param config
+	 * @param observedApiFactory
+	 *            provides the observed APIs, the default VAB submodel APIs are
+	 *            used if it is null
+	 */
+	public MqttSubmodelAPIFactory(BaSyxMqttConfiguration config, ISubmodelAPIFactory observedApiFactory) {
 		this.config = config;
+		this.observedApiFactory = observedApiFactory;
 	}
 
 	@Override
@@ -48,8 +63,13 @@ public class MqttSubmodelAPIFactory implements ISubmodelAPIFactory {
 		String smId = sm.getIdentification().getId();
 		
 		// Create the API
-		IModelProvider provider = new VABLambdaProvider(sm);
-		VABSubmodelAPI observedApi = new VABSubmodelAPI(provider);
+		ISubmodelAPI observedApi;
+		if (observedApiFactory == null) {
+			IModelProvider provider = new VABLambdaProvider(sm);
+			observedApi = new VABSubmodelAPI(provider);
+		} else {
+			observedApi = observedApiFactory.getSubmodelAPI(sm);
+		}
 
 		// Configure the API according to the given configs
 		String brokerEndpoint = config.getServer();
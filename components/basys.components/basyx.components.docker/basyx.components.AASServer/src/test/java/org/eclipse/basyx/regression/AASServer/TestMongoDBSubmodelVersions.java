@@ -0,0 +1,131 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.basyx.regression.AASServer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.eclipse.basyx.components.aas.mongodb.MongoDBSubmodelAPI;
+import org.eclipse.basyx.submodel.metamodel.api.identifier.IdentifierType;
+import org.eclipse.basyx.submodel.metamodel.map.submodelelement.dataelement.property.Property;
+import org.eclipse.basyx.testsuite.regression.submodel.restapi.SimpleAASSubmodel;
+import org.eclipse.basyx.vab.exception.provider.VersionConflictException;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the element versions and the conditional updates of the
+ * {@link MongoDBSubmodelAPI}
+ *
+ * @author schnicke
+ *
+ */
+public class TestMongoDBSubmodelVersions {
+	private static final String NESTED = "containerRoot/container/" + SimpleAASSubmodel.INTPROPIDSHORT;
+	private static final String SIBLING = "containerRoot/container/sibling";
+
+	private SimpleNoOpAASSubmodel submodel;
+	private MongoDBSubmodelAPI api;
+
+	@Before
+	public void build() {
+		submodel = new SimpleNoOpAASSubmodel();
+		submodel.setIdentification(IdentifierType.CUSTOM, "versionsSubmodelId");
+		api = new MongoDBSubmodelAPI("versionsSubmodelId");
+		api.setSubmodel(submodel);
+		api.addSubmodelElement(SIBLING, new Property("sibling", 0));
+	}
+
+	@Test
+	public void testCompareAndSet() {
+		long version = api.getSubmodelElementVersion(NESTED);
+		long next = api.compareAndSetSubmodelElementValue(NESTED, version, 1);
+		assertTrue(next > version);
+		assertEquals(next, api.getSubmodelElementVersion(NESTED));
+		assertEquals(1, api.getSubmodelElementValue(NESTED));
+
+		// Updates based on an outdated version are rejected
+		try {
+			api.compareAndSetSubmodelElementValue(NESTED, version, 2);
+			fail();
+		} catch (VersionConflictException e) {
+			// Expected
+		}
+		assertEquals(1, api.getSubmodelElementValue(NESTED));
+
+		// Changes of other elements in the same collection do not conflict
+		api.updateSubmodelElement(SIBLING, 1);
+		assertEquals(next, api.getSubmodelElementVersion(NESTED));
+		assertTrue(api.getSubmodelElementVersion("containerRoot") > next);
+		api.compareAndSetSubmodelElementValue(NESTED, next, 3);
+		assertEquals(3, api.getSubmodelElementValue(NESTED));
+	}
+
+	@Test
+	public void testReplaceSubmodel() {
+		api.updateSubmodelElement(NESTED, 1);
+		long version = api.getSubmodelElementVersion(NESTED);
+
+		// Replacing the submodel does not reset the versions, thus outdated versions do not match again
+		api.setSubmodel(submodel);
+		assertTrue(api.getSubmodelElementVersion(NESTED) > version);
+		try {
+			api.compareAndSetSubmodelElementValue(NESTED, version, 2);
+			fail();
+		} catch (VersionConflictException e) {
+			// Expected
+		}
+	}
+
+	@Test
+	public void testConcurrentCompareAndSet() throws Exception {
+		int threads = 4;
+		int increments = 10;
+		api.updateSubmodelElement(NESTED, 0);
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int t = 0; t < threads; t++) {
+				futures.add(executor.submit(() -> {
+					for (int i = 0; i < increments; i++) {
+						// Retries the increment until it is based on the current value
+						while (true) {
+							long version = api.getSubmodelElementVersion(NESTED);
+							int value = ((Number) api.getSubmodelElementValue(NESTED)).intValue();
+							try {
+								api.compareAndSetSubmodelElementValue(NESTED, version, value + 1);
+								break;
+							} catch (VersionConflictException e) {
+								// Retry
+							}
+						}
+						// Unconditional changes of the same document make the others retry their writes
+						api.updateSubmodelElement(SIBLING, i);
+					}
+				}));
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} finally {
+			executor.shutdown();
+		}
+
+		// No increment has been lost
+		assertEquals(threads * increments, ((Number) api.getSubmodelElementValue(NESTED)).intValue());
+	}
+}
@@ -0,0 +1,47 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.basyx.regression.AASServer;
+
+import org.eclipse.basyx.components.aas.AASServerComponent;
+import org.eclipse.basyx.components.aas.configuration.AASServerBackend;
+import org.eclipse.basyx.components.aas.configuration.BaSyxAASServerConfiguration;
+import org.eclipse.basyx.components.configuration.BaSyxContextConfiguration;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+
+/**
+ * Tests the component with the snapshot InMemory backend using the test suite
+ * 
+ * @author schnicke
+ *
+ */
+public class TestSnapshotInMemoryAASServer extends AASServerSuite {
+
+	private static AASServerComponent component;
+
+	@Override
+	protected String getURL() {
+		return component.getURL() + "/shells";
+	}
+
+	@BeforeClass
+	public static void setUpClass() {
+		BaSyxContextConfiguration config = new BaSyxContextConfiguration();
+		config.loadFromResource(BaSyxContextConfiguration.DEFAULT_CONFIG_PATH);
+
+		component = new AASServerComponent(config, new BaSyxAASServerConfiguration(AASServerBackend.SNAPSHOT_INMEMORY, ""));
+		component.startComponent();
+	}
+
+	@AfterClass
+	public static void tearDownClass() {
+		component.stopComponent();
+	}
+}
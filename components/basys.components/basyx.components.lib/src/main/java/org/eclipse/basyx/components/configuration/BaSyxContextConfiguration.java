@@ -9,11 +9,15 @@
  ******************************************************************************/
 package org.eclipse.basyx.components.configuration;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.zip.Deflater;
 
 import org.eclipse.basyx.vab.modelprovider.VABPathTools;
 import org.eclipse.basyx.vab.protocol.http.server.BaSyxContext;
+import org.eclipse.basyx.vab.protocol.http.server.HTTPServerBackend;
 
 /**
  * Represents a BaSyx http servlet configuration for a BaSyxContext,
@@ -31,11 +35,41 @@ public class BaSyxContextConfiguration extends BaSyxConfiguration {
 	public static final String DEFAULT_DOCBASE = System.getProperty("java.io.tmpdir");
 	public static final String DEFAULT_HOSTNAME = "localhost";
 	public static final int DEFAULT_PORT = 4000;
+	public static final boolean DEFAULT_COMPRESSION = false;
+	public static final int DEFAULT_COMPRESSION_MINSIZE = BaSyxContext.DEFAULT_COMPRESSION_MIN_SIZE;
+	public static final int DEFAULT_COMPRESSION_LEVEL = Deflater.DEFAULT_COMPRESSION;
+	public static final String DEFAULT_COMPRESSION_MIMETYPES = String.join(",", BaSyxContext.DEFAULT_COMPRESSIBLE_MIME_TYPES);
+	public static final String DEFAULT_SERVER_BACKEND = HTTPServerBackend.TOMCAT.toString();
 
 	public static final String CONTEXTPATH = "contextPath";
 	public static final String DOCBASE = "contextDocPath";
 	public static final String HOSTNAME = "contextHostname";
 	public static final String PORT = "contextPort";
+	public static final String COMPRESSION = "contextCompression";
+	public static final String COMPRESSION_MINSIZE = "contextCompressionMinSize";
+	public static final String COMPRESSION_LEVEL = "contextCompressionLevel";
+	public static final String COMPRESSION_MIMETYPES = "contextCompressionMimeTypes";
+
+	// Server implementation, either Tomcat or NIO
+	public static final String SERVER_BACKEND = "contextServerBackend";
+
+	// Connector tuning, Tomcat's defaults are used for missing properties
+	public static final String PROTOCOL = "contextProtocol";
+	public static final String MAX_THREADS = "contextMaxThreads";
+	public static final String MIN_SPARE_THREADS = "contextMinSpareThreads";
+	public static final String ACCEPT_COUNT = "contextAcceptCount";
+	public static final String MAX_CONNECTIONS = "contextMaxConnections";
+	public static final String CONNECTION_TIMEOUT = "contextConnectionTimeout";
+	public static final String KEEP_ALIVE_TIMEOUT = "contextKeepAliveTimeout";
+	public static final String MAX_KEEP_ALIVE_REQUESTS = "contextMaxKeepAliveRequests";
+
+	// Limit of request bodies kept in memory by the NIO backend, its default is used if missing
+	public static final String MAX_REQUEST_BODY_SIZE = "contextMaxRequestBodySize";
+
+	// Asynchronous operation invocations, the context's defaults are used for missing properties
+	public static final String OPERATION_THREADS = "contextOperationThreads";
+	public static final String OPERATION_QUEUE_SIZE = "contextOperationQueueSize";
+	public static final String OPERATION_TIMEOUT = "contextOperationTimeout";
 
 	// The default path for the context properties file
 	public static final String DEFAULT_CONFIG_PATH = "context.properties";
@@ -43,12 +77,20 @@ public class BaSyxContextConfiguration extends BaSyxConfiguration {
 	// The default key for variables pointing to the configuration file
 	public static final String DEFAULT_FILE_KEY = "BASYX_CONTEXT";
 
+	// Executor that is passed to the created contexts
+	private Executor executor;
+
 	public static Map<String, String> getDefaultProperties() {
 		Map<String, String> defaultProps = new HashMap<>();
 		defaultProps.put(CONTEXTPATH, DEFAULT_CONTEXTPATH);
 		defaultProps.put(DOCBASE, DEFAULT_DOCBASE);
 		defaultProps.put(HOSTNAME, DEFAULT_HOSTNAME);
 		defaultProps.put(PORT, Integer.toString(DEFAULT_PORT));
+		defaultProps.put(COMPRESSION, Boolean.toString(DEFAULT_COMPRESSION));
+		defaultProps.put(COMPRESSION_MINSIZE, Integer.toString(DEFAULT_COMPRESSION_MINSIZE));
+		defaultProps.put(COMPRESSION_LEVEL, Integer.toString(DEFAULT_COMPRESSION_LEVEL));
+		defaultProps.put(COMPRESSION_MIMETYPES, DEFAULT_COMPRESSION_MIMETYPES);
+		defaultProps.put(SERVER_BACKEND, DEFAULT_SERVER_BACKEND);
 		return defaultProps;
 	}
 
@@ -95,7 +137,10 @@ public class BaSyxContextConfiguration extends BaSyxConfiguration {
 	}
 
 	public void loadFromEnvironmentVariables() {
-		String[] properties = { CONTEXTPATH, DOCBASE, HOSTNAME, PORT };
+		String[] properties = { CONTEXTPATH, DOCBASE, HOSTNAME, PORT, COMPRESSION, COMPRESSION_MINSIZE, COMPRESSION_LEVEL,
+				COMPRESSION_MIMETYPES, SERVER_BACKEND, PROTOCOL, MAX_THREADS, MIN_SPARE_THREADS, ACCEPT_COUNT, MAX_CONNECTIONS,
+				CONNECTION_TIMEOUT, KEEP_ALIVE_TIMEOUT, MAX_KEEP_ALIVE_REQUESTS, MAX_REQUEST_BODY_SIZE, OPERATION_THREADS,
+				OPERATION_QUEUE_SIZE, OPERATION_TIMEOUT };
 		loadFromEnvironmentVariables(ENV_PREFIX, properties);
 	}
 
@@ -109,7 +154,36 @@ public class BaSyxContextConfiguration extends BaSyxConfiguration {
 		String reqDocBasePath = getDocBasePath();
 		String hostName = getHostname();
 		int reqPort = getPort();
-		return new BaSyxContext(reqContextPath, reqDocBasePath, hostName, reqPort);
+		BaSyxContext context = new BaSyxContext(reqContextPath, reqDocBasePath, hostName, reqPort);
+		if (isCompressionEnabled()) {
+			context.setCompressionEnabled(true);
+			context.setCompressionMinSize(getCompressionMinSize());
+			context.setCompressionLevel(getCompressionLevel());
+			context.setCompressibleMimeTypes(Arrays.asList(getCompressionMimeTypes()));
+		}
+		if (getServerBackend() != null) {
+			context.setServerBackend(getServerBackend());
+		}
+		context.setProtocol(getProtocol());
+		context.setMaxThreads(getIntegerProperty(MAX_THREADS));
+		context.setMinSpareThreads(getIntegerProperty(MIN_SPARE_THREADS));
+		context.setAcceptCount(getIntegerProperty(ACCEPT_COUNT));
+		context.setMaxConnections(getIntegerProperty(MAX_CONNECTIONS));
+		context.setConnectionTimeout(getIntegerProperty(CONNECTION_TIMEOUT));
+		context.setKeepAliveTimeout(getIntegerProperty(KEEP_ALIVE_TIMEOUT));
+		context.setMaxKeepAliveRequests(getIntegerProperty(MAX_KEEP_ALIVE_REQUESTS));
+		context.setMaxRequestBodySize(getIntegerProperty(MAX_REQUEST_BODY_SIZE));
+		context.setExecutor(executor);
+		if (getOperationThreads() != null) {
+			context.setOperationThreads(getOperationThreads());
+		}
+		if (getOperationQueueSize() != null) {
+			context.setOperationQueueSize(getOperationQueueSize());
+		}
+		if (getOperationTimeout() != null) {
+			context.setOperationTimeout(getOperationTimeout());
+		}
+		return context;
 	}
 
 	public String getContextPath() {
@@ -144,6 +218,171 @@ public class BaSyxContextConfiguration extends BaSyxConfiguration {
 		setProperty(PORT, Integer.toString(port));
 	}
 
+	public boolean isCompressionEnabled() {
+		return Boolean.parseBoolean(getProperty(COMPRESSION));
+	}
+
+	public void setCompressionEnabled(boolean isCompressionEnabled) {
+		setProperty(COMPRESSION, Boolean.toString(isCompressionEnabled));
+	}
+
+	public int getCompressionMinSize() {
+		return Integer.parseInt(getProperty(COMPRESSION_MINSIZE));
+	}
+
+	public void setCompressionMinSize(int minSize) {
+		setProperty(COMPRESSION_MINSIZE, Integer.toString(minSize));
+	}
+
+	public int getCompressionLevel() {
+		return Integer.parseInt(getProperty(COMPRESSION_LEVEL));
+	}
+
+	public void setCompressionLevel(int level) {
+		setProperty(COMPRESSION_LEVEL, Integer.toString(level));
+	}
+
+	public String[] getCompressionMimeTypes() {
+		return getProperty(COMPRESSION_MIMETYPES).split("\\s*,\\s*");
+	}
+
+	public void setCompressionMimeTypes(String... mimeTypes) {
+		setProperty(COMPRESSION_MIMETYPES, String.join(",", mimeTypes));
+	}
+
+	public HTTPServerBackend getServerBackend() {
+		return HTTPServerBackend.fromString(getProperty(SERVER_BACKEND));
+	}
+
+	public void setServerBackend(HTTPServerBackend backend) {
+		setProperty(SERVER_BACKEND, backend.toString());
+	}
+
+	public String getProtocol() {
+		return getProperty(PROTOCOL);
+	}
+
+	public void setProtocol(String protocol) {
+		setProperty(PROTOCOL, protocol);
+	}
+
+	public Integer getMaxThreads() {
+		return getIntegerProperty(MAX_THREADS);
+	}
+
+	public void setMaxThreads(int maxThreads) {
+		setProperty(MAX_THREADS, Integer.toString(maxThreads));
+	}
+
+	public Integer getMinSpareThreads() {
+		return getIntegerProperty(MIN_SPARE_THREADS);
+	}
+
+	public void setMinSpareThreads(int minSpareThreads) {
+		setProperty(MIN_SPARE_THREADS, Integer.toString(minSpareThreads));
+	}
+
+	public Integer getAcceptCount() {
+		return getIntegerProperty(ACCEPT_COUNT);
+	}
+
+	public void setAcceptCount(int acceptCount) {
+		setProperty(ACCEPT_COUNT, Integer.toString(acceptCount));
+	}
+
+	public Integer getMaxConnections() {
+		return getIntegerProperty(MAX_CONNECTIONS);
+	}
+
+	public void setMaxConnections(int maxConnections) {
+		setProperty(MAX_CONNECTIONS, Integer.toString(maxConnections));
+	}
+
+	public Integer getConnectionTimeout() {
+		return getIntegerProperty(CONNECTION_TIMEOUT);
+	}
+
+	public void setConnectionTimeout(int connectionTimeout) {
+		setProperty(CONNECTION_TIMEOUT, Integer.toString(connectionTimeout));
+	}
+
+	public Integer getKeepAliveTimeout() {
+		return getIntegerProperty(KEEP_ALIVE_TIMEOUT);
+	}
+
+	public void setKeepAliveTimeout(int keepAliveTimeout) {
+		setProperty(KEEP_ALIVE_TIMEOUT, Integer.toString(keepAliveTimeout));
+	}
+
+	public Integer getMaxKeepAliveRequests() {
+		return getIntegerProperty(MAX_KEEP_ALIVE_REQUESTS);
+	}
+
+	public void setMaxKeepAliveRequests(int maxKeepAliveRequests) {
+		setProperty(MAX_KEEP_ALIVE_REQUESTS, Integer.toString(maxKeepAliveRequests));
+	}
+
+	public Integer getMaxRequestBodySize() {
+		return getIntegerProperty(MAX_REQUEST_BODY_SIZE);
+	}
+
+	public void setMaxRequestBodySize(int maxRequestBodySize) {
+		setProperty(MAX_REQUEST_BODY_SIZE, Integer.toString(maxRequestBodySize));
+	}
+
+	public Integer getOperationThreads() {
+		return getIntegerProperty(OPERATION_THREADS);
+	}
+
+	public void setOperationThreads(int operationThreads) {
+		setProperty(OPERATION_THREADS, Integer.toString(operationThreads));
+	}
+
+	public Integer getOperationQueueSize() {
+		return getIntegerProperty(OPERATION_QUEUE_SIZE);
+	}
+
+	public void setOperationQueueSize(int operationQueueSize) {
+		setProperty(OPERATION_QUEUE_SIZE, Integer.toString(operationQueueSize));
+	}
+
+	public Integer getOperationTimeout() {
+		return getIntegerProperty(OPERATION_TIMEOUT);
+	}
+
+	public void setOperationTimeout(int operationTimeout) {
+		setProperty(OPERATION_TIMEOUT, Integer.toString(operationTimeout));
+	}
+
+	public Executor getExecutor() {
+		return executor;
+	}
+
+	/**
+	 * Sets an executor that processes the requests of the created contexts,
+	 * e.g. to share one thread pool between an AAS server and a registry. It can
+	 * not be loaded from a properties file.
+	 * 
+	 * @param executor
+	 */
+	public void setExecutor(Executor executor) {
+		this.executor = executor;
+	}
+
+	/**
+	 * Returns an optional integer property
+	 * 
+	 * @param name
+	 * @return the value or null, if the property is not set
+	 */
+	private Integer getIntegerProperty(String name) {
+		String value = getProperty(name);
+		if (value == null || value.trim().isEmpty()) {
+			return null;
+		}
+		return Integer.parseInt(value.trim());
+	}
+
 	public String getUrl() {
 		String contextPath = getContextPath();
 		String base = "http://" + getHostname() + ":" + getPort();
@@ -0,0 +1,100 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.basyx.regression.configuration;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.eclipse.basyx.components.configuration.BaSyxContextConfiguration;
+import org.eclipse.basyx.vab.protocol.http.server.BaSyxContext;
+import org.eclipse.basyx.vab.protocol.http.server.HTTPServerBackend;
+import org.junit.Test;
+
+/**
+ * Tests the creation of a BaSyxContext from a BaSyxContextConfiguration
+ * 
+ * @author schnicke
+ *
+ */
+public class TestBaSyxContextConfiguration {
+	@Test
+	public void testDefaultConnectorSettings() {
+		BaSyxContext context = new BaSyxContextConfiguration().createBaSyxContext();
+		assertNull(context.getProtocol());
+		assertNull(context.getMaxThreads());
+		assertNull(context.getAcceptCount());
+		assertNull(context.getMaxConnections());
+		assertNull(context.getKeepAliveTimeout());
+		assertNull(context.getMaxKeepAliveRequests());
+		assertNull(context.getExecutor());
+		assertEquals(HTTPServerBackend.TOMCAT, context.getServerBackend());
+	}
+
+	@Test
+	public void testServerBackend() {
+		Properties properties = new Properties();
+		properties.setProperty(BaSyxContextConfiguration.SERVER_BACKEND, "nio");
+
+		BaSyxContextConfiguration config = new BaSyxContextConfiguration();
+		config.loadFromProperties(properties);
+		assertEquals(HTTPServerBackend.NIO, config.getServerBackend());
+		assertEquals(HTTPServerBackend.NIO, config.createBaSyxContext().getServerBackend());
+	}
+
+	@Test
+	public void testConnectorSettings() {
+		Properties properties = new Properties();
+		properties.setProperty(BaSyxContextConfiguration.PROTOCOL, "nio2");
+		properties.setProperty(BaSyxContextConfiguration.MAX_THREADS, "400");
+		properties.setProperty(BaSyxContextConfiguration.MIN_SPARE_THREADS, "20");
+		properties.setProperty(BaSyxContextConfiguration.ACCEPT_COUNT, "1000");
+		properties.setProperty(BaSyxContextConfiguration.MAX_CONNECTIONS, "10000");
+		properties.setProperty(BaSyxContextConfiguration.CONNECTION_TIMEOUT, "5000");
+		properties.setProperty(BaSyxContextConfiguration.KEEP_ALIVE_TIMEOUT, "60000");
+		properties.setProperty(BaSyxContextConfiguration.MAX_KEEP_ALIVE_REQUESTS, "-1");
+
+		BaSyxContextConfiguration config = new BaSyxContextConfiguration();
+		config.loadFromProperties(properties);
+		ExecutorService executor = Executors.newFixedThreadPool(1);
+		config.setExecutor(executor);
+
+		BaSyxContext context = config.createBaSyxContext();
+		assertEquals("nio2", context.getProtocol());
+		assertEquals(400, (int) context.getMaxThreads());
+		assertEquals(20, (int) context.getMinSpareThreads());
+		assertEquals(1000, (int) context.getAcceptCount());
+		assertEquals(10000, (int) context.getMaxConnections());
+		assertEquals(5000, (int) context.getConnectionTimeout());
+		assertEquals(60000, (int) context.getKeepAliveTimeout());
+		assertEquals(-1, (int) context.getMaxKeepAliveRequests());
+		assertSame(executor, context.getExecutor());
+		executor.shutdown();
+	}
+
+	@Test
+	public void testCompressionSettings() {
+		BaSyxContextConfiguration config = new BaSyxContextConfiguration();
+		config.setCompressionEnabled(true);
+		config.setCompressionMinSize(100);
+		config.setCompressionLevel(9);
+		config.setCompressionMimeTypes("application/json", "text/plain");
+
+		BaSyxContext context = config.createBaSyxContext();
+		assertEquals(true, context.isCompressionEnabled());
+		assertEquals(100, context.getCompressionMinSize());
+		assertEquals(9, context.getCompressionLevel());
+		assertEquals(2, context.getCompressibleMimeTypes().size());
+	}
+}
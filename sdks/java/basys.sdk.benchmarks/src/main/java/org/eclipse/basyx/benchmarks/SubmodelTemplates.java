@@ -0,0 +1,128 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.basyx.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.basyx.submodel.metamodel.api.identifier.IdentifierType;
+import org.eclipse.basyx.submodel.metamodel.map.Submodel;
+import org.eclipse.basyx.submodel.metamodel.map.identifier.Identifier;
+import org.eclipse.basyx.submodel.metamodel.map.qualifier.LangString;
+import org.eclipse.basyx.submodel.metamodel.map.submodelelement.SubmodelElement;
+import org.eclipse.basyx.submodel.metamodel.map.submodelelement.dataelement.property.Property;
+import org.eclipse.basyx.submodel.types.digitalnameplate.DigitalNameplateSubmodel;
+import org.eclipse.basyx.submodel.types.digitalnameplate.submodelelementcollections.address.Address;
+import org.eclipse.basyx.submodel.types.digitalnameplate.submodelelementcollections.assetspecificproperties.AssetSpecificProperties;
+import org.eclipse.basyx.submodel.types.digitalnameplate.submodelelementcollections.assetspecificproperties.GuidelineSpecificProperties;
+import org.eclipse.basyx.submodel.types.technicaldata.TechnicalDataSubmodel;
+import org.eclipse.basyx.submodel.types.technicaldata.submodelelementcollections.furtherinformation.FurtherInformation;
+import org.eclipse.basyx.submodel.types.technicaldata.submodelelementcollections.generalinformation.GeneralInformation;
+import org.eclipse.basyx.submodel.types.technicaldata.submodelelementcollections.productclassifications.ProductClassificationItem;
+import org.eclipse.basyx.submodel.types.technicaldata.submodelelementcollections.productclassifications.ProductClassifications;
+import org.eclipse.basyx.submodel.types.technicaldata.submodelelementcollections.technicalproperties.TechnicalProperties;
+
+/**
+ * Creates filled instances of the submodel templates that are used as payload
+ * in the benchmarks
+ *
+ * @author schnicke
+ *
+ */
+public class SubmodelTemplates {
+	/**
+	 * Number of arbitrary technical properties added to the TechnicalData submodel
+	 */
+	public static final int TECHNICAL_PROPERTIES = 50;
+
+	private SubmodelTemplates() {
+	}
+
+	/**
+	 * Creates a submodel by the simple name of its template, i.e.
+	 * <i>DigitalNameplate</i> or <i>TechnicalData</i>
+	 *
+	 * @param template
+	 * @return
+	 */
+	public static Submodel create(String template) {
+		switch (template) {
+		case "DigitalNameplate":
+			return createDigitalNameplate();
+		case "TechnicalData":
+			return createTechnicalData();
+		default:
+			throw new IllegalArgumentException("Unknown template " + template);
+		}
+	}
+
+	public static DigitalNameplateSubmodel createDigitalNameplate() {
+		Address address = new Address(new LangString("DE", "Musterstraße 1"), new LangString("DE", "12345"), new LangString("DE", "Musterstadt"), new LangString("DE", "DE"));
+		DigitalNameplateSubmodel nameplate = new DigitalNameplateSubmodel(new Identifier(IdentifierType.IRI, "https://example.org/nameplate/1"), new LangString("EN", "Test Manufacturer"),
+				new LangString("EN", "Test Designation"), address, new LangString("EN", "Test Product Family"), "2021");
+		nameplate.setSerialNumber("123456");
+
+		List<Property> arbitrary = Arrays.asList(new Property("Arbitrary1", "Value1"), new Property("Arbitrary2", 2));
+		GuidelineSpecificProperties guideline = new GuidelineSpecificProperties("GuidelineSpecificProperties01", "2014/35/EU", arbitrary);
+		nameplate.setAssetSpecificProperties(new AssetSpecificProperties(Collections.singletonList(guideline)));
+		return nameplate;
+	}
+
+	public static TechnicalDataSubmodel createTechnicalData() {
+		GeneralInformation generalInformation = new GeneralInformation("Test Manufacturer", new LangString("EN", "Test Designation"), "PN-4711", "OC-0815");
+
+		ProductClassifications classifications = new ProductClassifications();
+		classifications.setProductClassificationItems(Collections.singletonList(new ProductClassificationItem("ProductClassificationItem01", "ECLASS", "27-01-88-77")));
+
+		TechnicalProperties properties = new TechnicalProperties();
+		List<SubmodelElement> elements = new ArrayList<>();
+		for (int i = 0; i < TECHNICAL_PROPERTIES; i++) {
+			elements.add(createTechnicalProperty(i));
+		}
+		properties.setArbitrary(elements);
+
+		FurtherInformation furtherInformation = new FurtherInformation(new Property(FurtherInformation.VALIDDATEID, "2021-01-01T00:00:00"));
+
+		return new TechnicalDataSubmodel(new Identifier(IdentifierType.IRI, "https://example.org/technicaldata/1"), generalInformation, classifications, properties, furtherInformation);
+	}
+
+	/**
+	 * Creates a submodel with the given number of properties
+	 *
+	 * @param properties
+	 * @return
+	 */
+	public static Submodel createWithProperties(int properties) {
+		Submodel submodel = new Submodel("Properties" + properties, new Identifier(IdentifierType.IRI, "https://example.org/properties/" + properties));
+		for (int i = 0; i < properties; i++) {
+			submodel.addSubmodelElement(createTechnicalProperty(i));
+		}
+		return submodel;
+	}
+
+	/**
+	 * Cycles through the value types that occur in typical property traffic
+	 */
+	private static Property createTechnicalProperty(int i) {
+		String idShort = "Property" + i;
+		switch (i % 4) {
+		case 0:
+			return new Property(idShort, i);
+		case 1:
+			return new Property(idShort, i * 1.5);
+		case 2:
+			return new Property(idShort, i % 8 == 2);
+		default:
+			return new Property(idShort, "Value" + i);
+		}
+	}
+}
@@ -0,0 +1,93 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.basyx.benchmarks.aas.registration;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.basyx.aas.metamodel.map.descriptor.AASDescriptor;
+import org.eclipse.basyx.aas.metamodel.map.descriptor.SubmodelDescriptor;
+import org.eclipse.basyx.aas.registration.memory.AASRegistry;
+import org.eclipse.basyx.aas.registration.memory.InMemoryRegistry;
+import org.eclipse.basyx.submodel.metamodel.api.identifier.IIdentifier;
+import org.eclipse.basyx.submodel.metamodel.api.identifier.IdentifierType;
+import org.eclipse.basyx.submodel.metamodel.map.identifier.Identifier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures lookups of {@link AASRegistry} with a large number of registered
+ * descriptors
+ *
+ * @author schnicke
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class AASRegistryBenchmark {
+
+	/**
+	 * Number of registered AAS descriptors, each with one submodel descriptor
+	 */
+	@Param({ "10000", "100000" })
+	public int descriptors;
+
+	private AASRegistry registry;
+	private IIdentifier[] aasIds;
+	private IIdentifier[] smIds;
+	private int next = 0;
+
+	@Setup
+	public void setup() {
+		registry = new InMemoryRegistry();
+		aasIds = new IIdentifier[descriptors];
+		smIds = new IIdentifier[descriptors];
+		for (int i = 0; i < descriptors; i++) {
+			aasIds[i] = new Identifier(IdentifierType.IRI, "https://example.org/aas/" + i);
+			smIds[i] = new Identifier(IdentifierType.IRI, "https://example.org/sm/" + i);
+
+			String endpoint = "http://localhost:4001/aasServer/shells/" + i + "/aas";
+			AASDescriptor descriptor = new AASDescriptor("aas" + i, aasIds[i], endpoint);
+			descriptor.addSubmodelDescriptor(new SubmodelDescriptor("sm" + i, smIds[i], endpoint + "/submodels/sm" + i + "/submodel"));
+			registry.register(descriptor);
+		}
+	}
+
+	/**
+	 * Cycles through the registered descriptors
+	 */
+	private int nextIndex() {
+		next = (next + 1) % descriptors;
+		return next;
+	}
+
+	@Benchmark
+	public Object lookupAAS() {
+		return registry.lookupAAS(aasIds[nextIndex()]);
+	}
+
+	@Benchmark
+	public Object lookupSubmodel() {
+		int index = nextIndex();
+		return registry.lookupSubmodel(aasIds[index], smIds[index]);
+	}
+}
@@ -0,0 +1,106 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.basyx.benchmarks.aas.restapi;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.eclipse.basyx.aas.metamodel.api.parts.asset.AssetKind;
+import org.eclipse.basyx.aas.metamodel.map.AssetAdministrationShell;
+import org.eclipse.basyx.aas.metamodel.map.descriptor.ModelUrn;
+import org.eclipse.basyx.aas.metamodel.map.parts.Asset;
+import org.eclipse.basyx.aas.restapi.AASModelProvider;
+import org.eclipse.basyx.aas.restapi.MultiSubmodelProvider;
+import org.eclipse.basyx.benchmarks.SubmodelTemplates;
+import org.eclipse.basyx.submodel.metamodel.api.identifier.IdentifierType;
+import org.eclipse.basyx.submodel.metamodel.map.identifier.Identifier;
+import org.eclipse.basyx.submodel.metamodel.map.submodelelement.operation.Operation;
+import org.eclipse.basyx.submodel.restapi.SubmodelProvider;
+import org.eclipse.basyx.submodel.types.technicaldata.TechnicalDataSubmodel;
+import org.eclipse.basyx.vab.modelprovider.VABPath;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures GET, PUT and invoke requests passing through
+ * {@link MultiSubmodelProvider}, {@link SubmodelProvider} and the submodel
+ * element providers, i.e. the provider chain of an AAS server without the
+ * transport layer
+ *
+ * @author schnicke
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MultiSubmodelProviderBenchmark {
+	private static final String SUBMODEL_PATH = "/aas/submodels/" + TechnicalDataSubmodel.SUBMODELID + "/submodel";
+	private static final String PROPERTY_PATH = SUBMODEL_PATH + "/submodelElements/" + TechnicalDataSubmodel.TECHNICALPROPERTIESID + "/Property0/value";
+	private static final String OPERATION_PATH = SUBMODEL_PATH + "/submodelElements/Add/" + Operation.INVOKE;
+
+	private static final VABPath PARSED_PROPERTY_PATH = VABPath.parse(PROPERTY_PATH);
+
+	private MultiSubmodelProvider provider;
+	private int value = 0;
+
+	@Setup
+	public void setup() {
+		TechnicalDataSubmodel submodel = SubmodelTemplates.createTechnicalData();
+		Operation add = new Operation((Function<Object[], Object>) v -> (int) v[0] + (int) v[1]);
+		add.setIdShort("Add");
+		submodel.addSubmodelElement(add);
+
+		AssetAdministrationShell aas = new AssetAdministrationShell("BenchmarkAAS", new ModelUrn("urn:org.eclipse.basyx:benchmark:aas"),
+				new Asset("BenchmarkAsset", new Identifier(IdentifierType.CUSTOM, "BenchmarkAsset"), AssetKind.INSTANCE));
+
+		provider = new MultiSubmodelProvider();
+		provider.setAssetAdministrationShell(new AASModelProvider(aas));
+		provider.addSubmodel(new SubmodelProvider(submodel));
+	}
+
+	@Benchmark
+	public Object getPropertyValue() {
+		return provider.getValue(PROPERTY_PATH);
+	}
+
+	/**
+	 * Passes a path that has been parsed before, e.g. by the transport layer
+	 */
+	@Benchmark
+	public Object getPropertyValueParsed() {
+		return provider.getValue(PARSED_PROPERTY_PATH);
+	}
+
+	@Benchmark
+	public Object getSubmodel() {
+		return provider.getValue(SUBMODEL_PATH);
+	}
+
+	@Benchmark
+	public void setPropertyValue() {
+		provider.setValue(PROPERTY_PATH, value++);
+	}
+
+	@Benchmark
+	public Object invokeOperation() {
+		return provider.invokeOperation(OPERATION_PATH, 3, 4);
+	}
+}
@@ -0,0 +1,78 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.basyx.benchmarks.submodel.metamodel;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.basyx.submodel.metamodel.map.submodelelement.dataelement.property.PrimitiveProperty;
+import org.eclipse.basyx.submodel.metamodel.map.submodelelement.dataelement.property.Property;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures updates of a single property at a high rate, as done e.g. for
+ * sensor values. The updates of a {@link PrimitiveProperty} are expected to
+ * reach well above 1M updates per second without any steady-state allocation
+ * (<i>gc.alloc.rate.norm</i> of 0), while the updates of a {@link Property}
+ * box each value.
+ *
+ * @author schnicke
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PrimitivePropertyBenchmark {
+	private Property property;
+	private PrimitiveProperty longProperty;
+	private PrimitiveProperty doubleProperty;
+
+	// Values outside of the cache of boxed values
+	private long counter = 1 << 20;
+
+	@Setup
+	public void setup() {
+		property = new Property("property", 0L);
+		longProperty = new PrimitiveProperty("long", 0L);
+		doubleProperty = new PrimitiveProperty("double", 0.0);
+	}
+
+	@Benchmark
+	public void setValue() {
+		property.setValue(counter++);
+	}
+
+	@Benchmark
+	public void setLong() {
+		longProperty.setLong(counter++);
+	}
+
+	@Benchmark
+	public void setDouble() {
+		doubleProperty.setDouble(counter++ * 0.5);
+	}
+
+	@Benchmark
+	public long setAndGetLong() {
+		longProperty.setLong(longProperty.getLong() + 1);
+		return longProperty.getLong();
+	}
+}
@@ -0,0 +1,73 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.basyx.benchmarks.submodel.metamodel;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.basyx.submodel.metamodel.map.submodelelement.dataelement.property.PrimitiveProperty;
+import org.eclipse.basyx.submodel.metamodel.map.submodelelement.dataelement.property.PropertyHistory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures recording and reading the {@link PropertyHistory} of a property
+ * updated at a high rate. Recording is expected to allocate nothing
+ * (<i>gc.alloc.rate.norm</i> of 0) and reading the latest records is expected
+ * to allocate the same amount regardless of the capacity of the history.
+ *
+ * @author schnicke
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PropertyHistoryBenchmark {
+	@Param({ "1024", "1048576" })
+	public int capacity;
+
+	private PrimitiveProperty property;
+	private PropertyHistory history;
+	private long counter;
+
+	@Setup
+	public void setup() {
+		property = new PrimitiveProperty("property", 0.0);
+		history = property.enableHistory(capacity);
+
+		// Fills the history, so that records are overwritten
+		for (int i = 0; i < capacity; i++) {
+			property.setDouble(counter++);
+		}
+	}
+
+	@Benchmark
+	public void record() {
+		property.setDouble(counter++ * 0.5);
+	}
+
+	@Benchmark
+	public List<Map<String, Object>> readLatest() {
+		return history.read(Long.MIN_VALUE, Long.MAX_VALUE, 100);
+	}
+}
@@ -0,0 +1,129 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.basyx.benchmarks.submodel.restapi;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.basyx.benchmarks.SubmodelTemplates;
+import org.eclipse.basyx.submodel.metamodel.map.Submodel;
+import org.eclipse.basyx.submodel.metamodel.map.submodelelement.dataelement.property.Property;
+import org.eclipse.basyx.submodel.restapi.api.ISubmodelAPI;
+import org.eclipse.basyx.submodel.restapi.concurrent.ConcurrentSubmodelAPI;
+import org.eclipse.basyx.submodel.restapi.vab.VABSubmodelAPI;
+import org.eclipse.basyx.vab.modelprovider.lambda.VABLambdaProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Stresses a {@link ConcurrentSubmodelAPI} with concurrent readers and
+ * writers, as an AAS server does with parallel requests: <br />
+ * - <i>readValue</i> reads property values <br />
+ * - <i>readElements</i> reads all elements <br />
+ * - <i>writeValue</i> updates the property values <br />
+ * - <i>addDelete</i> changes the structure of the submodel <br />
+ * <br />
+ * The API either keeps the property values in slots or reads each value from
+ * the backend. After the run, the submodel is checked for lost or corrupted
+ * elements.
+ *
+ * @author schnicke
+ *
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConcurrentSubmodelAPIBenchmark {
+	public static final int PROPERTIES = 50;
+
+	@Param({ "slots", "backend" })
+	public String values;
+
+	private Submodel submodel;
+	private Set<String> initialElements;
+	private ISubmodelAPI api;
+
+	private final AtomicInteger counter = new AtomicInteger();
+
+	@Setup
+	public void setup() {
+		submodel = SubmodelTemplates.createWithProperties(PROPERTIES);
+		initialElements = new HashSet<>(submodel.getSubmodelElements().keySet());
+		if ("slots".equals(values)) {
+			api = new ConcurrentSubmodelAPI(submodel);
+		} else {
+			api = new ConcurrentSubmodelAPI(new VABSubmodelAPI(new VABLambdaProvider(submodel)));
+		}
+	}
+
+	@TearDown
+	public void verify() {
+		if (!submodel.getSubmodelElements().keySet().containsAll(initialElements)) {
+			throw new IllegalStateException("Elements of the submodel have been lost");
+		}
+		for (String idShort : initialElements) {
+			api.getSubmodelElementValue(idShort);
+		}
+	}
+
+	private String nextProperty() {
+		return "Property" + Math.floorMod(counter.getAndIncrement(), PROPERTIES);
+	}
+
+	@Benchmark
+	@Group("readWrite")
+	@GroupThreads(4)
+	public Object readValue() {
+		return api.getSubmodelElementValue(nextProperty());
+	}
+
+	@Benchmark
+	@Group("readWrite")
+	@GroupThreads(1)
+	public Object readElements() {
+		return api.getSubmodelElements();
+	}
+
+	@Benchmark
+	@Group("readWrite")
+	@GroupThreads(2)
+	public void writeValue() {
+		int next = counter.getAndIncrement();
+		String idShort = "Property" + Math.floorMod(next, PROPERTIES);
+		Object current = api.getSubmodelElementValue(idShort);
+		api.updateSubmodelElement(idShort, current);
+	}
+
+	@Benchmark
+	@Group("readWrite")
+	@GroupThreads(1)
+	public void addDelete() {
+		String idShort = "Temporary" + counter.getAndIncrement();
+		api.addSubmodelElement(new Property(idShort, 0));
+		api.deleteSubmodelElement(idShort);
+	}
+}
@@ -0,0 +1,120 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.basyx.benchmarks.submodel.restapi;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.basyx.benchmarks.SubmodelTemplates;
+import org.eclipse.basyx.submodel.metamodel.map.Submodel;
+import org.eclipse.basyx.submodel.restapi.SubmodelProvider;
+import org.eclipse.basyx.submodel.restapi.snapshot.SnapshotSubmodelAPI;
+import org.eclipse.basyx.submodel.restapi.vab.VABSubmodelAPI;
+import org.eclipse.basyx.vab.coder.json.serialization.DefaultTypeFactory;
+import org.eclipse.basyx.vab.coder.json.serialization.GSONTools;
+import org.eclipse.basyx.vab.modelprovider.lambda.VABLambdaProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares serializing the copies returned by
+ * {@link SubmodelProvider#getValue(String)} with serializing the read-only
+ * views returned by {@link SubmodelProvider#getValueView(String)}, as it is
+ * done for GET requests, for a submodel with 10k properties. The allocation
+ * difference is reported by the GC profiler (<i>gc.alloc.rate.norm</i>).
+ *
+ * @author schnicke
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SubmodelViewBenchmark {
+	public static final int PROPERTIES = 10000;
+
+	private static final String SUBMODEL = "/submodel";
+	private static final String ELEMENTS = "/submodel/submodelElements";
+
+	@Param({ "vab", "snapshot" })
+	public String api;
+
+	private SubmodelProvider provider;
+	private GSONTools tools;
+	private CountingOutputStream out;
+
+	@Setup
+	public void setup() {
+		Submodel submodel = SubmodelTemplates.createWithProperties(PROPERTIES);
+		if ("vab".equals(api)) {
+			provider = new SubmodelProvider(new VABSubmodelAPI(new VABLambdaProvider(submodel)));
+		} else {
+			provider = new SubmodelProvider(new SnapshotSubmodelAPI(submodel));
+		}
+		tools = new GSONTools(new DefaultTypeFactory());
+		out = new CountingOutputStream();
+	}
+
+	@Benchmark
+	public long serializeSubmodelCopy() throws IOException {
+		return serialize(provider.getValue(SUBMODEL));
+	}
+
+	@Benchmark
+	public long serializeSubmodelView() throws IOException {
+		return serialize(provider.getValueView(SUBMODEL));
+	}
+
+	@Benchmark
+	public long serializeElementsCopy() throws IOException {
+		return serialize(provider.getValue(ELEMENTS));
+	}
+
+	@Benchmark
+	public long serializeElementsView() throws IOException {
+		return serialize(provider.getValueView(ELEMENTS));
+	}
+
+	private long serialize(Object value) throws IOException {
+		out.count = 0;
+		tools.serialize(value, out);
+		return out.count;
+	}
+
+	/**
+	 * Drops the serialized bytes, so that only the allocations of the provider and
+	 * the serializer are measured
+	 */
+	private static class CountingOutputStream extends OutputStream {
+		private long count;
+
+		@Override
+		public void write(int b) {
+			count++;
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) {
+			count += len;
+		}
+	}
+}
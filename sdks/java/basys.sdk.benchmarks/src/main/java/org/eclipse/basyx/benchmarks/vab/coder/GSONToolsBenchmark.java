@@ -0,0 +1,71 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.basyx.benchmarks.vab.coder;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.basyx.benchmarks.SubmodelTemplates;
+import org.eclipse.basyx.submodel.metamodel.map.Submodel;
+import org.eclipse.basyx.vab.coder.json.serialization.DefaultTypeFactory;
+import org.eclipse.basyx.vab.coder.json.serialization.GSONTools;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the String based JSON (de-)serialization of {@link GSONTools}, as
+ * used by the connectors and providers, for submodels of different sizes
+ *
+ * @author schnicke
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GSONToolsBenchmark {
+
+	/**
+	 * Number of properties of the submodel
+	 */
+	@Param({ "10", "100", "1000" })
+	public int properties;
+
+	private GSONTools tools;
+	private Submodel submodel;
+	private String serialized;
+
+	@Setup
+	public void setup() {
+		tools = new GSONTools(new DefaultTypeFactory());
+		submodel = SubmodelTemplates.createWithProperties(properties);
+		serialized = tools.serialize(submodel);
+	}
+
+	@Benchmark
+	public String serialize() {
+		return tools.serialize(submodel);
+	}
+
+	@Benchmark
+	public Object deserialize() {
+		return tools.deserialize(serialized);
+	}
+}
@@ -0,0 +1,100 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.basyx.benchmarks.vab.coder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.basyx.benchmarks.SubmodelTemplates;
+import org.eclipse.basyx.vab.coder.binary.serialization.BinaryTools;
+import org.eclipse.basyx.vab.coder.json.serialization.DefaultTypeFactory;
+import org.eclipse.basyx.vab.coder.json.serialization.GSONTools;
+import org.eclipse.basyx.vab.coder.json.serialization.StreamingSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the JSON encoding of {@link GSONTools} to the binary encoding of
+ * {@link BinaryTools} on the DigitalNameplate and TechnicalData submodel
+ * templates. <br />
+ * Run e.g. with <i>java -jar target/benchmarks.jar SerializationBenchmark</i>.
+ * The serialized sizes are printed by {@link #main(String[])}.
+ *
+ * @author schnicke
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+	@Param({ "DigitalNameplate", "TechnicalData" })
+	public String template;
+
+	@Param({ "json", "binary" })
+	public String encoding;
+
+	private StreamingSerializer serializer;
+	private Object submodel;
+	private byte[] serialized;
+
+	@Setup
+	public void setup() throws IOException {
+		if ("binary".equals(encoding)) {
+			serializer = new BinaryTools(new DefaultTypeFactory());
+		} else {
+			serializer = new GSONTools(new DefaultTypeFactory());
+		}
+
+		submodel = SubmodelTemplates.create(template);
+		serialized = serialize();
+	}
+
+	@Benchmark
+	public byte[] serialize() throws IOException {
+		ByteArrayOutputStream outStream = new ByteArrayOutputStream();
+		serializer.serialize(submodel, outStream);
+		return outStream.toByteArray();
+	}
+
+	@Benchmark
+	public Object deserialize() throws IOException {
+		return serializer.deserialize(new ByteArrayInputStream(serialized));
+	}
+
+	/**
+	 * Prints the serialized size of each template in each encoding
+	 */
+	public static void main(String[] args) throws IOException {
+		for (String template : new String[] { "DigitalNameplate", "TechnicalData" }) {
+			for (String encoding : new String[] { "json", "binary" }) {
+				SerializationBenchmark benchmark = new SerializationBenchmark();
+				benchmark.template = template;
+				benchmark.encoding = encoding;
+				benchmark.setup();
+				System.out.println("Serialized size of " + template + " (" + encoding + "): " + benchmark.serialized.length + " bytes");
+			}
+		}
+	}
+}
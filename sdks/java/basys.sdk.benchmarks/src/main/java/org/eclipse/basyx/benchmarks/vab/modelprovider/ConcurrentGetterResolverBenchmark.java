@@ -0,0 +1,95 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.basyx.benchmarks.vab.modelprovider;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.basyx.vab.modelprovider.lambda.ConcurrentGetterResolver;
+import org.eclipse.basyx.vab.modelprovider.lambda.ConcurrentGetterResolver.Fallback;
+import org.eclipse.basyx.vab.modelprovider.lambda.VABLambdaProvider;
+import org.eclipse.basyx.vab.modelprovider.lambda.VABLambdaProviderHelper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures reading 200 lambda properties, whose getters simulate a device read
+ * of 1 ms each. Sequential resolution is expected to take the sum of all reads
+ * (about 200 ms), concurrent resolution by {@link ConcurrentGetterResolver}
+ * about the sum divided by the number of threads, and memoised resolution
+ * only the time to copy the values.
+ *
+ * @author schnicke
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConcurrentGetterResolverBenchmark {
+	private static final int PROPERTIES = 200;
+	private static final int THREADS = 32;
+
+	@Param({ "sequential", "concurrent", "memoised" })
+	public String resolution;
+
+	private ExecutorService executor;
+	private VABLambdaProvider provider;
+
+	@Setup
+	public void setup() {
+		Map<String, Object> root = new HashMap<>();
+		for (int i = 0; i < PROPERTIES; i++) {
+			int value = i;
+			root.put("property" + i, VABLambdaProviderHelper.createSimple(() -> {
+				try {
+					Thread.sleep(1);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				return value;
+			}, null));
+		}
+
+		executor = Executors.newFixedThreadPool(THREADS);
+		if (resolution.equals("sequential")) {
+			provider = new VABLambdaProvider(root);
+		} else if (resolution.equals("concurrent")) {
+			provider = new VABLambdaProvider(root, new ConcurrentGetterResolver(executor, 1000));
+		} else {
+			provider = new VABLambdaProvider(root, new ConcurrentGetterResolver(executor, 1000, 60000, Fallback.LAST_KNOWN_VALUE, null));
+		}
+	}
+
+	@TearDown
+	public void tearDown() {
+		executor.shutdownNow();
+	}
+
+	@Benchmark
+	public Object getAllValues() {
+		return provider.getValue("");
+	}
+}
@@ -0,0 +1,76 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.basyx.benchmarks.vab.modelprovider;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.basyx.vab.modelprovider.lambda.VABLambdaProvider;
+import org.eclipse.basyx.vab.modelprovider.lambda.VABLambdaProviderHelper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the resolution of lambda getters by {@link VABLambdaProvider}, both
+ * for a single value and for a map whose values all have to be resolved
+ *
+ * @author schnicke
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VABLambdaProviderBenchmark {
+
+	/**
+	 * Number of lambda properties
+	 */
+	@Param({ "10", "100" })
+	public int properties;
+
+	private VABLambdaProvider provider;
+
+	@Setup
+	public void setup() {
+		Map<String, Object> values = new HashMap<>();
+		for (int i = 0; i < properties; i++) {
+			int value = i;
+			values.put("property" + i, VABLambdaProviderHelper.createSimple(() -> value, v -> {
+			}));
+		}
+
+		Map<String, Object> root = new HashMap<>();
+		root.put("values", values);
+		provider = new VABLambdaProvider(root);
+	}
+
+	@Benchmark
+	public Object getSingleValue() {
+		return provider.getValue("/values/property0");
+	}
+
+	@Benchmark
+	public Object getAllValues() {
+		return provider.getValue("/values");
+	}
+}
@@ -0,0 +1,86 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.basyx.benchmarks.vab.modelprovider;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.basyx.vab.modelprovider.VABPath;
+import org.eclipse.basyx.vab.modelprovider.VABPathTools;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the path manipulations of {@link VABPathTools} that are executed
+ * for every request on the way through the provider chain, compared to parsing
+ * the path once into a {@link VABPath} and slicing it
+ *
+ * @author schnicke
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VABPathToolsBenchmark {
+	private static final String SERVER = "http://localhost:4001/aasServer/shells/urn:de.fraunhofer:aas%2311";
+
+	// Non-final to prevent constant folding
+	private String path = "/aas/submodels/TechnicalData/submodel/submodelElements/TechnicalProperties/Property42/value/";
+	private String[] elements = VABPathTools.splitPath(path);
+	private VABPath parsed = VABPath.parse(path);
+
+	@Benchmark
+	public String[] splitPath() {
+		return VABPathTools.splitPath(path);
+	}
+
+	@Benchmark
+	public String stripSlashes() {
+		return VABPathTools.stripSlashes(path);
+	}
+
+	@Benchmark
+	public String buildPath() {
+		return VABPathTools.buildPath(elements, 2);
+	}
+
+	@Benchmark
+	public String concatenatePaths() {
+		return VABPathTools.concatenatePaths(SERVER, path);
+	}
+
+	@Benchmark
+	public VABPath parse() {
+		return VABPath.parse(path);
+	}
+
+	@Benchmark
+	public VABPath skip() {
+		return parsed.skip(2);
+	}
+
+	/**
+	 * Skipping the elements handled by each provider as done on the way through
+	 * the provider chain, compared to {@link #buildPath()}
+	 */
+	@Benchmark
+	public String skipToString() {
+		return parsed.skip(2).skip(2).skip(1).toString();
+	}
+}
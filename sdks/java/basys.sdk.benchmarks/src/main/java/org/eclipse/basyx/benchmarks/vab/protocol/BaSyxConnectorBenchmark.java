@@ -0,0 +1,171 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.basyx.benchmarks.vab.protocol;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.basyx.vab.coder.json.connector.JSONConnector;
+import org.eclipse.basyx.vab.exception.provider.ProviderException;
+import org.eclipse.basyx.vab.modelprovider.map.VABMapProvider;
+import org.eclipse.basyx.vab.protocol.basyx.CoderTools;
+import org.eclipse.basyx.vab.protocol.basyx.connector.BaSyxConnectionConfiguration;
+import org.eclipse.basyx.vab.protocol.basyx.connector.BaSyxConnectionPool;
+import org.eclipse.basyx.vab.protocol.basyx.connector.BaSyxConnector;
+import org.eclipse.basyx.vab.protocol.basyx.server.BaSyxTCPServer;
+import org.eclipse.basyx.vab.protocol.basyx.server.TCPServerMode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures calls per second of concurrent threads sharing a
+ * {@link BaSyxConnector} to a {@link BaSyxTCPServer}: <br />
+ * - <i>per-call</i> opens a connection per call and serializes the calls, as
+ * the connector did before the connections were pooled <br />
+ * - <i>pooled</i> uses persistent, pipelined connections of a
+ * {@link BaSyxConnectionPool}<br />
+ * <br />
+ * The server either serves each connection by its own thread or by selector
+ * threads and a pool of worker threads, see {@link TCPServerMode}.<br />
+ * <br />
+ * <i>getValuePipelined</i> sends a number of asynchronous calls before waiting
+ * for their responses.
+ *
+ * @author schnicke
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class BaSyxConnectorBenchmark {
+	public static final int PORT = 4105;
+	public static final int PIPELINED_CALLS = 32;
+
+	@Param({ "per-call", "pooled" })
+	public String connection;
+
+	@Param({ "ThreadPerConnection", "NIO" })
+	public String serverMode;
+
+	private BaSyxTCPServer<VABMapProvider> server;
+	private BaSyxConnectionPool pool;
+	private JSONConnector connector;
+
+	@Setup
+	public void setup() {
+		Map<String, Object> model = new HashMap<>();
+		model.put("value", 0);
+		server = new BaSyxTCPServer<>(new VABMapProvider(model), PORT, TCPServerMode.fromString(serverMode));
+		server.start();
+
+		if ("per-call".equals(connection)) {
+			connector = new JSONConnector(new PerCallBaSyxConnector("localhost", PORT));
+		} else {
+			pool = new BaSyxConnectionPool(new BaSyxConnectionConfiguration());
+			connector = new JSONConnector(new BaSyxConnector("localhost", PORT, pool));
+		}
+	}
+
+	@TearDown
+	public void tearDown() {
+		if (pool != null) {
+			pool.close();
+		}
+		server.stop();
+	}
+
+	@Benchmark
+	public Object getValue() {
+		return connector.getValue("/value");
+	}
+
+	@Benchmark
+	public void setValue() {
+		connector.setValue("/value", 1);
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(PIPELINED_CALLS)
+	public void getValuePipelined() {
+		List<CompletableFuture<Object>> futures = new ArrayList<>(PIPELINED_CALLS);
+		for (int i = 0; i < PIPELINED_CALLS; i++) {
+			futures.add(connector.getValueAsync("/value"));
+		}
+		for (CompletableFuture<Object> future : futures) {
+			future.join();
+		}
+	}
+
+	/**
+	 * Connector that opens a new connection for each call and waits for its
+	 * response, i.e. the former behavior of the {@link BaSyxConnector}
+	 */
+	private static class PerCallBaSyxConnector extends BaSyxConnector {
+		private final InetSocketAddress address;
+
+		public PerCallBaSyxConnector(String hostName, int port) {
+			super(hostName, port);
+			this.address = new InetSocketAddress(hostName, port);
+		}
+
+		@Override
+		protected synchronized String invokeBaSyx(byte[] call) {
+			try (SocketChannel channel = SocketChannel.open(address)) {
+				channel.write(ByteBuffer.wrap(call));
+
+				ByteBuffer header = read(channel, 4);
+				byte[] frame = read(channel, CoderTools.getInt32(header.array(), 0)).array();
+				int jsonResultLen = CoderTools.getInt32(frame, 1);
+				return new String(frame, 1 + 4, jsonResultLen);
+			} catch (IOException e) {
+				throw new ProviderException(e);
+			}
+		}
+
+		@Override
+		protected CompletableFuture<String> invokeBaSyxAsync(byte[] call) {
+			return CompletableFuture.completedFuture(invokeBaSyx(call));
+		}
+
+		private static ByteBuffer read(SocketChannel channel, int size) throws IOException {
+			ByteBuffer buffer = ByteBuffer.allocate(size);
+			while (buffer.hasRemaining()) {
+				if (channel.read(buffer) < 0) {
+					throw new IOException("Connection has been closed");
+				}
+			}
+			return buffer;
+		}
+	}
+}
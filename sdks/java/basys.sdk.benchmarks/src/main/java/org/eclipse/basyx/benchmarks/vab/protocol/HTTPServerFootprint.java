@@ -0,0 +1,191 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.basyx.benchmarks.vab.protocol;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.basyx.benchmarks.SubmodelTemplates;
+import org.eclipse.basyx.vab.modelprovider.map.VABMapProvider;
+import org.eclipse.basyx.vab.protocol.http.server.BaSyxContext;
+import org.eclipse.basyx.vab.protocol.http.server.BaSyxHTTPServer;
+import org.eclipse.basyx.vab.protocol.http.server.HTTPServerBackend;
+import org.eclipse.basyx.vab.protocol.http.server.VABHTTPInterface;
+
+/**
+ * Compares the startup time and resident memory (RSS) of the
+ * {@link BaSyxHTTPServer} backends. JMH can not measure the memory of a whole
+ * process, thus each backend is started in a child JVM: <br />
+ * - <i>startup</i> is the time from launching the JVM until the first request
+ * has been answered <br />
+ * - <i>RSS</i> is the resident memory of the child after a number of requests,
+ * read from /proc, i.e. it is only available on Linux <br />
+ * <br />
+ * Run e.g. with <i>java -cp target/benchmarks.jar
+ * org.eclipse.basyx.benchmarks.vab.protocol.HTTPServerFootprint [runs]
+ * [requests]</i>. The options of the child JVMs, e.g. <i>-Xmx64m</i>, can be
+ * passed in the system property <i>footprint.jvmArgs</i>.
+ *
+ * @author schnicke
+ *
+ */
+public class HTTPServerFootprint {
+	public static final int PORT = 4104;
+
+	private static final String SERVE = "serve";
+	private static final long STARTUP_TIMEOUT = 60000;
+	private static final String URL = "http://localhost:" + PORT + "/basys.benchmarks/provider/submodel";
+
+	public static void main(String[] args) throws Exception {
+		if (args.length > 0 && SERVE.equals(args[0])) {
+			serve(HTTPServerBackend.fromString(args[1]));
+			return;
+		}
+
+		int runs = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+		int requests = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+
+		System.out.println("Backend\tRun\tStartup [ms]\tRSS [MB]");
+		for (HTTPServerBackend backend : HTTPServerBackend.values()) {
+			long startupSum = 0;
+			long rssSum = 0;
+			for (int run = 1; run <= runs; run++) {
+				long[] result = measure(backend, requests);
+				startupSum += result[0];
+				rssSum += result[1];
+				System.out.println(backend + "\t" + run + "\t" + result[0] + "\t" + formatRSS(result[1]));
+			}
+			System.out.println(backend + "\tavg\t" + startupSum / runs + "\t" + formatRSS(rssSum / runs));
+		}
+	}
+
+	/**
+	 * Starts a child JVM serving a submodel with the backend, measures the time
+	 * until the first response and its RSS after the requests
+	 *
+	 * @param backend
+	 * @param requests
+	 * @return startup time in milliseconds and RSS in kB
+	 */
+	private static long[] measure(HTTPServerBackend backend, int requests) throws IOException, InterruptedException {
+		List<String> command = new ArrayList<>();
+		command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+		String jvmArgs = System.getProperty("footprint.jvmArgs");
+		if (jvmArgs != null && !jvmArgs.trim().isEmpty()) {
+			for (String arg : jvmArgs.trim().split("\\s+")) {
+				command.add(arg);
+			}
+		}
+		command.add("-cp");
+		command.add(System.getProperty("java.class.path"));
+		command.add(HTTPServerFootprint.class.getName());
+		command.add(SERVE);
+		command.add(backend.toString());
+
+		long start = System.nanoTime();
+		Process process = new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.INHERIT).start();
+		try {
+			BufferedReader output = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8));
+			long deadline = System.currentTimeMillis() + STARTUP_TIMEOUT;
+			while (!request()) {
+				if (!process.isAlive() || System.currentTimeMillis() > deadline) {
+					throw new IllegalStateException("The " + backend + " server did not start");
+				}
+				Thread.sleep(1);
+			}
+			long startup = (System.nanoTime() - start) / 1000000;
+
+			for (int i = 0; i < requests; i++) {
+				request();
+			}
+
+			// Any input makes the child report its RSS and terminate
+			OutputStream input = process.getOutputStream();
+			input.write('\n');
+			input.flush();
+
+			String line;
+			while ((line = output.readLine()) != null) {
+				String rss = line.replaceAll("[^0-9]", "");
+				if (line.startsWith("VmRSS:") && !rss.isEmpty()) {
+					return new long[] { startup, Long.parseLong(rss) };
+				}
+			}
+			return new long[] { startup, -1 };
+		} finally {
+			process.destroy();
+			process.waitFor();
+		}
+	}
+
+	/**
+	 * Performs a request with a new connection, as a client would do at startup
+	 *
+	 * @return false, if the server is not available yet
+	 */
+	private static boolean request() {
+		try {
+			HttpURLConnection connection = (HttpURLConnection) new URL(URL).openConnection();
+			try (InputStream in = connection.getInputStream()) {
+				byte[] buffer = new byte[8192];
+				while (in.read(buffer) >= 0) {
+					// Consume the response
+				}
+			}
+			return connection.getResponseCode() == 200;
+		} catch (IOException e) {
+			return false;
+		}
+	}
+
+	private static String formatRSS(long rssKB) {
+		return rssKB < 0 ? "n/a" : String.format("%.1f", rssKB / 1024.0);
+	}
+
+	/**
+	 * Serves the submodel until a line is read from stdin, then prints the RSS
+	 */
+	private static void serve(HTTPServerBackend backend) throws IOException {
+		Map<String, Object> model = new HashMap<>();
+		model.put("submodel", SubmodelTemplates.createTechnicalData());
+
+		BaSyxContext context = new BaSyxContext("/basys.benchmarks", System.getProperty("java.io.tmpdir"), "localhost", PORT);
+		context.addServletMapping("/provider/*", new VABHTTPInterface<>(new VABMapProvider(model)));
+		context.setServerBackend(backend);
+		BaSyxHTTPServer server = new BaSyxHTTPServer(context);
+		server.start();
+
+		new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8)).readLine();
+		try {
+			for (String line : Files.readAllLines(Paths.get("/proc/self/status"))) {
+				if (line.startsWith("VmRSS:")) {
+					System.out.println(line);
+				}
+			}
+		} catch (IOException e) {
+			// Not running on Linux
+		}
+		System.out.flush();
+		server.shutdown();
+	}
+}
@@ -0,0 +1,74 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.basyx.benchmarks.vab.protocol;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.basyx.vab.coder.json.connector.JSONConnector;
+import org.eclipse.basyx.vab.modelprovider.map.VABMapProvider;
+import org.eclipse.basyx.vab.protocol.http.connector.HTTPConnector;
+import org.eclipse.basyx.vab.protocol.http.server.BaSyxContext;
+import org.eclipse.basyx.vab.protocol.http.server.BaSyxHTTPServer;
+import org.eclipse.basyx.vab.protocol.http.server.HTTPServerBackend;
+import org.eclipse.basyx.vab.protocol.http.server.VABHTTPInterface;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the cold start of the {@link BaSyxHTTPServer} backends, i.e. the
+ * time from creating the server until the first request has been answered and
+ * the server is shut down again. Each measurement runs in a fresh JVM, so that
+ * class loading and initialization are included. <br />
+ * The resident memory of the backends is reported by
+ * {@link HTTPServerFootprint}.
+ *
+ * @author schnicke
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(10)
+public class HTTPServerStartupBenchmark {
+	public static final int PORT = 4103;
+
+	@Param({ "tomcat", "nio" })
+	public String backend;
+
+	@Benchmark
+	public Object startAndServe() {
+		Map<String, Object> model = new HashMap<>();
+		model.put("value", 0);
+
+		BaSyxContext context = new BaSyxContext("/basys.benchmarks", System.getProperty("java.io.tmpdir"), "localhost", PORT);
+		context.addServletMapping("/provider/*", new VABHTTPInterface<>(new VABMapProvider(model)));
+		context.setServerBackend(HTTPServerBackend.fromString(backend));
+
+		BaSyxHTTPServer server = new BaSyxHTTPServer(context);
+		server.start();
+		try {
+			return new JSONConnector(new HTTPConnector("http://localhost:" + PORT + "/basys.benchmarks/provider")).getValue("/value");
+		} finally {
+			server.shutdown();
+		}
+	}
+}
@@ -0,0 +1,115 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.basyx.benchmarks.vab.protocol;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.basyx.benchmarks.SubmodelTemplates;
+import org.eclipse.basyx.vab.coder.json.connector.JSONConnector;
+import org.eclipse.basyx.vab.modelprovider.api.IModelProvider;
+import org.eclipse.basyx.vab.modelprovider.map.VABMapProvider;
+import org.eclipse.basyx.vab.protocol.basyx.connector.BaSyxConnector;
+import org.eclipse.basyx.vab.protocol.basyx.server.BaSyxTCPServer;
+import org.eclipse.basyx.vab.protocol.http.connector.HTTPConnector;
+import org.eclipse.basyx.vab.protocol.http.server.BaSyxContext;
+import org.eclipse.basyx.vab.protocol.http.server.BaSyxHTTPServer;
+import org.eclipse.basyx.vab.protocol.http.server.HTTPServerBackend;
+import org.eclipse.basyx.vab.protocol.http.server.VABHTTPInterface;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures round trips over the loopback interface, i.e. {@link BaSyxConnector}
+ * to {@link BaSyxTCPServer} and {@link HTTPConnector} to
+ * {@link BaSyxHTTPServer}, each serving a {@link VABMapProvider}. The HTTP
+ * server is measured with both the Tomcat (<i>http</i>) and the NIO
+ * (<i>http-nio</i>) backend.
+ *
+ * @author schnicke
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoopbackBenchmark {
+	public static final int TCP_PORT = 4101;
+	public static final int HTTP_PORT = 4102;
+
+	@Param({ "tcp", "http", "http-nio" })
+	public String protocol;
+
+	private BaSyxTCPServer<VABMapProvider> tcpServer;
+	private BaSyxHTTPServer httpServer;
+	private IModelProvider connector;
+	private int value = 0;
+
+	@Setup
+	public void setup() {
+		Map<String, Object> model = new HashMap<>();
+		model.put("value", 0);
+		model.put("submodel", SubmodelTemplates.createTechnicalData());
+		VABMapProvider provider = new VABMapProvider(model);
+
+		if ("tcp".equals(protocol)) {
+			tcpServer = new BaSyxTCPServer<>(provider, TCP_PORT);
+			tcpServer.start();
+			connector = new JSONConnector(new BaSyxConnector("localhost", TCP_PORT));
+		} else {
+			BaSyxContext context = new BaSyxContext("/basys.benchmarks", System.getProperty("java.io.tmpdir"), "localhost", HTTP_PORT);
+			context.addServletMapping("/provider/*", new VABHTTPInterface<>(provider));
+			if ("http-nio".equals(protocol)) {
+				context.setServerBackend(HTTPServerBackend.NIO);
+			}
+			httpServer = new BaSyxHTTPServer(context);
+			httpServer.start();
+			connector = new JSONConnector(new HTTPConnector("http://localhost:" + HTTP_PORT + "/basys.benchmarks/provider"));
+		}
+	}
+
+	@TearDown
+	public void tearDown() {
+		if (tcpServer != null) {
+			tcpServer.stop();
+		}
+		if (httpServer != null) {
+			httpServer.shutdown();
+		}
+	}
+
+	@Benchmark
+	public Object getValue() {
+		return connector.getValue("/value");
+	}
+
+	@Benchmark
+	public void setValue() {
+		connector.setValue("/value", value++);
+	}
+
+	@Benchmark
+	public Object getSubmodel() {
+		return connector.getValue("/submodel");
+	}
+}
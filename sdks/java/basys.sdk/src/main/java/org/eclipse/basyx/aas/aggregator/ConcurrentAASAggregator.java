@@ -0,0 +1,62 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.basyx.aas.aggregator;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.basyx.aas.registration.api.IAASRegistry;
+import org.eclipse.basyx.aas.restapi.api.IAASAPIFactory;
+import org.eclipse.basyx.aas.restapi.concurrent.ConcurrentAASAPIFactory;
+import org.eclipse.basyx.submodel.restapi.api.ISubmodelAPIFactory;
+import org.eclipse.basyx.submodel.restapi.concurrent.ConcurrentSubmodelAPIFactory;
+
+/**
+ * An in-memory implementation of the IAASAggregator interface that can be
+ * accessed by any number of threads concurrently, e.g. by the request threads
+ * of a servlet container. The AAS are kept in a concurrent map and accessed
+ * through thread-safe APIs, see {@link ConcurrentAASAPIFactory} and
+ * {@link ConcurrentSubmodelAPIFactory}.
+ * 
+ * @author schnicke
+ *
+ */
+public class ConcurrentAASAggregator extends AASAggregator {
+
+	/**
+	 * Constructs a concurrent AAS Aggregator using the thread-safe in-memory APIs
+	 */
+	public ConcurrentAASAggregator() {
+		this(null);
+	}
+
+	/**
+	 * Constructs a concurrent AAS Aggregator using the passed registry. This
+	 * registry is used to resolve requests for remote submodels
+	 * 
+	 * @param registry
+	 */
+	public ConcurrentAASAggregator(IAASRegistry registry) {
+		this(new ConcurrentAASAPIFactory(), new ConcurrentSubmodelAPIFactory(), registry);
+	}
+
+	/**
+	 * Constructs a concurrent AAS Aggregator with custom API providers. The
+	 * providers have to create thread-safe APIs, e.g. by wrapping them in the
+	 * concurrent API factories.
+	 * 
+	 * @param aasApiProvider
+	 * @param smApiProvider
+	 * @param registry
+	 */
+	public ConcurrentAASAggregator(IAASAPIFactory aasApiProvider, ISubmodelAPIFactory smApiProvider, IAASRegistry registry) {
+		super(aasApiProvider, smApiProvider, registry);
+		this.aasProviderMap = new ConcurrentHashMap<>();
+	}
+}
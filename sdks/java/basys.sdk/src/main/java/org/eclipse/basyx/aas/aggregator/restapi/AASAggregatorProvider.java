@@ -20,10 +20,12 @@ import org.eclipse.basyx.submodel.metamodel.api.identifier.IdentifierType;
 import org.eclipse.basyx.submodel.metamodel.map.identifier.Identifier;
 import org.eclipse.basyx.submodel.metamodel.map.modeltype.ModelType;
 import org.eclipse.basyx.vab.exception.provider.MalformedRequestException;
+import org.eclipse.basyx.vab.exception.provider.NotSupportedException;
 import org.eclipse.basyx.vab.exception.provider.ProviderException;
 import org.eclipse.basyx.vab.exception.provider.ResourceNotFoundException;
 import org.eclipse.basyx.vab.modelprovider.VABPathTools;
 import org.eclipse.basyx.vab.modelprovider.api.IModelProvider;
+import org.eclipse.basyx.vab.modelprovider.event.IPublisher;
 
 /**
  * Connects an IAASAggregator to the VAB
@@ -113,6 +115,19 @@ public class AASAggregatorProvider implements IModelProvider {
 		}
 	}
 
+	@Override
+	public Object getValueView(String path) throws ProviderException {
+		String strippedPath = stripPrefix(path);
+		String[] splitted = VABPathTools.splitPath(strippedPath);
+		if (splitted.length > 1) { // Forward the access within an AAS as view
+			String id = VABPathTools.decodePathElement(splitted[0]);
+			String restPath = VABPathTools.skipEntries(strippedPath, 1);
+			IIdentifier identifier = new Identifier(IdentifierType.CUSTOM, id);
+			return aggregator.getAASProvider(identifier).getValueView(restPath);
+		}
+		return getValue(path);
+	}
+
 	@Override
 	public void setValue(String path, Object newValue) throws ProviderException {
 		path = stripPrefix(path);
@@ -200,4 +215,56 @@ public class AASAggregatorProvider implements IModelProvider {
 		return aggregator.getAASProvider(identifier).invokeOperation(restPath, parameter);
 	}
 
+	@Override
+	public IPublisher<Object> getEventPublisher(String path) throws ProviderException {
+		path = stripPrefix(path);
+		if (!path.contains("/")) {
+			throw new MalformedRequestException("Events are not supported by aggregator for path " + path);
+		}
+
+		String id = VABPathTools.decodePathElement(VABPathTools.getEntry(path, 0));
+		String restPath = VABPathTools.skipEntries(path, 1);
+		IIdentifier identifier = new Identifier(IdentifierType.CUSTOM, id);
+		return aggregator.getAASProvider(identifier).getEventPublisher(restPath);
+	}
+
+	@Override
+	public boolean supportsVersions(String path) {
+		path = stripPrefix(path);
+		if (!path.contains("/")) {
+			return false;
+		}
+
+		String id = VABPathTools.decodePathElement(VABPathTools.getEntry(path, 0));
+		String restPath = VABPathTools.skipEntries(path, 1);
+		IIdentifier identifier = new Identifier(IdentifierType.CUSTOM, id);
+		return aggregator.getAASProvider(identifier).supportsVersions(restPath);
+	}
+
+	@Override
+	public long getVersion(String path) throws ProviderException {
+		path = stripPrefix(path);
+		if (!path.contains("/")) {
+			throw new NotSupportedException("Versions are not supported by aggregator for path " + path);
+		}
+
+		String id = VABPathTools.decodePathElement(VABPathTools.getEntry(path, 0));
+		String restPath = VABPathTools.skipEntries(path, 1);
+		IIdentifier identifier = new Identifier(IdentifierType.CUSTOM, id);
+		return aggregator.getAASProvider(identifier).getVersion(restPath);
+	}
+
+	@Override
+	public long compareAndSet(String path, long expectedVersion, Object newValue) throws ProviderException {
+		path = stripPrefix(path);
+		if (!path.contains("/")) {
+			throw new NotSupportedException("Versions are not supported by aggregator for path " + path);
+		}
+
+		String id = VABPathTools.decodePathElement(VABPathTools.getEntry(path, 0));
+		String restPath = VABPathTools.skipEntries(path, 1);
+		IIdentifier identifier = new Identifier(IdentifierType.CUSTOM, id);
+		return aggregator.getAASProvider(identifier).compareAndSet(restPath, expectedVersion, newValue);
+	}
+
 }
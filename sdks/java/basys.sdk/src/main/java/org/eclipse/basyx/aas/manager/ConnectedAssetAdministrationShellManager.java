@@ -8,6 +8,8 @@ import java.net.URLEncoder;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 import org.eclipse.basyx.aas.aggregator.proxy.AASAggregatorProxy;
 import org.eclipse.basyx.aas.aggregator.restapi.AASAggregatorProvider;
@@ -28,6 +30,7 @@ import org.eclipse.basyx.vab.factory.java.ModelProxyFactory;
 import org.eclipse.basyx.vab.modelprovider.VABElementProxy;
 import org.eclipse.basyx.vab.modelprovider.VABPathTools;
 import org.eclipse.basyx.vab.modelprovider.api.IModelProvider;
+import org.eclipse.basyx.vab.modelprovider.async.AsyncModelProviderAdapter;
 import org.eclipse.basyx.vab.protocol.api.IConnectorFactory;
 import org.eclipse.basyx.vab.protocol.http.connector.HTTPConnectorFactory;
 
@@ -97,6 +100,60 @@ public class ConnectedAssetAdministrationShellManager implements IAssetAdministr
 		return submodels;
 	}
 
+	/**
+	 * Retrieves an AAS without blocking. The registry is queried by the
+	 * {@link AsyncModelProviderAdapter#getDefaultExecutor() default executor}.
+	 * 
+	 * @param aasId
+	 * @return
+	 */
+	public CompletableFuture<ConnectedAssetAdministrationShell> retrieveAASAsync(IIdentifier aasId) {
+		return lookupAsync(() -> retrieveAAS(aasId));
+	}
+
+	/**
+	 * Retrieves a submodel without blocking. The registry is queried by the
+	 * {@link AsyncModelProviderAdapter#getDefaultExecutor() default executor}.
+	 * 
+	 * @param aasId
+	 * @param smId
+	 * @return
+	 */
+	public CompletableFuture<ISubmodel> retrieveSubmodelAsync(IIdentifier aasId, IIdentifier smId) {
+		return lookupAsync(() -> retrieveSubmodel(aasId, smId));
+	}
+
+	/**
+	 * Retrieves all submodels of an AAS without blocking. The registry is
+	 * queried by the {@link AsyncModelProviderAdapter#getDefaultExecutor()
+	 * default executor}.
+	 * 
+	 * @param aasId
+	 * @return
+	 */
+	public CompletableFuture<Map<String, ISubmodel>> retrieveSubmodelsAsync(IIdentifier aasId) {
+		return lookupAsync(() -> retrieveSubmodels(aasId));
+	}
+
+	/**
+	 * Reads a value within a submodel without blocking, e.g. the value of a
+	 * property. Reads of many submodels can thus be performed in parallel.
+	 * 
+	 * @param aasId
+	 * @param smId
+	 * @param path
+	 *            path within the submodel, e.g.
+	 *            <i>submodelElements/temperature/value</i>
+	 * @return
+	 */
+	public CompletableFuture<Object> getSubmodelValueAsync(IIdentifier aasId, IIdentifier smId, String path) {
+		return lookupAsync(() -> aasDirectory.lookupSubmodel(aasId, smId).getFirstEndpoint()).thenCompose(addr -> proxyFactory.createProxy(addr).getValueAsync(path));
+	}
+
+	private <T> CompletableFuture<T> lookupAsync(Supplier<T> lookup) {
+		return CompletableFuture.supplyAsync(lookup, AsyncModelProviderAdapter.getDefaultExecutor());
+	}
+
 	private VABElementProxy getAASProxyFromId(IIdentifier aasId) {
 		// Lookup AAS descriptor
 		AASDescriptor aasDescriptor = aasDirectory.lookupAAS(aasId);
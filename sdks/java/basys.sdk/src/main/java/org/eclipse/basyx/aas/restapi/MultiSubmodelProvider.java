@@ -9,11 +9,19 @@
  ******************************************************************************/
 package org.eclipse.basyx.aas.restapi;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.stream.Collectors;
 
 import org.eclipse.basyx.aas.metamodel.map.AssetAdministrationShell;
@@ -32,8 +40,11 @@ import org.eclipse.basyx.submodel.restapi.vab.VABSubmodelAPIFactory;
 import org.eclipse.basyx.vab.exception.provider.MalformedRequestException;
 import org.eclipse.basyx.vab.exception.provider.ProviderException;
 import org.eclipse.basyx.vab.exception.provider.ResourceNotFoundException;
-import org.eclipse.basyx.vab.modelprovider.VABPathTools;
+import org.eclipse.basyx.vab.modelprovider.VABPath;
 import org.eclipse.basyx.vab.modelprovider.api.IModelProvider;
+import org.eclipse.basyx.vab.modelprovider.batch.BatchEntry;
+import org.eclipse.basyx.vab.modelprovider.batch.BatchResult;
+import org.eclipse.basyx.vab.modelprovider.event.IPublisher;
 import org.eclipse.basyx.vab.protocol.api.IConnectorFactory;
 import org.eclipse.basyx.vab.protocol.http.connector.HTTPConnectorFactory;
 
@@ -88,6 +99,19 @@ import org.eclipse.basyx.vab.protocol.http.connector.HTTPConnectorFactory;
  * - setModelPropertyValue<br />
  * /aas/submodels/{subModelId}/properties/{propertyId} Sets the value of the
  * AAS's Submodel's Property
+ * <br /><br />
+ * - getEventPublisher<br />
+ * /aas/submodels/{subModelId}/submodel/submodelElements/{path} Streams the
+ * events of a submodel element, see {@link SubmodelProvider}
+ * <br /><br />
+ * - getVersion, compareAndSet<br />
+ * /aas/submodels/{subModelId}/submodel/submodelElements/{path}/value Reads
+ * the version of a submodel element or sets its value conditionally, see
+ * {@link SubmodelProvider}
+ * <br /><br />
+ * - processBatch<br />
+ * Entries targeting different submodels are forwarded to the submodel
+ * providers in parallel, see {@link #processBatch(List)}
  * 
  * 
  * @author kuhn, pschorn
@@ -106,9 +130,10 @@ public class MultiSubmodelProvider implements IModelProvider {
 	protected IIdentifier aasId = null;
 
 	/**
-	 * Store submodel providers
+	 * Store submodel providers. Concurrent, since submodels may be added while
+	 * others are accessed.
 	 */
-	protected Map<String, SubmodelProvider> submodel_providers = new HashMap<>();
+	protected Map<String, SubmodelProvider> submodel_providers = new ConcurrentHashMap<>();
 	
 	/**
 	 * Store AAS Registry
@@ -130,6 +155,13 @@ public class MultiSubmodelProvider implements IModelProvider {
 	 */
 	protected ISubmodelAPIFactory smApiProvider;
 
+	/**
+	 * Executes the submodel groups of batches in parallel. By default, there is
+	 * none and the groups are processed one after another, since they may block
+	 * on remote submodels
+	 */
+	protected Executor batchExecutor = null;
+
 	/**
 	 * Constructor with empty default aas and default VAB APIs
 	 */
@@ -255,36 +287,69 @@ public class MultiSubmodelProvider implements IModelProvider {
 	 */
 	@Override
 	public Object getValue(String path) throws ProviderException {
-		VABPathTools.checkPathForNull(path);
-		path = VABPathTools.stripSlashes(path);
-		String[] pathElements = VABPathTools.splitPath(path);
-		if (pathElements.length > 0 && pathElements[0].equals("aas")) {
-			if (pathElements.length == 1) {
+		return getValue(VABPath.parse(path));
+	}
+
+	/**
+	 * Get the value of an element, see {@link #getValue(String)}
+	 * 
+	 * @param path
+	 * @return
+	 * @throws ProviderException
+	 */
+	public Object getValue(VABPath path) throws ProviderException {
+		if (path.startsWith("aas")) {
+			if (path.size() == 1) {
 				return aas_provider.getValue("");
 			}
-			if (pathElements[1].equals(AssetAdministrationShell.SUBMODELS)) {
-				if (pathElements.length == 2) {
+			if (path.getElement(1).equals(AssetAdministrationShell.SUBMODELS)) {
+				if (path.size() == 2) {
 					return retrieveSubmodels();
 				} else {
-					IModelProvider provider = submodel_providers.get(pathElements[2]);
-
-					if (provider == null) {
-						// Get a model provider for the submodel in the registry
-						provider = getModelProvider(pathElements[2]);
+					SubmodelProvider localProvider = submodel_providers.get(path.getElement(2));
+					if (localProvider != null) {
+						// - Retrieve submodel or property value
+						return localProvider.getValue(path.skip(4));
 					}
-					
-					// - Retrieve submodel or property value
-					return provider.getValue(VABPathTools.buildPath(pathElements, 4));
+
+					// Get a model provider for the submodel in the registry
+					return getModelProvider(path.getElement(2)).getValue(path.skip(4).toString());
 				}
 			} else {
 				// Handle access to AAS
-				return aas_provider.getValue(VABPathTools.buildPath(pathElements, 1));
+				return aas_provider.getValue(path.skip(1).toString());
 			}
 		} else {
 			return new MalformedRequestException("The request " + path + " is not allowed for this endpoint");
 		}
 	}
 
+	@Override
+	public Object getValueView(String path) throws ProviderException {
+		return getValueView(VABPath.parse(path));
+	}
+
+	/**
+	 * Get a read-only view of the value of an element, see
+	 * {@link #getValueView(String)}. Only the accesses to single submodels are
+	 * forwarded as views, all other values are retrieved by
+	 * {@link #getValue(VABPath)}.
+	 * 
+	 * @param path
+	 * @return
+	 * @throws ProviderException
+	 */
+	public Object getValueView(VABPath path) throws ProviderException {
+		if (path.size() > 2 && path.startsWith("aas") && path.getElement(1).equals(AssetAdministrationShell.SUBMODELS)) {
+			SubmodelProvider localProvider = submodel_providers.get(path.getElement(2));
+			if (localProvider != null) {
+				return localProvider.getValueView(path.skip(4));
+			}
+			return getModelProvider(path.getElement(2)).getValueView(path.skip(4).toString());
+		}
+		return getValue(path);
+	}
+
 	/**
 	 * Retrieves all submodels of the AAS. If there's a registry, remote Submodels
 	 * will also be retrieved.
@@ -348,28 +413,32 @@ public class MultiSubmodelProvider implements IModelProvider {
 	 */
 	@Override
 	public void setValue(String path, Object newValue) throws ProviderException {
- 		VABPathTools.checkPathForNull(path);
-		path = VABPathTools.stripSlashes(path);
-		// Split path
-		String[] pathElements = VABPathTools.splitPath(path);
-		String propertyPath = VABPathTools.buildPath(pathElements, 3);
+		setValue(VABPath.parse(path), newValue);
+	}
+
+	/**
+	 * Change a model property value, see {@link #setValue(String, Object)}
+	 * 
+	 * @param path
+	 * @param newValue
+	 * @throws ProviderException
+	 */
+	public void setValue(VABPath path, Object newValue) throws ProviderException {
 		// - Ignore first 2 elements, as it is "/aas/submodels" --> 'aas','submodels'
-		
-		if (path.equals("aas")) {
+		if (path.size() == 1 && path.startsWith("aas")) {
 			createAssetAdministrationShell(newValue);
-		} else if (!path.startsWith("aas/submodels")) {
+		} else if (!isSubmodelsPath(path)) {
 			throw new MalformedRequestException("Access to MultiSubmodelProvider always has to start with \"aas/submodels\", was " + path);
-		} else if (propertyPath.isEmpty()) {
+		} else if (path.size() <= 3) {
 			createSubmodel(newValue);
 		} else {
-			IModelProvider provider;
-			if (isSubmodelLocal(pathElements[2])) {
-				provider = submodel_providers.get(pathElements[2]);
+			SubmodelProvider localProvider = submodel_providers.get(path.getElement(2));
+			if (localProvider != null) {
+				localProvider.setValue(path.skip(3), newValue);
 			} else {
 				// Get a model provider for the submodel in the registry
-				provider = getModelProvider(pathElements[2]);
+				getModelProvider(path.getElement(2)).setValue(path.skip(3).toString(), newValue);
 			}
-			provider.setValue(propertyPath, newValue);
 		}
 	}
 
@@ -388,17 +457,24 @@ public class MultiSubmodelProvider implements IModelProvider {
 	}
 
 
-	@SuppressWarnings("unchecked")
 	@Override
 	public void deleteValue(String path) throws ProviderException {
-		VABPathTools.checkPathForNull(path);
-		path = VABPathTools.stripSlashes(path);
-		String[] pathElements = VABPathTools.splitPath(path);
-		String propertyPath = VABPathTools.buildPath(pathElements, 3);
+		deleteValue(VABPath.parse(path));
+	}
+
+	/**
+	 * Delete a submodel or an element of a submodel, see
+	 * {@link #deleteValue(String)}
+	 * 
+	 * @param path
+	 * @throws ProviderException
+	 */
+	@SuppressWarnings("unchecked")
+	public void deleteValue(VABPath path) throws ProviderException {
 		// - Ignore first 2 elements, as it is "/aas/submodels" --> 'aas','submodels'
-		if (pathElements.length == 3) {
+		if (path.size() == 3) {
 			// Delete Submodel from registered AAS
-			String smIdShort = pathElements[2];
+			String smIdShort = path.getElement(2);
 			if (!isSubmodelLocal(smIdShort)) {
 				return;	
 			}
@@ -410,16 +486,14 @@ public class MultiSubmodelProvider implements IModelProvider {
 
 			// Remove submodel provider
 			submodel_providers.remove(smIdShort);
-		} else if (propertyPath.length() > 0) {
-			IModelProvider provider;
-			if (isSubmodelLocal(pathElements[2])) {
-				provider = submodel_providers.get(pathElements[2]);
+		} else if (path.size() > 3) {
+			SubmodelProvider localProvider = submodel_providers.get(path.getElement(2));
+			if (localProvider != null) {
+				localProvider.deleteValue(path.skip(3));
 			} else {
 				// Get a model provider for the submodel in the registry
-				provider = getModelProvider(pathElements[2]);
+				getModelProvider(path.getElement(2)).deleteValue(path.skip(3).toString());
 			}
-
-			provider.deleteValue(propertyPath);
 		}
 	}
 
@@ -430,23 +504,252 @@ public class MultiSubmodelProvider implements IModelProvider {
 
 	@Override
 	public Object invokeOperation(String path, Object... parameter) throws ProviderException {
-		VABPathTools.checkPathForNull(path);
-		path = VABPathTools.stripSlashes(path);
-		String[] pathElements = VABPathTools.splitPath(path);
-		String operationPath = VABPathTools.buildPath(pathElements, 3);
+		return invokeOperation(VABPath.parse(path), parameter);
+	}
+
+	/**
+	 * Invoke an operation of a submodel, see
+	 * {@link #invokeOperation(String, Object...)}
+	 * 
+	 * @param path
+	 * @param parameter
+	 * @return
+	 * @throws ProviderException
+	 */
+	public Object invokeOperation(VABPath path, Object... parameter) throws ProviderException {
+		if (path.size() < 3) {
+			throw new MalformedRequestException("Given path '" + path + "' does not point to a submodel");
+		}
+
 		// - Ignore first 2 elements, as it is "/aas/submodels" --> 'aas','submodels'
 		// - Invoke provider and return result
-		IModelProvider provider;
-		if (isSubmodelLocal(pathElements[2])) {
-			provider = submodel_providers.get(pathElements[2]);
-		} else {
-			// Get a model provider for the submodel in the registry
-			provider = getModelProvider(pathElements[2]);
+		SubmodelProvider localProvider = submodel_providers.get(path.getElement(2));
+		if (localProvider != null) {
+			return localProvider.invokeOperation(path.skip(3), parameter);
 		}
 
-		return provider.invokeOperation(operationPath, parameter);
+		// Get a model provider for the submodel in the registry
+		return getModelProvider(path.getElement(2)).invokeOperation(path.skip(3).toString(), parameter);
 	}
 	
+	@Override
+	public IPublisher<Object> getEventPublisher(String path) throws ProviderException {
+		VABPath parsed = VABPath.parse(path);
+		if (parsed.size() < 3 || !isSubmodelsPath(parsed)) {
+			throw new MalformedRequestException("Events are only supported for submodels, path was " + path);
+		}
+
+		// - Ignore first 2 elements, as it is "/aas/submodels" --> 'aas','submodels'
+		SubmodelProvider localProvider = submodel_providers.get(parsed.getElement(2));
+		if (localProvider != null) {
+			return localProvider.getEventPublisher(parsed.skip(3));
+		}
+
+		// Get a model provider for the submodel in the registry
+		return getModelProvider(parsed.getElement(2)).getEventPublisher(parsed.skip(3).toString());
+	}
+
+	/**
+	 * Versions are only reported as supported for local submodels. For submodels
+	 * in the registry, the check would require a round trip, but
+	 * {@link #getVersion(String)} and {@link #compareAndSet(String, long, Object)}
+	 * are forwarded to them nonetheless.
+	 */
+	@Override
+	public boolean supportsVersions(String path) {
+		VABPath parsed = VABPath.parse(path);
+		if (parsed.size() < 3 || !isSubmodelsPath(parsed)) {
+			return false;
+		}
+
+		SubmodelProvider localProvider = submodel_providers.get(parsed.getElement(2));
+		return localProvider != null && localProvider.supportsVersions(parsed.skip(3));
+	}
+
+	@Override
+	public long getVersion(String path) throws ProviderException {
+		VABPath parsed = VABPath.parse(path);
+		if (parsed.size() < 3 || !isSubmodelsPath(parsed)) {
+			throw new MalformedRequestException("Versions are only supported for submodels, path was " + path);
+		}
+
+		SubmodelProvider localProvider = submodel_providers.get(parsed.getElement(2));
+		if (localProvider != null) {
+			return localProvider.getVersion(parsed.skip(3));
+		}
+
+		// Get a model provider for the submodel in the registry
+		return getModelProvider(parsed.getElement(2)).getVersion(parsed.skip(3).toString());
+	}
+
+	@Override
+	public long compareAndSet(String path, long expectedVersion, Object newValue) throws ProviderException {
+		VABPath parsed = VABPath.parse(path);
+		if (parsed.size() < 3 || !isSubmodelsPath(parsed)) {
+			throw new MalformedRequestException("Versions are only supported for submodels, path was " + path);
+		}
+
+		SubmodelProvider localProvider = submodel_providers.get(parsed.getElement(2));
+		if (localProvider != null) {
+			return localProvider.compareAndSet(parsed.skip(3), expectedVersion, newValue);
+		}
+
+		// Get a model provider for the submodel in the registry
+		return getModelProvider(parsed.getElement(2)).compareAndSet(parsed.skip(3).toString(), expectedVersion, newValue);
+	}
+
+	/**
+	 * Checks whether the path starts with "/aas/submodels"
+	 */
+	private boolean isSubmodelsPath(VABPath path) {
+		return path.size() >= 2 && path.startsWith("aas") && path.getElement(1).equals(AssetAdministrationShell.SUBMODELS);
+	}
+
+	/**
+	 * Processes a batch of requests. Consecutive entries that target a single
+	 * submodel are grouped by submodel and each group is forwarded as a batch to
+	 * the respective submodel provider. The groups are processed in parallel if
+	 * a batch executor is set, the entries of a group in their original
+	 * order.<br />
+	 * Entries that do not target a single submodel, e.g. entries creating or
+	 * deleting a submodel, are processed after all preceding entries and
+	 * before all following entries.
+	 */
+	@Override
+	public List<BatchResult> processBatch(List<BatchEntry> entries) throws ProviderException {
+		BatchResult[] results = new BatchResult[entries.size()];
+		int i = 0;
+		while (i < entries.size()) {
+			// Group the entries up to the next entry not targeting a single submodel
+			Map<String, List<Integer>> groups = new LinkedHashMap<>();
+			for (; i < entries.size(); i++) {
+				String smIdShort = getTargetedSubmodel(entries.get(i));
+				if (smIdShort == null) {
+					break;
+				}
+				groups.computeIfAbsent(smIdShort, id -> new ArrayList<>()).add(i);
+			}
+			processSubmodelGroups(entries, groups, results);
+
+			// Process the remaining entry in isolation
+			if (i < entries.size()) {
+				results[i] = entries.get(i).execute(this);
+				i++;
+			}
+		}
+		return Arrays.asList(results);
+	}
+
+	/**
+	 * Sets the executor that processes the submodel groups of batches in
+	 * parallel. The executor should be bounded and dedicated to blocking tasks,
+	 * e.g. the executor of operation invocations of the server. Groups rejected
+	 * by the executor are processed by the calling thread.
+	 * 
+	 * @param batchExecutor
+	 *            the executor or null to process the groups one after another
+	 */
+	public void setBatchExecutor(Executor batchExecutor) {
+		this.batchExecutor = batchExecutor;
+	}
+
+	/**
+	 * Returns the idShort of the submodel an entry can be forwarded to
+	 * 
+	 * @param entry
+	 * @return the idShort or null, if the entry does not target a single submodel
+	 */
+	private String getTargetedSubmodel(BatchEntry entry) {
+		if (entry.getPath() == null) {
+			return null;
+		}
+		VABPath path = VABPath.parse(entry.getPath());
+		if (path.size() < 3 || !isSubmodelsPath(path)) {
+			return null;
+		}
+
+		switch (entry.getOperation()) {
+		case BatchEntry.GET:
+			return path.getElement(2);
+		case BatchEntry.SET:
+		case BatchEntry.INVOKE:
+			// Setting the submodel itself modifies the AAS as well
+			return path.size() > 3 ? path.getElement(2) : null;
+		case BatchEntry.DELETE:
+			// Deleting the submodel itself modifies the AAS as well
+			return path.size() > 3 && !entry.containsKey(BatchEntry.VALUE) ? path.getElement(2) : null;
+		default:
+			return null;
+		}
+	}
+
+	/**
+	 * Processes the submodel groups of a batch in parallel, if there is a batch
+	 * executor. One of the groups is processed by the calling thread.
+	 */
+	private void processSubmodelGroups(List<BatchEntry> entries, Map<String, List<Integer>> groups, BatchResult[] results) {
+		if (groups.isEmpty()) {
+			return;
+		}
+
+		if (batchExecutor == null) {
+			for (Map.Entry<String, List<Integer>> group : groups.entrySet()) {
+				processSubmodelGroup(entries, group.getKey(), group.getValue(), results);
+			}
+			return;
+		}
+
+		Iterator<Map.Entry<String, List<Integer>>> iterator = groups.entrySet().iterator();
+		Map.Entry<String, List<Integer>> first = iterator.next();
+
+		List<CompletableFuture<Void>> futures = new ArrayList<>();
+		while (iterator.hasNext()) {
+			Map.Entry<String, List<Integer>> group = iterator.next();
+			Runnable task = () -> processSubmodelGroup(entries, group.getKey(), group.getValue(), results);
+			try {
+				futures.add(CompletableFuture.runAsync(task, batchExecutor));
+			} catch (RejectedExecutionException e) {
+				task.run();
+			}
+		}
+
+		processSubmodelGroup(entries, first.getKey(), first.getValue(), results);
+		futures.forEach(CompletableFuture::join);
+	}
+
+	/**
+	 * Forwards the entries of a group as one batch to the submodel provider
+	 */
+	private void processSubmodelGroup(List<BatchEntry> entries, String smIdShort, List<Integer> indices, BatchResult[] results) {
+		List<BatchResult> groupResults;
+		try {
+			IModelProvider provider;
+			if (isSubmodelLocal(smIdShort)) {
+				provider = submodel_providers.get(smIdShort);
+			} else {
+				// Get a model provider for the submodel in the registry
+				provider = getModelProvider(smIdShort);
+			}
+
+			// - Ignore first 2 elements, as it is "/aas/submodels" --> 'aas','submodels'
+			List<BatchEntry> groupEntries = new ArrayList<>(indices.size());
+			for (int index : indices) {
+				BatchEntry entry = entries.get(index);
+				groupEntries.add(entry.withPath(VABPath.parse(entry.getPath()).skip(3).toString()));
+			}
+
+			groupResults = provider.processBatch(groupEntries);
+		} catch (ProviderException e) {
+			groupResults = Collections.nCopies(indices.size(), BatchResult.error(e));
+		} catch (RuntimeException e) {
+			groupResults = Collections.nCopies(indices.size(), BatchResult.error(new ProviderException(e)));
+		}
+
+		for (int i = 0; i < indices.size(); i++) {
+			results[indices.get(i)] = groupResults.get(i);
+		}
+	}
+
 	/**
 	 * Check whether the given submodel exists in submodel provider
 	 * @param key to search the submodel
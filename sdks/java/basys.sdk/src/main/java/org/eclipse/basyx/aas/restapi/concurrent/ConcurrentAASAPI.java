@@ -0,0 +1,74 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.basyx.aas.restapi.concurrent;
+
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.eclipse.basyx.aas.metamodel.api.IAssetAdministrationShell;
+import org.eclipse.basyx.aas.restapi.api.IAASAPI;
+import org.eclipse.basyx.submodel.metamodel.api.reference.IReference;
+
+/**
+ * Implementation variant for the AASAPI that can be used by any number of
+ * threads concurrently. Has to be based on a backend implementation of the
+ * IAASAPI to forward its method calls, which does not have to be thread-safe
+ * itself. The AAS is only changed when submodels are added or removed, thus a
+ * read-write lock is sufficient.
+ * 
+ * @author schnicke
+ *
+ */
+public class ConcurrentAASAPI implements IAASAPI {
+	// The underlying AASAPI
+	protected IAASAPI backendAPI;
+
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+	/**
+	 * Constructor for making another AASAPI thread-safe
+	 * 
+	 * @param backendAPI
+	 *            The underlying AASAPI
+	 */
+	public ConcurrentAASAPI(IAASAPI backendAPI) {
+		this.backendAPI = backendAPI;
+	}
+
+	@Override
+	public IAssetAdministrationShell getAAS() {
+		lock.readLock().lock();
+		try {
+			return backendAPI.getAAS();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public void addSubmodel(IReference submodel) {
+		lock.writeLock().lock();
+		try {
+			backendAPI.addSubmodel(submodel);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public void removeSubmodel(String id) {
+		lock.writeLock().lock();
+		try {
+			backendAPI.removeSubmodel(id);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+}
@@ -0,0 +1,47 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.basyx.aas.restapi.concurrent;
+
+import org.eclipse.basyx.aas.metamodel.map.AssetAdministrationShell;
+import org.eclipse.basyx.aas.restapi.api.IAASAPI;
+import org.eclipse.basyx.aas.restapi.api.IAASAPIFactory;
+import org.eclipse.basyx.aas.restapi.vab.VABAASAPIFactory;
+
+/**
+ * AAS API provider that provides thread-safe AAS APIs, see
+ * {@link ConcurrentAASAPI}
+ * 
+ * @author schnicke
+ *
+ */
+public class ConcurrentAASAPIFactory implements IAASAPIFactory {
+	private IAASAPIFactory backendApiFactory;
+
+	/**
+	 * Constructor making the default VAB AAS API thread-safe
+	 */
+	public ConcurrentAASAPIFactory() {
+		this(new VABAASAPIFactory());
+	}
+
+	/**
+	 * Constructor making the AAS APIs of another factory thread-safe
+	 * 
+	 * @param backendApiFactory
+	 */
+	public ConcurrentAASAPIFactory(IAASAPIFactory backendApiFactory) {
+		this.backendApiFactory = backendApiFactory;
+	}
+
+	@Override
+	public IAASAPI getAASApi(AssetAdministrationShell aas) {
+		return new ConcurrentAASAPI(backendApiFactory.getAASApi(aas));
+	}
+}
@@ -12,6 +12,7 @@ package org.eclipse.basyx.extensions.submodel.mqtt;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.eclipse.basyx.extensions.shared.mqtt.MqttEventService;
@@ -20,6 +21,7 @@ import org.eclipse.basyx.submodel.metamodel.api.reference.IKey;
 import org.eclipse.basyx.submodel.metamodel.api.reference.IReference;
 import org.eclipse.basyx.submodel.metamodel.api.submodelelement.ISubmodelElement;
 import org.eclipse.basyx.submodel.metamodel.api.submodelelement.operation.IOperation;
+import org.eclipse.basyx.submodel.restapi.HistoryQuery;
 import org.eclipse.basyx.submodel.restapi.api.ISubmodelAPI;
 import org.eclipse.basyx.vab.modelprovider.VABPathTools;
 import org.eclipse.paho.client.mqttv3.MqttClient;
@@ -135,6 +137,11 @@ public class MqttSubmodelAPI extends MqttEventService implements ISubmodelAPI {
 		return observedAPI.getSubmodel();
 	}
 
+	@Override
+	public ISubmodel getSubmodelView() {
+		return observedAPI.getSubmodelView();
+	}
+
 	@Override
 	public void addSubmodelElement(ISubmodelElement elem) {
 		observedAPI.addSubmodelElement(elem);
@@ -156,6 +163,11 @@ public class MqttSubmodelAPI extends MqttEventService implements ISubmodelAPI {
 		return observedAPI.getSubmodelElement(idShortPath);
 	}
 
+	@Override
+	public ISubmodelElement getSubmodelElementView(String idShortPath) {
+		return observedAPI.getSubmodelElementView(idShortPath);
+	}
+
 	@Override
 	public void deleteSubmodelElement(String idShortPath) {
 		observedAPI.deleteSubmodelElement(idShortPath);
@@ -174,6 +186,16 @@ public class MqttSubmodelAPI extends MqttEventService implements ISubmodelAPI {
 		return observedAPI.getSubmodelElements();
 	}
 
+	@Override
+	public Collection<ISubmodelElement> getSubmodelElementViews() {
+		return observedAPI.getSubmodelElementViews();
+	}
+
+	@Override
+	public Collection<Map<String, Object>> getSubmodelElementHistory(String idShortPath, HistoryQuery query) {
+		return observedAPI.getSubmodelElementHistory(idShortPath, query);
+	}
+
 	@Override
 	public void updateSubmodelElement(String idShortPath, Object newValue) {
 		observedAPI.updateSubmodelElement(idShortPath, newValue);
@@ -187,6 +209,25 @@ public class MqttSubmodelAPI extends MqttEventService implements ISubmodelAPI {
 		return observedAPI.getSubmodelElementValue(idShortPath);
 	}
 
+	@Override
+	public boolean supportsVersions() {
+		return observedAPI.supportsVersions();
+	}
+
+	@Override
+	public long getSubmodelElementVersion(String idShortPath) {
+		return observedAPI.getSubmodelElementVersion(idShortPath);
+	}
+
+	@Override
+	public long compareAndSetSubmodelElementValue(String idShortPath, long expectedVersion, Object newValue) {
+		long version = observedAPI.compareAndSetSubmodelElementValue(idShortPath, expectedVersion, newValue);
+		if (filter(idShortPath)) {
+			sendMqttMessage(TOPIC_UPDATEELEMENT, getCombinedMessage(getAASId(), getSubmodelId(), idShortPath));
+		}
+		return version;
+	}
+
 	@Override
 	public Object invokeOperation(String idShortPath, Object... params) {
 		return observedAPI.invokeOperation(idShortPath, params);
@@ -213,12 +254,12 @@ public class MqttSubmodelAPI extends MqttEventService implements ISubmodelAPI {
 	}
 	
 	private String getSubmodelId() {
-		ISubmodel submodel = getSubmodel();
+		ISubmodel submodel = getSubmodelView();
 		return submodel.getIdentification().getId();
 	}
 	
 	private String getAASId() {
-		ISubmodel submodel = getSubmodel();
+		ISubmodel submodel = getSubmodelView();
 		IReference parentReference = submodel.getParent();
 		if (parentReference != null) {
 			List<IKey> keys = parentReference.getKeys();
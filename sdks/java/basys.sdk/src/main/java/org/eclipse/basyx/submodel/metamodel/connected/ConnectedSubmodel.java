@@ -37,8 +37,10 @@ import org.eclipse.basyx.submodel.metamodel.map.submodelelement.SubmodelElement;
 import org.eclipse.basyx.submodel.metamodel.map.submodelelement.SubmodelElementCollection;
 import org.eclipse.basyx.submodel.restapi.MultiSubmodelElementProvider;
 import org.eclipse.basyx.submodel.restapi.SubmodelProvider;
+import org.eclipse.basyx.submodel.restapi.events.SubmodelElementEvent;
 import org.eclipse.basyx.vab.modelprovider.VABElementProxy;
 import org.eclipse.basyx.vab.modelprovider.VABPathTools;
+import org.eclipse.basyx.vab.modelprovider.event.IPublisher;
 
 
 /**
@@ -203,4 +205,17 @@ public class ConnectedSubmodel extends ConnectedElement implements ISubmodel {
 	public void deleteSubmodelElement(String id) {
 		getProxy().deleteValue(VABPathTools.concatenatePaths(MultiSubmodelElementProvider.ELEMENTS, id));
 	}
+
+	/**
+	 * Returns a publisher of the changes of all submodel elements. Each
+	 * subscription opens a separate event stream to the server, which has to
+	 * support events, see
+	 * {@link org.eclipse.basyx.submodel.restapi.events.EventingSubmodelAPI
+	 * EventingSubmodelAPI}
+	 * 
+	 * @return
+	 */
+	public IPublisher<SubmodelElementEvent> subscribe() {
+		return SubmodelElementEvent.createFacadePublisher(getProxy().getEventPublisher(MultiSubmodelElementProvider.ELEMENTS));
+	}
 }
@@ -9,6 +9,7 @@
  ******************************************************************************/
 package org.eclipse.basyx.submodel.metamodel.connected.submodelelement.dataelement;
 
+import java.util.Collection;
 import java.util.Map;
 
 import org.eclipse.basyx.submodel.metamodel.api.reference.IReference;
@@ -18,7 +19,10 @@ import org.eclipse.basyx.submodel.metamodel.map.reference.Reference;
 import org.eclipse.basyx.submodel.metamodel.map.submodelelement.dataelement.property.Property;
 import org.eclipse.basyx.submodel.metamodel.map.submodelelement.dataelement.property.valuetype.ValueType;
 import org.eclipse.basyx.submodel.metamodel.map.submodelelement.dataelement.property.valuetype.ValueTypeHelper;
+import org.eclipse.basyx.submodel.restapi.HistoryQuery;
+import org.eclipse.basyx.submodel.restapi.events.SubmodelElementEvent;
 import org.eclipse.basyx.vab.modelprovider.VABElementProxy;
+import org.eclipse.basyx.vab.modelprovider.event.IPublisher;
 
 /**
  * Connects to a PropertySingleValued as specified by DAAS containing a simple
@@ -69,6 +73,33 @@ public class ConnectedProperty extends ConnectedDataElement implements IProperty
 		getProxy().setValue(Property.VALUE, ValueTypeHelper.prepareForSerialization(value));
 	}
 
+	/**
+	 * Returns a publisher of the changes of this property. Each subscription
+	 * opens a separate event stream to the server, which has to support events,
+	 * see {@link org.eclipse.basyx.submodel.restapi.events.EventingSubmodelAPI
+	 * EventingSubmodelAPI}
+	 * 
+	 * @return
+	 */
+	public IPublisher<SubmodelElementEvent> subscribe() {
+		return SubmodelElementEvent.createFacadePublisher(getProxy().getEventPublisher(""));
+	}
+
+	/**
+	 * Retrieves records from the history of this property. The property has to
+	 * record its history on the server, see
+	 * {@link org.eclipse.basyx.submodel.metamodel.map.submodelelement.dataelement.property.PrimitiveProperty#enableHistory(int)
+	 * PrimitiveProperty}
+	 * 
+	 * @param query
+	 *            the requested records
+	 * @return the records, each containing the timestamp and the value
+	 */
+	@SuppressWarnings("unchecked")
+	public Collection<Map<String, Object>> getHistory(HistoryQuery query) {
+		return (Collection<Map<String, Object>>) getProxy().getValue(query.toString());
+	}
+
 	@Override
 	public Property getLocalCopy() {
 		return Property.createAsFacade(getElem()).getLocalCopy();
@@ -10,17 +10,21 @@
 package org.eclipse.basyx.submodel.metamodel.facade;
 
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import org.eclipse.basyx.submodel.metamodel.api.submodelelement.ISubmodelElement;
 import org.eclipse.basyx.submodel.metamodel.facade.submodelelement.SubmodelElementFacadeFactory;
 import org.eclipse.basyx.submodel.metamodel.map.Submodel;
 import org.eclipse.basyx.submodel.metamodel.map.qualifier.Referable;
+import org.eclipse.basyx.submodel.metamodel.map.submodelelement.SubmodelElement;
 import org.eclipse.basyx.submodel.metamodel.map.submodelelement.SubmodelElementCollection;
 import org.eclipse.basyx.submodel.metamodel.map.submodelelement.dataelement.property.Property;
+import org.eclipse.basyx.vab.model.ReadOnlyViews;
 
 
 /**
@@ -194,4 +198,147 @@ public class SubmodelElementMapCollectionConverter {
 		return newElements;
 	}
 	
+	/**
+	 * Creates the read-only facades of the elements of {@link #mapToSMView(Map)}
+	 * and {@link #mapToSmECollectionView(Map)}
+	 */
+	@SuppressWarnings("unchecked")
+	private static final Function<Object, ISubmodelElement> ID_MAP_ELEMENT_VIEW = e -> createSubmodelElementView((Map<String, Object>) e);
+
+	/**
+	 * Creates the read-only facades of {@link #elementsToFacadeView(Collection)}
+	 */
+	@SuppressWarnings("unchecked")
+	private static final Function<Object, ISubmodelElement> ELEMENT_FACADE_VIEW = e -> SubmodelElement.createAsFacade(smElementToMapView((Map<String, Object>) e));
+
+	/**
+	 * Builds a read-only Submodel view on a given Map, see {@link #mapToSM(Map)}.<br>
+	 * In contrast to {@link #mapToSM(Map)}, neither the Map nor the smElements are
+	 * copied or changed. The facades of the smElements are created when they are
+	 * accessed.
+	 * 
+	 * @param submodel a Map representing the Submodel
+	 * @return a read-only Submodel view containing the smElements as Map
+	 */
+	public static Submodel mapToSMView(Map<String, Object> submodel) {
+		Submodel ret = new Submodel();
+		ret.setMap(ReadOnlyViews.withEntry(submodel, Submodel.SUBMODELELEMENT, convertToIDMapView(submodel.get(Submodel.SUBMODELELEMENT))));
+		return ret;
+	}
+
+	/**
+	 * Builds a read-only SubmodelElementCollection view on a given Map, see
+	 * {@link #mapToSMView(Map)}
+	 * 
+	 * @param smECollection a Map representing the SubmodelElementCollection
+	 * @return a read-only SubmodelElementCollection view containing the smElements as Map
+	 */
+	public static SubmodelElementCollection mapToSmECollectionView(Map<String, Object> smECollection) {
+		SubmodelElementCollection ret = new SubmodelElementCollection();
+		ret.setMap(ReadOnlyViews.withEntry(smECollection, Property.VALUE, convertToIDMapView(smECollection.get(Property.VALUE))));
+		return ret;
+	}
+
+	/**
+	 * Returns a read-only view of a given Submodel Map, in which the smElements
+	 * are a Collection, see {@link #smToMap(Submodel)}. Nothing is copied, the
+	 * contained SubmodelElementCollections are converted when they are accessed.
+	 * The facades of a view created by {@link #mapToSMView(Map)} are skipped.
+	 * 
+	 * @param submodel the Submodel Map to be converted.
+	 * @return a read-only Map containing the smElements as Collection.
+	 */
+	public static Map<String, Object> smToMapView(Map<String, Object> submodel) {
+		Object smElements = submodel.get(Submodel.SUBMODELELEMENT);
+		if (smElements instanceof Map<?, ?>) {
+			Map<?, ?> wrapped = ReadOnlyViews.untransformed((Map<?, ?>) smElements, ID_MAP_ELEMENT_VIEW);
+			if (wrapped != null) {
+				smElements = wrapped;
+			}
+		}
+		return ReadOnlyViews.withEntry(submodel, Submodel.SUBMODELELEMENT, convertToCollectionView(smElements));
+	}
+
+	/**
+	 * Returns a read-only view of a given SubmodelElement, in which the elements
+	 * of SubmodelElementCollections are a Collection, see
+	 * {@link #smElementToMap(Map)}. Other elements are returned unchanged.
+	 * 
+	 * @param smElement the SubmodelElement to be converted.
+	 * @return a read-only Map made from the given SubmodelElement.
+	 */
+	public static Map<String, Object> smElementToMapView(Map<String, Object> smElement) {
+		if (!SubmodelElementCollection.isSubmodelElementCollection(smElement)) {
+			return smElement;
+		}
+		return ReadOnlyViews.withEntry(smElement, Property.VALUE, convertToCollectionView(smElement.get(Property.VALUE)));
+	}
+
+	/**
+	 * Returns read-only facades of the given smElements, in which the elements of
+	 * SubmodelElementCollections are a Collection. The facades are created when
+	 * they are accessed.
+	 * 
+	 * @param smElements the smElements, in which SubmodelElementCollections
+	 *                   contain their elements as Map or Collection
+	 * @return the read-only facades
+	 */
+	public static Collection<ISubmodelElement> elementsToFacadeView(Collection<?> smElements) {
+		return ReadOnlyViews.transform(smElements, ELEMENT_FACADE_VIEW);
+	}
+
+	/**
+	 * Returns a read-only view of the given smElements, see
+	 * {@link #smElementToMapView(Map)}. The facades of a view created by
+	 * {@link #elementsToFacadeView(Collection)} are skipped.
+	 * 
+	 * @param smElements the smElements to be converted.
+	 * @return a read-only Collection of the smElements as Map.
+	 */
+	public static Collection<Map<String, Object>> elementsToMapView(Collection<? extends ISubmodelElement> smElements) {
+		Collection<?> wrapped = ReadOnlyViews.untransformed(smElements, ELEMENT_FACADE_VIEW);
+		return convertToCollectionView(wrapped != null ? wrapped : smElements);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Map<String, ISubmodelElement> convertToIDMapView(Object smElements) {
+		Map<String, Object> smElementsMap;
+		if (smElements == null) {
+			smElementsMap = Collections.emptyMap();
+		} else if (smElements instanceof Map<?, ?>) {
+			smElementsMap = (Map<String, Object>) smElements;
+		} else if (smElements instanceof Collection<?>) {
+			// Only the idShorts are mapped, the elements are still not copied
+			smElementsMap = new HashMap<>();
+			for (Object o : (Collection<Object>) smElements) {
+				smElementsMap.put((String) ((Map<String, Object>) o).get(Referable.IDSHORT), o);
+			}
+		} else {
+			throw new RuntimeException("Elements must be given as Map or Collection");
+		}
+
+		return ReadOnlyViews.transform(smElementsMap, ID_MAP_ELEMENT_VIEW);
+	}
+
+	private static ISubmodelElement createSubmodelElementView(Map<String, Object> smElement) {
+		if (SubmodelElementCollection.isSubmodelElementCollection(smElement)) {
+			return mapToSmECollectionView(smElement);
+		}
+		return SubmodelElementFacadeFactory.createSubmodelElement(smElement);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Collection<Map<String, Object>> convertToCollectionView(Object map) {
+		Collection<Object> smElements;
+		if (map == null) {
+			smElements = Collections.emptyList();
+		} else if (map instanceof Collection<?>) {
+			smElements = (Collection<Object>) map;
+		} else if (map instanceof Map<?, ?>) {
+			smElements = ((Map<String, Object>) map).values();
+		} else {
+			throw new RuntimeException("The SubmodelElementCollection contains neither a Collection nor a Map as value.");
+		}
+		return ReadOnlyViews.transform(smElements, e -> smElementToMapView((Map<String, Object>) e));
+	}
 }
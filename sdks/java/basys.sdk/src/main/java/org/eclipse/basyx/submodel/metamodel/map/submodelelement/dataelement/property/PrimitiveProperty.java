@@ -0,0 +1,498 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.basyx.submodel.metamodel.map.submodelelement.dataelement.property;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.eclipse.basyx.submodel.metamodel.map.submodelelement.dataelement.property.valuetype.ValueType;
+
+/**
+ * Property, whose value is kept in a primitive slot instead of a boxed map
+ * entry. The value type is fixed at creation and determines the kind of the
+ * slot:<br />
+ * - <i>long</i> for the integer types up to Int64 and UInt32<br />
+ * - <i>double</i> for Double and Float<br />
+ * - <i>boolean</i> for Boolean<br />
+ * - <i>interned string</i> for String and the other string based types<br />
+ * <br />
+ * The typed getters and setters, e.g. {@link #setLong(long)}, read and write
+ * the slot atomically without boxing, so that properties updated at a high
+ * rate do not allocate. The value is only boxed when it is read as object,
+ * e.g. when the property is serialized. Values written as object, e.g. by the
+ * submodel providers, are converted to the fixed value type. Thus, updates of
+ * the value type are ignored.<br />
+ * <br />
+ * Properties with a primitive slot can record their last values in a
+ * {@link PropertyHistory}, see {@link #enableHistory(int)}.
+ *
+ * @author schnicke
+ *
+ */
+public class PrimitiveProperty extends Property {
+	private enum Kind {
+		LONG, DOUBLE, BOOLEAN, STRING
+	}
+
+	private final ValueType valueType;
+	private final Kind kind;
+
+	// Range of the integer types
+	private final long min;
+	private final long max;
+
+	// Keeps long, double and boolean values. Writes of volatile long values are
+	// atomic
+	private volatile long bits;
+	private volatile String string;
+
+	private volatile PropertyHistory history;
+
+	/**
+	 * Creates a property with the default value of the given value type, i.e. 0,
+	 * false or null
+	 * 
+	 * @param idShort
+	 * @param valueType
+	 *            the type of the values, fixed for the lifetime of the property
+	 * @throws IllegalArgumentException
+	 *             if the value type can not be kept in a primitive slot
+	 */
+	public PrimitiveProperty(String idShort, ValueType valueType) {
+		super(idShort, valueType);
+		this.valueType = valueType;
+		switch (valueType) {
+		case Int8:
+			kind = Kind.LONG;
+			min = Byte.MIN_VALUE;
+			max = Byte.MAX_VALUE;
+			break;
+		case Int16:
+			kind = Kind.LONG;
+			min = Short.MIN_VALUE;
+			max = Short.MAX_VALUE;
+			break;
+		case Int32: case Integer:
+			kind = Kind.LONG;
+			min = Integer.MIN_VALUE;
+			max = Integer.MAX_VALUE;
+			break;
+		case Int64:
+			kind = Kind.LONG;
+			min = Long.MIN_VALUE;
+			max = Long.MAX_VALUE;
+			break;
+		case UInt8:
+			kind = Kind.LONG;
+			min = 0;
+			max = 0xFFL;
+			break;
+		case UInt16:
+			kind = Kind.LONG;
+			min = 0;
+			max = 0xFFFFL;
+			break;
+		case UInt32:
+			kind = Kind.LONG;
+			min = 0;
+			max = 0xFFFFFFFFL;
+			break;
+		case Double: case Float:
+			kind = Kind.DOUBLE;
+			min = 0;
+			max = 0;
+			break;
+		case Boolean:
+			kind = Kind.BOOLEAN;
+			min = 0;
+			max = 0;
+			break;
+		case AnySimpleType: case String: case LangString: case AnyURI: case Base64Binary: case HexBinary: case NOTATION: case ENTITY: case ID: case IDREF:
+			kind = Kind.STRING;
+			min = 0;
+			max = 0;
+			break;
+		default:
+			throw new IllegalArgumentException("Values of type " + valueType + " can not be kept in a primitive slot");
+		}
+		setMap(new SlotMap(map));
+	}
+
+	/**
+	 * Creates an Int64 property
+	 * 
+	 * @param idShort
+	 * @param value
+	 */
+	public PrimitiveProperty(String idShort, long value) {
+		this(idShort, ValueType.Int64);
+		setLong(value);
+	}
+
+	/**
+	 * Creates a Double property
+	 * 
+	 * @param idShort
+	 * @param value
+	 */
+	public PrimitiveProperty(String idShort, double value) {
+		this(idShort, ValueType.Double);
+		setDouble(value);
+	}
+
+	/**
+	 * Creates a Boolean property
+	 * 
+	 * @param idShort
+	 * @param value
+	 */
+	public PrimitiveProperty(String idShort, boolean value) {
+		this(idShort, ValueType.Boolean);
+		setBoolean(value);
+	}
+
+	/**
+	 * Creates a String property
+	 * 
+	 * @param idShort
+	 * @param value
+	 */
+	public PrimitiveProperty(String idShort, String value) {
+		this(idShort, ValueType.String);
+		setString(value);
+	}
+
+	public long getLong() {
+		checkKind(Kind.LONG);
+		return bits;
+	}
+
+	/**
+	 * Sets the value of an integer property
+	 * 
+	 * @param value
+	 * @throws IllegalArgumentException
+	 *             if the value is out of the range of the value type
+	 */
+	public void setLong(long value) {
+		checkKind(Kind.LONG);
+		if (value < min || value > max) {
+			throw new IllegalArgumentException("Value " + value + " is out of the range of " + valueType);
+		}
+		bits = value;
+		record(value);
+	}
+
+	public double getDouble() {
+		checkKind(Kind.DOUBLE);
+		return Double.longBitsToDouble(bits);
+	}
+
+	public void setDouble(double value) {
+		checkKind(Kind.DOUBLE);
+		bits = Double.doubleToRawLongBits(value);
+		record(bits);
+	}
+
+	public boolean getBoolean() {
+		checkKind(Kind.BOOLEAN);
+		return bits != 0;
+	}
+
+	public void setBoolean(boolean value) {
+		checkKind(Kind.BOOLEAN);
+		bits = value ? 1 : 0;
+		record(bits);
+	}
+
+	public String getString() {
+		checkKind(Kind.STRING);
+		return string;
+	}
+
+	/**
+	 * Sets the value of a string property. The value is interned, so that
+	 * properties switching between few states keep only one instance per state.
+	 * 
+	 * @param value
+	 */
+	public void setString(String value) {
+		checkKind(Kind.STRING);
+		string = value == null ? null : value.intern();
+	}
+
+	/**
+	 * Starts recording the values of the property in a history with the given
+	 * capacity, see {@link PropertyHistory}. A previously enabled history is
+	 * replaced. The history is served by the submodel providers at
+	 * <i>/history</i> below the path of the property.
+	 * 
+	 * @param capacity
+	 *            the maximum number of kept values
+	 * @return the new history
+	 * @throws UnsupportedOperationException
+	 *             if the property keeps strings
+	 */
+	public PropertyHistory enableHistory(int capacity) {
+		if (kind == Kind.STRING) {
+			throw new UnsupportedOperationException("The history of PrimitiveProperty '" + getIdShort() + "' can only keep primitive values");
+		}
+		history = new PropertyHistory(valueType, capacity);
+		return history;
+	}
+
+	/**
+	 * Stops recording the values of the property and drops its history
+	 */
+	public void disableHistory() {
+		history = null;
+	}
+
+	/**
+	 * Returns the history of the property
+	 * 
+	 * @return the history or null, if it is not enabled
+	 */
+	public PropertyHistory getHistory() {
+		return history;
+	}
+
+	@Override
+	public ValueType getValueType() {
+		return valueType;
+	}
+
+	/**
+	 * The value type is fixed at creation, thus it can only be set to the same
+	 * type
+	 */
+	@Override
+	public void setValueType(ValueType type) {
+		// Called by the constructor of the super class before the type is fixed
+		if (valueType != null && type != valueType) {
+			throw new UnsupportedOperationException("The value type of PrimitiveProperty '" + getIdShort() + "' is fixed to " + valueType);
+		}
+		super.setValueType(type);
+	}
+
+	@Override
+	public void set(Object newValue, ValueType newType) {
+		setValueType(newType);
+		setValue(newValue);
+	}
+
+	/**
+	 * Returns the value boxed according to the value type
+	 */
+	@Override
+	public Object getValue() {
+		return kind == Kind.STRING ? string : box(valueType, bits);
+	}
+
+	/**
+	 * Converts the value to the fixed value type
+	 * 
+	 * @throws IllegalArgumentException
+	 *             if the value can not be converted
+	 */
+	@Override
+	public void setValue(Object value) {
+		switch (kind) {
+		case LONG:
+			if (value instanceof Byte || value instanceof Short || value instanceof Integer || value instanceof Long) {
+				setLong(((Number) value).longValue());
+			} else if (value instanceof String) {
+				setLong(parse(value, Long::parseLong));
+			} else {
+				throw invalidValue(value);
+			}
+			break;
+		case DOUBLE:
+			if (value instanceof Number) {
+				setDouble(((Number) value).doubleValue());
+			} else if (value instanceof String) {
+				setDouble(parse(value, Double::parseDouble));
+			} else {
+				throw invalidValue(value);
+			}
+			break;
+		case BOOLEAN:
+			if (value instanceof Boolean) {
+				setBoolean((Boolean) value);
+			} else if ("true".equals(value) || "false".equals(value)) {
+				setBoolean(Boolean.parseBoolean((String) value));
+			} else {
+				throw invalidValue(value);
+			}
+			break;
+		default:
+			if (value != null && !(value instanceof String)) {
+				throw invalidValue(value);
+			}
+			setString((String) value);
+		}
+	}
+
+	private void record(long value) {
+		PropertyHistory current = history;
+		if (current != null) {
+			current.record(System.currentTimeMillis(), value);
+		}
+	}
+
+	/**
+	 * Boxes the bits kept in a primitive slot according to the value type
+	 */
+	static Object box(ValueType valueType, long bits) {
+		switch (valueType) {
+		case Int8:
+			return (byte) bits;
+		case Int16: case UInt8:
+			return (short) bits;
+		case Int32: case Integer: case UInt16:
+			return (int) bits;
+		case Double:
+			return Double.longBitsToDouble(bits);
+		case Float:
+			return (float) Double.longBitsToDouble(bits);
+		case Boolean:
+			return bits != 0;
+		default:
+			return bits;
+		}
+	}
+
+	private void checkKind(Kind expected) {
+		if (kind != expected) {
+			throw new UnsupportedOperationException("PrimitiveProperty '" + getIdShort() + "' has the value type " + valueType);
+		}
+	}
+
+	private <T> T parse(Object value, Function<String, T> parser) {
+		try {
+			return parser.apply((String) value);
+		} catch (NumberFormatException e) {
+			throw invalidValue(value);
+		}
+	}
+
+	private IllegalArgumentException invalidValue(Object value) {
+		return new IllegalArgumentException("Value " + value + " can not be converted to " + valueType);
+	}
+
+	/**
+	 * Backing map of the property, in which the value is read from and written
+	 * to the slot
+	 */
+	private class SlotMap extends AbstractMap<String, Object> {
+		private final Map<String, Object> attributes;
+
+		private SlotMap(Map<String, Object> attributes) {
+			this.attributes = attributes;
+			attributes.remove(Property.VALUE);
+		}
+
+		@Override
+		public Object get(Object key) {
+			if (Property.VALUE.equals(key)) {
+				return getValue();
+			} else if (PropertyHistory.HISTORY.equals(key) && history != null) {
+				// The history is only accessible by its key, so that it is neither
+				// serialized nor copied with the property
+				return history;
+			}
+			return attributes.get(key);
+		}
+
+		@Override
+		public boolean containsKey(Object key) {
+			return Property.VALUE.equals(key) || (PropertyHistory.HISTORY.equals(key) && history != null) || attributes.containsKey(key);
+		}
+
+		@Override
+		public Object put(String key, Object value) {
+			if (Property.VALUE.equals(key)) {
+				Object old = getValue();
+				setValue(value);
+				return old;
+			} else if (Property.VALUETYPE.equals(key)) {
+				// Values are converted to the fixed type, thus updates of the type are ignored
+				return valueType.toString();
+			}
+			return attributes.put(key, value);
+		}
+
+		@Override
+		public Object remove(Object key) {
+			if (Property.VALUE.equals(key) || Property.VALUETYPE.equals(key)) {
+				throw new UnsupportedOperationException("The value and the value type of a PrimitiveProperty can not be removed");
+			}
+			return attributes.remove(key);
+		}
+
+		@Override
+		public int size() {
+			return attributes.size() + 1;
+		}
+
+		@Override
+		public Set<Map.Entry<String, Object>> entrySet() {
+			return new AbstractSet<Map.Entry<String, Object>>() {
+				@Override
+				public Iterator<Map.Entry<String, Object>> iterator() {
+					Iterator<Map.Entry<String, Object>> entries = attributes.entrySet().iterator();
+					return new Iterator<Map.Entry<String, Object>>() {
+						private boolean valueReturned;
+						private boolean valueLast;
+
+						@Override
+						public boolean hasNext() {
+							return !valueReturned || entries.hasNext();
+						}
+
+						@Override
+						public Map.Entry<String, Object> next() {
+							valueLast = !valueReturned;
+							if (!valueReturned) {
+								valueReturned = true;
+								return new SimpleEntry<String, Object>(Property.VALUE, getValue()) {
+									private static final long serialVersionUID = 1L;
+
+									@Override
+									public Object setValue(Object value) {
+										return SlotMap.this.put(Property.VALUE, value);
+									}
+								};
+							}
+							return entries.next();
+						}
+
+						@Override
+						public void remove() {
+							if (valueLast) {
+								throw new UnsupportedOperationException("The value of a PrimitiveProperty can not be removed");
+							}
+							entries.remove();
+						}
+					};
+				}
+
+				@Override
+				public int size() {
+					return SlotMap.this.size();
+				}
+			};
+		}
+	}
+}
@@ -0,0 +1,224 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.basyx.submodel.metamodel.map.submodelelement.dataelement.property;
+
+import java.nio.ByteBuffer;
+import java.util.AbstractList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.basyx.submodel.metamodel.map.submodelelement.dataelement.property.valuetype.ValueType;
+
+/**
+ * History of the last values of a {@link PrimitiveProperty}, see
+ * {@link PrimitiveProperty#enableHistory(int)}. The history is a ring of a
+ * fixed number of records, each consisting of the timestamp of a change in
+ * milliseconds and the new value. The records are kept in a direct
+ * {@link ByteBuffer}, thus recording values neither allocates nor adds to the
+ * heap, regardless of the length of the history.<br />
+ * <br />
+ * Values are recorded without locking by the single thread that updates the
+ * property. Concurrent updates of the same property are not supported, e.g.
+ * properties updated by a submodel API have to be updated through a
+ * {@link org.eclipse.basyx.submodel.restapi.concurrent.ConcurrentSubmodelAPI
+ * ConcurrentSubmodelAPI}, which serializes the updates. If they are not
+ * serialized nevertheless, each update claims its own slot of the ring and
+ * waits until the previous records have been written, so that the records are
+ * still published in order. Any number of threads can read the history
+ * concurrently without blocking the updater. Reads only allocate the returned
+ * records.
+ *
+ * @author schnicke
+ *
+ */
+public class PropertyHistory {
+	public static final String HISTORY = "history";
+	public static final String TIMESTAMP = "timestamp";
+
+	// Each record consists of the timestamp and the bits of the value
+	private static final int RECORD_SIZE = 2 * Long.BYTES;
+
+	private final ValueType valueType;
+	private final int capacity;
+	private final ByteBuffer records;
+
+	// Number of records whose writing has been started. Records older than the
+	// last claimed capacity records may have been overwritten.
+	private final AtomicLong claimed = new AtomicLong();
+
+	// Number of records that have been written completely. Records are published
+	// in the order they have been claimed.
+	private final AtomicLong written = new AtomicLong();
+
+	private final AtomicLong lastTimestamp = new AtomicLong(Long.MIN_VALUE);
+
+	/**
+	 * Creates an empty history
+	 *
+	 * @param valueType
+	 *            the type of the recorded values, determines how they are returned
+	 * @param capacity
+	 *            the maximum number of kept records
+	 * @throws IllegalArgumentException
+	 *             if the capacity is not positive or too large
+	 */
+	PropertyHistory(ValueType valueType, int capacity) {
+		if (capacity <= 0 || capacity > Integer.MAX_VALUE / RECORD_SIZE) {
+			throw new IllegalArgumentException("Invalid history capacity " + capacity);
+		}
+		this.valueType = valueType;
+		this.capacity = capacity;
+		this.records = ByteBuffer.allocateDirect(capacity * RECORD_SIZE);
+	}
+
+	/**
+	 * Returns the maximum number of kept records
+	 *
+	 * @return
+	 */
+	public int getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * Returns the number of currently kept records
+	 *
+	 * @return
+	 */
+	public int size() {
+		return (int) Math.min(written.get(), capacity);
+	}
+
+	/**
+	 * Records a value, overwriting the oldest record if the history is full.
+	 * Should only be called by one thread at a time, concurrent calls wait for
+	 * each other.
+	 *
+	 * @param timestamp
+	 *            time of the change in milliseconds. Timestamps earlier than the
+	 *            last recorded one are raised to it, so that the records are
+	 *            ordered by their timestamps.
+	 * @param bits
+	 *            the value as it is kept by the property
+	 */
+	void record(long timestamp, long bits) {
+		// The atomic update of the claim orders the following writes after it
+		long index = claimed.getAndIncrement();
+
+		// Wait until the records claimed before have been published
+		while (written.get() != index) {
+			Thread.yield();
+		}
+
+		// Raised in the order of the claims, thus ascending with the index
+		long recorded = lastTimestamp.accumulateAndGet(timestamp, Math::max);
+		int offset = offset(index);
+		records.putLong(offset, recorded);
+		records.putLong(offset + Long.BYTES, bits);
+		written.lazySet(index + 1);
+	}
+
+	/**
+	 * Returns the recorded values, whose timestamp lies in the given range, in
+	 * the order they have been recorded. If more values lie in the range than the
+	 * limit allows, the latest ones are returned. Each record is returned as map
+	 * containing the {@link #TIMESTAMP} and the {@link Property#VALUE}.<br />
+	 * <br />
+	 * Only the returned records are read from the history. The maps of the
+	 * records are created when they are accessed.
+	 *
+	 * @param from
+	 *            earliest timestamp in milliseconds, inclusive
+	 * @param to
+	 *            latest timestamp in milliseconds, inclusive
+	 * @param limit
+	 *            maximum number of returned records
+	 * @return
+	 * @throws IllegalArgumentException
+	 *             if the limit is negative
+	 */
+	public List<Map<String, Object>> read(long from, long to, int limit) {
+		if (limit < 0) {
+			throw new IllegalArgumentException("Invalid history limit " + limit);
+		}
+
+		long end = written.get();
+		long oldest = Math.max(0, end - capacity);
+
+		// The timestamps are ascending, thus the requested records are a sequence
+		// ending at the latest record before the end of the range
+		long last = end;
+		while (last > oldest && timestamp(last - 1) > to) {
+			last--;
+		}
+		long first = last;
+		while (first > oldest && last - first < limit && timestamp(first - 1) >= from) {
+			first--;
+		}
+
+		int count = (int) (last - first);
+		long[] timestamps = new long[count];
+		long[] values = new long[count];
+		for (int i = 0; i < count; i++) {
+			int offset = offset(first + i);
+			timestamps[i] = records.getLong(offset);
+			values[i] = records.getLong(offset + Long.BYTES);
+		}
+
+		// The atomic update orders the reads before it. Records that have been
+		// claimed to be overwritten in the meantime are dropped, they are not part
+		// of the history anymore.
+		long valid = claimed.getAndAdd(0) - capacity;
+		int skip = (int) Math.min(count, Math.max(0, valid - first));
+		return new Records(timestamps, values, skip);
+	}
+
+	private long timestamp(long index) {
+		return records.getLong(offset(index));
+	}
+
+	private int offset(long index) {
+		return (int) (index % capacity) * RECORD_SIZE;
+	}
+
+	/**
+	 * Records read from the history
+	 */
+	private class Records extends AbstractList<Map<String, Object>> implements RandomAccess {
+		private final long[] timestamps;
+		private final long[] values;
+		private final int skip;
+
+		private Records(long[] timestamps, long[] values, int skip) {
+			this.timestamps = timestamps;
+			this.values = values;
+			this.skip = skip;
+		}
+
+		@Override
+		public Map<String, Object> get(int index) {
+			if (index < 0 || index >= size()) {
+				throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+			}
+			Map<String, Object> record = new LinkedHashMap<>(4);
+			record.put(TIMESTAMP, timestamps[skip + index]);
+			record.put(Property.VALUE, PrimitiveProperty.box(valueType, values[skip + index]));
+			return record;
+		}
+
+		@Override
+		public int size() {
+			return timestamps.length - skip;
+		}
+	}
+}
@@ -0,0 +1,144 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.basyx.submodel.restapi;
+
+import java.util.StringJoiner;
+
+import org.eclipse.basyx.submodel.metamodel.map.submodelelement.dataelement.property.PropertyHistory;
+import org.eclipse.basyx.vab.exception.provider.MalformedRequestException;
+
+/**
+ * Request for the history of a property, see {@link PropertyHistory}. The
+ * request is given as last path element below the path of the property, e.g.
+ * <i>/history?from=1000&amp;to=2000&amp;limit=10</i>. All parameters are
+ * optional, the timestamps are given in milliseconds.
+ *
+ * @author schnicke
+ *
+ */
+public final class HistoryQuery {
+	public static final String FROM = "from";
+	public static final String TO = "to";
+	public static final String LIMIT = "limit";
+
+	private final long from;
+	private final long to;
+	private final int limit;
+
+	/**
+	 * Requests the whole history
+	 */
+	public HistoryQuery() {
+		this(Long.MIN_VALUE, Long.MAX_VALUE, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Requests the latest records of a time range
+	 *
+	 * @param from
+	 *            earliest timestamp in milliseconds, inclusive
+	 * @param to
+	 *            latest timestamp in milliseconds, inclusive
+	 * @param limit
+	 *            maximum number of returned records
+	 */
+	public HistoryQuery(long from, long to, int limit) {
+		this.from = from;
+		this.to = to;
+		this.limit = limit;
+	}
+
+	public long getFrom() {
+		return from;
+	}
+
+	public long getTo() {
+		return to;
+	}
+
+	public int getLimit() {
+		return limit;
+	}
+
+	/**
+	 * Checks if a path element requests a history
+	 *
+	 * @param element
+	 * @return
+	 */
+	public static boolean isHistoryQuery(String element) {
+		return element.equals(PropertyHistory.HISTORY) || element.startsWith(PropertyHistory.HISTORY + "?");
+	}
+
+	/**
+	 * Parses the parameters of a path element requesting a history
+	 *
+	 * @param element
+	 *            e.g. <i>history?from=1000&amp;limit=10</i>
+	 * @return
+	 * @throws MalformedRequestException
+	 *             if the element does not request a history or has invalid
+	 *             parameters
+	 */
+	public static HistoryQuery parse(String element) {
+		if (!isHistoryQuery(element)) {
+			throw new MalformedRequestException("Path element '" + element + "' does not request a history");
+		}
+
+		long from = Long.MIN_VALUE;
+		long to = Long.MAX_VALUE;
+		int limit = Integer.MAX_VALUE;
+		int query = element.indexOf('?');
+		if (query >= 0) {
+			for (String parameter : element.substring(query + 1).split("&")) {
+				int separator = parameter.indexOf('=');
+				String name = separator < 0 ? parameter : parameter.substring(0, separator);
+				String value = separator < 0 ? "" : parameter.substring(separator + 1);
+				try {
+					if (name.equals(FROM)) {
+						from = Long.parseLong(value);
+					} else if (name.equals(TO)) {
+						to = Long.parseLong(value);
+					} else if (name.equals(LIMIT)) {
+						limit = Integer.parseInt(value);
+					} else if (!name.isEmpty()) {
+						throw new MalformedRequestException("Unknown history parameter '" + name + "'");
+					}
+				} catch (NumberFormatException e) {
+					throw new MalformedRequestException("Invalid value '" + value + "' of history parameter '" + name + "'");
+				}
+			}
+		}
+
+		if (limit < 0) {
+			throw new MalformedRequestException("Invalid history limit " + limit);
+		}
+		return new HistoryQuery(from, to, limit);
+	}
+
+	/**
+	 * Returns the path element requesting the history, the parameters with
+	 * default values are omitted
+	 */
+	@Override
+	public String toString() {
+		StringJoiner parameters = new StringJoiner("&", PropertyHistory.HISTORY + "?", "").setEmptyValue(PropertyHistory.HISTORY);
+		if (from != Long.MIN_VALUE) {
+			parameters.add(FROM + "=" + from);
+		}
+		if (to != Long.MAX_VALUE) {
+			parameters.add(TO + "=" + to);
+		}
+		if (limit != Integer.MAX_VALUE) {
+			parameters.add(LIMIT + "=" + limit);
+		}
+		return parameters.toString();
+	}
+}
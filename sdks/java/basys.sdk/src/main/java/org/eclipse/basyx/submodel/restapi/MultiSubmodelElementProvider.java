@@ -9,9 +9,10 @@
  ******************************************************************************/
 package org.eclipse.basyx.submodel.restapi;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 import org.eclipse.basyx.submodel.metamodel.facade.SubmodelElementMapCollectionConverter;
 import org.eclipse.basyx.submodel.metamodel.map.submodelelement.SubmodelElementCollection;
@@ -19,7 +20,7 @@ import org.eclipse.basyx.vab.exception.provider.MalformedRequestException;
 import org.eclipse.basyx.vab.exception.provider.ProviderException;
 import org.eclipse.basyx.vab.exception.provider.ResourceNotFoundException;
 import org.eclipse.basyx.vab.modelprovider.VABElementProxy;
-import org.eclipse.basyx.vab.modelprovider.VABPathTools;
+import org.eclipse.basyx.vab.modelprovider.VABPath;
 import org.eclipse.basyx.vab.modelprovider.api.IModelProvider;
 
 /**
@@ -37,11 +38,15 @@ public class MultiSubmodelElementProvider implements IModelProvider {
 	// Assumed to be a map that maps idShorts to the submodel elements
 	private IModelProvider modelProvider;
 
+	// Providers of the submodel elements, i.e. the provider tree of the submodel
+	private final SubmodelElementProviderCache elements;
+
 	/**
 	 * Constructor based on a model provider that contains the container property
 	 */
 	public MultiSubmodelElementProvider(IModelProvider provider) {
 		this.modelProvider = provider;
+		this.elements = new SubmodelElementProviderCache(idShort -> new VABElementProxy(idShort, modelProvider));
 	}
 
 	/**
@@ -49,47 +54,61 @@ public class MultiSubmodelElementProvider implements IModelProvider {
 	 */
 	@SuppressWarnings("unchecked")
 	protected Collection<Map<String, Object>> getElementsList() {
-		Object elements = modelProvider.getValue("");
-		Map<String, Map<String, Object>> all = (Map<String, Map<String, Object>>) elements;
-
-		// Feed all ELements through their Providers, in case someting needs to be done to them (e.g. smElemCollections)
-		return all.entrySet().stream().map(e -> (Map<String, Object>) getSingleElement(ELEMENTS + "/" + e.getKey())).collect(Collectors.toList());
+		Map<String, Map<String, Object>> all = (Map<String, Map<String, Object>>) modelProvider.getValue("");
+
+		// The retrieved elements are used to resolve the providers of new elements and
+		// to drop those of elements that have been deleted in the meantime
+		elements.retainAll(all.keySet());
+		List<Map<String, Object>> result = new ArrayList<>(all.size());
+		for (Map.Entry<String, Map<String, Object>> entry : all.entrySet()) {
+			elements.resolve(entry.getKey(), entry.getValue());
+			result.add(toElementMap(entry.getValue()));
+		}
+		return result;
 	}
 
 	/**
-	 * Single elements can be directly accessed in maps => return a proxy
+	 * Returns an element as it is returned by its provider, i.e. collections
+	 * contain a collection of elements instead of the internally used map
 	 */
-	private IModelProvider getElementProxy(String[] pathElements) {
-		String idShort = pathElements[1];
-		return new VABElementProxy(idShort, modelProvider);
+	private Map<String, Object> toElementMap(Map<String, Object> element) {
+		if (SubmodelElementCollection.isSubmodelElementCollection(element)) {
+			return SubmodelElementMapCollectionConverter.smElementToMap(SubmodelElementCollection.createAsFacade(element));
+		}
+		return element;
 	}
 
-	private Object getSingleElement(String path) {
-		// Build new proxy pointing at sub-property of a submodelelement and forward the
-		// remaininig part of the path to an appropriate provider
-		String[] pathElements = VABPathTools.splitPath(path);
-		String qualifier = pathElements[0];
-		IModelProvider elementProxy = getElementProxy(pathElements);
-
-		if (qualifier.equals(ELEMENTS)) {
-			String subPath = VABPathTools.buildPath(pathElements, 2);
-			return new SubmodelElementProvider(elementProxy).getValue(subPath);
-		} else {
-			throw new MalformedRequestException("Given path '" + path + "' does not start with /submodelElements");
+	/**
+	 * Returns the idShort of the element a path points to
+	 */
+	private String getIdShort(VABPath path) {
+		if (path.size() < 2) {
+			throw new MalformedRequestException("Given path '" + path + "' does not point to a submodel element");
 		}
+		return path.getElement(1);
+	}
+
+	private Object getSingleElement(VABPath path) {
+		// Forward the remaininig part of the path to the provider of the submodel element
+		return elements.getValue(getIdShort(path), path.skip(2));
 	}
 
 	@Override
 	public Object getValue(String path) throws ProviderException {
-		String[] pathElements = VABPathTools.splitPath(path);
-		String qualifier = pathElements[0];
-		
-		if(!qualifier.equals(ELEMENTS)) {
-			// No other qualifier in a submodel element container can be directly accessed
-			throw new MalformedRequestException("Given path '" + path + "' does not start with /submodelElements");
-		}
+		return getValue(VABPath.parse(path));
+	}
+
+	/**
+	 * Gets a value stored in a given path, see {@link #getValue(String)}
+	 * 
+	 * @param path
+	 * @return
+	 * @throws ProviderException
+	 */
+	public Object getValue(VABPath path) throws ProviderException {
+		checkQualifier(path);
 		
-		if (pathElements.length == 1) {
+		if (path.size() == 1) {
 			// returns all elements
 			return getElementsList();
 		} else {
@@ -100,30 +119,42 @@ public class MultiSubmodelElementProvider implements IModelProvider {
 
 	@Override
 	public void setValue(String path, Object newValue) throws ProviderException {
-		String[] pathElements = VABPathTools.splitPath(path);
-		String qualifier = pathElements[0];
-		if (pathElements.length < 2 || !qualifier.equals(ELEMENTS)) {
+		setValue(VABPath.parse(path), newValue);
+	}
+
+	/**
+	 * Sets or overrides existing value in a given path, see
+	 * {@link #setValue(String, Object)}
+	 * 
+	 * @param path
+	 * @param newValue
+	 * @throws ProviderException
+	 */
+	public void setValue(VABPath path, Object newValue) throws ProviderException {
+		if (path.size() < 2 || !path.startsWith(ELEMENTS)) {
 			// only possible to set values in a data elements, currently
 			throw new MalformedRequestException("Given path '" + path + "' is invalid for set");
 		}
 
-		IModelProvider elementProxy = getElementProxy(pathElements);
-		String subPath = VABPathTools.buildPath(pathElements, 2);
-		
-		new SubmodelElementProvider(elementProxy).setValue(subPath, newValue);
+		elements.modify(getIdShort(path), element -> element.setValue(path.skip(2), newValue));
 	}
 
 	@Override
-	@SuppressWarnings("unchecked")
 	public void createValue(String path, Object newEntity) throws ProviderException {
-		String[] pathElements = VABPathTools.splitPath(path);
-		String qualifier = pathElements[0];
-		String subPath = VABPathTools.buildPath(pathElements, 2);
-		
+		createValue(VABPath.parse(path), newEntity);
+	}
 
-		if (!qualifier.equals(ELEMENTS)) {
-			throw new MalformedRequestException("Given path '" + path + "' does not start with /submodelElements");
-		}
+	/**
+	 * Creates a new value under the given path, see
+	 * {@link #createValue(String, Object)}
+	 * 
+	 * @param path
+	 * @param newEntity
+	 * @throws ProviderException
+	 */
+	@SuppressWarnings("unchecked")
+	public void createValue(VABPath path, Object newEntity) throws ProviderException {
+		checkQualifier(path);
 		
 		// Check if the passed element is a SubmodelElementCollection. If yes, the value
 		// of the "value" key needs to be handled
@@ -132,42 +163,44 @@ public class MultiSubmodelElementProvider implements IModelProvider {
 			newEntity = SubmodelElementMapCollectionConverter.mapToSmECollection(smCollection);
 		}
 
-		if (pathElements.length == 2) {
+		if (path.size() == 2) {
 			// It is allowed to overwrite existing properties inside of a submodel
 			try {
-				modelProvider.setValue(pathElements[1], newEntity);
+				modelProvider.setValue(path.getElement(1), newEntity);
 			} catch (ResourceNotFoundException e) {
-				modelProvider.createValue(pathElements[1], newEntity);
+				modelProvider.createValue(path.getElement(1), newEntity);
 			}
+			elements.invalidate(path.getElement(1));
 		} else {
-			IModelProvider elementProxy = getElementProxy(pathElements);
-			new SubmodelElementProvider(elementProxy).createValue(subPath, newEntity);
+			Object entity = newEntity;
+			elements.modify(getIdShort(path), element -> element.createValue(path.skip(2), entity));
 		}
 	}
 
 	@Override
 	public void deleteValue(String path) throws ProviderException {
-		String[] pathElements = VABPathTools.splitPath(path);
-		String qualifier = pathElements[0];
-		String subPath;
-		IModelProvider elementProvider;
-		
-		if (!qualifier.equals(ELEMENTS)) {
-			throw new MalformedRequestException("Given path '" + path + "' does not start with /submodelElements");
-		}
+		deleteValue(VABPath.parse(path));
+	}
+
+	/**
+	 * Deletes value under the given path, see {@link #deleteValue(String)}
+	 * 
+	 * @param path
+	 * @throws ProviderException
+	 */
+	public void deleteValue(VABPath path) throws ProviderException {
+		checkQualifier(path);
 
 		// If the first Element is a Collection, use its Provider
-		if(pathElements.length > 2) {
-			IModelProvider elementProxy = getElementProxy(pathElements);
-			elementProvider = new SubmodelElementProvider(elementProxy); 
-			subPath = VABPathTools.buildPath(pathElements, 2);
+		if(path.size() > 2) {
+			elements.modify(getIdShort(path), element -> element.deleteValue(path.skip(2)));
 		} else {
-			elementProvider = modelProvider;
-			subPath = VABPathTools.buildPath(pathElements, 1);
+			// Delete a specific submodel element
+			modelProvider.deleteValue(path.skip(1).toString());
+			if (path.size() == 2) {
+				elements.invalidate(path.getElement(1));
+			}
 		}
-
-		// Delete a specific submodel element
-		elementProvider.deleteValue(subPath);
 	}
 
 	@Override
@@ -177,15 +210,26 @@ public class MultiSubmodelElementProvider implements IModelProvider {
 
 	@Override
 	public Object invokeOperation(String path, Object... parameters) throws ProviderException {
-		String[] pathElements = VABPathTools.splitPath(path);
-		String subPath = VABPathTools.buildPath(pathElements, 2);
+		return invokeOperation(VABPath.parse(path), parameters);
+	}
 
-		String qualifier = pathElements[0];
-		if (!qualifier.equals(ELEMENTS)) {
+	/**
+	 * Invokes an operation, see {@link #invokeOperation(String, Object...)}
+	 * 
+	 * @param path
+	 * @param parameters
+	 * @return
+	 * @throws ProviderException
+	 */
+	public Object invokeOperation(VABPath path, Object... parameters) throws ProviderException {
+		checkQualifier(path);
+		return elements.access(getIdShort(path), element -> element.invokeOperation(path.skip(2), parameters));
+	}
+
+	private void checkQualifier(VABPath path) {
+		if (!path.startsWith(ELEMENTS)) {
+			// No other qualifier in a submodel element container can be directly accessed
 			throw new MalformedRequestException("Given path '" + path + "' does not start with /submodelElements");
 		}
-		
-		IModelProvider elementProxy = getElementProxy(pathElements);
-		return new SubmodelElementProvider(elementProxy).invokeOperation(subPath, parameters);
 	}
 }
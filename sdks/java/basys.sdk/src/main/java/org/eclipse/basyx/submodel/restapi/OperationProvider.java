@@ -43,8 +43,19 @@ public class OperationProvider implements IModelProvider {
 	private IModelProvider modelProvider;
 
 	public OperationProvider(IModelProvider modelProvider) {
+		this(modelProvider, modelProvider.getValue(""));
+	}
+
+	/**
+	 * Creates the provider for an operation that has already been retrieved
+	 * 
+	 * @param modelProvider
+	 * @param operation
+	 *            the operation the model provider points to
+	 */
+	OperationProvider(IModelProvider modelProvider, Object operation) {
 		this.modelProvider = modelProvider;
-		operationId = getIdShort(modelProvider.getValue(""));
+		operationId = getIdShort(operation);
 	}
 
 	@Override
@@ -103,9 +114,9 @@ public class OperationProvider implements IModelProvider {
 			requestId = UUID.randomUUID().toString();
 		}
 
-		// Invoke /invokable instead of an Operation property if existent
-		Object childElement = modelProvider.getValue(path);
-		if (Operation.isOperation(childElement)) {
+		// Invoke /invokable instead of an Operation property if existent. The provider
+		// itself points to an Operation, thus the element does not have to be read again.
+		if (VABPathTools.isEmptyPath(path) || Operation.isOperation(modelProvider.getValue(path))) {
 			path = VABPathTools.concatenatePaths(path, Operation.INVOKABLE);
 		}
 		
@@ -12,9 +12,11 @@ package org.eclipse.basyx.submodel.restapi;
 import java.util.Map;
 
 import org.eclipse.basyx.submodel.metamodel.map.submodelelement.dataelement.property.Property;
+import org.eclipse.basyx.submodel.metamodel.map.submodelelement.dataelement.property.PropertyHistory;
 import org.eclipse.basyx.submodel.metamodel.map.submodelelement.dataelement.property.valuetype.ValueTypeHelper;
 import org.eclipse.basyx.vab.exception.provider.MalformedRequestException;
 import org.eclipse.basyx.vab.exception.provider.ProviderException;
+import org.eclipse.basyx.vab.exception.provider.ResourceNotFoundException;
 import org.eclipse.basyx.vab.modelprovider.VABPathTools;
 import org.eclipse.basyx.vab.modelprovider.api.IModelProvider;
 
@@ -46,11 +48,33 @@ public class PropertyProvider implements IModelProvider {
 		} else if (path.isEmpty()) {
 			// Handle "" path by returning complete property
 			return proxy.getValue("");
+		} else if (HistoryQuery.isHistoryQuery(path)) {
+			// Handle "/history" path by reading the requested records from the history
+			HistoryQuery query = HistoryQuery.parse(path);
+			return getHistory().read(query.getFrom(), query.getTo(), query.getLimit());
 		} else {
 			throw new MalformedRequestException("Unknown path: " + path);
 		}
 	}
 
+	/**
+	 * Retrieves the history of the property, which is only accessible from the
+	 * property itself, see {@link PropertyHistory}
+	 */
+	private PropertyHistory getHistory() {
+		Object history;
+		try {
+			history = proxy.getValue(PropertyHistory.HISTORY);
+		} catch (ResourceNotFoundException e) {
+			history = null;
+		}
+
+		if (!(history instanceof PropertyHistory)) {
+			throw new ResourceNotFoundException("The property does not record a history");
+		}
+		return (PropertyHistory) history;
+	}
+
 	@Override
 	public void setValue(String path, Object newValue) throws ProviderException {
 		path = VABPathTools.stripSlashes(path);
@@ -17,6 +17,7 @@ import org.eclipse.basyx.vab.exception.provider.MalformedRequestException;
 import org.eclipse.basyx.vab.exception.provider.ProviderException;
 import org.eclipse.basyx.vab.exception.provider.ResourceNotFoundException;
 import org.eclipse.basyx.vab.modelprovider.VABElementProxy;
+import org.eclipse.basyx.vab.modelprovider.VABPath;
 import org.eclipse.basyx.vab.modelprovider.VABPathTools;
 import org.eclipse.basyx.vab.modelprovider.api.IModelProvider;
 
@@ -29,108 +30,141 @@ public class SubmodelElementCollectionProvider implements IModelProvider {
 
 	private IModelProvider proxy;
 
+	// Providers of the contained elements
+	private final SubmodelElementProviderCache elements;
+
 	public SubmodelElementCollectionProvider(IModelProvider proxy) {
 		this.proxy = proxy;
+		this.elements = new SubmodelElementProviderCache(this::createElementProxy);
 	}
 
 	/**
 	 * Get a single smElement for a given idShort and return a provider for it
 	 */
-	protected IModelProvider getElementProvider(String idShort) {
+	protected SubmodelElementProvider getElementProvider(String idShort) {
+		return elements.get(idShort);
+	}
 
+	private IModelProvider createElementProxy(String idShort) {
 		// The "value" before the id is needed by the providers lower down in order to handle collections correctly
 		// The paths then look like e.g. "submodelElements/collectionID/value/propertyID"
-		IModelProvider defaultProvider = new VABElementProxy(
-				VABPathTools.concatenatePaths(MultiSubmodelElementProvider.VALUE, idShort), proxy);
-
-		// Wrap the property with idShort into a SubmodelElementProvider and return that provider
-		return new SubmodelElementProvider(defaultProvider);
+		return new VABElementProxy(MultiSubmodelElementProvider.VALUE + VABPathTools.SEPERATOR + idShort, proxy);
 	}
 
-	@SuppressWarnings("unchecked")
 	@Override
 	public Object getValue(String path) throws ProviderException {
-		path = VABPathTools.stripSlashes(path);
-		String[] pathElements = VABPathTools.splitPath(path);
+		return getValue(VABPath.parse(path));
+	}
 
+	/**
+	 * Gets a value stored in a given path, see {@link #getValue(String)}
+	 * 
+	 * @param path
+	 * @return
+	 * @throws ProviderException
+	 */
+	@SuppressWarnings("unchecked")
+	public Object getValue(VABPath path) throws ProviderException {
 		if (path.isEmpty()) {
 			// Convert the internally used Map to a Collection before returning the smECollection
-			Map<String, Object> map = (Map<String, Object>) proxy.getValue(path);
+			Map<String, Object> map = (Map<String, Object>) proxy.getValue("");
 			SubmodelElementCollection smElemColl = SubmodelElementCollection.createAsFacade(map);
 			return SubmodelElementMapCollectionConverter.smElementToMap(smElemColl);
-		} else if(path.equals(MultiSubmodelElementProvider.VALUE)) {
+		} else if (isValuePath(path)) {
 			// Return only a Collection of Elements. Not the internally used Map.
-			return SubmodelElementMapCollectionConverter.convertIDMapToCollection(proxy.getValue(path));
+			return SubmodelElementMapCollectionConverter.convertIDMapToCollection(proxy.getValue(MultiSubmodelElementProvider.VALUE));
 		} else {
 			// Directly access an element inside of the collection
-			String idShort = pathElements[0];
-			String subPath = VABPathTools.buildPath(pathElements, 1);
-			
-			return getElementProvider(idShort).getValue(subPath);
+			return elements.getValue(path.getFirstElement(), path.skip(1));
 		}
 	}
 
-	@SuppressWarnings("unchecked")
 	@Override
 	public void setValue(String path, Object newValue) throws ProviderException {
-		path = VABPathTools.stripSlashes(path);
-		String[] pathElements = VABPathTools.splitPath(path);
+		setValue(VABPath.parse(path), newValue);
+	}
 
+	/**
+	 * Sets or overrides existing value in a given path, see
+	 * {@link #setValue(String, Object)}
+	 * 
+	 * @param path
+	 * @param newValue
+	 * @throws ProviderException
+	 */
+	@SuppressWarnings("unchecked")
+	public void setValue(VABPath path, Object newValue) throws ProviderException {
 		if (path.isEmpty()) {
 			// Convert the Collection of Elements to the internally used Map
 			Map<String, Object> value =
 					SubmodelElementMapCollectionConverter.mapToSmECollection((Map<String, Object>) newValue);
-			proxy.setValue(path, value);
-		} else if(path.equals(MultiSubmodelElementProvider.VALUE)) {
+			proxy.setValue("", value);
+			elements.invalidateAll();
+		} else if (isValuePath(path)) {
 			// Convert the Collection of Elements to the internally used Map
 			Map<String, Object> value = SubmodelElementMapCollectionConverter.convertCollectionToIDMap(newValue);
-			proxy.setValue(path, value);
+			proxy.setValue(MultiSubmodelElementProvider.VALUE, value);
+			elements.invalidateAll();
 		} else {
 			// Directly access an element inside of the collection
-			String idShort = pathElements[0];
-			String subPath = VABPathTools.buildPath(pathElements, 1);
-			getElementProvider(idShort).setValue(subPath, newValue);
+			elements.modify(path.getFirstElement(), element -> element.setValue(path.skip(1), newValue));
 		}
 	}
 
 	@Override
 	public void createValue(String path, Object newEntity) throws ProviderException {
-		path = VABPathTools.stripSlashes(path);
-		String[] pathElements = VABPathTools.splitPath(path);
+		createValue(VABPath.parse(path), newEntity);
+	}
 
-		if (pathElements.length == 1) {
-			String valuePath = VABPathTools.concatenatePaths(MultiSubmodelElementProvider.VALUE, path);
+	/**
+	 * Creates a new value under the given path, see
+	 * {@link #createValue(String, Object)}
+	 * 
+	 * @param path
+	 * @param newEntity
+	 * @throws ProviderException
+	 */
+	public void createValue(VABPath path, Object newEntity) throws ProviderException {
+		if (path.isEmpty()) {
+			throw new MalformedRequestException("Path must not be empty");
+		} else if (path.size() == 1) {
+			String valuePath = MultiSubmodelElementProvider.VALUE + VABPathTools.SEPERATOR + path;
 			// It is allowed to overwrite existing properties inside of collections
 			try {
 				proxy.setValue(valuePath, newEntity);
 			} catch (ResourceNotFoundException e) {
 				proxy.createValue(valuePath, newEntity);
 			}
+			elements.invalidate(path.getFirstElement());
 		} else {
 			// Directly access an element inside of the collection
-			String idShort = pathElements[0];
-			String subPath = VABPathTools.buildPath(pathElements, 1);
-			getElementProvider(idShort).createValue(subPath, newEntity);
+			elements.modify(path.getFirstElement(), element -> element.createValue(path.skip(1), newEntity));
 		}
 	}
 
 	@Override
 	public void deleteValue(String path) throws ProviderException {
-		path = VABPathTools.stripSlashes(path);
-		String[] pathElements = VABPathTools.splitPath(path);
-		
+		deleteValue(VABPath.parse(path));
+	}
+
+	/**
+	 * Deletes value under the given path, see {@link #deleteValue(String)}
+	 * 
+	 * @param path
+	 * @throws ProviderException
+	 */
+	public void deleteValue(VABPath path) throws ProviderException {
 		// "value" is a keyword and can not be used as the ID of an Element
-		if (path.isEmpty() || path.equals(MultiSubmodelElementProvider.VALUE)) {
+		if (path.isEmpty() || isValuePath(path)) {
 			throw new MalformedRequestException("Path must not be empty or /value");
 		} else {
 			// If Path contains only one Element, use the proxy directly
-			if(pathElements.length == 1) {
-				proxy.deleteValue(VABPathTools.concatenatePaths(MultiSubmodelElementProvider.VALUE, path));
+			if(path.size() == 1) {
+				proxy.deleteValue(MultiSubmodelElementProvider.VALUE + VABPathTools.SEPERATOR + path);
+				elements.invalidate(path.getFirstElement());
 			} else {
 				// If Path contains more Elements, get the Provider for the first Element in Path
-				String idShort = pathElements[0];
-				String subPath = VABPathTools.buildPath(pathElements, 1);
-				getElementProvider(idShort).deleteValue(subPath);
+				elements.modify(path.getFirstElement(), element -> element.deleteValue(path.skip(1)));
 			}
 		}
 	}
@@ -142,16 +176,27 @@ public class SubmodelElementCollectionProvider implements IModelProvider {
 
 	@Override
 	public Object invokeOperation(String path, Object... parameter) throws ProviderException {
-		path = VABPathTools.stripSlashes(path);
-		String[] pathElements = VABPathTools.splitPath(path);
+		return invokeOperation(VABPath.parse(path), parameter);
+	}
 
-		if (path.isEmpty() || path.equals(MultiSubmodelElementProvider.VALUE)) {
+	/**
+	 * Invokes an operation, see {@link #invokeOperation(String, Object...)}
+	 * 
+	 * @param path
+	 * @param parameter
+	 * @return
+	 * @throws ProviderException
+	 */
+	public Object invokeOperation(VABPath path, Object... parameter) throws ProviderException {
+		if (path.isEmpty() || isValuePath(path)) {
 			throw new MalformedRequestException("Path must not be empty or /value");
 		} else {
 			// Directly access an element inside of the collection
-			String idShort = pathElements[0];
-			String subPath = VABPathTools.buildPath(pathElements, 1);
-			return getElementProvider(idShort).invokeOperation(subPath, parameter);
+			return elements.access(path.getFirstElement(), element -> element.invokeOperation(path.skip(1), parameter));
 		}
 	}
+
+	private boolean isValuePath(VABPath path) {
+		return path.size() == 1 && path.startsWith(MultiSubmodelElementProvider.VALUE);
+	}
 }
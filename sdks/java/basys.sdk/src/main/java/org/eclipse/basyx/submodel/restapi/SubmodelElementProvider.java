@@ -18,7 +18,7 @@ import org.eclipse.basyx.submodel.metamodel.map.submodelelement.dataelement.prop
 import org.eclipse.basyx.submodel.metamodel.map.submodelelement.operation.Operation;
 import org.eclipse.basyx.vab.exception.provider.MalformedRequestException;
 import org.eclipse.basyx.vab.exception.provider.ProviderException;
-import org.eclipse.basyx.vab.modelprovider.VABPathTools;
+import org.eclipse.basyx.vab.modelprovider.VABPath;
 import org.eclipse.basyx.vab.modelprovider.api.IModelProvider;
 
 /**
@@ -29,16 +29,33 @@ import org.eclipse.basyx.vab.modelprovider.api.IModelProvider;
  */
 public class SubmodelElementProvider implements IModelProvider {
 
-	private IModelProvider proxy;
+	private final IModelProvider proxy;
+
+	// Set if the element is a collection, whose provider accepts parsed paths
+	private final SubmodelElementCollectionProvider collectionProvider;
 	
 	// Flag used to indicate whether a specialized ElementProvider is used
-	private boolean specializedProvider = false;
+	private final boolean specializedProvider;
 
+	@SuppressWarnings("unchecked")
 	public SubmodelElementProvider(IModelProvider proxy) {
-		IModelProvider unchangedProxy = proxy;
-		this.proxy = getElementProvider(proxy);
+		this(proxy, (Map<String, Object>) proxy.getValue(""));
+	}
+
+	/**
+	 * Creates the provider for an element that has already been retrieved, so
+	 * that it does not have to be read again to find out its type
+	 * 
+	 * @param proxy
+	 *            the Provider given from above
+	 * @param elementMap
+	 *            the element the proxy points to
+	 */
+	public SubmodelElementProvider(IModelProvider proxy, Map<String, Object> elementMap) {
+		this.proxy = getElementProvider(proxy, elementMap);
 		// if the returned element provider is the same, no specialized provider exists
-		specializedProvider = unchangedProxy != this.proxy;
+		specializedProvider = proxy != this.proxy;
+		collectionProvider = this.proxy instanceof SubmodelElementCollectionProvider ? (SubmodelElementCollectionProvider) this.proxy : null;
 	}
 
 	/**
@@ -49,9 +66,12 @@ public class SubmodelElementProvider implements IModelProvider {
 	 */
 	@SuppressWarnings("unchecked")
 	public static IModelProvider getElementProvider(IModelProvider proxy) {
-		Map<String, Object> elementMap = (Map<String, Object>) proxy.getValue("");
+		return getElementProvider(proxy, (Map<String, Object>) proxy.getValue(""));
+	}
+
+	private static IModelProvider getElementProvider(IModelProvider proxy, Map<String, Object> elementMap) {
 		if(Operation.isOperation(elementMap)) {
-			return new OperationProvider(proxy);
+			return new OperationProvider(proxy, elementMap);
 		} else if (SubmodelElementCollection.isSubmodelElementCollection(elementMap)) {
 			return new SubmodelElementCollectionProvider(proxy);
 		} else if(Property.isProperty(elementMap)) {
@@ -61,17 +81,26 @@ public class SubmodelElementProvider implements IModelProvider {
 		}
 	}
 
-	@SuppressWarnings("unchecked")
 	@Override
 	public Object getValue(String path) throws ProviderException {
-		path = VABPathTools.stripSlashes(path);
+		return getValue(VABPath.parse(path));
+	}
 
-		if (path.equals(MultiSubmodelElementProvider.VALUE)) {
+	/**
+	 * Gets a value stored in a given path, see {@link #getValue(String)}
+	 * 
+	 * @param path
+	 * @return
+	 * @throws ProviderException
+	 */
+	@SuppressWarnings("unchecked")
+	public Object getValue(VABPath path) throws ProviderException {
+		if (path.size() == 1 && path.startsWith(MultiSubmodelElementProvider.VALUE)) {
 			// Handle "/value" path
 			// return value
 			
 			if(specializedProvider) {
-				return proxy.getValue(path);
+				return forwardGet(path);
 			}
 			
 			Map<String, Object> elementMap = (Map<String, Object>) proxy.getValue("");
@@ -86,20 +115,37 @@ public class SubmodelElementProvider implements IModelProvider {
 			}
 		} else {
 			// Path has more Elements -> pass it to Provider below
-			return proxy.getValue(path);
+			return forwardGet(path);
 		}
 	}
 
-	@SuppressWarnings("unchecked")
+	private Object forwardGet(VABPath path) {
+		if (collectionProvider != null) {
+			return collectionProvider.getValue(path);
+		}
+		return proxy.getValue(path.toString());
+	}
+
 	@Override
 	public void setValue(String path, Object newValue) throws ProviderException {
-		path = VABPathTools.stripSlashes(path);
-		
-		if(!path.endsWith(MultiSubmodelElementProvider.VALUE)) {
+		setValue(VABPath.parse(path), newValue);
+	}
+
+	/**
+	 * Sets or overrides existing value in a given path, see
+	 * {@link #setValue(String, Object)}
+	 * 
+	 * @param path
+	 * @param newValue
+	 * @throws ProviderException
+	 */
+	@SuppressWarnings("unchecked")
+	public void setValue(VABPath path, Object newValue) throws ProviderException {
+		if(!path.toString().endsWith(MultiSubmodelElementProvider.VALUE)) {
 			throw new MalformedRequestException("The given path '" + path + "' does not end in /value.");
 		}
 		
-		if (!specializedProvider && path.equals(MultiSubmodelElementProvider.VALUE)) {
+		if (!specializedProvider && path.size() == 1 && path.startsWith(MultiSubmodelElementProvider.VALUE)) {
 			// Path is only "value" and no specialized Provider has to be used -> update the Element of this Provider
 			Map<String, Object> elementMap = (Map<String, Object>) proxy.getValue("");
 			
@@ -113,31 +159,59 @@ public class SubmodelElementProvider implements IModelProvider {
 			
 			proxy.setValue("", element);
 			
-		} else {
+		} else if (collectionProvider != null) {
 			// Path has more Elements -> pass it to Provider below
-			proxy.setValue(path, newValue);
+			collectionProvider.setValue(path, newValue);
+		} else {
+			proxy.setValue(path.toString(), newValue);
 		}
 	}
 
 	@Override
 	public void createValue(String path, Object newEntity) throws ProviderException {
+		createValue(VABPath.parse(path), newEntity);
+	}
+
+	/**
+	 * Creates a new value under the given path, see
+	 * {@link #createValue(String, Object)}
+	 * 
+	 * @param path
+	 * @param newEntity
+	 * @throws ProviderException
+	 */
+	public void createValue(VABPath path, Object newEntity) throws ProviderException {
 		if(!specializedProvider) {
 			// In a regular SubmodelElement nothing can be created
 			throw new MalformedRequestException("Creating a new Element is not allowed at '" + path + "'");
+		} else if (collectionProvider != null) {
+			collectionProvider.createValue(path, newEntity);
 		} else {
 			// If a specialized Provider is used, pass it down
-			proxy.createValue(path, newEntity);
+			proxy.createValue(path.toString(), newEntity);
 		}
 	}
 
 	@Override
 	public void deleteValue(String path) throws ProviderException {
+		deleteValue(VABPath.parse(path));
+	}
+
+	/**
+	 * Deletes value under the given path, see {@link #deleteValue(String)}
+	 * 
+	 * @param path
+	 * @throws ProviderException
+	 */
+	public void deleteValue(VABPath path) throws ProviderException {
 		if(!specializedProvider) {
 			// From a regular SubmodelElement nothing can be deleted
 			throw new MalformedRequestException("Deleting the Element '" + path + "' is not allowed");
+		} else if (collectionProvider != null) {
+			collectionProvider.deleteValue(path);
 		} else {
 			// If a specialized Provider is used, pass it down
-			proxy.deleteValue(path);
+			proxy.deleteValue(path.toString());
 		}
 	}
 
@@ -151,4 +225,19 @@ public class SubmodelElementProvider implements IModelProvider {
 		return proxy.invokeOperation(path, parameter);		
 	}
 
+	/**
+	 * Invokes an operation, see {@link #invokeOperation(String, Object...)}
+	 * 
+	 * @param path
+	 * @param parameter
+	 * @return
+	 * @throws ProviderException
+	 */
+	public Object invokeOperation(VABPath path, Object... parameter) throws ProviderException {
+		if (collectionProvider != null) {
+			return collectionProvider.invokeOperation(path, parameter);
+		}
+		return proxy.invokeOperation(path.toString(), parameter);
+	}
+
 }
@@ -0,0 +1,218 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.basyx.submodel.restapi;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.eclipse.basyx.submodel.metamodel.map.modeltype.ModelType;
+import org.eclipse.basyx.vab.exception.provider.ResourceNotFoundException;
+import org.eclipse.basyx.vab.modelprovider.VABPath;
+import org.eclipse.basyx.vab.modelprovider.api.IModelProvider;
+
+/**
+ * Resolved providers of the elements of a submodel or of a collection, i.e. one
+ * level of the provider tree of a submodel. An element is read once to find
+ * out its type, afterwards requests are forwarded to its cached
+ * {@link SubmodelElementProvider} without reading it again.<br />
+ * <br />
+ * The owner has to invalidate an element after replacing or deleting it.
+ * Changes that bypass the providers, e.g. directly on the backend, are noticed
+ * as soon as an access fails because the element does not exist anymore, when
+ * the element itself is read and has another model type than the cached one
+ * or when all elements are retrieved. Until then, requests to the inner parts
+ * of an element that has been replaced by one of another type are forwarded
+ * to the provider of the old type.
+ *
+ * @author schnicke
+ *
+ */
+class SubmodelElementProviderCache {
+	private final Map<String, Entry> providers = new ConcurrentHashMap<>();
+	private final Function<String, IModelProvider> proxyFactory;
+
+	// Prevents caching providers that have been resolved before a concurrent modification
+	private final AtomicLong modifications = new AtomicLong();
+
+	/**
+	 * @param proxyFactory
+	 *            creates the proxy pointing to the element with the given idShort
+	 */
+	SubmodelElementProviderCache(Function<String, IModelProvider> proxyFactory) {
+		this.proxyFactory = proxyFactory;
+	}
+
+	/**
+	 * Returns the provider of an element, reads the element if it is not cached
+	 * yet
+	 *
+	 * @param idShort
+	 * @return
+	 */
+	SubmodelElementProvider get(String idShort) {
+		return getEntry(idShort).provider;
+	}
+
+	@SuppressWarnings("unchecked")
+	private Entry getEntry(String idShort) {
+		Entry entry = providers.get(idShort);
+		if (entry != null) {
+			return entry;
+		}
+
+		long modification = modifications.get();
+		IModelProvider proxy = proxyFactory.apply(idShort);
+		entry = new Entry(proxy, (Map<String, Object>) proxy.getValue(""));
+		if (modifications.get() != modification) {
+			return entry;
+		}
+		Entry existing = providers.putIfAbsent(idShort, entry);
+		return existing != null ? existing : entry;
+	}
+
+	/**
+	 * Caches the provider of an element that has just been retrieved, if there is
+	 * none yet or if the cached one has been resolved for another model type
+	 *
+	 * @param idShort
+	 * @param element
+	 */
+	void resolve(String idShort, Map<String, Object> element) {
+		Entry cached = providers.get(idShort);
+		if (cached != null && cached.isOfType(element)) {
+			return;
+		}
+
+		long modification = modifications.get();
+		Entry entry = new Entry(proxyFactory.apply(idShort), element);
+		if (modifications.get() != modification) {
+			return;
+		}
+		if (cached == null) {
+			providers.putIfAbsent(idShort, entry);
+		} else {
+			providers.replace(idShort, cached, entry);
+		}
+	}
+
+	/**
+	 * Reads a path of an element through its provider, see
+	 * {@link #access(String, Function)}. If the element itself is read and it has
+	 * another model type than the one the provider has been resolved for, the
+	 * provider is resolved again and the element is read through the new one.
+	 *
+	 * @param idShort
+	 * @param path
+	 *            inside of the element
+	 * @return
+	 */
+	Object getValue(String idShort, VABPath path) {
+		Entry entry = getEntry(idShort);
+		Object value = access(idShort, entry, provider -> provider.getValue(path));
+		if (!path.isEmpty() || !(value instanceof Map) || entry.isOfType(value)) {
+			return value;
+		}
+
+		// The element has been replaced by one of another type, bypassing the providers
+		modifications.incrementAndGet();
+		providers.remove(idShort, entry);
+		return access(idShort, provider -> provider.getValue(path));
+	}
+
+	/**
+	 * Accesses an element through its provider. The provider is dropped if the
+	 * element does not exist anymore.
+	 *
+	 * @param idShort
+	 * @param access
+	 * @return
+	 */
+	<T> T access(String idShort, Function<SubmodelElementProvider, T> access) {
+		return access(idShort, getEntry(idShort), access);
+	}
+
+	private <T> T access(String idShort, Entry entry, Function<SubmodelElementProvider, T> access) {
+		try {
+			return access.apply(entry.provider);
+		} catch (ResourceNotFoundException e) {
+			providers.remove(idShort, entry);
+			throw e;
+		}
+	}
+
+	/**
+	 * Modifies an element through its provider, see
+	 * {@link #access(String, Function)}
+	 *
+	 * @param idShort
+	 * @param modification
+	 */
+	void modify(String idShort, Consumer<SubmodelElementProvider> modification) {
+		access(idShort, provider -> {
+			modification.accept(provider);
+			return null;
+		});
+	}
+
+	/**
+	 * Drops the provider of an element after it has been replaced or deleted
+	 *
+	 * @param idShort
+	 */
+	void invalidate(String idShort) {
+		modifications.incrementAndGet();
+		providers.remove(idShort);
+	}
+
+	/**
+	 * Drops all providers, e.g. after all elements have been replaced
+	 */
+	void invalidateAll() {
+		modifications.incrementAndGet();
+		providers.clear();
+	}
+
+	/**
+	 * Drops the providers of elements that do not exist anymore
+	 *
+	 * @param idShorts
+	 *            of the existing elements
+	 */
+	void retainAll(Collection<String> idShorts) {
+		providers.keySet().retainAll(idShorts);
+	}
+
+	/**
+	 * Provider of an element together with the model type it has been resolved for
+	 */
+	private static class Entry {
+		private final SubmodelElementProvider provider;
+		private final Object modelType;
+
+		private Entry(IModelProvider proxy, Map<String, Object> element) {
+			this.provider = new SubmodelElementProvider(proxy, element);
+			this.modelType = getModelType(element);
+		}
+
+		private boolean isOfType(Object element) {
+			return element instanceof Map && Objects.equals(modelType, getModelType((Map<?, ?>) element));
+		}
+
+		private static Object getModelType(Map<?, ?> element) {
+			Object modelType = element.get(ModelType.MODELTYPE);
+			return modelType instanceof Map ? ((Map<?, ?>) modelType).get(ModelType.NAME) : null;
+		}
+	}
+}
@@ -9,11 +9,7 @@
  ******************************************************************************/
 package org.eclipse.basyx.submodel.restapi;
 
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
 import java.util.Map;
-import java.util.regex.Pattern;
 
 import org.eclipse.basyx.submodel.metamodel.api.ISubmodel;
 import org.eclipse.basyx.submodel.metamodel.facade.SubmodelElementMapCollectionConverter;
@@ -22,11 +18,15 @@ import org.eclipse.basyx.submodel.metamodel.map.submodelelement.SubmodelElement;
 import org.eclipse.basyx.submodel.metamodel.map.submodelelement.dataelement.property.Property;
 import org.eclipse.basyx.submodel.metamodel.map.submodelelement.operation.Operation;
 import org.eclipse.basyx.submodel.restapi.api.ISubmodelAPI;
+import org.eclipse.basyx.submodel.restapi.events.EventingSubmodelAPI;
+import org.eclipse.basyx.submodel.restapi.events.SubmodelElementEvent;
 import org.eclipse.basyx.submodel.restapi.vab.VABSubmodelAPI;
 import org.eclipse.basyx.vab.exception.provider.MalformedRequestException;
 import org.eclipse.basyx.vab.exception.provider.ProviderException;
+import org.eclipse.basyx.vab.modelprovider.VABPath;
 import org.eclipse.basyx.vab.modelprovider.VABPathTools;
 import org.eclipse.basyx.vab.modelprovider.api.IModelProvider;
+import org.eclipse.basyx.vab.modelprovider.event.IPublisher;
 import org.eclipse.basyx.vab.modelprovider.lambda.VABLambdaProvider;
 
 /**
@@ -89,21 +89,24 @@ public class SubmodelProvider implements IModelProvider {
 	 * @param path
 	 * @return
 	 */
-	private String removeSubmodelPrefix(String path) {
-		path = VABPathTools.stripSlashes(path);
-		String submodelWithSlash = SUBMODEL + "/";
-		if (path.startsWith(submodelWithSlash)) {
-			path = path.replaceFirst("submodel/", "");
-		} else if (path.equals(SUBMODEL)) {
-			path = "";
-		}
-		path = VABPathTools.stripSlashes(path);
-		return path;
+	private VABPath removeSubmodelPrefix(VABPath path) {
+		return path.startsWith(SUBMODEL) ? path.skip(1) : path;
 	}
 
 	@Override
 	public Object getValue(String path) throws ProviderException {
-		VABPathTools.checkPathForNull(path);
+		return getValue(VABPath.parse(path));
+	}
+
+	/**
+	 * Gets a value stored in a given path, see {@link #getValue(String)}. Sub
+	 * classes overriding the string variant have to override this method as well.
+	 * 
+	 * @param path
+	 * @return
+	 * @throws ProviderException
+	 */
+	public Object getValue(VABPath path) throws ProviderException {
 		path = removeSubmodelPrefix(path);
 		if (path.isEmpty()) {
 			ISubmodel sm = submodelAPI.getSubmodel();
@@ -114,86 +117,183 @@ public class SubmodelProvider implements IModelProvider {
 			} else {
 				return sm;
 			}
-		} else {
-			String[] splitted = VABPathTools.splitPath(path);
-			// Request for submodelElements
-			if (splitted.length == 1 && splitted[0].equals(VALUES)) {
-				// Request for values of all submodelElements
-				return submodelAPI.getSubmodel().getValues();
-			} else if (splitted.length == 1 && splitted[0].equals(MultiSubmodelElementProvider.ELEMENTS)) {
-				return submodelAPI.getSubmodelElements();
-			} else if (splitted.length >= 2 && isQualifier(splitted[0])) { // Request for element with specific idShort
-				// Remove initial "/submodelElements"
-				path = removeSMElementPrefix(path);
-
-                if (endsWithValue(splitted)) { // Request for the value of an property
-                    String idShortPath = path.replaceFirst(Pattern.quote("/value"), "");
-                    return submodelAPI.getSubmodelElementValue(idShortPath);
-                } else if (isInvocationListPath(splitted)) {
-                    List<String> idShorts = getIdShorts(splitted);
-
-                    // Remove invocationList/{requestId} from the idShorts
-                    idShorts.remove(idShorts.size() - 1);
-                    idShorts.remove(idShorts.size() - 1);
-                    return submodelAPI.getOperationResult(idShorts.get(0), splitted[splitted.length - 1]);
-                } else {
-                    return submodelAPI.getSubmodelElement(path);
-                }
-            }
-        }
-        throw new MalformedRequestException("Unknown path " + path + " was requested");
-	}
-
-	private List<String> getIdShorts(String[] splitted) {
-		// Create list from array and wrap it in ArrayList to ensure modifiability
-		List<String> idShorts = new ArrayList<>(Arrays.asList(splitted));
-
-		// Drop inital "submodelElements"
-		idShorts.remove(0);
-
-		// If value is contained in path, remove it
-		if (splitted[splitted.length - 1].equals(Property.VALUE)) {
-			idShorts.remove(idShorts.size() - 1);
+		} else if (path.size() == 1 && path.startsWith(VALUES)) {
+			// Request for values of all submodelElements
+			return submodelAPI.getSubmodel().getValues();
+		} else if (path.size() == 1 && isQualifier(path.getFirstElement())) {
+			return submodelAPI.getSubmodelElements();
+		} else if (path.size() >= 2 && isQualifier(path.getFirstElement())) { // Request for element with specific idShort
+			// Remove initial "/submodelElements"
+			VABPath idShortPath = path.skip(1);
+
+			if (endsWithValue(path)) { // Request for the value of an property
+				return submodelAPI.getSubmodelElementValue(idShortPath.getParent().toString());
+			} else if (isInvocationListPath(path)) {
+				// Remove invocationList/{requestId} from the idShorts
+				String operationPath = idShortPath.subPath(0, idShortPath.size() - 2).toString();
+				return submodelAPI.getOperationResult(operationPath, path.getLastElement());
+			} else if (isHistoryPath(path)) {
+				// Request for the history of a property
+				return submodelAPI.getSubmodelElementHistory(idShortPath.getParent().toString(), HistoryQuery.parse(path.getLastElement()));
+			} else {
+				return submodelAPI.getSubmodelElement(idShortPath.toString());
+			}
 		}
-		return idShorts;
+		throw new MalformedRequestException("Unknown path " + path + " was requested");
 	}
 
+	@Override
+	public Object getValueView(String path) throws ProviderException {
+		return getValueView(VABPath.parse(path));
+	}
 
-	private boolean endsWithValue(String[] splitted) {
-		return splitted[splitted.length - 1].equals(Property.VALUE);
+	/**
+	 * Gets a read-only view of a value stored in a given path, see
+	 * {@link #getValueView(String)}. The submodel and its elements are retrieved
+	 * as views from the submodel API, all other values as by
+	 * {@link #getValue(VABPath)}.
+	 * 
+	 * @param path
+	 * @return
+	 * @throws ProviderException
+	 */
+	@SuppressWarnings("unchecked")
+	public Object getValueView(VABPath path) throws ProviderException {
+		VABPath elementPath = removeSubmodelPrefix(path);
+		if (elementPath.isEmpty()) {
+			ISubmodel sm = submodelAPI.getSubmodelView();
+
+			// Change internal map representation to set
+			if (sm instanceof Map<?, ?>) {
+				return SubmodelElementMapCollectionConverter.smToMapView((Map<String, Object>) sm);
+			} else {
+				return sm;
+			}
+		} else if (elementPath.size() == 1 && isQualifier(elementPath.getFirstElement())) {
+			return SubmodelElementMapCollectionConverter.elementsToMapView(submodelAPI.getSubmodelElementViews());
+		} else if (elementPath.size() >= 2 && isQualifier(elementPath.getFirstElement()) && !endsWithValue(elementPath) && !isInvocationListPath(elementPath)
+				&& !isHistoryPath(elementPath)) {
+			return submodelAPI.getSubmodelElementView(elementPath.skip(1).toString());
+		}
+		return getValue(path);
 	}
 
+	private boolean endsWithValue(VABPath path) {
+		return path.endsWith(Property.VALUE);
+	}
 
-	private boolean isInvocationListPath(String[] splitted) {
-		return splitted.length > 2 && splitted[splitted.length - 2].equals(OperationProvider.INVOCATION_LIST);
+	private boolean isInvocationListPath(VABPath path) {
+		return path.size() > 2 && path.getElement(path.size() - 2).equals(OperationProvider.INVOCATION_LIST);
+	}
+
+	private boolean isHistoryPath(VABPath path) {
+		return path.size() > 2 && HistoryQuery.isHistoryQuery(path.getLastElement());
 	}
 
-	@SuppressWarnings("unchecked")
 	@Override
 	public void setValue(String path, Object newValue) throws ProviderException {
+		setValue(VABPath.parse(path), newValue);
+	}
+
+	/**
+	 * Sets or overrides existing value in a given path, see
+	 * {@link #setValue(String, Object)}. Sub classes overriding the string variant
+	 * have to override this method as well.
+	 * 
+	 * @param path
+	 * @param newValue
+	 * @throws ProviderException
+	 */
+	@SuppressWarnings("unchecked")
+	public void setValue(VABPath path, Object newValue) throws ProviderException {
 		path = removeSubmodelPrefix(path);
 		if (path.isEmpty()) {
 			throw new MalformedRequestException("Set on \"submodel\" not supported");
 		} else {
-			String[] splitted = VABPathTools.splitPath(path);
-			path = removeSMElementPrefix(path);
-			String idshortPath = path.replaceFirst(Pattern.quote("/value"), "");
-			if (endsWithValue(splitted)) {
-				submodelAPI.updateSubmodelElement(idshortPath, newValue);
+			VABPath idShortPath = removeSMElementPrefix(path);
+			if (endsWithValue(path)) {
+				submodelAPI.updateSubmodelElement(idShortPath.getParent().toString(), newValue);
 			} else {
 				
 				SubmodelElement element = SubmodelElement.createAsFacade((Map<String, Object>) newValue);
 				
-				if(!path.endsWith(element.getIdShort())) {
+				if(!idShortPath.toString().endsWith(element.getIdShort())) {
 					throw new MalformedRequestException("The idShort of given Element '"
-							+ element.getIdShort() + "' does not match the ending of the given path '" + path + "'");
+							+ element.getIdShort() + "' does not match the ending of the given path '" + idShortPath + "'");
 				}
 				
-				submodelAPI.addSubmodelElement(idshortPath, element);
+				submodelAPI.addSubmodelElement(idShortPath.toString(), element);
 			}
 		}
 	}
 
+	@Override
+	public boolean supportsVersions(String path) {
+		return supportsVersions(VABPath.parse(path));
+	}
+
+	/**
+	 * Checks if versions are supported for a path, see
+	 * {@link #supportsVersions(String)}. This is the case for paths to submodel
+	 * elements, if the submodel API supports versions.
+	 * 
+	 * @param path
+	 * @return
+	 */
+	public boolean supportsVersions(VABPath path) {
+		path = removeSubmodelPrefix(path);
+		return path.size() >= 2 && isQualifier(path.getFirstElement()) && submodelAPI.supportsVersions();
+	}
+
+	@Override
+	public long getVersion(String path) throws ProviderException {
+		return getVersion(VABPath.parse(path));
+	}
+
+	/**
+	 * Returns the version of a submodel element, see {@link #getVersion(String)}.
+	 * The element can be addressed by its path or the path to its value.
+	 * 
+	 * @param path
+	 * @return
+	 * @throws ProviderException
+	 */
+	public long getVersion(VABPath path) throws ProviderException {
+		path = removeSubmodelPrefix(path);
+		if (path.size() < 2 || !isQualifier(path.getFirstElement())) {
+			throw new MalformedRequestException("Versions are only supported for submodel elements, path was " + path);
+		}
+
+		VABPath idShortPath = path.skip(1);
+		if (endsWithValue(path)) {
+			idShortPath = idShortPath.getParent();
+		}
+		return submodelAPI.getSubmodelElementVersion(idShortPath.toString());
+	}
+
+	@Override
+	public long compareAndSet(String path, long expectedVersion, Object newValue) throws ProviderException {
+		return compareAndSet(VABPath.parse(path), expectedVersion, newValue);
+	}
+
+	/**
+	 * Sets the value of a submodel element, if the element has the expected
+	 * version, see {@link #compareAndSet(String, long, Object)}
+	 * 
+	 * @param path
+	 * @param expectedVersion
+	 * @param newValue
+	 * @return
+	 * @throws ProviderException
+	 */
+	public long compareAndSet(VABPath path, long expectedVersion, Object newValue) throws ProviderException {
+		path = removeSubmodelPrefix(path);
+		if (path.size() < 3 || !isQualifier(path.getFirstElement()) || !endsWithValue(path)) {
+			throw new MalformedRequestException("Conditional changes are only supported for values of submodel elements, path was " + path);
+		}
+		return submodelAPI.compareAndSetSubmodelElementValue(path.subPath(1, path.size() - 1).toString(), expectedVersion, newValue);
+	}
+
 	@Override
 	public void createValue(String path, Object newEntity) throws ProviderException {
 		throw new MalformedRequestException("POST (create) on '" + path + "' not allowed. Use PUT (set) instead.");
@@ -201,16 +301,21 @@ public class SubmodelProvider implements IModelProvider {
 
 	@Override
 	public void deleteValue(String path) throws ProviderException {
+		deleteValue(VABPath.parse(path));
+	}
+
+	/**
+	 * Deletes value under the given path, see {@link #deleteValue(String)}. Sub
+	 * classes overriding the string variant have to override this method as well.
+	 * 
+	 * @param path
+	 * @throws ProviderException
+	 */
+	public void deleteValue(VABPath path) throws ProviderException {
 		path = removeSubmodelPrefix(path);
 		if (!path.isEmpty()) {
-			String[] splitted = VABPathTools.splitPath(path);
-			if (isQualifier(splitted[0])) {
-				if (splitted.length > 2) {
-					path = removeSMElementPrefix(path);
-					submodelAPI.deleteSubmodelElement(path);
-				} else {
-					submodelAPI.deleteSubmodelElement(splitted[1]);
-				}
+			if (path.size() >= 2 && isQualifier(path.getFirstElement())) {
+				submodelAPI.deleteSubmodelElement(path.skip(1).toString());
 			} else {
 				throw new MalformedRequestException("Path " + path + " not supported for delete");
 			}
@@ -219,6 +324,22 @@ public class SubmodelProvider implements IModelProvider {
 		}
 	}
 
+	/**
+	 * Checks if the last element is "invoke" or "operations" is contained anywhere
+	 * before it, see {@link VABPathTools#isOperationInvokationPath(String)}
+	 */
+	private boolean isOperationInvokationPath(VABPath path) {
+		if (path.getLastElement().startsWith(Operation.INVOKE)) {
+			return true;
+		}
+		for (int i = 0; i < path.size() - 1; i++) {
+			if (path.getElement(i).equalsIgnoreCase("operations")) {
+				return true;
+			}
+		}
+		return false;
+	}
+
 	private boolean isQualifier(String str) {
 		return str.equals(MultiSubmodelElementProvider.ELEMENTS);
 	}
@@ -230,18 +351,30 @@ public class SubmodelProvider implements IModelProvider {
 
 	@Override
 	public Object invokeOperation(String path, Object... parameters) throws ProviderException {
+		return invokeOperation(VABPath.parse(path), parameters);
+	}
+
+	/**
+	 * Invokes an operation, see {@link #invokeOperation(String, Object...)}. Sub
+	 * classes overriding the string variant have to override this method as well.
+	 * 
+	 * @param path
+	 * @param parameters
+	 * @return
+	 * @throws ProviderException
+	 */
+	public Object invokeOperation(VABPath path, Object... parameters) throws ProviderException {
 		path = removeSubmodelPrefix(path);
 		if (path.isEmpty()) {
 			throw new MalformedRequestException("Given path must not be empty");
 		} else {
-			if (VABPathTools.isOperationInvokationPath(path)) {
-				if(path.endsWith(OperationProvider.ASYNC)) {
-					path = removeSMElementPrefix(path);
-					path = path.replaceFirst(Pattern.quote(Operation.INVOKE + OperationProvider.ASYNC), "");
-					return submodelAPI.invokeAsync(path, parameters);
+			if (isOperationInvokationPath(path)) {
+				VABPath idShortPath = removeSMElementPrefix(path);
+				if (path.getLastElement().endsWith(OperationProvider.ASYNC)) {
+					// Remove invoke?async
+					return submodelAPI.invokeAsync(idShortPath.getParent().toString(), parameters);
 				} else {
-					path = removeSMElementPrefix(path);
-					return submodelAPI.invokeOperation(path, parameters);
+					return submodelAPI.invokeOperation(idShortPath.toString(), parameters);
 				}
 			} else {
 				throw new MalformedRequestException("Given path '" + path + "' does not end in /invoke");
@@ -249,11 +382,50 @@ public class SubmodelProvider implements IModelProvider {
 		}
 	}
 
+	/**
+	 * Returns the events of a submodel element or of the whole submodel. Requires
+	 * an {@link EventingSubmodelAPI}.
+	 */
+	@Override
+	public IPublisher<Object> getEventPublisher(String path) throws ProviderException {
+		return getEventPublisher(VABPath.parse(path));
+	}
+
+	/**
+	 * Returns the events of a submodel element or of the whole submodel, see
+	 * {@link #getEventPublisher(String)}
+	 * 
+	 * @param path
+	 * @return
+	 * @throws ProviderException
+	 */
+	public IPublisher<Object> getEventPublisher(VABPath path) throws ProviderException {
+		path = removeSubmodelPrefix(path);
+		if (!(submodelAPI instanceof EventingSubmodelAPI)) {
+			throw new MalformedRequestException("Events are not enabled for this submodel. Path was: " + path);
+		}
+
+		String idShortPath;
+		if (path.isEmpty() || (path.size() == 1 && isQualifier(path.getFirstElement()))) {
+			// Events of all submodel elements
+			idShortPath = "";
+		} else if (isQualifier(path.getFirstElement())) {
+			// Events of a specific submodel element, optionally addressed by its value
+			int end = endsWithValue(path) ? path.size() - 1 : path.size();
+			idShortPath = path.subPath(1, end).toString();
+		} else {
+			throw new MalformedRequestException("Path " + path + " not supported for events");
+		}
+
+		IPublisher<SubmodelElementEvent> publisher = ((EventingSubmodelAPI) submodelAPI).getEventPublisher(idShortPath);
+		return publisher::subscribe;
+	}
+
 	protected void setAPI(ISubmodelAPI api) {
 		this.submodelAPI = api;
 	}
 	
-	private String removeSMElementPrefix(String path) {
-		return  path.replaceFirst(MultiSubmodelElementProvider.ELEMENTS, "");
+	private VABPath removeSMElementPrefix(VABPath path) {
+		return isQualifier(path.getFirstElement()) ? path.skip(1) : path;
 	}
 }
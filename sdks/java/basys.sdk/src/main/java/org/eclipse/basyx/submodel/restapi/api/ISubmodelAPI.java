@@ -10,10 +10,15 @@
 package org.eclipse.basyx.submodel.restapi.api;
 
 import java.util.Collection;
+import java.util.Map;
 
 import org.eclipse.basyx.submodel.metamodel.api.ISubmodel;
 import org.eclipse.basyx.submodel.metamodel.api.submodelelement.ISubmodelElement;
 import org.eclipse.basyx.submodel.metamodel.api.submodelelement.operation.IOperation;
+import org.eclipse.basyx.submodel.restapi.HistoryQuery;
+import org.eclipse.basyx.vab.exception.provider.NotSupportedException;
+import org.eclipse.basyx.vab.exception.provider.ResourceNotFoundException;
+import org.eclipse.basyx.vab.exception.provider.VersionConflictException;
 
 /**
  * Specifies overall Submodel API
@@ -134,4 +139,103 @@ public interface ISubmodelAPI {
 	 */
 	public Object getOperationResult(String idShort, String requestId);
 
+	/**
+	 * Retrieves a read-only view of the underlying submodel for callers that only
+	 * read it, e.g. to serialize it. Implementations may return a view that shares
+	 * the data of the submodel instead of a copy, thus it must not be kept.
+	 * 
+	 * @return the submodel view
+	 */
+	public default ISubmodel getSubmodelView() {
+		return getSubmodel();
+	}
+
+	/**
+	 * Retrieves read-only views of all submodelElements, see
+	 * {@link #getSubmodelView()}
+	 * 
+	 * @return the views of all submodelElements contained by the submodel
+	 */
+	public default Collection<ISubmodelElement> getSubmodelElementViews() {
+		return getSubmodelElements();
+	}
+
+	/**
+	 * Retrieves a read-only view of a submodelElement, see
+	 * {@link #getSubmodelView()}
+	 * 
+	 * @param idShortPath
+	 *            the idShort Path to the submodelElement
+	 * @return the submodelElement view
+	 */
+	public default ISubmodelElement getSubmodelElementView(String idShortPath) {
+		return getSubmodelElement(idShortPath);
+	}
+
+	/**
+	 * Retrieves records from the history of a property, see
+	 * {@link org.eclipse.basyx.submodel.metamodel.map.submodelelement.dataelement.property.PropertyHistory
+	 * PropertyHistory}
+	 * 
+	 * @param idShortPath
+	 *            the idShort path to the property
+	 * @param query
+	 *            the requested records
+	 * @return the records, each containing the timestamp and the value
+	 * @throws ResourceNotFoundException
+	 *             if the property does not record a history or the
+	 *             implementation does not support histories
+	 */
+	public default Collection<Map<String, Object>> getSubmodelElementHistory(String idShortPath, HistoryQuery query) {
+		throw new ResourceNotFoundException("The property '" + idShortPath + "' does not record a history");
+	}
+
+	/**
+	 * Checks if the implementation supports versions, see
+	 * {@link #getSubmodelElementVersion(String)}
+	 * 
+	 * @return true, if versions are supported
+	 */
+	public default boolean supportsVersions() {
+		return false;
+	}
+
+	/**
+	 * Retrieves the version of a submodelElement, which changes with each change
+	 * of the submodelElement, of the submodelElements it contains or with the
+	 * replacement of a collection containing it, see
+	 * {@link org.eclipse.basyx.vab.modelprovider.api.IModelProvider#getVersion(String)
+	 * IModelProvider#getVersion}
+	 * 
+	 * @param idShortPath
+	 *            the idShort path to the submodelElement
+	 * @return the current version of the submodelElement
+	 * @throws NotSupportedException
+	 *             if the implementation does not support versions
+	 */
+	public default long getSubmodelElementVersion(String idShortPath) {
+		throw new NotSupportedException("Versions are not supported by this submodel API");
+	}
+
+	/**
+	 * Updates the value of a submodelElement, if the submodelElement has not
+	 * been changed since the expected version. Checking the version and updating
+	 * the value happen atomically.
+	 * 
+	 * @param idShortPath
+	 *            the idShort path to the submodelElement
+	 * @param expectedVersion
+	 *            the version the new value is based on
+	 * @param newValue
+	 *            new value of the submodelElement
+	 * @return the new version of the submodelElement
+	 * @throws VersionConflictException
+	 *             if the version of the submodelElement does not match
+	 * @throws NotSupportedException
+	 *             if the implementation does not support versions
+	 */
+	public default long compareAndSetSubmodelElementValue(String idShortPath, long expectedVersion, Object newValue) {
+		throw new NotSupportedException("Versions are not supported by this submodel API");
+	}
+
 }
@@ -0,0 +1,368 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.basyx.submodel.restapi.concurrent;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import org.eclipse.basyx.submodel.metamodel.api.ISubmodel;
+import org.eclipse.basyx.submodel.metamodel.api.submodelelement.ISubmodelElement;
+import org.eclipse.basyx.submodel.metamodel.api.submodelelement.operation.IOperation;
+import org.eclipse.basyx.submodel.metamodel.facade.SubmodelElementMapCollectionConverter;
+import org.eclipse.basyx.submodel.metamodel.facade.submodelelement.SubmodelElementFacadeFactory;
+import org.eclipse.basyx.submodel.metamodel.map.Submodel;
+import org.eclipse.basyx.submodel.metamodel.map.submodelelement.dataelement.property.Property;
+import org.eclipse.basyx.submodel.restapi.HistoryQuery;
+import org.eclipse.basyx.submodel.restapi.api.ISubmodelAPI;
+import org.eclipse.basyx.submodel.restapi.vab.VABSubmodelAPI;
+import org.eclipse.basyx.vab.modelprovider.VABPath;
+import org.eclipse.basyx.vab.modelprovider.VABPathTools;
+import org.eclipse.basyx.vab.modelprovider.lambda.VABLambdaProvider;
+
+/**
+ * Implementation variant for the SubmodelAPI that can be used by any number of
+ * threads concurrently, e.g. by the request threads of a servlet container.
+ * Has to be based on a backend implementation of the ISubmodelAPI to forward
+ * its method calls, which does not have to be thread-safe itself.<br />
+ * <br />
+ * Changes are exclusive. Reads are performed optimistically using a
+ * {@link StampedLock}, i.e. they do not block each other and are only repeated
+ * with a read lock if a change happened in the meantime. Thus, getters of
+ * dynamic properties may be called more than once per read.<br />
+ * <br />
+ * If the API is created for an in-memory submodel, the values of its
+ * properties are additionally kept in slots. A slot is valid as long as the
+ * property in the submodel has not been replaced or changed, so that reading
+ * an unchanged value does not access the backend at all.<br />
+ * <br />
+ * The submodel and its elements are returned as deep copies that are created
+ * while reading, since they are serialized after the lock has been
+ * released.<br />
+ * <br />
+ * Operations are invoked without holding the lock, since they execute
+ * arbitrary code that may access the submodel again.<br />
+ * <br />
+ * Versions of elements are not supported, conditional changes are rejected
+ * without taking the lock.
+ *
+ * @author schnicke
+ *
+ */
+public class ConcurrentSubmodelAPI implements ISubmodelAPI {
+	// The underlying SubmodelAPI
+	protected ISubmodelAPI backendAPI;
+
+	// The submodel the backend operates on, if its properties can be kept in slots
+	private final Submodel submodel;
+
+	private final StampedLock lock = new StampedLock();
+	private final Map<String, ValueSlot> values = new ConcurrentHashMap<>();
+
+	/**
+	 * Value of a property, together with the state of the property it has been
+	 * read from
+	 */
+	private static class ValueSlot {
+		private final Object property;
+		private final Object rawValue;
+		private final Object valueType;
+		private final Object value;
+
+		private ValueSlot(Map<?, ?> property, Object value) {
+			this.property = property;
+			this.rawValue = property.get(Property.VALUE);
+			this.valueType = property.get(Property.VALUETYPE);
+			this.value = value;
+		}
+
+		private boolean isValidFor(Map<?, ?> current) {
+			return current == property && current.get(Property.VALUE) == rawValue && current.get(Property.VALUETYPE) == valueType;
+		}
+	}
+
+	/**
+	 * Creates a thread-safe SubmodelAPI for an in-memory submodel, using the
+	 * default VAB Submodel API as backend
+	 *
+	 * @param submodel
+	 */
+	public ConcurrentSubmodelAPI(Submodel submodel) {
+		this.backendAPI = new VABSubmodelAPI(new VABLambdaProvider(submodel));
+		this.submodel = submodel;
+	}
+
+	/**
+	 * Constructor for making another SubmodelAPI thread-safe. Property values are
+	 * not kept in slots, since the backend may store the submodel anywhere.
+	 *
+	 * @param backendAPI
+	 *            The underlying submodelAPI
+	 */
+	public ConcurrentSubmodelAPI(ISubmodelAPI backendAPI) {
+		this.backendAPI = backendAPI;
+		this.submodel = null;
+	}
+
+	@Override
+	public ISubmodel getSubmodel() {
+		return read(() -> copySubmodel(backendAPI.getSubmodel()));
+	}
+
+	@Override
+	public void addSubmodelElement(ISubmodelElement elem) {
+		write(() -> backendAPI.addSubmodelElement(elem));
+	}
+
+	@Override
+	public void addSubmodelElement(String idShortPath, ISubmodelElement elem) {
+		write(() -> backendAPI.addSubmodelElement(idShortPath, elem));
+	}
+
+	@Override
+	public ISubmodelElement getSubmodelElement(String idShortPath) {
+		return read(() -> copyElement(backendAPI.getSubmodelElement(idShortPath)));
+	}
+
+	@Override
+	public void deleteSubmodelElement(String idShortPath) {
+		write(() -> backendAPI.deleteSubmodelElement(idShortPath));
+
+		// Drop the slots of the element and its children
+		String deleted = VABPathTools.stripSlashes(idShortPath);
+		values.keySet().removeIf(path -> path.equals(deleted) || path.startsWith(deleted + VABPathTools.SEPERATOR));
+	}
+
+	@Override
+	public Collection<IOperation> getOperations() {
+		return read(() -> backendAPI.getOperations().stream().map(o -> (IOperation) copyElement(o)).collect(Collectors.toList()));
+	}
+
+	@Override
+	public Collection<ISubmodelElement> getSubmodelElements() {
+		return read(() -> backendAPI.getSubmodelElements().stream().map(ConcurrentSubmodelAPI::copyElement).collect(Collectors.toList()));
+	}
+
+	@Override
+	public void updateSubmodelElement(String idShortPath, Object newValue) {
+		write(() -> backendAPI.updateSubmodelElement(idShortPath, newValue));
+	}
+
+	@Override
+	public Object getSubmodelElementValue(String idShortPath) {
+		if (submodel == null) {
+			return read(() -> backendAPI.getSubmodelElementValue(idShortPath));
+		}
+
+		VABPath path = VABPath.parse(idShortPath);
+		ValueSlot slot = values.get(path.toString());
+		if (slot != null && isValid(slot, path)) {
+			return slot.value;
+		}
+
+		// Read the value with a lock, so that it is consistent with the property it is kept for
+		long stamp = lock.readLock();
+		try {
+			Object value = backendAPI.getSubmodelElementValue(idShortPath);
+			Map<?, ?> property = findElement(path);
+			if (isSlotted(property, value)) {
+				values.put(path.toString(), new ValueSlot(property, value));
+			}
+			return value;
+		} finally {
+			lock.unlockRead(stamp);
+		}
+	}
+
+	/**
+	 * Histories are read without blocking their updater, the lock only protects
+	 * finding the property
+	 */
+	@Override
+	public Collection<Map<String, Object>> getSubmodelElementHistory(String idShortPath, HistoryQuery query) {
+		return read(() -> backendAPI.getSubmodelElementHistory(idShortPath, query));
+	}
+
+	@Override
+	public Object invokeOperation(String idShortPath, Object... params) {
+		return backendAPI.invokeOperation(idShortPath, params);
+	}
+
+	@Override
+	public Object invokeAsync(String idShortPath, Object... params) {
+		return backendAPI.invokeAsync(idShortPath, params);
+	}
+
+	@Override
+	public Object getOperationResult(String idShort, String requestId) {
+		// Retrieving a finished result removes it, thus it must not be repeated
+		long stamp = lock.readLock();
+		try {
+			return backendAPI.getOperationResult(idShort, requestId);
+		} finally {
+			lock.unlockRead(stamp);
+		}
+	}
+
+	/**
+	 * Checks optimistically whether the property of a slot is unchanged
+	 */
+	private boolean isValid(ValueSlot slot, VABPath path) {
+		long stamp = lock.tryOptimisticRead();
+		if (stamp == 0) {
+			return false;
+		}
+		try {
+			boolean valid = slot.isValidFor(findElement(path));
+			return lock.validate(stamp) && valid;
+		} catch (RuntimeException e) {
+			// The submodel has been changed while it was read
+			return false;
+		}
+	}
+
+	/**
+	 * Only static properties with immutable values are kept in slots, since the
+	 * returned value is shared by all readers
+	 */
+	@SuppressWarnings("unchecked")
+	private boolean isSlotted(Map<?, ?> element, Object value) {
+		if (element == null || !Property.isProperty((Map<String, Object>) element)) {
+			return false;
+		}
+		return isImmutable(element.get(Property.VALUE)) && isImmutable(value);
+	}
+
+	private boolean isImmutable(Object value) {
+		return value == null || value instanceof String || value instanceof Number || value instanceof Boolean || value instanceof Character;
+	}
+
+	/**
+	 * Finds an element in the submodel by following its idShort path through the
+	 * contained collections
+	 *
+	 * @return the element or null, if it does not exist
+	 */
+	private Map<?, ?> findElement(VABPath path) {
+		Object elements = submodel.get(Submodel.SUBMODELELEMENT);
+		Map<?, ?> element = null;
+		for (int i = 0; i < path.size(); i++) {
+			if (!(elements instanceof Map<?, ?>)) {
+				return null;
+			}
+			Object child = ((Map<?, ?>) elements).get(path.getElement(i));
+			if (!(child instanceof Map<?, ?>)) {
+				return null;
+			}
+			element = (Map<?, ?>) child;
+			elements = element.get(Property.VALUE);
+		}
+		return element;
+	}
+
+	/**
+	 * Copies a submodel including all maps and collections it contains, so that
+	 * it does not share any state with the backend
+	 */
+	@SuppressWarnings("unchecked")
+	private static ISubmodel copySubmodel(ISubmodel submodel) {
+		if (!(submodel instanceof Submodel)) {
+			return submodel;
+		}
+		return Submodel.createAsFacade((Map<String, Object>) copy(SubmodelElementMapCollectionConverter.smToMap((Submodel) submodel)));
+	}
+
+	/**
+	 * Copies a submodel element, see {@link #copySubmodel(ISubmodel)}
+	 */
+	@SuppressWarnings("unchecked")
+	private static ISubmodelElement copyElement(ISubmodelElement element) {
+		if (!(element instanceof Map<?, ?>)) {
+			return element;
+		}
+		Map<String, Object> map = SubmodelElementMapCollectionConverter.smElementToMap((Map<String, Object>) element);
+		return SubmodelElementFacadeFactory.createSubmodelElement((Map<String, Object>) copy(map));
+	}
+
+	/**
+	 * Copies maps, lists and sets recursively. All other values are kept as they
+	 * are.
+	 */
+	@SuppressWarnings("unchecked")
+	private static Object copy(Object value) {
+		if (value instanceof Map<?, ?>) {
+			Map<Object, Object> map = (Map<Object, Object>) value;
+			Map<Object, Object> result = new HashMap<>(map.size() * 4 / 3 + 1);
+			for (Map.Entry<Object, Object> entry : map.entrySet()) {
+				result.put(entry.getKey(), copy(entry.getValue()));
+			}
+			return result;
+		} else if (value instanceof Set<?>) {
+			Set<Object> result = new HashSet<>();
+			for (Object o : (Set<Object>) value) {
+				result.add(copy(o));
+			}
+			return result;
+		} else if (value instanceof Collection<?>) {
+			List<Object> result = new ArrayList<>();
+			for (Object o : (Collection<Object>) value) {
+				result.add(copy(o));
+			}
+			return result;
+		} else {
+			return value;
+		}
+	}
+
+	/**
+	 * Reads optimistically and repeats the read with a read lock, if the submodel
+	 * has been changed in the meantime
+	 */
+	private <T> T read(Supplier<T> read) {
+		long stamp = lock.tryOptimisticRead();
+		if (stamp != 0) {
+			try {
+				T result = read.get();
+				if (lock.validate(stamp)) {
+					return result;
+				}
+			} catch (RuntimeException e) {
+				// Errors are only valid, if the submodel has not been changed while it was read
+				if (lock.validate(stamp)) {
+					throw e;
+				}
+			}
+		}
+
+		stamp = lock.readLock();
+		try {
+			return read.get();
+		} finally {
+			lock.unlockRead(stamp);
+		}
+	}
+
+	private void write(Runnable write) {
+		long stamp = lock.writeLock();
+		try {
+			write.run();
+		} finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+}
@@ -0,0 +1,49 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.basyx.submodel.restapi.concurrent;
+
+import org.eclipse.basyx.submodel.metamodel.map.Submodel;
+import org.eclipse.basyx.submodel.restapi.api.ISubmodelAPI;
+import org.eclipse.basyx.submodel.restapi.api.ISubmodelAPIFactory;
+
+/**
+ * Submodel API provider that provides thread-safe Submodel APIs, see
+ * {@link ConcurrentSubmodelAPI}
+ * 
+ * @author schnicke
+ *
+ */
+public class ConcurrentSubmodelAPIFactory implements ISubmodelAPIFactory {
+	private ISubmodelAPIFactory backendApiFactory;
+
+	/**
+	 * Constructor for thread-safe Submodel APIs operating on in-memory submodels
+	 */
+	public ConcurrentSubmodelAPIFactory() {
+		this(null);
+	}
+
+	/**
+	 * Constructor making the Submodel APIs of another factory thread-safe
+	 * 
+	 * @param backendApiFactory
+	 */
+	public ConcurrentSubmodelAPIFactory(ISubmodelAPIFactory backendApiFactory) {
+		this.backendApiFactory = backendApiFactory;
+	}
+
+	@Override
+	public ISubmodelAPI getSubmodelAPI(Submodel submodel) {
+		if (backendApiFactory == null) {
+			return new ConcurrentSubmodelAPI(submodel);
+		}
+		return new ConcurrentSubmodelAPI(backendApiFactory.getSubmodelAPI(submodel));
+	}
+}
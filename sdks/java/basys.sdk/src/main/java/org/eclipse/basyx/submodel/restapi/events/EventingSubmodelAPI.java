@@ -0,0 +1,189 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.basyx.submodel.restapi.events;
+
+import java.util.Collection;
+import java.util.Map;
+
+import org.eclipse.basyx.submodel.metamodel.api.ISubmodel;
+import org.eclipse.basyx.submodel.metamodel.api.submodelelement.ISubmodelElement;
+import org.eclipse.basyx.submodel.metamodel.api.submodelelement.operation.IOperation;
+import org.eclipse.basyx.submodel.restapi.HistoryQuery;
+import org.eclipse.basyx.submodel.restapi.api.ISubmodelAPI;
+import org.eclipse.basyx.vab.modelprovider.VABPathTools;
+import org.eclipse.basyx.vab.modelprovider.event.EventPublisher;
+import org.eclipse.basyx.vab.modelprovider.event.IPublisher;
+
+/**
+ * Implementation variant for the SubmodelAPI that publishes a
+ * {@link SubmodelElementEvent} whenever a submodel element is added, updated
+ * or deleted. Has to be based on a backend implementation of the ISubmodelAPI
+ * to forward its method calls.<br />
+ * <br />
+ * Events are only created if there are subscribers. They are delivered
+ * asynchronously, see {@link EventPublisher}.
+ * 
+ * @author schnicke
+ *
+ */
+public class EventingSubmodelAPI implements ISubmodelAPI {
+	// The underlying SubmodelAPI
+	protected ISubmodelAPI observedAPI;
+
+	protected EventPublisher<SubmodelElementEvent> publisher;
+
+	/**
+	 * Constructor for adding events on top of another SubmodelAPI
+	 * 
+	 * @param observedAPI
+	 *            The underlying submodelAPI
+	 */
+	public EventingSubmodelAPI(ISubmodelAPI observedAPI) {
+		this(observedAPI, new EventPublisher<>());
+	}
+
+	/**
+	 * Constructor for adding events on top of another SubmodelAPI using a custom
+	 * publisher, e.g. with a dedicated executor
+	 * 
+	 * @param observedAPI
+	 *            The underlying submodelAPI
+	 * @param publisher
+	 */
+	public EventingSubmodelAPI(ISubmodelAPI observedAPI, EventPublisher<SubmodelElementEvent> publisher) {
+		this.observedAPI = observedAPI;
+		this.publisher = publisher;
+	}
+
+	/**
+	 * Returns a publisher of the events concerning a submodel element, i.e.
+	 * changes of the element itself, its ancestors and its children
+	 * 
+	 * @param idShortPath
+	 *            path of the element, the empty path for all events of the
+	 *            submodel
+	 * @return
+	 */
+	public IPublisher<SubmodelElementEvent> getEventPublisher(String idShortPath) {
+		String observedPath = VABPathTools.stripSlashes(idShortPath);
+		return publisher.filter(event -> event.concerns(observedPath));
+	}
+
+	@Override
+	public ISubmodel getSubmodel() {
+		return observedAPI.getSubmodel();
+	}
+
+	@Override
+	public ISubmodel getSubmodelView() {
+		return observedAPI.getSubmodelView();
+	}
+
+	@Override
+	public void addSubmodelElement(ISubmodelElement elem) {
+		observedAPI.addSubmodelElement(elem);
+		if (publisher.hasSubscribers()) {
+			publisher.submit(SubmodelElementEvent.added(elem.getIdShort(), elem));
+		}
+	}
+
+	@Override
+	public void addSubmodelElement(String idShortPath, ISubmodelElement elem) {
+		observedAPI.addSubmodelElement(idShortPath, elem);
+		if (publisher.hasSubscribers()) {
+			publisher.submit(SubmodelElementEvent.added(idShortPath, elem));
+		}
+	}
+
+	@Override
+	public ISubmodelElement getSubmodelElement(String idShortPath) {
+		return observedAPI.getSubmodelElement(idShortPath);
+	}
+
+	@Override
+	public ISubmodelElement getSubmodelElementView(String idShortPath) {
+		return observedAPI.getSubmodelElementView(idShortPath);
+	}
+
+	@Override
+	public void deleteSubmodelElement(String idShortPath) {
+		observedAPI.deleteSubmodelElement(idShortPath);
+		if (publisher.hasSubscribers()) {
+			publisher.submit(SubmodelElementEvent.deleted(idShortPath));
+		}
+	}
+
+	@Override
+	public Collection<IOperation> getOperations() {
+		return observedAPI.getOperations();
+	}
+
+	@Override
+	public Collection<ISubmodelElement> getSubmodelElements() {
+		return observedAPI.getSubmodelElements();
+	}
+
+	@Override
+	public Collection<ISubmodelElement> getSubmodelElementViews() {
+		return observedAPI.getSubmodelElementViews();
+	}
+
+	@Override
+	public Collection<Map<String, Object>> getSubmodelElementHistory(String idShortPath, HistoryQuery query) {
+		return observedAPI.getSubmodelElementHistory(idShortPath, query);
+	}
+
+	@Override
+	public void updateSubmodelElement(String idShortPath, Object newValue) {
+		observedAPI.updateSubmodelElement(idShortPath, newValue);
+		if (publisher.hasSubscribers()) {
+			publisher.submit(SubmodelElementEvent.updated(idShortPath, newValue));
+		}
+	}
+
+	@Override
+	public Object getSubmodelElementValue(String idShortPath) {
+		return observedAPI.getSubmodelElementValue(idShortPath);
+	}
+
+	@Override
+	public boolean supportsVersions() {
+		return observedAPI.supportsVersions();
+	}
+
+	@Override
+	public long getSubmodelElementVersion(String idShortPath) {
+		return observedAPI.getSubmodelElementVersion(idShortPath);
+	}
+
+	@Override
+	public long compareAndSetSubmodelElementValue(String idShortPath, long expectedVersion, Object newValue) {
+		long version = observedAPI.compareAndSetSubmodelElementValue(idShortPath, expectedVersion, newValue);
+		if (publisher.hasSubscribers()) {
+			publisher.submit(SubmodelElementEvent.updated(idShortPath, newValue));
+		}
+		return version;
+	}
+
+	@Override
+	public Object invokeOperation(String idShortPath, Object... params) {
+		return observedAPI.invokeOperation(idShortPath, params);
+	}
+
+	@Override
+	public Object invokeAsync(String idShortPath, Object... params) {
+		return observedAPI.invokeAsync(idShortPath, params);
+	}
+
+	@Override
+	public Object getOperationResult(String idShort, String requestId) {
+		return observedAPI.getOperationResult(idShort, requestId);
+	}
+}
@@ -0,0 +1,66 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.basyx.submodel.restapi.events;
+
+import java.util.concurrent.Executor;
+
+import org.eclipse.basyx.submodel.metamodel.map.Submodel;
+import org.eclipse.basyx.submodel.restapi.api.ISubmodelAPI;
+import org.eclipse.basyx.submodel.restapi.api.ISubmodelAPIFactory;
+import org.eclipse.basyx.submodel.restapi.vab.VABSubmodelAPIFactory;
+import org.eclipse.basyx.vab.modelprovider.event.EventPublisher;
+
+/**
+ * Api provider for constructing Submodel APIs that publish events, see
+ * {@link EventingSubmodelAPI}
+ * 
+ * @author schnicke
+ *
+ */
+public class EventingSubmodelAPIFactory implements ISubmodelAPIFactory {
+	private ISubmodelAPIFactory observedApiFactory;
+	private Executor deliveryExecutor;
+
+	/**
+	 * Constructor adding events to the default VAB Submodel API
+	 */
+	public EventingSubmodelAPIFactory() {
+		this(new VABSubmodelAPIFactory());
+	}
+
+	/**
+	 * Constructor adding events to the Submodel APIs of another factory
+	 * 
+	 * @param observedApiFactory
+	 */
+	public EventingSubmodelAPIFactory(ISubmodelAPIFactory observedApiFactory) {
+		this(observedApiFactory, EventPublisher.getDefaultExecutor());
+	}
+
+	/**
+	 * Constructor adding events to the Submodel APIs of another factory, which
+	 * are delivered by the given executor
+	 * 
+	 * @param observedApiFactory
+	 * @param deliveryExecutor
+	 *            executor delivering the events to the subscribers, e.g. a
+	 *            bounded executor dedicated to the event streams of a server
+	 */
+	public EventingSubmodelAPIFactory(ISubmodelAPIFactory observedApiFactory, Executor deliveryExecutor) {
+		this.observedApiFactory = observedApiFactory;
+		this.deliveryExecutor = deliveryExecutor;
+	}
+
+	@Override
+	public ISubmodelAPI getSubmodelAPI(Submodel submodel) {
+		EventPublisher<SubmodelElementEvent> publisher = new EventPublisher<>(deliveryExecutor, EventPublisher.DEFAULT_BUFFER_CAPACITY);
+		return new EventingSubmodelAPI(observedApiFactory.getSubmodelAPI(submodel), publisher);
+	}
+}
@@ -0,0 +1,160 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.basyx.submodel.restapi.events;
+
+import java.util.Map;
+
+import org.eclipse.basyx.vab.model.VABModelMap;
+import org.eclipse.basyx.vab.modelprovider.VABPathTools;
+import org.eclipse.basyx.vab.modelprovider.event.IPublisher;
+
+/**
+ * Event that is published if a submodel element has been added, updated or
+ * deleted, see {@link EventingSubmodelAPI}
+ * 
+ * @author schnicke
+ *
+ */
+public class SubmodelElementEvent extends VABModelMap<Object> {
+	public static final String TYPE = "type";
+	public static final String IDSHORTPATH = "idShortPath";
+	public static final String VALUE = "value";
+	public static final String TIMESTAMP = "timestamp";
+
+	public static final String ADDED = "added";
+	public static final String UPDATED = "updated";
+	public static final String DELETED = "deleted";
+
+	private SubmodelElementEvent() {
+	}
+
+	private SubmodelElementEvent(String type, String idShortPath, Object value) {
+		put(TYPE, type);
+		put(IDSHORTPATH, VABPathTools.stripSlashes(idShortPath));
+		if (value != null) {
+			put(VALUE, value);
+		}
+		put(TIMESTAMP, System.currentTimeMillis());
+	}
+
+	/**
+	 * Creates the event for an added submodel element
+	 * 
+	 * @param idShortPath
+	 * @param element
+	 *            the added element
+	 * @return
+	 */
+	public static SubmodelElementEvent added(String idShortPath, Object element) {
+		return new SubmodelElementEvent(ADDED, idShortPath, element);
+	}
+
+	/**
+	 * Creates the event for an updated value of a submodel element
+	 * 
+	 * @param idShortPath
+	 * @param newValue
+	 * @return
+	 */
+	public static SubmodelElementEvent updated(String idShortPath, Object newValue) {
+		return new SubmodelElementEvent(UPDATED, idShortPath, newValue);
+	}
+
+	/**
+	 * Creates the event for a deleted submodel element
+	 * 
+	 * @param idShortPath
+	 * @return
+	 */
+	public static SubmodelElementEvent deleted(String idShortPath) {
+		return new SubmodelElementEvent(DELETED, idShortPath, null);
+	}
+
+	/**
+	 * Creates a SubmodelElementEvent facade for a deserialized event
+	 * 
+	 * @param map
+	 * @return
+	 */
+	public static SubmodelElementEvent createAsFacade(Map<String, Object> map) {
+		if (map == null) {
+			return null;
+		}
+
+		SubmodelElementEvent ret = new SubmodelElementEvent();
+		ret.setMap(map);
+		return ret;
+	}
+
+	/**
+	 * Maps a publisher of deserialized events, e.g. of a
+	 * {@link org.eclipse.basyx.vab.modelprovider.VABElementProxy VABElementProxy},
+	 * to a publisher of SubmodelElementEvent facades
+	 * 
+	 * @param publisher
+	 * @return
+	 */
+	@SuppressWarnings("unchecked")
+	public static IPublisher<SubmodelElementEvent> createFacadePublisher(IPublisher<Object> publisher) {
+		return publisher.map(event -> createAsFacade((Map<String, Object>) event));
+	}
+
+	/**
+	 * Returns the type of the event, i.e. {@link #ADDED}, {@link #UPDATED} or
+	 * {@link #DELETED}
+	 * 
+	 * @return
+	 */
+	public String getType() {
+		return (String) get(TYPE);
+	}
+
+	public String getIdShortPath() {
+		return (String) get(IDSHORTPATH);
+	}
+
+	/**
+	 * Returns the added element, the new value or null for deleted elements
+	 * 
+	 * @return
+	 */
+	public Object getValue() {
+		return get(VALUE);
+	}
+
+	/**
+	 * Returns the time the event occurred at in milliseconds since the epoch
+	 * 
+	 * @return
+	 */
+	public long getTimestamp() {
+		return ((Number) get(TIMESTAMP)).longValue();
+	}
+
+	/**
+	 * Checks if the event concerns the element of the given path, i.e. if the
+	 * element, one of its ancestors or one of its children has changed
+	 * 
+	 * @param idShortPath
+	 *            path of the element, the empty path matches all events
+	 * @return
+	 */
+	public boolean concerns(String idShortPath) {
+		String[] observed = VABPathTools.splitPath(idShortPath);
+		String[] changed = VABPathTools.splitPath(getIdShortPath());
+		int common = Math.min(observed.length, changed.length);
+		for (int i = 0; i < common; i++) {
+			if (!observed[i].equals(changed[i])) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
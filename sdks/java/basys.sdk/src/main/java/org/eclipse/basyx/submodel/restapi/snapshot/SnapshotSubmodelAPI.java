@@ -0,0 +1,331 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.basyx.submodel.restapi.snapshot;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+
+import org.eclipse.basyx.submodel.metamodel.api.ISubmodel;
+import org.eclipse.basyx.submodel.metamodel.api.submodelelement.ISubmodelElement;
+import org.eclipse.basyx.submodel.metamodel.api.submodelelement.operation.IOperation;
+import org.eclipse.basyx.submodel.metamodel.facade.SubmodelElementMapCollectionConverter;
+import org.eclipse.basyx.submodel.metamodel.facade.submodelelement.SubmodelElementFacadeFactory;
+import org.eclipse.basyx.submodel.metamodel.map.Submodel;
+import org.eclipse.basyx.submodel.metamodel.map.submodelelement.SubmodelElement;
+import org.eclipse.basyx.submodel.metamodel.map.submodelelement.SubmodelElementCollection;
+import org.eclipse.basyx.submodel.metamodel.map.submodelelement.dataelement.property.Property;
+import org.eclipse.basyx.submodel.metamodel.map.submodelelement.dataelement.property.valuetype.ValueTypeHelper;
+import org.eclipse.basyx.submodel.metamodel.map.submodelelement.operation.Operation;
+import org.eclipse.basyx.submodel.restapi.OperationProvider;
+import org.eclipse.basyx.submodel.restapi.api.ISubmodelAPI;
+import org.eclipse.basyx.vab.exception.provider.MalformedRequestException;
+import org.eclipse.basyx.vab.exception.provider.ResourceNotFoundException;
+import org.eclipse.basyx.vab.exception.provider.VersionConflictException;
+import org.eclipse.basyx.vab.model.PersistentHashMap;
+import org.eclipse.basyx.vab.modelprovider.VABPath;
+import org.eclipse.basyx.vab.modelprovider.VABPathTools;
+import org.eclipse.basyx.vab.modelprovider.lambda.VABLambdaProvider;
+
+/**
+ * Implementation variant for the SubmodelAPI that keeps the submodel in
+ * immutable snapshots, see {@link SubmodelSnapshot}. Can be used by any number
+ * of threads concurrently.<br />
+ * <br />
+ * The snapshots are built on {@link PersistentHashMap}s. A change creates a new
+ * snapshot that shares everything with the previous one except for the path
+ * from the submodel to the changed element, and publishes it atomically. If
+ * another change has been published in the meantime, the change is applied
+ * again to the new snapshot. Thus, writers do not block each other or the
+ * readers, and readers never block at all.<br />
+ * <br />
+ * Each read operates on the snapshot that is current when it starts. Readers
+ * that need several consistent reads can retrieve a snapshot once with
+ * {@link #getSnapshot()} and read from it.<br />
+ * <br />
+ * Each element carries a version, see
+ * {@link SubmodelSnapshot#getElementVersion(String)}. Values can be updated
+ * conditionally by {@link #compareAndSetSubmodelElementValue(String, long, Object)},
+ * which checks the version on the snapshot the change is applied to. Thus,
+ * conditional updates do not need any locks either.<br />
+ * <br />
+ * Dynamic properties, i.e. properties whose value is given by lambda
+ * expressions, are not supported, since their value is not part of the
+ * snapshot. Operations are invoked on the snapshot that is current at the time
+ * of the invocation.
+ *
+ * @author schnicke
+ *
+ */
+public class SnapshotSubmodelAPI implements ISubmodelAPI {
+	// Expected version of unconditional changes
+	private static final long ANY_VERSION = -1;
+
+	private final AtomicReference<SubmodelSnapshot> snapshot;
+
+	/**
+	 * Creates a SubmodelAPI for a copy of the given submodel. Later changes of the
+	 * passed submodel are not reflected by the API.
+	 *
+	 * @param submodel
+	 */
+	public SnapshotSubmodelAPI(Submodel submodel) {
+		this.snapshot = new AtomicReference<>(new SubmodelSnapshot(0, SnapshotValues.freezeSubmodel(submodel), PersistentHashMap.empty(), PersistentHashMap.empty()));
+	}
+
+	/**
+	 * Returns the current snapshot of the submodel
+	 *
+	 * @return
+	 */
+	public SubmodelSnapshot getSnapshot() {
+		return snapshot.get();
+	}
+
+	/**
+	 * Returns the version of the current snapshot
+	 *
+	 * @return
+	 */
+	public long getVersion() {
+		return snapshot.get().getVersion();
+	}
+
+	@Override
+	public ISubmodel getSubmodel() {
+		return getSnapshot().getSubmodel();
+	}
+
+	/**
+	 * Returns a view of the current snapshot that does not copy anything
+	 */
+	@Override
+	public ISubmodel getSubmodelView() {
+		return SubmodelElementMapCollectionConverter.mapToSMView(getSnapshot().getRoot());
+	}
+
+	@Override
+	public void addSubmodelElement(ISubmodelElement elem) {
+		addSubmodelElement(elem.getIdShort(), elem);
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public void addSubmodelElement(String idShortPath, ISubmodelElement elem) {
+		// It is allowed to overwrite existing elements
+		PersistentHashMap<String, Object> newElement = SnapshotValues.freezeElement((Map<String, Object>) elem);
+		change(VABPath.parse(idShortPath), true, ANY_VERSION, element -> newElement);
+	}
+
+	@Override
+	public ISubmodelElement getSubmodelElement(String idShortPath) {
+		return getSnapshot().getSubmodelElement(idShortPath);
+	}
+
+	@Override
+	public ISubmodelElement getSubmodelElementView(String idShortPath) {
+		Map<String, Object> element = getSnapshot().getElement(VABPath.parse(idShortPath));
+		return SubmodelElement.createAsFacade(SubmodelElementMapCollectionConverter.smElementToMapView(element));
+	}
+
+	@Override
+	public void deleteSubmodelElement(String idShortPath) {
+		change(VABPath.parse(idShortPath), false, ANY_VERSION, element -> null);
+	}
+
+	@Override
+	public Collection<IOperation> getOperations() {
+		return getSubmodelElements().stream().filter(e -> e instanceof IOperation).map(e -> (IOperation) e).collect(Collectors.toList());
+	}
+
+	@Override
+	public Collection<ISubmodelElement> getSubmodelElements() {
+		return getSnapshot().getSubmodelElements();
+	}
+
+	@Override
+	public Collection<ISubmodelElement> getSubmodelElementViews() {
+		return SubmodelElementMapCollectionConverter.elementsToFacadeView(getSnapshot().getElements().values());
+	}
+
+	@Override
+	public void updateSubmodelElement(String idShortPath, Object newValue) {
+		change(VABPath.parse(idShortPath), false, ANY_VERSION, element -> withValue(idShortPath, element, newValue));
+	}
+
+	@Override
+	public boolean supportsVersions() {
+		return true;
+	}
+
+	@Override
+	public long getSubmodelElementVersion(String idShortPath) {
+		return getSnapshot().getElementVersion(idShortPath);
+	}
+
+	@Override
+	public long compareAndSetSubmodelElementValue(String idShortPath, long expectedVersion, Object newValue) {
+		if (expectedVersion < 0) {
+			throw new MalformedRequestException("Invalid version " + expectedVersion);
+		}
+		return change(VABPath.parse(idShortPath), false, expectedVersion, element -> withValue(idShortPath, element, newValue)).getVersion();
+	}
+
+	@Override
+	public Object getSubmodelElementValue(String idShortPath) {
+		return getSnapshot().getSubmodelElementValue(idShortPath);
+	}
+
+	@Override
+	public Object invokeOperation(String idShortPath, Object... params) {
+		// The path ends with /invoke, as it is passed on by the submodel provider
+		return getOperationProvider(VABPathTools.stripInvokeFromPath(idShortPath)).invokeOperation("", params);
+	}
+
+	@Override
+	public Object invokeAsync(String idShortPath, Object... params) {
+		return getOperationProvider(idShortPath).invokeOperation(Operation.INVOKE + OperationProvider.ASYNC, params);
+	}
+
+	@Override
+	public Object getOperationResult(String idShortPath, String requestId) {
+		return getOperationProvider(idShortPath).getValue(VABPathTools.concatenatePaths(OperationProvider.INVOCATION_LIST, requestId));
+	}
+
+	private OperationProvider getOperationProvider(String idShortPath) {
+		Map<String, Object> element = getSnapshot().getElement(VABPath.parse(idShortPath));
+		if (!Operation.isOperation(element)) {
+			throw new MalformedRequestException("Element '" + idShortPath + "' is not an operation");
+		}
+		return new OperationProvider(new VABLambdaProvider(SnapshotValues.thawMap(element)));
+	}
+
+	/**
+	 * Returns an element with a new value, as it is done by the providers of the
+	 * VAB submodel API
+	 */
+	@SuppressWarnings("unchecked")
+	private PersistentHashMap<String, Object> withValue(String idShortPath, PersistentHashMap<String, Object> element, Object newValue) {
+		if (SubmodelElementCollection.isSubmodelElementCollection(element)) {
+			return element.plus(Property.VALUE, SnapshotValues.freezeElements(newValue));
+		} else if (Property.isProperty(element)) {
+			return element.plus(Property.VALUE, SnapshotValues.freeze(newValue)).plus(Property.VALUETYPE, ValueTypeHelper.getType(newValue).toString());
+		} else if (Operation.isOperation(element)) {
+			throw new MalformedRequestException("Set not allowed for operation '" + idShortPath + "'");
+		}
+
+		ISubmodelElement facade = SubmodelElementFacadeFactory.createSubmodelElement(SnapshotValues.thawMap(element));
+		try {
+			facade.setValue(newValue);
+		} catch (IllegalArgumentException e) {
+			throw new MalformedRequestException("The given Value was not valid for Element '" + idShortPath + "'");
+		}
+		return SnapshotValues.freezeElement((Map<String, Object>) facade);
+	}
+
+	/**
+	 * Replaces an element by the result of a change and publishes the resulting
+	 * snapshot. The change is repeated on the new snapshot, if another change has
+	 * been published in the meantime, thus it must not have any side effects.
+	 *
+	 * @param path
+	 *            path to the element
+	 * @param create
+	 *            true, if the element may be missing
+	 * @param expectedVersion
+	 *            version the element must have in the snapshot the change is
+	 *            applied to, {@link #ANY_VERSION} for unconditional changes
+	 * @param change
+	 *            returns the new element for the current one or null, if the
+	 *            element is to be deleted
+	 * @return the published snapshot
+	 * @throws VersionConflictException
+	 *             if the element does not have the expected version
+	 */
+	private SubmodelSnapshot change(VABPath path, boolean create, long expectedVersion, UnaryOperator<PersistentHashMap<String, Object>> change) {
+		if (path.isEmpty()) {
+			throw new MalformedRequestException("The path to an element must not be empty");
+		}
+
+		SubmodelSnapshot current;
+		SubmodelSnapshot next;
+		do {
+			current = snapshot.get();
+			if (expectedVersion != ANY_VERSION && current.getElementVersion(path) != expectedVersion) {
+				throw new VersionConflictException("Element '" + path + "' has been changed since version " + expectedVersion);
+			}
+			PersistentHashMap<String, Object> elements = changeElement(current.getElements(), path, 0, create, change);
+			long version = current.getVersion() + 1;
+			PersistentHashMap<String, Long> elementVersions;
+			PersistentHashMap<String, Long> contentVersions = current.getContentVersions();
+			for (int i = 1; i < path.size(); i++) {
+				contentVersions = contentVersions.plus(path.subPath(0, i).toString(), version);
+			}
+			if (containsElement(elements, path)) {
+				elementVersions = current.getElementVersions().plus(path.toString(), version);
+			} else {
+				elementVersions = dropVersions(current.getElementVersions(), path);
+				contentVersions = dropVersions(contentVersions, path);
+			}
+			next = new SubmodelSnapshot(version, current.getRoot().plus(Submodel.SUBMODELELEMENT, elements), elementVersions, contentVersions);
+		} while (!snapshot.compareAndSet(current, next));
+		return next;
+	}
+
+	/**
+	 * Drops the versions of a deleted element, together with the versions of the
+	 * elements it contained
+	 */
+	private PersistentHashMap<String, Long> dropVersions(PersistentHashMap<String, Long> versions, VABPath path) {
+		String changed = path.toString();
+		String prefix = changed + VABPathTools.SEPERATOR;
+		for (String key : versions.keySet()) {
+			if (key.equals(changed) || key.startsWith(prefix)) {
+				versions = versions.minus(key);
+			}
+		}
+		return versions;
+	}
+
+	@SuppressWarnings("unchecked")
+	private boolean containsElement(PersistentHashMap<String, Object> elements, VABPath path) {
+		for (int i = 0; i < path.size() - 1; i++) {
+			elements = (PersistentHashMap<String, Object>) ((Map<String, Object>) elements.get(path.getElement(i))).get(Property.VALUE);
+		}
+		return elements.containsKey(path.getLastElement());
+	}
+
+	/**
+	 * Copies the path to the changed element
+	 */
+	@SuppressWarnings("unchecked")
+	private PersistentHashMap<String, Object> changeElement(PersistentHashMap<String, Object> elements, VABPath path, int index, boolean create,
+			UnaryOperator<PersistentHashMap<String, Object>> change) {
+		String idShort = path.getElement(index);
+		PersistentHashMap<String, Object> element = (PersistentHashMap<String, Object>) elements.get(idShort);
+		if (element == null && (!create || index < path.size() - 1)) {
+			throw new ResourceNotFoundException("Element '" + path.subPath(0, index + 1) + "' does not exist");
+		}
+
+		if (index == path.size() - 1) {
+			PersistentHashMap<String, Object> newElement = change.apply(element);
+			return newElement == null ? elements.minus(idShort) : elements.plus(idShort, newElement);
+		}
+
+		if (!SubmodelElementCollection.isSubmodelElementCollection(element)) {
+			throw new MalformedRequestException("Element '" + path.subPath(0, index + 1) + "' does not contain other elements");
+		}
+		PersistentHashMap<String, Object> children = (PersistentHashMap<String, Object>) element.get(Property.VALUE);
+		PersistentHashMap<String, Object> newChildren = changeElement(children, path, index + 1, create, change);
+		return elements.plus(idShort, element.plus(Property.VALUE, newChildren));
+	}
+}
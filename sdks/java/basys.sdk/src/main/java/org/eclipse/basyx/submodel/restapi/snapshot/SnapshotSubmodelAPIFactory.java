@@ -0,0 +1,28 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.basyx.submodel.restapi.snapshot;
+
+import org.eclipse.basyx.submodel.metamodel.map.Submodel;
+import org.eclipse.basyx.submodel.restapi.api.ISubmodelAPI;
+import org.eclipse.basyx.submodel.restapi.api.ISubmodelAPIFactory;
+
+/**
+ * Submodel API provider that provides Submodel APIs keeping their submodels in
+ * immutable snapshots, see {@link SnapshotSubmodelAPI}
+ * 
+ * @author schnicke
+ *
+ */
+public class SnapshotSubmodelAPIFactory implements ISubmodelAPIFactory {
+	@Override
+	public ISubmodelAPI getSubmodelAPI(Submodel submodel) {
+		return new SnapshotSubmodelAPI(submodel);
+	}
+}
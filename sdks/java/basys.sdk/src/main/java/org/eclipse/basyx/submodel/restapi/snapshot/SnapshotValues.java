@@ -0,0 +1,187 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.basyx.submodel.restapi.snapshot;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.basyx.submodel.metamodel.map.Submodel;
+import org.eclipse.basyx.submodel.metamodel.map.qualifier.Referable;
+import org.eclipse.basyx.submodel.metamodel.map.submodelelement.SubmodelElementCollection;
+import org.eclipse.basyx.submodel.metamodel.map.submodelelement.dataelement.property.Property;
+import org.eclipse.basyx.vab.model.PersistentHashMap;
+
+/**
+ * Converts the maps and collections of a submodel to the immutable form kept in
+ * the snapshots and back. In the immutable form, all maps are
+ * {@link PersistentHashMap}s and the elements of the submodel and of its
+ * collections are always mapped by their idShort.
+ *
+ * @author schnicke
+ *
+ */
+final class SnapshotValues {
+	private SnapshotValues() {
+	}
+
+	/**
+	 * Converts a submodel to its immutable form
+	 */
+	@SuppressWarnings("unchecked")
+	static PersistentHashMap<String, Object> freezeSubmodel(Map<String, Object> submodel) {
+		PersistentHashMap<String, Object> result = (PersistentHashMap<String, Object>) freeze(submodel);
+		return result.plus(Submodel.SUBMODELELEMENT, freezeElements(submodel.get(Submodel.SUBMODELELEMENT)));
+	}
+
+	/**
+	 * Converts a submodel element to its immutable form. The contained elements of
+	 * collections are mapped by their idShort.
+	 */
+	@SuppressWarnings("unchecked")
+	static PersistentHashMap<String, Object> freezeElement(Map<String, Object> element) {
+		PersistentHashMap<String, Object> result = (PersistentHashMap<String, Object>) freeze(element);
+		if (SubmodelElementCollection.isSubmodelElementCollection(element)) {
+			result = result.plus(Property.VALUE, freezeElements(element.get(Property.VALUE)));
+		}
+		return result;
+	}
+
+	/**
+	 * Converts the elements of a submodel or a collection, given as map or
+	 * collection, to an immutable map from their idShort to the element
+	 */
+	@SuppressWarnings("unchecked")
+	static PersistentHashMap<String, Object> freezeElements(Object elements) {
+		Collection<Object> values;
+		if (elements == null) {
+			values = Collections.emptyList();
+		} else if (elements instanceof Map<?, ?>) {
+			values = ((Map<String, Object>) elements).values();
+		} else if (elements instanceof Collection<?>) {
+			values = (Collection<Object>) elements;
+		} else {
+			throw new RuntimeException("Elements must be given as Map or Collection");
+		}
+
+		PersistentHashMap<String, Object> result = PersistentHashMap.empty();
+		for (Object value : values) {
+			Map<String, Object> element = (Map<String, Object>) value;
+			result = result.plus((String) element.get(Referable.IDSHORT), freezeElement(element));
+		}
+		return result;
+	}
+
+	/**
+	 * Converts an arbitrary value to its immutable form. Maps become persistent
+	 * maps, lists and sets are copied to unmodifiable ones. All other values are
+	 * kept as they are.
+	 */
+	@SuppressWarnings("unchecked")
+	static Object freeze(Object value) {
+		if (value instanceof Map<?, ?>) {
+			PersistentHashMap<Object, Object> result = PersistentHashMap.empty();
+			for (Map.Entry<Object, Object> entry : ((Map<Object, Object>) value).entrySet()) {
+				result = result.plus(entry.getKey(), freeze(entry.getValue()));
+			}
+			return result;
+		} else if (value instanceof Set<?>) {
+			Set<Object> result = new LinkedHashSet<>();
+			for (Object o : (Set<Object>) value) {
+				result.add(freeze(o));
+			}
+			return Collections.unmodifiableSet(result);
+		} else if (value instanceof Collection<?>) {
+			List<Object> result = new ArrayList<>();
+			for (Object o : (Collection<Object>) value) {
+				result.add(freeze(o));
+			}
+			return Collections.unmodifiableList(result);
+		} else {
+			return value;
+		}
+	}
+
+	/**
+	 * Creates a modifiable copy of an immutable value, so that it can be handed out
+	 * to callers and wrapped by facades
+	 */
+	@SuppressWarnings("unchecked")
+	static Object thaw(Object value) {
+		if (value instanceof Map<?, ?>) {
+			Map<Object, Object> map = (Map<Object, Object>) value;
+			Map<Object, Object> result = new HashMap<>(map.size() * 4 / 3 + 1);
+			for (Map.Entry<Object, Object> entry : map.entrySet()) {
+				result.put(entry.getKey(), thaw(entry.getValue()));
+			}
+			return result;
+		} else if (value instanceof Set<?>) {
+			Set<Object> result = new HashSet<>();
+			for (Object o : (Set<Object>) value) {
+				result.add(thaw(o));
+			}
+			return result;
+		} else if (value instanceof Collection<?>) {
+			List<Object> result = new ArrayList<>();
+			for (Object o : (Collection<Object>) value) {
+				result.add(thaw(o));
+			}
+			return result;
+		} else {
+			return value;
+		}
+	}
+
+	/**
+	 * Creates a view of an immutable submodel that can be wrapped by facades. Only
+	 * the maps containing elements are copied, since the facades replace their
+	 * content. All other maps are shared with the snapshot and can not be
+	 * modified.
+	 */
+	static Map<String, Object> viewSubmodel(Map<String, Object> submodel) {
+		Map<String, Object> result = new HashMap<>(submodel);
+		result.put(Submodel.SUBMODELELEMENT, viewElements(submodel.get(Submodel.SUBMODELELEMENT)));
+		return result;
+	}
+
+	/**
+	 * Creates a view of an immutable element that can be wrapped by facades, see
+	 * {@link #viewSubmodel(Map)}
+	 */
+	static Map<String, Object> viewElement(Map<String, Object> element) {
+		if (!SubmodelElementCollection.isSubmodelElementCollection(element)) {
+			return element;
+		}
+		Map<String, Object> result = new HashMap<>(element);
+		result.put(Property.VALUE, viewElements(element.get(Property.VALUE)));
+		return result;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Map<String, Object> viewElements(Object elements) {
+		Map<String, Object> map = (Map<String, Object>) elements;
+		Map<String, Object> result = new HashMap<>(map.size() * 4 / 3 + 1);
+		for (Map.Entry<String, Object> entry : map.entrySet()) {
+			result.put(entry.getKey(), viewElement((Map<String, Object>) entry.getValue()));
+		}
+		return result;
+	}
+
+	@SuppressWarnings("unchecked")
+	static Map<String, Object> thawMap(Map<String, Object> map) {
+		return (Map<String, Object>) thaw(map);
+	}
+}
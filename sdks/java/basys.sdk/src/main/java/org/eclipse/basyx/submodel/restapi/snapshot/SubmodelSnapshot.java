@@ -0,0 +1,235 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.basyx.submodel.restapi.snapshot;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.basyx.submodel.metamodel.api.ISubmodel;
+import org.eclipse.basyx.submodel.metamodel.api.submodelelement.ISubmodelElement;
+import org.eclipse.basyx.submodel.metamodel.facade.SubmodelElementMapCollectionConverter;
+import org.eclipse.basyx.submodel.metamodel.facade.submodelelement.SubmodelElementFacadeFactory;
+import org.eclipse.basyx.submodel.metamodel.map.Submodel;
+import org.eclipse.basyx.submodel.metamodel.map.submodelelement.SubmodelElement;
+import org.eclipse.basyx.submodel.metamodel.map.submodelelement.SubmodelElementCollection;
+import org.eclipse.basyx.submodel.metamodel.map.submodelelement.dataelement.property.Property;
+import org.eclipse.basyx.submodel.metamodel.map.submodelelement.operation.Operation;
+import org.eclipse.basyx.vab.exception.provider.MalformedRequestException;
+import org.eclipse.basyx.vab.exception.provider.ResourceNotFoundException;
+import org.eclipse.basyx.vab.model.PersistentHashMap;
+import org.eclipse.basyx.vab.modelprovider.VABPath;
+
+/**
+ * Immutable version of a submodel, as it has been created by a change of a
+ * {@link SnapshotSubmodelAPI}. All reads from the same snapshot are
+ * consistent with each other, regardless of changes that happen in the
+ * meantime.<br />
+ * <br />
+ * The returned submodels and elements are read-only views sharing the data of
+ * the snapshot, i.e. reading them does not copy anything except for the maps
+ * of contained elements, which the facades replace. Only the returned
+ * collections of elements can be modified, without affecting the snapshot.
+ *
+ * @author schnicke
+ *
+ */
+public final class SubmodelSnapshot {
+	private final long version;
+	private final PersistentHashMap<String, Object> submodel;
+
+	// Version of the snapshot that changed or replaced an element last, by idShort
+	// path. The entries of unchanged elements are missing.
+	private final PersistentHashMap<String, Long> elementVersions;
+
+	// Version of the snapshot that changed an element contained in a collection
+	// last, by idShort path of the collection
+	private final PersistentHashMap<String, Long> contentVersions;
+
+	SubmodelSnapshot(long version, PersistentHashMap<String, Object> submodel, PersistentHashMap<String, Long> elementVersions,
+			PersistentHashMap<String, Long> contentVersions) {
+		this.version = version;
+		this.submodel = submodel;
+		this.elementVersions = elementVersions;
+		this.contentVersions = contentVersions;
+	}
+
+	/**
+	 * Returns the version of the snapshot. Each change of the submodel increments
+	 * the version by one.
+	 *
+	 * @return
+	 */
+	public long getVersion() {
+		return version;
+	}
+
+	/**
+	 * Returns the version of an element, i.e. the version of the snapshot that
+	 * changed the element, one of the elements it contains or replaced one of the
+	 * collections containing it last. Changes of other elements in the same
+	 * collection do not change the version. Elements that have not been changed
+	 * since the submodel has been passed to the {@link SnapshotSubmodelAPI} have
+	 * version 0.
+	 *
+	 * @param idShortPath
+	 *            path to the element, e.g. <i>collection/property</i>
+	 * @return
+	 * @throws ResourceNotFoundException
+	 *             if the element does not exist
+	 */
+	public long getElementVersion(String idShortPath) {
+		return getElementVersion(VABPath.parse(idShortPath));
+	}
+
+	/**
+	 * Returns a read-only view of the submodel
+	 *
+	 * @return
+	 */
+	public ISubmodel getSubmodel() {
+		return Submodel.createAsFacade(SnapshotValues.viewSubmodel(submodel));
+	}
+
+	/**
+	 * Returns read-only views of all elements of the submodel
+	 *
+	 * @return
+	 */
+	@SuppressWarnings("unchecked")
+	public Collection<ISubmodelElement> getSubmodelElements() {
+		Map<String, Object> elements = getElements();
+		List<ISubmodelElement> result = new ArrayList<>(elements.size());
+		for (Object element : elements.values()) {
+			result.add(toFacade((Map<String, Object>) element));
+		}
+		return result;
+	}
+
+	/**
+	 * Returns a read-only view of an element
+	 *
+	 * @param idShortPath
+	 *            path to the element, e.g. <i>collection/property</i>
+	 * @return
+	 * @throws ResourceNotFoundException
+	 *             if the element does not exist
+	 */
+	public ISubmodelElement getSubmodelElement(String idShortPath) {
+		return toFacade(getElement(VABPath.parse(idShortPath)));
+	}
+
+	/**
+	 * Returns the value of an element
+	 *
+	 * @param idShortPath
+	 *            path to the element, e.g. <i>collection/property</i>
+	 * @return
+	 * @throws ResourceNotFoundException
+	 *             if the element does not exist
+	 * @throws MalformedRequestException
+	 *             if the element has no value
+	 */
+	public Object getSubmodelElementValue(String idShortPath) {
+		Map<String, Object> element = getElement(VABPath.parse(idShortPath));
+		if (SubmodelElementCollection.isSubmodelElementCollection(element)) {
+			return SubmodelElementMapCollectionConverter.convertIDMapToCollection(element.get(Property.VALUE));
+		} else if (Property.isProperty(element)) {
+			return SnapshotValues.thaw(element.get(Property.VALUE));
+		} else if (Operation.isOperation(element)) {
+			throw new MalformedRequestException("The requested Element '" + idShortPath + "' has no value.");
+		}
+
+		ISubmodelElement facade = SubmodelElementFacadeFactory.createSubmodelElement(SnapshotValues.thawMap(element));
+		try {
+			return facade.getValue();
+		} catch (UnsupportedOperationException e) {
+			throw new MalformedRequestException("The requested Element '" + idShortPath + "' has no value.");
+		}
+	}
+
+	PersistentHashMap<String, Object> getRoot() {
+		return submodel;
+	}
+
+	PersistentHashMap<String, Long> getElementVersions() {
+		return elementVersions;
+	}
+
+	PersistentHashMap<String, Long> getContentVersions() {
+		return contentVersions;
+	}
+
+	/**
+	 * A change sets the element entry of the changed element and the content
+	 * entries of the collections containing it, but not the entries of the
+	 * elements a replaced element contains. Thus, the version of an element is
+	 * the latest of its own entries and the element entries of the collections
+	 * containing it.
+	 *
+	 * @throws ResourceNotFoundException
+	 *             if the element does not exist
+	 */
+	long getElementVersion(VABPath path) {
+		getElement(path);
+
+		long elementVersion = contentVersions.getOrDefault(path.toString(), 0L);
+		for (int i = 1; i <= path.size(); i++) {
+			Long changed = elementVersions.get(path.subPath(0, i).toString());
+			if (changed != null) {
+				elementVersion = Math.max(elementVersion, changed);
+			}
+		}
+		return elementVersion;
+	}
+
+	@SuppressWarnings("unchecked")
+	PersistentHashMap<String, Object> getElements() {
+		return (PersistentHashMap<String, Object>) submodel.get(Submodel.SUBMODELELEMENT);
+	}
+
+	/**
+	 * Finds an element by following its path through the contained collections
+	 *
+	 * @throws ResourceNotFoundException
+	 *             if the element does not exist
+	 */
+	@SuppressWarnings("unchecked")
+	PersistentHashMap<String, Object> getElement(VABPath path) {
+		if (path.isEmpty()) {
+			throw new MalformedRequestException("The path to an element must not be empty");
+		}
+
+		Map<String, Object> elements = getElements();
+		PersistentHashMap<String, Object> element = null;
+		for (int i = 0; i < path.size(); i++) {
+			if (element != null) {
+				if (!SubmodelElementCollection.isSubmodelElementCollection(element)) {
+					throw new MalformedRequestException("Element '" + path.subPath(0, i) + "' does not contain other elements");
+				}
+				elements = (Map<String, Object>) element.get(Property.VALUE);
+			}
+			element = (PersistentHashMap<String, Object>) elements.get(path.getElement(i));
+			if (element == null) {
+				throw new ResourceNotFoundException("Element '" + path.subPath(0, i + 1) + "' does not exist");
+			}
+		}
+		return element;
+	}
+
+	/**
+	 * Creates the facade of an element, collections contain their elements as
+	 * collection as it is done by the VAB submodel API
+	 */
+	private ISubmodelElement toFacade(Map<String, Object> element) {
+		return SubmodelElement.createAsFacade(SubmodelElementMapCollectionConverter.smElementToMap(SnapshotValues.viewElement(element)));
+	}
+}
@@ -9,22 +9,28 @@
  ******************************************************************************/
 package org.eclipse.basyx.submodel.restapi.vab;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
 import org.eclipse.basyx.submodel.metamodel.api.ISubmodel;
 import org.eclipse.basyx.submodel.metamodel.api.submodelelement.ISubmodelElement;
 import org.eclipse.basyx.submodel.metamodel.api.submodelelement.operation.IOperation;
+import org.eclipse.basyx.submodel.metamodel.facade.SubmodelElementMapCollectionConverter;
 import org.eclipse.basyx.submodel.metamodel.map.Submodel;
 import org.eclipse.basyx.submodel.metamodel.map.submodelelement.SubmodelElement;
 import org.eclipse.basyx.submodel.metamodel.map.submodelelement.dataelement.property.Property;
 import org.eclipse.basyx.submodel.metamodel.map.submodelelement.operation.Operation;
+import org.eclipse.basyx.submodel.restapi.HistoryQuery;
 import org.eclipse.basyx.submodel.restapi.MultiSubmodelElementProvider;
 import org.eclipse.basyx.submodel.restapi.OperationProvider;
 import org.eclipse.basyx.submodel.restapi.api.ISubmodelAPI;
+import org.eclipse.basyx.vab.exception.provider.ResourceNotFoundException;
 import org.eclipse.basyx.vab.modelprovider.VABElementProxy;
+import org.eclipse.basyx.vab.modelprovider.VABPath;
 import org.eclipse.basyx.vab.modelprovider.api.IModelProvider;
 
 /**
@@ -34,11 +40,16 @@ import org.eclipse.basyx.vab.modelprovider.api.IModelProvider;
  *
  */
 public class VABSubmodelAPI implements ISubmodelAPI {
+	private static final VABPath ELEMENTS_PATH = VABPath.of(MultiSubmodelElementProvider.ELEMENTS);
 
 	// The VAB model provider containing the model this API implementation is based
 	// on
 	private IModelProvider modelProvider;
 
+	// Handles the accesses to the elements within the submodel, keeps their
+	// resolved providers between the calls
+	private final MultiSubmodelElementProvider elementProvider;
+
 	/**
 	 * Creates a VABSubmodelAPI that wraps an IModelProvider
 	 * 
@@ -48,18 +59,7 @@ public class VABSubmodelAPI implements ISubmodelAPI {
 	public VABSubmodelAPI(IModelProvider modelProvider) {
 		super();
 		this.modelProvider = modelProvider;
-	}
-
-	/**
-	 * Creates an IModelProvider for handling accesses to the elements within the
-	 * submodel
-	 * 
-	 * @return returns the SubmodelElementProvider pointing to the contained
-	 *         submodelelements
-	 */
-	private MultiSubmodelElementProvider getElementProvider() {
-		IModelProvider elementProxy = new VABElementProxy(Submodel.SUBMODELELEMENT, modelProvider);
-		return new MultiSubmodelElementProvider(elementProxy);
+		this.elementProvider = new MultiSubmodelElementProvider(new VABElementProxy(Submodel.SUBMODELELEMENT, modelProvider));
 	}
 
 	@SuppressWarnings("unchecked")
@@ -74,19 +74,29 @@ public class VABSubmodelAPI implements ISubmodelAPI {
 		return Submodel.createAsFacade(smCopy);
 	}
 
+	/**
+	 * Returns a view that shares the data of the model provider, i.e. changes of
+	 * the submodel are visible through it
+	 */
+	@SuppressWarnings("unchecked")
+	@Override
+	public ISubmodel getSubmodelView() {
+		return SubmodelElementMapCollectionConverter.mapToSMView((Map<String, Object>) modelProvider.getValueView(""));
+	}
+
 	@Override
 	public void addSubmodelElement(ISubmodelElement elem) {
-		getElementProvider().createValue(MultiSubmodelElementProvider.ELEMENTS + "/" + elem.getIdShort(), elem);
+		elementProvider.createValue(VABPath.of(MultiSubmodelElementProvider.ELEMENTS, elem.getIdShort()), elem);
 	}
 
 	@Override
 	public void addSubmodelElement(String idShortPath, ISubmodelElement elem) {
-		getElementProvider().createValue(MultiSubmodelElementProvider.ELEMENTS + "/" + idShortPath, elem);
+		elementProvider.createValue(VABPath.of(MultiSubmodelElementProvider.ELEMENTS, idShortPath), elem);
 	}
 
 	@Override
 	public void deleteSubmodelElement(String idShortPath) {
-		getElementProvider().deleteValue(MultiSubmodelElementProvider.ELEMENTS + "/" + idShortPath);
+		elementProvider.deleteValue(VABPath.of(MultiSubmodelElementProvider.ELEMENTS, idShortPath));
 	}
 
 
@@ -98,46 +108,93 @@ public class VABSubmodelAPI implements ISubmodelAPI {
 	@SuppressWarnings("unchecked")
 	@Override
 	public Collection<ISubmodelElement> getSubmodelElements() {
-		Collection<Map<String, Object>> elements = (Collection<Map<String, Object>>) getElementProvider()
-				.getValue(MultiSubmodelElementProvider.ELEMENTS);
+		Collection<Map<String, Object>> elements = (Collection<Map<String, Object>>) elementProvider.getValue(ELEMENTS_PATH);
 		return elements.stream().map(SubmodelElement::createAsFacade).collect(Collectors.toList());
 	}
 
+	/**
+	 * Returns views that share the data of the model provider, see
+	 * {@link #getSubmodelView()}
+	 */
+	@SuppressWarnings("unchecked")
+	@Override
+	public Collection<ISubmodelElement> getSubmodelElementViews() {
+		Map<String, Object> elements = (Map<String, Object>) modelProvider.getValueView(Submodel.SUBMODELELEMENT);
+		return SubmodelElementMapCollectionConverter.elementsToFacadeView(elements.values());
+	}
+
 	@Override
 	public void updateSubmodelElement(String idShortPath, Object newValue) {
-		getElementProvider().setValue(buildValuePathForProperty(idShortPath), newValue);
+		elementProvider.setValue(buildValuePathForProperty(idShortPath), newValue);
 	}
 
 	@Override
 	public Object getSubmodelElementValue(String idShortPath) {
-		return getElementProvider().getValue(buildValuePathForProperty(idShortPath));
+		return elementProvider.getValue(buildValuePathForProperty(idShortPath));
 	}
 
 	@SuppressWarnings("unchecked")
 	@Override
 	public ISubmodelElement getSubmodelElement(String idShortPath) {
-		return SubmodelElement.createAsFacade((Map<String, Object>) getElementProvider().getValue(MultiSubmodelElementProvider.ELEMENTS + "/" + idShortPath));
+		return SubmodelElement.createAsFacade((Map<String, Object>) elementProvider.getValue(VABPath.of(MultiSubmodelElementProvider.ELEMENTS, idShortPath)));
+	}
+
+	/**
+	 * Returns a view that shares the data of the model provider, see
+	 * {@link #getSubmodelView()}
+	 */
+	@SuppressWarnings("unchecked")
+	@Override
+	public ISubmodelElement getSubmodelElementView(String idShortPath) {
+		Map<String, Object> element = (Map<String, Object>) modelProvider.getValueView(buildModelPathForElement(idShortPath).toString());
+		if (element == null) {
+			throw new ResourceNotFoundException("Element '" + idShortPath + "' does not exist");
+		}
+		return SubmodelElement.createAsFacade(SubmodelElementMapCollectionConverter.smElementToMapView(element));
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public Collection<Map<String, Object>> getSubmodelElementHistory(String idShortPath, HistoryQuery query) {
+		return (Collection<Map<String, Object>>) elementProvider.getValue(VABPath.of(MultiSubmodelElementProvider.ELEMENTS, idShortPath, query.toString()));
 	}
 
 	@Override
 	public Object invokeOperation(String idShortPath, Object... params) {
-		return getElementProvider().invokeOperation(MultiSubmodelElementProvider.ELEMENTS + "/" + idShortPath, params);
+		return elementProvider.invokeOperation(VABPath.of(MultiSubmodelElementProvider.ELEMENTS, idShortPath), params);
 	}
 	
 	
 	@Override
 	public Object invokeAsync(String idShortPath, Object... params) {
-		return getElementProvider().invokeOperation(MultiSubmodelElementProvider.ELEMENTS + "/" + idShortPath +"/" + Operation.INVOKE + OperationProvider.ASYNC, params);
+		return elementProvider.invokeOperation(VABPath.of(MultiSubmodelElementProvider.ELEMENTS, idShortPath, Operation.INVOKE + OperationProvider.ASYNC), params);
+	}
+
+	/**
+	 * Builds the path of an element within the model provider, in which
+	 * collections contain their elements in a map by their idShort
+	 */
+	private VABPath buildModelPathForElement(String idShortPath) {
+		VABPath path = VABPath.parse(idShortPath);
+		List<String> elements = new ArrayList<>(path.size() * 2);
+		elements.add(Submodel.SUBMODELELEMENT);
+		for (int i = 0; i < path.size(); i++) {
+			if (i > 0) {
+				elements.add(Property.VALUE);
+			}
+			elements.add(path.getElement(i));
+		}
+		return VABPath.of(elements.toArray(new String[0]));
 	}
 
-	private String buildValuePathForProperty(String idShortPath) {
-		return MultiSubmodelElementProvider.ELEMENTS + "/" + idShortPath + "/" + Property.VALUE;
+	private VABPath buildValuePathForProperty(String idShortPath) {
+		return VABPath.of(MultiSubmodelElementProvider.ELEMENTS, idShortPath, Property.VALUE);
 	}
 
 	
 	@Override
 	public Object getOperationResult(String idShortPath, String requestId) {
-		return getElementProvider().getValue(MultiSubmodelElementProvider.ELEMENTS + "/" + idShortPath + "/" + OperationProvider.INVOCATION_LIST + "/" + requestId);
+		return elementProvider.getValue(VABPath.of(MultiSubmodelElementProvider.ELEMENTS, idShortPath, OperationProvider.INVOCATION_LIST, requestId));
 	}
 
 
@@ -0,0 +1,165 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.basyx.vab.coder.binary.serialization;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.basyx.vab.exception.provider.MalformedRequestException;
+
+/**
+ * Buffered, unsynchronized reader for the primitives of the binary format, see
+ * {@link BinaryWriter}
+ *
+ * @author schnicke
+ *
+ */
+class BinaryReader {
+	private final InputStream in;
+	private final byte[] buffer = new byte[8192];
+	private int position = 0;
+	private int limit = 0;
+
+	/**
+	 * Shared strings read so far, indexed by their order of appearance
+	 */
+	private final List<String> strings = new ArrayList<>();
+
+	BinaryReader(InputStream in) {
+		this.in = in;
+	}
+
+	/**
+	 * Reads the next byte
+	 *
+	 * @return the byte or -1 if the end of the stream has been reached
+	 * @throws IOException
+	 */
+	int read() throws IOException {
+		if (position == limit && !fill()) {
+			return -1;
+		}
+		return buffer[position++] & 0xFF;
+	}
+
+	byte readByte() throws IOException {
+		if (position == limit && !fill()) {
+			throw new EOFException();
+		}
+		return buffer[position++];
+	}
+
+	/**
+	 * Reads an unsigned variable length integer with 7 bits per byte
+	 */
+	long readVarLong() throws IOException {
+		long value = 0;
+		for (int shift = 0; shift < 64; shift += 7) {
+			byte b = readByte();
+			value |= (long) (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				return value;
+			}
+		}
+		throw new MalformedRequestException("Malformed variable length integer in binary document");
+	}
+
+	int readInt() throws IOException {
+		return ((readByte() & 0xFF) << 24) | ((readByte() & 0xFF) << 16) | ((readByte() & 0xFF) << 8) | (readByte() & 0xFF);
+	}
+
+	long readLong() throws IOException {
+		return ((long) readInt() << 32) | (readInt() & 0xFFFFFFFFL);
+	}
+
+	/**
+	 * Reads a length or count and checks that it is in the valid range
+	 */
+	int readLength() throws IOException {
+		return toLength(readVarLong());
+	}
+
+	/**
+	 * Reads a byte array prefixed by its length
+	 */
+	byte[] readBytes() throws IOException {
+		return readFully(readLength());
+	}
+
+	/**
+	 * Reads a string literal or a reference to a previously read string
+	 */
+	String readString() throws IOException {
+		long header = readVarLong();
+		if ((header & 1) != 0) {
+			long index = header >>> 1;
+			if (index >= strings.size()) {
+				throw new MalformedRequestException("Invalid string reference " + index + " in binary document");
+			}
+			return strings.get((int) index);
+		}
+
+		int length = toLength(header >>> 1);
+		String value;
+		if (length <= limit - position) {
+			value = new String(buffer, position, length, StandardCharsets.UTF_8);
+			position += length;
+		} else {
+			value = new String(readFully(length), StandardCharsets.UTF_8);
+		}
+
+		if (length <= BinaryWriter.MAX_SHARED_STRING_LENGTH) {
+			strings.add(value);
+		}
+		return value;
+	}
+
+	private byte[] readFully(int length) throws IOException {
+		// Grow the array while reading, so that a corrupt length does not allocate
+		// more memory than data is available
+		byte[] data = new byte[Math.min(length, buffer.length)];
+		int offset = 0;
+		while (offset < length) {
+			if (position == limit && !fill()) {
+				throw new EOFException();
+			}
+			if (offset == data.length) {
+				data = Arrays.copyOf(data, (int) Math.min(length, 2L * data.length));
+			}
+			int count = Math.min(data.length - offset, limit - position);
+			System.arraycopy(buffer, position, data, offset, count);
+			position += count;
+			offset += count;
+		}
+		return data;
+	}
+
+	private boolean fill() throws IOException {
+		int count = in.read(buffer, 0, buffer.length);
+		if (count <= 0) {
+			return false;
+		}
+		position = 0;
+		limit = count;
+		return true;
+	}
+
+	private static int toLength(long length) {
+		if (length < 0 || length > Integer.MAX_VALUE) {
+			throw new MalformedRequestException("Invalid length " + length + " in binary document");
+		}
+		return (int) length;
+	}
+}
@@ -0,0 +1,505 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.basyx.vab.coder.binary.serialization;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.eclipse.basyx.vab.coder.json.serialization.GSONTools;
+import org.eclipse.basyx.vab.coder.json.serialization.GSONToolsFactory;
+import org.eclipse.basyx.vab.coder.json.serialization.StreamingSerializer;
+import org.eclipse.basyx.vab.exception.provider.MalformedRequestException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Provides means for (de-)serialization of Primitives, Maps, Sets, Lists and
+ * functions to a compact, tagged binary format. <br />
+ * In contrast to JSON, the format keeps the difference between Sets and Lists
+ * and between int, long, BigInteger, float and double values. Function markers
+ * are encoded as dedicated tags and are deserialized the same way as by
+ * {@link GSONTools}. <br />
+ * Each value is prefixed by a single tag byte. Integers and lengths are encoded
+ * as variable length integers, signed integers use zigzag encoding. Short
+ * strings, e.g. map keys, are written only once per document and referenced
+ * afterwards. The serialized value is preceded by a format version byte. An
+ * empty input is deserialized to <i>null</i>. <br />
+ * The String based methods of the {@link StreamingSerializer} interface carry
+ * the binary data as ISO-8859-1 Strings, i.e. each char represents one byte.
+ *
+ * @author schnicke
+ *
+ */
+public class BinaryTools implements StreamingSerializer {
+
+	private static Logger logger = LoggerFactory.getLogger(BinaryTools.class);
+
+	/**
+	 * Media type used to negotiate the binary encoding via HTTP
+	 */
+	public static final String MEDIATYPE = "application/x-basyx-binary";
+
+	/**
+	 * Version of the binary format
+	 */
+	public static final byte VERSION = 1;
+
+	// Value tags
+	static final byte NULL = 0;
+	static final byte TRUE = 1;
+	static final byte FALSE = 2;
+	static final byte INT = 3;
+	static final byte LONG = 4;
+	static final byte BIGINTEGER = 5;
+	static final byte FLOAT = 6;
+	static final byte DOUBLE = 7;
+	static final byte DECIMAL = 8;
+	static final byte STRING = 9;
+	static final byte MAP = 10;
+	static final byte LIST = 11;
+	static final byte SET = 12;
+	static final byte OPERATION = 13;
+	static final byte LAMBDA = 14;
+
+	/**
+	 * Type factory
+	 */
+	protected GSONToolsFactory toolsFactory = null;
+
+	/**
+	 * Flag to remove null values from serialized maps
+	 */
+	private boolean removeNull = true;
+
+	/**
+	 * Flag to remove empty collections from serialized maps
+	 */
+	private boolean removeEmpty = false;
+
+	/**
+	 * Constructor
+	 */
+	public BinaryTools(GSONToolsFactory factory) {
+		// Store factory reference
+		toolsFactory = factory;
+	}
+
+	/**
+	 * Constructor
+	 */
+	public BinaryTools(GSONToolsFactory factory, boolean removeNull, boolean removeEmpty) {
+		this(factory);
+		this.removeNull = removeNull;
+		this.removeEmpty = removeEmpty;
+	}
+
+	/**
+	 * Checks if a media type, e.g. from a Content-Type header, denotes the binary
+	 * encoding. Parameters of the media type are ignored.
+	 *
+	 * @param mediaType
+	 * @return
+	 */
+	public static boolean isBinaryMediaType(String mediaType) {
+		return mediaType != null && MEDIATYPE.equalsIgnoreCase(mediaType.split(";")[0].trim());
+	}
+
+	/**
+	 * Checks if an Accept header prefers the binary encoding over JSON. The
+	 * binary encoding has to be accepted explicitly with a quality greater than
+	 * 0 that is not lower than the one of JSON. The quality of JSON is given by
+	 * the most specific of application/json, application/* and *&#47;*.
+	 *
+	 * @param accept
+	 * @return
+	 */
+	public static boolean isBinaryAccepted(String accept) {
+		if (accept == null) {
+			return false;
+		}
+
+		double binary = 0;
+		double json = -1;
+		double applicationWildcard = -1;
+		double wildcard = -1;
+		for (String range : accept.split(",")) {
+			String[] parts = range.split(";");
+			String type = parts[0].trim().toLowerCase();
+			double quality = getQuality(parts);
+			if (type.equals(MEDIATYPE)) {
+				binary = Math.max(binary, quality);
+			} else if (type.equals("application/json")) {
+				json = Math.max(json, quality);
+			} else if (type.equals("application/*")) {
+				applicationWildcard = Math.max(applicationWildcard, quality);
+			} else if (type.equals("*/*")) {
+				wildcard = Math.max(wildcard, quality);
+			}
+		}
+
+		if (json < 0) {
+			json = applicationWildcard >= 0 ? applicationWildcard : wildcard;
+		}
+		return binary > 0 && binary >= json;
+	}
+
+	/**
+	 * Returns the quality parameter of a media range split at its semicolons, 1
+	 * if it is missing or malformed
+	 */
+	private static double getQuality(String[] parts) {
+		for (int i = 1; i < parts.length; i++) {
+			String parameter = parts[i].trim();
+			if (parameter.startsWith("q=") || parameter.startsWith("Q=")) {
+				try {
+					return Double.parseDouble(parameter.substring(2).trim());
+				} catch (NumberFormatException e) {
+					return 1;
+				}
+			}
+		}
+		return 1;
+	}
+
+	@Override
+	public String serialize(Object value) {
+		ByteArrayOutputStream outStream = new ByteArrayOutputStream();
+		try {
+			serialize(value, outStream);
+		} catch (IOException e) {
+			// Can not happen for in-memory streams
+			throw new RuntimeException(e);
+		}
+		return new String(outStream.toByteArray(), StandardCharsets.ISO_8859_1);
+	}
+
+	@Override
+	public Object deserialize(String serializedValue) {
+		byte[] data = serializedValue.getBytes(StandardCharsets.ISO_8859_1);
+		try {
+			return deserialize(new ByteArrayInputStream(data));
+		} catch (IOException e) {
+			throw new MalformedRequestException(e);
+		}
+	}
+
+	/**
+	 * Serializes an object to the given stream. The stream is flushed, but not
+	 * closed.
+	 */
+	@Override
+	public void serialize(Object value, OutputStream outputStream) throws IOException {
+		BinaryWriter out = new BinaryWriter(outputStream);
+		out.writeByte(VERSION);
+		writeObject(value, out);
+		out.flush();
+	}
+
+	/**
+	 * Deserializes an object from the given stream. The complete stream is
+	 * consumed, but not closed.
+	 */
+	@Override
+	public Object deserialize(InputStream inputStream) throws IOException {
+		BinaryReader in = new BinaryReader(inputStream);
+		int version = in.read();
+		if (version == -1) {
+			// Empty document
+			return null;
+		} else if (version != VERSION) {
+			throw new MalformedRequestException("Unsupported binary format version " + version);
+		}
+
+		try {
+			Object result = readObject(in);
+			if (in.read() != -1) {
+				throw new MalformedRequestException("Binary document was not fully consumed");
+			}
+			return result;
+		} catch (EOFException e) {
+			throw new MalformedRequestException("Incomplete binary document");
+		}
+	}
+
+	/**
+	 * Writes an arbitrary object to the stream
+	 *
+	 * @param obj
+	 * @param out
+	 * @throws IOException
+	 */
+	@SuppressWarnings("unchecked")
+	private void writeObject(Object obj, BinaryWriter out) throws IOException {
+		if (obj == null) {
+			out.writeByte(NULL);
+		} else if (obj instanceof String) {
+			out.writeByte(STRING);
+			out.writeString((String) obj);
+		} else if (obj instanceof Boolean) {
+			out.writeByte((Boolean) obj ? TRUE : FALSE);
+		} else if (obj instanceof Integer || obj instanceof Short || obj instanceof Byte) {
+			out.writeByte(INT);
+			out.writeVarLong(zigzag(((Number) obj).intValue()));
+		} else if (obj instanceof Long) {
+			out.writeByte(LONG);
+			out.writeVarLong(zigzag((Long) obj));
+		} else if (obj instanceof Double) {
+			out.writeByte(DOUBLE);
+			out.writeLong(Double.doubleToLongBits((Double) obj));
+		} else if (obj instanceof Float) {
+			out.writeByte(FLOAT);
+			out.writeInt(Float.floatToIntBits((Float) obj));
+		} else if (obj instanceof BigInteger) {
+			out.writeByte(BIGINTEGER);
+			out.writeBytes(((BigInteger) obj).toByteArray());
+		} else if (obj instanceof BigDecimal) {
+			BigDecimal decimal = (BigDecimal) obj;
+			out.writeByte(DECIMAL);
+			out.writeVarLong(zigzag(decimal.scale()));
+			out.writeBytes(decimal.unscaledValue().toByteArray());
+		} else if (obj instanceof Number) {
+			out.writeByte(DOUBLE);
+			out.writeLong(Double.doubleToLongBits(((Number) obj).doubleValue()));
+		} else if (obj instanceof Character) {
+			out.writeByte(STRING);
+			out.writeString(obj.toString());
+		} else if (obj instanceof Map<?, ?>) {
+			writeMap((Map<String, Object>) obj, out);
+		} else if (obj instanceof Collection<?>) {
+			writeCollection((Collection<Object>) obj, out);
+		} else if (isFunction(obj)) {
+			writeFunction(obj, out);
+		} else {
+			throw new RuntimeException("Unknown element!");
+		}
+	}
+
+	/**
+	 * Writes a map as count followed by its key/value pairs
+	 *
+	 * @param map
+	 * @param out
+	 * @throws IOException
+	 */
+	private void writeMap(Map<String, Object> map, BinaryWriter out) throws IOException {
+		int count = 0;
+		for (Object value : map.values()) {
+			if (isWritten(value)) {
+				count++;
+			}
+		}
+
+		out.writeByte(MAP);
+		out.writeVarLong(count);
+		for (Entry<String, Object> entry : map.entrySet()) {
+			Object value = entry.getValue();
+			if (isWritten(value)) {
+				out.writeString(entry.getKey());
+				writeObject(value, out);
+			}
+		}
+	}
+
+	/**
+	 * Checks if a map value is written with regard to the removeNull and
+	 * removeEmpty flags
+	 *
+	 * @param value
+	 * @return
+	 */
+	private boolean isWritten(Object value) {
+		if (value == null) {
+			return !removeNull;
+		}
+		return !removeEmpty || !(value instanceof Collection<?> && ((Collection<?>) value).isEmpty());
+	}
+
+	/**
+	 * Writes a collection as count followed by its elements. Sets and lists are
+	 * tagged differently.
+	 *
+	 * @param collection
+	 * @param out
+	 * @throws IOException
+	 */
+	private void writeCollection(Collection<Object> collection, BinaryWriter out) throws IOException {
+		out.writeByte(collection instanceof Set<?> ? SET : LIST);
+		out.writeVarLong(collection.size());
+		for (Object o : collection) {
+			writeObject(o, out);
+		}
+	}
+
+	/**
+	 * Writes a function marker. Serializable functions are transferred as Java
+	 * serialized objects.
+	 *
+	 * @param function
+	 * @param out
+	 * @throws IOException
+	 */
+	private void writeFunction(Object function, BinaryWriter out) throws IOException {
+		if (function instanceof Serializable) {
+			out.writeByte(LAMBDA);
+			out.writeBytes(serializeFunction((Serializable) function));
+		} else {
+			out.writeByte(OPERATION);
+		}
+	}
+
+	/**
+	 * Reads the next tagged value from the stream
+	 *
+	 * @param in
+	 * @return
+	 * @throws IOException
+	 */
+	private Object readObject(BinaryReader in) throws IOException {
+		byte tag = in.readByte();
+		switch (tag) {
+		case NULL:
+			return null;
+		case TRUE:
+			return true;
+		case FALSE:
+			return false;
+		case INT:
+			return (int) unzigzag(in.readVarLong());
+		case LONG:
+			return unzigzag(in.readVarLong());
+		case BIGINTEGER:
+			return new BigInteger(in.readBytes());
+		case FLOAT:
+			return Float.intBitsToFloat(in.readInt());
+		case DOUBLE:
+			return Double.longBitsToDouble(in.readLong());
+		case DECIMAL:
+			int scale = (int) unzigzag(in.readVarLong());
+			return new BigDecimal(new BigInteger(in.readBytes()), scale);
+		case STRING:
+			return in.readString();
+		case MAP:
+			return readMap(in);
+		case LIST:
+			return readCollection(in, toolsFactory.createCollection());
+		case SET:
+			return readCollection(in, new LinkedHashSet<>());
+		case OPERATION:
+			return GSONTools.BASYXINVOCABLE;
+		case LAMBDA:
+			return deserializeFunction(in.readBytes());
+		default:
+			throw new MalformedRequestException("Unknown binary tag " + tag);
+		}
+	}
+
+	/**
+	 * Reads a map from the stream
+	 *
+	 * @param in
+	 * @return
+	 * @throws IOException
+	 */
+	private Map<String, Object> readMap(BinaryReader in) throws IOException {
+		int count = in.readLength();
+		Map<String, Object> map = toolsFactory.createMap();
+		for (int i = 0; i < count; i++) {
+			String key = in.readString();
+			map.put(key, readObject(in));
+		}
+		return map;
+	}
+
+	/**
+	 * Reads the elements of a collection from the stream into the given
+	 * collection
+	 *
+	 * @param in
+	 * @param collection
+	 * @return
+	 * @throws IOException
+	 */
+	private Collection<Object> readCollection(BinaryReader in, Collection<Object> collection) throws IOException {
+		int count = in.readLength();
+		for (int i = 0; i < count; i++) {
+			collection.add(readObject(in));
+		}
+		return collection;
+	}
+
+	/**
+	 * Checks if an object is a lambda function
+	 *
+	 * @param value
+	 * @return
+	 */
+	private boolean isFunction(Object value) {
+		return (value instanceof Supplier<?>)
+				|| (value instanceof Function<?, ?>)
+				|| (value instanceof Consumer<?>)
+				|| (value instanceof BiConsumer<?, ?>);
+	}
+
+	/**
+	 * Write a serializable function to a byte array
+	 */
+	protected byte[] serializeFunction(Serializable function) {
+		ByteArrayOutputStream outStream = new ByteArrayOutputStream();
+
+		try (ObjectOutputStream oos = new ObjectOutputStream(outStream)) {
+			oos.writeObject(function);
+		} catch (IOException e) {
+			logger.error("Exception in serializeFunction", e);
+		}
+
+		return outStream.toByteArray();
+	}
+
+	/**
+	 * Read a serializable function from a byte array
+	 */
+	protected Object deserializeFunction(byte[] data) {
+		Object result = null;
+
+		try (ObjectInputStream stream = new ObjectInputStream(new ByteArrayInputStream(data))) {
+			result = stream.readObject();
+		} catch (IOException | ClassNotFoundException e) {
+			logger.error("Exception in deserializeFunction", e);
+		}
+		return result;
+	}
+
+	private static long zigzag(long value) {
+		return (value << 1) ^ (value >> 63);
+	}
+
+	private static long unzigzag(long value) {
+		return (value >>> 1) ^ -(value & 1);
+	}
+}
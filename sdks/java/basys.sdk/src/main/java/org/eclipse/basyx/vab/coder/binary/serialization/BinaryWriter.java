@@ -0,0 +1,152 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.basyx.vab.coder.binary.serialization;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Buffered, unsynchronized writer for the primitives of the binary format. <br />
+ * Short strings are written only once per document. Later occurrences are
+ * written as reference to the first one, see {@link BinaryReader}.
+ *
+ * @author schnicke
+ *
+ */
+class BinaryWriter {
+	/**
+	 * Maximum number of UTF-8 bytes of strings that are referenced when repeated
+	 */
+	static final int MAX_SHARED_STRING_LENGTH = 64;
+
+	private final OutputStream out;
+	private final byte[] buffer = new byte[8192];
+	private int position = 0;
+
+	/**
+	 * Index of the shared strings written so far
+	 */
+	private final Map<String, Integer> strings = new HashMap<>();
+
+	BinaryWriter(OutputStream out) {
+		this.out = out;
+	}
+
+	void writeByte(int b) throws IOException {
+		if (position == buffer.length) {
+			flushBuffer();
+		}
+		buffer[position++] = (byte) b;
+	}
+
+	/**
+	 * Writes an unsigned variable length integer with 7 bits per byte
+	 */
+	void writeVarLong(long value) throws IOException {
+		while ((value & ~0x7FL) != 0) {
+			writeByte((int) ((value & 0x7F) | 0x80));
+			value >>>= 7;
+		}
+		writeByte((int) value);
+	}
+
+	void writeInt(int value) throws IOException {
+		writeByte(value >>> 24);
+		writeByte(value >>> 16);
+		writeByte(value >>> 8);
+		writeByte(value);
+	}
+
+	void writeLong(long value) throws IOException {
+		writeInt((int) (value >>> 32));
+		writeInt((int) value);
+	}
+
+	/**
+	 * Writes a byte array prefixed by its length
+	 */
+	void writeBytes(byte[] data) throws IOException {
+		writeVarLong(data.length);
+		write(data, 0, data.length);
+	}
+
+	/**
+	 * Writes a string either as literal or as reference to a previously written
+	 * string. The header is the length shifted by one for literals and the index of
+	 * the string shifted by one with the lowest bit set for references.
+	 */
+	void writeString(String value) throws IOException {
+		int length = value.length();
+		if (length <= MAX_SHARED_STRING_LENGTH) {
+			Integer index = strings.get(value);
+			if (index != null) {
+				writeVarLong(((long) index << 1) | 1);
+				return;
+			}
+		}
+
+		int byteLength;
+		if (isAscii(value)) {
+			byteLength = length;
+			writeVarLong((long) length << 1);
+			for (int i = 0; i < length; i++) {
+				writeByte(value.charAt(i));
+			}
+		} else {
+			byte[] data = value.getBytes(StandardCharsets.UTF_8);
+			byteLength = data.length;
+			writeVarLong((long) byteLength << 1);
+			write(data, 0, byteLength);
+		}
+
+		if (byteLength <= MAX_SHARED_STRING_LENGTH) {
+			strings.put(value, strings.size());
+		}
+	}
+
+	/**
+	 * Writes all buffered data to the underlying stream and flushes it
+	 */
+	void flush() throws IOException {
+		flushBuffer();
+		out.flush();
+	}
+
+	private void write(byte[] data, int offset, int length) throws IOException {
+		if (length > buffer.length - position) {
+			flushBuffer();
+			if (length > buffer.length) {
+				out.write(data, offset, length);
+				return;
+			}
+		}
+		System.arraycopy(data, offset, buffer, position, length);
+		position += length;
+	}
+
+	private void flushBuffer() throws IOException {
+		if (position > 0) {
+			out.write(buffer, 0, position);
+			position = 0;
+		}
+	}
+
+	private static boolean isAscii(String value) {
+		for (int i = 0; i < value.length(); i++) {
+			if (value.charAt(i) >= 0x80) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
@@ -9,8 +9,15 @@
  ******************************************************************************/
 package org.eclipse.basyx.vab.coder.json.connector;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 import org.eclipse.basyx.submodel.restapi.operation.InvocationRequest;
 import org.eclipse.basyx.vab.coder.json.metaprotocol.IMetaProtocolHandler;
@@ -18,10 +25,19 @@ import org.eclipse.basyx.vab.coder.json.metaprotocol.MetaprotocolHandler;
 import org.eclipse.basyx.vab.coder.json.serialization.DefaultTypeFactory;
 import org.eclipse.basyx.vab.coder.json.serialization.GSONTools;
 import org.eclipse.basyx.vab.coder.json.serialization.GSONToolsFactory;
+import org.eclipse.basyx.vab.coder.json.serialization.Serializer;
 import org.eclipse.basyx.vab.exception.provider.ProviderException;
 import org.eclipse.basyx.vab.modelprovider.VABPathTools;
-import org.eclipse.basyx.vab.modelprovider.api.IModelProvider;
+import org.eclipse.basyx.vab.modelprovider.api.IAsyncModelProvider;
+import org.eclipse.basyx.vab.modelprovider.async.AsyncModelProviderAdapter;
+import org.eclipse.basyx.vab.modelprovider.batch.BatchEntry;
+import org.eclipse.basyx.vab.modelprovider.batch.BatchResult;
+import org.eclipse.basyx.vab.modelprovider.event.IPublisher;
+import org.eclipse.basyx.vab.protocol.api.IBaSyxAsyncConnector;
+import org.eclipse.basyx.vab.protocol.api.IBaSyxBatchConnector;
 import org.eclipse.basyx.vab.protocol.api.IBaSyxConnector;
+import org.eclipse.basyx.vab.protocol.api.IBaSyxEventConnector;
+import org.eclipse.basyx.vab.protocol.api.IBaSyxVersionConnector;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -34,7 +50,7 @@ import org.slf4j.LoggerFactory;
  * @author pschorn
  *
  */
-public class JSONConnector implements IModelProvider {
+public class JSONConnector implements IAsyncModelProvider {
 
 	private static final Logger LOGGER_DEFAULT = LoggerFactory.getLogger(JSONConnector.class);
 	private static final Logger LOGGER_COMMUNICATION = LoggerFactory.getLogger(LOGGER_DEFAULT.getName() + ".MALFORMED");
@@ -49,7 +65,7 @@ public class JSONConnector implements IModelProvider {
 	/**
 	 * Reference to serializer / deserializer
 	 */
-	protected GSONTools serializer = null;
+	protected Serializer serializer = null;
 	
 	
 	/**
@@ -84,11 +100,33 @@ public class JSONConnector implements IModelProvider {
 		// Store provider backend
 		this.provider = provider;
 		
+		// Create the meta protocal handler
+		this.metaProtocolHandler = new MetaprotocolHandler(factory);
+		
 		// Create GSON serializer
 		serializer = new GSONTools(factory);
 	}
 
 	
+	/**
+	 * Constructor that accepts a specific serializer, e.g. for a binary encoding.
+	 * The serializer is used for both, parameters and results.
+	 * 
+	 * @param provider
+	 * @param serializer
+	 */
+	public JSONConnector(IBaSyxConnector provider, Serializer serializer) {
+		// Store provider backend
+		this.provider = provider;
+		
+		// Create the meta protocal handler
+		this.metaProtocolHandler = new MetaprotocolHandler(serializer);
+		
+		// Store serializer
+		this.serializer = serializer;
+	}
+
+	
 
 	@Override
 	public Object getValue(String path) throws ProviderException {
@@ -98,6 +136,13 @@ public class JSONConnector implements IModelProvider {
 		String message = provider.getValue(path);
 
 		// De-serialize and verify
+		return deserializeValue(path, message);
+	}
+
+	/**
+	 * De-serializes and verifies a message that contains a value
+	 */
+	private Object deserializeValue(String path, String message) throws ProviderException {
 		try {
 			return metaProtocolHandler.deserialize(message);
 		} catch (ProviderException e) {
@@ -165,16 +210,208 @@ public class JSONConnector implements IModelProvider {
 		VABPathTools.checkPathForNull(path);
 
 		// Serialize parameter
-		String jsonString;
+		String jsonString = serializeParameters(parameter);
+
+		String message = provider.invokeOperation(path, jsonString);
+
+		// De-serialize and verify
+		return metaProtocolHandler.deserialize(message);
+	}
+
+	private String serializeParameters(Object... parameter) {
 		if (parameter.length == 1 && parameter[0] instanceof InvocationRequest) {
-			jsonString = serializer.serialize(parameter[0]);
+			return serializer.serialize(parameter[0]);
 		} else {
-			jsonString = serializer.serialize(Arrays.asList(parameter));
+			return serializer.serialize(Arrays.asList(parameter));
 		}
+	}
 
-		String message = provider.invokeOperation(path, jsonString);
+	@Override
+	public CompletableFuture<Object> getValueAsync(String path) {
+		try {
+			VABPathTools.checkPathForNull(path);
+
+			// Get element from server and de-serialize it on arrival
+			return sendAsync(c -> c.getValueAsync(path), () -> provider.getValue(path)).thenApply(message -> deserializeValue(path, message));
+		} catch (RuntimeException e) {
+			return AsyncModelProviderAdapter.failedFuture(e);
+		}
+	}
+
+	@Override
+	public CompletableFuture<Void> setValueAsync(String path, Object newValue) {
+		try {
+			VABPathTools.checkPathForNull(path);
+
+			// Serialize value Object
+			String jsonString = serializer.serialize(newValue);
+
+			return sendAsync(c -> c.setValueAsync(path, jsonString), () -> provider.setValue(path, jsonString)).thenAccept(metaProtocolHandler::deserialize);
+		} catch (RuntimeException e) {
+			return AsyncModelProviderAdapter.failedFuture(e);
+		}
+	}
+
+	@Override
+	public CompletableFuture<Void> createValueAsync(String path, Object newEntity) {
+		try {
+			VABPathTools.checkPathForNull(path);
+
+			// Serialize value Object
+			String jsonString = serializer.serialize(newEntity);
+
+			return sendAsync(c -> c.createValueAsync(path, jsonString), () -> provider.createValue(path, jsonString)).thenAccept(metaProtocolHandler::deserialize);
+		} catch (RuntimeException e) {
+			return AsyncModelProviderAdapter.failedFuture(e);
+		}
+	}
+
+	@Override
+	public CompletableFuture<Void> deleteValueAsync(String path) {
+		try {
+			VABPathTools.checkPathForNull(path);
+
+			return sendAsync(c -> c.deleteValueAsync(path), () -> provider.deleteValue(path)).thenAccept(metaProtocolHandler::deserialize);
+		} catch (RuntimeException e) {
+			return AsyncModelProviderAdapter.failedFuture(e);
+		}
+	}
+
+	@Override
+	public CompletableFuture<Void> deleteValueAsync(String path, Object obj) {
+		try {
+			VABPathTools.checkPathForNull(path);
+
+			// Serialize parameter
+			String jsonString = serializer.serialize(obj);
+
+			return sendAsync(c -> c.deleteValueAsync(path, jsonString), () -> provider.deleteValue(path, jsonString)).thenAccept(metaProtocolHandler::deserialize);
+		} catch (RuntimeException e) {
+			return AsyncModelProviderAdapter.failedFuture(e);
+		}
+	}
+
+	@Override
+	public CompletableFuture<Object> invokeOperationAsync(String path, Object... parameter) {
+		try {
+			VABPathTools.checkPathForNull(path);
+
+			// Serialize parameter
+			String jsonString = serializeParameters(parameter);
+
+			return sendAsync(c -> c.invokeOperationAsync(path, jsonString), () -> provider.invokeOperation(path, jsonString)).thenApply(metaProtocolHandler::deserialize);
+		} catch (RuntimeException e) {
+			return AsyncModelProviderAdapter.failedFuture(e);
+		}
+	}
+
+	/**
+	 * Sends a request without blocking. Connectors that do not support this
+	 * natively are called by the threads of the
+	 * {@link AsyncModelProviderAdapter#getDefaultExecutor() default executor}.
+	 * 
+	 * @param asyncRequest
+	 *            request via an asynchronous connector
+	 * @param syncRequest
+	 *            request via a synchronous connector
+	 * @return future that completes with the response message
+	 */
+	private CompletableFuture<String> sendAsync(Function<IBaSyxAsyncConnector, CompletableFuture<String>> asyncRequest, Supplier<String> syncRequest) {
+		if (provider instanceof IBaSyxAsyncConnector) {
+			return asyncRequest.apply((IBaSyxAsyncConnector) provider);
+		}
+		return CompletableFuture.supplyAsync(syncRequest, AsyncModelProviderAdapter.getDefaultExecutor());
+	}
+
+	/**
+	 * Transfers the batch in one round trip, if the connector supports batches.
+	 * Otherwise, the entries are sent one by one.
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public List<BatchResult> processBatch(List<BatchEntry> entries) throws ProviderException {
+		if (!(provider instanceof IBaSyxBatchConnector)) {
+			return IAsyncModelProvider.super.processBatch(entries);
+		}
+
+		for (BatchEntry entry : entries) {
+			VABPathTools.checkPathForNull(entry.getPath());
+		}
+
+		// Serialize entries
+		String jsonString = serializer.serialize(entries);
+
+		String message = ((IBaSyxBatchConnector) provider).processBatch(jsonString);
 
 		// De-serialize and verify
-		return metaProtocolHandler.deserialize(message);
+		Object results = metaProtocolHandler.deserialize(message);
+		if (!(results instanceof Collection<?>) || ((Collection<?>) results).size() != entries.size()) {
+			throw new ProviderException("Invalid batch response from '" + provider.getEndpointRepresentation("") + "'");
+		}
+
+		List<BatchResult> ret = new ArrayList<>(entries.size());
+		for (Object result : (Collection<Object>) results) {
+			ret.add(BatchResult.createAsFacade((Map<String, Object>) result));
+		}
+		return ret;
+	}
+
+	/**
+	 * Streams the events of a path, if the connector supports events
+	 */
+	@Override
+	public IPublisher<Object> getEventPublisher(String path) throws ProviderException {
+		if (!(provider instanceof IBaSyxEventConnector)) {
+			return IAsyncModelProvider.super.getEventPublisher(path);
+		}
+
+		VABPathTools.checkPathForNull(path);
+
+		// Events are serialized values without meta protocol
+		return ((IBaSyxEventConnector) provider).subscribe(path).map(serializer::deserialize);
+	}
+
+	/**
+	 * Reads the version of an element, if the connector supports versions
+	 */
+	@Override
+	public long getVersion(String path) throws ProviderException {
+		if (!(provider instanceof IBaSyxVersionConnector)) {
+			return IAsyncModelProvider.super.getVersion(path);
+		}
+
+		VABPathTools.checkPathForNull(path);
+
+		String message = ((IBaSyxVersionConnector) provider).getVersion(path);
+
+		// De-serialize and verify
+		return toVersion(path, deserializeValue(path, message));
+	}
+
+	/**
+	 * Sets a value conditionally, if the connector supports versions
+	 */
+	@Override
+	public long compareAndSet(String path, long expectedVersion, Object newValue) throws ProviderException {
+		if (!(provider instanceof IBaSyxVersionConnector)) {
+			return IAsyncModelProvider.super.compareAndSet(path, expectedVersion, newValue);
+		}
+
+		VABPathTools.checkPathForNull(path);
+
+		// Serialize value Object
+		String jsonString = serializer.serialize(newValue);
+
+		String message = ((IBaSyxVersionConnector) provider).compareAndSet(path, expectedVersion, jsonString);
+
+		// De-serialize and verify
+		return toVersion(path, deserializeValue(path, message));
+	}
+
+	private long toVersion(String path, Object version) throws ProviderException {
+		if (!(version instanceof Number)) {
+			throw new ProviderException("Invalid version '" + version + "' from '" + provider.getEndpointRepresentation(path) + "'");
+		}
+		return ((Number) version).longValue();
 	}
 }
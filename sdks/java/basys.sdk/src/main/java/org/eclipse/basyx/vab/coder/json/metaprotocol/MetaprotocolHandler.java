@@ -15,6 +15,7 @@ import java.util.Map;
 import org.eclipse.basyx.vab.coder.json.serialization.DefaultTypeFactory;
 import org.eclipse.basyx.vab.coder.json.serialization.GSONTools;
 import org.eclipse.basyx.vab.coder.json.serialization.GSONToolsFactory;
+import org.eclipse.basyx.vab.coder.json.serialization.Serializer;
 import org.eclipse.basyx.vab.exception.provider.ProviderException;
 import org.eclipse.basyx.vab.protocol.http.server.ExceptionToHTTPCodeMapper;
 
@@ -22,7 +23,7 @@ public class MetaprotocolHandler implements IMetaProtocolHandler {
 	/**
 	 * Reference to serializer / deserializer
 	 */
-	protected GSONTools serializer = null;
+	protected Serializer serializer = null;
 	
 	/**
 	 * Constructor that create the serializer
@@ -42,6 +43,14 @@ public class MetaprotocolHandler implements IMetaProtocolHandler {
 		serializer = new GSONTools(factory);
 	}
 	
+	/**
+	 * Constructor that accepts a specific serializer
+	 * @param serializer
+	 */
+	public MetaprotocolHandler(Serializer serializer) {
+		this.serializer = serializer;
+	}
+	
 	
 	@Override
 	@SuppressWarnings("unchecked")
@@ -9,19 +9,28 @@
  ******************************************************************************/
 package org.eclipse.basyx.vab.coder.json.provider;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 
 import org.eclipse.basyx.vab.coder.json.metaprotocol.Result;
 import org.eclipse.basyx.vab.coder.json.serialization.DefaultTypeFactory;
 import org.eclipse.basyx.vab.coder.json.serialization.GSONTools;
 import org.eclipse.basyx.vab.coder.json.serialization.GSONToolsFactory;
+import org.eclipse.basyx.vab.coder.json.serialization.StreamingSerializer;
 import org.eclipse.basyx.vab.exception.LostHTTPRequestParameterException;
 import org.eclipse.basyx.vab.exception.provider.MalformedRequestException;
 import org.eclipse.basyx.vab.exception.provider.ProviderException;
+import org.eclipse.basyx.vab.modelprovider.VABPathTools;
 import org.eclipse.basyx.vab.modelprovider.api.IModelProvider;
+import org.eclipse.basyx.vab.modelprovider.batch.BatchEntry;
+import org.eclipse.basyx.vab.modelprovider.batch.BatchResult;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -29,7 +38,12 @@ import org.slf4j.LoggerFactory;
 
 /**
  * Provider class that supports JSON serialized communication <br/>
- * Generic Caller is required since messages can be technology specific.
+ * Generic Caller is required since messages can be technology specific.<br/>
+ * <br/>
+ * Values and operation results are serialized directly to the output stream
+ * once they exceed {@link #RESPONSE_BUFFER_SIZE}. If serializing them fails
+ * afterwards, no exception is appended to the partial output. Instead, a
+ * ProviderException is thrown, so that the caller can abort the response.
  * 
  * 
  * @author pschorn, schnicke, kuhn
@@ -39,6 +53,13 @@ public class JSONProvider<ModelProvider extends IModelProvider> {
 	
 	private static Logger logger = LoggerFactory.getLogger(JSONProvider.class);
 
+	/**
+	 * Size of serialized values that are buffered before they are written to the
+	 * output stream. Failures of smaller values are sent as serialized
+	 * exceptions instead of the partial value.
+	 */
+	public static final int RESPONSE_BUFFER_SIZE = 64 * 1024;
+
 	
 	/**
 	 * Reference to IModelProvider backend
@@ -49,7 +70,7 @@ public class JSONProvider<ModelProvider extends IModelProvider> {
 	/**
 	 * Reference to serializer / deserializer
 	 */
-	protected GSONTools serializer = null;
+	protected StreamingSerializer serializer = null;
 	
 
 	
@@ -75,12 +96,41 @@ public class JSONProvider<ModelProvider extends IModelProvider> {
 		// Create GSON serializer
 		serializer = new GSONTools(factory);
 	}
+
+
+	/**
+	 * Constructor that accepts a specific serializer, e.g. for a binary encoding
+	 */
+	public JSONProvider(ModelProvider modelProviderBackend, StreamingSerializer serializer) {
+		// Store reference to backend
+		providerBackend = modelProviderBackend;
+
+		// Store serializer
+		this.serializer = serializer;
+	}
 	
 	
 	/**
 	 * Get serializer reference
+	 * 
+	 * @deprecated providers may use other serializers than GSONTools, use
+	 *             {@link #getStreamingSerializer()} instead
+	 * @throws IllegalStateException
+	 *             if the provider does not use GSONTools
 	 */
+	@Deprecated
 	public GSONTools getSerializerReference() {
+		if (!(serializer instanceof GSONTools)) {
+			throw new IllegalStateException("Provider uses " + serializer.getClass().getSimpleName() + " instead of GSONTools");
+		}
+		return (GSONTools) serializer;
+	}
+
+
+	/**
+	 * Get serializer reference, e.g. GSONTools or a binary serializer
+	 */
+	public StreamingSerializer getStreamingSerializer() {
 		return serializer;
 	}
 	
@@ -95,25 +145,15 @@ public class JSONProvider<ModelProvider extends IModelProvider> {
 	/**
 	 * Marks success as false and delivers exception cause messages 
 	 * @param e
-	 * @return
+	 * @param outputStream
+	 * @throws IOException
 	 */
-	private String serialize(Exception e) {
+	private void serialize(Exception e, OutputStream outputStream) throws IOException {
 		// Create Ack
 		Result result = new Result(e);
 		
 		// Serialize the whole thing
-		return serialize(result);
-	}
-	
-	
-	/**
-	 * Serialize IResult (HashMap)
-	 * @param string
-	 * @return
-	 */
-	private String serialize(Result string) {
-		// Serialize the whole thing
-		return serializer.serialize(string);
+		serializer.serialize(result, outputStream);
 	}
 	
 
@@ -124,11 +164,17 @@ public class JSONProvider<ModelProvider extends IModelProvider> {
 	 * @param resp
 	 */
 	private void sendException(OutputStream resp, Exception e) throws ProviderException {
-		
+		// Parts of the value have already been sent, thus the exception can not be sent anymore
+		if (e instanceof IncompleteResponseException) {
+			// Always created with an exception as cause
+			Exception cause = (Exception) e.getCause();
+			logger.warn("Failed to serialize the response completely", cause);
+			throw cause instanceof ProviderException ? (ProviderException) cause : new ProviderException(cause);
+		}
+
 		// Serialize Exception
-		String jsonString = serialize(e);
 		try {
-			resp.write(jsonString.getBytes(StandardCharsets.UTF_8));
+			serialize(e, resp);
 		} catch(IOException innerE) {
 			throw new ProviderException("Failed to send Exception '" + e.getMessage() + "' to client", innerE);
 		}
@@ -169,6 +215,24 @@ public class JSONProvider<ModelProvider extends IModelProvider> {
 		
 		return result;
 	}
+
+	/**
+	 * Extracts parameter from a JSON stream and handles de-serialization errors
+	 * 
+	 * @param path
+	 * @param serializedJSONValue
+	 * @return
+	 * @throws MalformedRequestException
+	 */
+	private Object extractParameter(String path, InputStream serializedJSONValue) throws MalformedRequestException {
+		try {
+			// Deserialize json body while reading it
+			return serializer.deserialize(serializedJSONValue);
+		} catch (Exception e) {
+			//JSON could not be deserialized
+			throw new MalformedRequestException(e);
+		}
+	}
 	
 
 	/**
@@ -178,19 +242,41 @@ public class JSONProvider<ModelProvider extends IModelProvider> {
 	public void processBaSysGet(String path, OutputStream outputStream) throws ProviderException {
 
 		try {
-			// Get requested value from provider backend
-			Object value = providerBackend.getValue(path);
+			// Get requested value from provider backend. It is only serialized, thus
+			// a view is sufficient
+			Object value = providerBackend.getValueView(path);
 
-			// Serialize as json string - any messages?
-			String jsonString = serializer.serialize(value);
-
-			// Send response
-			outputStream.write(jsonString.getBytes(StandardCharsets.UTF_8));
+			serializeResponse(value, outputStream);
 		} catch (Exception e) {
 			sendException(outputStream, e);
 		}
 	}
 
+	/**
+	 * Serializes a value to the response stream. Values exceeding
+	 * {@link #RESPONSE_BUFFER_SIZE} are written while they are serialized.
+	 * 
+	 * @param value
+	 * @param outputStream
+	 * @throws IncompleteResponseException
+	 *             if serializing fails after parts of the value have been
+	 *             written
+	 * @throws Exception
+	 *             if serializing fails before anything has been written
+	 */
+	private void serializeResponse(Object value, OutputStream outputStream) throws Exception {
+		ResponseBuffer buffer = new ResponseBuffer(outputStream);
+		try {
+			serializer.serialize(value, buffer);
+		} catch (Exception e) {
+			if (buffer.isWritten()) {
+				throw new IncompleteResponseException(e);
+			}
+			throw e;
+		}
+		buffer.finish();
+	}
+
 	
 	/**
 	 * Process a BaSys set operation
@@ -208,15 +294,80 @@ public class JSONProvider<ModelProvider extends IModelProvider> {
 			// Deserialize json body. If parameter is not ex
 			Object parameter = extractParameter(path, serializedJSONValue, outputStream);
 
-			// Set the value of the element
-			providerBackend.setValue(path, parameter);
+			setValue(path, parameter, outputStream);
+		} catch (Exception e) {
+			sendException(outputStream, e);
+		}
+	}
+
+	/**
+	 * Process a BaSys set operation with a parameter that is deserialized while
+	 * it is read from the given stream
+	 * 
+	 * @param path
+	 * @param serializedJSONValue
+	 * @param outputStream
+	 * @throws ProviderException
+	 */
+	public void processBaSysSet(String path, InputStream serializedJSONValue, OutputStream outputStream) throws ProviderException {
+		try {
+			Object parameter = extractParameter(path, serializedJSONValue);
+
+			setValue(path, parameter, outputStream);
+		} catch (Exception e) {
+			sendException(outputStream, e);
+		}
+	}
+
+	private void setValue(String path, Object parameter, OutputStream outputStream) throws Exception {
+		// Set the value of the element
+		providerBackend.setValue(path, parameter);
+
+		// Send response
+		outputStream.write("".getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Process a request for the version of an element, see
+	 * {@link IModelProvider#getVersion(String)}, return JSON serialized version
+	 * 
+	 * @param path
+	 * @param outputStream
+	 * @throws ProviderException
+	 */
+	public void processBaSysGetVersion(String path, OutputStream outputStream) throws ProviderException {
+		try {
+			serializer.serialize(providerBackend.getVersion(path), outputStream);
+		} catch (Exception e) {
+			sendException(outputStream, e);
+		}
+	}
+
+	/**
+	 * Process a BaSys set operation, which is only performed if the element has
+	 * the expected version, see
+	 * {@link IModelProvider#compareAndSet(String, long, Object)}. Returns the
+	 * JSON serialized new version.
+	 * 
+	 * @param path
+	 * @param expectedVersion
+	 * @param serializedJSONValue
+	 * @param outputStream
+	 * @return the new version
+	 * @throws ProviderException
+	 */
+	public long processBaSysCompareAndSet(String path, long expectedVersion, InputStream serializedJSONValue, OutputStream outputStream) throws ProviderException {
+		long version = 0;
+		try {
+			Object parameter = extractParameter(path, serializedJSONValue);
 
-			// Send response
-			outputStream.write("".getBytes(StandardCharsets.UTF_8));
+			version = providerBackend.compareAndSet(path, expectedVersion, parameter);
 
+			serializer.serialize(version, outputStream);
 		} catch (Exception e) {
 			sendException(outputStream, e);
 		}
+		return version;
 	}
 
 	
@@ -224,47 +375,65 @@ public class JSONProvider<ModelProvider extends IModelProvider> {
 	 * Process a BaSys invoke operation
 	 * @throws ProviderException 
 	 */
-	@SuppressWarnings("unchecked")
 	public void processBaSysInvoke(String path, String serializedJSONValue, OutputStream outputStream) throws ProviderException {
 
 		try {
 			
 			// Deserialize json body. 
 			Object parameter = extractParameter(path, serializedJSONValue, outputStream);
-			
-			// If only a single parameter has been sent, pack it into an array so it can be
-			// casted safely
-			if (parameter instanceof Collection<?>) {
-				Collection<Object> list = (Collection<Object>) parameter;
-				Object[] parameterArray = new Object[list.size()];
-				int i = 0;
-				for (Object o : list) {
-					parameterArray[i] = o;
-					i++;
-				}
-				parameter = parameterArray;
-			}
-			
-			if (!(parameter instanceof Object[])) {
-				Object[] parameterArray = new Object[1];
-				Object tmp = parameter;
-				parameterArray[0] = tmp;
-				parameter = parameterArray;
-			}
 
-			Object result = providerBackend.invokeOperation(path, (Object[]) parameter);
+			invokeOperation(path, parameter, outputStream);
+		} catch (Exception e) {
+			sendException(outputStream, e);
+		}
+	}
 
-			// Serialize result as json string
-			String jsonString = serializer.serialize(result);
-			
-			// Send response
-			outputStream.write(jsonString.getBytes(StandardCharsets.UTF_8));
+	/**
+	 * Process a BaSys invoke operation with a parameter that is deserialized while
+	 * it is read from the given stream
+	 * 
+	 * @param path
+	 * @param serializedJSONValue
+	 * @param outputStream
+	 * @throws ProviderException
+	 */
+	public void processBaSysInvoke(String path, InputStream serializedJSONValue, OutputStream outputStream) throws ProviderException {
+		try {
+			Object parameter = extractParameter(path, serializedJSONValue);
 
+			invokeOperation(path, parameter, outputStream);
 		} catch (Exception e) {
 			sendException(outputStream, e);
 		}
 	}
 
+	@SuppressWarnings("unchecked")
+	private void invokeOperation(String path, Object parameter, OutputStream outputStream) throws Exception {
+		// If only a single parameter has been sent, pack it into an array so it can be
+		// casted safely
+		if (parameter instanceof Collection<?>) {
+			Collection<Object> list = (Collection<Object>) parameter;
+			Object[] parameterArray = new Object[list.size()];
+			int i = 0;
+			for (Object o : list) {
+				parameterArray[i] = o;
+				i++;
+			}
+			parameter = parameterArray;
+		}
+		
+		if (!(parameter instanceof Object[])) {
+			Object[] parameterArray = new Object[1];
+			Object tmp = parameter;
+			parameterArray[0] = tmp;
+			parameter = parameterArray;
+		}
+
+		Object result = providerBackend.invokeOperation(path, (Object[]) parameter);
+
+		serializeResponse(result, outputStream);
+	}
+
 	
 	/**
 	 * Implement "Delete" operation. Deletes any resource under the given path.
@@ -280,22 +449,45 @@ public class JSONProvider<ModelProvider extends IModelProvider> {
 
 			// Deserialize json body. If parameter is not ex
 			Object parameter = extractParameter(path, serializedJSONValue, outputStream);
-			
-			// Process delete request with or without argument
-			if (parameter == null) {
-				this.providerBackend.deleteValue(path);
-			} else {
-				this.providerBackend.deleteValue(path, parameter);
-			}
 
-			// Send response
-			outputStream.write("".getBytes(StandardCharsets.UTF_8));
+			deleteValue(path, parameter, outputStream);
+		} catch (Exception e) {
+			sendException(outputStream, e);
+		}
+	}
+
+	/**
+	 * Implement "Delete" operation with a parameter that is deserialized while it
+	 * is read from the given stream. An empty stream deletes any resource under
+	 * the given path.
+	 * 
+	 * @param path
+	 * @param serializedJSONValue
+	 * @param outputStream
+	 * @throws ProviderException
+	 */
+	public void processBaSysDelete(String path, InputStream serializedJSONValue, OutputStream outputStream) throws ProviderException {
+		try {
+			Object parameter = extractParameter(path, serializedJSONValue);
 
+			deleteValue(path, parameter, outputStream);
 		} catch (Exception e) {
 			sendException(outputStream, e);
 		}
 	}
 
+	private void deleteValue(String path, Object parameter, OutputStream outputStream) throws Exception {
+		// Process delete request with or without argument
+		if (parameter == null) {
+			this.providerBackend.deleteValue(path);
+		} else {
+			this.providerBackend.deleteValue(path, parameter);
+		}
+
+		// Send response
+		outputStream.write("".getBytes(StandardCharsets.UTF_8));
+	}
+
 	
 	/**
 	 * Creates a resource under the given path
@@ -310,14 +502,148 @@ public class JSONProvider<ModelProvider extends IModelProvider> {
 		try {
 			// Deserialize json body. 
 			Object parameter = extractParameter(path, serializedJSONValue, outputStream);
-						
 
-			providerBackend.createValue(path, parameter);
+			createValue(path, parameter, outputStream);
+		} catch (Exception e) {
+			sendException(outputStream, e);
+		}
+	}
+
+	/**
+	 * Creates a resource under the given path with a parameter that is
+	 * deserialized while it is read from the given stream
+	 * 
+	 * @param path
+	 * @param serializedJSONValue
+	 * @param outputStream
+	 * @throws ProviderException
+	 */
+	public void processBaSysCreate(String path, InputStream serializedJSONValue, OutputStream outputStream) throws ProviderException {
+		try {
+			Object parameter = extractParameter(path, serializedJSONValue);
+
+			createValue(path, parameter, outputStream);
+		} catch (Exception e) {
+			sendException(outputStream, e);
+		}
+	}
+
+	/**
+	 * Processes a batch of BaSys operations, see
+	 * {@link IModelProvider#processBatch(List)}. The entries are deserialized
+	 * while they are read from the given stream. Errors of single entries are
+	 * part of the serialized results.
+	 * 
+	 * @param path
+	 *            base path of the entries
+	 * @param serializedEntries
+	 * @param outputStream
+	 * @return the processed entries with absolute paths
+	 * @throws ProviderException
+	 *             if the batch itself is malformed
+	 */
+	public List<BatchEntry> processBaSysBatch(String path, InputStream serializedEntries, OutputStream outputStream) throws ProviderException {
+		List<BatchEntry> entries = new ArrayList<>();
+		try {
+			for (BatchEntry entry : extractBatchEntries(extractParameter(path, serializedEntries))) {
+				entries.add(VABPathTools.isEmptyPath(path) ? entry : entry.withPath(VABPathTools.concatenatePaths(path, entry.getPath())));
+			}
+
+			List<BatchResult> results = providerBackend.processBatch(entries);
 
-			// Send response
-			outputStream.write("".getBytes(StandardCharsets.UTF_8));
+			serializeResponse(results, outputStream);
 		} catch (Exception e) {
 			sendException(outputStream, e);
 		}
+		return entries;
+	}
+
+	@SuppressWarnings("unchecked")
+	private List<BatchEntry> extractBatchEntries(Object parameter) throws MalformedRequestException {
+		if (!(parameter instanceof Collection<?>)) {
+			throw new MalformedRequestException("A batch has to be a list of entries");
+		}
+
+		List<BatchEntry> entries = new ArrayList<>();
+		for (Object entry : (Collection<Object>) parameter) {
+			if (!(entry instanceof Map<?, ?>)) {
+				throw new MalformedRequestException("Invalid batch entry " + entry);
+			}
+			entries.add(BatchEntry.createAsFacade((Map<String, Object>) entry));
+		}
+		return entries;
+	}
+
+	private void createValue(String path, Object parameter, OutputStream outputStream) throws Exception {
+		providerBackend.createValue(path, parameter);
+
+		// Send response
+		outputStream.write("".getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Buffers the serialized response up to {@link #RESPONSE_BUFFER_SIZE}, so
+	 * that smaller responses are not written partially if serializing them fails
+	 */
+	private static class ResponseBuffer extends OutputStream {
+		private final OutputStream target;
+		private ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+		private boolean written = false;
+
+		private ResponseBuffer(OutputStream target) {
+			this.target = target;
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			write(new byte[] { (byte) b }, 0, 1);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			if (!written && buffer.size() + len > RESPONSE_BUFFER_SIZE) {
+				written = true;
+				buffer.writeTo(target);
+				buffer = null;
+			}
+			if (written) {
+				target.write(b, off, len);
+			} else {
+				buffer.write(b, off, len);
+			}
+		}
+
+		// Flushing the target before the response is complete would commit it
+		@Override
+		public void flush() throws IOException {
+			if (written) {
+				target.flush();
+			}
+		}
+
+		private boolean isWritten() {
+			return written;
+		}
+
+		/**
+		 * Writes the buffered response after it has been serialized completely
+		 */
+		private void finish() throws IOException {
+			if (!written) {
+				buffer.writeTo(target);
+			}
+		}
+	}
+
+	/**
+	 * Signals that serializing failed after parts of the response have been
+	 * written
+	 */
+	private static class IncompleteResponseException extends Exception {
+		private static final long serialVersionUID = 1L;
+
+		private IncompleteResponseException(Exception cause) {
+			super(cause);
+		}
 	}
 }
@@ -11,12 +11,19 @@ package org.eclipse.basyx.vab.coder.json.serialization;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
 import java.io.Serializable;
+import java.io.Writer;
 import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
 import java.util.Base64;
 import java.util.Collection;
 import java.util.Map;
@@ -36,6 +43,10 @@ import com.google.gson.JsonNull;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 import com.google.gson.JsonPrimitive;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
 
 /**
  * Provides means for (de-)serialization of Primitives (int, double, string,
@@ -50,7 +61,7 @@ import com.google.gson.JsonPrimitive;
  * @author rajashek, schnicke
  *
  */
-public class GSONTools implements Serializer {
+public class GSONTools implements StreamingSerializer {
 	
 	private static Logger logger = LoggerFactory.getLogger(GSONTools.class);
 	
@@ -112,6 +123,45 @@ public class GSONTools implements Serializer {
 		return deserializeJsonElement(elem);
 	}
 
+	/**
+	 * Deserializes an object directly from the given stream. The object graph is
+	 * built in a single pass while reading, without an intermediate String or
+	 * JsonElement tree. The result is identical to {@link #deserialize(String)}.
+	 */
+	@Override
+	public Object deserialize(InputStream inputStream) throws IOException {
+		Reader reader = new InputStreamReader(inputStream, StandardCharsets.UTF_8);
+		return deserialize(reader);
+	}
+
+	/**
+	 * Deserializes an object directly from the given reader. The reader is not
+	 * closed.
+	 */
+	public Object deserialize(Reader reader) throws IOException {
+		JsonReader jsonReader = new JsonReader(reader);
+		// Same leniency as JsonParser#parse
+		jsonReader.setLenient(true);
+
+		boolean isEmpty = true;
+		try {
+			jsonReader.peek();
+			isEmpty = false;
+
+			Object result = readObject(jsonReader);
+			if (result != null && jsonReader.peek() != JsonToken.END_DOCUMENT) {
+				throw new JsonSyntaxException("Did not consume the entire document.");
+			}
+			return result;
+		} catch (EOFException e) {
+			// An empty document is deserialized to null
+			if (isEmpty) {
+				return null;
+			}
+			throw new JsonSyntaxException(e);
+		}
+	}
+
 	@Override
 	public String serialize(Object obj) {
 		JsonElement elem = serializeObject(obj);
@@ -125,6 +175,128 @@ public class GSONTools implements Serializer {
 		}
 	}
 
+	/**
+	 * Serializes an object directly to the given stream. The produced bytes are
+	 * identical to the UTF-8 encoding of {@link #serialize(Object)}, but neither
+	 * an intermediate JsonElement tree nor a String is created.
+	 */
+	@Override
+	public void serialize(Object obj, OutputStream outputStream) throws IOException {
+		Writer writer = new OutputStreamWriter(outputStream, StandardCharsets.UTF_8);
+		serialize(obj, writer);
+	}
+
+	/**
+	 * Serializes an object directly to the given writer. The writer is flushed,
+	 * but not closed.
+	 */
+	public void serialize(Object obj, Writer writer) throws IOException {
+		JsonWriter jsonWriter = new JsonWriter(writer);
+		// Mirror the writer settings used by Gson#toJson(JsonElement) and
+		// JsonElement#toString() respectively
+		jsonWriter.setLenient(true);
+		jsonWriter.setHtmlSafe(removeNull);
+		jsonWriter.setSerializeNulls(!removeNull);
+		writeObject(obj, jsonWriter);
+		jsonWriter.flush();
+	}
+
+	/**
+	 * Writes an arbitrary object to a JsonWriter
+	 * 
+	 * @param obj
+	 * @param out
+	 * @throws IOException
+	 */
+	@SuppressWarnings("unchecked")
+	private void writeObject(Object obj, JsonWriter out) throws IOException {
+		if (obj == null) {
+			out.nullValue();
+		} else if (obj.getClass().isPrimitive() || isWrapperType(obj.getClass()) || obj instanceof String || obj instanceof Number) {
+			writePrimitive(obj, out);
+		} else if (obj instanceof Map<?, ?>) {
+			writeMap((Map<String, Object>) obj, out);
+		} else if (obj instanceof Collection<?>) {
+			writeCollection((Collection<Object>) obj, out);
+		} else if (isFunction(obj)) {
+			writeFunction(obj, out);
+		} else {
+			throw new RuntimeException("Unknown element!");
+		}
+	}
+
+	/**
+	 * Writes either string, number or boolean to a JsonWriter
+	 * 
+	 * @param primitive
+	 * @param out
+	 * @throws IOException
+	 */
+	private void writePrimitive(Object primitive, JsonWriter out) throws IOException {
+		if (primitive instanceof Number) {
+			out.value((Number) primitive);
+		} else if (primitive instanceof Boolean) {
+			out.value((Boolean) primitive);
+		} else {
+			out.value((String) primitive);
+		}
+	}
+
+	/**
+	 * Writes a Map as JSON object to a JsonWriter
+	 * 
+	 * @param map
+	 * @param out
+	 * @throws IOException
+	 */
+	private void writeMap(Map<String, Object> map, JsonWriter out) throws IOException {
+		out.beginObject();
+		for (Entry<String, Object> entry : map.entrySet()) {
+			Object value = entry.getValue();
+			// Remove empty list if removeEmpty flag is on
+			if (!removeEmpty || !(value instanceof Collection<?> && ((Collection<?>) value).isEmpty())) {
+				out.name(entry.getKey());
+				writeObject(value, out);
+			}
+		}
+		out.endObject();
+	}
+
+	/**
+	 * Writes a Collection as JSON array to a JsonWriter
+	 * 
+	 * @param collection
+	 * @param out
+	 * @throws IOException
+	 */
+	private void writeCollection(Collection<Object> collection, JsonWriter out) throws IOException {
+		out.beginArray();
+		for (Object o : collection) {
+			writeObject(o, out);
+		}
+		out.endArray();
+	}
+
+	/**
+	 * Writes a function marker to a JsonWriter
+	 * 
+	 * @param function
+	 * @param out
+	 * @throws IOException
+	 */
+	private void writeFunction(Object function, JsonWriter out) throws IOException {
+		out.beginObject();
+		out.name(BASYXFUNCTIONTYPE);
+		if (function instanceof Serializable) {
+			out.value(LAMBDA);
+			out.name(BASYXFUNCTIONVALUE);
+			out.value(serializeObjectToString((Serializable) function));
+		} else {
+			out.value(OPERATION);
+		}
+		out.endObject();
+	}
+
 	/**
 	 * Serialized an arbitrary object to a JsonElement
 	 * 
@@ -164,6 +336,82 @@ public class GSONTools implements Serializer {
 		return null;
 	}
 
+	/**
+	 * Reads the next value of a JsonReader to an object
+	 * 
+	 * @param in
+	 * @return
+	 * @throws IOException
+	 */
+	private Object readObject(JsonReader in) throws IOException {
+		switch (in.peek()) {
+		case BEGIN_OBJECT:
+			return readJsonObject(in);
+		case BEGIN_ARRAY:
+			return readJsonArray(in);
+		case NUMBER:
+			return decodeNumber(in.nextString());
+		case BOOLEAN:
+			return in.nextBoolean();
+		case STRING:
+			return in.nextString();
+		case NULL:
+			in.nextNull();
+			return null;
+		default:
+			throw new JsonSyntaxException("Unexpected token " + in.peek() + " at " + in.getPath());
+		}
+	}
+
+	/**
+	 * Reads a JSON object from a JsonReader to either a map, an operation or an
+	 * arbitrary serializable object
+	 * 
+	 * @param in
+	 * @return
+	 * @throws IOException
+	 */
+	private Object readJsonObject(JsonReader in) throws IOException {
+		Map<String, Object> map = toolsFactory.createMap();
+		in.beginObject();
+		while (in.hasNext()) {
+			String key = in.nextName();
+			map.put(key, readObject(in));
+		}
+		in.endObject();
+
+		// Function markers can only be detected after the object has been read
+		if (map.containsKey(BASYXFUNCTIONTYPE)) {
+			Object functionType = map.get(BASYXFUNCTIONTYPE);
+			if (OPERATION.equals(functionType)) {
+				return BASYXINVOCABLE;
+			} else if (LAMBDA.equals(functionType)) {
+				return deserializeObjectFromString((String) map.get(BASYXFUNCTIONVALUE));
+			} else {
+				throw new RuntimeException("Unknown function type " + functionType + "!");
+			}
+		}
+		return map;
+	}
+
+	/**
+	 * Reads a JSON array from a JsonReader to a Collection. The ordering is
+	 * preserved, see {@link #deserializeJsonArray(JsonArray)}
+	 * 
+	 * @param in
+	 * @return
+	 * @throws IOException
+	 */
+	private Collection<Object> readJsonArray(JsonReader in) throws IOException {
+		Collection<Object> list = toolsFactory.createCollection();
+		in.beginArray();
+		while (in.hasNext()) {
+			list.add(readObject(in));
+		}
+		in.endArray();
+		return list;
+	}
+
 	/**
 	 * Indicates if a class is a wrapper type, e.g. <i>Integer</i> for <i>int</i>
 	 * 
@@ -183,23 +431,7 @@ public class GSONTools implements Serializer {
 	 */
 	private Object deserializeJsonPrimitive(JsonPrimitive primitive) {
 		if (primitive.isNumber()) {
-			if (primitive.getAsString().contains(".")) {
-				return primitive.getAsDouble();
-			} else {
-				// Get value as Big integer
-				BigInteger tmp= primitive.getAsBigInteger();
-				if (BigInteger.valueOf(Integer.MAX_VALUE).compareTo(tmp) >= 0 && BigInteger.valueOf(Integer.MIN_VALUE).compareTo(tmp) <= 0) {
-					// convert to int
-					return primitive.getAsInt();
-				} else if (BigInteger.valueOf(Long.MAX_VALUE).compareTo(tmp) >= 0 && BigInteger.valueOf(Long.MIN_VALUE).compareTo(tmp) <= 0) {
-					// convert to long
-					return primitive.getAsLong();
-				} else {
-					// for types NonNegativeInteger, NonPositiveInteger, NegativeInteger,
-					// PositiveInteger
-					return tmp;
-				}
-			}
+			return decodeNumber(primitive.getAsString());
 		} else if (primitive.isBoolean()) {
 			return primitive.getAsBoolean();
 		} else {
@@ -207,6 +439,85 @@ public class GSONTools implements Serializer {
 		}
 	}
 
+	/**
+	 * Maximum number of digits that are guaranteed to fit into a long
+	 */
+	private static final int MAX_LONG_DIGITS = 18;
+
+	/**
+	 * Decodes a JSON number literal to either int, long, BigInteger or double.
+	 * Literals with a fraction or exponent are decoded to double. Integer literals
+	 * are decoded to the smallest fitting type of int, long and BigInteger.<br/>
+	 * Integers of up to 18 digits are parsed directly without creating
+	 * intermediate objects.
+	 * 
+	 * @param literal
+	 * @return
+	 */
+	private static Object decodeNumber(String literal) {
+		int length = literal.length();
+		int start = (length > 0 && literal.charAt(0) == '-') ? 1 : 0;
+		if (length - start > MAX_LONG_DIGITS) {
+			if (!isIntegerLiteral(literal, start)) {
+				return Double.parseDouble(literal);
+			}
+			return decodeBigInteger(literal);
+		}
+
+		long value = 0;
+		for (int i = start; i < length; i++) {
+			char c = literal.charAt(i);
+			if (c < '0' || c > '9') {
+				// Fraction or exponent
+				return Double.parseDouble(literal);
+			}
+			value = value * 10 + (c - '0');
+		}
+		if (start == 1) {
+			value = -value;
+		}
+
+		if (value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE) {
+			// convert to int
+			return (int) value;
+		} else {
+			// convert to long
+			return value;
+		}
+	}
+
+	/**
+	 * Checks if a number literal consists of digits only, starting at the given
+	 * index
+	 */
+	private static boolean isIntegerLiteral(String literal, int start) {
+		for (int i = start; i < literal.length(); i++) {
+			char c = literal.charAt(i);
+			if (c < '0' || c > '9') {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Decodes an integer literal that possibly does not fit into a long
+	 */
+	private static Object decodeBigInteger(String literal) {
+		BigInteger tmp = new BigInteger(literal);
+		if (tmp.bitLength() <= 31) {
+			// convert to int
+			return tmp.intValue();
+		} else if (tmp.bitLength() <= 63) {
+			// convert to long
+			return tmp.longValue();
+		} else {
+			// for types NonNegativeInteger, NonPositiveInteger, NegativeInteger,
+			// PositiveInteger
+			return tmp;
+		}
+	}
+
 
 	/**
 	 * Serializes either string, number or boolean to a JsonPrimitive
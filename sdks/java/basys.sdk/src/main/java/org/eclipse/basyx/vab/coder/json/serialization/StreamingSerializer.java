@@ -0,0 +1,37 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.basyx.vab.coder.json.serialization;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * A BaSys serializer that is able to write its result directly to a stream and
+ * to read values directly from a stream without materializing the serialized
+ * form in memory first
+ * 
+ * @author schnicke
+ *
+ */
+public interface StreamingSerializer extends Serializer {
+	/**
+	 * Serialize a primitive or complex value and write it to the given output
+	 * stream. Text based serializers write UTF-8. The stream is flushed, but not
+	 * closed.
+	 */
+	public void serialize(Object value, OutputStream outputStream) throws IOException;
+
+	/**
+	 * Deserialize a primitive or complex value from the content of the given
+	 * input stream. Text based serializers read UTF-8. The stream is not closed.
+	 */
+	public Object deserialize(InputStream inputStream) throws IOException;
+}
@@ -0,0 +1,38 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.basyx.vab.exception.provider;
+
+/**
+ * Used to indicate by a ModelProvider, that a well-formed request uses a
+ * functionality it does not implement, e.g. versions of elements
+ * 
+ * @author schnicke
+ *
+ */
+public class NotSupportedException extends ProviderException {
+
+	
+	/**
+	 * Version information for serialized instances
+	 */
+	private static final long serialVersionUID = 1L;
+	
+	
+	/**
+	 * Constructor
+	 */
+	public NotSupportedException(String msg) {
+		super(msg);
+	}
+	
+	public NotSupportedException(Exception e) {
+		super(e);
+	}
+}
@@ -0,0 +1,40 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.basyx.vab.exception.provider;
+
+/**
+ * Used to indicate by a ModelProvider, that an element has been changed since
+ * the version a conditional change was based on, see
+ * {@link org.eclipse.basyx.vab.modelprovider.api.IModelProvider#compareAndSet(String, long, Object)
+ * IModelProvider#compareAndSet}
+ * 
+ * @author schnicke
+ *
+ */
+public class VersionConflictException extends ProviderException {
+
+	
+	/**
+	 * Version information for serialized instances
+	 */
+	private static final long serialVersionUID = 1L;
+	
+	
+	/**
+	 * Constructor
+	 */
+	public VersionConflictException(String msg) {
+		super(msg);
+	}
+	
+	public VersionConflictException(Exception e) {
+		super(e);
+	}
+}
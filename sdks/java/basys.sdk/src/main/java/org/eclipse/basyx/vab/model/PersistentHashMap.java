@@ -0,0 +1,532 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.basyx.vab.model;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Immutable hash map that is changed by creating new versions of it. A new
+ * version shares all parts with the previous one except for the path to the
+ * changed entry, thus {@link #plus(Object, Object)} and {@link #minus(Object)}
+ * take O(log n) time and memory. Each version can be read by any number of
+ * threads without synchronization.<br />
+ * <br />
+ * The entries are kept in a hash array mapped trie, where each node
+ * distinguishes 5 bits of the hash and stores its entries inline and its
+ * children at the end of the same array. Keys must not be null, values may
+ * be. All methods of {@link Map} that modify the map throw an
+ * {@link UnsupportedOperationException}.
+ *
+ * @author schnicke
+ *
+ * @param <K>
+ * @param <V>
+ */
+public final class PersistentHashMap<K, V> extends AbstractMap<K, V> {
+	private static final PersistentHashMap<Object, Object> EMPTY = new PersistentHashMap<>(BitmapNode.EMPTY, 0);
+
+	private static final int BITS = 5;
+	private static final int MASK = (1 << BITS) - 1;
+	private static final Object NOT_FOUND = new Object();
+
+	private final Node root;
+	private final int size;
+
+	private PersistentHashMap(Node root, int size) {
+		this.root = root;
+		this.size = size;
+	}
+
+	/**
+	 * Returns the empty map
+	 *
+	 * @return
+	 */
+	@SuppressWarnings("unchecked")
+	public static <K, V> PersistentHashMap<K, V> empty() {
+		return (PersistentHashMap<K, V>) EMPTY;
+	}
+
+	/**
+	 * Returns a map containing the entries of another map. Persistent maps are
+	 * returned as they are.
+	 *
+	 * @param map
+	 * @return
+	 */
+	@SuppressWarnings("unchecked")
+	public static <K, V> PersistentHashMap<K, V> copyOf(Map<? extends K, ? extends V> map) {
+		if (map instanceof PersistentHashMap<?, ?>) {
+			return (PersistentHashMap<K, V>) map;
+		}
+		PersistentHashMap<K, V> result = empty();
+		for (Map.Entry<? extends K, ? extends V> entry : map.entrySet()) {
+			result = result.plus(entry.getKey(), entry.getValue());
+		}
+		return result;
+	}
+
+	/**
+	 * Returns a version of this map that additionally maps the key to the value
+	 *
+	 * @param key
+	 * @param value
+	 * @return this map, if it already contains the mapping
+	 */
+	public PersistentHashMap<K, V> plus(K key, V value) {
+		if (key == null) {
+			throw new NullPointerException("Keys of a PersistentHashMap must not be null");
+		}
+		boolean[] added = new boolean[1];
+		Node newRoot = root.plus(0, hash(key), key, value, added);
+		if (newRoot == root) {
+			return this;
+		}
+		return new PersistentHashMap<>(newRoot, added[0] ? size + 1 : size);
+	}
+
+	/**
+	 * Returns a version of this map without the key
+	 *
+	 * @param key
+	 * @return this map, if it does not contain the key
+	 */
+	public PersistentHashMap<K, V> minus(Object key) {
+		if (key == null) {
+			return this;
+		}
+		Node newRoot = root.minus(0, hash(key), key);
+		if (newRoot == root) {
+			return this;
+		}
+		return new PersistentHashMap<>(newRoot, size - 1);
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public V get(Object key) {
+		if (key == null) {
+			return null;
+		}
+		Object value = root.find(0, hash(key), key);
+		return value == NOT_FOUND ? null : (V) value;
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return key != null && root.find(0, hash(key), key) != NOT_FOUND;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	@Override
+	public Set<Map.Entry<K, V>> entrySet() {
+		return new AbstractSet<Map.Entry<K, V>>() {
+			@Override
+			public Iterator<Map.Entry<K, V>> iterator() {
+				return new EntryIterator<>(root);
+			}
+
+			@Override
+			public int size() {
+				return size;
+			}
+
+			@Override
+			public boolean contains(Object o) {
+				if (!(o instanceof Map.Entry<?, ?>)) {
+					return false;
+				}
+				Map.Entry<?, ?> entry = (Map.Entry<?, ?>) o;
+				Object key = entry.getKey();
+				if (key == null) {
+					return false;
+				}
+				Object value = root.find(0, hash(key), key);
+				return value != NOT_FOUND && (value == null ? entry.getValue() == null : value.equals(entry.getValue()));
+			}
+		};
+	}
+
+	private static int hash(Object key) {
+		int h = key.hashCode();
+		return h ^ (h >>> 16);
+	}
+
+	private static int bit(int hash, int shift) {
+		return 1 << ((hash >>> shift) & MASK);
+	}
+
+	/**
+	 * Node of the trie
+	 */
+	private interface Node {
+		/**
+		 * Returns the value of the key or NOT_FOUND
+		 */
+		Object find(int shift, int hash, Object key);
+
+		/**
+		 * Returns a node with the mapping added, or this node if it is contained
+		 * already
+		 */
+		Node plus(int shift, int hash, Object key, Object value, boolean[] added);
+
+		/**
+		 * Returns a node without the key, or this node if it is not contained
+		 */
+		Node minus(int shift, int hash, Object key);
+
+		int entryCount();
+
+		Object keyAt(int index);
+
+		Object valueAt(int index);
+
+		int nodeCount();
+
+		Node nodeAt(int index);
+	}
+
+	/**
+	 * Node distinguishing 5 bits of the hash. The entries are stored as key-value
+	 * pairs at the start of the array, the child nodes in reverse order at its end.
+	 */
+	private static final class BitmapNode implements Node {
+		private static final BitmapNode EMPTY = new BitmapNode(0, 0, new Object[0]);
+
+		private final int dataMap;
+		private final int nodeMap;
+		private final Object[] content;
+
+		private BitmapNode(int dataMap, int nodeMap, Object[] content) {
+			this.dataMap = dataMap;
+			this.nodeMap = nodeMap;
+			this.content = content;
+		}
+
+		private int dataIndex(int bit) {
+			return 2 * Integer.bitCount(dataMap & (bit - 1));
+		}
+
+		private int nodeIndex(int bit) {
+			return content.length - 1 - Integer.bitCount(nodeMap & (bit - 1));
+		}
+
+		@Override
+		public Object find(int shift, int hash, Object key) {
+			int bit = bit(hash, shift);
+			if ((dataMap & bit) != 0) {
+				int index = dataIndex(bit);
+				return key.equals(content[index]) ? content[index + 1] : NOT_FOUND;
+			}
+			if ((nodeMap & bit) != 0) {
+				return ((Node) content[nodeIndex(bit)]).find(shift + BITS, hash, key);
+			}
+			return NOT_FOUND;
+		}
+
+		@Override
+		public Node plus(int shift, int hash, Object key, Object value, boolean[] added) {
+			int bit = bit(hash, shift);
+			if ((dataMap & bit) != 0) {
+				int index = dataIndex(bit);
+				Object existing = content[index];
+				if (key.equals(existing)) {
+					if (content[index + 1] == value) {
+						return this;
+					}
+					Object[] newContent = content.clone();
+					newContent[index + 1] = value;
+					return new BitmapNode(dataMap, nodeMap, newContent);
+				}
+
+				// Both entries are moved to a new child distinguishing the next bits
+				added[0] = true;
+				Node child = merge(shift + BITS, PersistentHashMap.hash(existing), existing, content[index + 1], hash, key, value);
+				return withEntryMovedToNode(bit, index, child);
+			}
+
+			if ((nodeMap & bit) != 0) {
+				int index = nodeIndex(bit);
+				Node child = (Node) content[index];
+				Node newChild = child.plus(shift + BITS, hash, key, value, added);
+				if (newChild == child) {
+					return this;
+				}
+				Object[] newContent = content.clone();
+				newContent[index] = newChild;
+				return new BitmapNode(dataMap, nodeMap, newContent);
+			}
+
+			added[0] = true;
+			int index = dataIndex(bit);
+			Object[] newContent = new Object[content.length + 2];
+			System.arraycopy(content, 0, newContent, 0, index);
+			newContent[index] = key;
+			newContent[index + 1] = value;
+			System.arraycopy(content, index, newContent, index + 2, content.length - index);
+			return new BitmapNode(dataMap | bit, nodeMap, newContent);
+		}
+
+		@Override
+		public Node minus(int shift, int hash, Object key) {
+			int bit = bit(hash, shift);
+			if ((dataMap & bit) != 0) {
+				int index = dataIndex(bit);
+				if (!key.equals(content[index])) {
+					return this;
+				}
+				Object[] newContent = new Object[content.length - 2];
+				System.arraycopy(content, 0, newContent, 0, index);
+				System.arraycopy(content, index + 2, newContent, index, content.length - index - 2);
+				return new BitmapNode(dataMap ^ bit, nodeMap, newContent);
+			}
+
+			if ((nodeMap & bit) != 0) {
+				int index = nodeIndex(bit);
+				Node child = (Node) content[index];
+				Node newChild = child.minus(shift + BITS, hash, key);
+				if (newChild == child) {
+					return this;
+				}
+				if (newChild.nodeCount() == 0 && newChild.entryCount() == 0) {
+					return withoutNode(bit, index);
+				}
+				if (newChild.nodeCount() == 0 && newChild.entryCount() == 1) {
+					// Keep single entries inline instead of in a child of their own
+					return withNodeMovedToEntry(bit, index, newChild.keyAt(0), newChild.valueAt(0));
+				}
+				Object[] newContent = content.clone();
+				newContent[index] = newChild;
+				return new BitmapNode(dataMap, nodeMap, newContent);
+			}
+			return this;
+		}
+
+		private Node withEntryMovedToNode(int bit, int dataIndex, Node node) {
+			// The entry is removed and the node is inserted into the node part
+			Object[] newContent = new Object[content.length - 1];
+			System.arraycopy(content, 0, newContent, 0, dataIndex);
+			int oldNodeIndex = content.length - 1 - Integer.bitCount(nodeMap & (bit - 1));
+			int newNodeIndex = oldNodeIndex - 2;
+			System.arraycopy(content, dataIndex + 2, newContent, dataIndex, newNodeIndex + 1 - dataIndex);
+			newContent[newNodeIndex + 1] = node;
+			System.arraycopy(content, oldNodeIndex + 1, newContent, newNodeIndex + 2, content.length - oldNodeIndex - 1);
+			return new BitmapNode(dataMap ^ bit, nodeMap | bit, newContent);
+		}
+
+		private Node withNodeMovedToEntry(int bit, int nodeIndex, Object key, Object value) {
+			int dataIndex = dataIndex(bit);
+			Object[] newContent = new Object[content.length + 1];
+			System.arraycopy(content, 0, newContent, 0, dataIndex);
+			newContent[dataIndex] = key;
+			newContent[dataIndex + 1] = value;
+			System.arraycopy(content, dataIndex, newContent, dataIndex + 2, nodeIndex - dataIndex);
+			System.arraycopy(content, nodeIndex + 1, newContent, nodeIndex + 2, content.length - nodeIndex - 1);
+			return new BitmapNode(dataMap | bit, nodeMap ^ bit, newContent);
+		}
+
+		private Node withoutNode(int bit, int nodeIndex) {
+			Object[] newContent = new Object[content.length - 1];
+			System.arraycopy(content, 0, newContent, 0, nodeIndex);
+			System.arraycopy(content, nodeIndex + 1, newContent, nodeIndex, content.length - nodeIndex - 1);
+			return new BitmapNode(dataMap, nodeMap ^ bit, newContent);
+		}
+
+		@Override
+		public int entryCount() {
+			return Integer.bitCount(dataMap);
+		}
+
+		@Override
+		public Object keyAt(int index) {
+			return content[2 * index];
+		}
+
+		@Override
+		public Object valueAt(int index) {
+			return content[2 * index + 1];
+		}
+
+		@Override
+		public int nodeCount() {
+			return Integer.bitCount(nodeMap);
+		}
+
+		@Override
+		public Node nodeAt(int index) {
+			return (Node) content[content.length - 1 - index];
+		}
+	}
+
+	/**
+	 * Node containing the entries whose keys have the same hash
+	 */
+	private static final class CollisionNode implements Node {
+		private final int hash;
+		private final Object[] content;
+
+		private CollisionNode(int hash, Object[] content) {
+			this.hash = hash;
+			this.content = content;
+		}
+
+		private int indexOf(Object key) {
+			for (int i = 0; i < content.length; i += 2) {
+				if (key.equals(content[i])) {
+					return i;
+				}
+			}
+			return -1;
+		}
+
+		@Override
+		public Object find(int shift, int hash, Object key) {
+			int index = indexOf(key);
+			return index < 0 ? NOT_FOUND : content[index + 1];
+		}
+
+		@Override
+		public Node plus(int shift, int hash, Object key, Object value, boolean[] added) {
+			int index = indexOf(key);
+			if (index >= 0) {
+				if (content[index + 1] == value) {
+					return this;
+				}
+				Object[] newContent = content.clone();
+				newContent[index + 1] = value;
+				return new CollisionNode(hash, newContent);
+			}
+			added[0] = true;
+			Object[] newContent = Arrays.copyOf(content, content.length + 2);
+			newContent[content.length] = key;
+			newContent[content.length + 1] = value;
+			return new CollisionNode(hash, newContent);
+		}
+
+		@Override
+		public Node minus(int shift, int hash, Object key) {
+			int index = indexOf(key);
+			if (index < 0) {
+				return this;
+			}
+			Object[] newContent = new Object[content.length - 2];
+			System.arraycopy(content, 0, newContent, 0, index);
+			System.arraycopy(content, index + 2, newContent, index, content.length - index - 2);
+			return new CollisionNode(this.hash, newContent);
+		}
+
+		@Override
+		public int entryCount() {
+			return content.length / 2;
+		}
+
+		@Override
+		public Object keyAt(int index) {
+			return content[2 * index];
+		}
+
+		@Override
+		public Object valueAt(int index) {
+			return content[2 * index + 1];
+		}
+
+		@Override
+		public int nodeCount() {
+			return 0;
+		}
+
+		@Override
+		public Node nodeAt(int index) {
+			throw new IndexOutOfBoundsException();
+		}
+	}
+
+	/**
+	 * Creates a node containing two entries with different keys
+	 */
+	private static Node merge(int shift, int hash1, Object key1, Object value1, int hash2, Object key2, Object value2) {
+		if (shift >= Integer.SIZE) {
+			// All bits of the hashes are equal
+			return new CollisionNode(hash1, new Object[] { key1, value1, key2, value2 });
+		}
+
+		int bit1 = bit(hash1, shift);
+		int bit2 = bit(hash2, shift);
+		if (bit1 == bit2) {
+			Node child = merge(shift + BITS, hash1, key1, value1, hash2, key2, value2);
+			return new BitmapNode(0, bit1, new Object[] { child });
+		}
+
+		// The entries are ordered by their bits
+		if (Integer.compareUnsigned(bit1, bit2) < 0) {
+			return new BitmapNode(bit1 | bit2, 0, new Object[] { key1, value1, key2, value2 });
+		}
+		return new BitmapNode(bit1 | bit2, 0, new Object[] { key2, value2, key1, value1 });
+	}
+
+	/**
+	 * Iterates the entries of a node and its children
+	 */
+	private static final class EntryIterator<K, V> implements Iterator<Map.Entry<K, V>> {
+		private final Deque<Node> pending = new ArrayDeque<>();
+		private Node current;
+		private int index;
+
+		private EntryIterator(Node root) {
+			current = root;
+			advance();
+		}
+
+		private void advance() {
+			while (current != null && index >= current.entryCount()) {
+				for (int i = 0; i < current.nodeCount(); i++) {
+					pending.push(current.nodeAt(i));
+				}
+				current = pending.poll();
+				index = 0;
+			}
+		}
+
+		@Override
+		public boolean hasNext() {
+			return current != null;
+		}
+
+		@SuppressWarnings("unchecked")
+		@Override
+		public Map.Entry<K, V> next() {
+			if (current == null) {
+				throw new NoSuchElementException();
+			}
+			Map.Entry<K, V> entry = new AbstractMap.SimpleImmutableEntry<>((K) current.keyAt(index), (V) current.valueAt(index));
+			index++;
+			advance();
+			return entry;
+		}
+	}
+}
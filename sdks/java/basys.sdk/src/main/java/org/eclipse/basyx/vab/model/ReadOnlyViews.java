@@ -0,0 +1,371 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.basyx.vab.model;
+
+import java.util.AbstractCollection;
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * Read-only views of maps and collections that wrap the backing objects
+ * instead of copying them. The views are materialised lazily, i.e. the
+ * contained values are only wrapped or transformed when they are accessed, so
+ * that e.g. serializing a view does not allocate proportionally to the size of
+ * the backing objects.<br />
+ * <br />
+ * All methods of the views that modify them throw an
+ * {@link UnsupportedOperationException}. Changes of the backing objects are
+ * visible through the views, thus views are only meant for callers that read
+ * them right away, e.g. to serialize them.
+ *
+ * @author schnicke
+ *
+ */
+public final class ReadOnlyViews {
+	private ReadOnlyViews() {
+	}
+
+	/**
+	 * Marks all views, so that they are not wrapped again
+	 */
+	private interface View {
+	}
+
+	/**
+	 * Returns a read-only view of a value. Maps, lists, sets and other collections
+	 * are wrapped, their contained values are wrapped when they are accessed. All
+	 * other values are returned as they are.
+	 *
+	 * @param value
+	 * @return
+	 */
+	public static Object of(Object value) {
+		return of(value, UnaryOperator.identity());
+	}
+
+	/**
+	 * Returns a read-only view of a value, see {@link #of(Object)}. The value and
+	 * all contained values are passed to a resolver before they are wrapped, e.g.
+	 * to resolve lambda properties.
+	 *
+	 * @param value
+	 * @param resolver
+	 * @return
+	 */
+	@SuppressWarnings("unchecked")
+	public static Object of(Object value, UnaryOperator<Object> resolver) {
+		Object resolved = resolver.apply(value);
+		if (resolved instanceof View) {
+			return resolved;
+		}
+
+		Function<Object, Object> contained = o -> of(o, resolver);
+		if (resolved instanceof Map<?, ?>) {
+			return new MapView<>((Map<Object, Object>) resolved, contained);
+		} else if (resolved instanceof Set<?>) {
+			return new SetView<>((Set<Object>) resolved, contained);
+		} else if (resolved instanceof List<?>) {
+			return new ListView<>((List<Object>) resolved, contained);
+		} else if (resolved instanceof Collection<?>) {
+			return new CollectionView<>((Collection<Object>) resolved, contained);
+		} else {
+			return resolved;
+		}
+	}
+
+	/**
+	 * Returns a read-only view of a map, whose values are transformed when they
+	 * are accessed. Values that are contained in the transformed values are not
+	 * wrapped.
+	 *
+	 * @param map
+	 * @param transformer
+	 * @return
+	 */
+	public static <K, V, R> Map<K, R> transform(Map<K, V> map, Function<? super V, ? extends R> transformer) {
+		return new MapView<>(map, transformer);
+	}
+
+	/**
+	 * Returns a read-only view of a collection, whose elements are transformed
+	 * when they are accessed, see {@link #transform(Map, Function)}
+	 *
+	 * @param collection
+	 * @param transformer
+	 * @return
+	 */
+	public static <T, R> Collection<R> transform(Collection<T> collection, Function<? super T, ? extends R> transformer) {
+		return new CollectionView<>(collection, transformer);
+	}
+
+	/**
+	 * Returns a read-only view of a map, in which a key is mapped to another
+	 * value. The other entries are not wrapped.
+	 *
+	 * @param map
+	 * @param key
+	 * @param value
+	 * @return
+	 */
+	public static <K, V> Map<K, V> withEntry(Map<K, ? extends V> map, K key, V value) {
+		return new EntryView<>(map, key, value);
+	}
+
+	/**
+	 * Returns the map wrapped by a view, if the view has been created by
+	 * {@link #transform(Map, Function)} with the given transformer. Thus, callers
+	 * that know the transformer can read the untransformed values, e.g. to
+	 * serialize them without creating the transformed values.
+	 *
+	 * @param view
+	 * @param transformer
+	 * @return the wrapped map or null, if the map is no such view
+	 */
+	public static Map<?, ?> untransformed(Map<?, ?> view, Function<?, ?> transformer) {
+		if (view instanceof MapView<?, ?, ?> && ((MapView<?, ?, ?>) view).transformer == transformer) {
+			return ((MapView<?, ?, ?>) view).map;
+		}
+		return null;
+	}
+
+	/**
+	 * Returns the collection wrapped by a view, if the view has been created by
+	 * {@link #transform(Collection, Function)} with the given transformer, see
+	 * {@link #untransformed(Map, Function)}
+	 *
+	 * @param view
+	 * @param transformer
+	 * @return the wrapped collection or null, if the collection is no such view
+	 */
+	public static Collection<?> untransformed(Collection<?> view, Function<?, ?> transformer) {
+		if (view instanceof CollectionView<?, ?> && ((CollectionView<?, ?>) view).transformer == transformer) {
+			return ((CollectionView<?, ?>) view).collection;
+		}
+		return null;
+	}
+
+	/**
+	 * Checks whether an object is a view created by this class
+	 *
+	 * @param obj
+	 * @return
+	 */
+	public static boolean isView(Object obj) {
+		return obj instanceof View;
+	}
+
+	private static final class MapView<K, V, R> extends AbstractMap<K, R> implements View {
+		private final Map<K, V> map;
+		private final Function<? super V, ? extends R> transformer;
+
+		private MapView(Map<K, V> map, Function<? super V, ? extends R> transformer) {
+			this.map = map;
+			this.transformer = transformer;
+		}
+
+		@Override
+		public R get(Object key) {
+			V value = map.get(key);
+			if (value == null && !map.containsKey(key)) {
+				return null;
+			}
+			return transformer.apply(value);
+		}
+
+		@Override
+		public boolean containsKey(Object key) {
+			return map.containsKey(key);
+		}
+
+		@Override
+		public int size() {
+			return map.size();
+		}
+
+		@Override
+		public Set<Map.Entry<K, R>> entrySet() {
+			return new AbstractSet<Map.Entry<K, R>>() {
+				@Override
+				public Iterator<Map.Entry<K, R>> iterator() {
+					return new TransformingIterator<>(map.entrySet().iterator(), e -> new SimpleImmutableEntry<>(e.getKey(), transformer.apply(e.getValue())));
+				}
+
+				@Override
+				public int size() {
+					return map.size();
+				}
+			};
+		}
+
+		@Override
+		public Set<K> keySet() {
+			return new SetView<>(map.keySet(), Function.identity());
+		}
+	}
+
+	private static final class EntryView<K, V> extends AbstractMap<K, V> implements View {
+		private final Map<K, ? extends V> map;
+		private final K key;
+		private final V value;
+
+		private EntryView(Map<K, ? extends V> map, K key, V value) {
+			this.map = map;
+			this.key = key;
+			this.value = value;
+		}
+
+		@Override
+		public V get(Object k) {
+			return Objects.equals(key, k) ? value : map.get(k);
+		}
+
+		@Override
+		public boolean containsKey(Object k) {
+			return Objects.equals(key, k) || map.containsKey(k);
+		}
+
+		@Override
+		public int size() {
+			return map.containsKey(key) ? map.size() : map.size() + 1;
+		}
+
+		@Override
+		public Set<Map.Entry<K, V>> entrySet() {
+			return new AbstractSet<Map.Entry<K, V>>() {
+				@Override
+				public Iterator<Map.Entry<K, V>> iterator() {
+					Iterator<? extends Map.Entry<K, ? extends V>> entries = map.entrySet().iterator();
+					boolean replaced = map.containsKey(key);
+					return new Iterator<Map.Entry<K, V>>() {
+						private boolean added = replaced;
+
+						@Override
+						public boolean hasNext() {
+							return entries.hasNext() || !added;
+						}
+
+						@Override
+						public Map.Entry<K, V> next() {
+							if (!entries.hasNext() && !added) {
+								added = true;
+								return new SimpleImmutableEntry<>(key, value);
+							}
+							Map.Entry<K, ? extends V> entry = entries.next();
+							if (Objects.equals(key, entry.getKey())) {
+								return new SimpleImmutableEntry<>(key, value);
+							}
+							return new SimpleImmutableEntry<>(entry.getKey(), entry.getValue());
+						}
+					};
+				}
+
+				@Override
+				public int size() {
+					return EntryView.this.size();
+				}
+			};
+		}
+	}
+
+	private static final class CollectionView<T, R> extends AbstractCollection<R> implements View {
+		private final Collection<T> collection;
+		private final Function<? super T, ? extends R> transformer;
+
+		private CollectionView(Collection<T> collection, Function<? super T, ? extends R> transformer) {
+			this.collection = collection;
+			this.transformer = transformer;
+		}
+
+		@Override
+		public Iterator<R> iterator() {
+			return new TransformingIterator<>(collection.iterator(), transformer);
+		}
+
+		@Override
+		public int size() {
+			return collection.size();
+		}
+	}
+
+	private static final class SetView<T, R> extends AbstractSet<R> implements View {
+		private final Set<T> set;
+		private final Function<? super T, ? extends R> transformer;
+
+		private SetView(Set<T> set, Function<? super T, ? extends R> transformer) {
+			this.set = set;
+			this.transformer = transformer;
+		}
+
+		@Override
+		public Iterator<R> iterator() {
+			return new TransformingIterator<>(set.iterator(), transformer);
+		}
+
+		@Override
+		public int size() {
+			return set.size();
+		}
+	}
+
+	private static final class ListView<T, R> extends AbstractList<R> implements View {
+		private final List<T> list;
+		private final Function<? super T, ? extends R> transformer;
+
+		private ListView(List<T> list, Function<? super T, ? extends R> transformer) {
+			this.list = list;
+			this.transformer = transformer;
+		}
+
+		@Override
+		public R get(int index) {
+			return transformer.apply(list.get(index));
+		}
+
+		@Override
+		public int size() {
+			return list.size();
+		}
+
+		@Override
+		public Iterator<R> iterator() {
+			// Linked lists are not accessed by index
+			return new TransformingIterator<>(list.iterator(), transformer);
+		}
+	}
+
+	private static final class TransformingIterator<T, R> implements Iterator<R> {
+		private final Iterator<? extends T> iterator;
+		private final Function<? super T, ? extends R> transformer;
+
+		private TransformingIterator(Iterator<? extends T> iterator, Function<? super T, ? extends R> transformer) {
+			this.iterator = iterator;
+			this.transformer = transformer;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return iterator.hasNext();
+		}
+
+		@Override
+		public R next() {
+			return transformer.apply(iterator.next());
+		}
+	}
+}
@@ -9,8 +9,18 @@
  ******************************************************************************/
 package org.eclipse.basyx.vab.modelprovider;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
 import org.eclipse.basyx.vab.exception.provider.ProviderException;
+import org.eclipse.basyx.vab.modelprovider.api.IAsyncModelProvider;
 import org.eclipse.basyx.vab.modelprovider.api.IModelProvider;
+import org.eclipse.basyx.vab.modelprovider.async.AsyncModelProviderAdapter;
+import org.eclipse.basyx.vab.modelprovider.batch.BatchEntry;
+import org.eclipse.basyx.vab.modelprovider.batch.BatchResult;
+import org.eclipse.basyx.vab.modelprovider.event.IPublisher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -20,7 +30,7 @@ import org.slf4j.LoggerFactory;
  * @author kuhn
  *
  */
-public class VABElementProxy implements IModelProvider {
+public class VABElementProxy implements IAsyncModelProvider {
 
 	private static Logger logger = LoggerFactory.getLogger(VABElementProxy.class);
 
@@ -68,6 +78,25 @@ public class VABElementProxy implements IModelProvider {
 		}
 	}
 
+	/**
+	 * Read a read-only view of a VAB element value, see
+	 * {@link IModelProvider#getValueView(String)}
+	 * 
+	 * @param elementPath
+	 *            Path to the requested value
+	 */
+	@Override
+	public Object getValueView(String elementPath) throws ProviderException {
+		try {
+			return provider.getValueView(constructPath(elementPath));
+		} catch (ProviderException e) {
+			throw e;
+		} catch (Exception e) {
+			logger.debug("Exception in getValueView", e);
+			throw new ProviderException(e);
+		}
+	}
+
 	/**
 	 * Update VAB element value <br />
 	 * <br />
@@ -155,6 +184,152 @@ public class VABElementProxy implements IModelProvider {
 		}
 	}
 
+	/**
+	 * Process a batch of requests relative to the element
+	 */
+	@Override
+	public List<BatchResult> processBatch(List<BatchEntry> entries) throws ProviderException {
+		List<BatchEntry> absoluteEntries = new ArrayList<>(entries.size());
+		for (BatchEntry entry : entries) {
+			absoluteEntries.add(entry.withPath(constructPath(entry.getPath())));
+		}
+
+		// Process batch on server
+		try {
+			return provider.processBatch(absoluteEntries);
+		} catch (ProviderException e) {
+			throw e;
+		} catch (Exception e) {
+			logger.debug("Exception in processBatch", e);
+			throw new ProviderException(e);
+		}
+	}
+
+	/**
+	 * Get a publisher for the events of the element
+	 */
+	@Override
+	public IPublisher<Object> getEventPublisher(String elementPath) throws ProviderException {
+		try {
+			return provider.getEventPublisher(constructPath(elementPath));
+		} catch (ProviderException e) {
+			throw e;
+		} catch (Exception e) {
+			logger.debug("Exception in getEventPublisher", e);
+			throw new ProviderException(e);
+		}
+	}
+
+	/**
+	 * Read the version of a VAB element
+	 */
+	@Override
+	public long getVersion(String elementPath) throws ProviderException {
+		try {
+			return provider.getVersion(constructPath(elementPath));
+		} catch (ProviderException e) {
+			throw e;
+		} catch (Exception e) {
+			logger.debug("Exception in getVersion", e);
+			throw new ProviderException(e);
+		}
+	}
+
+	/**
+	 * Update VAB element value, if the element has the expected version
+	 */
+	@Override
+	public long compareAndSet(String elementPath, long expectedVersion, Object newValue) throws ProviderException {
+		try {
+			return provider.compareAndSet(constructPath(elementPath), expectedVersion, newValue);
+		} catch (ProviderException e) {
+			throw e;
+		} catch (Exception e) {
+			logger.debug("Exception in compareAndSet", e);
+			throw new ProviderException(e);
+		}
+	}
+
+
+
+	/**
+	 * Read VAB element value without blocking
+	 */
+	@Override
+	public CompletableFuture<Object> getValueAsync(String elementPath) {
+		return translateFailure(getAsyncProvider().getValueAsync(constructPath(elementPath)), "getValueAsync");
+	}
+
+	/**
+	 * Update VAB element value without blocking
+	 */
+	@Override
+	public CompletableFuture<Void> setValueAsync(String elementPath, Object newValue) {
+		return translateFailure(getAsyncProvider().setValueAsync(constructPath(elementPath), newValue), "setValueAsync");
+	}
+
+	/**
+	 * Add element on server without blocking
+	 */
+	@Override
+	public CompletableFuture<Void> createValueAsync(String elementPath, Object newValue) {
+		return translateFailure(getAsyncProvider().createValueAsync(constructPath(elementPath), newValue), "createValueAsync");
+	}
+
+	/**
+	 * Delete element from server without blocking
+	 */
+	@Override
+	public CompletableFuture<Void> deleteValueAsync(String elementPath) {
+		return translateFailure(getAsyncProvider().deleteValueAsync(constructPath(elementPath)), "deleteValueAsync");
+	}
+
+	/**
+	 * Delete element from server without blocking
+	 */
+	@Override
+	public CompletableFuture<Void> deleteValueAsync(String elementPath, Object value) {
+		return translateFailure(getAsyncProvider().deleteValueAsync(constructPath(elementPath), value), "deleteValueAsync");
+	}
+
+	/**
+	 * Invoke element as an operation without blocking
+	 */
+	@Override
+	public CompletableFuture<Object> invokeOperationAsync(String elementPath, Object... parameter) {
+		return translateFailure(getAsyncProvider().invokeOperationAsync(constructPath(elementPath), parameter), "invokeOperationAsync");
+	}
+
+	/**
+	 * Returns the provider, or an adapter if it does not support asynchronous
+	 * requests natively
+	 */
+	private IAsyncModelProvider getAsyncProvider() {
+		return AsyncModelProviderAdapter.wrap(provider);
+	}
+
+	/**
+	 * Completes the returned future like the given one, but with a
+	 * ProviderException if the request has failed otherwise
+	 */
+	private static <T> CompletableFuture<T> translateFailure(CompletableFuture<T> future, String method) {
+		CompletableFuture<T> result = new CompletableFuture<>();
+		future.whenComplete((value, throwable) -> {
+			if (throwable == null) {
+				result.complete(value);
+				return;
+			}
+
+			Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable;
+			if (cause instanceof ProviderException) {
+				result.completeExceptionally(cause);
+			} else {
+				logger.debug("Exception in " + method, cause);
+				result.completeExceptionally(new ProviderException("Exception in " + method, cause));
+			}
+		});
+		return result;
+	}
 
 
 	/**
@@ -0,0 +1,308 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.basyx.vab.modelprovider;
+
+import java.util.Arrays;
+
+import org.eclipse.basyx.vab.exception.provider.MalformedRequestException;
+
+/**
+ * Immutable VAB path that has been split into its elements, e.g. <i>/a/b/c</i>
+ * consists of the elements [ a, b, c ]. Empty elements are dropped, i.e.
+ * leading, trailing and duplicate slashes are ignored as by
+ * {@link VABPathTools#splitPath(String)}.<br />
+ * <br />
+ * A path is parsed once and can then be passed through the provider chain.
+ * Sub paths share the elements of the path they have been created from, so
+ * that skipping the elements handled by a provider does not copy anything. The
+ * string representation is only built when it is needed and then reused.
+ *
+ * @author schnicke
+ *
+ */
+public final class VABPath {
+	public static final VABPath EMPTY = new VABPath(new String[0], 0, 0, "");
+
+	private final String[] elements;
+	private final int offset;
+	private final int size;
+
+	// Built on demand, concurrent builds create equal strings
+	private String string;
+	private int hash;
+
+	private VABPath(String[] elements, int offset, int size, String string) {
+		this.elements = elements;
+		this.offset = offset;
+		this.size = size;
+		this.string = string;
+	}
+
+	/**
+	 * Splits a path into its elements, e.g. /a/b/c -> [ a, b, c ]
+	 *
+	 * @param path
+	 * @return
+	 * @throws MalformedRequestException
+	 *             if the path is null
+	 */
+	public static VABPath parse(String path) throws MalformedRequestException {
+		VABPathTools.checkPathForNull(path);
+
+		int length = path.length();
+		int count = 0;
+		for (int start = 0; start < length;) {
+			int end = indexOfSeparator(path, start);
+			if (end > start) {
+				count++;
+			}
+			start = end + 1;
+		}
+
+		if (count == 0) {
+			return EMPTY;
+		}
+
+		String[] elements = new String[count];
+		int index = 0;
+		for (int start = 0; start < length;) {
+			int end = indexOfSeparator(path, start);
+			if (end > start) {
+				elements[index++] = path.substring(start, end);
+			}
+			start = end + 1;
+		}
+
+		// Without superfluous slashes, i.e. if the elements and separators add up to
+		// the path, the path already is the string representation
+		boolean normalized = length == count - 1 + sumOfLengths(elements);
+		return new VABPath(elements, 0, count, normalized ? path : null);
+	}
+
+	private static int indexOfSeparator(String path, int from) {
+		int index = path.indexOf('/', from);
+		return index < 0 ? path.length() : index;
+	}
+
+	private static int sumOfLengths(String[] elements) {
+		int sum = 0;
+		for (String element : elements) {
+			sum += element.length();
+		}
+		return sum;
+	}
+
+	/**
+	 * Creates a path from its elements, e.g. [ a, b/c ] -> a/b/c
+	 *
+	 * @param elements
+	 * @return
+	 */
+	public static VABPath of(String... elements) {
+		return parse(String.join(VABPathTools.SEPERATOR, elements));
+	}
+
+	/**
+	 * Returns the number of elements
+	 *
+	 * @return
+	 */
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Returns the Nth element, e.g. the second element of <i>a/b/c</i> is
+	 * <i>c</i>
+	 *
+	 * @param index
+	 * @return
+	 */
+	public String getElement(int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Index " + index + " is out of bounds for path " + this);
+		}
+		return elements[offset + index];
+	}
+
+	/**
+	 * Returns the first element or null, if the path is empty
+	 *
+	 * @return
+	 */
+	public String getFirstElement() {
+		return size == 0 ? null : elements[offset];
+	}
+
+	/**
+	 * Returns the last element or null, if the path is empty
+	 *
+	 * @return
+	 */
+	public String getLastElement() {
+		return size == 0 ? null : elements[offset + size - 1];
+	}
+
+	/**
+	 * Checks whether the first element equals the given one
+	 *
+	 * @param element
+	 * @return
+	 */
+	public boolean startsWith(String element) {
+		return size > 0 && elements[offset].equals(element);
+	}
+
+	/**
+	 * Checks whether the last element equals the given one
+	 *
+	 * @param element
+	 * @return
+	 */
+	public boolean endsWith(String element) {
+		return size > 0 && elements[offset + size - 1].equals(element);
+	}
+
+	/**
+	 * Skips the first N elements, e.g. for <i>a/b/c</i> skipping 2 means
+	 * returning <i>c</i>
+	 *
+	 * @param toSkip
+	 * @return
+	 */
+	public VABPath skip(int toSkip) {
+		return subPath(Math.min(toSkip, size), size);
+	}
+
+	/**
+	 * Returns the path without its last element
+	 *
+	 * @return
+	 */
+	public VABPath getParent() {
+		return size == 0 ? this : subPath(0, size - 1);
+	}
+
+	/**
+	 * Returns the elements from <i>from</i> (inclusive) to <i>to</i> (exclusive),
+	 * e.g. the sub path from 1 to 3 of <i>a/b/c/d</i> is <i>b/c</i>
+	 *
+	 * @param from
+	 * @param to
+	 * @return
+	 */
+	public VABPath subPath(int from, int to) {
+		if (from < 0 || to > size || from > to) {
+			throw new IndexOutOfBoundsException("Sub path " + from + " to " + to + " is out of bounds for path " + this);
+		}
+		if (from == 0 && to == size) {
+			return this;
+		}
+		if (from == to) {
+			return EMPTY;
+		}
+		return new VABPath(elements, offset + from, to - from, null);
+	}
+
+	/**
+	 * Appends the elements of a path
+	 *
+	 * @param path
+	 * @return
+	 */
+	public VABPath append(String path) {
+		return append(parse(path));
+	}
+
+	/**
+	 * Appends the elements of a path
+	 *
+	 * @param path
+	 * @return
+	 */
+	public VABPath append(VABPath path) {
+		if (path.isEmpty()) {
+			return this;
+		}
+		if (isEmpty()) {
+			return path;
+		}
+		String[] combined = new String[size + path.size];
+		System.arraycopy(elements, offset, combined, 0, size);
+		System.arraycopy(path.elements, path.offset, combined, size, path.size);
+		return new VABPath(combined, 0, combined.length, null);
+	}
+
+	/**
+	 * Returns a copy of the elements
+	 *
+	 * @return
+	 */
+	public String[] toArray() {
+		return Arrays.copyOfRange(elements, offset, offset + size);
+	}
+
+	/**
+	 * Returns the elements joined by slashes, without leading and trailing slash
+	 */
+	@Override
+	public String toString() {
+		String result = string;
+		if (result == null) {
+			StringBuilder builder = new StringBuilder();
+			for (int i = offset; i < offset + size; i++) {
+				if (i > offset) {
+					builder.append(VABPathTools.SEPERATOR);
+				}
+				builder.append(elements[i]);
+			}
+			result = builder.toString();
+			string = result;
+		}
+		return result;
+	}
+
+	@Override
+	public int hashCode() {
+		int result = hash;
+		if (result == 0) {
+			result = 1;
+			for (int i = offset; i < offset + size; i++) {
+				result = 31 * result + elements[i].hashCode();
+			}
+			hash = result;
+		}
+		return result;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof VABPath)) {
+			return false;
+		}
+		VABPath other = (VABPath) obj;
+		if (size != other.size) {
+			return false;
+		}
+		for (int i = 0; i < size; i++) {
+			if (!elements[offset + i].equals(other.elements[other.offset + i])) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
@@ -34,14 +34,15 @@ public class VABPathTools {
 	 * @return
 	 */
 	public static String stripSlashes(String path) {
-		while (path.startsWith("/")) {
-			path = path.substring(1);
+		int start = 0;
+		int end = path.length();
+		while (start < end && path.charAt(start) == '/') {
+			start++;
 		}
-
-		while (path.endsWith("/")) {
-			path = path.substring(0, path.length() - 1);
+		while (end > start && path.charAt(end - 1) == '/') {
+			end--;
 		}
-		return path;
+		return path.substring(start, end);
 	}
 
 	/**
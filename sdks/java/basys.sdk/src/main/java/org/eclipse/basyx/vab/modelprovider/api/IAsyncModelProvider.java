@@ -0,0 +1,60 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.basyx.vab.modelprovider.api;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Model provider whose requests do not block the calling thread. This allows
+ * to compose requests to many elements, e.g. to read a property of a thousand
+ * AAS in parallel. <br />
+ * <br />
+ * The returned futures complete with the same results as the corresponding
+ * methods of {@link IModelProvider}, or exceptionally with the
+ * {@link org.eclipse.basyx.vab.exception.provider.ProviderException
+ * ProviderException} they would throw. Synchronous providers can be used via
+ * {@link org.eclipse.basyx.vab.modelprovider.async.AsyncModelProviderAdapter
+ * AsyncModelProviderAdapter}.
+ * 
+ * @author schnicke
+ *
+ */
+public interface IAsyncModelProvider extends IModelProvider {
+
+	/**
+	 * Asynchronous variant of {@link #getValue(String)}
+	 */
+	public CompletableFuture<Object> getValueAsync(String path);
+
+	/**
+	 * Asynchronous variant of {@link #setValue(String, Object)}
+	 */
+	public CompletableFuture<Void> setValueAsync(String path, Object newValue);
+
+	/**
+	 * Asynchronous variant of {@link #createValue(String, Object)}
+	 */
+	public CompletableFuture<Void> createValueAsync(String path, Object newEntity);
+
+	/**
+	 * Asynchronous variant of {@link #deleteValue(String)}
+	 */
+	public CompletableFuture<Void> deleteValueAsync(String path);
+
+	/**
+	 * Asynchronous variant of {@link #deleteValue(String, Object)}
+	 */
+	public CompletableFuture<Void> deleteValueAsync(String path, Object obj);
+
+	/**
+	 * Asynchronous variant of {@link #invokeOperation(String, Object...)}
+	 */
+	public CompletableFuture<Object> invokeOperationAsync(String path, Object... parameter);
+}
@@ -9,7 +9,16 @@
  ******************************************************************************/
 package org.eclipse.basyx.vab.modelprovider.api;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.basyx.vab.exception.provider.MalformedRequestException;
+import org.eclipse.basyx.vab.exception.provider.NotSupportedException;
 import org.eclipse.basyx.vab.exception.provider.ProviderException;
+import org.eclipse.basyx.vab.exception.provider.VersionConflictException;
+import org.eclipse.basyx.vab.modelprovider.batch.BatchEntry;
+import org.eclipse.basyx.vab.modelprovider.batch.BatchResult;
+import org.eclipse.basyx.vab.modelprovider.event.IPublisher;
 
 /**
  * Basic model provider backend interface
@@ -28,6 +37,22 @@ public interface IModelProvider {
 	 */
 	public Object getValue(String path) throws ProviderException;
 
+	/**
+	 * Gets a read-only view of a value stored in a given path, for callers that
+	 * only read the value right away, e.g. to serialize it. Providers may return
+	 * a view that shares the data of the model instead of a copy, thus it must not
+	 * be modified.<br />
+	 * <br />
+	 * By default, the value is retrieved by {@link #getValue(String)}.
+	 * 
+	 * @param path
+	 *            Path to the requested value
+	 * @return Object type is assumed to be [Integer | ... | Collection]
+	 */
+	public default Object getValueView(String path) throws ProviderException {
+		return getValue(path);
+	}
+
 	/**
 	 * Sets or overrides existing value in a given path
 	 * 
@@ -38,6 +63,69 @@ public interface IModelProvider {
 	 */
 	public void setValue(String path, Object newValue) throws ProviderException;
 
+	/**
+	 * Checks if the provider supports versions for a path, see
+	 * {@link #getVersion(String)}. The check does not access the element and is
+	 * cheap enough to be done for each request, e.g. to decide whether a response
+	 * carries the version of its element.<br />
+	 * <br />
+	 * By default, versions are not supported.
+	 * 
+	 * @param path
+	 *            Path to the element or to its value
+	 * @return true, if {@link #getVersion(String)} is supported for the path
+	 */
+	public default boolean supportsVersions(String path) {
+		return false;
+	}
+
+	/**
+	 * Returns the version of the element a path points to. The version changes
+	 * with each change of the element, including changes of contained elements
+	 * and replacements of the collections containing it, but not with changes of
+	 * other elements. Together with {@link #compareAndSet(String, long, Object)},
+	 * it allows read-modify-write cycles without external locking: The version
+	 * has to be retrieved before the value, so that the change is rejected if
+	 * the value has been changed in the meantime.<br />
+	 * <br />
+	 * By default, versions are not supported.
+	 * 
+	 * @param path
+	 *            Path to the element or to its value
+	 * @return Current version of the element
+	 * @throws ProviderException
+	 *             if there is no versioned element for the path
+	 * @throws NotSupportedException
+	 *             if the provider does not support versions
+	 */
+	public default long getVersion(String path) throws ProviderException {
+		throw new NotSupportedException("Versions are not supported for path " + path);
+	}
+
+	/**
+	 * Sets the value in a given path, if its element has not been changed since
+	 * the expected version, see {@link #getVersion(String)}. Checking the
+	 * version and setting the value happen atomically.<br />
+	 * <br />
+	 * By default, versions are not supported.
+	 * 
+	 * @param path
+	 *            Path to the requested value
+	 * @param expectedVersion
+	 *            Version of the element the new value is based on
+	 * @param newValue
+	 *            Updated value
+	 * @return New version of the element
+	 * @throws VersionConflictException
+	 *             if the version of the element does not match the expected
+	 *             version
+	 * @throws NotSupportedException
+	 *             if the provider does not support versions
+	 */
+	public default long compareAndSet(String path, long expectedVersion, Object newValue) throws ProviderException {
+		throw new NotSupportedException("Versions are not supported for path " + path);
+	}
+
 	/**
 	 * Create a new value under the given path
 	 * 
@@ -75,4 +163,41 @@ public interface IModelProvider {
 	 */
 	public Object invokeOperation(String path, Object... parameter) throws ProviderException;
 
+	/**
+	 * Processes a batch of get, set, create, delete and invoke requests in the
+	 * given order. Errors are reported per entry and do not abort the batch.<br />
+	 * <br />
+	 * By default, the entries are processed one by one. Providers may override
+	 * this, e.g. to transfer the whole batch at once or to process independent
+	 * entries in parallel.
+	 * 
+	 * @param entries
+	 *            Requests to be processed
+	 * @return Results of the entries in the same order
+	 */
+	public default List<BatchResult> processBatch(List<BatchEntry> entries) throws ProviderException {
+		List<BatchResult> results = new ArrayList<>(entries.size());
+		for (BatchEntry entry : entries) {
+			results.add(entry.execute(this));
+		}
+		return results;
+	}
+
+	/**
+	 * Returns a publisher for the events concerning the given path, e.g. value
+	 * changes of a submodel element. Events are delivered only for the duration
+	 * of a subscription and are not replayed.<br />
+	 * <br />
+	 * By default, events are not supported.
+	 * 
+	 * @param path
+	 *            Path of the observed element
+	 * @return Publisher of the events
+	 * @throws ProviderException
+	 *             if there are no events for the path
+	 */
+	public default IPublisher<Object> getEventPublisher(String path) throws ProviderException {
+		throw new MalformedRequestException("Events are not supported for path " + path);
+	}
+
 }
@@ -0,0 +1,202 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.basyx.vab.modelprovider.async;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.basyx.vab.exception.provider.ProviderException;
+import org.eclipse.basyx.vab.modelprovider.api.IAsyncModelProvider;
+import org.eclipse.basyx.vab.modelprovider.api.IModelProvider;
+import org.eclipse.basyx.vab.modelprovider.batch.BatchEntry;
+import org.eclipse.basyx.vab.modelprovider.batch.BatchResult;
+import org.eclipse.basyx.vab.modelprovider.event.IPublisher;
+
+/**
+ * Makes a synchronous model provider usable as {@link IAsyncModelProvider}.
+ * The requests are performed by the threads of an executor, i.e. the number
+ * of parallel requests is bounded by its size. Providers that support
+ * asynchronous requests natively should be preferred, see
+ * {@link #wrap(IModelProvider)}.
+ * 
+ * @author schnicke
+ *
+ */
+public class AsyncModelProviderAdapter implements IAsyncModelProvider {
+	private static final int DEFAULT_THREADS = Math.max(16, 4 * Runtime.getRuntime().availableProcessors());
+
+	private static final Executor DEFAULT_EXECUTOR = createDefaultExecutor();
+
+	private final IModelProvider provider;
+	private final Executor executor;
+
+	/**
+	 * Creates an adapter that performs the requests by the
+	 * {@link #getDefaultExecutor() default executor}
+	 * 
+	 * @param provider
+	 */
+	public AsyncModelProviderAdapter(IModelProvider provider) {
+		this(provider, DEFAULT_EXECUTOR);
+	}
+
+	/**
+	 * Creates an adapter that performs the requests by the given executor
+	 * 
+	 * @param provider
+	 * @param executor
+	 */
+	public AsyncModelProviderAdapter(IModelProvider provider, Executor executor) {
+		this.provider = provider;
+		this.executor = executor;
+	}
+
+	/**
+	 * Returns the provider itself, if it supports asynchronous requests.
+	 * Otherwise, an adapter for the provider is returned.
+	 * 
+	 * @param provider
+	 * @return
+	 */
+	public static IAsyncModelProvider wrap(IModelProvider provider) {
+		if (provider instanceof IAsyncModelProvider) {
+			return (IAsyncModelProvider) provider;
+		}
+		return new AsyncModelProviderAdapter(provider);
+	}
+
+	/**
+	 * Returns the executor that is shared by all adapters without an explicit
+	 * executor. Its threads are daemon threads that terminate when idle.
+	 * 
+	 * @return
+	 */
+	public static Executor getDefaultExecutor() {
+		return DEFAULT_EXECUTOR;
+	}
+
+	/**
+	 * Returns a future that has been completed with an exception, e.g. if a
+	 * request could not be sent at all
+	 * 
+	 * @param throwable
+	 * @return
+	 */
+	public static <T> CompletableFuture<T> failedFuture(Throwable throwable) {
+		CompletableFuture<T> future = new CompletableFuture<>();
+		future.completeExceptionally(throwable);
+		return future;
+	}
+
+	public IModelProvider getProvider() {
+		return provider;
+	}
+
+	@Override
+	public CompletableFuture<Object> getValueAsync(String path) {
+		return CompletableFuture.supplyAsync(() -> provider.getValue(path), executor);
+	}
+
+	@Override
+	public CompletableFuture<Void> setValueAsync(String path, Object newValue) {
+		return CompletableFuture.runAsync(() -> provider.setValue(path, newValue), executor);
+	}
+
+	@Override
+	public CompletableFuture<Void> createValueAsync(String path, Object newEntity) {
+		return CompletableFuture.runAsync(() -> provider.createValue(path, newEntity), executor);
+	}
+
+	@Override
+	public CompletableFuture<Void> deleteValueAsync(String path) {
+		return CompletableFuture.runAsync(() -> provider.deleteValue(path), executor);
+	}
+
+	@Override
+	public CompletableFuture<Void> deleteValueAsync(String path, Object obj) {
+		return CompletableFuture.runAsync(() -> provider.deleteValue(path, obj), executor);
+	}
+
+	@Override
+	public CompletableFuture<Object> invokeOperationAsync(String path, Object... parameter) {
+		return CompletableFuture.supplyAsync(() -> provider.invokeOperation(path, parameter), executor);
+	}
+
+	@Override
+	public Object getValue(String path) throws ProviderException {
+		return provider.getValue(path);
+	}
+
+	@Override
+	public void setValue(String path, Object newValue) throws ProviderException {
+		provider.setValue(path, newValue);
+	}
+
+	@Override
+	public void createValue(String path, Object newEntity) throws ProviderException {
+		provider.createValue(path, newEntity);
+	}
+
+	@Override
+	public void deleteValue(String path) throws ProviderException {
+		provider.deleteValue(path);
+	}
+
+	@Override
+	public void deleteValue(String path, Object obj) throws ProviderException {
+		provider.deleteValue(path, obj);
+	}
+
+	@Override
+	public Object invokeOperation(String path, Object... parameter) throws ProviderException {
+		return provider.invokeOperation(path, parameter);
+	}
+
+	@Override
+	public List<BatchResult> processBatch(List<BatchEntry> entries) throws ProviderException {
+		return provider.processBatch(entries);
+	}
+
+	@Override
+	public IPublisher<Object> getEventPublisher(String path) throws ProviderException {
+		return provider.getEventPublisher(path);
+	}
+
+	@Override
+	public boolean supportsVersions(String path) {
+		return provider.supportsVersions(path);
+	}
+
+	@Override
+	public long getVersion(String path) throws ProviderException {
+		return provider.getVersion(path);
+	}
+
+	@Override
+	public long compareAndSet(String path, long expectedVersion, Object newValue) throws ProviderException {
+		return provider.compareAndSet(path, expectedVersion, newValue);
+	}
+
+	private static Executor createDefaultExecutor() {
+		AtomicInteger count = new AtomicInteger();
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(DEFAULT_THREADS, DEFAULT_THREADS, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+			Thread thread = new Thread(r, "basyx-async-" + count.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
+	}
+}
@@ -0,0 +1,212 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.basyx.vab.modelprovider.batch;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+
+import org.eclipse.basyx.vab.exception.provider.MalformedRequestException;
+import org.eclipse.basyx.vab.exception.provider.ProviderException;
+import org.eclipse.basyx.vab.model.VABModelMap;
+import org.eclipse.basyx.vab.modelprovider.api.IModelProvider;
+
+/**
+ * Single get, set, create, delete or invoke request of a batch, see
+ * {@link IModelProvider#processBatch(java.util.List)}
+ *
+ * @author schnicke
+ *
+ */
+public class BatchEntry extends VABModelMap<Object> {
+	public static final String OPERATION = "operation";
+	public static final String PATH = "path";
+	public static final String VALUE = "value";
+
+	public static final String GET = "get";
+	public static final String SET = "set";
+	public static final String CREATE = "create";
+	public static final String DELETE = "delete";
+	public static final String INVOKE = "invoke";
+
+	private static final Collection<String> OPERATIONS = Arrays.asList(GET, SET, CREATE, DELETE, INVOKE);
+
+	private BatchEntry() {
+	}
+
+	private BatchEntry(String operation, String path) {
+		put(OPERATION, operation);
+		put(PATH, path);
+	}
+
+	private BatchEntry(String operation, String path, Object value) {
+		this(operation, path);
+		put(VALUE, value);
+	}
+
+	/**
+	 * Creates an entry that gets the value of the given path
+	 */
+	public static BatchEntry getValue(String path) {
+		return new BatchEntry(GET, path);
+	}
+
+	/**
+	 * Creates an entry that sets the value of the given path
+	 */
+	public static BatchEntry setValue(String path, Object newValue) {
+		return new BatchEntry(SET, path, newValue);
+	}
+
+	/**
+	 * Creates an entry that creates a new value under the given path
+	 */
+	public static BatchEntry createValue(String path, Object newEntity) {
+		return new BatchEntry(CREATE, path, newEntity);
+	}
+
+	/**
+	 * Creates an entry that deletes the value of the given path
+	 */
+	public static BatchEntry deleteValue(String path) {
+		return new BatchEntry(DELETE, path);
+	}
+
+	/**
+	 * Creates an entry that deletes an entry from a map or collection by the
+	 * given key
+	 */
+	public static BatchEntry deleteValue(String path, Object obj) {
+		return new BatchEntry(DELETE, path, obj);
+	}
+
+	/**
+	 * Creates an entry that invokes the operation of the given path
+	 */
+	public static BatchEntry invokeOperation(String path, Object... parameter) {
+		return new BatchEntry(INVOKE, path, Arrays.asList(parameter));
+	}
+
+	/**
+	 * Creates a BatchEntry facade for a deserialized entry
+	 *
+	 * @param map
+	 * @return
+	 * @throws MalformedRequestException
+	 *             if the map does not describe a valid entry
+	 */
+	public static BatchEntry createAsFacade(Map<String, Object> map) throws MalformedRequestException {
+		if (!OPERATIONS.contains(map.get(OPERATION))) {
+			throw new MalformedRequestException("Unknown batch operation " + map.get(OPERATION));
+		}
+		if (!(map.get(PATH) instanceof String)) {
+			throw new MalformedRequestException("Batch entry without path: " + map);
+		}
+
+		BatchEntry ret = new BatchEntry();
+		ret.setMap(map);
+		return ret;
+	}
+
+	public String getOperation() {
+		return (String) get(OPERATION);
+	}
+
+	public String getPath() {
+		return (String) get(PATH);
+	}
+
+	/**
+	 * Returns the new value, the key to be deleted or the list of operation
+	 * parameters, depending on the operation
+	 *
+	 * @return
+	 */
+	public Object getParameter() {
+		return get(VALUE);
+	}
+
+	/**
+	 * Indicates if the entry may modify the model, i.e. if it is not a get
+	 * request
+	 *
+	 * @return
+	 */
+	public boolean isModification() {
+		return !GET.equals(getOperation());
+	}
+
+	/**
+	 * Returns a copy of this entry that targets another path, e.g. to forward it
+	 * to a nested provider
+	 *
+	 * @param path
+	 * @return
+	 */
+	public BatchEntry withPath(String path) {
+		if (containsKey(VALUE)) {
+			return new BatchEntry(getOperation(), path, getParameter());
+		}
+		return new BatchEntry(getOperation(), path);
+	}
+
+	/**
+	 * Executes this entry on the given provider. Exceptions are not thrown, but
+	 * returned as part of the result.
+	 *
+	 * @param provider
+	 * @return
+	 */
+	public BatchResult execute(IModelProvider provider) {
+		try {
+			return BatchResult.success(executeOperation(provider));
+		} catch (ProviderException e) {
+			return BatchResult.error(e);
+		} catch (RuntimeException e) {
+			return BatchResult.error(new ProviderException(e));
+		}
+	}
+
+	private Object executeOperation(IModelProvider provider) throws ProviderException {
+		String path = getPath();
+		switch (getOperation()) {
+		case GET:
+			return provider.getValue(path);
+		case SET:
+			provider.setValue(path, getParameter());
+			return null;
+		case CREATE:
+			provider.createValue(path, getParameter());
+			return null;
+		case DELETE:
+			if (containsKey(VALUE)) {
+				provider.deleteValue(path, getParameter());
+			} else {
+				provider.deleteValue(path);
+			}
+			return null;
+		case INVOKE:
+			return provider.invokeOperation(path, getParameterArray());
+		default:
+			throw new MalformedRequestException("Unknown batch operation " + getOperation());
+		}
+	}
+
+	private Object[] getParameterArray() {
+		Object value = getParameter();
+		if (value instanceof Collection<?>) {
+			return ((Collection<?>) value).toArray();
+		} else if (value instanceof Object[]) {
+			return (Object[]) value;
+		} else {
+			return new Object[] { value };
+		}
+	}
+}
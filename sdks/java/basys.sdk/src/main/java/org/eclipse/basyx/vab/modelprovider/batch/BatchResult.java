@@ -0,0 +1,115 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.basyx.vab.modelprovider.batch;
+
+import java.util.Collection;
+import java.util.Map;
+
+import org.eclipse.basyx.vab.coder.json.metaprotocol.Message;
+import org.eclipse.basyx.vab.coder.json.metaprotocol.MetaprotocolHandler;
+import org.eclipse.basyx.vab.coder.json.metaprotocol.Result;
+import org.eclipse.basyx.vab.exception.provider.ProviderException;
+import org.eclipse.basyx.vab.model.VABModelMap;
+
+/**
+ * Result of a single {@link BatchEntry}. Contains either the value returned by
+ * the entry or the error it caused. Errors are encoded like the errors of
+ * single requests, see {@link Result}.
+ *
+ * @author schnicke
+ *
+ */
+public class BatchResult extends VABModelMap<Object> {
+	public static final String VALUE = "value";
+	public static final String ERROR = "error";
+
+	private BatchResult() {
+	}
+
+	/**
+	 * Creates the result of a successful entry
+	 *
+	 * @param value
+	 *            the returned value, null for entries without return value
+	 * @return
+	 */
+	public static BatchResult success(Object value) {
+		BatchResult ret = new BatchResult();
+		ret.put(VALUE, value);
+		return ret;
+	}
+
+	/**
+	 * Creates the result of a failed entry
+	 *
+	 * @param e
+	 * @return
+	 */
+	public static BatchResult error(ProviderException e) {
+		BatchResult ret = new BatchResult();
+		ret.put(ERROR, new Result(e));
+		return ret;
+	}
+
+	/**
+	 * Creates a BatchResult facade for a deserialized result
+	 *
+	 * @param map
+	 * @return
+	 */
+	public static BatchResult createAsFacade(Map<String, Object> map) {
+		if (map == null) {
+			return null;
+		}
+
+		BatchResult ret = new BatchResult();
+		ret.setMap(map);
+		return ret;
+	}
+
+	public boolean isSuccess() {
+		return !containsKey(ERROR);
+	}
+
+	/**
+	 * Returns the value returned by the entry
+	 *
+	 * @return
+	 * @throws ProviderException
+	 *             the error caused by the entry
+	 */
+	public Object getValue() throws ProviderException {
+		if (!isSuccess()) {
+			throw getException();
+		}
+		return get(VALUE);
+	}
+
+	/**
+	 * Returns the error caused by the entry
+	 *
+	 * @return the exception or null, if the entry was successful
+	 */
+	@SuppressWarnings("unchecked")
+	public ProviderException getException() {
+		if (isSuccess()) {
+			return null;
+		}
+
+		Map<String, Object> error = (Map<String, Object>) get(ERROR);
+		Collection<Map<String, Object>> messages = (Collection<Map<String, Object>>) error.get(Result.MESSAGES);
+		if (messages == null || messages.isEmpty()) {
+			return new ProviderException("Unknown error occured: Batch entry failed without a message");
+		}
+
+		Map<String, Object> first = messages.iterator().next();
+		return MetaprotocolHandler.getExceptionFromCode((String) first.get(Message.CODE), (String) first.get(Message.TEXT));
+	}
+}
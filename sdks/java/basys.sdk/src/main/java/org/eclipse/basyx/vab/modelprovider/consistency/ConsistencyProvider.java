@@ -100,6 +100,36 @@ public class ConsistencyProvider<T extends IModelProvider> implements IModelProv
 
 	}
 
+	@Override
+	public boolean supportsVersions(String path) {
+		return providerBackend.supportsVersions(path);
+	}
+
+	@Override
+	public long getVersion(String path) throws ProviderException {
+		return providerBackend.getVersion(path);
+	}
+
+	/**
+	 * Validate frozen property, set the value if its element has the expected
+	 * version and increase clock
+	 * 
+	 * @param path
+	 * @param expectedVersion
+	 * @param newValue
+	 * @throws Exception
+	 */
+	@Override
+	public long compareAndSet(String path, long expectedVersion, Object newValue) throws ProviderException {
+		if (this.frozen) {
+			throw new ProviderException("Value " + path + " is read only");
+		}
+
+		long version = providerBackend.compareAndSet(path, expectedVersion, newValue);
+		incrementClock();
+		return version;
+	}
+
 	/**
 	 * Create new Entity, check if submodel is frozen
 	 * 
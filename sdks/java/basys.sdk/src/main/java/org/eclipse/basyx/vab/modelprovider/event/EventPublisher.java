@@ -0,0 +1,323 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.basyx.vab.modelprovider.event;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Publisher that delivers submitted events asynchronously to its subscribers,
+ * similar to java.util.concurrent.SubmissionPublisher.<br />
+ * <br />
+ * Each subscription buffers the events that have not been requested yet. The
+ * events are delivered by the given executor, so that publishing never blocks
+ * on slow subscribers. If the buffer of a subscription is exceeded, the
+ * subscription fails with an {@link IllegalStateException}.<br />
+ * <br />
+ * Subscribers may block while receiving events, e.g. when writing to a
+ * network connection. Thus, events are not delivered by the common pool, but
+ * by a dedicated executor with a bounded number of threads, see
+ * {@link #getDefaultExecutor()}.
+ * 
+ * @author schnicke
+ *
+ * @param <T>
+ *            type of the published events
+ */
+public class EventPublisher<T> implements IPublisher<T> {
+	private static Logger logger = LoggerFactory.getLogger(EventPublisher.class);
+
+	public static final int DEFAULT_BUFFER_CAPACITY = 256;
+
+	private static final int DEFAULT_THREADS = Math.max(4, Runtime.getRuntime().availableProcessors());
+
+	private static final Executor DEFAULT_EXECUTOR = createDefaultExecutor();
+
+	private final Executor executor;
+	private final int bufferCapacity;
+	private final List<BufferedSubscription> subscriptions = new CopyOnWriteArrayList<>();
+	private volatile boolean closed = false;
+
+	/**
+	 * Creates a publisher that delivers events using the
+	 * {@link #getDefaultExecutor() default executor}
+	 */
+	public EventPublisher() {
+		this(DEFAULT_EXECUTOR, DEFAULT_BUFFER_CAPACITY);
+	}
+
+	/**
+	 * @param executor
+	 *            executor delivering the events
+	 * @param bufferCapacity
+	 *            maximum number of buffered events per subscription
+	 */
+	public EventPublisher(Executor executor, int bufferCapacity) {
+		if (bufferCapacity < 1) {
+			throw new IllegalArgumentException("Invalid buffer capacity " + bufferCapacity);
+		}
+		this.executor = executor;
+		this.bufferCapacity = bufferCapacity;
+	}
+
+	/**
+	 * Returns the executor that is shared by all publishers without an explicit
+	 * executor. Its threads are daemon threads that terminate when idle.
+	 * 
+	 * @return
+	 */
+	public static Executor getDefaultExecutor() {
+		return DEFAULT_EXECUTOR;
+	}
+
+	@Override
+	public void subscribe(ISubscriber<? super T> subscriber) {
+		subscribe(subscriber, item -> true);
+	}
+
+	/**
+	 * Adds a subscriber that only receives the events accepted by the filter
+	 * 
+	 * @param subscriber
+	 * @param filter
+	 */
+	public void subscribe(ISubscriber<? super T> subscriber, Predicate<? super T> filter) {
+		BufferedSubscription subscription = new BufferedSubscription(subscriber, filter);
+		subscriptions.add(subscription);
+		if (closed) {
+			subscriptions.remove(subscription);
+			subscription.complete();
+		}
+		subscription.schedule();
+	}
+
+	/**
+	 * Returns a view of this publisher that only publishes the events accepted
+	 * by the filter
+	 * 
+	 * @param filter
+	 * @return
+	 */
+	public IPublisher<T> filter(Predicate<? super T> filter) {
+		return subscriber -> subscribe(subscriber, filter);
+	}
+
+	/**
+	 * Publishes an event to all current subscribers
+	 * 
+	 * @param item
+	 */
+	public void submit(T item) {
+		for (BufferedSubscription subscription : subscriptions) {
+			subscription.offer(item);
+		}
+	}
+
+	/**
+	 * Indicates if there are subscribers, e.g. to avoid creating events nobody
+	 * receives
+	 * 
+	 * @return
+	 */
+	public boolean hasSubscribers() {
+		return !subscriptions.isEmpty();
+	}
+
+	public int getNumberOfSubscribers() {
+		return subscriptions.size();
+	}
+
+	/**
+	 * Completes all subscriptions after their buffered events have been
+	 * delivered. Later subscribers are completed immediately.
+	 */
+	public void close() {
+		closed = true;
+		for (BufferedSubscription subscription : subscriptions) {
+			subscriptions.remove(subscription);
+			subscription.complete();
+		}
+	}
+
+	/**
+	 * Subscription buffering the events of one subscriber. All signals to the
+	 * subscriber are sent by a single task at a time.
+	 */
+	private class BufferedSubscription implements ISubscription, Runnable {
+		private final ISubscriber<? super T> subscriber;
+		private final Predicate<? super T> filter;
+
+		private final Queue<T> buffer = new ConcurrentLinkedQueue<>();
+		private final AtomicInteger size = new AtomicInteger();
+		private final AtomicLong demand = new AtomicLong();
+		private final AtomicBoolean scheduled = new AtomicBoolean();
+
+		private volatile boolean subscribed = false;
+		private volatile boolean terminated = false;
+		private volatile boolean cancelled = false;
+		private volatile boolean completed = false;
+		private volatile Throwable error = null;
+
+		private BufferedSubscription(ISubscriber<? super T> subscriber, Predicate<? super T> filter) {
+			this.subscriber = subscriber;
+			this.filter = filter;
+		}
+
+		private void offer(T item) {
+			if (cancelled || completed || error != null) {
+				return;
+			}
+
+			try {
+				if (!filter.test(item)) {
+					return;
+				}
+			} catch (RuntimeException e) {
+				fail(e);
+				return;
+			}
+
+			if (size.incrementAndGet() > bufferCapacity) {
+				size.decrementAndGet();
+				fail(new IllegalStateException("Subscriber does not keep up with the published events, exceeded buffer capacity of " + bufferCapacity));
+				return;
+			}
+			buffer.add(item);
+			schedule();
+		}
+
+		private void complete() {
+			completed = true;
+			schedule();
+		}
+
+		private void fail(Throwable throwable) {
+			if (error == null) {
+				error = throwable;
+			}
+			subscriptions.remove(this);
+			schedule();
+		}
+
+		@Override
+		public void request(long n) {
+			if (n <= 0) {
+				fail(new IllegalArgumentException("Number of requested events has to be positive, was " + n));
+				return;
+			}
+
+			// Cap at Long.MAX_VALUE, which means unbounded
+			demand.accumulateAndGet(n, (current, added) -> current + added < 0 ? Long.MAX_VALUE : current + added);
+			schedule();
+		}
+
+		@Override
+		public void cancel() {
+			cancelled = true;
+			subscriptions.remove(this);
+			buffer.clear();
+		}
+
+		private void schedule() {
+			if (scheduled.compareAndSet(false, true)) {
+				try {
+					executor.execute(this);
+				} catch (RejectedExecutionException e) {
+					logger.warn("Could not deliver events, cancelling subscription", e);
+					scheduled.set(false);
+					cancel();
+				}
+			}
+		}
+
+		@Override
+		public void run() {
+			try {
+				deliver();
+			} finally {
+				scheduled.set(false);
+			}
+
+			// Signals that arrived while delivering
+			if (hasPendingSignals()) {
+				schedule();
+			}
+		}
+
+		private boolean hasPendingSignals() {
+			if (terminated || cancelled) {
+				return false;
+			}
+			return !subscribed || error != null || (completed && buffer.isEmpty()) || (demand.get() > 0 && !buffer.isEmpty());
+		}
+
+		private void deliver() {
+			if (terminated || cancelled) {
+				return;
+			}
+
+			try {
+				if (!subscribed) {
+					subscribed = true;
+					subscriber.onSubscribe(this);
+				}
+
+				while (!cancelled && error == null && demand.get() > 0) {
+					T item = buffer.poll();
+					if (item == null) {
+						break;
+					}
+					size.decrementAndGet();
+					demand.decrementAndGet();
+					subscriber.onNext(item);
+				}
+
+				if (cancelled) {
+					return;
+				}
+				if (error != null) {
+					terminated = true;
+					subscriber.onError(error);
+				} else if (completed && buffer.isEmpty()) {
+					terminated = true;
+					subscriber.onComplete();
+				}
+			} catch (RuntimeException e) {
+				logger.warn("Subscriber threw an exception, cancelling its subscription", e);
+				cancel();
+			}
+		}
+	}
+
+	private static Executor createDefaultExecutor() {
+		AtomicInteger count = new AtomicInteger();
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(DEFAULT_THREADS, DEFAULT_THREADS, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+			Thread thread = new Thread(r, "basyx-events-" + count.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
+	}
+}
@@ -0,0 +1,45 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.basyx.vab.modelprovider.event;
+
+import java.util.function.Function;
+
+/**
+ * Source of events that are delivered to subscribers. Follows the contract of
+ * java.util.concurrent.Flow.Publisher, which is not available in Java 8.
+ * 
+ * @author schnicke
+ *
+ * @param <T>
+ *            type of the published events
+ */
+@FunctionalInterface
+public interface IPublisher<T> {
+
+	/**
+	 * Adds a subscriber. The subscriber receives
+	 * {@link ISubscriber#onSubscribe(ISubscription)} before any other signal.
+	 * 
+	 * @param subscriber
+	 */
+	public void subscribe(ISubscriber<? super T> subscriber);
+
+	/**
+	 * Returns a publisher that converts the events of this publisher. If the
+	 * conversion fails, the subscription is cancelled and the subscriber
+	 * receives the error.
+	 * 
+	 * @param mapper
+	 * @return
+	 */
+	public default <R> IPublisher<R> map(Function<? super T, ? extends R> mapper) {
+		return subscriber -> subscribe(new MappingSubscriber<T, R>(subscriber, mapper));
+	}
+}
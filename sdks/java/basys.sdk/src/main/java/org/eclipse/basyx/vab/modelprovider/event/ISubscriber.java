@@ -0,0 +1,51 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.basyx.vab.modelprovider.event;
+
+/**
+ * Receiver of events published by an {@link IPublisher}. Follows the contract
+ * of java.util.concurrent.Flow.Subscriber, i.e. the methods are never called
+ * concurrently for the same subscription.
+ * 
+ * @author schnicke
+ *
+ * @param <T>
+ *            type of the received events
+ */
+public interface ISubscriber<T> {
+
+	/**
+	 * Called before any other method. No events are delivered until they are
+	 * requested using the given subscription.
+	 * 
+	 * @param subscription
+	 */
+	public void onSubscribe(ISubscription subscription);
+
+	/**
+	 * Called for each requested event
+	 * 
+	 * @param item
+	 */
+	public void onNext(T item);
+
+	/**
+	 * Called if the subscription failed. No further methods are called.
+	 * 
+	 * @param throwable
+	 */
+	public void onError(Throwable throwable);
+
+	/**
+	 * Called if the publisher has no further events. No further methods are
+	 * called.
+	 */
+	public void onComplete();
+}
@@ -0,0 +1,34 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.basyx.vab.modelprovider.event;
+
+/**
+ * Link between an {@link IPublisher} and an {@link ISubscriber}. Follows the
+ * contract of java.util.concurrent.Flow.Subscription.
+ * 
+ * @author schnicke
+ *
+ */
+public interface ISubscription {
+
+	/**
+	 * Requests up to n further events. Requests are cumulative.
+	 * 
+	 * @param n
+	 *            number of events, has to be positive
+	 */
+	public void request(long n);
+
+	/**
+	 * Stops the delivery of events. Events may still be delivered for a short
+	 * time.
+	 */
+	public void cancel();
+}
@@ -0,0 +1,71 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.basyx.vab.modelprovider.event;
+
+import java.util.function.Function;
+
+/**
+ * Subscriber that converts the events before passing them on, see
+ * {@link IPublisher#map(Function)}
+ * 
+ * @author schnicke
+ *
+ */
+class MappingSubscriber<T, R> implements ISubscriber<T> {
+	private final ISubscriber<? super R> subscriber;
+	private final Function<? super T, ? extends R> mapper;
+	private ISubscription subscription;
+	private boolean done = false;
+
+	MappingSubscriber(ISubscriber<? super R> subscriber, Function<? super T, ? extends R> mapper) {
+		this.subscriber = subscriber;
+		this.mapper = mapper;
+	}
+
+	@Override
+	public void onSubscribe(ISubscription subscription) {
+		this.subscription = subscription;
+		subscriber.onSubscribe(subscription);
+	}
+
+	@Override
+	public void onNext(T item) {
+		if (done) {
+			return;
+		}
+
+		R mapped;
+		try {
+			mapped = mapper.apply(item);
+		} catch (RuntimeException e) {
+			done = true;
+			subscription.cancel();
+			subscriber.onError(e);
+			return;
+		}
+		subscriber.onNext(mapped);
+	}
+
+	@Override
+	public void onError(Throwable throwable) {
+		if (!done) {
+			done = true;
+			subscriber.onError(throwable);
+		}
+	}
+
+	@Override
+	public void onComplete() {
+		if (!done) {
+			done = true;
+			subscriber.onComplete();
+		}
+	}
+}
@@ -9,6 +9,7 @@
  ******************************************************************************/
 package org.eclipse.basyx.vab.modelprovider.generic;
 
+import org.eclipse.basyx.vab.model.ReadOnlyViews;
 import org.eclipse.basyx.vab.modelprovider.api.IModelProvider;
 
 /**
@@ -26,6 +27,14 @@ public interface IVABElementHandler {
 		return element;
 	}
 
+	/**
+	 * Handles internal objects that are only read, e.g. to serialize them. Returns
+	 * a read-only view instead of processing a copy.
+	 */
+	public default Object postprocessView(Object element) {
+		return ReadOnlyViews.of(element);
+	}
+
 	public Object getElementProperty(Object element, String propertyName);
 
 	public void setModelPropertyValue(Object element, String propertyName, Object newValue);
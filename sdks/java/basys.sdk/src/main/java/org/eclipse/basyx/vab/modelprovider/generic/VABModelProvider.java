@@ -44,6 +44,17 @@ public class VABModelProvider implements IModelProvider {
 		return handler.postprocessObject(element);
 	}
 
+	/**
+	 * Returns a view of the element instead of a copy, see
+	 * {@link IModelProvider#getValueView(String)}. Sub classes overriding
+	 * {@link #getValue(String)} have to override this method as well.
+	 */
+	@Override
+	public Object getValueView(String path) {
+		Object element = getTargetElement(path);
+		return handler.postprocessView(element);
+	}
+
 	@Override
 	public void setValue(String path, Object newValue) {
 		VABPathTools.checkPathForNull(path);
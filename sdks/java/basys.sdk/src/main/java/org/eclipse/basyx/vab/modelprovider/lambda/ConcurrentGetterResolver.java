@@ -0,0 +1,271 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.basyx.vab.modelprovider.lambda;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Calls the hidden getters of lambda properties for a {@link VABLambdaHandler}
+ * by the threads of an executor, so that the getters of a structure are called
+ * concurrently instead of one after another. Thus, reading a submodel whose
+ * properties are backed by slow device reads takes about as long as the
+ * slowest read instead of the sum of all reads.<br />
+ * <br />
+ * Each getter is called at most once at a time. Callers requesting a getter
+ * that is already being called wait for the same call, and values are reused
+ * for a configurable freshness window, so that concurrent requests share one
+ * device read. A caller waits for a getter at most for the configured timeout
+ * after the call has been started. If the getter does not return in time or
+ * fails, the configured {@link Fallback} is returned instead. The calls of
+ * getters that did not return in time keep running, but no further calls of
+ * the same getter are started until they return. Thus, a hung device blocks at
+ * most one thread of the executor.
+ * 
+ * @author schnicke
+ *
+ */
+public class ConcurrentGetterResolver {
+	private static Logger logger = LoggerFactory.getLogger(ConcurrentGetterResolver.class);
+
+	/**
+	 * Value returned for getters that did not return in time or failed
+	 */
+	public enum Fallback {
+		/**
+		 * The last value the getter returned, or the error marker, if it never
+		 * returned a value
+		 */
+		LAST_KNOWN_VALUE,
+
+		/**
+		 * Always the error marker
+		 */
+		ERROR_MARKER
+	}
+
+	private final Executor executor;
+	private final long timeout;
+	private final long freshness;
+	private final Fallback fallback;
+	private final Object errorMarker;
+
+	// The getters are only weakly referenced, so that removed properties do not
+	// keep their values
+	private final Map<Supplier<?>, GetterState> states = Collections.synchronizedMap(new WeakHashMap<>());
+
+	/**
+	 * Creates a resolver that does not reuse values and falls back to the last
+	 * known value, or null if there is none
+	 * 
+	 * @param executor
+	 *            executor calling the getters, its size bounds the number of
+	 *            concurrent calls
+	 * @param timeout
+	 *            maximum time to wait for a getter in milliseconds
+	 */
+	public ConcurrentGetterResolver(Executor executor, long timeout) {
+		this(executor, timeout, 0, Fallback.LAST_KNOWN_VALUE, null);
+	}
+
+	/**
+	 * @param executor
+	 *            executor calling the getters, its size bounds the number of
+	 *            concurrent calls
+	 * @param timeout
+	 *            maximum time to wait for a getter in milliseconds
+	 * @param freshness
+	 *            time in milliseconds, for which the value of a getter is reused
+	 *            after it has been returned, 0 if values are not reused
+	 * @param fallback
+	 *            value returned for getters that did not return in time or failed
+	 * @param errorMarker
+	 *            value indicating that no value could be retrieved
+	 */
+	public ConcurrentGetterResolver(Executor executor, long timeout, long freshness, Fallback fallback, Object errorMarker) {
+		if (timeout < 0 || freshness < 0) {
+			throw new IllegalArgumentException("Timeout and freshness must not be negative");
+		}
+		this.executor = executor;
+		this.timeout = TimeUnit.MILLISECONDS.toNanos(timeout);
+		this.freshness = TimeUnit.MILLISECONDS.toNanos(freshness);
+		this.fallback = fallback;
+		this.errorMarker = errorMarker;
+	}
+
+	/**
+	 * Starts the call of a getter without waiting for it, so that its value is
+	 * available when it is requested by {@link #get(Supplier)}
+	 * 
+	 * @param getter
+	 */
+	public void start(Supplier<?> getter) {
+		getState(getter).start(getter, false);
+	}
+
+	/**
+	 * Returns the value of a getter. Starts a call of the getter, if it is neither
+	 * being called nor has a fresh value.
+	 * 
+	 * @param getter
+	 * @return the value or the fallback, if the getter did not return in time or
+	 *         failed
+	 */
+	public Object get(Supplier<?> getter) {
+		GetterState state = getState(getter);
+		Call call = state.start(getter, true);
+		long remaining = call.startTime + timeout - System.nanoTime();
+		try {
+			// Returns right away for completed calls, even if the timeout has passed
+			return call.get(Math.max(0, remaining), TimeUnit.NANOSECONDS);
+		} catch (TimeoutException e) {
+			// Logged at debug level, since it is repeated for each request while a device hangs
+			logger.debug("Getter did not return within " + TimeUnit.NANOSECONDS.toMillis(timeout) + " ms");
+			return getFallback(state);
+		} catch (ExecutionException e) {
+			logger.warn("Getter failed", e.getCause());
+			return getFallback(state);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return getFallback(state);
+		}
+	}
+
+	/**
+	 * Drops the value of a getter, e.g. after its property has been changed, so
+	 * that the next request calls the getter again. A running call may have read
+	 * the value before the change, thus it is marked as stale: later requests
+	 * wait for a new call, which is started as soon as the running one has
+	 * returned.
+	 * 
+	 * @param getter
+	 */
+	public void invalidate(Supplier<?> getter) {
+		GetterState state = states.get(getter);
+		if (state != null) {
+			state.invalidate();
+		}
+	}
+
+	private GetterState getState(Supplier<?> getter) {
+		return states.computeIfAbsent(getter, g -> new GetterState());
+	}
+
+	private Object getFallback(GetterState state) {
+		if (fallback == Fallback.LAST_KNOWN_VALUE && state.hasValue) {
+			return state.lastValue;
+		}
+		return errorMarker;
+	}
+
+	/**
+	 * Call of a getter
+	 */
+	private static class Call extends CompletableFuture<Object> {
+		private final long startTime = System.nanoTime();
+
+		// Guarded by the state of the getter
+		private boolean delivered;
+		private boolean stale;
+	}
+
+	/**
+	 * Current call and last value of a getter
+	 */
+	private class GetterState {
+		// Guarded by this state
+		private Call call;
+
+		private volatile boolean hasValue;
+		private volatile Object lastValue;
+		private volatile long returnTime;
+
+		/**
+		 * Returns the current call, if it is still running, its value is fresh or
+		 * it has been started in advance and its value has not been requested yet.
+		 * Otherwise, a new call is started.
+		 * 
+		 * @param deliver
+		 *            true if the value of the call is requested
+		 */
+		private synchronized Call start(Supplier<?> getter, boolean deliver) {
+			if (call == null || (call.isDone() && (call.stale || (!isFresh() && !isPending())))) {
+				call = newCall(getter);
+			} else if (call.stale) {
+				// Follows the running call, so that the getter is still called once at a time
+				Call running = call;
+				Call next = new Call();
+				running.whenComplete((value, t) -> execute(getter, next));
+				call = next;
+			}
+			call.delivered |= deliver;
+			return call;
+		}
+
+		private Call newCall(Supplier<?> getter) {
+			Call newCall = new Call();
+			execute(getter, newCall);
+			return newCall;
+		}
+
+		private void execute(Supplier<?> getter, Call newCall) {
+			try {
+				executor.execute(() -> {
+					try {
+						Object value = getter.get();
+						lastValue = value;
+						returnTime = System.nanoTime();
+						hasValue = true;
+						newCall.complete(value);
+					} catch (Throwable t) {
+						newCall.completeExceptionally(t);
+					}
+				});
+			} catch (RejectedExecutionException e) {
+				newCall.completeExceptionally(e);
+			}
+		}
+
+		private synchronized void invalidate() {
+			if (call == null) {
+				return;
+			}
+			if (call.isDone()) {
+				call = null;
+			} else {
+				call.stale = true;
+			}
+		}
+
+		/**
+		 * Checks if the call has been started in advance for a request that has not
+		 * requested its value yet. Values started in advance are only kept for the
+		 * timeout, after which the request would not have waited for them anyway.
+		 */
+		private boolean isPending() {
+			return !call.delivered && System.nanoTime() - call.startTime <= timeout;
+		}
+
+		private boolean isFresh() {
+			return !call.isCompletedExceptionally() && System.nanoTime() - returnTime < freshness;
+		}
+	}
+}
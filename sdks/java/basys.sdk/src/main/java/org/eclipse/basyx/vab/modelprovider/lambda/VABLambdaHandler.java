@@ -20,11 +20,17 @@ import java.util.function.Supplier;
 
 import org.eclipse.basyx.vab.exception.provider.MalformedRequestException;
 import org.eclipse.basyx.vab.exception.provider.ResourceNotFoundException;
+import org.eclipse.basyx.vab.model.ReadOnlyViews;
 import org.eclipse.basyx.vab.modelprovider.map.VABMapHandler;
 
 /**
  * VABHandler that can additionally handle maps with hidden
- * get/set/delete/invoke properties.
+ * get/set/delete/invoke properties.<br />
+ * <br />
+ * By default, the hidden getters are called one after another by the
+ * requesting thread. If a {@link ConcurrentGetterResolver} is given, all
+ * getters of a requested structure are started at once and called
+ * concurrently.
  * 
  * @author schnicke, espen
  *
@@ -36,11 +42,39 @@ public class VABLambdaHandler extends VABMapHandler {
 	public static final String VALUE_REMOVEKEY_SUFFIX = "removeKey";
 	public static final String VALUE_REMOVEOBJ_SUFFIX = "removeObject";
 
+	// Calls the hidden getters, null if they are called directly
+	private final ConcurrentGetterResolver resolver;
+
+	public VABLambdaHandler() {
+		this(null);
+	}
+
+	/**
+	 * Creates a handler whose hidden getters are called by a resolver
+	 * 
+	 * @param resolver
+	 */
+	public VABLambdaHandler(ConcurrentGetterResolver resolver) {
+		this.resolver = resolver;
+	}
+
 	@Override
 	public Object postprocessObject(Object element) {
+		startGetters(element);
 		return super.postprocessObject(resolveAll(element));
 	}
 
+	/**
+	 * Resolves the lambda properties when they are accessed instead of resolving
+	 * the whole structure in advance. If getters are called concurrently, they
+	 * are started in advance nevertheless.
+	 */
+	@Override
+	public Object postprocessView(Object element) {
+		startGetters(element);
+		return ReadOnlyViews.of(element, this::resolveSingle);
+	}
+
 	@Override
 	public Object getElementProperty(Object element, String propertyName) {
 		return super.getElementProperty(resolveSingle(element), propertyName);
@@ -55,9 +89,11 @@ public class VABLambdaHandler extends VABMapHandler {
 		} catch (ResourceNotFoundException e) {}
 		if (hasHiddenSetter(child)) {
 			((Consumer<Object>) ((Map<String, Object>) child).get(VALUE_SET_SUFFIX)).accept(newValue);
+			invalidateGetter(child);
 		} else if (hasHiddenInserter(element) && (resolveSingle(element) instanceof Map<?, ?>)) {
 			((BiConsumer<String, Object>) ((Map<String, Object>) element).get(VALUE_INSERT_SUFFIX)).accept(propertyName,
 					newValue);
+			invalidateGetter(element);
 		} else {
 			super.setModelPropertyValue(resolveSingle(element), propertyName, newValue);
 		}
@@ -68,6 +104,7 @@ public class VABLambdaHandler extends VABMapHandler {
 	public void createValue(Object element, Object newValue) {
 		if (hasHiddenInserter(element)) {
 			((Consumer<Object>) ((Map<String, Object>) element).get(VALUE_INSERT_SUFFIX)).accept(newValue);
+			invalidateGetter(element);
 		} else {
 			super.createValue(element, newValue);
 		}
@@ -80,6 +117,7 @@ public class VABLambdaHandler extends VABMapHandler {
 			super.getElementProperty(resolveSingle(element), propertyName);
 			Consumer<String> c = (Consumer<String>) ((Map<String, Object>) element).get(VALUE_REMOVEKEY_SUFFIX);
 			c.accept(propertyName);
+			invalidateGetter(element);
 		} else {
 			super.deleteValue(element, propertyName);
 		}
@@ -95,6 +133,7 @@ public class VABLambdaHandler extends VABMapHandler {
 			}
 			Consumer<Object> c = (Consumer<Object>) ((Map<String, Object>) element).get(VALUE_REMOVEOBJ_SUFFIX);
 			c.accept(property);
+			invalidateGetter(element);
 		} else {
 			super.deleteValue(element, property);
 		}
@@ -103,19 +142,56 @@ public class VABLambdaHandler extends VABMapHandler {
 	@SuppressWarnings("unchecked")
 	private Object resolveSingle(Object o) {
 		while (hasHiddenGetter(o)) {
-			Map<?, ?> map = (Map<?, ?>) o;
-			o = ((Supplier<Object>) map.get(VALUE_GET_SUFFIX)).get();
+			Supplier<Object> getter = (Supplier<Object>) ((Map<?, ?>) o).get(VALUE_GET_SUFFIX);
+			o = resolver == null ? getter.get() : resolver.get(getter);
 		}
 		return o;
 	}
 
+	/**
+	 * Drops the reused value of a getter after its property has been changed
+	 */
+	private void invalidateGetter(Object o) {
+		if (resolver != null && hasHiddenGetter(o)) {
+			resolver.invalidate((Supplier<?>) ((Map<?, ?>) o).get(VALUE_GET_SUFFIX));
+		}
+	}
+
+	/**
+	 * Starts the calls of all getters contained in a structure, if getters are
+	 * called concurrently. The values of the getters are not traversed, since
+	 * they are not known yet.
+	 */
+	private void startGetters(Object o) {
+		if (resolver == null) {
+			return;
+		}
+
+		if (hasHiddenGetter(o)) {
+			resolver.start((Supplier<?>) ((Map<?, ?>) o).get(VALUE_GET_SUFFIX));
+		} else if (o instanceof Map<?, ?>) {
+			for (Object value : ((Map<?, ?>) o).values()) {
+				startGetters(value);
+			}
+		} else if (o instanceof Collection<?>) {
+			for (Object value : (Collection<?>) o) {
+				startGetters(value);
+			}
+		}
+	}
+
 	/**
 	 * Checks if a value is a raw value or points to a gettable property and
 	 * resolves the underlying structure
 	 */
 	@SuppressWarnings("unchecked")
 	private Object resolveAll(Object o) {
-		o = resolveSingle(o);
+		Object resolved = resolveSingle(o);
+		if (resolved != o) {
+			// The values of getters may contain further getters
+			startGetters(resolved);
+			o = resolved;
+		}
 		if (o instanceof Map<?, ?>) {
 			return resolveMap((Map<String, Object>) o);
 		} else if (o instanceof Collection<?>) {
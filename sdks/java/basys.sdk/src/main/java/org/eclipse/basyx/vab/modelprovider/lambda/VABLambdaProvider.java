@@ -30,4 +30,15 @@ public class VABLambdaProvider extends VABModelProvider {
 	public VABLambdaProvider(Map<String, Object> elements) {
 		super(elements, new VABLambdaHandler());
 	}
+
+	/**
+	 * Creates a provider whose hidden getters are called concurrently by the
+	 * given resolver, see {@link ConcurrentGetterResolver}
+	 * 
+	 * @param elements
+	 * @param resolver
+	 */
+	public VABLambdaProvider(Map<String, Object> elements, ConcurrentGetterResolver resolver) {
+		super(elements, new VABLambdaHandler(resolver));
+	}
 }
@@ -0,0 +1,58 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.basyx.vab.protocol.api;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Connector that performs requests without blocking the calling thread. The
+ * returned futures complete with the same results as the corresponding methods
+ * of {@link IBaSyxConnector}, or exceptionally with the
+ * {@link org.eclipse.basyx.vab.exception.provider.ProviderException
+ * ProviderException} they would throw.<br />
+ * Implementations may still perform the requests with a blocking transport on
+ * a thread pool, which bounds the number of requests in flight. See the
+ * documentation of the respective connector.
+ * 
+ * @author schnicke
+ *
+ */
+public interface IBaSyxAsyncConnector extends IBaSyxConnector {
+
+	/**
+	 * Asynchronous variant of {@link #getValue(String)}
+	 */
+	public CompletableFuture<String> getValueAsync(String path);
+
+	/**
+	 * Asynchronous variant of {@link #setValue(String, String)}
+	 */
+	public CompletableFuture<String> setValueAsync(String path, String newValue);
+
+	/**
+	 * Asynchronous variant of {@link #createValue(String, String)}
+	 */
+	public CompletableFuture<String> createValueAsync(String path, String newEntity);
+
+	/**
+	 * Asynchronous variant of {@link #deleteValue(String)}
+	 */
+	public CompletableFuture<String> deleteValueAsync(String path);
+
+	/**
+	 * Asynchronous variant of {@link #deleteValue(String, String)}
+	 */
+	public CompletableFuture<String> deleteValueAsync(String path, String obj);
+
+	/**
+	 * Asynchronous variant of {@link #invokeOperation(String, String)}
+	 */
+	public CompletableFuture<String> invokeOperationAsync(String path, String jsonObject);
+}
@@ -0,0 +1,32 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.basyx.vab.protocol.api;
+
+import org.eclipse.basyx.vab.exception.provider.ProviderException;
+
+/**
+ * Connector that transfers a whole batch of requests in one round trip, see
+ * {@link org.eclipse.basyx.vab.modelprovider.api.IModelProvider#processBatch(java.util.List)
+ * IModelProvider#processBatch}
+ * 
+ * @author schnicke
+ *
+ */
+public interface IBaSyxBatchConnector extends IBaSyxConnector {
+
+	/**
+	 * Process a batch of requests
+	 * 
+	 * @param entries
+	 *            Serialized list of batch entries
+	 * @return Serialized list of batch results
+	 */
+	public String processBatch(String entries) throws ProviderException;
+}
@@ -0,0 +1,32 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.basyx.vab.protocol.api;
+
+import org.eclipse.basyx.vab.modelprovider.event.IPublisher;
+
+/**
+ * Connector that is able to stream events from the server, see
+ * {@link org.eclipse.basyx.vab.modelprovider.api.IModelProvider#getEventPublisher(String)
+ * IModelProvider#getEventPublisher}
+ * 
+ * @author schnicke
+ *
+ */
+public interface IBaSyxEventConnector extends IBaSyxConnector {
+
+	/**
+	 * Returns a publisher of the events of a path. Each subscription opens a
+	 * separate stream.
+	 * 
+	 * @param path
+	 * @return Publisher of the serialized events
+	 */
+	public IPublisher<String> subscribe(String path);
+}
@@ -0,0 +1,42 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.basyx.vab.protocol.api;
+
+import org.eclipse.basyx.vab.exception.provider.ProviderException;
+
+/**
+ * Connector that supports versions of elements and conditional changes, see
+ * {@link org.eclipse.basyx.vab.modelprovider.api.IModelProvider#compareAndSet(String, long, Object)
+ * IModelProvider#compareAndSet}
+ * 
+ * @author schnicke
+ *
+ */
+public interface IBaSyxVersionConnector extends IBaSyxConnector {
+
+	/**
+	 * Get the version of an element
+	 * 
+	 * @param path
+	 * @return Serialized version
+	 */
+	public String getVersion(String path) throws ProviderException;
+
+	/**
+	 * Set a value, if its element has the expected version
+	 * 
+	 * @param path
+	 * @param expectedVersion
+	 * @param newValue
+	 *            Serialized value
+	 * @return Serialized new version
+	 */
+	public String compareAndSet(String path, long expectedVersion, String newValue) throws ProviderException;
+}
@@ -0,0 +1,89 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.basyx.vab.protocol.basyx;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Exception;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4SafeDecompressor;
+
+/**
+ * LZ4 compression of the values and results of the BaSyx TCP protocol
+ * version 2. A compressed value consists of its uncompressed length, followed
+ * by an LZ4 block.
+ * 
+ * @author schnicke
+ *
+ */
+public class FrameCompression {
+	/**
+	 * Default size in bytes from which values are compressed. Smaller values are
+	 * sent as they are, since they hardly shrink.
+	 */
+	public static final int DEFAULT_THRESHOLD = 1024;
+
+	// Limits the memory a single compressed value may allocate
+	private static final int MAX_UNCOMPRESSED_SIZE = 256 * 1024 * 1024;
+
+	private static final LZ4Compressor COMPRESSOR = LZ4Factory.fastestInstance().fastCompressor();
+	private static final LZ4SafeDecompressor DECOMPRESSOR = LZ4Factory.fastestInstance().safeDecompressor();
+
+	/**
+	 * Compresses a value
+	 * 
+	 * @param data
+	 * @param offset
+	 * @param length
+	 * @return uncompressed length and LZ4 block
+	 */
+	public static byte[] compress(byte[] data, int offset, int length) {
+		int maxLength = COMPRESSOR.maxCompressedLength(length);
+		byte[] compressed = new byte[4 + maxLength];
+		CoderTools.setInt32(compressed, 0, length);
+		int compressedLength = COMPRESSOR.compress(data, offset, length, compressed, 4, maxLength);
+		return Arrays.copyOf(compressed, 4 + compressedLength);
+	}
+
+	/**
+	 * Decompresses a value
+	 * 
+	 * @param data
+	 * @param offset
+	 * @param length
+	 *            length of the compressed value, including its uncompressed
+	 *            length
+	 * @return
+	 * @throws IOException
+	 *             if the value is no valid compressed value
+	 */
+	public static byte[] decompress(byte[] data, int offset, int length) throws IOException {
+		if (length < 4) {
+			throw new IOException("Compressed value is truncated");
+		}
+		int uncompressedLength = CoderTools.getInt32(data, offset);
+		if (uncompressedLength < 0 || uncompressedLength > MAX_UNCOMPRESSED_SIZE) {
+			throw new IOException("Invalid uncompressed length " + uncompressedLength);
+		}
+
+		byte[] uncompressed = new byte[uncompressedLength];
+		try {
+			int decompressedLength = DECOMPRESSOR.decompress(data, offset + 4, length - 4, uncompressed, 0, uncompressedLength);
+			if (decompressedLength != uncompressedLength) {
+				throw new IOException("Compressed value has " + decompressedLength + " instead of " + uncompressedLength + " bytes");
+			}
+		} catch (LZ4Exception e) {
+			throw new IOException("Invalid compressed value", e);
+		}
+		return uncompressed;
+	}
+}
@@ -0,0 +1,554 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.basyx.vab.protocol.basyx.connector;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousSocketChannel;
+import java.nio.channels.CompletionHandler;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
+import java.util.function.Consumer;
+
+import org.eclipse.basyx.vab.protocol.basyx.CoderTools;
+import org.eclipse.basyx.vab.protocol.basyx.FrameCompression;
+import org.eclipse.basyx.vab.protocol.basyx.server.VABBaSyxTCPInterface;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Persistent connection of a {@link BaSyxConnectionPool}. Requests are
+ * written as soon as the previous ones have been written, i.e. without
+ * waiting for their responses.<br />
+ * <br />
+ * The connection starts with a handshake that negotiates version 2 of the
+ * protocol and its compression. With version 2, each request carries an id,
+ * so that the server may process and answer the requests in any order, i.e.
+ * only requests that wait for each other are processed in order. Requests
+ * that are queued while a write is in progress are sent together in a batch
+ * frame.
+ * With version 1, the server answers the requests in order, thus the
+ * responses are assigned to the requests in the order they have been
+ * sent.<br />
+ * <br />
+ * A read is pending all the time, thus a connection that has been closed by
+ * the server is noticed and removed from the pool even while it is idle.
+ * 
+ * @author schnicke
+ *
+ */
+class BaSyxConnection {
+	private static Logger logger = LoggerFactory.getLogger(BaSyxConnection.class);
+
+	private static final int INITIAL_BUFFER_SIZE = 8192;
+
+	// Maximum number of requests in a single batch frame
+	private static final int MAX_BATCH_SIZE = 64;
+
+	/**
+	 * Request frame and the future of its response frame
+	 */
+	static class PendingRequest {
+		final InetSocketAddress address;
+		final byte[] call;
+		final boolean retryable;
+		final CompletableFuture<byte[]> response = new CompletableFuture<>();
+		int attempts = 0;
+		int id;
+
+		// Whether the request has been handed to the socket
+		boolean written = false;
+
+		PendingRequest(InetSocketAddress address, byte[] call, boolean retryable) {
+			this.address = address;
+			this.call = call;
+			this.retryable = retryable;
+		}
+	}
+
+	private final BaSyxConnectionPool pool;
+	private final BaSyxConnectionConfiguration configuration;
+	private final InetSocketAddress address;
+	private final AsynchronousSocketChannel channel;
+	private ByteBuffer readBuffer = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+	private volatile ScheduledFuture<?> handshakeTimer;
+
+	// Guarded by this
+	private final Map<Integer, PendingRequest> pending = new LinkedHashMap<>();
+	private final Deque<PendingRequest> unsent = new ArrayDeque<>();
+	private int nextId = 0;
+	private int version = 0;
+	private boolean compression = false;
+	private boolean connected = false;
+	private boolean writing = false;
+	private boolean closed = false;
+	private long lastActivity = System.currentTimeMillis();
+
+	BaSyxConnection(BaSyxConnectionPool pool, InetSocketAddress address) throws IOException {
+		this.pool = pool;
+		this.configuration = pool.getConfiguration();
+		this.address = address;
+		this.channel = AsynchronousSocketChannel.open();
+		// Pipelined requests are small and must not wait for the acknowledgement of the previous ones
+		channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+	}
+
+	/**
+	 * Connects to the server and performs the handshake. Requests that are
+	 * sent in the meantime are written as soon as the connection is
+	 * established.
+	 * 
+	 * @param timeout
+	 */
+	void connect(long timeout) {
+		ScheduledFuture<?> timer = timeout > 0 ? pool.schedule(() -> {
+			if (getVersion() == 0) {
+				close(new IOException("Connecting to " + address + " timed out"));
+			}
+		}, timeout) : null;
+
+		channel.connect(address, null, handler(v -> {
+			if (timer != null) {
+				timer.cancel(false);
+			}
+			if (configuration.getProtocolVersion() < 2 || pool.isLegacyEndpoint(address)) {
+				established(1, false);
+			} else {
+				sendHello();
+			}
+			read();
+		}));
+	}
+
+	/**
+	 * Offers the latest version and the supported capabilities to the server.
+	 * A server that does not answer in time is assumed to support version 1
+	 * only.
+	 */
+	private void sendHello() {
+		byte[] hello = new byte[4 + 3];
+		CoderTools.setInt32(hello, 0, 3);
+		hello[4] = VABBaSyxTCPInterface.BASYX_HELLO;
+		hello[5] = (byte) Math.min(configuration.getProtocolVersion(), VABBaSyxTCPInterface.BASYX_PROTOCOL_VERSION);
+		hello[6] = configuration.isCompressionEnabled() ? VABBaSyxTCPInterface.BASYX_CAPABILITY_LZ4 : 0;
+
+		if (configuration.getHandshakeTimeout() > 0) {
+			handshakeTimer = pool.schedule(() -> {
+				if (getVersion() == 0) {
+					pool.markLegacyEndpoint(address);
+					close(new IOException("Handshake with " + address + " timed out"));
+				}
+			}, configuration.getHandshakeTimeout());
+		}
+		writeFully(new ByteBuffer[] { ByteBuffer.wrap(hello) }, null);
+	}
+
+	/**
+	 * Evaluates the answer to the handshake, a version 1 response frame
+	 * carrying the accepted version and capabilities
+	 */
+	private void onHelloResponse(byte[] frame) throws IOException {
+		if (handshakeTimer != null) {
+			handshakeTimer.cancel(false);
+		}
+		if (frame.length < 1 + 4 + 2 || frame[0] != VABBaSyxTCPInterface.BASYX_RESULT_OK || CoderTools.getInt32(frame, 1) != 2) {
+			// The server has probably treated the handshake as request
+			pool.markLegacyEndpoint(address);
+			throw new IOException("Invalid answer to the handshake");
+		}
+		int acceptedVersion = frame[5];
+		if (acceptedVersion < 1 || acceptedVersion > configuration.getProtocolVersion()) {
+			throw new IOException("Server accepted unsupported protocol version " + acceptedVersion);
+		}
+		if (acceptedVersion < 2) {
+			pool.markLegacyEndpoint(address);
+		}
+		boolean lz4 = (frame[6] & VABBaSyxTCPInterface.BASYX_CAPABILITY_LZ4) != 0;
+		established(acceptedVersion, lz4 && configuration.isCompressionEnabled());
+	}
+
+	/**
+	 * Starts writing the queued requests with the negotiated protocol
+	 */
+	private void established(int negotiatedVersion, boolean negotiatedCompression) {
+		synchronized (this) {
+			version = negotiatedVersion;
+			compression = negotiatedCompression;
+			connected = true;
+			if (writing) {
+				return;
+			}
+			writing = true;
+		}
+		writeNext();
+	}
+
+	/**
+	 * Queues a request
+	 * 
+	 * @param request
+	 * @return false, if the connection has been closed
+	 */
+	boolean send(PendingRequest request) {
+		boolean startWriting;
+		synchronized (this) {
+			if (closed) {
+				return false;
+			}
+			request.written = false;
+			request.id = nextId++;
+			pending.put(request.id, request);
+			unsent.add(request);
+			startWriting = connected && !writing;
+			writing |= startWriting;
+		}
+		if (startWriting) {
+			writeNext();
+		}
+		return true;
+	}
+
+	synchronized int getOutstandingRequests() {
+		return pending.size();
+	}
+
+	synchronized boolean isClosed() {
+		return closed;
+	}
+
+	/**
+	 * Returns the negotiated protocol version, 0 during the handshake
+	 */
+	synchronized int getVersion() {
+		return version;
+	}
+
+	/**
+	 * Closes the connection, if it has been idle for longer than the timeout
+	 * 
+	 * @param now
+	 *            current time in milliseconds
+	 * @param idleTimeout
+	 * @return whether the connection has been closed
+	 */
+	boolean closeIfIdle(long now, long idleTimeout) {
+		synchronized (this) {
+			if (closed || !pending.isEmpty() || now - lastActivity <= idleTimeout) {
+				return false;
+			}
+			closed = true;
+		}
+		release(new ArrayList<>(), null);
+		return true;
+	}
+
+	/**
+	 * Writes the queued requests. Only one write may be pending on the channel.
+	 */
+	private void writeNext() {
+		List<PendingRequest> requests = new ArrayList<>();
+		int currentVersion;
+		boolean currentCompression;
+		synchronized (this) {
+			if (unsent.isEmpty() || closed) {
+				writing = false;
+				return;
+			}
+			while (!unsent.isEmpty() && requests.size() < MAX_BATCH_SIZE) {
+				PendingRequest request = unsent.poll();
+				request.written = true;
+				requests.add(request);
+			}
+			currentVersion = version;
+			currentCompression = compression;
+		}
+
+		ByteBuffer[] buffers;
+		if (currentVersion < 2) {
+			buffers = new ByteBuffer[requests.size()];
+			for (int i = 0; i < buffers.length; i++) {
+				buffers[i] = ByteBuffer.wrap(requests.get(i).call);
+			}
+		} else {
+			buffers = encode(requests, currentCompression);
+		}
+		writeFully(buffers, this::writeNext);
+	}
+
+	/**
+	 * Encodes requests as version 2 frames. Several requests are combined in a
+	 * batch frame.
+	 */
+	private ByteBuffer[] encode(List<PendingRequest> requests, boolean compress) {
+		boolean batch = requests.size() > 1;
+		ByteBuffer[] buffers = new ByteBuffer[2 * requests.size() + (batch ? 1 : 0)];
+		int index = batch ? 1 : 0;
+		int batchSize = 1 + 4;
+		for (PendingRequest request : requests) {
+			byte flags = 0;
+			// Command, path and value of the version 1 frame
+			ByteBuffer content = ByteBuffer.wrap(request.call, 4, request.call.length - 4);
+			byte[] compressed = compress ? compressValue(request.call) : null;
+			if (compressed != null) {
+				flags = VABBaSyxTCPInterface.BASYX_FLAG_COMPRESSED;
+				content = ByteBuffer.wrap(compressed);
+			}
+
+			byte[] header = new byte[4 + 1 + 4];
+			CoderTools.setInt32(header, 0, 1 + 4 + content.remaining());
+			header[4] = flags;
+			CoderTools.setInt32(header, 5, request.id);
+			buffers[index++] = ByteBuffer.wrap(header);
+			buffers[index++] = content;
+			batchSize += header.length + content.remaining();
+		}
+
+		if (batch) {
+			byte[] header = new byte[4 + 1 + 4];
+			CoderTools.setInt32(header, 0, batchSize);
+			header[4] = VABBaSyxTCPInterface.BASYX_FLAG_BATCH;
+			CoderTools.setInt32(header, 5, requests.size());
+			buffers[0] = ByteBuffer.wrap(header);
+		}
+		return buffers;
+	}
+
+	/**
+	 * Returns the content of a version 1 frame with compressed value, or null
+	 * if the value is too small to be compressed
+	 */
+	private byte[] compressValue(byte[] call) {
+		int valueOffset = 4 + 1 + 4 + CoderTools.getInt32(call, 5);
+		if (valueOffset + 4 > call.length) {
+			return null;
+		}
+		int valueLength = CoderTools.getInt32(call, valueOffset);
+		if (valueLength < configuration.getCompressionThreshold()) {
+			return null;
+		}
+
+		byte[] value = FrameCompression.compress(call, valueOffset + 4, valueLength);
+		int prefixLength = valueOffset - 4;
+		byte[] content = new byte[prefixLength + 4 + value.length];
+		System.arraycopy(call, 4, content, 0, prefixLength);
+		CoderTools.setInt32(content, prefixLength, value.length);
+		System.arraycopy(value, 0, content, prefixLength + 4, value.length);
+		return content;
+	}
+
+	/**
+	 * Writes the buffers completely, then continues with the next step
+	 */
+	private void writeFully(ByteBuffer[] buffers, Runnable next) {
+		channel.write(buffers, 0, buffers.length, 0, null, null, handler(written -> {
+			synchronized (this) {
+				lastActivity = System.currentTimeMillis();
+			}
+			if (buffers[buffers.length - 1].hasRemaining()) {
+				writeFully(buffers, next);
+			} else if (next != null) {
+				next.run();
+			}
+		}));
+	}
+
+	private void read() {
+		channel.read(readBuffer, null, handler(read -> {
+			if (read < 0) {
+				close(new IOException("Connection has been closed by the provider"));
+				return;
+			}
+			readBuffer.flip();
+			if (processFrames()) {
+				read();
+			}
+		}));
+	}
+
+	/**
+	 * Completes the requests with the frames that have been received
+	 * completely. Leaves the buffer ready for the next read.
+	 * 
+	 * @return false, if the connection has been closed
+	 */
+	private boolean processFrames() {
+		try {
+			while (readBuffer.remaining() >= 4) {
+				int frameSize = CoderTools.getInt32(readBuffer.array(), readBuffer.position());
+				if (frameSize < 1) {
+					throw new IOException("Received invalid frame size " + frameSize);
+				}
+				if (readBuffer.remaining() < 4 + frameSize) {
+					break;
+				}
+				readBuffer.position(readBuffer.position() + 4);
+				processFrame(frameSize);
+			}
+		} catch (IOException e) {
+			close(e);
+			return false;
+		}
+
+		// Grow the buffer, if the next frame does not fit
+		int required = readBuffer.remaining() >= 4 ? 4 + CoderTools.getInt32(readBuffer.array(), readBuffer.position()) : 0;
+		if (required > readBuffer.capacity()) {
+			ByteBuffer larger = ByteBuffer.allocate(required);
+			larger.put(readBuffer);
+			readBuffer = larger;
+		} else {
+			readBuffer.compact();
+		}
+		return true;
+	}
+
+	/**
+	 * Completes the request of the next frame in the read buffer
+	 */
+	private void processFrame(int frameSize) throws IOException {
+		int currentVersion = getVersion();
+		if (currentVersion == 0) {
+			byte[] frame = new byte[frameSize];
+			readBuffer.get(frame);
+			onHelloResponse(frame);
+			return;
+		}
+
+		PendingRequest request;
+		byte[] response;
+		if (currentVersion == 1) {
+			response = new byte[frameSize];
+			readBuffer.get(response);
+			request = removePending(null);
+		} else {
+			if (frameSize < 1 + 4 + 1 + 4) {
+				throw new IOException("Response frame is too short");
+			}
+			byte flags = readBuffer.get();
+			int id = CoderTools.getInt32(readBuffer.array(), readBuffer.position());
+			readBuffer.position(readBuffer.position() + 4);
+			response = new byte[frameSize - 5];
+			readBuffer.get(response);
+			request = removePending(id);
+			if ((flags & VABBaSyxTCPInterface.BASYX_FLAG_COMPRESSED) != 0) {
+				response = decompressResult(response);
+			}
+		}
+
+		if (request == null) {
+			throw new IOException("Received a response without request");
+		}
+		request.response.complete(response);
+	}
+
+	/**
+	 * Removes the request of a response
+	 * 
+	 * @param id
+	 *            id of the request, or null for the oldest one
+	 */
+	private synchronized PendingRequest removePending(Integer id) {
+		PendingRequest request;
+		if (id == null) {
+			Iterator<PendingRequest> iterator = pending.values().iterator();
+			request = iterator.hasNext() ? iterator.next() : null;
+			if (request != null) {
+				iterator.remove();
+			}
+		} else {
+			request = pending.remove(id);
+		}
+		lastActivity = System.currentTimeMillis();
+		return request;
+	}
+
+	/**
+	 * Returns the content of a version 1 response frame, i.e. status, result
+	 * length and decompressed result
+	 */
+	private static byte[] decompressResult(byte[] response) throws IOException {
+		int length = CoderTools.getInt32(response, 1);
+		if (length < 0 || 1 + 4 + length > response.length) {
+			throw new IOException("Invalid result length " + length);
+		}
+		byte[] result = FrameCompression.decompress(response, 1 + 4, length);
+		byte[] decompressed = new byte[1 + 4 + result.length];
+		decompressed[0] = response[0];
+		CoderTools.setInt32(decompressed, 1, result.length);
+		System.arraycopy(result, 0, decompressed, 1 + 4, result.length);
+		return decompressed;
+	}
+
+	private <V> CompletionHandler<V, Void> handler(Consumer<V> next) {
+		return new CompletionHandler<V, Void>() {
+			@Override
+			public void completed(V value, Void attachment) {
+				try {
+					next.accept(value);
+				} catch (RuntimeException e) {
+					close(new IOException(e));
+				}
+			}
+
+			@Override
+			public void failed(Throwable throwable, Void attachment) {
+				close(throwable instanceof IOException ? (IOException) throwable : new IOException(throwable));
+			}
+		};
+	}
+
+	/**
+	 * Closes the connection. Outstanding requests are retried by the pool or
+	 * failed.
+	 * 
+	 * @param cause
+	 */
+	void close(IOException cause) {
+		List<PendingRequest> failed;
+		synchronized (this) {
+			if (closed) {
+				return;
+			}
+			closed = true;
+			failed = new ArrayList<>(pending.values());
+			pending.clear();
+			unsent.clear();
+		}
+		if (handshakeTimer != null) {
+			handshakeTimer.cancel(false);
+		}
+		release(failed, cause);
+	}
+
+	// Is called without holding the lock, since the pool locks the endpoint before the connection
+	private void release(List<PendingRequest> failed, IOException cause) {
+		try {
+			channel.close();
+		} catch (IOException e) {
+			logger.trace("Exception while closing connection", e);
+		}
+		pool.connectionClosed(this, address);
+
+		if (!failed.isEmpty()) {
+			logger.debug("Connection to " + address + " failed with " + failed.size() + " outstanding requests", cause);
+		}
+		for (PendingRequest request : failed) {
+			pool.retryOrFail(request, cause);
+		}
+	}
+}
@@ -0,0 +1,127 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.basyx.vab.protocol.basyx.connector;
+
+import org.eclipse.basyx.vab.protocol.basyx.FrameCompression;
+import org.eclipse.basyx.vab.protocol.basyx.server.VABBaSyxTCPInterface;
+
+/**
+ * Settings of the pooled connections of a {@link BaSyxConnectionPool}. All
+ * timeouts are given in milliseconds, 0 disables a timeout.
+ * 
+ * @author schnicke
+ *
+ */
+public class BaSyxConnectionConfiguration {
+	public static final int DEFAULT_MAX_CONNECTIONS_PER_ENDPOINT = 4;
+	public static final int DEFAULT_CONNECT_TIMEOUT = 10000;
+	public static final int DEFAULT_IDLE_TIMEOUT = 15000;
+	public static final int DEFAULT_HANDSHAKE_TIMEOUT = 2000;
+
+	private int maxConnectionsPerEndpoint = DEFAULT_MAX_CONNECTIONS_PER_ENDPOINT;
+	private int connectTimeout = DEFAULT_CONNECT_TIMEOUT;
+	private int idleTimeout = DEFAULT_IDLE_TIMEOUT;
+	private int protocolVersion = VABBaSyxTCPInterface.BASYX_PROTOCOL_VERSION;
+	private int handshakeTimeout = DEFAULT_HANDSHAKE_TIMEOUT;
+	private boolean compressionEnabled = true;
+	private int compressionThreshold = FrameCompression.DEFAULT_THRESHOLD;
+
+	/**
+	 * Returns the maximum number of connections to a single endpoint. If all
+	 * of them are busy, further requests are pipelined on the connection with
+	 * the least outstanding requests.
+	 * 
+	 * @return
+	 */
+	public int getMaxConnectionsPerEndpoint() {
+		return maxConnectionsPerEndpoint;
+	}
+
+	public void setMaxConnectionsPerEndpoint(int maxConnectionsPerEndpoint) {
+		this.maxConnectionsPerEndpoint = maxConnectionsPerEndpoint;
+	}
+
+	public int getConnectTimeout() {
+		return connectTimeout;
+	}
+
+	public void setConnectTimeout(int connectTimeout) {
+		this.connectTimeout = connectTimeout;
+	}
+
+	/**
+	 * Returns the time after which connections without outstanding requests
+	 * are closed
+	 * 
+	 * @return
+	 */
+	public int getIdleTimeout() {
+		return idleTimeout;
+	}
+
+	public void setIdleTimeout(int idleTimeout) {
+		this.idleTimeout = idleTimeout;
+	}
+
+	/**
+	 * Returns the highest protocol version the connections negotiate. Version 1
+	 * skips the handshake, which is needed for servers that do not answer it.
+	 * 
+	 * @return
+	 */
+	public int getProtocolVersion() {
+		return protocolVersion;
+	}
+
+	public void setProtocolVersion(int protocolVersion) {
+		this.protocolVersion = protocolVersion;
+	}
+
+	/**
+	 * Returns the time to wait for the answer to the handshake. Endpoints that
+	 * do not answer in time are assumed to support version 1 only.
+	 * 
+	 * @return
+	 */
+	public int getHandshakeTimeout() {
+		return handshakeTimeout;
+	}
+
+	public void setHandshakeTimeout(int handshakeTimeout) {
+		this.handshakeTimeout = handshakeTimeout;
+	}
+
+	/**
+	 * Returns whether the connections offer LZ4 compression in the handshake
+	 * 
+	 * @return
+	 */
+	public boolean isCompressionEnabled() {
+		return compressionEnabled;
+	}
+
+	public void setCompressionEnabled(boolean compressionEnabled) {
+		this.compressionEnabled = compressionEnabled;
+	}
+
+	/**
+	 * Returns the size in bytes from which values are compressed, if the
+	 * server supports compression
+	 * 
+	 * @return
+	 */
+	public int getCompressionThreshold() {
+		return compressionThreshold;
+	}
+
+	public void setCompressionThreshold(int compressionThreshold) {
+		this.compressionThreshold = compressionThreshold;
+	}
+}
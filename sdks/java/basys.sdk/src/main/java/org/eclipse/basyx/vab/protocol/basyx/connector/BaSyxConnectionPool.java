@@ -0,0 +1,283 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.basyx.vab.protocol.basyx.connector;
+
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.eclipse.basyx.vab.protocol.basyx.connector.BaSyxConnection.PendingRequest;
+
+/**
+ * Shares persistent connections between the {@link BaSyxConnector}s to the
+ * same endpoint. A request uses an idle connection, or opens a new one as long
+ * as the maximum number of connections per endpoint has not been reached.
+ * Otherwise, it is pipelined on the connection with the least outstanding
+ * requests.<br />
+ * <br />
+ * If a connection fails, e.g. because the server has been restarted, the
+ * idempotent requests on it (get, set and delete) are retried once on a new
+ * connection. Other requests are only retried if they have not been written
+ * yet, e.g. during the handshake, since the server may already have processed
+ * them otherwise.<br />
+ * <br />
+ * Endpoints that do not answer the handshake of protocol version 2 are
+ * remembered, further connections to them use version 1 right away.
+ * Connectors that are created without a pool use the {@link #getDefault()
+ * default pool}.
+ * 
+ * @author schnicke
+ *
+ */
+public class BaSyxConnectionPool {
+	// Closes idle connections and times out connects, has to be initialized before the default pool
+	private static final ScheduledExecutorService TIMER = Executors.newSingleThreadScheduledExecutor(r -> {
+		Thread thread = new Thread(r, "basyx-tcp-client-timer");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private static final BaSyxConnectionPool DEFAULT_POOL = new BaSyxConnectionPool(new BaSyxConnectionConfiguration());
+
+	private final BaSyxConnectionConfiguration configuration;
+	private final Map<InetSocketAddress, List<BaSyxConnection>> connections = new ConcurrentHashMap<>();
+	private final Set<InetSocketAddress> legacyEndpoints = ConcurrentHashMap.newKeySet();
+	private volatile boolean closed = false;
+
+	/**
+	 * Creates a pool whose connections are configured by the given
+	 * configuration
+	 * 
+	 * @param configuration
+	 */
+	public BaSyxConnectionPool(BaSyxConnectionConfiguration configuration) {
+		this.configuration = configuration;
+		if (configuration.getIdleTimeout() > 0) {
+			scheduleEviction(this, configuration.getIdleTimeout());
+		}
+	}
+
+	/**
+	 * Returns the pool that is shared by all connectors without an explicit pool
+	 * 
+	 * @return
+	 */
+	public static BaSyxConnectionPool getDefault() {
+		return DEFAULT_POOL;
+	}
+
+	public BaSyxConnectionConfiguration getConfiguration() {
+		return configuration;
+	}
+
+	/**
+	 * Sends a request frame to an endpoint
+	 * 
+	 * @param address
+	 * @param call
+	 *            complete request frame, including its length
+	 * @param idempotent
+	 *            whether the request may be retried on a new connection
+	 * @return future that completes with the response frame, excluding its
+	 *         length
+	 */
+	public CompletableFuture<byte[]> send(InetSocketAddress address, byte[] call, boolean idempotent) {
+		PendingRequest request = new PendingRequest(address, call, idempotent);
+		send(request);
+		return request.response;
+	}
+
+	/**
+	 * Returns the number of open connections to an endpoint
+	 * 
+	 * @param address
+	 * @return
+	 */
+	public int getConnectionCount(InetSocketAddress address) {
+		List<BaSyxConnection> endpoint = connections.get(address);
+		if (endpoint == null) {
+			return 0;
+		}
+		synchronized (endpoint) {
+			return endpoint.size();
+		}
+	}
+
+	/**
+	 * Returns the protocol version negotiated with an endpoint
+	 * 
+	 * @param address
+	 * @return the version, or 0 if there is no established connection
+	 */
+	public int getProtocolVersion(InetSocketAddress address) {
+		List<BaSyxConnection> endpoint = connections.get(address);
+		if (endpoint == null) {
+			return 0;
+		}
+		synchronized (endpoint) {
+			for (BaSyxConnection connection : endpoint) {
+				int version = connection.getVersion();
+				if (version > 0) {
+					return version;
+				}
+			}
+		}
+		return 0;
+	}
+
+	/**
+	 * Closes all connections. Outstanding requests fail and the pool can not be
+	 * used anymore afterwards.
+	 */
+	public void close() {
+		closed = true;
+		for (List<BaSyxConnection> endpoint : connections.values()) {
+			List<BaSyxConnection> copy;
+			synchronized (endpoint) {
+				copy = new ArrayList<>(endpoint);
+			}
+			for (BaSyxConnection connection : copy) {
+				connection.close(new IOException("The connection pool has been closed"));
+			}
+		}
+	}
+
+	private void send(PendingRequest request) {
+		request.attempts++;
+		while (true) {
+			BaSyxConnection connection;
+			try {
+				connection = acquire(request.address);
+			} catch (IOException | IllegalStateException e) {
+				request.response.completeExceptionally(e);
+				return;
+			}
+			if (connection.send(request)) {
+				return;
+			}
+			// Has been closed concurrently, thus it has been removed from the pool
+		}
+	}
+
+	/**
+	 * Selects the connection for the next request to an endpoint
+	 */
+	private BaSyxConnection acquire(InetSocketAddress address) throws IOException {
+		if (closed) {
+			throw new IllegalStateException("The connection pool has been closed");
+		}
+
+		List<BaSyxConnection> endpoint = connections.computeIfAbsent(address, a -> new ArrayList<>());
+		synchronized (endpoint) {
+			BaSyxConnection best = null;
+			int bestOutstanding = Integer.MAX_VALUE;
+			for (BaSyxConnection connection : endpoint) {
+				int outstanding = connection.getOutstandingRequests();
+				if (outstanding < bestOutstanding && !connection.isClosed()) {
+					best = connection;
+					bestOutstanding = outstanding;
+				}
+			}
+
+			if (best != null && (bestOutstanding == 0 || endpoint.size() >= configuration.getMaxConnectionsPerEndpoint())) {
+				return best;
+			}
+
+			BaSyxConnection connection = new BaSyxConnection(this, address);
+			endpoint.add(connection);
+			connection.connect(configuration.getConnectTimeout());
+			return connection;
+		}
+	}
+
+	/**
+	 * Is called by a connection that has been closed
+	 */
+	void connectionClosed(BaSyxConnection connection, InetSocketAddress address) {
+		List<BaSyxConnection> endpoint = connections.get(address);
+		if (endpoint != null) {
+			synchronized (endpoint) {
+				endpoint.remove(connection);
+			}
+		}
+	}
+
+	boolean isLegacyEndpoint(InetSocketAddress address) {
+		return legacyEndpoints.contains(address);
+	}
+
+	/**
+	 * Is called if an endpoint does not support protocol version 2
+	 */
+	void markLegacyEndpoint(InetSocketAddress address) {
+		legacyEndpoints.add(address);
+	}
+
+	/**
+	 * Retries a request of a failed connection once, if it is idempotent or has
+	 * not been written
+	 */
+	void retryOrFail(PendingRequest request, IOException cause) {
+		if ((request.retryable || !request.written) && request.attempts < 2 && !closed) {
+			send(request);
+		} else {
+			request.response.completeExceptionally(cause);
+		}
+	}
+
+	ScheduledFuture<?> schedule(Runnable task, long delay) {
+		return TIMER.schedule(task, delay, TimeUnit.MILLISECONDS);
+	}
+
+	private void evictIdleConnections() {
+		long now = System.currentTimeMillis();
+		List<BaSyxConnection> candidates = new ArrayList<>();
+		for (List<BaSyxConnection> endpoint : connections.values()) {
+			synchronized (endpoint) {
+				candidates.addAll(endpoint);
+			}
+		}
+		for (BaSyxConnection connection : candidates) {
+			connection.closeIfIdle(now, configuration.getIdleTimeout());
+		}
+	}
+
+	/**
+	 * Periodically evicts the idle connections of a pool. The pool is only
+	 * referenced weakly, so that the eviction ends if it is not used anymore.
+	 * 
+	 * @param pool
+	 * @param idleTimeout
+	 */
+	private static void scheduleEviction(BaSyxConnectionPool pool, long idleTimeout) {
+		WeakReference<BaSyxConnectionPool> reference = new WeakReference<>(pool);
+		AtomicReference<ScheduledFuture<?>> task = new AtomicReference<>();
+		long interval = Math.max(1000, idleTimeout / 2);
+		task.set(TIMER.scheduleWithFixedDelay(() -> {
+			BaSyxConnectionPool current = reference.get();
+			if (current == null || current.closed) {
+				task.get().cancel(false);
+				return;
+			}
+			current.evictIdleConnections();
+		}, interval, interval, TimeUnit.MILLISECONDS));
+	}
+}
@@ -12,12 +12,16 @@ package org.eclipse.basyx.vab.protocol.basyx.connector;
 import java.io.IOException;
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
-import java.nio.ByteBuffer;
-import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 import org.eclipse.basyx.vab.exception.provider.ProviderException;
-import org.eclipse.basyx.vab.protocol.api.IBaSyxConnector;
+import org.eclipse.basyx.vab.modelprovider.async.AsyncModelProviderAdapter;
+import org.eclipse.basyx.vab.protocol.api.IBaSyxAsyncConnector;
+import org.eclipse.basyx.vab.protocol.api.IBaSyxBatchConnector;
 import org.eclipse.basyx.vab.protocol.basyx.CoderTools;
+import org.eclipse.basyx.vab.protocol.basyx.server.ExceptionToBaSyxStatusMapper;
 import org.eclipse.basyx.vab.protocol.basyx.server.VABBaSyxTCPInterface;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -25,16 +29,19 @@ import org.slf4j.LoggerFactory;
 
 
 /**
- * BaSyx connector class
+ * BaSyx connector class. The connections to the server are persistent and
+ * shared with other connectors via a {@link BaSyxConnectionPool}, concurrent
+ * calls are pipelined. The connections negotiate version 2 of the protocol,
+ * but fall back to version 1 for servers that do not support it.
  * 
  * @author kuhn, pschorn, schnicke
  *
  */
-public class BaSyxConnector implements IBaSyxConnector {
+public class BaSyxConnector implements IBaSyxBatchConnector, IBaSyxAsyncConnector {
 	
 	private Logger logger = LoggerFactory.getLogger(BaSyxConnector.class);
 	private InetSocketAddress serverSocketAddress;
-	private SocketChannel channelToProvider;
+	private BaSyxConnectionPool connectionPool;
 	
 	
 	/**
@@ -43,8 +50,17 @@ public class BaSyxConnector implements IBaSyxConnector {
 	 * This constructor connects to port at name.
 	 */
 	public BaSyxConnector(String hostName, int port) {
+		this(hostName, port, BaSyxConnectionPool.getDefault());
+	}
+	
+	/**
+	 * Constructor that uses the connections of the given pool
+	 */
+	public BaSyxConnector(String hostName, int port, BaSyxConnectionPool connectionPool) {
 		// Base constructor
 		super();
+
+		this.connectionPool = connectionPool;
 		
 		// Exception handling
 		try {
@@ -56,95 +72,75 @@ public class BaSyxConnector implements IBaSyxConnector {
 			logger.error("Exception in BaSyxConnector", e);
 		}
 	}
-	
+
 	/**
-	 * Close connection
+	 * Invoke a BaSyx operation in a remote provider
+	 * 
+	 * @throws ProviderException
+	 *             if the call could not be transmitted
 	 */
-	private void closeConnection() {
-		// Try to close connection
+	protected String invokeBaSyx(byte[] call) {
 		try {
-			channelToProvider.close();
-		} catch (IOException e) {
-			// Print stack trace
-			logger.error("Exception in closeConnection", e);
+			return invokeBaSyxAsync(call).join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof ProviderException) {
+				throw (ProviderException) e.getCause();
+			}
+			throw new ProviderException("Exception in invokeBaSyx", e.getCause());
 		}
 	}
-
+	
 	/**
-	 * Invoke a BaSyx operation in a remote provider
+	 * Extracts the result from a response frame. Exceptions of the provider are
+	 * encoded in the result, thus a status other than 'OK' only raises an
+	 * exception, if the result is empty.
 	 */
-	protected synchronized String invokeBaSyx(byte[] call) {
-		// Catch exceptions
-		try {
-			// Send byte array (BaSyx operation) via channel to provider
-			ByteBuffer txBuffer = ByteBuffer.wrap(call);
-
-			// Channel to provider
-			channelToProvider = SocketChannel.open();
-			// - Setup channel: set to blocking and connect to provider
-			channelToProvider.configureBlocking(true);
-			channelToProvider.connect(serverSocketAddress);
-
-			channelToProvider.write(txBuffer);
-
-			// Read response
-			// - Wait for leading 4 byte header that contains frame length
-			ByteBuffer rxBuffer1 = ByteBuffer.allocate(4);
-			// System.out.println("RX1");
-			readBytes(rxBuffer1, 4);
-			// System.out.println("RX1-d");
-			int frameSize = CoderTools.getInt32(rxBuffer1.array(), 0);
-
-			// Wait for frame to arrive
-			ByteBuffer rxBuffer2 = ByteBuffer.allocate(frameSize);
-			// System.out.println("RX2");
-			readBytes(rxBuffer2, frameSize);
-			// System.out.println("RX2-d");
-			byte[] rxFrame = rxBuffer2.array();
-
-			// Return received data
-
-			// Result check
-			if ((rxFrame == null) || (rxFrame.length < 2)) return null;
-
-			// - FIXME: Check result on position 0
-			
-			// Extract response
-			int jsonResultLen = CoderTools.getInt32(rxFrame, 1);
-			String jsonResult = new String(rxFrame, 1 + 4, jsonResultLen);
-
-			// Close connection to prevent unused open channels
-			closeConnection();
-
-			// Return result
-			return jsonResult.toString();
-		} catch (IOException e) {
-			// Print stack trace
-			logger.error("Exception in invokeBaSyx", e);
-		}
+	private String decodeResponse(byte[] rxFrame) {
+		// Result check
+		if ((rxFrame == null) || (rxFrame.length < 2)) return null;
+
+		// Extract response
+		int jsonResultLen = CoderTools.getInt32(rxFrame, 1);
+		String result = new String(rxFrame, 1 + 4, jsonResultLen, StandardCharsets.UTF_8);
 
-		// Indicate error
-		return null;
+		byte status = rxFrame[0];
+		if (status != VABBaSyxTCPInterface.BASYX_RESULT_OK && result.isEmpty()) {
+			throw ExceptionToBaSyxStatusMapper.mapToException(status, "BaSyx TCP request failed with status " + status);
+		}
+		return result;
 	}
 	
-	
 	/**
-	 * Read a number of bytes
+	 * Invoke a BaSyx operation in a remote provider without blocking
 	 */
-	protected void readBytes(ByteBuffer bytes, int expectedBytes) {
-		// Exception handling
-		try {
-			// System.out.println("-Reading:"+expectedBytes);
-			// Read bytes until buffer is full
-			while (bytes.position() < expectedBytes) {
-				// System.out.println("-Pos:"+bytes.position());
-				channelToProvider.read(bytes);
-			}
-			// System.out.println("-Read:"+expectedBytes);
-		} catch (IOException e) {
-			// Output exception
-			logger.error("Exception in readBytes", e);
+	protected CompletableFuture<String> invokeBaSyxAsync(byte[] call) {
+		if (serverSocketAddress == null) {
+			return AsyncModelProviderAdapter.failedFuture(new ProviderException("Unknown host"));
 		}
+
+		CompletableFuture<String> result = new CompletableFuture<>();
+		connectionPool.send(serverSocketAddress, call, isIdempotent(call)).whenComplete((rxFrame, e) -> {
+			if (e != null) {
+				logger.debug("Exception in invokeBaSyx", e);
+				result.completeExceptionally(new ProviderException("Exception in invokeBaSyx", e));
+				return;
+			}
+			try {
+				result.complete(decodeResponse(rxFrame));
+			} catch (RuntimeException decodingException) {
+				result.completeExceptionally(decodingException);
+			}
+		});
+		return result;
+	}
+
+	/**
+	 * Calls that may be repeated, if the connection fails before their response
+	 * has been received
+	 */
+	private static boolean isIdempotent(byte[] call) {
+		byte callType = call[4];
+		return callType == VABBaSyxTCPInterface.BASYX_GET || callType == VABBaSyxTCPInterface.BASYX_SET || callType == VABBaSyxTCPInterface.BASYX_DELETE;
 	}
 	
 	
@@ -238,6 +234,52 @@ public class BaSyxConnector implements IBaSyxConnector {
 	}
 
 	
+	/**
+	 * Invoke a BaSys batch operation. Processes all entries in one round trip.
+	 * 
+	 * @throws ProviderException
+	 *             that carries the Exceptions thrown on the server
+	 */
+	@Override
+	public String processBatch(String entries) throws ProviderException {
+
+		byte[] call = createCall("", entries, VABBaSyxTCPInterface.BASYX_BATCH);
+
+		// Invoke BaSyx call and return result
+		return invokeBaSyx(call);
+	}
+
+	
+	@Override
+	public CompletableFuture<String> getValueAsync(String servicePath) {
+		return invokeBaSyxAsync(createCall(servicePath, VABBaSyxTCPInterface.BASYX_GET));
+	}
+
+	@Override
+	public CompletableFuture<String> setValueAsync(String servicePath, String newValue) {
+		return invokeBaSyxAsync(createCall(servicePath, newValue, VABBaSyxTCPInterface.BASYX_SET));
+	}
+
+	@Override
+	public CompletableFuture<String> createValueAsync(String servicePath, String newValue) {
+		return invokeBaSyxAsync(createCall(servicePath, newValue, VABBaSyxTCPInterface.BASYX_CREATE));
+	}
+
+	@Override
+	public CompletableFuture<String> deleteValueAsync(String servicePath) {
+		return invokeBaSyxAsync(createCall(servicePath, VABBaSyxTCPInterface.BASYX_DELETE));
+	}
+
+	@Override
+	public CompletableFuture<String> deleteValueAsync(String servicePath, String jsonObject) {
+		return invokeBaSyxAsync(createCall(servicePath, jsonObject, VABBaSyxTCPInterface.BASYX_DELETE));
+	}
+
+	@Override
+	public CompletableFuture<String> invokeOperationAsync(String servicePath, String parameters) {
+		return invokeBaSyxAsync(createCall(servicePath, parameters, VABBaSyxTCPInterface.BASYX_INVOKE));
+	}
+	
 	/**
 	 * Create non-parameterized call that can be used as an argument to the
 	 * invokeBaSyx function
@@ -247,15 +289,18 @@ public class BaSyxConnector implements IBaSyxConnector {
 	 * @return
 	 */
 	private byte[] createCall(String servicePath, byte callType) {
+		// Lengths are given in bytes of the UTF-8 encoding
+		byte[] path = servicePath.getBytes(StandardCharsets.UTF_8);
+
 		// Create call
-		byte[] call = new byte[4 + 1 + 4 + servicePath.length()];
+		byte[] call = new byte[4 + 1 + 4 + path.length];
 		// - Encode size does not include leading four bytes
 		CoderTools.setInt32(call, 0, call.length - 4);
 		// - Encode operation GET
 		CoderTools.setInt8(call, 4, callType);
 		// - Encode path length and path
-		CoderTools.setInt32(call, 5, servicePath.length());
-		CoderTools.setString(call, 9, servicePath);
+		CoderTools.setInt32(call, 5, path.length);
+		CoderTools.setByteArray(call, 9, path);
 
 		return call;
 	}
@@ -271,19 +316,22 @@ public class BaSyxConnector implements IBaSyxConnector {
 	 * @return
 	 */
 	private byte[] createCall(String servicePath, String newValue, byte callType) {
+		// Lengths are given in bytes of the UTF-8 encoding
+		byte[] path = servicePath.getBytes(StandardCharsets.UTF_8);
+		byte[] value = newValue.getBytes(StandardCharsets.UTF_8);
 
 		// Create call
-		byte[] call = new byte[4 + 1 + 4 + servicePath.length() + 4 + newValue.length()];
+		byte[] call = new byte[4 + 1 + 4 + path.length + 4 + value.length];
 		// - Encode size does not include leading four bytes
 		CoderTools.setInt32(call, 0, call.length - 4);
 		// - Encode operation SET
 		CoderTools.setInt8(call, 4, callType);
 		// - Encode path
-		CoderTools.setInt32(call, 5, servicePath.length());
-		CoderTools.setString(call, 9, servicePath);
+		CoderTools.setInt32(call, 5, path.length);
+		CoderTools.setByteArray(call, 9, path);
 		// - Encode value
-		CoderTools.setInt32(call, 9 + servicePath.length(), newValue.length());
-		CoderTools.setString(call, 9 + servicePath.length() + 4, newValue);
+		CoderTools.setInt32(call, 9 + path.length, value.length);
+		CoderTools.setByteArray(call, 9 + path.length + 4, value);
 
 		return call;
 	}
@@ -24,6 +24,23 @@ import org.eclipse.basyx.vab.protocol.api.ConnectorFactory;
  */
 public class BaSyxConnectorFactory extends ConnectorFactory {
 
+	private BaSyxConnectionPool connectionPool;
+
+	/**
+	 * Creates connectors that use the default connection pool
+	 */
+	public BaSyxConnectorFactory() {
+		this(BaSyxConnectionPool.getDefault());
+	}
+
+	/**
+	 * Creates connectors that use the connections of the given pool
+	 * 
+	 * @param connectionPool
+	 */
+	public BaSyxConnectorFactory(BaSyxConnectionPool connectionPool) {
+		this.connectionPool = connectionPool;
+	}
 	
 	/**
 	 * Create the provider
@@ -38,7 +55,7 @@ public class BaSyxConnectorFactory extends ConnectorFactory {
 		int hostPort = Integer.parseInt(splitted[0].substring(address.indexOf(':') + 1));
 
 		// Create connector, connect
-		IModelProvider provider = new JSONConnector(new BaSyxConnector(hostName, hostPort));
+		IModelProvider provider = new JSONConnector(new BaSyxConnector(hostName, hostPort, connectionPool));
 		
 		// Create a proxy, if necessary
 		String path = address.replaceFirst(hostName + ":" + hostPort, "");
@@ -0,0 +1,369 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.basyx.vab.protocol.basyx.server;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.eclipse.basyx.vab.coder.json.provider.JSONProvider;
+import org.eclipse.basyx.vab.modelprovider.api.IModelProvider;
+import org.eclipse.basyx.vab.protocol.basyx.CoderTools;
+import org.eclipse.basyx.vab.protocol.basyx.server.BaSyxTCPSession.Request;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Connection of the {@link BaSyxTCPServer} in {@link TCPServerMode#NIO NIO}
+ * mode. Frames are read by a selector thread and processed by the worker
+ * threads. <br />
+ * <br />
+ * With version 1 of the protocol, the frames of a connection are processed one
+ * after another, so that their responses are sent in order. With version 2,
+ * the requests of a connection are processed concurrently and answered as
+ * soon as they are complete, since the responses carry the ids of their
+ * requests. Further requests are queued in the meantime. Responses are
+ * written directly by the worker threads as long as the socket accepts them,
+ * the rest is written by the selector thread as soon as the socket is
+ * writable again.
+ * 
+ * @author schnicke
+ *
+ */
+class BaSyxTCPConnection<T extends IModelProvider> {
+	private static Logger logger = LoggerFactory.getLogger(BaSyxTCPConnection.class);
+
+	// Reading is paused if this number of requests is queued
+	private static final int MAX_QUEUED_REQUESTS = 16;
+
+	// Maximum number of requests of a version 2 connection that are processed concurrently
+	private static final int MAX_CONCURRENT_REQUESTS = 16;
+
+	// Reading is paused if this number of bytes waits for the socket
+	private static final long MAX_QUEUED_OUTPUT = 1024 * 1024;
+
+	/**
+	 * Response that has not been written completely
+	 */
+	private static class PendingWrite {
+		private final ByteBuffer[] frame;
+		private final ResponseBuffer buffer;
+
+		private PendingWrite(ByteBuffer[] frame, ResponseBuffer buffer) {
+			this.frame = frame;
+			this.buffer = buffer;
+		}
+
+		private boolean isWritten() {
+			return !frame[0].hasRemaining() && !frame[1].hasRemaining();
+		}
+	}
+
+	private final BaSyxTCPSelectorLoop<T> loop;
+	private final SocketChannel channel;
+	private final BaSyxTCPSession<T> session;
+	private final Executor workers;
+	private SelectionKey key;
+
+	// Read state, only accessed by the selector thread
+	private final ByteBuffer rxHeader = ByteBuffer.allocate(4);
+	private ByteBuffer rxFrame;
+
+	// Guarded by this
+	private final Deque<Request> pending = new ArrayDeque<>();
+	private int processing = 0;
+
+	// Guarded by output
+	private final Deque<PendingWrite> output = new ArrayDeque<>();
+	private long queuedBytes = 0;
+	private boolean closed = false;
+
+	BaSyxTCPConnection(BaSyxTCPSelectorLoop<T> loop, SocketChannel channel, T providerBackend, Executor workers) {
+		this.loop = loop;
+		this.channel = channel;
+		this.session = new BaSyxTCPSession<>(new JSONProvider<>(providerBackend));
+		this.workers = workers;
+	}
+
+	/**
+	 * Registers the connection for reading. Is called by the selector thread.
+	 * 
+	 * @param selector
+	 * @throws ClosedChannelException
+	 */
+	void register(Selector selector) throws ClosedChannelException {
+		key = channel.register(selector, SelectionKey.OP_READ, this);
+	}
+
+	/**
+	 * Reads the available bytes and dispatches the requests of the complete
+	 * frames. Is called by the selector thread.
+	 * 
+	 * @param buffer
+	 *            read buffer of the selector thread
+	 */
+	void onReadable(ByteBuffer buffer) {
+		buffer.clear();
+		int read;
+		try {
+			read = channel.read(buffer);
+		} catch (IOException e) {
+			close();
+			return;
+		}
+		if (read < 0) {
+			close();
+			return;
+		}
+		buffer.flip();
+
+		try {
+			while (buffer.hasRemaining()) {
+				byte[] frame = readFrame(buffer);
+				if (frame == null) {
+					break;
+				}
+				if (session.isHandshake(frame)) {
+					handshake(frame);
+					continue;
+				}
+				List<Request> requests = session.decode(frame);
+				synchronized (this) {
+					pending.addAll(requests);
+				}
+			}
+		} catch (IOException e) {
+			logger.warn("Received malformed frame, closing connection", e);
+			close();
+			return;
+		}
+
+		synchronized (this) {
+			dispatch();
+		}
+		updateInterestOps();
+	}
+
+	/**
+	 * Answers the handshake, before any further frame is processed
+	 */
+	private void handshake(byte[] frame) throws IOException {
+		ResponseBuffer response = ResponseBuffer.acquire();
+		write(new PendingWrite(session.handshake(frame, response), response));
+	}
+
+	/**
+	 * Assembles the next frame from the read bytes
+	 * 
+	 * @return the frame or null, if it is not complete yet
+	 */
+	private byte[] readFrame(ByteBuffer buffer) {
+		if (rxFrame == null) {
+			transfer(buffer, rxHeader);
+			if (rxHeader.hasRemaining()) {
+				return null;
+			}
+			int frameSize = CoderTools.getInt32(rxHeader.array(), 0);
+			if (frameSize < 1) {
+				logger.warn("Received invalid frame size " + frameSize + ", closing connection");
+				loop.schedule(this::close);
+				buffer.position(buffer.limit());
+				return null;
+			}
+			rxFrame = ByteBuffer.allocate(frameSize);
+		}
+
+		transfer(buffer, rxFrame);
+		if (rxFrame.hasRemaining()) {
+			return null;
+		}
+		byte[] frame = rxFrame.array();
+		rxFrame = null;
+		rxHeader.clear();
+		return frame;
+	}
+
+	private static void transfer(ByteBuffer source, ByteBuffer target) {
+		int length = Math.min(source.remaining(), target.remaining());
+		int limit = source.limit();
+		source.limit(source.position() + length);
+		target.put(source);
+		source.limit(limit);
+	}
+
+	/**
+	 * Hands queued requests over to the worker threads, as long as the
+	 * negotiated version permits
+	 */
+	private void dispatch() {
+		int maxProcessing = session.getVersion() >= 2 ? MAX_CONCURRENT_REQUESTS : 1;
+		while (processing < maxProcessing && !pending.isEmpty()) {
+			Request request = pending.poll();
+			processing++;
+			try {
+				workers.execute(() -> process(request));
+			} catch (RejectedExecutionException e) {
+				logger.warn("Rejected request, the server is shutting down");
+				loop.schedule(this::close);
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Processes a request and sends the response. Is called by a worker thread.
+	 */
+	private void process(Request request) {
+		ResponseBuffer response = ResponseBuffer.acquire();
+		ByteBuffer[] frame;
+		try {
+			frame = session.process(request, response);
+		} catch (IOException | RuntimeException e) {
+			logger.error("Exception while processing frame, closing connection", e);
+			ResponseBuffer.release(response);
+			loop.schedule(this::close);
+			return;
+		}
+
+		try {
+			write(new PendingWrite(frame, response));
+		} catch (IOException e) {
+			logger.debug("Exception while sending response, closing connection", e);
+			loop.schedule(this::close);
+			return;
+		}
+
+		synchronized (this) {
+			processing--;
+			dispatch();
+		}
+		loop.schedule(this::updateInterestOps);
+	}
+
+	/**
+	 * Writes a response or queues it, if the socket does not accept it right
+	 * now
+	 */
+	private void write(PendingWrite write) throws IOException {
+		synchronized (output) {
+			if (closed) {
+				ResponseBuffer.release(write.buffer);
+				throw new ClosedChannelException();
+			}
+
+			if (output.isEmpty()) {
+				try {
+					channel.write(write.frame);
+				} catch (IOException e) {
+					ResponseBuffer.release(write.buffer);
+					throw e;
+				}
+				if (write.isWritten()) {
+					ResponseBuffer.release(write.buffer);
+					return;
+				}
+			}
+			output.add(write);
+			queuedBytes += write.frame[0].remaining() + write.frame[1].remaining();
+		}
+	}
+
+	/**
+	 * Writes queued output. Is called by the selector thread.
+	 */
+	void onWritable() {
+		boolean failed = false;
+		synchronized (output) {
+			try {
+				while (!output.isEmpty()) {
+					PendingWrite write = output.peek();
+					long written = channel.write(write.frame);
+					queuedBytes -= written;
+					if (!write.isWritten()) {
+						break;
+					}
+					output.poll();
+					ResponseBuffer.release(write.buffer);
+				}
+			} catch (IOException e) {
+				failed = true;
+			}
+		}
+
+		if (failed) {
+			close();
+		} else {
+			updateInterestOps();
+		}
+	}
+
+	/**
+	 * Updates the events the selector waits for. Is called by the selector
+	 * thread.
+	 */
+	void updateInterestOps() {
+		if (key == null || !key.isValid()) {
+			return;
+		}
+		int ops = 0;
+		boolean outputPending;
+		synchronized (output) {
+			outputPending = !output.isEmpty();
+			if (outputPending) {
+				ops |= SelectionKey.OP_WRITE;
+			}
+			if (queuedBytes < MAX_QUEUED_OUTPUT) {
+				synchronized (this) {
+					if (pending.size() < MAX_QUEUED_REQUESTS) {
+						ops |= SelectionKey.OP_READ;
+					}
+				}
+			}
+		}
+		key.interestOps(ops);
+	}
+
+	/**
+	 * Closes the connection. Is called by the selector thread.
+	 */
+	void close() {
+		synchronized (output) {
+			if (closed) {
+				return;
+			}
+			closed = true;
+			for (PendingWrite write : output) {
+				ResponseBuffer.release(write.buffer);
+			}
+			output.clear();
+			queuedBytes = 0;
+		}
+		synchronized (this) {
+			pending.clear();
+		}
+		if (key != null) {
+			key.cancel();
+		}
+		try {
+			channel.close();
+		} catch (IOException e) {
+			logger.trace("Exception while closing connection", e);
+		}
+		loop.connectionClosed(this);
+	}
+}
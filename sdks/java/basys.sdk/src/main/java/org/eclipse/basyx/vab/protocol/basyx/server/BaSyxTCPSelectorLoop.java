@@ -0,0 +1,209 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.basyx.vab.protocol.basyx.server;
+
+import java.io.IOException;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+
+import org.eclipse.basyx.vab.modelprovider.api.IModelProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Selector thread of the {@link BaSyxTCPServer} in {@link TCPServerMode#NIO
+ * NIO} mode. It reads the frames of its connections and writes the responses
+ * that the worker threads could not write directly. The first loop also
+ * accepts the connections and distributes them over all loops.
+ * 
+ * @author schnicke
+ *
+ */
+class BaSyxTCPSelectorLoop<T extends IModelProvider> implements Runnable {
+	private static Logger logger = LoggerFactory.getLogger(BaSyxTCPSelectorLoop.class);
+
+	private static final int READ_BUFFER_SIZE = 64 * 1024;
+
+	private final T providerBackend;
+	private final Executor workers;
+	private final Selector selector;
+	private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+	private final Set<BaSyxTCPConnection<T>> connections = ConcurrentHashMap.newKeySet();
+
+	private ServerSocketChannel serverChannel;
+	private SelectionKey acceptKey;
+	private List<BaSyxTCPSelectorLoop<T>> loops;
+	private int nextLoop = 0;
+
+	private volatile boolean running = true;
+	private volatile Thread thread;
+
+	BaSyxTCPSelectorLoop(T providerBackend, Executor workers) throws IOException {
+		this.providerBackend = providerBackend;
+		this.workers = workers;
+		this.selector = Selector.open();
+	}
+
+	/**
+	 * Lets this loop accept the connections of a non-blocking server channel
+	 * 
+	 * @param serverChannel
+	 * @param loops
+	 *            loops the accepted connections are distributed over
+	 * @throws IOException
+	 */
+	void accept(ServerSocketChannel serverChannel, List<BaSyxTCPSelectorLoop<T>> loops) throws IOException {
+		this.serverChannel = serverChannel;
+		this.loops = loops;
+		acceptKey = serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+	}
+
+	/**
+	 * Stops the loop, which closes its connections
+	 */
+	void stop() {
+		running = false;
+		selector.wakeup();
+	}
+
+	/**
+	 * Executes a task in the selector thread
+	 * 
+	 * @param task
+	 */
+	void schedule(Runnable task) {
+		if (Thread.currentThread() == thread) {
+			task.run();
+			return;
+		}
+		tasks.add(task);
+		selector.wakeup();
+	}
+
+	/**
+	 * Is called by a connection after it has been closed
+	 * 
+	 * @param connection
+	 */
+	void connectionClosed(BaSyxTCPConnection<T> connection) {
+		connections.remove(connection);
+	}
+
+	@Override
+	public void run() {
+		thread = Thread.currentThread();
+		ByteBuffer readBuffer = ByteBuffer.allocateDirect(READ_BUFFER_SIZE);
+
+		while (running) {
+			try {
+				selector.select();
+
+				Runnable task;
+				while ((task = tasks.poll()) != null) {
+					task.run();
+				}
+
+				Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+				while (keys.hasNext()) {
+					SelectionKey key = keys.next();
+					keys.remove();
+					handleKey(key, readBuffer);
+				}
+			} catch (IOException | RuntimeException e) {
+				logger.error("Exception in the selector loop", e);
+			}
+		}
+
+		for (BaSyxTCPConnection<T> connection : connections) {
+			connection.close();
+		}
+		try {
+			selector.close();
+		} catch (IOException e) {
+			logger.trace("Exception while closing selector", e);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private void handleKey(SelectionKey key, ByteBuffer readBuffer) {
+		if (!key.isValid()) {
+			return;
+		}
+		if (key == acceptKey) {
+			acceptConnections();
+			return;
+		}
+
+		BaSyxTCPConnection<T> connection = (BaSyxTCPConnection<T>) key.attachment();
+		try {
+			if (key.isWritable()) {
+				connection.onWritable();
+			}
+			if (key.isValid() && key.isReadable()) {
+				connection.onReadable(readBuffer);
+			}
+		} catch (CancelledKeyException e) {
+			connection.close();
+		}
+	}
+
+	private void acceptConnections() {
+		try {
+			SocketChannel channel;
+			while ((channel = serverChannel.accept()) != null) {
+				channel.configureBlocking(false);
+				// Responses to pipelined requests must not wait for the acknowledgement of the previous ones
+				channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+
+				BaSyxTCPSelectorLoop<T> loop = loops.get(nextLoop);
+				nextLoop = (nextLoop + 1) % loops.size();
+				loop.register(channel);
+			}
+		} catch (IOException e) {
+			if (running) {
+				logger.warn("Failed to accept connection", e);
+			}
+		}
+	}
+
+	/**
+	 * Serves a connection by this loop
+	 * 
+	 * @param channel
+	 */
+	private void register(SocketChannel channel) {
+		BaSyxTCPConnection<T> connection = new BaSyxTCPConnection<>(this, channel, providerBackend, workers);
+		schedule(() -> {
+			if (!running) {
+				connection.close();
+				return;
+			}
+			try {
+				connection.register(selector);
+				connections.add(connection);
+			} catch (IOException e) {
+				logger.warn("Failed to register connection", e);
+				connection.close();
+			}
+		});
+	}
+}
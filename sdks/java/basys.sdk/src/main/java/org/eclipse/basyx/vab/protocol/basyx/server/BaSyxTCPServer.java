@@ -13,8 +13,17 @@ import java.io.IOException;
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.net.SocketException;
+import java.net.StandardSocketOptions;
 import java.nio.channels.ServerSocketChannel;
 import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.eclipse.basyx.vab.modelprovider.api.IModelProvider;
 import org.eclipse.basyx.vab.service.api.BaSyxService;
@@ -65,6 +74,43 @@ public class BaSyxTCPServer<T extends IModelProvider> implements Runnable, BaSyx
 	protected String name = null;
 	
 	
+	/**
+	 * Threads of the open connections, which are closed on shutdown
+	 */
+	protected Set<VABBaSyxTCPInterface<T>> connections = ConcurrentHashMap.newKeySet();
+	
+	
+	/**
+	 * How the connections are handled
+	 */
+	protected TCPServerMode mode = TCPServerMode.THREAD_PER_CONNECTION;
+	
+	
+	/**
+	 * Number of selector threads in NIO mode
+	 */
+	protected int selectorThreads = 1;
+	
+	
+	/**
+	 * Number of worker threads that process the frames in NIO mode
+	 */
+	protected int workerThreads = Math.max(4, 2 * Runtime.getRuntime().availableProcessors());
+	
+	
+	/**
+	 * Selector loops and worker threads in NIO mode
+	 */
+	protected List<BaSyxTCPSelectorLoop<T>> loops = new ArrayList<>();
+	protected ThreadPoolExecutor workers = null;
+	
+	
+	/**
+	 * Port the server listens on
+	 */
+	protected int port;
+	
+	
 	
 	/**
 	 * Constructor
@@ -72,6 +118,7 @@ public class BaSyxTCPServer<T extends IModelProvider> implements Runnable, BaSyx
 	public BaSyxTCPServer(T modelProviderBackend, int serverPort) {
 		// Store model provider backend reference
 		providerBackend = modelProviderBackend;
+		port = serverPort;
 
 		// Create communication channel
 		try {
@@ -81,6 +128,8 @@ public class BaSyxTCPServer<T extends IModelProvider> implements Runnable, BaSyx
 			// Server socket channel
 			serverSockChannel = ServerSocketChannel.open();
 			serverSockChannel.configureBlocking(true);
+			// Allows restarting the server while connections of the previous one are in TIME_WAIT
+			serverSockChannel.setOption(StandardSocketOptions.SO_REUSEADDR, true);
 			serverSockChannel.socket().bind(new InetSocketAddress(hostIPAddress, serverPort));
 		} catch (IOException e) {
 			// TODO Auto-generated catch block
@@ -89,6 +138,16 @@ public class BaSyxTCPServer<T extends IModelProvider> implements Runnable, BaSyx
 	}
 
 	
+	/**
+	 * Constructor that selects how the connections are handled
+	 */
+	public BaSyxTCPServer(T modelProviderBackend, int serverPort, TCPServerMode mode) {
+		// Invoke 'this' constructor
+		this(modelProviderBackend, serverPort);
+		setMode(mode);
+	}
+
+	
 	/**
 	 * Default constructor without port number
 	 */
@@ -103,6 +162,11 @@ public class BaSyxTCPServer<T extends IModelProvider> implements Runnable, BaSyx
 	 */
 	@Override
 	public void run() {
+		if (mode == TCPServerMode.NIO) {
+			runSelectorLoops();
+			return;
+		}
+
 		// Accept connections
 		while (!exit) {
 			// Accept incoming connections
@@ -111,6 +175,62 @@ public class BaSyxTCPServer<T extends IModelProvider> implements Runnable, BaSyx
 	}
 	
 	
+	/**
+	 * Serves the connections by selector threads and a bounded pool of worker
+	 * threads. The first loop runs in the server thread and accepts the
+	 * connections.
+	 */
+	protected void runSelectorLoops() {
+		List<Thread> threads = new ArrayList<>();
+		try {
+			serverSockChannel.configureBlocking(false);
+			loops.get(0).accept(serverSockChannel, loops);
+		} catch (IOException e) {
+			logger.error("Exception in runSelectorLoops", e);
+			shutdown();
+			return;
+		}
+
+		for (int i = 1; i < loops.size(); i++) {
+			Thread loopThread = new Thread(loops.get(i), "basyx-tcp-" + port + "-selector-" + i);
+			loopThread.setDaemon(true);
+			loopThread.start();
+			threads.add(loopThread);
+		}
+
+		loops.get(0).run();
+
+		// Wait for the other loops to close their connections
+		for (Thread loopThread : threads) {
+			try {
+				loopThread.join();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+	
+	
+	/**
+	 * Creates the selector loops and worker threads for NIO mode
+	 */
+	protected void createSelectorLoops() throws IOException {
+		AtomicInteger threadCounter = new AtomicInteger();
+		workers = new ThreadPoolExecutor(workerThreads, workerThreads, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+			Thread workerThread = new Thread(r, "basyx-tcp-" + port + "-worker-" + threadCounter.incrementAndGet());
+			workerThread.setDaemon(true);
+			return workerThread;
+		});
+		// Threads are only kept while there are frames to process
+		workers.allowCoreThreadTimeOut(true);
+
+		loops.clear();
+		for (int i = 0; i < Math.max(1, selectorThreads); i++) {
+			loops.add(new BaSyxTCPSelectorLoop<>(providerBackend, workers));
+		}
+	}
+	
+	
 	/**
 	 * Accept an incoming connection
 	 */
@@ -129,10 +249,15 @@ public class BaSyxTCPServer<T extends IModelProvider> implements Runnable, BaSyx
 				exit = true; return;
 			}
 
+			// Responses to pipelined requests must not wait for the acknowledgement of the previous ones
+			communicationSocket.socket().setTcpNoDelay(true);
+
 			// Handle an incoming connection
 			// - Create and connect BaSyx client provider for communication socket
 			VABBaSyxTCPInterface<T> tcpProvider = new VABBaSyxTCPInterface<T>(providerBackend, communicationSocket);
 			// - Start TCP provider
+			connections.removeIf(connection -> !connection.isAlive());
+			connections.add(tcpProvider);
 			tcpProvider.start();
 		} catch (IOException e) {
 			// Indicate exception only iff exit flag is false
@@ -160,7 +285,21 @@ public class BaSyxTCPServer<T extends IModelProvider> implements Runnable, BaSyx
 		} catch (IOException e) {
 			// Indicate exception
 			logger.error("Exception in shutdown", e);
-		}			
+		}
+
+		// Close the persistent connections of the clients
+		for (VABBaSyxTCPInterface<T> connection : connections) {
+			connection.closeConnection();
+		}
+		connections.clear();
+
+		// Stop the selector loops, which close their connections
+		for (BaSyxTCPSelectorLoop<T> loop : loops) {
+			loop.stop();
+		}
+		if (workers != null) {
+			workers.shutdown();
+		}
 	}
 
 
@@ -169,8 +308,16 @@ public class BaSyxTCPServer<T extends IModelProvider> implements Runnable, BaSyx
 	 */
 	@Override
 	public void start() {
+		if (mode == TCPServerMode.NIO) {
+			try {
+				createSelectorLoops();
+			} catch (IOException e) {
+				throw new IllegalStateException("Could not create the selector loops of the BaSyx TCP server", e);
+			}
+		}
+
 		// Create thread
-		thread = new Thread(this);
+		thread = new Thread(this, "basyx-tcp-" + port);
 		
 		// Start thread
 		thread.start();
@@ -229,5 +376,44 @@ public class BaSyxTCPServer<T extends IModelProvider> implements Runnable, BaSyx
 		// Return exit flag that indicates requested end of service execution
 		return !serverSockChannel.isOpen();
 	}
+	
+	
+	public TCPServerMode getMode() {
+		return mode;
+	}
+	
+	
+	/**
+	 * Selects how the connections are handled. Has to be called before the
+	 * server is started.
+	 */
+	public void setMode(TCPServerMode mode) {
+		this.mode = mode;
+	}
+	
+	
+	public int getSelectorThreads() {
+		return selectorThreads;
+	}
+	
+	
+	/**
+	 * Sets the number of selector threads in NIO mode
+	 */
+	public void setSelectorThreads(int selectorThreads) {
+		this.selectorThreads = selectorThreads;
+	}
+	
+	
+	public int getWorkerThreads() {
+		return workerThreads;
+	}
+	
+	
+	/**
+	 * Sets the number of worker threads that process the frames in NIO mode
+	 */
+	public void setWorkerThreads(int workerThreads) {
+		this.workerThreads = workerThreads;
+	}
 }
-
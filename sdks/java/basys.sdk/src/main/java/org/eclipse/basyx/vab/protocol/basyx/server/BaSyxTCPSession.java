@@ -0,0 +1,232 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.basyx.vab.protocol.basyx.server;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.basyx.vab.coder.json.provider.JSONProvider;
+import org.eclipse.basyx.vab.modelprovider.api.IModelProvider;
+import org.eclipse.basyx.vab.protocol.basyx.CoderTools;
+import org.eclipse.basyx.vab.protocol.basyx.FrameCompression;
+
+/**
+ * Protocol state of a connection to the {@link BaSyxTCPServer}. A connection
+ * uses version 1 of the protocol, unless its first frame is a
+ * {@link VABBaSyxTCPInterface#BASYX_HELLO handshake} that negotiates version 2
+ * and its compression. <br />
+ * <br />
+ * A version 2 frame carries flags and a request id in front of the version 1
+ * frame content, so that responses can be assigned to their requests in any
+ * order: <br />
+ * - request: <i>[size][flags][id][command][path length][path][value length][value]</i>
+ * <br />
+ * - response: <i>[size][flags][id][status][result length][result]</i> <br />
+ * A compressed value or result consists of its uncompressed length and an LZ4
+ * block, see {@link FrameCompression}. A batch frame <i>[size][flags][count]</i>
+ * is followed by the given number of complete request frames, each of them is
+ * answered by its own response frame.
+ * 
+ * @author schnicke
+ *
+ */
+class BaSyxTCPSession<T extends IModelProvider> {
+
+	/**
+	 * Request of a frame, which is processed independently of the other
+	 * requests of a batch
+	 */
+	static class Request {
+		private final int id;
+		private final byte flags;
+		private final byte[] frame;
+		private final int offset;
+		private final int length;
+
+		private Request(int id, byte flags, byte[] frame, int offset, int length) {
+			this.id = id;
+			this.flags = flags;
+			this.frame = frame;
+			this.offset = offset;
+			this.length = length;
+		}
+	}
+
+	private final JSONProvider<T> providerBackend;
+
+	// Negotiated version, 0 until the first frame has been received
+	private volatile int version = 0;
+	private volatile boolean compression = false;
+
+	BaSyxTCPSession(JSONProvider<T> providerBackend) {
+		this.providerBackend = providerBackend;
+	}
+
+	int getVersion() {
+		return version;
+	}
+
+	/**
+	 * Returns whether a frame is the handshake, i.e. the first frame of the
+	 * connection carries the hello command
+	 * 
+	 * @param frame
+	 * @return
+	 */
+	boolean isHandshake(byte[] frame) {
+		return version == 0 && frame.length >= 3 && frame[0] == VABBaSyxTCPInterface.BASYX_HELLO;
+	}
+
+	/**
+	 * Negotiates the version and the compression. The response is a version 1
+	 * frame, whose result consists of the accepted version and capabilities.
+	 * 
+	 * @param frame
+	 *            hello frame <i>[command][version][capabilities]</i>
+	 * @param output
+	 * @return response frame
+	 */
+	ByteBuffer[] handshake(byte[] frame, ResponseBuffer output) {
+		int requestedVersion = frame[1] & 0xFF;
+		version = Math.min(requestedVersion, VABBaSyxTCPInterface.BASYX_PROTOCOL_VERSION);
+		if (version < 1) {
+			version = 1;
+		}
+
+		byte capabilities = 0;
+		if (version >= 2 && (frame[2] & VABBaSyxTCPInterface.BASYX_CAPABILITY_LZ4) != 0) {
+			capabilities |= VABBaSyxTCPInterface.BASYX_CAPABILITY_LZ4;
+		}
+		compression = capabilities != 0;
+
+		output.write(version);
+		output.write(capabilities);
+		return output.toFrame(VABBaSyxTCPInterface.BASYX_RESULT_OK);
+	}
+
+	/**
+	 * Splits a frame into its requests
+	 * 
+	 * @param frame
+	 *            frame without its size
+	 * @return
+	 * @throws IOException
+	 *             if the frame is malformed
+	 */
+	List<Request> decode(byte[] frame) throws IOException {
+		if (version == 0) {
+			version = 1;
+		}
+		if (version == 1) {
+			return Collections.singletonList(new Request(-1, (byte) 0, frame, 0, frame.length));
+		}
+
+		if (frame.length < 5) {
+			throw new IOException("Frame is too short for protocol version 2");
+		}
+		byte flags = frame[0];
+		if ((flags & VABBaSyxTCPInterface.BASYX_FLAG_BATCH) == 0) {
+			return Collections.singletonList(createRequest(frame, 0, frame.length));
+		}
+
+		// Batch of complete frames
+		int count = CoderTools.getInt32(frame, 1);
+		if (count < 0) {
+			throw new IOException("Invalid batch size " + count);
+		}
+		List<Request> requests = new ArrayList<>(Math.min(count, 1024));
+		int position = 5;
+		for (int i = 0; i < count; i++) {
+			if (position + 4 > frame.length) {
+				throw new IOException("Batch frame is truncated");
+			}
+			int size = CoderTools.getInt32(frame, position);
+			if (size < 5 || position + 4 + size > frame.length) {
+				throw new IOException("Invalid size " + size + " of batch entry");
+			}
+			if ((frame[position + 4] & VABBaSyxTCPInterface.BASYX_FLAG_BATCH) != 0) {
+				throw new IOException("Batch frames can not be nested");
+			}
+			requests.add(createRequest(frame, position + 4, size));
+			position += 4 + size;
+		}
+		return requests;
+	}
+
+	private Request createRequest(byte[] frame, int offset, int length) throws IOException {
+		if (length < 6) {
+			throw new IOException("Request frame is too short");
+		}
+		int id = CoderTools.getInt32(frame, offset + 1);
+		return new Request(id, frame[offset], frame, offset + 5, length - 5);
+	}
+
+	/**
+	 * Processes a request and writes its result to the output
+	 * 
+	 * @param request
+	 * @param output
+	 * @return response frame
+	 * @throws IOException
+	 *             if a version 1 frame carries an unknown command, which ends
+	 *             the connection
+	 */
+	ByteBuffer[] process(Request request, ResponseBuffer output) throws IOException {
+		if (request.id < 0) {
+			byte status = VABBaSyxTCPInterface.processFrame(providerBackend, request.frame, request.offset, request.length, output);
+			if (status == VABBaSyxTCPInterface.BASYX_RESULT_UNKNOWN_COMMAND) {
+				throw new IOException("Unknown BaSyx TCP command received");
+			}
+			// Version 1 always answers with status 'OK', exceptions are encoded in the result
+			return output.toFrame(VABBaSyxTCPInterface.BASYX_RESULT_OK);
+		}
+
+		byte status;
+		if ((request.flags & VABBaSyxTCPInterface.BASYX_FLAG_COMPRESSED) != 0) {
+			byte[] frame = decompressValue(request);
+			status = VABBaSyxTCPInterface.processFrame(providerBackend, frame, 0, frame.length, output);
+		} else {
+			status = VABBaSyxTCPInterface.processFrame(providerBackend, request.frame, request.offset, request.length, output);
+		}
+		boolean compress = compression && output.size() >= FrameCompression.DEFAULT_THRESHOLD;
+		return output.toFrame(request.id, status, compress);
+	}
+
+	/**
+	 * Returns the content of a request frame with its value decompressed
+	 */
+	private static byte[] decompressValue(Request request) throws IOException {
+		byte[] frame = request.frame;
+		int end = request.offset + request.length;
+		int pathLength = request.length >= 5 ? CoderTools.getInt32(frame, request.offset + 1) : -1;
+		if (pathLength < 0) {
+			throw new IOException("Invalid path length " + pathLength);
+		}
+		int pathEnd = request.offset + 1 + 4 + pathLength;
+		if (pathEnd + 4 > end) {
+			throw new IOException("Compressed request frame has no value");
+		}
+		int valueLength = CoderTools.getInt32(frame, pathEnd);
+		if (valueLength < 0 || pathEnd + 4 + valueLength > end) {
+			throw new IOException("Invalid value length " + valueLength);
+		}
+		byte[] value = FrameCompression.decompress(frame, pathEnd + 4, valueLength);
+
+		int prefixLength = pathEnd - request.offset;
+		byte[] uncompressed = new byte[prefixLength + 4 + value.length];
+		System.arraycopy(frame, request.offset, uncompressed, 0, prefixLength);
+		CoderTools.setInt32(uncompressed, prefixLength, value.length);
+		System.arraycopy(value, 0, uncompressed, prefixLength + 4, value.length);
+		return uncompressed;
+	}
+}
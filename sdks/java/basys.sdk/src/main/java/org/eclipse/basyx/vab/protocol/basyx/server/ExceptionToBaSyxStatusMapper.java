@@ -0,0 +1,64 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.basyx.vab.protocol.basyx.server;
+
+import org.eclipse.basyx.vab.exception.provider.MalformedRequestException;
+import org.eclipse.basyx.vab.exception.provider.ProviderException;
+import org.eclipse.basyx.vab.exception.provider.ResourceAlreadyExistsException;
+import org.eclipse.basyx.vab.exception.provider.ResourceNotFoundException;
+
+/**
+ * Maps Exceptions from providers to the status bytes of the BaSyx TCP
+ * protocol version 2
+ * 
+ * @author schnicke
+ *
+ */
+public class ExceptionToBaSyxStatusMapper {
+
+	/**
+	 * Maps ProviderExceptions to status bytes
+	 * 
+	 * @param e
+	 *            The thrown ProviderException
+	 * @return status byte
+	 */
+	public static byte mapFromException(ProviderException e) {
+		if (e instanceof MalformedRequestException) {
+			return VABBaSyxTCPInterface.BASYX_RESULT_MALFORMED_REQUEST;
+		} else if (e instanceof ResourceAlreadyExistsException) {
+			return VABBaSyxTCPInterface.BASYX_RESULT_ALREADY_EXISTS;
+		} else if (e instanceof ResourceNotFoundException) {
+			return VABBaSyxTCPInterface.BASYX_RESULT_NOT_FOUND;
+		}
+		return VABBaSyxTCPInterface.BASYX_RESULT_PROVIDER_ERROR;
+	}
+
+	/**
+	 * Maps status bytes to ProviderExceptions
+	 * 
+	 * @param status
+	 *            The received status byte
+	 * @return the corresponding ProviderException
+	 */
+	public static ProviderException mapToException(byte status, String text) {
+		switch (status) {
+		case VABBaSyxTCPInterface.BASYX_RESULT_MALFORMED_REQUEST:
+		case VABBaSyxTCPInterface.BASYX_RESULT_UNKNOWN_COMMAND:
+			return new MalformedRequestException(text);
+		case VABBaSyxTCPInterface.BASYX_RESULT_ALREADY_EXISTS:
+			return new ResourceAlreadyExistsException(text);
+		case VABBaSyxTCPInterface.BASYX_RESULT_NOT_FOUND:
+			return new ResourceNotFoundException(text);
+		default:
+			return new ProviderException(text);
+		}
+	}
+}
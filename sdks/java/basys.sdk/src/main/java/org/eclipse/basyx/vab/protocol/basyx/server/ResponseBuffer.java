@@ -0,0 +1,108 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.basyx.vab.protocol.basyx.server;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import org.eclipse.basyx.vab.protocol.basyx.CoderTools;
+import org.eclipse.basyx.vab.protocol.basyx.FrameCompression;
+
+/**
+ * Output stream for a response that can be sent as frame without copying.
+ * Buffers are pooled, so that they do not have to be allocated for each
+ * response.
+ * 
+ * @author schnicke
+ *
+ */
+class ResponseBuffer extends ByteArrayOutputStream {
+	private static final int INITIAL_SIZE = 4096;
+
+	// Larger buffers are not pooled to limit the retained memory
+	private static final int MAX_POOLED_SIZE = 1024 * 1024;
+	private static final BlockingQueue<ResponseBuffer> POOL = new ArrayBlockingQueue<>(64);
+
+	// Frame size, flags and request id of version 2, result and response length
+	private final ByteBuffer header = ByteBuffer.allocate(4 + 1 + 4 + 1 + 4);
+
+	private ResponseBuffer() {
+		super(INITIAL_SIZE);
+	}
+
+	/**
+	 * Returns an empty buffer from the pool or a new one
+	 * 
+	 * @return
+	 */
+	static ResponseBuffer acquire() {
+		ResponseBuffer buffer = POOL.poll();
+		return buffer != null ? buffer : new ResponseBuffer();
+	}
+
+	/**
+	 * Returns a buffer to the pool. It must not be used afterwards.
+	 * 
+	 * @param buffer
+	 */
+	static void release(ResponseBuffer buffer) {
+		if (buffer.buf.length <= MAX_POOLED_SIZE) {
+			buffer.reset();
+			POOL.offer(buffer);
+		}
+	}
+
+	/**
+	 * Returns the version 1 response frame consisting of header and response,
+	 * which can be transmitted by a gathering write. The buffers are only valid
+	 * until the buffer is released.
+	 * 
+	 * @param result
+	 * @return
+	 */
+	ByteBuffer[] toFrame(byte result) {
+		byte[] bytes = header.array();
+		CoderTools.setInt32(bytes, 0, 1 + 4 + count);
+		bytes[4] = result;
+		CoderTools.setInt32(bytes, 5, count);
+		header.clear().limit(4 + 1 + 4);
+		return new ByteBuffer[] { header, ByteBuffer.wrap(buf, 0, count) };
+	}
+
+	/**
+	 * Returns the version 2 response frame of a request, see
+	 * {@link #toFrame(byte)}
+	 * 
+	 * @param requestId
+	 * @param status
+	 * @param compress
+	 *            whether the response is compressed
+	 * @return
+	 */
+	ByteBuffer[] toFrame(int requestId, byte status, boolean compress) {
+		ByteBuffer body = ByteBuffer.wrap(buf, 0, count);
+		byte flags = 0;
+		if (compress) {
+			body = ByteBuffer.wrap(FrameCompression.compress(buf, 0, count));
+			flags = VABBaSyxTCPInterface.BASYX_FLAG_COMPRESSED;
+		}
+
+		byte[] bytes = header.array();
+		CoderTools.setInt32(bytes, 0, 1 + 4 + 1 + 4 + body.remaining());
+		bytes[4] = flags;
+		CoderTools.setInt32(bytes, 5, requestId);
+		bytes[9] = status;
+		CoderTools.setInt32(bytes, 10, body.remaining());
+		header.clear();
+		return new ByteBuffer[] { header, body };
+	}
+}
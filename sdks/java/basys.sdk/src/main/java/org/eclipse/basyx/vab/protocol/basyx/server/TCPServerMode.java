@@ -0,0 +1,63 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.basyx.vab.protocol.basyx.server;
+
+import com.google.common.base.Strings;
+
+/**
+ * Possible modes of the {@link BaSyxTCPServer} to handle its connections
+ * 
+ * @author schnicke
+ *
+ */
+public enum TCPServerMode {
+	/**
+	 * Each connection is served by its own thread, see
+	 * {@link VABBaSyxTCPInterface}
+	 */
+	THREAD_PER_CONNECTION("ThreadPerConnection"),
+
+	/**
+	 * Selector threads read the frames of all connections and hand them to a
+	 * bounded pool of worker threads
+	 */
+	NIO("NIO");
+
+	private String literal;
+
+	private TCPServerMode(String literal) {
+		this.literal = literal;
+	}
+
+	@Override
+	public String toString() {
+		return literal;
+	}
+
+	/**
+	 * Method to transform string literal to TCPServerMode enum. The literal is
+	 * case insensitive.
+	 * 
+	 * @param literal
+	 * @return the mode or null, if the literal is empty
+	 */
+	public static TCPServerMode fromString(String literal) {
+		if (Strings.isNullOrEmpty(literal)) {
+			return null;
+		}
+
+		for (TCPServerMode constant : TCPServerMode.class.getEnumConstants()) {
+			if (constant.toString().equalsIgnoreCase(literal)) {
+				return constant;
+			}
+		}
+		throw new IllegalArgumentException("The literal '" + literal + "' is not a valid TCPServerMode");
+	}
+}
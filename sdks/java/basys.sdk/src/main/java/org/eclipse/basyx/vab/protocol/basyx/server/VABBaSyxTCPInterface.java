@@ -9,11 +9,13 @@
  ******************************************************************************/
 package org.eclipse.basyx.vab.protocol.basyx.server;
 
-import java.io.ByteArrayOutputStream;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.ByteBuffer;
 import java.nio.channels.ClosedChannelException;
 import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
 
 import org.eclipse.basyx.vab.coder.json.provider.JSONProvider;
 import org.eclipse.basyx.vab.exception.provider.ProviderException;
@@ -59,10 +61,71 @@ public class VABBaSyxTCPInterface<ModelProvider extends IModelProvider> extends
 	public static final byte BASYX_INVOKE = 0x05;
 
 	/**
-	 * BaSyx result 'OK' : 0x00
+	 * BaSyx batch command. The value carries the list of batch entries, their
+	 * paths are relative to the path of the frame.
+	 */
+	public static final byte BASYX_BATCH = 0x06;
+
+	/**
+	 * BaSyx hello command, which negotiates the protocol version and the
+	 * capabilities as first frame of a connection. It carries the highest
+	 * version and the capabilities supported by the client, the response carries
+	 * the accepted ones.
+	 */
+	public static final byte BASYX_HELLO = 0x10;
+
+	/**
+	 * Latest version of the protocol. Version 2 adds request ids, batch frames,
+	 * status bytes and compression.
+	 */
+	public static final byte BASYX_PROTOCOL_VERSION = 2;
+
+	/**
+	 * Capability to compress values and results with LZ4
+	 */
+	public static final byte BASYX_CAPABILITY_LZ4 = 0x01;
+
+	/**
+	 * Frame flag of version 2 indicating a compressed value or result
+	 */
+	public static final byte BASYX_FLAG_COMPRESSED = 0x01;
+
+	/**
+	 * Frame flag of version 2 indicating a frame that contains several request
+	 * frames
+	 */
+	public static final byte BASYX_FLAG_BATCH = 0x02;
+
+	/**
+	 * BaSyx result 'OK' : 0x00. Version 1 always answers with this result.
 	 */
 	public static final byte BASYX_RESULT_OK = 0x00;
 
+	/**
+	 * BaSyx result of a malformed request
+	 */
+	public static final byte BASYX_RESULT_MALFORMED_REQUEST = 0x01;
+
+	/**
+	 * BaSyx result of a request for a resource that does not exist
+	 */
+	public static final byte BASYX_RESULT_NOT_FOUND = 0x02;
+
+	/**
+	 * BaSyx result of a request that creates a resource that already exists
+	 */
+	public static final byte BASYX_RESULT_ALREADY_EXISTS = 0x03;
+
+	/**
+	 * BaSyx result of any other exception of the provider
+	 */
+	public static final byte BASYX_RESULT_PROVIDER_ERROR = 0x04;
+
+	/**
+	 * BaSyx result of a request with an unknown command
+	 */
+	public static final byte BASYX_RESULT_UNKNOWN_COMMAND = 0x05;
+
 	/**
 	 * Reference to IModelProvider backend
 	 */
@@ -73,6 +136,11 @@ public class VABBaSyxTCPInterface<ModelProvider extends IModelProvider> extends
 	 */
 	protected SocketChannel commChannel = null;
 
+	/**
+	 * Negotiated protocol version and compression
+	 */
+	private BaSyxTCPSession<ModelProvider> session;
+
 	/**
 	 * Constructor that accepts an already created server socket channel
 	 */
@@ -80,6 +148,7 @@ public class VABBaSyxTCPInterface<ModelProvider extends IModelProvider> extends
 		// Store reference to channel and backend
 		providerBackend = new JSONProvider<ModelProvider>(modelProviderBackend);
 		commChannel = channel;
+		session = new BaSyxTCPSession<>(providerBackend);
 		setName(VABBaSyxTCPInterface.class.getName() + " " + System.currentTimeMillis());
 		logger.debug("Socket created");
 	}
@@ -88,193 +157,132 @@ public class VABBaSyxTCPInterface<ModelProvider extends IModelProvider> extends
 	 * Process input frame
 	 */
 	public void processInputFrame(byte[] rxFrame) throws IOException {
-		// Create output streams
-		ByteArrayOutputStream output = new ByteArrayOutputStream();
-
-		// Get command
-		switch (rxFrame[0]) {
-
-		case BASYX_GET: {
-			// Get path string
-			int pathLen = CoderTools.getInt32(rxFrame, 1);
-			String path = new String(rxFrame, 1 + 4, pathLen);
-
-			// Forward request to provider
+		// The first frame may negotiate the protocol version
+		if (session.isHandshake(rxFrame)) {
+			ResponseBuffer output = ResponseBuffer.acquire();
 			try {
-				providerBackend.processBaSysGet(path, output);
-			} catch (ProviderException e) {
-				logger.debug("Exception in BASYX_GET", e);
-				// Catch Exceptions from JSONProvider
-				// No further action here, as the current version
-				// of the TCP-Mapping states, that always Statuscode 0x00 
-				// should be returned with Exceptions encoded in returned String
+				sendResponseFrame(session.handshake(rxFrame, output));
+			} finally {
+				ResponseBuffer.release(output);
 			}
-
-			// System.out.println("Processed GET:"+path);
-
-			// Send response frame
-			output.flush();
-			sendResponseFrame(output);
-
-			break;
+			return;
 		}
 
-		case BASYX_SET: {
-			// Get path string length and value
-			int pathLen = CoderTools.getInt32(rxFrame, 1);
-			String path = new String(rxFrame, 1 + 4, pathLen);
-			// Get value string length and value
-			int jsonValueLen = CoderTools.getInt32(rxFrame, 1 + 4 + pathLen);
-			String jsonValue = new String(rxFrame, 1 + 4 + pathLen + 4, jsonValueLen);
-
-			// Invoke get operation
+		// The requests of a batch are answered one after another
+		for (BaSyxTCPSession.Request request : session.decode(rxFrame)) {
+			// Create output streams
+			ResponseBuffer output = ResponseBuffer.acquire();
 			try {
-				providerBackend.processBaSysSet(path, jsonValue, output);
-			} catch (ProviderException e) {
-				logger.debug("Exception in BASYX_SET", e);
-				// Catch Exceptions from JSONProvider
-				// No further action here, as the current version
-				// of the TCP-Mapping states, that always Statuscode 0x00 
-				// should be returned with Exceptions encoded in returned String
+				// Send response frame
+				sendResponseFrame(session.process(request, output));
+			} finally {
+				ResponseBuffer.release(output);
 			}
-
-			// Send response frame
-			output.flush();
-			sendResponseFrame(output);
-
-			break;
 		}
+	}
 
-		case BASYX_CREATE: {
-			// Get path string length and value
-			int pathLen = CoderTools.getInt32(rxFrame, 1);
-			String path = new String(rxFrame, 1 + 4, pathLen);
-			// Get value string length and value
-			int jsonValueLen = CoderTools.getInt32(rxFrame, 1 + 4 + pathLen);
-			String jsonValue = new String(rxFrame, 1 + 4 + pathLen + 4, jsonValueLen);
-
-			// Invoke get operation
-			try {
-				providerBackend.processBaSysCreate(path, jsonValue, output);
-			} catch (ProviderException e) {
-				logger.debug("Exception in BASYX_CREATE", e);
-				// Catch Exceptions from JSONProvider
-				// No further action here, as the current version
-				// of the TCP-Mapping states, that always Statuscode 0x00 
-				// should be returned with Exceptions encoded in returned String
-			}
-
-			// Send response frame
-			output.flush();
-			sendResponseFrame(output);
-
-			break;
+	/**
+	 * Processes the content of a request frame and writes the serialized result
+	 * to the output. Is shared by the thread per connection and the
+	 * selector-based mode of the {@link BaSyxTCPServer}.
+	 * 
+	 * @param rxFrame
+	 *            buffer containing the request
+	 * @param offset
+	 *            position of the command
+	 * @param length
+	 *            length of the request, starting at the command
+	 * @return status of the request
+	 * @throws IOException
+	 *             if the lengths in the request exceed the frame
+	 */
+	static <ModelProvider extends IModelProvider> byte processFrame(JSONProvider<ModelProvider> providerBackend, byte[] rxFrame, int offset, int length, OutputStream output) throws IOException {
+		int end = offset + length;
+		byte command = rxFrame[offset];
+		if (command < BASYX_GET || command > BASYX_BATCH) {
+			return BASYX_RESULT_UNKNOWN_COMMAND;
 		}
 
-		case BASYX_DELETE: {
-			// Get path string length and value
-			int pathLen = CoderTools.getInt32(rxFrame, 1);
-			String path = new String(rxFrame, 1 + 4, pathLen);
-
-			// Get value string length and value if available; default is null value
-			String jsonValue = "";
-			try {
-				int jsonValueLen = CoderTools.getInt32(rxFrame, 1 + 4 + pathLen);
-				jsonValue = new String(rxFrame, 1 + 4 + pathLen + 4, jsonValueLen);
-
-			} catch (ArrayIndexOutOfBoundsException e) {
-				// pass, provide serialize null argument to processBaSysDelete to indicate that
-				// an
-				// entity should be removed
-			}
-
-			// Invoke delete operation
-			try {
-				providerBackend.processBaSysDelete(path, jsonValue, output);
-			} catch (ProviderException e) {
-				logger.debug("Exception in BASYX_DELETE", e);
-				// Catch Exceptions from JSONProvider
-				// No further action here, as the current version
-				// of the TCP-Mapping states, that always Statuscode 0x00 
-				// should be returned with Exceptions encoded in returned String
-			}
-
-			// Send response frame
-			output.flush();
-			sendResponseFrame(output);
-
-			break;
+		// Get path string
+		int pathLen = readLength(rxFrame, offset + 1, end);
+		String path = new String(rxFrame, offset + 1 + 4, pathLen, StandardCharsets.UTF_8);
+		int valueOffset = offset + 1 + 4 + pathLen;
+
+		// Get value length and a stream over the value, which is deserialized while reading
+		ByteArrayInputStream jsonValue = null;
+		if (valueOffset < end) {
+			int jsonValueLen = readLength(rxFrame, valueOffset, end);
+			jsonValue = new ByteArrayInputStream(rxFrame, valueOffset + 4, jsonValueLen);
+		} else if (command != BASYX_GET && command != BASYX_DELETE) {
+			throw new IOException("Request frame has no value");
 		}
 
-		case BASYX_INVOKE: {
-			// Get path string length and value
-			int pathLen = CoderTools.getInt32(rxFrame, 1);
-			String path = new String(rxFrame, 1 + 4, pathLen);
-			// Get value string length and value
-			int jsonValueLen = CoderTools.getInt32(rxFrame, 1 + 4 + pathLen);
-			String jsonValue = new String(rxFrame, 1 + 4 + pathLen + 4, jsonValueLen);
-			// Invoke get operation
-			try {
+		// Forward request to provider
+		try {
+			switch (command) {
+			case BASYX_GET:
+				providerBackend.processBaSysGet(path, output);
+				break;
+			case BASYX_SET:
+				providerBackend.processBaSysSet(path, jsonValue, output);
+				break;
+			case BASYX_CREATE:
+				providerBackend.processBaSysCreate(path, jsonValue, output);
+				break;
+			case BASYX_DELETE:
+				if (jsonValue == null) {
+					// Serialized null argument indicates that the entity should be removed
+					providerBackend.processBaSysDelete(path, "", output);
+				} else {
+					providerBackend.processBaSysDelete(path, jsonValue, output);
+				}
+				break;
+			case BASYX_INVOKE:
 				providerBackend.processBaSysInvoke(path, jsonValue, output);
-			} catch (ProviderException e) {
-				logger.debug("Exception in BASYX_INVOKE", e);
-				// Catch Exceptions from JSONProvider
-				// No further action here, as the current version
-				// of the TCP-Mapping states, that always Statuscode 0x00 
-				// should be returned with Exceptions encoded in returned String
+				break;
+			default:
+				// Batch entries have paths relative to the path of the frame
+				providerBackend.processBaSysBatch(path, jsonValue, output);
+				break;
 			}
-
-			// Send response frame
+		} catch (ProviderException e) {
+			logger.debug("Exception in command " + command, e);
+			// The exception is encoded in the returned String, the status tells its type
 			output.flush();
-			sendResponseFrame(output);
-
-			break;
+			return ExceptionToBaSyxStatusMapper.mapFromException(e);
 		}
 
-		default:
-			throw new RuntimeException("Unknown BaSyx TCP command received");
-		}
+		output.flush();
+		return BASYX_RESULT_OK;
 	}
 
 	/**
-	 * Sends a response to the client that carries the JSON response
-	 * 
-	 * @param byteArrayOutput
-	 * @throws IOException
+	 * Reads a length field and checks that the following bytes are part of the
+	 * frame
 	 */
-	private void sendResponseFrame(ByteArrayOutputStream byteArrayOutput) throws IOException {
-		// Create response frame with positive response
-		sendResponseFrame(byteArrayOutput, BASYX_RESULT_OK);
+	private static int readLength(byte[] rxFrame, int offset, int end) throws IOException {
+		if (offset + 4 > end) {
+			throw new IOException("Request frame is truncated");
+		}
+		int length = CoderTools.getInt32(rxFrame, offset);
+		if (length < 0 || offset + 4 + length > end) {
+			throw new IOException("Invalid length " + length + " in request frame");
+		}
+		return length;
 	}
 
 	/**
-	 * Sends a response to the client that carries the JSON response
+	 * Sends a response frame to the client. Header and response are written at
+	 * once, without copying the response.
 	 * 
-	 * @param byteArrayOutput
+	 * @param frame
 	 * @throws IOException
 	 */
-	private void sendResponseFrame(ByteArrayOutputStream byteArrayOutput, int result) throws IOException {
-		// Create response frame
-		byte[] encodedResult = byteArrayOutput.toByteArray();
-		int resultFrameSize = encodedResult.length + 1;
-		byte[] frameLength = new byte[4];
-		byte[] encodedResultLength = new byte[4];
-		CoderTools.setInt32(frameLength, 0, resultFrameSize + 4);
-		CoderTools.setInt32(encodedResultLength, 0, encodedResult.length);
-
-		// Place response frame in buffer
-		ByteBuffer buffer = ByteBuffer.allocate(resultFrameSize + 4 + 4);
-		buffer.put(frameLength);
-		buffer.put((byte) result);
-		buffer.put(encodedResultLength);
-		buffer.put(encodedResult);
-		buffer.flip();
-
+	private void sendResponseFrame(ByteBuffer[] frame) throws IOException {
 		// Transmit response frame
-		commChannel.write(buffer);
-
-		// Reset output stream
-		byteArrayOutput.reset();
+		while (frame[0].hasRemaining() || frame[1].hasRemaining()) {
+			commChannel.write(frame);
+		}
 	}
 
 	/**
@@ -290,6 +298,17 @@ public class VABBaSyxTCPInterface<ModelProvider extends IModelProvider> extends
 		}
 	}
 
+	/**
+	 * Closes the connection to the client, which ends the thread
+	 */
+	public void closeConnection() {
+		try {
+			commChannel.close();
+		} catch (IOException e) {
+			logger.debug("Exception while closing the comChannel ", e);
+		}
+	}
+
 	/**
 	 * Thread main function
 	 */
@@ -305,6 +324,10 @@ public class VABBaSyxTCPInterface<ModelProvider extends IModelProvider> extends
 				readBytes(rxBuffer1, 4);
 				int frameSize = CoderTools.getInt32(rxBuffer1.array(), 0);
 				logger.debug("Read Frame with size: " + frameSize);
+				if (frameSize < 1) {
+					logger.warn("Received invalid frame size " + frameSize + ", closing connection");
+					break;
+				}
 
 				// Wait for frame to arrive
 				ByteBuffer rxBuffer2 = ByteBuffer.allocate(frameSize);
@@ -319,8 +342,9 @@ public class VABBaSyxTCPInterface<ModelProvider extends IModelProvider> extends
 					break;
 				}
 
-				// Output error
+				// Output error, the connection is not usable anymore
 				logger.error("Exception in run", e);
+				break;
 			}
 		}
 		try {
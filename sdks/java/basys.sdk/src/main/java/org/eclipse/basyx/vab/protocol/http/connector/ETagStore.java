@@ -0,0 +1,110 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.basyx.vab.protocol.http.connector;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Stores the ETags and bodies of received responses by URL, so that GET
+ * requests can be sent conditionally. The total size of the stored responses
+ * is bounded, only the least recently used ones are kept. The size of an
+ * entry is estimated as two bytes per character of its URL, ETag and body.
+ *
+ * @author schnicke
+ *
+ */
+public class ETagStore {
+	private final long maxSize;
+	private final Map<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+	private long size = 0;
+
+	/**
+	 * @param maxSize
+	 *            maximum total size of the stored responses in bytes
+	 */
+	public ETagStore(long maxSize) {
+		this.maxSize = maxSize;
+	}
+
+	/**
+	 * Returns the stored response for an URL
+	 *
+	 * @param url
+	 * @return the entry or null
+	 */
+	public synchronized Entry get(String url) {
+		return entries.get(url);
+	}
+
+	/**
+	 * Stores a response. Responses exceeding the maximum size on their own are
+	 * not stored.
+	 *
+	 * @param url
+	 * @param eTag
+	 * @param body
+	 */
+	public synchronized void put(String url, String eTag, String body) {
+		remove(url);
+		Entry entry = new Entry(eTag, body, 2L * (url.length() + eTag.length() + body.length()));
+		if (entry.size > maxSize) {
+			return;
+		}
+		entries.put(url, entry);
+		size += entry.size;
+
+		Iterator<Entry> eldest = entries.values().iterator();
+		while (size > maxSize) {
+			size -= eldest.next().size;
+			eldest.remove();
+		}
+	}
+
+	public synchronized void remove(String url) {
+		Entry removed = entries.remove(url);
+		if (removed != null) {
+			size -= removed.size;
+		}
+	}
+
+	/**
+	 * Returns the estimated total size of the stored responses in bytes
+	 *
+	 * @return
+	 */
+	public synchronized long getSize() {
+		return size;
+	}
+
+	/**
+	 * A stored response
+	 */
+	public static class Entry {
+		private final String eTag;
+		private final String body;
+		private final long size;
+
+		private Entry(String eTag, String body, long size) {
+			this.eTag = eTag;
+			this.body = body;
+			this.size = size;
+		}
+
+		public String getETag() {
+			return eTag;
+		}
+
+		public String getBody() {
+			return body;
+		}
+	}
+}
@@ -0,0 +1,135 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.basyx.vab.protocol.http.connector;
+
+/**
+ * Settings of the pooled HTTP clients of an {@link HTTPClientPool}. All
+ * timeouts are given in milliseconds, 0 disables a timeout.
+ * 
+ * @author schnicke
+ *
+ */
+public class HTTPClientConfiguration {
+	public static final int DEFAULT_MAX_CONNECTIONS = 200;
+	public static final int DEFAULT_MAX_CONNECTIONS_PER_HOST = 50;
+	public static final int DEFAULT_CONNECT_TIMEOUT = 10000;
+	public static final int DEFAULT_READ_TIMEOUT = 0;
+
+	/**
+	 * Below the default keep-alive timeout of Tomcat and the NIO server, so that
+	 * connections are rather closed by the client than reused after the server
+	 * has closed them
+	 */
+	public static final int DEFAULT_IDLE_TIMEOUT = 15000;
+
+	public static final int DEFAULT_ASYNC_EXECUTOR_THREADS = 16;
+
+	/**
+	 * Conditional GET requests are disabled by default, since the bodies of the
+	 * responses are kept in memory
+	 */
+	public static final long DEFAULT_ETAG_CACHE_SIZE = 0;
+
+	private int maxConnections = DEFAULT_MAX_CONNECTIONS;
+	private int maxConnectionsPerHost = DEFAULT_MAX_CONNECTIONS_PER_HOST;
+	private int connectTimeout = DEFAULT_CONNECT_TIMEOUT;
+	private int readTimeout = DEFAULT_READ_TIMEOUT;
+	private int idleTimeout = DEFAULT_IDLE_TIMEOUT;
+	private int asyncExecutorThreads = DEFAULT_ASYNC_EXECUTOR_THREADS;
+	private long eTagCacheSize = DEFAULT_ETAG_CACHE_SIZE;
+
+	/**
+	 * Returns the maximum number of connections of a client
+	 * @return
+	 */
+	public int getMaxConnections() {
+		return maxConnections;
+	}
+
+	public void setMaxConnections(int maxConnections) {
+		this.maxConnections = maxConnections;
+	}
+
+	/**
+	 * Returns the maximum number of connections to a single host. Further
+	 * requests wait for a free connection.
+	 * @return
+	 */
+	public int getMaxConnectionsPerHost() {
+		return maxConnectionsPerHost;
+	}
+
+	public void setMaxConnectionsPerHost(int maxConnectionsPerHost) {
+		this.maxConnectionsPerHost = maxConnectionsPerHost;
+	}
+
+	public int getConnectTimeout() {
+		return connectTimeout;
+	}
+
+	public void setConnectTimeout(int connectTimeout) {
+		this.connectTimeout = connectTimeout;
+	}
+
+	/**
+	 * Returns the maximum time to wait for data of a response. Should be
+	 * disabled for event streams and long running operations.
+	 * @return
+	 */
+	public int getReadTimeout() {
+		return readTimeout;
+	}
+
+	public void setReadTimeout(int readTimeout) {
+		this.readTimeout = readTimeout;
+	}
+
+	/**
+	 * Returns the time after which unused connections are closed
+	 * @return
+	 */
+	public int getIdleTimeout() {
+		return idleTimeout;
+	}
+
+	public void setIdleTimeout(int idleTimeout) {
+		this.idleTimeout = idleTimeout;
+	}
+
+	/**
+	 * Returns the number of threads of the executor performing the asynchronous
+	 * requests of a client. The transport blocks, so each asynchronous request
+	 * occupies one of the threads until its response has been read, i.e. this
+	 * is the maximum number of asynchronous requests in flight. Further
+	 * requests are queued without blocking the caller.
+	 * @return
+	 */
+	public int getAsyncExecutorThreads() {
+		return asyncExecutorThreads;
+	}
+
+	public void setAsyncExecutorThreads(int asyncExecutorThreads) {
+		this.asyncExecutorThreads = asyncExecutorThreads;
+	}
+
+	/**
+	 * Returns the maximum total size in bytes of the responses that are kept
+	 * for conditional GET requests by the connectors of a pool, see
+	 * {@link ETagStore}. 0 disables conditional requests.
+	 * @return
+	 */
+	public long getETagCacheSize() {
+		return eTagCacheSize;
+	}
+
+	public void setETagCacheSize(long eTagCacheSize) {
+		this.eTagCacheSize = eTagCacheSize;
+	}
+}
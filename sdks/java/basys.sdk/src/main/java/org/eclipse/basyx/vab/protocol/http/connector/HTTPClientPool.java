@@ -0,0 +1,209 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.basyx.vab.protocol.http.connector;
+
+import java.lang.ref.WeakReference;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.ws.rs.client.Client;
+import javax.ws.rs.client.ClientBuilder;
+
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.glassfish.jersey.apache.connector.ApacheClientProperties;
+import org.glassfish.jersey.apache.connector.ApacheConnectorProvider;
+import org.glassfish.jersey.client.ClientConfig;
+import org.glassfish.jersey.client.ClientProperties;
+import org.glassfish.jersey.client.RequestEntityProcessing;
+import org.glassfish.jersey.client.filter.EncodingFilter;
+import org.glassfish.jersey.message.DeflateEncoder;
+import org.glassfish.jersey.message.GZipEncoder;
+
+/**
+ * Shares HTTP clients between the {@link HTTPConnector}s to the same host.
+ * Each client keeps a pool of persistent connections, so that subsequent
+ * requests do not have to establish a new connection. Connections that have
+ * been idle for longer than the configured timeout are closed.<br />
+ * <br />
+ * Connectors that are created without a pool use the {@link #getDefault()
+ * default pool}.
+ *
+ * @author schnicke
+ *
+ */
+public class HTTPClientPool {
+	// Closes idle connections of all pools, has to be initialized before the default pool
+	private static final ScheduledExecutorService EVICTOR = Executors.newSingleThreadScheduledExecutor(r -> {
+		Thread thread = new Thread(r, "basyx-http-client-evictor");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private static final HTTPClientPool DEFAULT_POOL = new HTTPClientPool(new HTTPClientConfiguration());
+
+	private final HTTPClientConfiguration configuration;
+	private final Map<String, PooledClient> clients = new ConcurrentHashMap<>();
+	private final ETagStore eTagStore;
+	private volatile boolean closed = false;
+
+	/**
+	 * Client and its connection pool
+	 */
+	private static class PooledClient {
+		private final Client client;
+		private final PoolingHttpClientConnectionManager connectionManager;
+
+		private PooledClient(Client client, PoolingHttpClientConnectionManager connectionManager) {
+			this.client = client;
+			this.connectionManager = connectionManager;
+		}
+	}
+
+	/**
+	 * Creates a pool whose clients are configured by the given configuration
+	 *
+	 * @param configuration
+	 */
+	public HTTPClientPool(HTTPClientConfiguration configuration) {
+		this.configuration = configuration;
+		this.eTagStore = configuration.getETagCacheSize() > 0 ? new ETagStore(configuration.getETagCacheSize()) : null;
+		if (configuration.getIdleTimeout() > 0) {
+			scheduleEviction(this, configuration.getIdleTimeout());
+		}
+	}
+
+	/**
+	 * Returns the pool that is shared by all connectors without an explicit pool
+	 *
+	 * @return
+	 */
+	public static HTTPClientPool getDefault() {
+		return DEFAULT_POOL;
+	}
+
+	public HTTPClientConfiguration getConfiguration() {
+		return configuration;
+	}
+
+	/**
+	 * Returns the store of the responses for conditional GET requests, which is
+	 * shared by all connectors using the pool
+	 *
+	 * @return the store or null, if conditional requests are disabled
+	 */
+	public ETagStore getETagStore() {
+		return eTagStore;
+	}
+
+	/**
+	 * Returns the client for the host of an address
+	 *
+	 * @param address
+	 * @param isCompressionEnabled
+	 *            whether the client accepts compressed responses
+	 * @return
+	 */
+	public Client getClient(String address, boolean isCompressionEnabled) {
+		if (closed) {
+			throw new IllegalStateException("The HTTP client pool has been closed");
+		}
+		String key = getHost(address) + (isCompressionEnabled ? "#compressed" : "");
+		return clients.computeIfAbsent(key, k -> createClient(isCompressionEnabled)).client;
+	}
+
+	/**
+	 * Closes all clients and their connections. The clients can not be used
+	 * anymore afterwards.
+	 */
+	public void close() {
+		closed = true;
+		for (PooledClient pooled : clients.values()) {
+			pooled.client.close();
+			pooled.connectionManager.shutdown();
+		}
+		clients.clear();
+	}
+
+	/**
+	 * Returns scheme, host and port of an address. Addresses that are no valid
+	 * URIs are used as they are.
+	 *
+	 * @param address
+	 * @return
+	 */
+	private static String getHost(String address) {
+		try {
+			URI uri = new URI(address);
+			if (uri.getHost() == null) {
+				return address;
+			}
+			return uri.getScheme() + "://" + uri.getHost().toLowerCase() + ":" + uri.getPort();
+		} catch (URISyntaxException e) {
+			return address;
+		}
+	}
+
+	private PooledClient createClient(boolean isCompressionEnabled) {
+		PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+		connectionManager.setMaxTotal(configuration.getMaxConnections());
+		connectionManager.setDefaultMaxPerRoute(configuration.getMaxConnectionsPerHost());
+
+		ClientConfig config = new ClientConfig();
+		config.connectorProvider(new ApacheConnectorProvider());
+		config.property(ApacheClientProperties.CONNECTION_MANAGER, connectionManager);
+		config.property(ClientProperties.CONNECT_TIMEOUT, configuration.getConnectTimeout());
+		config.property(ClientProperties.READ_TIMEOUT, configuration.getReadTimeout());
+		config.property(ClientProperties.ASYNC_THREADPOOL_SIZE, configuration.getAsyncExecutorThreads());
+		// Sends the bodies with a Content-Length instead of chunked
+		config.property(ClientProperties.REQUEST_ENTITY_PROCESSING, RequestEntityProcessing.BUFFERED);
+		if (isCompressionEnabled) {
+			// Sets the Accept-Encoding header and (de-)compresses the bodies according to their Content-Encoding
+			config.register(EncodingFilter.class);
+			config.register(GZipEncoder.class);
+			config.register(DeflateEncoder.class);
+		}
+		return new PooledClient(ClientBuilder.newClient(config), connectionManager);
+	}
+
+	private void evictIdleConnections() {
+		for (PooledClient pooled : clients.values()) {
+			pooled.connectionManager.closeExpiredConnections();
+			pooled.connectionManager.closeIdleConnections(configuration.getIdleTimeout(), TimeUnit.MILLISECONDS);
+		}
+	}
+
+	/**
+	 * Periodically evicts the idle connections of a pool. The pool is only
+	 * referenced weakly, so that the eviction ends if it is not used anymore.
+	 *
+	 * @param pool
+	 * @param idleTimeout
+	 */
+	private static void scheduleEviction(HTTPClientPool pool, long idleTimeout) {
+		WeakReference<HTTPClientPool> reference = new WeakReference<>(pool);
+		AtomicReference<ScheduledFuture<?>> task = new AtomicReference<>();
+		long interval = Math.max(1000, idleTimeout / 2);
+		task.set(EVICTOR.scheduleWithFixedDelay(() -> {
+			HTTPClientPool current = reference.get();
+			if (current == null || current.closed) {
+				task.get().cancel(false);
+				return;
+			}
+			current.evictIdleConnections();
+		}, interval, interval, TimeUnit.MILLISECONDS));
+	}
+}
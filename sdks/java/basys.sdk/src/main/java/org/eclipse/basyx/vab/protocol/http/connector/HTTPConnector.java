@@ -9,38 +9,86 @@
  ******************************************************************************/
 package org.eclipse.basyx.vab.protocol.http.connector;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
 import javax.ws.rs.client.Client;
-import javax.ws.rs.client.ClientBuilder;
 import javax.ws.rs.client.Entity;
 import javax.ws.rs.client.Invocation.Builder;
+import javax.ws.rs.client.InvocationCallback;
 import javax.ws.rs.client.WebTarget;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.Status;
+import javax.ws.rs.core.Variant;
 
+import org.eclipse.basyx.vab.coder.binary.serialization.BinaryTools;
 import org.eclipse.basyx.vab.exception.provider.ProviderException;
 import org.eclipse.basyx.vab.modelprovider.VABPathTools;
-import org.eclipse.basyx.vab.protocol.api.IBaSyxConnector;
+import org.eclipse.basyx.vab.modelprovider.event.IPublisher;
+import org.eclipse.basyx.vab.protocol.api.IBaSyxAsyncConnector;
+import org.eclipse.basyx.vab.protocol.api.IBaSyxBatchConnector;
+import org.eclipse.basyx.vab.protocol.api.IBaSyxEventConnector;
+import org.eclipse.basyx.vab.protocol.api.IBaSyxVersionConnector;
+import org.eclipse.basyx.vab.protocol.http.server.CompressionFilter;
 import org.eclipse.basyx.vab.protocol.http.server.ExceptionToHTTPCodeMapper;
-import org.glassfish.jersey.client.HttpUrlConnectorProvider;
+import org.eclipse.basyx.vab.protocol.http.server.VABHTTPInterface;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import io.netty.handler.codec.http.HttpMethod;
 
 /**
- * HTTP connector class
+ * HTTP connector class<br />
+ * If the media type denotes the binary encoding of {@link BinaryTools}, the
+ * serialized values are transferred as raw bytes. They are passed from and to
+ * the caller as ISO-8859-1 Strings, as produced by {@link BinaryTools}.<br />
+ * If the {@link HTTPClientConfiguration#getETagCacheSize() ETag cache} of the
+ * pool is enabled, responses with an ETag are kept in its {@link ETagStore}.
+ * Subsequent GET requests for the same URL are sent conditionally and answered
+ * from the store if the server replies with 304 Not Modified.<br />
+ * If compression is enabled, gzip and deflate encoded responses are accepted
+ * and request bodies of at least {@link #COMPRESSION_MIN_SIZE} characters are
+ * sent gzip encoded. The server has to support compressed requests, e.g. by
+ * enabling the compression of its {@link org.eclipse.basyx.vab.protocol.http.server.BaSyxContext BaSyxContext}.<br />
+ * Batches are sent as one POST request to the {@link VABHTTPInterface#BATCH_PATH}
+ * of the address.<br />
+ * Each subscription to events opens a server-sent event stream at the
+ * {@link VABHTTPInterface#EVENTS_PATH} of the path, which is read by a
+ * separate daemon thread until the subscription is cancelled.<br />
+ * Versions are requested at the {@link VABHTTPInterface#VERSION_PATH} of the
+ * path, conditional changes are sent as PUT requests with an If-Match
+ * header.<br />
+ * The connections are taken from the clients of an {@link HTTPClientPool},
+ * which are shared by all connectors to the same host. The asynchronous
+ * requests do not block the calling thread, but are executor-backed: the
+ * underlying Apache connector blocks, so each request in flight occupies a
+ * thread of the pooled client, see
+ * {@link HTTPClientConfiguration#getAsyncExecutorThreads()}.
  * 
  * @author kuhn, pschorn, schnicke
  *
  */
-public class HTTPConnector implements IBaSyxConnector {
+public class HTTPConnector implements IBaSyxBatchConnector, IBaSyxEventConnector, IBaSyxAsyncConnector, IBaSyxVersionConnector {
 	
 	private static Logger logger = LoggerFactory.getLogger(HTTPConnector.class);
+
+	private static final AtomicInteger EVENT_THREAD_COUNTER = new AtomicInteger();
+
+	/**
+	 * Minimum size of request bodies that are compressed
+	 */
+	public static final int COMPRESSION_MIN_SIZE = 2048;
 	
 	private String address;
 	private String mediaType;
+	private boolean isCompressionEnabled;
 	protected Client client;
+	protected ETagStore eTagStore;
 
 	/**
 	 * Invoke a BaSys get operation via HTTP GET
@@ -61,11 +109,27 @@ public class HTTPConnector implements IBaSyxConnector {
 	}
 
 	public HTTPConnector(String address, String mediaType) {
+		this(address, mediaType, false);
+	}
+
+	public HTTPConnector(String address, String mediaType, boolean isCompressionEnabled) {
+		this(address, mediaType, isCompressionEnabled, HTTPClientPool.getDefault());
+	}
+
+	/**
+	 * Creates a connector using a client of the given pool
+	 * 
+	 * @param address
+	 * @param mediaType
+	 * @param isCompressionEnabled
+	 * @param clientPool
+	 */
+	public HTTPConnector(String address, String mediaType, boolean isCompressionEnabled, HTTPClientPool clientPool) {
 		this.address = address;
 		this.mediaType = mediaType;
-		
-		// Create client
-		client = ClientBuilder.newClient();
+		this.isCompressionEnabled = isCompressionEnabled;
+		this.client = clientPool.getClient(address, isCompressionEnabled);
+		this.eTagStore = clientPool.getETagStore();
 
 		logger.trace("Create with addr: {}", address);
 	}
@@ -84,7 +148,26 @@ public class HTTPConnector implements IBaSyxConnector {
 	@Override
 	public String setValue(String servicePath, String newValue) throws ProviderException {
 
-		return httpPut(servicePath, newValue);
+		return httpPut(servicePath, newValue, null);
+	}
+
+	/**
+	 * Invoke a BaSys get operation for the version of an element via HTTP GET
+	 */
+	@Override
+	public String getVersion(String servicePath) throws ProviderException {
+
+		return httpGet(VABPathTools.concatenatePaths(servicePath, VABHTTPInterface.VERSION_PATH));
+	}
+
+	/**
+	 * Invokes BasysPut method via HTTP PUT with the expected version of the
+	 * element as If-Match header
+	 */
+	@Override
+	public String compareAndSet(String servicePath, long expectedVersion, String newValue) throws ProviderException {
+
+		return httpPut(servicePath, newValue, VABHTTPInterface.getVersionETag(expectedVersion));
 	}
 
 	/**
@@ -166,59 +249,117 @@ public class HTTPConnector implements IBaSyxConnector {
 	 * @return
 	 */
 	private String httpGet(String servicePath) throws ProviderException {
-		logger.trace("[HTTP Get] {}", VABPathTools.concatenatePaths(address, servicePath));
+		String url = VABPathTools.concatenatePaths(address, servicePath);
+		logger.trace("[HTTP Get] {}", url);
 
-		Builder request = retrieveBuilder(servicePath);
+		// Send a conditional request if a response with an ETag is known
+		ETagStore.Entry stored = getStoredResponse(url);
 
 		// Perform request
 		Response rsp = null;
 		try {
-			rsp = request.get();
+			rsp = buildGetRequest(url, stored).get();
 		} finally {
-			if (!isRequestSuccess(rsp)) {
-				throw this.handleProcessingException(HttpMethod.GET, getStatusCode(rsp));	
+			if (!isRequestSuccess(rsp) && !(isNotModified(rsp) && stored != null)) {
+				throw this.handleProcessingException(HttpMethod.GET, rsp);	
 			}
 		}
 
 		// Return response message (header)
-		return rsp.readEntity(String.class);
+		return readGetResponse(url, stored, rsp);
+	}
+
+	private CompletableFuture<String> httpGetAsync(String servicePath) {
+		String url = VABPathTools.concatenatePaths(address, servicePath);
+		logger.trace("[HTTP Get] {}", url);
+
+		ETagStore.Entry stored = getStoredResponse(url);
+		return invokeAsync(HttpMethod.GET, buildGetRequest(url, stored), null, rsp -> {
+			if (!isRequestSuccess(rsp) && !(isNotModified(rsp) && stored != null)) {
+				throw this.handleProcessingException(HttpMethod.GET, rsp);
+			}
+			return readGetResponse(url, stored, rsp);
+		});
+	}
+
+	private ETagStore.Entry getStoredResponse(String url) {
+		return eTagStore == null ? null : eTagStore.get(url);
+	}
+
+	private Builder buildGetRequest(String url, ETagStore.Entry stored) {
+		Builder request = buildRequest(client, url);
+		if (stored != null) {
+			request.header(HttpHeaders.IF_NONE_MATCH, stored.getETag());
+		}
+		return request;
+	}
+
+	/**
+	 * Reads the body of a successful GET response or takes it from the
+	 * {@link ETagStore}, if the server answered with 304 Not Modified
+	 * 
+	 * @param url
+	 * @param stored
+	 * @param rsp
+	 * @return
+	 */
+	private String readGetResponse(String url, ETagStore.Entry stored, Response rsp) {
+		if (isNotModified(rsp)) {
+			rsp.close();
+			return stored.getBody();
+		}
+
+		String body = readResponse(rsp);
+		if (eTagStore == null) {
+			return body;
+		}
+		String eTag = rsp.getHeaderString(HttpHeaders.ETAG);
+		if (eTag != null) {
+			eTagStore.put(url, eTag, body);
+		} else if (stored != null) {
+			eTagStore.remove(url);
+		}
+		return body;
 	}
 
-	private String httpPut(String servicePath, String newValue) throws ProviderException {
+	private String httpPut(String servicePath, String newValue, String ifMatch) throws ProviderException {
 		logger.trace("[HTTP Put] {} [[ {} ]]", VABPathTools.concatenatePaths(address, servicePath), newValue);
 
 		Builder request = retrieveBuilder(servicePath);
+		if (ifMatch != null) {
+			request.header(HttpHeaders.IF_MATCH, ifMatch);
+		}
 
 		// Perform request
 		Response rsp = null;
 		try {
-			rsp = request.put(Entity.entity(newValue, mediaType));
+			rsp = request.put(createEntity(newValue));
 		} finally {
 			if (!isRequestSuccess(rsp)) {
-				throw this.handleProcessingException(HttpMethod.PUT, getStatusCode(rsp));	
+				throw this.handleProcessingException(HttpMethod.PUT, rsp);	
 			}
 		}
 
 		// Return response message (header)
-		return rsp.readEntity(String.class);
+		return readResponse(rsp);
 
 	}
 
 	private String httpPatch(String servicePath, String newValue) throws ProviderException {
 		logger.trace("[HTTP Patch] {} {}", VABPathTools.concatenatePaths(address, servicePath), newValue);
 
-		// Create and invoke HTTP PATCH request
+		// Create and invoke HTTP PATCH request, which is supported natively by the pooled clients
 		Response rsp = null;
 		try {
-			rsp = this.client.target(VABPathTools.concatenatePaths(address, servicePath)).request().build("PATCH", Entity.text(newValue)).property(HttpUrlConnectorProvider.SET_METHOD_WORKAROUND, true).invoke();
+			rsp = buildPatchRequest(servicePath).method(HttpMethod.PATCH.name(), createPatchEntity(newValue));
 		} finally {
 			if (!isRequestSuccess(rsp)) {
-				throw this.handleProcessingException(HttpMethod.PATCH, getStatusCode(rsp));	
+				throw this.handleProcessingException(HttpMethod.PATCH, rsp);	
 			}
 		}
 
 		// Return response message (header)
-		return rsp.readEntity(String.class);
+		return readResponse(rsp);
 	}
 
 	private String httpPost(String servicePath, String parameter) throws ProviderException {
@@ -229,15 +370,15 @@ public class HTTPConnector implements IBaSyxConnector {
 		// Perform request
 		Response rsp = null;
 		try {
-			rsp = request.post(Entity.entity(parameter, mediaType));
+			rsp = request.post(createEntity(parameter));
 		} finally {
 			if (!isRequestSuccess(rsp)) {
-				throw this.handleProcessingException(HttpMethod.POST, getStatusCode(rsp));	
+				throw this.handleProcessingException(HttpMethod.POST, rsp);	
 			}
 		}
 
 		// Return response message (header)
-		return rsp.readEntity(String.class);
+		return readResponse(rsp);
 	}
 
 	private String httpDelete(String servicePath) throws ProviderException {
@@ -251,12 +392,20 @@ public class HTTPConnector implements IBaSyxConnector {
 			rsp = request.delete();
 		} finally {
 			if (!isRequestSuccess(rsp)) {
-				throw this.handleProcessingException(HttpMethod.DELETE, getStatusCode(rsp));	
+				throw this.handleProcessingException(HttpMethod.DELETE, rsp);	
 			}
 		}
 
 		// Return response message (header)
-		return rsp.readEntity(String.class);
+		return readResponse(rsp);
+	}
+
+	private Builder buildPatchRequest(String servicePath) {
+		return client.target(VABPathTools.concatenatePaths(address, servicePath)).request();
+	}
+
+	private Entity<?> createPatchEntity(String value) {
+		return isBinary() ? createEntity(value) : createEntity(value, MediaType.TEXT_PLAIN_TYPE);
 	}
 
 	@Override
@@ -265,6 +414,182 @@ public class HTTPConnector implements IBaSyxConnector {
 		return httpPost(path, parameter);
 	}
 
+	@Override
+	public CompletableFuture<String> getValueAsync(String servicePath) {
+		return httpGetAsync(servicePath);
+	}
+
+	@Override
+	public CompletableFuture<String> setValueAsync(String servicePath, String newValue) {
+		logger.trace("[HTTP Put] {} [[ {} ]]", VABPathTools.concatenatePaths(address, servicePath), newValue);
+		return invokeAsync(HttpMethod.PUT, retrieveBuilder(servicePath), createEntity(newValue));
+	}
+
+	@Override
+	public CompletableFuture<String> createValueAsync(String servicePath, String newValue) {
+		logger.trace("[HTTP Post] {} {}", VABPathTools.concatenatePaths(address, servicePath), newValue);
+		return invokeAsync(HttpMethod.POST, retrieveBuilder(servicePath), createEntity(newValue));
+	}
+
+	@Override
+	public CompletableFuture<String> deleteValueAsync(String servicePath) {
+		logger.trace("[HTTP Delete] {}", VABPathTools.concatenatePaths(address, servicePath));
+		return invokeAsync(HttpMethod.DELETE, retrieveBuilder(servicePath), null);
+	}
+
+	@Override
+	public CompletableFuture<String> deleteValueAsync(String servicePath, String obj) {
+		logger.trace("[HTTP Patch] {} {}", VABPathTools.concatenatePaths(address, servicePath), obj);
+		return invokeAsync(HttpMethod.PATCH, buildPatchRequest(servicePath), createPatchEntity(obj));
+	}
+
+	@Override
+	public CompletableFuture<String> invokeOperationAsync(String servicePath, String parameter) {
+		return createValueAsync(servicePath, parameter);
+	}
+
+	private CompletableFuture<String> invokeAsync(HttpMethod method, Builder request, Entity<?> entity) {
+		return invokeAsync(method, request, entity, rsp -> {
+			if (!isRequestSuccess(rsp)) {
+				throw this.handleProcessingException(method, rsp);
+			}
+			return readResponse(rsp);
+		});
+	}
+
+	/**
+	 * Performs a request in a thread of the client's executor. The response is
+	 * read by the given function in the same thread.
+	 * 
+	 * @param method
+	 * @param request
+	 * @param entity
+	 *            the request body or null
+	 * @param reader
+	 *            reads the result from the response or throws the
+	 *            ProviderException of the response
+	 * @return
+	 */
+	private CompletableFuture<String> invokeAsync(HttpMethod method, Builder request, Entity<?> entity, Function<Response, String> reader) {
+		CompletableFuture<String> result = new CompletableFuture<>();
+		InvocationCallback<Response> callback = new InvocationCallback<Response>() {
+			@Override
+			public void completed(Response rsp) {
+				try {
+					result.complete(reader.apply(rsp));
+				} catch (RuntimeException e) {
+					result.completeExceptionally(e);
+				}
+			}
+
+			@Override
+			public void failed(Throwable throwable) {
+				logger.trace("[HTTP " + method.name() + "] Request to " + address + " failed", throwable);
+				result.completeExceptionally(handleProcessingException(method, (Response) null));
+			}
+		};
+
+		try {
+			if (entity == null) {
+				request.async().method(method.name(), callback);
+			} else {
+				request.async().method(method.name(), entity, callback);
+			}
+		} catch (RuntimeException e) {
+			callback.failed(e);
+		}
+		return result;
+	}
+
+	/**
+	 * Invoke a batch of BaSys operations via HTTP POST
+	 * 
+	 * @throws ProviderException
+	 */
+	@Override
+	public String processBatch(String entries) throws ProviderException {
+
+		return httpPost(VABHTTPInterface.BATCH_PATH, entries);
+	}
+
+	/**
+	 * Subscribe to the server-sent events of a path. The events are always JSON
+	 * encoded.
+	 */
+	@Override
+	public IPublisher<String> subscribe(String servicePath) {
+		return subscriber -> {
+			HTTPEventSubscription subscription = new HTTPEventSubscription(subscriber, () -> openEventStream(servicePath));
+			Thread thread = new Thread(subscription, "basyx-events-" + EVENT_THREAD_COUNTER.incrementAndGet());
+			thread.setDaemon(true);
+			thread.start();
+		};
+	}
+
+	private Response openEventStream(String servicePath) throws ProviderException {
+		String url = VABPathTools.concatenatePaths(address, servicePath, VABHTTPInterface.EVENTS_PATH);
+		logger.trace("[HTTP Get] {}", url);
+
+		Response rsp = null;
+		try {
+			rsp = client.target(url).request().accept(MediaType.SERVER_SENT_EVENTS).get();
+		} finally {
+			if (!isRequestSuccess(rsp)) {
+				throw this.handleProcessingException(HttpMethod.GET, rsp);
+			}
+		}
+		return rsp;
+	}
+
+	/**
+	 * Indicates if the binary encoding is used
+	 * 
+	 * @return
+	 */
+	private boolean isBinary() {
+		return BinaryTools.isBinaryMediaType(mediaType);
+	}
+
+	/**
+	 * Creates the request entity for a serialized value
+	 * 
+	 * @param value
+	 * @return
+	 */
+	private Entity<?> createEntity(String value) {
+		return createEntity(value, MediaType.valueOf(mediaType));
+	}
+
+	/**
+	 * Creates the request entity for a serialized value with the given media
+	 * type. Large values are compressed if compression is enabled.
+	 * 
+	 * @param value
+	 * @param type
+	 * @return
+	 */
+	private Entity<?> createEntity(String value, MediaType type) {
+		Object payload = isBinary() ? value.getBytes(StandardCharsets.ISO_8859_1) : value;
+		if (isCompressionEnabled && value.length() >= COMPRESSION_MIN_SIZE) {
+			// The body is compressed by the registered encoder according to the Content-Encoding
+			return Entity.entity(payload, new Variant(type, (Locale) null, CompressionFilter.GZIP));
+		}
+		return Entity.entity(payload, type);
+	}
+
+	/**
+	 * Reads the serialized value from a response
+	 * 
+	 * @param rsp
+	 * @return
+	 */
+	private String readResponse(Response rsp) {
+		if (isBinary()) {
+			return new String(rsp.readEntity(byte[].class), StandardCharsets.ISO_8859_1);
+		}
+		return rsp.readEntity(String.class);
+	}
+
 	/**
 	 * Create the builder depending on the service path
 	 * 
@@ -278,6 +603,22 @@ public class HTTPConnector implements IBaSyxConnector {
 	private ProviderException handleProcessingException(HttpMethod method, int statusCode) {
 		return ExceptionToHTTPCodeMapper.mapToException(statusCode, "[HTTP " + method.name() + "] Failed to request " + this.address + " with mediatype " + this.mediaType);
 	}
+
+	/**
+	 * Maps a failed response to an exception. The response is closed, so that
+	 * its connection is returned to the pool.
+	 * 
+	 * @param method
+	 * @param rsp
+	 *            the response or null, if the request failed without response
+	 * @return
+	 */
+	private ProviderException handleProcessingException(HttpMethod method, Response rsp) {
+		if (rsp != null) {
+			rsp.close();
+		}
+		return handleProcessingException(method, getStatusCode(rsp));
+	}
 	
 	/**
 	 * Get status code from HTTP Response
@@ -288,6 +629,16 @@ public class HTTPConnector implements IBaSyxConnector {
 		return rsp != null ? rsp.getStatus() : 0;
 	}
 	
+	/**
+	 * Returns true if the server answered a conditional request with 304 Not
+	 * Modified
+	 * @param rsp
+	 * @return
+	 */
+	private boolean isNotModified(Response rsp) {
+		return rsp != null && rsp.getStatus() == Status.NOT_MODIFIED.getStatusCode();
+	}
+
 	/**
 	 * Returns true if the response is succeeded
 	 * @param rsp
@@ -9,20 +9,103 @@
  ******************************************************************************/
 package org.eclipse.basyx.vab.protocol.http.connector;
 
+import javax.ws.rs.core.MediaType;
+
+import org.eclipse.basyx.vab.coder.binary.serialization.BinaryTools;
 import org.eclipse.basyx.vab.coder.json.connector.JSONConnector;
+import org.eclipse.basyx.vab.coder.json.serialization.DefaultTypeFactory;
 import org.eclipse.basyx.vab.modelprovider.api.IModelProvider;
 import org.eclipse.basyx.vab.protocol.api.ConnectorFactory;
 
+/**
+ * Creates {@link HTTPConnector}s. The connectors to the same host share a
+ * pooled client, see {@link HTTPClientPool}.
+ * 
+ * @author schnicke
+ *
+ */
 public class HTTPConnectorFactory extends ConnectorFactory {
 
+	/**
+	 * Media type used by the created connectors
+	 */
+	private String mediaType;
+
+	/**
+	 * Indicates whether the created connectors use HTTP compression
+	 */
+	private boolean isCompressionEnabled;
+
+	/**
+	 * Pool of the clients used by the created connectors
+	 */
+	private HTTPClientPool clientPool;
+
+	/**
+	 * Creates connectors using JSON
+	 */
+	public HTTPConnectorFactory() {
+		this(MediaType.APPLICATION_JSON + ";charset=UTF-8");
+	}
+
+	/**
+	 * Creates connectors using the given media type. Passing
+	 * {@link BinaryTools#MEDIATYPE} negotiates the binary encoding with the server.
+	 * 
+	 * @param mediaType
+	 */
+	public HTTPConnectorFactory(String mediaType) {
+		this(mediaType, false);
+	}
+
+	/**
+	 * Creates connectors using the given media type. If compression is enabled,
+	 * the connectors accept compressed responses and compress large request
+	 * bodies.
+	 * 
+	 * @param mediaType
+	 * @param isCompressionEnabled
+	 */
+	public HTTPConnectorFactory(String mediaType, boolean isCompressionEnabled) {
+		this(mediaType, isCompressionEnabled, HTTPClientPool.getDefault());
+	}
+
+	/**
+	 * Creates connectors whose clients are configured by the given
+	 * configuration, e.g. to increase the number of connections per host
+	 * 
+	 * @param mediaType
+	 * @param isCompressionEnabled
+	 * @param clientConfiguration
+	 */
+	public HTTPConnectorFactory(String mediaType, boolean isCompressionEnabled, HTTPClientConfiguration clientConfiguration) {
+		this(mediaType, isCompressionEnabled, new HTTPClientPool(clientConfiguration));
+	}
+
+	/**
+	 * Creates connectors using clients of the given pool
+	 * 
+	 * @param mediaType
+	 * @param isCompressionEnabled
+	 * @param clientPool
+	 */
+	public HTTPConnectorFactory(String mediaType, boolean isCompressionEnabled, HTTPClientPool clientPool) {
+		this.mediaType = mediaType;
+		this.isCompressionEnabled = isCompressionEnabled;
+		this.clientPool = clientPool;
+	}
+
 	/**
 	 * returns HTTPConnetor wrapped with ConnectedHashmapProvider that handles
 	 * message header information
 	 */
 	@Override
 	protected IModelProvider createProvider(String addr) {
+		if (BinaryTools.isBinaryMediaType(mediaType)) {
+			return new JSONConnector(new HTTPConnector(addr, mediaType, isCompressionEnabled, clientPool), new BinaryTools(new DefaultTypeFactory()));
+		}
 
-		return new JSONConnector(new HTTPConnector(addr));
+		return new JSONConnector(new HTTPConnector(addr, mediaType, isCompressionEnabled, clientPool));
 	}
 
 }
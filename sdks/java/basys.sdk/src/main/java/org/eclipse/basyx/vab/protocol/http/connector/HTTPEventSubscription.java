@@ -0,0 +1,194 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.basyx.vab.protocol.http.connector;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Supplier;
+
+import javax.ws.rs.core.Response;
+
+import org.eclipse.basyx.vab.exception.provider.ProviderException;
+import org.eclipse.basyx.vab.modelprovider.event.ISubscriber;
+import org.eclipse.basyx.vab.modelprovider.event.ISubscription;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Subscription to a stream of server-sent events. The stream is read by the
+ * thread running this subscription. The data of each event is passed to the
+ * subscriber as soon as it has requested it, i.e. the stream is not read ahead
+ * of the demand of the subscriber.
+ *
+ * @author schnicke
+ *
+ */
+class HTTPEventSubscription implements ISubscription, Runnable {
+	private static Logger logger = LoggerFactory.getLogger(HTTPEventSubscription.class);
+
+	private static final String DATA_FIELD = "data:";
+
+	private final ISubscriber<? super String> subscriber;
+	private final Supplier<Response> streamOpener;
+
+	// Guarded by this
+	private long demand = 0;
+	private boolean cancelled = false;
+	private Response response;
+
+	/**
+	 * @param subscriber
+	 * @param streamOpener
+	 *            opens the stream, throws a ProviderException if the server
+	 *            rejects the request
+	 */
+	HTTPEventSubscription(ISubscriber<? super String> subscriber, Supplier<Response> streamOpener) {
+		this.subscriber = subscriber;
+		this.streamOpener = streamOpener;
+	}
+
+	@Override
+	public void run() {
+		subscriber.onSubscribe(this);
+
+		Response rsp;
+		try {
+			rsp = streamOpener.get();
+		} catch (ProviderException e) {
+			if (!isCancelled()) {
+				subscriber.onError(e);
+			}
+			return;
+		}
+
+		synchronized (this) {
+			if (cancelled) {
+				rsp.close();
+				return;
+			}
+			response = rsp;
+		}
+
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(rsp.readEntity(InputStream.class), StandardCharsets.UTF_8))) {
+			StringBuilder data = null;
+			String line;
+			while ((line = reader.readLine()) != null) {
+				if (line.isEmpty()) {
+					// An empty line terminates the event
+					if (data != null && !dispatch(data.toString())) {
+						return;
+					}
+					data = null;
+				} else if (line.startsWith(DATA_FIELD)) {
+					String value = line.substring(DATA_FIELD.length());
+					if (value.startsWith(" ")) {
+						value = value.substring(1);
+					}
+					data = data == null ? new StringBuilder(value) : data.append('\n').append(value);
+				}
+				// Comments and other fields are ignored
+			}
+
+			if (!isCancelled()) {
+				subscriber.onComplete();
+			}
+		} catch (IOException | RuntimeException e) {
+			// Cancelling closes the stream, which is not an error
+			if (!isCancelled()) {
+				subscriber.onError(e);
+			}
+		} finally {
+			rsp.close();
+		}
+	}
+
+	/**
+	 * Passes an event to the subscriber after waiting for its demand
+	 *
+	 * @param data
+	 * @return false, if the subscription has been cancelled
+	 */
+	private boolean dispatch(String data) {
+		if (!awaitDemand()) {
+			return false;
+		}
+
+		try {
+			subscriber.onNext(data);
+		} catch (RuntimeException e) {
+			logger.warn("Subscriber failed to handle event, cancelling the subscription", e);
+			cancel();
+			return false;
+		}
+		return true;
+	}
+
+	private synchronized boolean awaitDemand() {
+		try {
+			while (demand == 0 && !cancelled) {
+				wait();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			cancelled = true;
+		}
+
+		if (cancelled) {
+			return false;
+		}
+		if (demand != Long.MAX_VALUE) {
+			demand--;
+		}
+		return true;
+	}
+
+	private synchronized boolean isCancelled() {
+		return cancelled;
+	}
+
+	@Override
+	public void request(long n) {
+		synchronized (this) {
+			if (cancelled) {
+				return;
+			}
+			if (n > 0) {
+				// Unbounded demand if it overflows
+				demand = demand + n < 0 ? Long.MAX_VALUE : demand + n;
+				notifyAll();
+				return;
+			}
+		}
+
+		cancel();
+		subscriber.onError(new IllegalArgumentException("Requested a non-positive number of events: " + n));
+	}
+
+	@Override
+	public void cancel() {
+		Response toClose;
+		synchronized (this) {
+			if (cancelled) {
+				return;
+			}
+			cancelled = true;
+			toClose = response;
+			notifyAll();
+		}
+
+		// Unblocks the reading thread
+		if (toClose != null) {
+			toClose.close();
+		}
+	}
+}
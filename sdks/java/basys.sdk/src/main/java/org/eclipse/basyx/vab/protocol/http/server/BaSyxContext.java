@@ -9,11 +9,17 @@
  ******************************************************************************/
 package org.eclipse.basyx.vab.protocol.http.server;
 
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.zip.Deflater;
 
 import javax.servlet.http.HttpServlet;
 
+import org.eclipse.basyx.vab.coder.binary.serialization.BinaryTools;
+
 
 
 /**
@@ -30,6 +36,27 @@ public class BaSyxContext extends HashMap<String, HttpServlet> {
 	 */
 	private static final long serialVersionUID = 1L;
 	
+	/**
+	 * Default minimum size of response bodies that are compressed
+	 */
+	public static final int DEFAULT_COMPRESSION_MIN_SIZE = 2048;
+	
+	/**
+	 * Default content types of compressible responses
+	 */
+	public static final String[] DEFAULT_COMPRESSIBLE_MIME_TYPES = { "application/json", "text/plain", BinaryTools.MEDIATYPE };
+	
+	/**
+	 * Default number of threads executing operation invocations, i.e. operations
+	 * are invoked in the request threads unless configured otherwise
+	 */
+	public static final int DEFAULT_OPERATION_THREADS = 0;
+	
+	/**
+	 * Default number of operation invocations waiting for a free thread
+	 */
+	public static final int DEFAULT_OPERATION_QUEUE_SIZE = 256;
+	
 	
 	/**
 	 * Requested server context path
@@ -71,6 +98,100 @@ public class BaSyxContext extends HashMap<String, HttpServlet> {
 	 * Servlet parameter
 	 */
 	protected Map<String, Map<String, String>> servletParameter = new HashMap<>();
+	
+	/**
+	 * Indicates whether HTTP compression is enabled
+	 */
+	private boolean isCompressionEnabled = false;
+	
+	/**
+	 * Minimum size of response bodies that are compressed
+	 */
+	private int compressionMinSize = DEFAULT_COMPRESSION_MIN_SIZE;
+	
+	/**
+	 * Compression level as defined by {@link Deflater}
+	 */
+	private int compressionLevel = Deflater.DEFAULT_COMPRESSION;
+	
+	/**
+	 * Content types of compressible responses
+	 */
+	private Collection<String> compressibleMimeTypes = Arrays.asList(DEFAULT_COMPRESSIBLE_MIME_TYPES);
+	
+	/**
+	 * Server implementation hosting the servlets
+	 */
+	private HTTPServerBackend serverBackend = HTTPServerBackend.TOMCAT;
+	
+	/**
+	 * Connector protocol, i.e. <i>nio</i>, <i>nio2</i>, <i>apr</i> or the class
+	 * name of a Tomcat protocol handler. The connector settings below are Tomcat's
+	 * defaults if they are null.
+	 */
+	private String protocol;
+	
+	/**
+	 * Maximum number of request processing threads
+	 */
+	private Integer maxThreads;
+	
+	/**
+	 * Minimum number of idle request processing threads
+	 */
+	private Integer minSpareThreads;
+	
+	/**
+	 * Maximum number of queued connections if all connections are in use
+	 */
+	private Integer acceptCount;
+	
+	/**
+	 * Maximum number of accepted and processed connections
+	 */
+	private Integer maxConnections;
+	
+	/**
+	 * Time in milliseconds to wait for the request line after a connection has been accepted
+	 */
+	private Integer connectionTimeout;
+	
+	/**
+	 * Time in milliseconds to wait for another request on a kept alive connection
+	 */
+	private Integer keepAliveTimeout;
+	
+	/**
+	 * Maximum number of requests on a kept alive connection, -1 for unlimited
+	 */
+	private Integer maxKeepAliveRequests;
+	
+	/**
+	 * Maximum size of request bodies in bytes
+	 */
+	private Integer maxRequestBodySize;
+	
+	/**
+	 * Executor processing the requests, e.g. shared by multiple servers
+	 */
+	private transient Executor executor;
+	
+	/**
+	 * Number of threads executing operation invocations asynchronously, 0 to
+	 * execute them in the request threads
+	 */
+	private int operationThreads = DEFAULT_OPERATION_THREADS;
+	
+	/**
+	 * Maximum number of operation invocations waiting for a free thread
+	 */
+	private int operationQueueSize = DEFAULT_OPERATION_QUEUE_SIZE;
+	
+	/**
+	 * Server-side timeout of asynchronous operation invocations in milliseconds,
+	 * 0 for no timeout
+	 */
+	private long operationTimeout = 0;
 
 
 	public Object AASHTTPServerResource;
@@ -170,6 +291,13 @@ public class BaSyxContext extends HashMap<String, HttpServlet> {
 	}
 	
 	
+	/**
+	 * Returns the context path the servlets are mapped below
+	 */
+	public String getContextPath() {
+		return contextPath;
+	}
+
 	/**
 	 * Return Tomcat server port
 	 */
@@ -219,5 +347,311 @@ public class BaSyxContext extends HashMap<String, HttpServlet> {
 	public void setCertificatePath(String certificatePath) {
 		this.certificatePath = certificatePath;
 	}
-}
 
+	/**
+	 * Returns whether requests and responses are compressed
+	 * @return
+	 */
+	public boolean isCompressionEnabled() {
+		return isCompressionEnabled;
+	}
+
+
+	/**
+	 * Enables gzip/deflate compression of responses according to the
+	 * Accept-Encoding header of the requests and decompression of compressed
+	 * request bodies
+	 * @param isCompressionEnabled
+	 */
+	public void setCompressionEnabled(boolean isCompressionEnabled) {
+		this.isCompressionEnabled = isCompressionEnabled;
+	}
+
+
+	/**
+	 * Returns the minimum size of response bodies that are compressed
+	 * @return
+	 */
+	public int getCompressionMinSize() {
+		return compressionMinSize;
+	}
+
+
+	/**
+	 * Sets the minimum size of response bodies that are compressed
+	 * @param compressionMinSize size in bytes
+	 */
+	public void setCompressionMinSize(int compressionMinSize) {
+		this.compressionMinSize = compressionMinSize;
+	}
+
+
+	/**
+	 * Returns the compression level
+	 * @return
+	 */
+	public int getCompressionLevel() {
+		return compressionLevel;
+	}
+
+
+	/**
+	 * Sets the compression level
+	 * @param compressionLevel level between 0 and 9 or {@link Deflater#DEFAULT_COMPRESSION}
+	 */
+	public void setCompressionLevel(int compressionLevel) {
+		this.compressionLevel = compressionLevel;
+	}
+
+
+	/**
+	 * Returns the content types of compressible responses
+	 * @return
+	 */
+	public Collection<String> getCompressibleMimeTypes() {
+		return compressibleMimeTypes;
+	}
+
+
+	/**
+	 * Sets the content types of compressible responses
+	 * @param compressibleMimeTypes
+	 */
+	public void setCompressibleMimeTypes(Collection<String> compressibleMimeTypes) {
+		this.compressibleMimeTypes = compressibleMimeTypes;
+	}
+
+
+	/**
+	 * Returns the server implementation hosting the servlets
+	 * @return
+	 */
+	public HTTPServerBackend getServerBackend() {
+		return serverBackend;
+	}
+
+
+	/**
+	 * Sets the server implementation hosting the servlets. The connector protocol
+	 * and SSL are only supported by the Tomcat backend.
+	 * @param serverBackend
+	 */
+	public void setServerBackend(HTTPServerBackend serverBackend) {
+		this.serverBackend = serverBackend;
+	}
+
+
+	/**
+	 * Returns the connector protocol
+	 * @return the protocol or null for Tomcat's default
+	 */
+	public String getProtocol() {
+		return protocol;
+	}
+
+
+	/**
+	 * Sets the connector protocol
+	 * @param protocol <i>nio</i>, <i>nio2</i>, <i>apr</i> or the class name of a Tomcat protocol handler
+	 */
+	public void setProtocol(String protocol) {
+		this.protocol = protocol;
+	}
+
+
+	public Integer getMaxThreads() {
+		return maxThreads;
+	}
+
+
+	/**
+	 * Sets the maximum number of request processing threads. Is ignored if an
+	 * executor is set.
+	 * @param maxThreads
+	 */
+	public void setMaxThreads(Integer maxThreads) {
+		this.maxThreads = maxThreads;
+	}
+
+
+	public Integer getMinSpareThreads() {
+		return minSpareThreads;
+	}
+
+
+	/**
+	 * Sets the minimum number of idle request processing threads. Is ignored if
+	 * an executor is set.
+	 * @param minSpareThreads
+	 */
+	public void setMinSpareThreads(Integer minSpareThreads) {
+		this.minSpareThreads = minSpareThreads;
+	}
+
+
+	public Integer getAcceptCount() {
+		return acceptCount;
+	}
+
+
+	/**
+	 * Sets the maximum number of queued connections if all connections are in use
+	 * @param acceptCount
+	 */
+	public void setAcceptCount(Integer acceptCount) {
+		this.acceptCount = acceptCount;
+	}
+
+
+	public Integer getMaxConnections() {
+		return maxConnections;
+	}
+
+
+	/**
+	 * Sets the maximum number of connections that are accepted and processed
+	 * @param maxConnections
+	 */
+	public void setMaxConnections(Integer maxConnections) {
+		this.maxConnections = maxConnections;
+	}
+
+
+	public Integer getConnectionTimeout() {
+		return connectionTimeout;
+	}
+
+
+	/**
+	 * Sets the time to wait for the request line after a connection has been accepted
+	 * @param connectionTimeout timeout in milliseconds
+	 */
+	public void setConnectionTimeout(Integer connectionTimeout) {
+		this.connectionTimeout = connectionTimeout;
+	}
+
+
+	public Integer getKeepAliveTimeout() {
+		return keepAliveTimeout;
+	}
+
+
+	/**
+	 * Sets the time to wait for another request on a kept alive connection
+	 * @param keepAliveTimeout timeout in milliseconds
+	 */
+	public void setKeepAliveTimeout(Integer keepAliveTimeout) {
+		this.keepAliveTimeout = keepAliveTimeout;
+	}
+
+
+	public Integer getMaxKeepAliveRequests() {
+		return maxKeepAliveRequests;
+	}
+
+
+	/**
+	 * Sets the maximum number of requests on a kept alive connection
+	 * @param maxKeepAliveRequests number of requests or -1 for unlimited
+	 */
+	public void setMaxKeepAliveRequests(Integer maxKeepAliveRequests) {
+		this.maxKeepAliveRequests = maxKeepAliveRequests;
+	}
+
+
+	public Integer getMaxRequestBodySize() {
+		return maxRequestBodySize;
+	}
+
+
+	/**
+	 * Sets the maximum size of request bodies. Larger requests are answered with
+	 * 413 Request Entity Too Large. Only applied by the NIO server backend, which
+	 * keeps request bodies in memory. If compression is enabled, it limits the
+	 * size of decompressed request bodies for all backends as well.
+	 * @param maxRequestBodySize size in bytes
+	 */
+	public void setMaxRequestBodySize(Integer maxRequestBodySize) {
+		this.maxRequestBodySize = maxRequestBodySize;
+	}
+
+
+	/**
+	 * Returns the executor processing the requests
+	 * @return the executor or null, if the connector uses its own thread pool
+	 */
+	public Executor getExecutor() {
+		return executor;
+	}
+
+
+	/**
+	 * Sets an executor processing the requests instead of the connector's own
+	 * thread pool, e.g. to share a thread pool between multiple servers. The
+	 * executor is not shut down by the server.
+	 * @param executor
+	 */
+	public void setExecutor(Executor executor) {
+		this.executor = executor;
+	}
+
+
+	/**
+	 * Returns the number of threads executing operation invocations
+	 * @return
+	 */
+	public int getOperationThreads() {
+		return operationThreads;
+	}
+
+
+	/**
+	 * Sets the number of threads executing operation invocations. Invocations are
+	 * executed asynchronously, so that long-running operations do not block the
+	 * request threads.
+	 * @param operationThreads number of threads or 0 to execute invocations in the request threads
+	 */
+	public void setOperationThreads(int operationThreads) {
+		this.operationThreads = operationThreads;
+	}
+
+
+	/**
+	 * Returns the maximum number of operation invocations waiting for a free thread
+	 * @return
+	 */
+	public int getOperationQueueSize() {
+		return operationQueueSize;
+	}
+
+
+	/**
+	 * Sets the maximum number of operation invocations waiting for a free thread.
+	 * Further invocations are answered with 503 Service Unavailable.
+	 * @param operationQueueSize
+	 */
+	public void setOperationQueueSize(int operationQueueSize) {
+		this.operationQueueSize = operationQueueSize;
+	}
+
+
+	/**
+	 * Returns the server-side timeout of asynchronous operation invocations
+	 * @return timeout in milliseconds, 0 if there is none
+	 */
+	public long getOperationTimeout() {
+		return operationTimeout;
+	}
+
+
+	/**
+	 * Sets the server-side timeout of asynchronous operation invocations.
+	 * Invocations exceeding it are answered with 504 Gateway Timeout and are
+	 * interrupted. Since operations may ignore the interrupt, a 504 does not
+	 * mean that the operation has not been executed.
+	 * @param operationTimeout timeout in milliseconds or 0 for no timeout
+	 */
+	public void setOperationTimeout(long operationTimeout) {
+		this.operationTimeout = operationTimeout;
+	}
+}
@@ -9,167 +9,112 @@
  ******************************************************************************/
 package org.eclipse.basyx.vab.protocol.http.server;
 
-import java.io.File;
-import java.util.Iterator;
-import java.util.Map.Entry;
-import java.util.UUID;
+import java.util.ArrayList;
+import java.util.List;
 
 import javax.servlet.http.HttpServlet;
 
-import org.apache.catalina.Context;
-import org.apache.catalina.LifecycleEvent;
-import org.apache.catalina.LifecycleException;
-import org.apache.catalina.LifecycleListener;
-import org.apache.catalina.LifecycleState;
-import org.apache.catalina.connector.Connector;
-import org.apache.catalina.startup.Tomcat;
+import org.eclipse.basyx.vab.protocol.http.server.nio.NIOHTTPServer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * Starter Class for Apache Tomcat 8.0.53 HTTP server that adds the provided servlets and respective mappings on startup.
- * 
+ * Starter Class for the HTTP server that adds the provided servlets and respective mappings on startup.
+ * The server implementation is selected by {@link BaSyxContext#getServerBackend()}, i.e. either an
+ * embedded Apache Tomcat or the lean {@link NIOHTTPServer}.
+ *
  * @author pschorn, espen, haque
- * 
+ *
  */
 public class BaSyxHTTPServer {
-	
+
 	private static Logger logger = LoggerFactory.getLogger(BaSyxHTTPServer.class);
-	
-	private Tomcat tomcat;
 
-	static {
-		// Enable coding of forward slash in tomcat
-		System.setProperty("org.apache.tomcat.util.buf.UDecoder.ALLOW_ENCODED_SLASH", "true");
-	}
-	   
+	/**
+	 * Server implementation hosting the servlets
+	 */
+	private IHTTPServerBackend backend;
+
+	/**
+	 * Executor of asynchronous operation invocations, null if invocations are
+	 * executed in the request threads
+	 */
+	private OperationExecutor operationExecutor;
+
+	/**
+	 * Servlets that use the executor of this server, it is removed from them on
+	 * shutdown, so that they can be reused by another server
+	 */
+	private List<VABHTTPInterface<?>> executorServlets = new ArrayList<>();
+
 	/**
 	 * Constructor
-	 * 
-	 * Create new Tomcat instance and add the provided servlet mappings
-	 * 
+	 *
+	 * Create new server instance of the backend given in the context and add the provided servlet mappings
+	 *
 	 * @param context
 	 *            Basyx context with of url mappings to HTTPServlet
 	 */
-
 	public BaSyxHTTPServer(BaSyxContext context) {
-		// Instantiate and setup Tomcat server
-		tomcat = new Tomcat();
-
-		// Set random name to prevent lifecycle expections during shutdown of multiple
-		// instances
-		tomcat.getEngine().setName(UUID.randomUUID().toString());
-		
-		if (context.isSecuredConnectionEnabled()) {
-			Connector httpsConnector = tomcat.getConnector();
-			configureSslConnector(context, httpsConnector);
-		} else {
-			tomcat.setPort(context.port);
+		if (context.getOperationThreads() > 0) {
+			operationExecutor = new OperationExecutor(context);
 		}
-		
-		tomcat.setHostname(context.hostname);
-		tomcat.getHost().setAppBase(".");
-
-		// Create servlet context
-		// - Base path for resource files
-		File docBase = new File(context.docBasePath); // System.getProperty("java.io.tmpdir"));
-		// - Create context for servlets
-		Context rootCtx = tomcat.addContext(context.contextPath, docBase.getAbsolutePath());
-
-		// Iterate all servlets in context
-		Iterator<Entry<String, HttpServlet>> it = context.entrySet().iterator();
-		while (it.hasNext()) {
-			// Servlet entry
-			Entry<String, HttpServlet> entry = it.next();
-
-			// Servlet mapping
-			String mapping = entry.getKey();
-			HttpServlet servlet = entry.getValue();
-
-			// Add new Servlet and Mapping to tomcat environment
-			Tomcat.addServlet(rootCtx, Integer.toString(servlet.hashCode()), servlet);
-			rootCtx.addServletMappingDecoded(mapping, Integer.toString(servlet.hashCode()));
+
+		// Operations of VAB servlets are invoked asynchronously, unless they have
+		// their own executor
+		for (HttpServlet servlet : context.values()) {
+			if (operationExecutor != null && servlet instanceof VABHTTPInterface<?>) {
+				VABHTTPInterface<?> vabServlet = (VABHTTPInterface<?>) servlet;
+				if (vabServlet.getOperationExecutor() == null) {
+					vabServlet.setOperationExecutor(operationExecutor);
+					executorServlets.add(vabServlet);
+				}
+			}
 		}
+
+		backend = createBackend(context);
 	}
-	
+
 	/**
-	 * SSL Configuration for SSL connector
+	 * Creates the server implementation. The backends are only loaded if they
+	 * are used, i.e. Tomcat is not required on the classpath for the NIO backend.
+	 *
 	 * @param context
-	 * @param httpsConnector
+	 * @return
 	 */
-	private void configureSslConnector(BaSyxContext context, Connector httpsConnector) {
-		httpsConnector.setPort(context.port);
-		httpsConnector.setSecure(true);
-		httpsConnector.setScheme("https");
-		httpsConnector.setAttribute("keystoreFile", context.getCertificatePath());
-		httpsConnector.setAttribute("clientAuth", "false");
-		httpsConnector.setAttribute("sslProtocol", "TLS");
-		httpsConnector.setAttribute("SSLEnabled", true);
-		httpsConnector.setAttribute("protocol", "HTTP/1.1");
-		httpsConnector.setAttribute("keystorePass", context.getKeyPassword());
-		
-		httpsConnector.setAttribute("keyAlias", "tomcat");
-		
-		httpsConnector.setAttribute("maxThreads", "200");
-		httpsConnector.setAttribute("protocol", "org.apache.coyote.http11.Http11AprProtocol");
-	 }
-	
+	private IHTTPServerBackend createBackend(BaSyxContext context) {
+		HTTPServerBackend type = context.getServerBackend();
+		logger.trace("Using the " + type + " HTTP server backend");
+		if (type == HTTPServerBackend.NIO) {
+			return new NIOHTTPServer(context);
+		}
+		return new TomcatHTTPServerBackend(context);
+	}
+
 	/**
 	 * Starts the server in a new thread to avoid blocking the main thread
 	 */
 	public void start() {
-		logger.trace("Starting Tomcat.....");
-        
-		Thread serverThread = new Thread(() -> {
-			try {
-				tomcat.stop();
-
-				// Adds listener that notifies the tomcat object when the server has started
-				tomcat.getServer().addLifecycleListener(new LifecycleListener() {
-					@Override
-					public void lifecycleEvent(LifecycleEvent event) {
-						if (event.getLifecycle().getState() == LifecycleState.STARTED) {
-							synchronized (tomcat) {
-								tomcat.notifyAll();
-							}
-						}
-					}
-				});
-
-				tomcat.start();
-				
-				// Keeps the server thread alive until the server is shut down
-				tomcat.getServer().await();
-			} catch (LifecycleException e) {
-				logger.error("Exception in start", e);
-			}
-		});
-		serverThread.start();
-
-		synchronized (tomcat) {
-			try {
-				tomcat.wait();
-			} catch (InterruptedException e) {
-				logger.error("Exception in start", e);
-			}
-		}
+		backend.start();
 	}
-	
+
 	/**
-	 * This Method stops and destroys the tomcat instance. This is important since Tomcat would be already 
-	 * bound to port 8080 when new tests are run that require a start of tomcat
+	 * This Method stops and destroys the server instance. This is important since the server would be already
+	 * bound to its port when new tests are run that require a start of the server
 	 */
 	public void shutdown() {
 		logger.trace("Shutting down BaSyx HTTP Server...");
-		
-		try {
-			tomcat.stop();
-			tomcat.destroy();
-		} catch (LifecycleException e) {
-			// TODO Auto-generated catch block
-			logger.error("Exception in shutdown", e);
+
+		backend.shutdown();
+
+		if (operationExecutor != null) {
+			for (VABHTTPInterface<?> servlet : executorServlets) {
+				servlet.setOperationExecutor(null);
+			}
+			executorServlets.clear();
+			operationExecutor.shutdown();
 		}
 	}
-	
-	
+
+
 }
@@ -97,7 +97,11 @@ public abstract class BasysHTTPServlet extends HttpServlet {
 	 */
 	protected void sendResponse(Object value, PrintWriter outputStream) {
 		// Output result
-		outputStream.write(serializer.serialize(value));
+		try {
+			serializer.serialize(value, outputStream);
+		} catch (IOException e) {
+			// PrintWriter does not propagate IOExceptions, thus this can not happen
+		}
 		outputStream.flush();
 	}
 
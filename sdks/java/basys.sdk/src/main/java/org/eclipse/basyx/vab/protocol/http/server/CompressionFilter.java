@@ -0,0 +1,687 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.basyx.vab.protocol.http.server;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletException;
+import javax.servlet.ServletInputStream;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+
+import org.eclipse.basyx.vab.protocol.http.server.nio.NIOHTTPServer;
+
+/**
+ * Servlet filter that compresses responses and decompresses requests<br />
+ * <br />
+ * Responses are compressed using gzip or deflate according to the
+ * Accept-Encoding header of the request, if their content type is
+ * compressible and their body reaches the minimum size. Smaller bodies are
+ * buffered and sent as they are. Request bodies with a Content-Encoding of gzip
+ * or deflate are decompressed before they are passed to the servlet. Requests
+ * whose decompressed body exceeds the maximum request body size are answered
+ * with 413 Request Entity Too Large, so that small compressed requests can not
+ * exhaust the memory of the server.<br />
+ * <br />
+ * Servlets processing requests asynchronously have to close the output stream
+ * of the response before completing the request, so that the compressed body
+ * can be finished.
+ *
+ * @author schnicke
+ *
+ */
+public class CompressionFilter implements Filter {
+	public static final String GZIP = "gzip";
+	public static final String DEFLATE = "deflate";
+	public static final String IDENTITY = "identity";
+
+	private static final String ACCEPT_ENCODING = "Accept-Encoding";
+	private static final String CONTENT_ENCODING = "Content-Encoding";
+	private static final String CONTENT_LENGTH = "Content-Length";
+	private static final String VARY = "Vary";
+	private static final String ETAG = "ETag";
+
+	/**
+	 * Minimum size of response bodies that are compressed
+	 */
+	private final int minSize;
+
+	/**
+	 * Compression level as defined by {@link Deflater}
+	 */
+	private final int level;
+
+	/**
+	 * Content types of compressible responses without parameters
+	 */
+	private final Set<String> mimeTypes = new HashSet<>();
+
+	/**
+	 * Maximum size of decompressed request bodies
+	 */
+	private final long maxRequestBodySize;
+
+	/**
+	 * Creates the filter with the
+	 * {@link NIOHTTPServer#DEFAULT_MAX_REQUEST_BODY_SIZE default maximum size} of
+	 * decompressed request bodies
+	 * 
+	 * @param minSize
+	 *            minimum size of response bodies that are compressed
+	 * @param level
+	 *            compression level between 0 and 9 or
+	 *            {@link Deflater#DEFAULT_COMPRESSION}
+	 * @param mimeTypes
+	 *            content types of compressible responses
+	 */
+	public CompressionFilter(int minSize, int level, Collection<String> mimeTypes) {
+		this(minSize, level, mimeTypes, NIOHTTPServer.DEFAULT_MAX_REQUEST_BODY_SIZE);
+	}
+
+	/**
+	 * @param minSize
+	 *            minimum size of response bodies that are compressed
+	 * @param level
+	 *            compression level between 0 and 9 or
+	 *            {@link Deflater#DEFAULT_COMPRESSION}
+	 * @param mimeTypes
+	 *            content types of compressible responses
+	 * @param maxRequestBodySize
+	 *            maximum size of decompressed request bodies in bytes
+	 */
+	public CompressionFilter(int minSize, int level, Collection<String> mimeTypes, long maxRequestBodySize) {
+		if (level != Deflater.DEFAULT_COMPRESSION && (level < Deflater.NO_COMPRESSION || level > Deflater.BEST_COMPRESSION)) {
+			throw new IllegalArgumentException("Invalid compression level " + level);
+		}
+		this.minSize = Math.max(0, minSize);
+		this.level = level;
+		this.maxRequestBodySize = maxRequestBodySize;
+		for (String mimeType : mimeTypes) {
+			this.mimeTypes.add(stripParameters(mimeType));
+		}
+	}
+
+	/**
+	 * Creates the filter using the compression configuration and the maximum
+	 * request body size of a context
+	 *
+	 * @param context
+	 */
+	public CompressionFilter(BaSyxContext context) {
+		this(context.getCompressionMinSize(), context.getCompressionLevel(), context.getCompressibleMimeTypes(), getMaxRequestBodySize(context));
+	}
+
+	private static long getMaxRequestBodySize(BaSyxContext context) {
+		Integer maxRequestBodySize = context.getMaxRequestBodySize();
+		return maxRequestBodySize != null ? maxRequestBodySize : NIOHTTPServer.DEFAULT_MAX_REQUEST_BODY_SIZE;
+	}
+
+	@Override
+	public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain) throws IOException, ServletException {
+		if (!(request instanceof HttpServletRequest) || !(response instanceof HttpServletResponse)) {
+			chain.doFilter(request, response);
+			return;
+		}
+		HttpServletRequest req = (HttpServletRequest) request;
+		HttpServletResponse resp = (HttpServletResponse) response;
+
+		// Decompress request body
+		DecompressingRequest decompressingRequest = null;
+		String contentEncoding = req.getHeader(CONTENT_ENCODING);
+		if (contentEncoding != null && !contentEncoding.trim().equalsIgnoreCase(IDENTITY)) {
+			contentEncoding = contentEncoding.trim().toLowerCase(Locale.ROOT);
+			if (!isSupported(contentEncoding)) {
+				resp.sendError(HttpServletResponse.SC_UNSUPPORTED_MEDIA_TYPE, "Unsupported content encoding " + contentEncoding);
+				return;
+			}
+			decompressingRequest = new DecompressingRequest(req, contentEncoding);
+			req = decompressingRequest;
+		}
+
+		// Compress response body if supported by the client
+		String encoding = selectEncoding(req.getHeader(ACCEPT_ENCODING));
+		HttpServletResponse filteredResponse = encoding == null ? resp : new CompressingResponse(resp, encoding);
+		try {
+			chain.doFilter(req, filteredResponse);
+		} catch (IOException | ServletException | RuntimeException e) {
+			// The servlet may fail in any way after reading a too large body
+			if (!isBodyTooLarge(decompressingRequest)) {
+				throw e;
+			}
+		}
+
+		if (isBodyTooLarge(decompressingRequest)) {
+			if (!filteredResponse.isCommitted()) {
+				filteredResponse.reset();
+				resp.sendError(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE, "Decompressed request body is too large");
+			}
+			return;
+		}
+
+		// Asynchronously processed responses are finished by closing their stream
+		if (filteredResponse instanceof CompressingResponse && !req.isAsyncStarted()) {
+			((CompressingResponse) filteredResponse).finish();
+		}
+	}
+
+	private static boolean isBodyTooLarge(DecompressingRequest request) {
+		return request != null && request.isBodyTooLarge();
+	}
+
+	/**
+	 * Selects the content encoding of a response from the Accept-Encoding header
+	 * of the request. Prefers gzip over deflate.
+	 *
+	 * @param acceptEncoding
+	 * @return the encoding or null, if the response should not be compressed
+	 */
+	public static String selectEncoding(String acceptEncoding) {
+		if (acceptEncoding == null) {
+			return null;
+		}
+
+		boolean gzip = false;
+		boolean deflate = false;
+		boolean wildcard = false;
+		Set<String> rejected = new HashSet<>();
+		for (String element : acceptEncoding.split(",")) {
+			String[] parts = element.split(";");
+			String coding = parts[0].trim().toLowerCase(Locale.ROOT);
+			if (isRejected(parts)) {
+				rejected.add(coding);
+			} else if (coding.equals(GZIP) || coding.equals("x-gzip")) {
+				gzip = true;
+			} else if (coding.equals(DEFLATE)) {
+				deflate = true;
+			} else if (coding.equals("*")) {
+				wildcard = true;
+			}
+		}
+
+		if (gzip || (wildcard && !rejected.contains(GZIP))) {
+			return GZIP;
+		} else if (deflate || (wildcard && !rejected.contains(DEFLATE))) {
+			return DEFLATE;
+		}
+		return null;
+	}
+
+	/**
+	 * Checks if a coding of the Accept-Encoding header has a quality value of zero
+	 */
+	private static boolean isRejected(String[] parts) {
+		for (int i = 1; i < parts.length; i++) {
+			String parameter = parts[i].trim();
+			if (parameter.startsWith("q=")) {
+				try {
+					return Double.parseDouble(parameter.substring(2).trim()) <= 0;
+				} catch (NumberFormatException e) {
+					return false;
+				}
+			}
+		}
+		return false;
+	}
+
+	private static boolean isSupported(String encoding) {
+		return encoding.equals(GZIP) || encoding.equals("x-gzip") || encoding.equals(DEFLATE);
+	}
+
+	private static String stripParameters(String contentType) {
+		int index = contentType.indexOf(';');
+		if (index >= 0) {
+			contentType = contentType.substring(0, index);
+		}
+		return contentType.trim().toLowerCase(Locale.ROOT);
+	}
+
+	/**
+	 * Request wrapper that decompresses the request body. Reading fails as soon
+	 * as the decompressed body exceeds the maximum request body size.
+	 */
+	private class DecompressingRequest extends HttpServletRequestWrapper {
+		private final String encoding;
+		private DecompressingInputStream inputStream;
+		private BufferedReader reader;
+
+		private DecompressingRequest(HttpServletRequest request, String encoding) {
+			super(request);
+			this.encoding = encoding;
+		}
+
+		@Override
+		public ServletInputStream getInputStream() throws IOException {
+			if (reader != null) {
+				throw new IllegalStateException("getReader() has already been called");
+			}
+			if (inputStream == null) {
+				InputStream compressed = super.getInputStream();
+				InputStream decompressed = encoding.equals(DEFLATE) ? new InflaterInputStream(compressed) : new GZIPInputStream(compressed);
+				inputStream = new DecompressingInputStream(decompressed, maxRequestBodySize);
+			}
+			return inputStream;
+		}
+
+		private boolean isBodyTooLarge() {
+			return inputStream != null && inputStream.isLimitExceeded();
+		}
+
+		@Override
+		public BufferedReader getReader() throws IOException {
+			if (reader == null) {
+				String charset = getCharacterEncoding() != null ? getCharacterEncoding() : "ISO-8859-1";
+				ServletInputStream stream = getInputStream();
+				reader = new BufferedReader(new InputStreamReader(stream, charset));
+			}
+			return reader;
+		}
+
+		@Override
+		public String getHeader(String name) {
+			if (isHiddenHeader(name)) {
+				return null;
+			}
+			return super.getHeader(name);
+		}
+
+		@Override
+		public Enumeration<String> getHeaders(String name) {
+			if (isHiddenHeader(name)) {
+				return Collections.emptyEnumeration();
+			}
+			return super.getHeaders(name);
+		}
+
+		@Override
+		public int getContentLength() {
+			return -1;
+		}
+
+		@Override
+		public long getContentLengthLong() {
+			return -1;
+		}
+
+		/**
+		 * The encoding and length of the request body do not apply to the
+		 * decompressed body
+		 */
+		private boolean isHiddenHeader(String name) {
+			return CONTENT_ENCODING.equalsIgnoreCase(name) || CONTENT_LENGTH.equalsIgnoreCase(name);
+		}
+	}
+
+	private static class DecompressingInputStream extends ServletInputStream {
+		private final InputStream in;
+		private final long limit;
+		private long count = 0;
+		private volatile boolean limitExceeded = false;
+		private boolean finished = false;
+
+		private DecompressingInputStream(InputStream in, long limit) {
+			this.in = in;
+			this.limit = limit;
+		}
+
+		@Override
+		public int read() throws IOException {
+			checkLimit();
+			int value = in.read();
+			finished = value < 0;
+			if (!finished) {
+				count(1);
+			}
+			return value;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			checkLimit();
+			// Reads at most one byte more than allowed to detect larger bodies
+			int read = in.read(b, off, (int) Math.min(len, limit - count + 1));
+			finished = read < 0;
+			if (!finished) {
+				count(read);
+			}
+			return read;
+		}
+
+		private void count(int read) throws IOException {
+			count += read;
+			if (count > limit) {
+				limitExceeded = true;
+				checkLimit();
+			}
+		}
+
+		private void checkLimit() throws IOException {
+			if (limitExceeded) {
+				throw new IOException("Decompressed request body exceeds the maximum size of " + limit + " bytes");
+			}
+		}
+
+		private boolean isLimitExceeded() {
+			return limitExceeded;
+		}
+
+		@Override
+		public int available() throws IOException {
+			return in.available();
+		}
+
+		@Override
+		public void close() throws IOException {
+			in.close();
+		}
+
+		@Override
+		public boolean isFinished() {
+			return finished;
+		}
+
+		@Override
+		public boolean isReady() {
+			return true;
+		}
+
+		@Override
+		public void setReadListener(ReadListener readListener) {
+			throw new UnsupportedOperationException("Non-blocking reads of compressed requests are not supported");
+		}
+	}
+
+	/**
+	 * Response wrapper that compresses the response body, as soon as it reaches
+	 * the minimum size
+	 */
+	private class CompressingResponse extends HttpServletResponseWrapper {
+		private final String encoding;
+		private CompressingOutputStream outputStream;
+		private PrintWriter writer;
+
+		private CompressingResponse(HttpServletResponse response, String encoding) {
+			super(response);
+			this.encoding = encoding;
+		}
+
+		@Override
+		public ServletOutputStream getOutputStream() throws IOException {
+			if (writer != null) {
+				throw new IllegalStateException("getWriter() has already been called");
+			}
+			return getCompressingOutputStream();
+		}
+
+		@Override
+		public PrintWriter getWriter() throws IOException {
+			if (writer == null) {
+				if (outputStream != null) {
+					throw new IllegalStateException("getOutputStream() has already been called");
+				}
+				writer = new PrintWriter(new OutputStreamWriter(getCompressingOutputStream(), getCharacterEncoding()));
+			}
+			return writer;
+		}
+
+		private CompressingOutputStream getCompressingOutputStream() {
+			if (outputStream == null) {
+				outputStream = new CompressingOutputStream(this, encoding);
+			}
+			return outputStream;
+		}
+
+		// The length of the body is not known before it has been compressed
+		@Override
+		public void setContentLength(int len) {
+		}
+
+		@Override
+		public void setContentLengthLong(long len) {
+		}
+
+		@Override
+		public void setHeader(String name, String value) {
+			if (!CONTENT_LENGTH.equalsIgnoreCase(name)) {
+				super.setHeader(name, value);
+			}
+		}
+
+		@Override
+		public void addHeader(String name, String value) {
+			if (!CONTENT_LENGTH.equalsIgnoreCase(name)) {
+				super.addHeader(name, value);
+			}
+		}
+
+		@Override
+		public void flushBuffer() throws IOException {
+			if (writer != null) {
+				writer.flush();
+			} else if (outputStream != null) {
+				outputStream.flush();
+			}
+		}
+
+		@Override
+		public void resetBuffer() {
+			super.resetBuffer();
+			if (outputStream != null) {
+				outputStream.resetBuffer();
+			}
+		}
+
+		@Override
+		public void reset() {
+			super.reset();
+			if (outputStream != null) {
+				outputStream.resetBuffer();
+			}
+		}
+
+		/**
+		 * Writes the remaining data. Has to be called after the servlet has
+		 * processed the request.
+		 */
+		private void finish() throws IOException {
+			if (writer != null) {
+				writer.flush();
+			}
+			if (outputStream != null) {
+				outputStream.finish();
+			}
+		}
+	}
+
+	private class CompressingOutputStream extends ServletOutputStream {
+		private final CompressingResponse response;
+		private final String encoding;
+
+		/**
+		 * Data written before the body has reached the minimum size
+		 */
+		private byte[] buffer;
+		private int count = 0;
+
+		/**
+		 * Stream the data is written to, as soon as it is decided whether the body
+		 * is compressed
+		 */
+		private OutputStream target;
+		private Deflater deflater;
+		private boolean finished = false;
+
+		private CompressingOutputStream(CompressingResponse response, String encoding) {
+			this.response = response;
+			this.encoding = encoding;
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			write(new byte[] { (byte) b }, 0, 1);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			if (target != null) {
+				target.write(b, off, len);
+				return;
+			}
+
+			if (buffer == null) {
+				if (!isCompressible()) {
+					target = response.getResponse().getOutputStream();
+					target.write(b, off, len);
+					return;
+				}
+				// The response may be compressed depending on its size
+				response.addHeader(VARY, ACCEPT_ENCODING);
+				buffer = new byte[Math.min(minSize, 8192)];
+			}
+
+			if (count + len < minSize) {
+				if (count + len > buffer.length) {
+					byte[] newBuffer = new byte[Math.min(minSize, Math.max(buffer.length * 2, count + len))];
+					System.arraycopy(buffer, 0, newBuffer, 0, count);
+					buffer = newBuffer;
+				}
+				System.arraycopy(b, off, buffer, count, len);
+				count += len;
+				return;
+			}
+
+			startCompression();
+			target.write(b, off, len);
+		}
+
+		/**
+		 * Only responses that have a body of a compressible content type and have
+		 * not been encoded yet are compressed
+		 */
+		private boolean isCompressible() {
+			int status = response.getStatus();
+			if (status == HttpServletResponse.SC_NO_CONTENT || status == HttpServletResponse.SC_NOT_MODIFIED) {
+				return false;
+			}
+			if (response.containsHeader(CONTENT_ENCODING)) {
+				return false;
+			}
+			String contentType = response.getContentType();
+			return contentType != null && mimeTypes.contains(stripParameters(contentType));
+		}
+
+		private void startCompression() throws IOException {
+			response.setHeader(CONTENT_ENCODING, encoding);
+
+			// The compressed body is not byte-for-byte identical to the uncompressed
+			// one, thus a strong ETag has to be weakened
+			String eTag = response.getHeader(ETAG);
+			if (eTag != null && !eTag.startsWith("W/")) {
+				response.setHeader(ETAG, "W/" + eTag);
+			}
+
+			OutputStream out = response.getResponse().getOutputStream();
+			if (encoding.equals(GZIP)) {
+				LeveledGZIPOutputStream gzipStream = new LeveledGZIPOutputStream(out, level);
+				deflater = gzipStream.getDeflater();
+				target = gzipStream;
+			} else {
+				deflater = new Deflater(level);
+				target = new DeflaterOutputStream(out, deflater, 8192, true);
+			}
+			target.write(buffer, 0, count);
+			buffer = null;
+			count = 0;
+		}
+
+		@Override
+		public void flush() throws IOException {
+			// Data below the minimum size is kept back to be able to compress it
+			if (target != null) {
+				target.flush();
+			}
+		}
+
+		private void resetBuffer() {
+			count = 0;
+		}
+
+		@Override
+		public void close() throws IOException {
+			finish();
+		}
+
+		private void finish() throws IOException {
+			if (finished) {
+				return;
+			}
+			finished = true;
+
+			if (target == null) {
+				if (count > 0) {
+					response.getResponse().getOutputStream().write(buffer, 0, count);
+				}
+			} else if (deflater != null) {
+				((DeflaterOutputStream) target).finish();
+				deflater.end();
+			}
+			response.getResponse().flushBuffer();
+		}
+
+		@Override
+		public boolean isReady() {
+			return true;
+		}
+
+		@Override
+		public void setWriteListener(WriteListener writeListener) {
+			throw new UnsupportedOperationException("Non-blocking writes of compressed responses are not supported");
+		}
+	}
+
+	/**
+	 * GZIP stream with a configurable compression level
+	 */
+	private static class LeveledGZIPOutputStream extends GZIPOutputStream {
+		private LeveledGZIPOutputStream(OutputStream out, int level) throws IOException {
+			super(out, 8192, true);
+			def.setLevel(level);
+		}
+
+		private Deflater getDeflater() {
+			return def;
+		}
+	}
+}
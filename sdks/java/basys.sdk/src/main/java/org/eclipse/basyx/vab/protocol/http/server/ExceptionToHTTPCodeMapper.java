@@ -10,9 +10,11 @@
 package org.eclipse.basyx.vab.protocol.http.server;
 
 import org.eclipse.basyx.vab.exception.provider.MalformedRequestException;
+import org.eclipse.basyx.vab.exception.provider.NotSupportedException;
 import org.eclipse.basyx.vab.exception.provider.ProviderException;
 import org.eclipse.basyx.vab.exception.provider.ResourceAlreadyExistsException;
 import org.eclipse.basyx.vab.exception.provider.ResourceNotFoundException;
+import org.eclipse.basyx.vab.exception.provider.VersionConflictException;
 
 /**
  * Maps Exceptions from providers to HTTP-Codes
@@ -37,6 +39,10 @@ public class ExceptionToHTTPCodeMapper {
 			return 422;
 		} else if(e instanceof ResourceNotFoundException) {
 			return 404;
+		} else if(e instanceof VersionConflictException) {
+			return 412;
+		} else if(e instanceof NotSupportedException) {
+			return 501;
 		}
 		return 500;
 		
@@ -57,6 +63,10 @@ public class ExceptionToHTTPCodeMapper {
 			return new ResourceAlreadyExistsException(text);
 		case 404:
 			return new ResourceNotFoundException(text);
+		case 412:
+			return new VersionConflictException(text);
+		case 501:
+			return new NotSupportedException(text);
 		default:
 			return new ProviderException(text);
 		}
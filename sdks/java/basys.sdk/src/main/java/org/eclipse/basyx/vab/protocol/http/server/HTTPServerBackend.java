@@ -0,0 +1,64 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.basyx.vab.protocol.http.server;
+
+import org.eclipse.basyx.vab.protocol.http.server.nio.NIOHTTPServer;
+
+import com.google.common.base.Strings;
+
+/**
+ * Possible server implementations of the {@link BaSyxHTTPServer}
+ * 
+ * @author schnicke
+ *
+ */
+public enum HTTPServerBackend {
+	/**
+	 * Embedded Apache Tomcat, see {@link TomcatHTTPServerBackend}
+	 */
+	TOMCAT("Tomcat"),
+
+	/**
+	 * Lean selector-based HTTP/1.1 server without servlet container, see
+	 * {@link NIOHTTPServer}
+	 */
+	NIO("NIO");
+
+	private String literal;
+
+	private HTTPServerBackend(String literal) {
+		this.literal = literal;
+	}
+
+	@Override
+	public String toString() {
+		return literal;
+	}
+
+	/**
+	 * Method to transform string literal to HTTPServerBackend enum. The literal
+	 * is case insensitive.
+	 * 
+	 * @param literal
+	 * @return the backend or null, if the literal is empty
+	 */
+	public static HTTPServerBackend fromString(String literal) {
+		if (Strings.isNullOrEmpty(literal)) {
+			return null;
+		}
+
+		for (HTTPServerBackend constant : HTTPServerBackend.class.getEnumConstants()) {
+			if (constant.toString().equalsIgnoreCase(literal)) {
+				return constant;
+			}
+		}
+		throw new IllegalArgumentException("The literal '" + literal + "' is not a valid HTTPServerBackend");
+	}
+}
@@ -0,0 +1,30 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.basyx.vab.protocol.http.server;
+
+/**
+ * Server implementation hosting the servlets of a {@link BaSyxContext}. The
+ * backend is selected by {@link BaSyxContext#setServerBackend(HTTPServerBackend)}
+ * and managed by {@link BaSyxHTTPServer}.
+ * 
+ * @author schnicke
+ *
+ */
+public interface IHTTPServerBackend {
+	/**
+	 * Starts the server. Returns as soon as the server accepts connections.
+	 */
+	public void start();
+
+	/**
+	 * Stops the server and releases its port
+	 */
+	public void shutdown();
+}
@@ -0,0 +1,119 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.basyx.vab.protocol.http.server;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded thread pool that executes operation invocations of
+ * {@link VABHTTPInterface} asynchronously, i.e. outside of the request threads
+ * of the HTTP server.<br />
+ * <br />
+ * If all threads are busy, invocations are queued up to the given queue size.
+ * Further invocations are rejected.
+ *
+ * @author schnicke
+ *
+ */
+public class OperationExecutor {
+	private static final AtomicInteger POOL_COUNTER = new AtomicInteger();
+
+	private final ThreadPoolExecutor executor;
+
+	/**
+	 * Server-side timeout of invocations in milliseconds, 0 if there is none
+	 */
+	private final long timeout;
+
+	/**
+	 * @param threads
+	 *            maximum number of concurrently executed invocations
+	 * @param queueSize
+	 *            maximum number of invocations waiting for a free thread
+	 * @param timeout
+	 *            server-side timeout of invocations in milliseconds, 0 for no
+	 *            timeout
+	 */
+	public OperationExecutor(int threads, int queueSize, long timeout) {
+		if (threads < 1) {
+			throw new IllegalArgumentException("At least one operation thread is required");
+		}
+		if (timeout < 0) {
+			throw new IllegalArgumentException("Invalid operation timeout " + timeout);
+		}
+		this.timeout = timeout;
+
+		String prefix = "basyx-operation-" + POOL_COUNTER.incrementAndGet() + "-";
+		AtomicInteger threadCounter = new AtomicInteger();
+		ThreadFactory threadFactory = r -> {
+			Thread thread = new Thread(r, prefix + threadCounter.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		};
+
+		executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(Math.max(1, queueSize)), threadFactory);
+		executor.allowCoreThreadTimeOut(true);
+	}
+
+	/**
+	 * Creates the executor using the operation configuration of a context
+	 *
+	 * @param context
+	 */
+	public OperationExecutor(BaSyxContext context) {
+		this(context.getOperationThreads(), context.getOperationQueueSize(), context.getOperationTimeout());
+	}
+
+	/**
+	 * Schedules an invocation
+	 *
+	 * @param invocation
+	 * @throws RejectedExecutionException
+	 *             if the queue is full or the executor has been shut down
+	 */
+	public void execute(Runnable invocation) throws RejectedExecutionException {
+		executor.execute(invocation);
+	}
+
+	/**
+	 * Schedules an invocation that can be cancelled, e.g. when it times out.
+	 * Cancelling a running invocation interrupts its thread.
+	 *
+	 * @param invocation
+	 * @return future of the invocation
+	 * @throws RejectedExecutionException
+	 *             if the queue is full or the executor has been shut down
+	 */
+	public Future<?> submit(Runnable invocation) throws RejectedExecutionException {
+		return executor.submit(invocation);
+	}
+
+	/**
+	 * Returns the server-side timeout of invocations
+	 *
+	 * @return timeout in milliseconds, 0 if there is none
+	 */
+	public long getTimeout() {
+		return timeout;
+	}
+
+	/**
+	 * Stops accepting invocations and interrupts running invocations
+	 */
+	public void shutdown() {
+		executor.shutdownNow();
+	}
+}
@@ -0,0 +1,269 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.basyx.vab.protocol.http.server;
+
+import java.io.File;
+import java.util.Iterator;
+import java.util.Map.Entry;
+import java.util.UUID;
+
+import javax.servlet.http.HttpServlet;
+
+import org.apache.catalina.Context;
+import org.apache.catalina.LifecycleEvent;
+import org.apache.catalina.LifecycleException;
+import org.apache.catalina.LifecycleListener;
+import org.apache.catalina.LifecycleState;
+import org.apache.catalina.Wrapper;
+import org.apache.catalina.connector.Connector;
+import org.apache.catalina.startup.Tomcat;
+import org.apache.coyote.ProtocolHandler;
+import org.apache.coyote.http11.AbstractHttp11Protocol;
+import org.apache.tomcat.util.descriptor.web.FilterDef;
+import org.apache.tomcat.util.descriptor.web.FilterMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Server backend running an embedded Apache Tomcat that adds the provided servlets and respective mappings on startup.
+ * 
+ * @author pschorn, espen, haque
+ * 
+ */
+public class TomcatHTTPServerBackend implements IHTTPServerBackend {
+	
+	private static Logger logger = LoggerFactory.getLogger(TomcatHTTPServerBackend.class);
+	
+	private static final String COMPRESSION_FILTER_NAME = "BaSyxCompressionFilter";
+	
+	private Tomcat tomcat;
+
+	static {
+		// Enable coding of forward slash in tomcat
+		System.setProperty("org.apache.tomcat.util.buf.UDecoder.ALLOW_ENCODED_SLASH", "true");
+	}
+	   
+	/**
+	 * Constructor
+	 * 
+	 * Create new Tomcat instance and add the provided servlet mappings
+	 * 
+	 * @param context
+	 *            Basyx context with of url mappings to HTTPServlet
+	 */
+
+	public TomcatHTTPServerBackend(BaSyxContext context) {
+		// Instantiate and setup Tomcat server
+		tomcat = new Tomcat();
+
+		// Set random name to prevent lifecycle expections during shutdown of multiple
+		// instances
+		tomcat.getEngine().setName(UUID.randomUUID().toString());
+		
+		Connector connector = new Connector(getProtocolHandlerName(context.getProtocol()));
+		connector.setPort(context.port);
+		if (context.isSecuredConnectionEnabled()) {
+			configureSslConnector(context, connector);
+		}
+		configureConnector(context, connector);
+		tomcat.setPort(context.port);
+		tomcat.setConnector(connector);
+		
+		tomcat.setHostname(context.hostname);
+		tomcat.getHost().setAppBase(".");
+
+		// Create servlet context
+		// - Base path for resource files
+		File docBase = new File(context.docBasePath); // System.getProperty("java.io.tmpdir"));
+		// - Create context for servlets
+		Context rootCtx = tomcat.addContext(context.contextPath, docBase.getAbsolutePath());
+
+		// Iterate all servlets in context
+		Iterator<Entry<String, HttpServlet>> it = context.entrySet().iterator();
+		while (it.hasNext()) {
+			// Servlet entry
+			Entry<String, HttpServlet> entry = it.next();
+
+			// Servlet mapping
+			String mapping = entry.getKey();
+			HttpServlet servlet = entry.getValue();
+
+			// Add new Servlet and Mapping to tomcat environment
+			Wrapper wrapper = Tomcat.addServlet(rootCtx, Integer.toString(servlet.hashCode()), servlet);
+			wrapper.setAsyncSupported(true);
+			rootCtx.addServletMappingDecoded(mapping, Integer.toString(servlet.hashCode()));
+		}
+
+		if (context.isCompressionEnabled()) {
+			addCompressionFilter(context, rootCtx);
+		}
+	}
+	
+	/**
+	 * Adds a filter to the servlet context that compresses the responses and
+	 * decompresses the requests of all servlets
+	 * @param context
+	 * @param rootCtx
+	 */
+	private void addCompressionFilter(BaSyxContext context, Context rootCtx) {
+		FilterDef filterDef = new FilterDef();
+		filterDef.setFilterName(COMPRESSION_FILTER_NAME);
+		filterDef.setFilter(new CompressionFilter(context));
+		filterDef.setAsyncSupported("true");
+		rootCtx.addFilterDef(filterDef);
+
+		FilterMap filterMap = new FilterMap();
+		filterMap.setFilterName(COMPRESSION_FILTER_NAME);
+		filterMap.addURLPattern("/*");
+		rootCtx.addFilterMap(filterMap);
+	}
+	
+	/**
+	 * SSL Configuration for SSL connector
+	 * @param context
+	 * @param httpsConnector
+	 */
+	private void configureSslConnector(BaSyxContext context, Connector httpsConnector) {
+		httpsConnector.setPort(context.port);
+		httpsConnector.setSecure(true);
+		httpsConnector.setScheme("https");
+		httpsConnector.setAttribute("keystoreFile", context.getCertificatePath());
+		httpsConnector.setAttribute("clientAuth", "false");
+		httpsConnector.setAttribute("sslProtocol", "TLS");
+		httpsConnector.setAttribute("SSLEnabled", true);
+		httpsConnector.setAttribute("protocol", "HTTP/1.1");
+		httpsConnector.setAttribute("keystorePass", context.getKeyPassword());
+		
+		httpsConnector.setAttribute("keyAlias", "tomcat");
+	 }
+
+	/**
+	 * Maps the short protocol names of the context to Tomcat's protocol handlers
+	 * @param protocol
+	 * @return
+	 */
+	private String getProtocolHandlerName(String protocol) {
+		if (protocol == null || protocol.isEmpty()) {
+			return "HTTP/1.1";
+		}
+
+		switch (protocol.toLowerCase()) {
+		case "nio":
+			return "org.apache.coyote.http11.Http11NioProtocol";
+		case "nio2":
+			return "org.apache.coyote.http11.Http11Nio2Protocol";
+		case "apr":
+			return "org.apache.coyote.http11.Http11AprProtocol";
+		default:
+			return protocol;
+		}
+	}
+
+	/**
+	 * Applies the thread pool, connection and keep-alive settings of the context.
+	 * Settings that are not given in the context keep Tomcat's defaults.
+	 * @param context
+	 * @param connector
+	 */
+	private void configureConnector(BaSyxContext context, Connector connector) {
+		ProtocolHandler handler = connector.getProtocolHandler();
+		if (!(handler instanceof AbstractHttp11Protocol<?>)) {
+			logger.warn("Connector settings are not applied to protocol handler " + handler);
+			return;
+		}
+		AbstractHttp11Protocol<?> protocol = (AbstractHttp11Protocol<?>) handler;
+
+		if (context.getExecutor() != null) {
+			protocol.setExecutor(context.getExecutor());
+		}
+		if (context.getMaxThreads() != null) {
+			protocol.setMaxThreads(context.getMaxThreads());
+		}
+		if (context.getMinSpareThreads() != null) {
+			protocol.setMinSpareThreads(context.getMinSpareThreads());
+		}
+		if (context.getAcceptCount() != null) {
+			protocol.setAcceptCount(context.getAcceptCount());
+		}
+		if (context.getMaxConnections() != null) {
+			protocol.setMaxConnections(context.getMaxConnections());
+		}
+		if (context.getConnectionTimeout() != null) {
+			protocol.setConnectionTimeout(context.getConnectionTimeout());
+		}
+		if (context.getKeepAliveTimeout() != null) {
+			protocol.setKeepAliveTimeout(context.getKeepAliveTimeout());
+		}
+		if (context.getMaxKeepAliveRequests() != null) {
+			protocol.setMaxKeepAliveRequests(context.getMaxKeepAliveRequests());
+		}
+	}
+	
+	/**
+	 * Starts the server in a new thread to avoid blocking the main thread
+	 */
+	@Override
+	public void start() {
+		logger.trace("Starting Tomcat.....");
+        
+		Thread serverThread = new Thread(() -> {
+			try {
+				tomcat.stop();
+
+				// Adds listener that notifies the tomcat object when the server has started
+				tomcat.getServer().addLifecycleListener(new LifecycleListener() {
+					@Override
+					public void lifecycleEvent(LifecycleEvent event) {
+						if (event.getLifecycle().getState() == LifecycleState.STARTED) {
+							synchronized (tomcat) {
+								tomcat.notifyAll();
+							}
+						}
+					}
+				});
+
+				tomcat.start();
+				
+				// Keeps the server thread alive until the server is shut down
+				tomcat.getServer().await();
+			} catch (LifecycleException e) {
+				logger.error("Exception in start", e);
+			}
+		});
+		serverThread.start();
+
+		synchronized (tomcat) {
+			try {
+				tomcat.wait();
+			} catch (InterruptedException e) {
+				logger.error("Exception in start", e);
+			}
+		}
+	}
+	
+	/**
+	 * This Method stops and destroys the tomcat instance. This is important since Tomcat would be already 
+	 * bound to port 8080 when new tests are run that require a start of tomcat
+	 */
+	@Override
+	public void shutdown() {
+		logger.trace("Shutting down BaSyx HTTP Server...");
+		
+		try {
+			tomcat.stop();
+			tomcat.destroy();
+		} catch (LifecycleException e) {
+			// TODO Auto-generated catch block
+			logger.error("Exception in shutdown", e);
+		}
+	}
+	
+	
+}
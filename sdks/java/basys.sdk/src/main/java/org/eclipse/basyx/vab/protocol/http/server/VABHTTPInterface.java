@@ -9,30 +9,44 @@
  ******************************************************************************/
 package org.eclipse.basyx.vab.protocol.http.server;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.PrintWriter;
 import java.io.UnsupportedEncodingException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Enumeration;
 import java.util.List;
 import java.util.StringJoiner;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
+import org.eclipse.basyx.vab.coder.binary.serialization.BinaryTools;
 import org.eclipse.basyx.vab.coder.json.provider.JSONProvider;
+import org.eclipse.basyx.vab.coder.json.serialization.DefaultTypeFactory;
 import org.eclipse.basyx.vab.exception.provider.MalformedRequestException;
 import org.eclipse.basyx.vab.exception.provider.ProviderException;
+import org.eclipse.basyx.vab.exception.provider.VersionConflictException;
 import org.eclipse.basyx.vab.modelprovider.VABPathTools;
 import org.eclipse.basyx.vab.modelprovider.api.IModelProvider;
+import org.eclipse.basyx.vab.modelprovider.batch.BatchEntry;
+import org.eclipse.basyx.vab.modelprovider.event.IPublisher;
+import org.eclipse.basyx.vab.modelprovider.event.ISubscriber;
+import org.eclipse.basyx.vab.modelprovider.event.ISubscription;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.google.common.base.Charsets;
-import com.google.common.io.ByteSource;
-
 
 /**
  * VAB provider class that enables access to an IModelProvider via HTTP REST
@@ -48,7 +62,43 @@ import com.google.common.io.ByteSource;
  * - POST /aas/submodels/{subModelId}/operations/a Invoke operation a of
  * submodel {subModelId}<br />
  * - POST /aas/submodels/{subModelId}/operations/a/b Invoke operation a/b of
- * submodel {subModelId}
+ * submodel {subModelId}<br />
+ * - POST /$batch Processes a list of get, set, create, delete and invoke
+ * requests in one round trip, see {@link IModelProvider#processBatch(List)}.
+ * For POST /a/b/$batch, the paths of the entries are relative to a/b
+ * <br />
+ * - GET /a/b/$events Opens a stream of server-sent events (text/event-stream)
+ * for a/b, see {@link IModelProvider#getEventPublisher(String)}. Each event is
+ * sent as JSON in the data field of a single message. Requires asynchronous
+ * request processing, otherwise it is answered with 501 Not Implemented.
+ * <br />
+ * - GET /a/b/$version Retrieves the version of the element a/b, see
+ * {@link IModelProvider#getVersion(String)}<br />
+ * - PUT /a/b with an If-Match header containing a version, e.g. W/"5" or "5",
+ * sets the value only if the element still has this version, see
+ * {@link IModelProvider#compareAndSet(String, long, Object)}. Otherwise, the
+ * request is answered with 412 Precondition Failed. Successful requests are
+ * answered with the new version as ETag and body. GET responses for elements
+ * with a version carry it as ETag, so that it can be passed back in If-Match.
+ * Since the JSON, binary and compressed representations of a version differ,
+ * version ETags are weak.
+ * <br />
+ * <br />
+ * Clients may negotiate the binary encoding of {@link BinaryTools} instead of
+ * JSON. Requests with a body are decoded according to their Content-Type, all
+ * other requests are answered according to their Accept header.<br />
+ * <br />
+ * Optionally, GET responses can be cached by a {@link VABResponseCache}. In
+ * this case, the responses carry an ETag and requests with a matching
+ * If-None-Match header are answered with 304 Not Modified.<br />
+ * <br />
+ * If an {@link OperationExecutor} is set, operations are invoked
+ * asynchronously, i.e. the request thread is released while the operation is
+ * running. Invocations exceeding the timeout of the executor are answered with
+ * 504 Gateway Timeout and cancelled by interrupting their thread, invocations
+ * rejected by a saturated executor with 503 Service Unavailable. Operations
+ * that do not react to the interrupt keep running, thus a 504 does not mean
+ * that the operation has not been executed.
  * 
  * @author kuhn
  *
@@ -62,12 +112,43 @@ public class VABHTTPInterface<ModelProvider extends IModelProvider> extends Basy
 	 */
 	private static final long serialVersionUID = 1L;
 
+	/**
+	 * Last path element of batch requests
+	 */
+	public static final String BATCH_PATH = "$batch";
+
+	/**
+	 * Last path element of event stream requests
+	 */
+	public static final String EVENTS_PATH = "$events";
+
+	/**
+	 * Last path element of version requests
+	 */
+	public static final String VERSION_PATH = "$version";
+
 	
 	/**
 	 * Reference to IModelProvider backend
 	 */
 	protected JSONProvider<ModelProvider> providerBackend = null;
 
+	/**
+	 * Reference to IModelProvider backend using the binary encoding
+	 */
+	protected JSONProvider<ModelProvider> binaryProviderBackend = null;
+
+	/**
+	 * Cache of serialized GET responses, null if responses are not cached
+	 */
+	protected VABResponseCache responseCache = null;
+
+	/**
+	 * Executor of asynchronous operation invocations, null if operations are
+	 * invoked in the request thread
+	 */
+	protected transient OperationExecutor operationExecutor = null;
+
 	
 	
 	/**
@@ -76,6 +157,53 @@ public class VABHTTPInterface<ModelProvider extends IModelProvider> extends Basy
 	public VABHTTPInterface(ModelProvider provider) {
 		// Store provider reference
 		providerBackend = new JSONProvider<ModelProvider>(provider);
+		binaryProviderBackend = new JSONProvider<ModelProvider>(provider, new BinaryTools(new DefaultTypeFactory()));
+	}
+
+	
+	/**
+	 * Enables caching of serialized GET responses. All modifications of the
+	 * model have to be made through this interface, see {@link VABResponseCache}
+	 * 
+	 * @param cache
+	 * @return this instance
+	 */
+	public VABHTTPInterface<ModelProvider> withResponseCache(VABResponseCache cache) {
+		responseCache = cache;
+		return this;
+	}
+
+	
+	/**
+	 * Enables asynchronous operation invocations, see {@link OperationExecutor}
+	 * 
+	 * @param executor
+	 * @return this instance
+	 */
+	public VABHTTPInterface<ModelProvider> withOperationExecutor(OperationExecutor executor) {
+		setOperationExecutor(executor);
+		return this;
+	}
+
+	
+	/**
+	 * Returns the executor of asynchronous operation invocations
+	 * 
+	 * @return the executor or null, if operations are invoked in the request thread
+	 */
+	public OperationExecutor getOperationExecutor() {
+		return operationExecutor;
+	}
+
+	
+	/**
+	 * Sets the executor of asynchronous operation invocations
+	 * 
+	 * @param executor
+	 *            the executor or null to invoke operations in the request thread
+	 */
+	public void setOperationExecutor(OperationExecutor executor) {
+		operationExecutor = executor;
 	}
 
 	
@@ -106,15 +234,37 @@ public class VABHTTPInterface<ModelProvider extends IModelProvider> extends Basy
 		try {
 			String path = extractPath(req);
 
+			if (VABPathTools.getLastElement(path).equals(EVENTS_PATH)) {
+				processEventStream(VABPathTools.getParentPath(path), req, resp);
+				return;
+			}
+
 			// Setup HTML response header
-			resp.setContentType("application/json");
-			resp.setCharacterEncoding("UTF-8");
+			JSONProvider<ModelProvider> provider = negotiateProvider(BinaryTools.isBinaryAccepted(req.getHeader("Accept")), resp);
 
 			resp.setStatus(200);
 
 			// Process get request
-			providerBackend.processBaSysGet(path, resp.getOutputStream());
+			if (VABPathTools.getLastElement(path).equals(VERSION_PATH)) {
+				provider.processBaSysGetVersion(VABPathTools.getParentPath(path), resp.getOutputStream());
+				return;
+			}
+
+			// The version is retrieved before the value, so that a change in between fails an If-Match based on it
+			String versionETag = getVersionETag(path);
+			if (responseCache != null) {
+				processCachedGet(path, provider, versionETag, req, resp);
+			} else if (versionETag != null && matchesETag(req.getHeader("If-None-Match"), versionETag)) {
+				resp.setHeader("ETag", versionETag);
+				resp.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+			} else {
+				if (versionETag != null) {
+					resp.setHeader("ETag", versionETag);
+				}
+				provider.processBaSysGet(path, resp.getOutputStream());
+			}
 		} catch(ProviderException e) {
+			abortIfCommitted(req, resp, e);
 			int httpCode = ExceptionToHTTPCodeMapper.mapFromException(e);
 			resp.setStatus(httpCode);
 			logger.debug("Exception in HTTP-GET. Response-code: " + httpCode, e);
@@ -130,14 +280,23 @@ public class VABHTTPInterface<ModelProvider extends IModelProvider> extends Basy
 	protected void doPut(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
 		try {
 			String path = extractPath(req);
-			String serValue = extractSerializedValue(req);
-			logger.trace("DoPut: {}", serValue);
+			logger.trace("DoPut: {}", path);
 
-			resp.setContentType("application/json");
-			resp.setCharacterEncoding("UTF-8");
+			JSONProvider<ModelProvider> provider = negotiateProvider(BinaryTools.isBinaryMediaType(req.getContentType()), resp);
 			resp.setStatus(200);
 
-			providerBackend.processBaSysSet(path, serValue.toString(), resp.getOutputStream());
+			// The request body is deserialized while it is read
+			String ifMatch = req.getHeader("If-Match");
+			try {
+				if (ifMatch == null || ifMatch.trim().equals("*")) {
+					provider.processBaSysSet(path, req.getInputStream(), resp.getOutputStream());
+				} else {
+					long version = provider.processBaSysCompareAndSet(path, parseVersion(ifMatch), req.getInputStream(), resp.getOutputStream());
+					resp.setHeader("ETag", getVersionETag(version));
+				}
+			} finally {
+				invalidateCachedResponses(path);
+			}
 		} catch(ProviderException e) {
 			int httpCode = ExceptionToHTTPCodeMapper.mapFromException(e);
 			resp.setStatus(httpCode);
@@ -155,32 +314,69 @@ public class VABHTTPInterface<ModelProvider extends IModelProvider> extends Basy
 	protected void doPost(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
 		try {
 			String path = extractPath(req);
-			String serValue = extractSerializedValue(req);
 
-			logger.trace("DoPost: {}", serValue);
+			logger.trace("DoPost: {}", path);
 
 			// Setup HTML response header
 			resp.setStatus(201);
-			resp.setContentType("application/json");
-			resp.setCharacterEncoding("UTF-8");
+			JSONProvider<ModelProvider> provider = negotiateProvider(BinaryTools.isBinaryMediaType(req.getContentType()), resp);
+
+			// Check if request is a batch, a property creation or an operation invoke
+			if (isBatchPath(path)) {
+			// Invoke BaSys VAB 'batch' primitive
+				resp.setStatus(200);
+				processBatch(VABPathTools.getParentPath(path), provider, req, resp);
 
-			// Check if request is for property creation or operation invoke
-			if (VABPathTools.isOperationInvokationPath(path)) {
+			} else if (VABPathTools.isOperationInvokationPath(path) && operationExecutor != null && req.isAsyncSupported()) {
+			// Invoke BaSys VAB 'invoke' primitive outside of the request thread
+				processAsyncInvoke(path, provider, req, resp);
+
+			} else if (VABPathTools.isOperationInvokationPath(path)) {
 			// Invoke BaSys VAB 'invoke' primitive
 
-				providerBackend.processBaSysInvoke(path, serValue, resp.getOutputStream());
+				try {
+					provider.processBaSysInvoke(path, req.getInputStream(), resp.getOutputStream());
+				} finally {
+					// Operations may have arbitrary side effects
+					if (responseCache != null) {
+						responseCache.invalidateAll();
+					}
+				}
 
 			} else {
 			// Invoke the BaSys 'create' primitive
-				providerBackend.processBaSysCreate(path, serValue, resp.getOutputStream());
+				try {
+					provider.processBaSysCreate(path, req.getInputStream(), resp.getOutputStream());
+				} finally {
+					invalidateCachedResponses(path);
+				}
 			}
 		} catch (ProviderException e) {
+			abortIfCommitted(req, resp, e);
 			int httpCode = ExceptionToHTTPCodeMapper.mapFromException(e);
 			resp.setStatus(httpCode);
 			logger.debug("Exception in HTTP-POST. Response-code: " + httpCode, e);
 		}
 	}
 
+	/**
+	 * Fails the request, if parts of the response body have already been sent
+	 * when an exception occurs. The servlet container aborts the response in
+	 * this case, so that the client does not take the partial body with the
+	 * already sent status for a complete response.
+	 * 
+	 * @param req
+	 * @param resp
+	 * @param e
+	 * @throws IOException
+	 *             if the response has been committed
+	 */
+	private void abortIfCommitted(HttpServletRequest req, HttpServletResponse resp, ProviderException e) throws IOException {
+		if (resp.isCommitted()) {
+			throw new IOException("Failed to send the response to " + req.getRequestURI() + " completely", e);
+		}
+	}
+
 	
 	/**
 	 * Handle a HTTP PATCH operation. Updates a map or collection
@@ -190,12 +386,16 @@ public class VABHTTPInterface<ModelProvider extends IModelProvider> extends Basy
 	protected void doPatch(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
 		try {
 			String path = extractPath(req);
-			String serValue = extractSerializedValue(req);
-			logger.trace("DoPatch: {}", serValue);
+			logger.trace("DoPatch: {}", path);
 
 			resp.setStatus(200);
+			JSONProvider<ModelProvider> provider = negotiateProvider(BinaryTools.isBinaryMediaType(req.getContentType()), resp);
 
-			providerBackend.processBaSysDelete(path, serValue, resp.getOutputStream());
+			try {
+				provider.processBaSysDelete(path, req.getInputStream(), resp.getOutputStream());
+			} finally {
+				invalidateCachedResponses(path);
+			}
 		} catch(ProviderException e) {
 			int httpCode = ExceptionToHTTPCodeMapper.mapFromException(e);
 			resp.setStatus(httpCode);
@@ -216,9 +416,13 @@ public class VABHTTPInterface<ModelProvider extends IModelProvider> extends Basy
 			String nullParam = "";
 
 			resp.setStatus(200);
+			JSONProvider<ModelProvider> provider = negotiateProvider(BinaryTools.isBinaryAccepted(req.getHeader("Accept")), resp);
 
-
-			providerBackend.processBaSysDelete(path, nullParam, resp.getOutputStream());
+			try {
+				provider.processBaSysDelete(path, nullParam, resp.getOutputStream());
+			} finally {
+				invalidateCachedResponses(path);
+			}
 		} catch(ProviderException e) {
 			int httpCode = ExceptionToHTTPCodeMapper.mapFromException(e);
 			resp.setStatus(httpCode);
@@ -226,6 +430,542 @@ public class VABHTTPInterface<ModelProvider extends IModelProvider> extends Basy
 		}
 	}
 
+	/**
+	 * Answers a GET request from the response cache. The response is only
+	 * serialized if it is not cached for the current version of the path.
+	 * 
+	 * @param path
+	 * @param provider
+	 * @param versionETag
+	 *            ETag of the version of the element or null, if it has none. It
+	 *            takes precedence over the ETag of the cache, so that it can be
+	 *            used for If-Match.
+	 * @param req
+	 * @param resp
+	 * @throws IOException
+	 */
+	private void processCachedGet(String path, JSONProvider<ModelProvider> provider, String versionETag, HttpServletRequest req, HttpServletResponse resp)
+			throws IOException {
+		String encoding = provider == binaryProviderBackend ? "binary" : "json";
+		long version = responseCache.getVersion(path);
+		String eTag = versionETag != null ? versionETag : responseCache.getETag(version, encoding);
+
+		if (matchesETag(req.getHeader("If-None-Match"), eTag)) {
+			resp.setHeader("ETag", eTag);
+			resp.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+			return;
+		}
+
+		String key = encoding + ":" + path;
+		byte[] response = responseCache.get(key, version);
+		if (response == null) {
+			ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+			try {
+				provider.processBaSysGet(path, outputStream);
+			} catch (ProviderException e) {
+				// Send the serialized exception without caching it
+				resp.getOutputStream().write(outputStream.toByteArray());
+				throw e;
+			}
+			response = outputStream.toByteArray();
+			responseCache.put(key, version, response);
+		}
+
+		resp.setHeader("ETag", eTag);
+		resp.getOutputStream().write(response);
+	}
+
+	/**
+	 * Processes a batch request. Batches are always processed in the request
+	 * thread, even if they contain operation invocations.
+	 * 
+	 * @param path
+	 *            base path of the entries
+	 * @param provider
+	 * @param req
+	 * @param resp
+	 * @throws IOException
+	 */
+	private void processBatch(String path, JSONProvider<ModelProvider> provider, HttpServletRequest req, HttpServletResponse resp) throws IOException {
+		List<BatchEntry> entries = null;
+		try {
+			entries = provider.processBaSysBatch(path, req.getInputStream(), resp.getOutputStream());
+		} finally {
+			invalidateCachedResponses(entries);
+		}
+	}
+
+	private boolean isBatchPath(String path) {
+		return VABPathTools.getLastElement(path).equals(BATCH_PATH);
+	}
+
+	/**
+	 * Opens a stream of server-sent events. The request is kept open until
+	 * either the client disconnects or the publisher completes.
+	 * 
+	 * @param path
+	 *            path of the observed element
+	 * @param req
+	 * @param resp
+	 * @throws IOException
+	 */
+	private void processEventStream(String path, HttpServletRequest req, HttpServletResponse resp) throws IOException {
+		if (!req.isAsyncSupported()) {
+			resp.setStatus(HttpServletResponse.SC_NOT_IMPLEMENTED);
+			return;
+		}
+
+		// Fails before the response is committed, if there are no events for the path
+		IPublisher<Object> publisher = getModelProvider().getEventPublisher(path);
+
+		resp.setStatus(200);
+		resp.setContentType("text/event-stream");
+		resp.setCharacterEncoding("UTF-8");
+		resp.setHeader("Cache-Control", "no-cache");
+
+		AsyncContext asyncContext = req.startAsync(req, resp);
+		asyncContext.setTimeout(0);
+
+		EventStream stream = new EventStream(path, asyncContext, resp);
+		asyncContext.addListener(stream);
+
+		// Commits the response, so that the client knows the stream is established
+		stream.write(": connected\n\n");
+		publisher.subscribe(stream);
+	}
+
+	/**
+	 * Subscriber that writes the received events as server-sent events to an
+	 * asynchronous request
+	 */
+	private class EventStream implements ISubscriber<Object>, AsyncListener {
+		private final String path;
+		private final AsyncContext asyncContext;
+		private final HttpServletResponse resp;
+		private final AtomicBoolean closed = new AtomicBoolean(false);
+		private volatile ISubscription subscription;
+
+		private EventStream(String path, AsyncContext asyncContext, HttpServletResponse resp) {
+			this.path = path;
+			this.asyncContext = asyncContext;
+			this.resp = resp;
+		}
+
+		@Override
+		public void onSubscribe(ISubscription subscription) {
+			this.subscription = subscription;
+			if (closed.get()) {
+				subscription.cancel();
+			} else {
+				subscription.request(Long.MAX_VALUE);
+			}
+		}
+
+		@Override
+		public void onNext(Object event) {
+			String serialized;
+			try {
+				serialized = providerBackend.getStreamingSerializer().serialize(event);
+			} catch (RuntimeException e) {
+				logger.warn("Skipped event of " + path + " that could not be serialized", e);
+				return;
+			}
+
+			StringBuilder message = new StringBuilder();
+			for (String line : serialized.split("\n", -1)) {
+				message.append("data: ").append(line).append("\n");
+			}
+			message.append("\n");
+			write(message.toString());
+		}
+
+		@Override
+		public void onError(Throwable throwable) {
+			logger.debug("Event stream of " + path + " failed", throwable);
+			close();
+		}
+
+		@Override
+		public void onComplete() {
+			close();
+		}
+
+		/**
+		 * Writes and flushes a part of the stream. Closes the stream if the client
+		 * is not reachable anymore.
+		 * 
+		 * @param data
+		 */
+		private synchronized void write(String data) {
+			if (closed.get()) {
+				return;
+			}
+
+			try {
+				OutputStream outputStream = resp.getOutputStream();
+				outputStream.write(data.getBytes(StandardCharsets.UTF_8));
+				outputStream.flush();
+			} catch (IOException e) {
+				logger.debug("Client of event stream " + path + " disconnected", e);
+				close();
+			}
+		}
+
+		/**
+		 * Cancels the subscription and completes the request, if this has not been
+		 * done before
+		 */
+		private void close() {
+			if (!closed.compareAndSet(false, true)) {
+				return;
+			}
+
+			ISubscription current = subscription;
+			if (current != null) {
+				current.cancel();
+			}
+			try {
+				asyncContext.complete();
+			} catch (IllegalStateException e) {
+				// The request has already been completed by the container
+			}
+		}
+
+		@Override
+		public void onTimeout(AsyncEvent event) throws IOException {
+			close();
+		}
+
+		@Override
+		public void onError(AsyncEvent event) throws IOException {
+			close();
+		}
+
+		@Override
+		public void onComplete(AsyncEvent event) throws IOException {
+			close();
+		}
+
+		@Override
+		public void onStartAsync(AsyncEvent event) throws IOException {
+		}
+	}
+
+	/**
+	 * Starts the asynchronous processing of an operation invocation. The request
+	 * body is read in the request thread, since the request may not be accessed
+	 * anymore after a timeout.
+	 * 
+	 * @param path
+	 * @param provider
+	 * @param req
+	 * @param resp
+	 * @throws IOException
+	 */
+	private void processAsyncInvoke(String path, JSONProvider<ModelProvider> provider, HttpServletRequest req, HttpServletResponse resp) throws IOException {
+		byte[] parameter = readBody(req.getInputStream());
+
+		AsyncContext asyncContext = req.startAsync(req, resp);
+		asyncContext.setTimeout(operationExecutor.getTimeout());
+
+		AsyncInvocation invocation = new AsyncInvocation(path, provider, parameter, asyncContext, resp);
+		asyncContext.addListener(invocation);
+		try {
+			invocation.setFuture(operationExecutor.submit(invocation));
+		} catch (RejectedExecutionException e) {
+			logger.warn("Rejected invocation of " + path + ", the operation executor is saturated");
+			invocation.complete(HttpServletResponse.SC_SERVICE_UNAVAILABLE, new byte[0]);
+		}
+	}
+
+	private byte[] readBody(InputStream inputStream) throws IOException {
+		ByteArrayOutputStream body = new ByteArrayOutputStream();
+		byte[] buffer = new byte[4096];
+		int read;
+		while ((read = inputStream.read(buffer)) >= 0) {
+			body.write(buffer, 0, read);
+		}
+		return body.toByteArray();
+	}
+
+	/**
+	 * Operation invocation that is executed by the {@link OperationExecutor} and
+	 * completes the asynchronous request. The response is written by either the
+	 * invocation or the timeout, whichever comes first. On timeout, the
+	 * invocation is cancelled.
+	 */
+	private class AsyncInvocation implements Runnable, AsyncListener {
+		private final String path;
+		private final JSONProvider<ModelProvider> provider;
+		private final byte[] parameter;
+		private final AsyncContext asyncContext;
+		private final HttpServletResponse resp;
+		private final AtomicBoolean completed = new AtomicBoolean(false);
+		private volatile boolean timedOut = false;
+		private volatile Future<?> future;
+
+		private AsyncInvocation(String path, JSONProvider<ModelProvider> provider, byte[] parameter, AsyncContext asyncContext, HttpServletResponse resp) {
+			this.path = path;
+			this.provider = provider;
+			this.parameter = parameter;
+			this.asyncContext = asyncContext;
+			this.resp = resp;
+		}
+
+		@Override
+		public void run() {
+			// The request may have timed out while waiting for a free thread
+			if (completed.get()) {
+				return;
+			}
+
+			int httpCode = HttpServletResponse.SC_CREATED;
+			ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+			try {
+				provider.processBaSysInvoke(path, new ByteArrayInputStream(parameter), outputStream);
+			} catch (ProviderException e) {
+				httpCode = ExceptionToHTTPCodeMapper.mapFromException(e);
+				logger.debug("Exception in HTTP-POST. Response-code: " + httpCode, e);
+			} catch (RuntimeException e) {
+				// Not reported by the executor, since the invocation is run by a future
+				httpCode = HttpServletResponse.SC_INTERNAL_SERVER_ERROR;
+				logger.warn("Invocation of " + path + " failed", e);
+			} finally {
+				// Operations may have arbitrary side effects
+				if (responseCache != null) {
+					responseCache.invalidateAll();
+				}
+			}
+			complete(httpCode, outputStream.toByteArray());
+		}
+
+		/**
+		 * Sets the future of the scheduled invocation, so that it can be cancelled
+		 * on timeout. The timeout may already have passed.
+		 * 
+		 * @param future
+		 */
+		private void setFuture(Future<?> future) {
+			this.future = future;
+			if (timedOut) {
+				future.cancel(true);
+			}
+		}
+
+		/**
+		 * Writes the response and completes the request, if this has not been done
+		 * before
+		 * 
+		 * @param httpCode
+		 * @param body
+		 */
+		private void complete(int httpCode, byte[] body) {
+			if (!completed.compareAndSet(false, true)) {
+				return;
+			}
+
+			try {
+				resp.setStatus(httpCode);
+				OutputStream outputStream = resp.getOutputStream();
+				outputStream.write(body);
+				// Closing the stream lets filters, e.g. the CompressionFilter, finish the body
+				outputStream.close();
+			} catch (IOException e) {
+				logger.debug("Failed to send the result of " + path, e);
+			} finally {
+				asyncContext.complete();
+			}
+		}
+
+		@Override
+		public void onTimeout(AsyncEvent event) throws IOException {
+			logger.warn("Invocation of " + path + " timed out, cancelling it");
+			complete(HttpServletResponse.SC_GATEWAY_TIMEOUT, new byte[0]);
+
+			// Operations may ignore the interrupt, thus they are not guaranteed to stop
+			timedOut = true;
+			Future<?> current = future;
+			if (current != null) {
+				current.cancel(true);
+			}
+		}
+
+		@Override
+		public void onError(AsyncEvent event) throws IOException {
+			logger.debug("Error in asynchronous invocation of " + path, event.getThrowable());
+			complete(HttpServletResponse.SC_INTERNAL_SERVER_ERROR, new byte[0]);
+		}
+
+		@Override
+		public void onComplete(AsyncEvent event) throws IOException {
+		}
+
+		@Override
+		public void onStartAsync(AsyncEvent event) throws IOException {
+		}
+	}
+
+	/**
+	 * Returns the ETag of a version of an element, see {@link #VERSION_PATH}.
+	 * The ETag is weak, since it is shared by all encodings of the element.
+	 * 
+	 * @param version
+	 * @return
+	 */
+	public static String getVersionETag(long version) {
+		return "W/\"" + version + "\"";
+	}
+
+	/**
+	 * Returns the ETag of the version of the element a path points to
+	 * 
+	 * @param path
+	 * @return the ETag or null, if the provider does not support versions for
+	 *         the path
+	 */
+	private String getVersionETag(String path) {
+		if (!getModelProvider().supportsVersions(path)) {
+			return null;
+		}
+		return getVersionETag(getModelProvider().getVersion(path));
+	}
+
+	/**
+	 * Parses the version of an If-Match header. Weak ETags are accepted, since
+	 * version ETags are weak, see {@link #getVersionETag(long)}. ETags that are not
+	 * versions, e.g. the ETags of a {@link VABResponseCache}, never match the
+	 * current version of an element.
+	 * 
+	 * @param ifMatch
+	 * @return
+	 * @throws VersionConflictException
+	 *             if none of the ETags is a version
+	 * @throws MalformedRequestException
+	 *             if the header is no list of ETags or contains several
+	 *             versions
+	 */
+	private long parseVersion(String ifMatch) {
+		Long version = null;
+		for (String candidate : ifMatch.split(",")) {
+			String eTag = stripWeakness(candidate.trim());
+			if (eTag.length() < 2 || !eTag.startsWith("\"") || !eTag.endsWith("\"")) {
+				throw new MalformedRequestException("If-Match header '" + ifMatch + "' is no list of ETags");
+			}
+
+			long parsed;
+			try {
+				parsed = Long.parseLong(eTag.substring(1, eTag.length() - 1));
+			} catch (NumberFormatException e) {
+				continue;
+			}
+			if (parsed < 0) {
+				continue;
+			}
+			if (version != null) {
+				throw new MalformedRequestException("If-Match header '" + ifMatch + "' contains several versions");
+			}
+			version = parsed;
+		}
+
+		if (version == null) {
+			throw new VersionConflictException("If-Match header '" + ifMatch + "' does not match the current version");
+		}
+		return version;
+	}
+
+	/**
+	 * Checks if an If-None-Match header matches the given ETag. As defined for
+	 * If-None-Match, the weak comparison is used, since version ETags are weak
+	 * and e.g. the {@link CompressionFilter} weakens the ETags of compressed
+	 * responses.
+	 * 
+	 * @param ifNoneMatch
+	 * @param eTag
+	 * @return
+	 */
+	private boolean matchesETag(String ifNoneMatch, String eTag) {
+		if (ifNoneMatch == null) {
+			return false;
+		}
+		String opaqueTag = stripWeakness(eTag);
+		for (String candidate : ifNoneMatch.split(",")) {
+			candidate = stripWeakness(candidate.trim());
+			if (candidate.equals("*") || candidate.equals(opaqueTag)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Removes the weakness indicator of an ETag, if it has one
+	 * 
+	 * @param eTag
+	 * @return
+	 */
+	private static String stripWeakness(String eTag) {
+		return eTag.startsWith("W/") ? eTag.substring(2) : eTag;
+	}
+
+	/**
+	 * Marks the cached responses of all paths modified by a batch as outdated
+	 * 
+	 * @param entries
+	 *            the processed entries, null if they are unknown
+	 */
+	private void invalidateCachedResponses(List<BatchEntry> entries) {
+		if (responseCache == null) {
+			return;
+		}
+
+		if (entries == null) {
+			responseCache.invalidateAll();
+			return;
+		}
+
+		for (BatchEntry entry : entries) {
+			if (BatchEntry.INVOKE.equals(entry.getOperation())) {
+				// Operations may have arbitrary side effects
+				responseCache.invalidateAll();
+				return;
+			} else if (entry.isModification()) {
+				responseCache.invalidate(entry.getPath());
+			}
+		}
+	}
+
+	/**
+	 * Marks the cached responses of a modified path as outdated
+	 * 
+	 * @param path
+	 */
+	private void invalidateCachedResponses(String path) {
+		if (responseCache != null) {
+			responseCache.invalidate(path);
+		}
+	}
+
+	/**
+	 * Selects the provider matching the negotiated media type and sets up the
+	 * content type of the response accordingly
+	 * 
+	 * @param binary
+	 *            whether the Content-Type or Accept header of the request selects
+	 *            the binary encoding
+	 * @param resp
+	 * @return
+	 */
+	private JSONProvider<ModelProvider> negotiateProvider(boolean binary, HttpServletResponse resp) {
+		if (binary) {
+			resp.setContentType(BinaryTools.MEDIATYPE);
+			return binaryProviderBackend;
+		}
+
+		resp.setContentType("application/json");
+		resp.setCharacterEncoding("UTF-8");
+		return providerBackend;
+	}
+
 	
 	private String extractPath(HttpServletRequest req) throws UnsupportedEncodingException {
 		// Extract path
@@ -290,23 +1030,4 @@ public class VABHTTPInterface<ModelProvider extends IModelProvider> extends Basy
 	private int getEnvironmentPathSize(HttpServletRequest req) {
 		return req.getContextPath().length() + req.getServletPath().length();
 	}
-
-
-	/**
-	 * Read serialized value 
-	 * @param req
-	 * @return
-	 * @throws IOException
-	 */
-	private String extractSerializedValue(HttpServletRequest req) throws IOException {
-		// https://www.baeldung.com/convert-input-stream-to-string#guava
-		ByteSource byteSource = new ByteSource() {
-	        @Override
-	        public InputStream openStream() throws IOException {
-	            return req.getInputStream();
-	        }
-	    };
-	 
-	    return byteSource.asCharSource(Charsets.UTF_8).read();
-	}
 }
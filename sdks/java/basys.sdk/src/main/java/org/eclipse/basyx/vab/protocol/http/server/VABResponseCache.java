@@ -0,0 +1,215 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.basyx.vab.protocol.http.server;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.eclipse.basyx.vab.modelprovider.VABPathTools;
+
+/**
+ * Cache of serialized GET responses for {@link VABHTTPInterface}. <br />
+ * Each model subtree carries a monotonically increasing version, that is
+ * bumped whenever an element of the subtree is modified. The version of a path
+ * is the latest modification of the path itself, of any of its ancestors and of
+ * any element below its parent. Including the parent's subtree covers paths
+ * that expose the same data as their siblings, e.g. <i>/submodel/values</i>
+ * and <i>/submodel/submodelElements</i>. <br />
+ * Cached responses are only returned as long as the version of their path did
+ * not change. Thus, the cache is only valid if all modifications of the model
+ * are made through the same {@link VABHTTPInterface}. It must not be used for
+ * models with values that change on their own, e.g. lambda properties.
+ *
+ * @author schnicke
+ *
+ */
+public class VABResponseCache {
+	public static final int DEFAULT_MAX_ENTRIES = 1000;
+
+	/**
+	 * Distinguishes the ETags of different cache instances, e.g. after a restart
+	 * of the server
+	 */
+	private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+	/**
+	 * Last version that has been handed out
+	 */
+	private long currentVersion = 0;
+
+	/**
+	 * Root of the version tree
+	 */
+	private final VersionNode root = new VersionNode();
+
+	/**
+	 * Serialized responses in least recently used order
+	 */
+	private final Map<String, CachedResponse> responses;
+
+	public VABResponseCache() {
+		this(DEFAULT_MAX_ENTRIES);
+	}
+
+	/**
+	 * @param maxEntries
+	 *            maximum number of cached responses
+	 */
+	public VABResponseCache(int maxEntries) {
+		responses = new LinkedHashMap<String, CachedResponse>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, CachedResponse> eldest) {
+				return size() > maxEntries;
+			}
+		};
+	}
+
+	/**
+	 * Returns the current version of a path
+	 *
+	 * @param path
+	 * @return
+	 */
+	public synchronized long getVersion(String path) {
+		String[] elements = VABPathTools.splitPath(path);
+		if (elements.length == 0) {
+			return root.subtreeVersion;
+		}
+
+		long version = root.version;
+		VersionNode node = root;
+		for (int i = 0; i < elements.length; i++) {
+			if (i == elements.length - 1) {
+				// node is the parent of the requested path
+				version = Math.max(version, node.subtreeVersion);
+			}
+			node = node.getChild(elements[i]);
+			if (node == null) {
+				break;
+			}
+			version = Math.max(version, node.version);
+		}
+		return version;
+	}
+
+	/**
+	 * Marks the element at the given path and thus the whole subtree as modified.
+	 * Has to be called after the modification has been applied.
+	 *
+	 * @param path
+	 */
+	public synchronized void invalidate(String path) {
+		long version = ++currentVersion;
+
+		VersionNode node = root;
+		node.subtreeVersion = version;
+		for (String element : VABPathTools.splitPath(path)) {
+			node = node.getOrCreateChild(element);
+			node.subtreeVersion = version;
+		}
+		node.version = version;
+
+		// The new version dominates all versions below
+		node.children = null;
+	}
+
+	/**
+	 * Marks the whole model as modified, e.g. after an operation with unknown side
+	 * effects has been invoked
+	 */
+	public void invalidateAll() {
+		invalidate("");
+		synchronized (responses) {
+			responses.clear();
+		}
+	}
+
+	/**
+	 * Creates the ETag for a version. Different encodings of the same version have
+	 * to be distinguished by the encoding parameter.
+	 *
+	 * @param version
+	 * @param encoding
+	 * @return
+	 */
+	public String getETag(long version, String encoding) {
+		return "\"" + epoch + "-" + version + "-" + encoding + "\"";
+	}
+
+	/**
+	 * Returns the response cached for the key, if it has been serialized for the
+	 * given version
+	 *
+	 * @param key
+	 * @param version
+	 * @return the response or null
+	 */
+	public byte[] get(String key, long version) {
+		CachedResponse response;
+		synchronized (responses) {
+			response = responses.get(key);
+		}
+		if (response == null || response.version != version) {
+			return null;
+		}
+		return response.data;
+	}
+
+	/**
+	 * Caches a response that has been serialized for the given version
+	 *
+	 * @param key
+	 * @param version
+	 * @param data
+	 */
+	public void put(String key, long version, byte[] data) {
+		synchronized (responses) {
+			responses.put(key, new CachedResponse(version, data));
+		}
+	}
+
+	private static class CachedResponse {
+		private final long version;
+		private final byte[] data;
+
+		private CachedResponse(long version, byte[] data) {
+			this.version = version;
+			this.data = data;
+		}
+	}
+
+	private static class VersionNode {
+		/**
+		 * Version of the last modification of exactly this element
+		 */
+		private long version = 0;
+
+		/**
+		 * Version of the last modification of this element or any element below
+		 */
+		private long subtreeVersion = 0;
+
+		private Map<String, VersionNode> children = null;
+
+		private VersionNode getChild(String element) {
+			return children == null ? null : children.get(element);
+		}
+
+		private VersionNode getOrCreateChild(String element) {
+			if (children == null) {
+				children = new HashMap<>();
+			}
+			return children.computeIfAbsent(element, e -> new VersionNode());
+		}
+	}
+}
@@ -0,0 +1,438 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.basyx.vab.protocol.http.server.nio;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Connection of the {@link NIOHTTPServer}. Reading and parsing is done by the
+ * selector thread, the requests are processed by the worker threads.<br />
+ * <br />
+ * Pipelined requests are processed one after another, so that their responses
+ * are sent in the order of the requests. Further requests are parsed and
+ * queued in the meantime. Responses are written directly by the worker
+ * threads as long as the socket accepts them, the rest is written by the
+ * selector thread as soon as the socket is writable again.
+ *
+ * @author schnicke
+ *
+ */
+class HTTPConnection {
+	private static Logger logger = LoggerFactory.getLogger(HTTPConnection.class);
+
+	// Reading is paused if this number of requests is queued
+	private static final int MAX_PIPELINED_REQUESTS = 16;
+
+	// Writers are blocked if this number of bytes waits for the socket
+	private static final long MAX_QUEUED_OUTPUT = 1024 * 1024;
+
+	private static final byte[] CONTINUE = "HTTP/1.1 100 Continue\r\n\r\n".getBytes(StandardCharsets.ISO_8859_1);
+
+	private final NIOHTTPServer server;
+	private final SocketChannel channel;
+	private final HTTPRequestParser parser;
+	private final InetSocketAddress remoteAddress;
+	private final InetSocketAddress localAddress;
+	private SelectionKey key;
+
+	private volatile long lastActivity = System.currentTimeMillis();
+
+	// Guarded by this
+	private final Deque<HTTPRequestMessage> pending = new ArrayDeque<>();
+	private boolean processing = false;
+	private int requestCount = 0;
+	private boolean inputClosed = false;
+	private boolean readPaused = false;
+	private NIOServletRequest current;
+
+	// Guarded by output
+	private final Deque<ByteBuffer> output = new ArrayDeque<>();
+	private long queuedBytes = 0;
+	private boolean closeWhenWritten = false;
+	private volatile boolean closed = false;
+
+	private final AtomicBoolean released = new AtomicBoolean(false);
+
+	HTTPConnection(NIOHTTPServer server, SocketChannel channel) {
+		this.server = server;
+		this.channel = channel;
+		this.parser = new HTTPRequestParser(NIOHTTPServer.MAX_HEADER_SIZE, server.getMaxRequestBodySize());
+		this.remoteAddress = (InetSocketAddress) channel.socket().getRemoteSocketAddress();
+		this.localAddress = (InetSocketAddress) channel.socket().getLocalSocketAddress();
+	}
+
+	/**
+	 * Registers the connection for reading. Is called by the selector thread.
+	 *
+	 * @param selector
+	 * @throws ClosedChannelException
+	 */
+	void register(Selector selector) throws ClosedChannelException {
+		key = channel.register(selector, SelectionKey.OP_READ, this);
+	}
+
+	InetSocketAddress getRemoteAddress() {
+		return remoteAddress;
+	}
+
+	InetSocketAddress getLocalAddress() {
+		return localAddress;
+	}
+
+	boolean isClosed() {
+		return closed;
+	}
+
+	synchronized void setCurrent(NIOServletRequest request) {
+		current = request;
+	}
+
+	/**
+	 * Reads and parses the available bytes and dispatches the next request, if
+	 * none is processed. Is called by the selector thread.
+	 *
+	 * @param buffer
+	 *            read buffer of the selector thread
+	 */
+	void onReadable(ByteBuffer buffer) {
+		buffer.clear();
+		int read;
+		try {
+			read = channel.read(buffer);
+		} catch (IOException e) {
+			close();
+			return;
+		}
+
+		if (read < 0) {
+			onEndOfInput();
+			return;
+		}
+		lastActivity = System.currentTimeMillis();
+
+		buffer.flip();
+		parser.feed(buffer);
+
+		boolean sendContinue;
+		synchronized (this) {
+			try {
+				HTTPRequestMessage message;
+				while ((message = parser.next()) != null) {
+					pending.add(message);
+				}
+			} catch (HTTPParseException e) {
+				// The error is answered in order, further input is not read anymore
+				pending.add(HTTPRequestMessage.failed(e));
+				inputClosed = true;
+			}
+
+			sendContinue = parser.pollContinueExpected() && !processing && pending.isEmpty();
+			if (pending.size() >= MAX_PIPELINED_REQUESTS) {
+				readPaused = true;
+			}
+			if (!processing && !pending.isEmpty()) {
+				dispatchNext();
+			}
+		}
+
+		if (sendContinue) {
+			try {
+				write(ByteBuffer.wrap(CONTINUE));
+			} catch (IOException e) {
+				return;
+			}
+		}
+		updateInterestOps();
+	}
+
+	/**
+	 * Handles the end of the input. Requests that have been received are still
+	 * answered, except asynchronous ones, whose client is assumed to be gone.
+	 */
+	private void onEndOfInput() {
+		boolean closeNow;
+		synchronized (this) {
+			inputClosed = true;
+			closeNow = !processing && pending.isEmpty() || (current != null && current.isAsyncStarted());
+		}
+		if (closeNow) {
+			closeWhenWritten();
+		} else {
+			updateInterestOps();
+		}
+	}
+
+	/**
+	 * Hands the next queued request over to the worker threads
+	 */
+	private void dispatchNext() {
+		HTTPRequestMessage message = pending.poll();
+		processing = true;
+		requestCount++;
+
+		int maxKeepAliveRequests = server.getMaxKeepAliveRequests();
+		boolean keepAlive = message.isKeepAlive() && server.isRunning() && (maxKeepAliveRequests < 0 || requestCount < maxKeepAliveRequests);
+
+		if (readPaused && pending.size() < MAX_PIPELINED_REQUESTS) {
+			readPaused = false;
+			server.schedule(this::updateInterestOps);
+		}
+
+		try {
+			server.execute(() -> server.process(this, message, keepAlive));
+		} catch (RejectedExecutionException e) {
+			logger.warn("Rejected request, the server is shutting down or saturated");
+			server.schedule(this::close);
+		}
+	}
+
+	/**
+	 * Proceeds with the next request after a response has been sent completely
+	 *
+	 * @param close
+	 *            whether the connection is closed instead
+	 */
+	void responseComplete(boolean close) {
+		lastActivity = System.currentTimeMillis();
+		synchronized (this) {
+			processing = false;
+			current = null;
+			if (!close && !pending.isEmpty()) {
+				dispatchNext();
+				return;
+			}
+			if (!close && !inputClosed) {
+				return;
+			}
+			pending.clear();
+		}
+		closeWhenWritten();
+	}
+
+	/**
+	 * Writes the buffers or queues them, if the socket does not accept them
+	 * right now. Blocks while too much output is queued, i.e. the client does
+	 * not keep up with the response.
+	 *
+	 * @param buffers
+	 * @throws IOException
+	 *             if the connection has been closed
+	 */
+	void write(ByteBuffer... buffers) throws IOException {
+		boolean registerWrite = false;
+		synchronized (output) {
+			if (closed) {
+				throw new IOException("Connection has been closed");
+			}
+
+			if (output.isEmpty()) {
+				try {
+					channel.write(buffers);
+				} catch (IOException e) {
+					closeAfterFailure();
+					throw e;
+				}
+			}
+			for (ByteBuffer buffer : buffers) {
+				if (buffer.hasRemaining()) {
+					registerWrite = output.isEmpty();
+					output.add(buffer);
+					queuedBytes += buffer.remaining();
+				}
+			}
+			lastActivity = System.currentTimeMillis();
+
+			if (registerWrite) {
+				server.schedule(this::updateInterestOps);
+			}
+			awaitQueuedOutput();
+		}
+	}
+
+	private void awaitQueuedOutput() throws IOException {
+		long deadline = System.currentTimeMillis() + server.getConnectionTimeout();
+		while (queuedBytes > MAX_QUEUED_OUTPUT && !closed) {
+			long remaining = deadline - System.currentTimeMillis();
+			if (remaining <= 0) {
+				closeAfterFailure();
+				throw new IOException("Writing the response timed out");
+			}
+			try {
+				output.wait(remaining);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IOException("Interrupted while writing the response", e);
+			}
+		}
+		if (closed) {
+			throw new IOException("Connection has been closed");
+		}
+	}
+
+	// Further writes fail immediately, the channel is closed by the selector thread
+	private void closeAfterFailure() {
+		closed = true;
+		server.schedule(this::close);
+	}
+
+	/**
+	 * Writes queued output. Is called by the selector thread.
+	 */
+	void onWritable() {
+		boolean closeNow;
+		synchronized (output) {
+			try {
+				while (!output.isEmpty()) {
+					long written = channel.write(output.toArray(new ByteBuffer[0]));
+					queuedBytes -= written;
+					while (!output.isEmpty() && !output.peek().hasRemaining()) {
+						output.poll();
+					}
+					if (written == 0) {
+						break;
+					}
+				}
+			} catch (IOException e) {
+				closed = true;
+			}
+			output.notifyAll();
+			lastActivity = System.currentTimeMillis();
+			closeNow = closed || (output.isEmpty() && closeWhenWritten);
+		}
+
+		if (closeNow) {
+			close();
+		} else {
+			updateInterestOps();
+		}
+	}
+
+	/**
+	 * Closes the connection as soon as all output has been written
+	 */
+	private void closeWhenWritten() {
+		boolean closeNow;
+		synchronized (output) {
+			closeWhenWritten = true;
+			closeNow = output.isEmpty();
+		}
+		if (closeNow) {
+			close();
+		}
+	}
+
+	/**
+	 * Updates the events the selector waits for. Is called by the selector
+	 * thread.
+	 */
+	void updateInterestOps() {
+		if (key == null || !key.isValid()) {
+			return;
+		}
+		int ops = 0;
+		synchronized (this) {
+			if (!readPaused && !inputClosed) {
+				ops |= SelectionKey.OP_READ;
+			}
+		}
+		synchronized (output) {
+			if (!output.isEmpty()) {
+				ops |= SelectionKey.OP_WRITE;
+			}
+		}
+		key.interestOps(ops);
+	}
+
+	/**
+	 * Closes idle connections and expires asynchronous requests after their
+	 * timeouts. Is called by the selector thread.
+	 *
+	 * @param now
+	 *            current time in milliseconds
+	 */
+	void checkTimeouts(long now) {
+		NIOServletRequest request;
+		boolean busy;
+		int count;
+		synchronized (this) {
+			request = current;
+			busy = processing || !pending.isEmpty();
+			count = requestCount;
+		}
+
+		if (busy) {
+			NIOAsyncContext asyncContext = request == null ? null : request.getNIOAsyncContext();
+			if (asyncContext != null) {
+				asyncContext.checkTimeout(now);
+			}
+			return;
+		}
+
+		synchronized (output) {
+			if (!output.isEmpty()) {
+				// Stalled writes are timed out by the writers
+				return;
+			}
+		}
+
+		// The keep-alive timeout applies between requests, the connection timeout for the first and incomplete ones
+		long timeout = count > 0 && parser.isIdle() ? server.getKeepAliveTimeout() : server.getConnectionTimeout();
+		if (now - lastActivity > timeout) {
+			close();
+		}
+	}
+
+	/**
+	 * Closes the connection immediately. Asynchronous requests in progress are
+	 * notified about the error.
+	 */
+	void close() {
+		synchronized (output) {
+			closed = true;
+			output.clear();
+			queuedBytes = 0;
+			output.notifyAll();
+		}
+		if (!released.compareAndSet(false, true)) {
+			return;
+		}
+
+		try {
+			channel.close();
+		} catch (IOException e) {
+			logger.trace("Exception while closing connection", e);
+		}
+		server.connectionClosed(this);
+
+		NIOServletRequest request;
+		synchronized (this) {
+			request = current;
+			pending.clear();
+		}
+		NIOAsyncContext asyncContext = request == null ? null : request.getNIOAsyncContext();
+		if (asyncContext != null) {
+			asyncContext.fail(new IOException("Connection has been closed"));
+		}
+	}
+}
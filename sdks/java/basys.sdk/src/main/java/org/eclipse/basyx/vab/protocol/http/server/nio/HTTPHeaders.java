@@ -0,0 +1,119 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.basyx.vab.protocol.http.server.nio;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Header fields of a request or response. Names are case insensitive, the
+ * order of the fields and the spelling of their first occurrence are kept.
+ *
+ * @author schnicke
+ *
+ */
+class HTTPHeaders {
+	private final Map<String, Field> fields = new LinkedHashMap<>();
+
+	private static class Field {
+		private final String name;
+		private final List<String> values = new ArrayList<>(1);
+
+		private Field(String name) {
+			this.name = name;
+		}
+	}
+
+	private static String key(String name) {
+		return name.toLowerCase(Locale.ROOT);
+	}
+
+	/**
+	 * Returns the first value of a field
+	 *
+	 * @param name
+	 * @return the value or null, if the field does not exist
+	 */
+	public String get(String name) {
+		Field field = fields.get(key(name));
+		return field == null ? null : field.values.get(0);
+	}
+
+	public List<String> getAll(String name) {
+		Field field = fields.get(key(name));
+		return field == null ? Collections.emptyList() : Collections.unmodifiableList(field.values);
+	}
+
+	public List<String> getNames() {
+		List<String> names = new ArrayList<>(fields.size());
+		for (Field field : fields.values()) {
+			names.add(field.name);
+		}
+		return names;
+	}
+
+	public boolean contains(String name) {
+		return fields.containsKey(key(name));
+	}
+
+	/**
+	 * Checks if a comma separated field contains the given token, e.g.
+	 * <i>close</i> in the <i>Connection</i> field
+	 *
+	 * @param name
+	 * @param token
+	 * @return
+	 */
+	public boolean containsToken(String name, String token) {
+		for (String value : getAll(name)) {
+			for (String element : value.split(",")) {
+				if (element.trim().equalsIgnoreCase(token)) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	public void add(String name, String value) {
+		fields.computeIfAbsent(key(name), k -> new Field(name)).values.add(value);
+	}
+
+	public void set(String name, String value) {
+		Field field = new Field(name);
+		field.values.add(value);
+		fields.put(key(name), field);
+	}
+
+	public void remove(String name) {
+		fields.remove(key(name));
+	}
+
+	public void clear() {
+		fields.clear();
+	}
+
+	/**
+	 * Appends all fields in the HTTP/1.1 wire format
+	 *
+	 * @param builder
+	 */
+	public void appendTo(StringBuilder builder) {
+		for (Field field : fields.values()) {
+			for (String value : field.values) {
+				builder.append(field.name).append(": ").append(value).append("\r\n");
+			}
+		}
+	}
+}
@@ -0,0 +1,37 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.basyx.vab.protocol.http.server.nio;
+
+/**
+ * Signals a request that violates HTTP/1.1. The connection can not be used
+ * for further requests afterwards.
+ *
+ * @author schnicke
+ *
+ */
+class HTTPParseException extends Exception {
+	private static final long serialVersionUID = 1L;
+
+	private final int status;
+
+	HTTPParseException(int status, String message) {
+		super(message);
+		this.status = status;
+	}
+
+	/**
+	 * Returns the status code of the error response
+	 *
+	 * @return
+	 */
+	public int getStatus() {
+		return status;
+	}
+}
@@ -0,0 +1,114 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.basyx.vab.protocol.http.server.nio;
+
+/**
+ * Completely received request as parsed by the {@link HTTPRequestParser}, or
+ * a request that could not be parsed and is answered with an error
+ *
+ * @author schnicke
+ *
+ */
+class HTTPRequestMessage {
+	public static final String HTTP_1_0 = "HTTP/1.0";
+	public static final String HTTP_1_1 = "HTTP/1.1";
+
+	private final String method;
+	private final String target;
+	private final String protocol;
+	private final HTTPHeaders headers;
+	private byte[] body = new byte[0];
+
+	// Status and reason of requests that could not be parsed, 0 otherwise
+	private final int errorStatus;
+	private final String errorMessage;
+
+	HTTPRequestMessage(String method, String target, String protocol, HTTPHeaders headers) {
+		this.method = method;
+		this.target = target;
+		this.protocol = protocol;
+		this.headers = headers;
+		this.errorStatus = 0;
+		this.errorMessage = null;
+	}
+
+	private HTTPRequestMessage(int errorStatus, String errorMessage) {
+		this.method = null;
+		this.target = null;
+		this.protocol = HTTP_1_1;
+		this.headers = new HTTPHeaders();
+		this.errorStatus = errorStatus;
+		this.errorMessage = errorMessage;
+	}
+
+	/**
+	 * Creates the placeholder of a request that could not be parsed
+	 *
+	 * @param e
+	 * @return
+	 */
+	static HTTPRequestMessage failed(HTTPParseException e) {
+		return new HTTPRequestMessage(e.getStatus(), e.getMessage());
+	}
+
+	public String getMethod() {
+		return method;
+	}
+
+	/**
+	 * Returns the raw request target, i.e. the path and query as sent by the
+	 * client
+	 *
+	 * @return
+	 */
+	public String getTarget() {
+		return target;
+	}
+
+	public String getProtocol() {
+		return protocol;
+	}
+
+	public HTTPHeaders getHeaders() {
+		return headers;
+	}
+
+	public byte[] getBody() {
+		return body;
+	}
+
+	void setBody(byte[] body) {
+		this.body = body;
+	}
+
+	public boolean isFailed() {
+		return errorStatus != 0;
+	}
+
+	public int getErrorStatus() {
+		return errorStatus;
+	}
+
+	public String getErrorMessage() {
+		return errorMessage;
+	}
+
+	/**
+	 * Checks if the client allows to keep the connection open after this request
+	 *
+	 * @return
+	 */
+	public boolean isKeepAlive() {
+		if (isFailed() || headers.containsToken("Connection", "close")) {
+			return false;
+		}
+		return HTTP_1_1.equals(protocol) || headers.containsToken("Connection", "keep-alive");
+	}
+}
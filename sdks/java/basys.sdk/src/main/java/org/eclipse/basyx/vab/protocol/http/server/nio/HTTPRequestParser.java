@@ -0,0 +1,385 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.basyx.vab.protocol.http.server.nio;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Incremental parser of HTTP/1.1 requests. The bytes read from a connection
+ * are passed to {@link #feed(ByteBuffer)} in whatever portions they arrive,
+ * complete requests are taken by {@link #next()}. Multiple requests in the
+ * buffer, i.e. pipelined requests, are returned one after another.<br />
+ * <br />
+ * Bodies are either delimited by <i>Content-Length</i> or by the chunked
+ * transfer coding. The parser is not thread-safe.
+ *
+ * @author schnicke
+ *
+ */
+class HTTPRequestParser {
+	private static final int INITIAL_CAPACITY = 4096;
+
+	// Larger buffers, e.g. of large bodies, are released after the request
+	private static final int MAX_RETAINED_CAPACITY = 64 * 1024;
+
+	// Bodies are kept in arrays, thus their size is limited in any case
+	private static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 16;
+
+	private enum State {
+		HEAD, BODY, CHUNK_SIZE, CHUNK_DATA, CHUNK_END, TRAILER
+	}
+
+	private final int maxHeaderSize;
+	private final int maxBodySize;
+
+	// Received bytes, the unparsed ones range from start to end
+	private byte[] data = new byte[INITIAL_CAPACITY];
+	private int start = 0;
+	private int end = 0;
+
+	// Position up to which the head of the current request has been searched for its end
+	private int scan = 0;
+
+	private State state = State.HEAD;
+	private HTTPRequestMessage current;
+	private long remaining;
+	private ByteArrayOutputStream chunkedBody;
+	private boolean continueExpected = false;
+
+	/**
+	 * @param maxHeaderSize
+	 *            maximum size of the request line and header fields in bytes
+	 * @param maxBodySize
+	 *            maximum size of request bodies in bytes, larger requests are
+	 *            rejected with 413 Request Entity Too Large
+	 */
+	HTTPRequestParser(int maxHeaderSize, int maxBodySize) {
+		this.maxHeaderSize = maxHeaderSize;
+		this.maxBodySize = Math.min(maxBodySize, MAX_ARRAY_SIZE);
+	}
+
+	/**
+	 * Appends the remaining bytes of the buffer to the received bytes
+	 *
+	 * @param src
+	 */
+	public void feed(ByteBuffer src) {
+		int length = src.remaining();
+		ensureCapacity(length);
+		src.get(data, end, length);
+		end += length;
+	}
+
+	private void ensureCapacity(int length) {
+		if (start == end) {
+			// Nothing is pending, thus the buffer can be reset
+			start = end = scan = 0;
+			if (data.length > MAX_RETAINED_CAPACITY && state == State.HEAD) {
+				data = new byte[INITIAL_CAPACITY];
+			}
+		}
+		if (end + length <= data.length) {
+			return;
+		}
+
+		if (start > 0) {
+			System.arraycopy(data, start, data, 0, end - start);
+			scan -= start;
+			end -= start;
+			start = 0;
+		}
+		if (end + length > data.length) {
+			data = Arrays.copyOf(data, Math.max(data.length * 2, end + length));
+		}
+	}
+
+	/**
+	 * Returns whether there are no bytes of an incomplete request
+	 *
+	 * @return
+	 */
+	public boolean isIdle() {
+		return state == State.HEAD && start == end;
+	}
+
+	/**
+	 * Returns once for each request, whose head has been received and which
+	 * expects a <i>100 Continue</i> before its body is sent
+	 *
+	 * @return
+	 */
+	public boolean pollContinueExpected() {
+		boolean expected = continueExpected;
+		continueExpected = false;
+		return expected;
+	}
+
+	/**
+	 * Parses the next request from the received bytes
+	 *
+	 * @return the request or null, if it has not been received completely yet
+	 * @throws HTTPParseException
+	 *             if the request is invalid
+	 */
+	public HTTPRequestMessage next() throws HTTPParseException {
+		while (true) {
+			switch (state) {
+			case HEAD:
+				if (!parseHead()) {
+					return null;
+				}
+				if (state == State.HEAD) {
+					return complete(new byte[0]);
+				}
+				break;
+			case BODY:
+				if (end - start < remaining) {
+					return null;
+				}
+				byte[] body = Arrays.copyOfRange(data, start, start + (int) remaining);
+				start += remaining;
+				return complete(body);
+			case CHUNK_SIZE:
+				String sizeLine = readLine();
+				if (sizeLine == null) {
+					return null;
+				}
+				remaining = parseChunkSize(sizeLine);
+				if (chunkedBody.size() + remaining > maxBodySize) {
+					throw new HTTPParseException(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE, "Request body is too large");
+				}
+				state = remaining == 0 ? State.TRAILER : State.CHUNK_DATA;
+				break;
+			case CHUNK_DATA:
+				if (end - start < remaining) {
+					return null;
+				}
+				chunkedBody.write(data, start, (int) remaining);
+				start += remaining;
+				state = State.CHUNK_END;
+				break;
+			case CHUNK_END:
+				String chunkEnd = readLine();
+				if (chunkEnd == null) {
+					return null;
+				}
+				if (!chunkEnd.isEmpty()) {
+					throw new HTTPParseException(HttpServletResponse.SC_BAD_REQUEST, "Chunk is longer than its size");
+				}
+				state = State.CHUNK_SIZE;
+				break;
+			case TRAILER:
+				String trailer = readLine();
+				if (trailer == null) {
+					return null;
+				}
+				// Trailer fields are ignored
+				if (trailer.isEmpty()) {
+					return complete(chunkedBody.toByteArray());
+				}
+				break;
+			}
+		}
+	}
+
+	private HTTPRequestMessage complete(byte[] body) {
+		HTTPRequestMessage request = current;
+		request.setBody(body);
+		current = null;
+		chunkedBody = null;
+		continueExpected = false;
+		state = State.HEAD;
+		return request;
+	}
+
+	/**
+	 * Parses the head of a request, if it has been received completely, and
+	 * determines how its body is delimited
+	 *
+	 * @return false, if the head is incomplete
+	 * @throws HTTPParseException
+	 */
+	private boolean parseHead() throws HTTPParseException {
+		// Empty lines in front of a request are ignored
+		while (start < end && (data[start] == '\r' || data[start] == '\n')) {
+			start++;
+		}
+
+		int headEnd = findHeadEnd();
+		if (headEnd < 0) {
+			if (end - start > maxHeaderSize) {
+				throw new HTTPParseException(HttpServletResponse.SC_BAD_REQUEST, "Request header is too large");
+			}
+			return false;
+		}
+		if (headEnd - start > maxHeaderSize) {
+			throw new HTTPParseException(HttpServletResponse.SC_BAD_REQUEST, "Request header is too large");
+		}
+
+		String head = new String(data, start, headEnd - start, StandardCharsets.ISO_8859_1);
+		start = headEnd;
+		scan = start;
+		current = parseHead(head);
+
+		HTTPHeaders headers = current.getHeaders();
+		List<String> transferEncoding = headers.getAll("Transfer-Encoding");
+		if (!transferEncoding.isEmpty()) {
+			// Other codings would have to be decoded before the body is passed to the servlets
+			if (transferEncoding.size() != 1 || !transferEncoding.get(0).trim().equalsIgnoreCase("chunked")) {
+				throw new HTTPParseException(HttpServletResponse.SC_NOT_IMPLEMENTED, "Unsupported transfer encoding " + transferEncoding);
+			}
+			chunkedBody = new ByteArrayOutputStream();
+			state = State.CHUNK_SIZE;
+		} else {
+			long contentLength = parseContentLength(headers.getAll("Content-Length"));
+			if (contentLength > maxBodySize) {
+				throw new HTTPParseException(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE, "Request body is too large");
+			}
+			if (contentLength > 0) {
+				remaining = contentLength;
+				state = State.BODY;
+			}
+		}
+
+		if (state != State.HEAD && headers.containsToken("Expect", "100-continue") && HTTPRequestMessage.HTTP_1_1.equals(current.getProtocol())) {
+			continueExpected = true;
+		}
+		return true;
+	}
+
+	/**
+	 * Accepts targets in origin form (<i>/path?query</i>), absolute form
+	 * (<i>http://host/path</i>) and asterisk form
+	 *
+	 * @param target
+	 * @return
+	 */
+	private static boolean isValidTarget(String target) {
+		return target.startsWith("/") || target.equals("*") || target.startsWith("http://") || target.startsWith("https://");
+	}
+
+	/**
+	 * Searches the empty line terminating the head of a request
+	 *
+	 * @return index after the empty line or -1, if it has not been received yet
+	 */
+	private int findHeadEnd() {
+		for (int i = Math.max(scan, start); i < end; i++) {
+			if (data[i] != '\n') {
+				continue;
+			}
+			if (i + 1 < end && data[i + 1] == '\n') {
+				return i + 2;
+			}
+			if (i + 2 < end && data[i + 1] == '\r' && data[i + 2] == '\n') {
+				return i + 3;
+			}
+			if (i + 2 >= end) {
+				// The line break may be followed by the empty line
+				scan = i;
+				return -1;
+			}
+		}
+		scan = end;
+		return -1;
+	}
+
+	private HTTPRequestMessage parseHead(String head) throws HTTPParseException {
+		String[] lines = head.split("\r?\n");
+
+		String[] requestLine = lines[0].split(" ", -1);
+		if (requestLine.length != 3 || requestLine[0].isEmpty() || !isValidTarget(requestLine[1])) {
+			throw new HTTPParseException(HttpServletResponse.SC_BAD_REQUEST, "Invalid request line");
+		}
+		String protocol = requestLine[2];
+		if (!protocol.equals(HTTPRequestMessage.HTTP_1_1) && !protocol.equals(HTTPRequestMessage.HTTP_1_0)) {
+			int status = protocol.startsWith("HTTP/") ? HttpServletResponse.SC_HTTP_VERSION_NOT_SUPPORTED : HttpServletResponse.SC_BAD_REQUEST;
+			throw new HTTPParseException(status, "Unsupported protocol " + protocol);
+		}
+
+		HTTPHeaders headers = new HTTPHeaders();
+		for (int i = 1; i < lines.length; i++) {
+			String line = lines[i];
+			if (line.isEmpty()) {
+				continue;
+			}
+			int colon = line.indexOf(':');
+			// Obsolete line folding is rejected as well
+			if (colon <= 0 || Character.isWhitespace(line.charAt(0)) || Character.isWhitespace(line.charAt(colon - 1))) {
+				throw new HTTPParseException(HttpServletResponse.SC_BAD_REQUEST, "Invalid header field");
+			}
+			headers.add(line.substring(0, colon), line.substring(colon + 1).trim());
+		}
+
+		if (protocol.equals(HTTPRequestMessage.HTTP_1_1) && !headers.contains("Host")) {
+			throw new HTTPParseException(HttpServletResponse.SC_BAD_REQUEST, "Missing Host header");
+		}
+		return new HTTPRequestMessage(requestLine[0], requestLine[1], protocol, headers);
+	}
+
+	private long parseContentLength(List<String> values) throws HTTPParseException {
+		long contentLength = 0;
+		for (int i = 0; i < values.size(); i++) {
+			long value;
+			try {
+				value = Long.parseLong(values.get(i).trim());
+			} catch (NumberFormatException e) {
+				throw new HTTPParseException(HttpServletResponse.SC_BAD_REQUEST, "Invalid Content-Length");
+			}
+			if (value < 0 || (i > 0 && value != contentLength)) {
+				throw new HTTPParseException(HttpServletResponse.SC_BAD_REQUEST, "Invalid Content-Length");
+			}
+			contentLength = value;
+		}
+		return contentLength;
+	}
+
+	private long parseChunkSize(String line) throws HTTPParseException {
+		// Chunk extensions are ignored
+		int extension = line.indexOf(';');
+		String size = (extension < 0 ? line : line.substring(0, extension)).trim();
+		try {
+			long value = Long.parseLong(size, 16);
+			if (value < 0) {
+				throw new NumberFormatException();
+			}
+			return value;
+		} catch (NumberFormatException e) {
+			throw new HTTPParseException(HttpServletResponse.SC_BAD_REQUEST, "Invalid chunk size");
+		}
+	}
+
+	/**
+	 * Reads a line of the chunked body
+	 *
+	 * @return the line without line break or null, if it is incomplete
+	 * @throws HTTPParseException
+	 */
+	private String readLine() throws HTTPParseException {
+		for (int i = start; i < end; i++) {
+			if (data[i] == '\n') {
+				int lineEnd = i > start && data[i - 1] == '\r' ? i - 1 : i;
+				String line = new String(data, start, lineEnd - start, StandardCharsets.ISO_8859_1);
+				start = i + 1;
+				return line;
+			}
+		}
+		if (end - start > maxHeaderSize) {
+			throw new HTTPParseException(HttpServletResponse.SC_BAD_REQUEST, "Chunk line is too large");
+		}
+		return null;
+	}
+}
@@ -0,0 +1,254 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.basyx.vab.protocol.http.server.nio;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.ServletContext;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletResponse;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Asynchronous processing of a request of the {@link NIOHTTPServer}. The
+ * response is sent when the context is completed, either by the servlet or
+ * after a timeout. Dispatching to other resources is not supported.
+ *
+ * @author schnicke
+ *
+ */
+class NIOAsyncContext implements AsyncContext {
+	private static Logger logger = LoggerFactory.getLogger(NIOAsyncContext.class);
+
+	/**
+	 * Default timeout in milliseconds, as used by Tomcat
+	 */
+	public static final long DEFAULT_TIMEOUT = 30000;
+
+	private final NIOHTTPServer server;
+	private final NIOServletRequest request;
+	private final NIOServletResponse response;
+	private final ServletRequest suppliedRequest;
+	private final ServletResponse suppliedResponse;
+	private final List<ListenerEntry> listeners = new CopyOnWriteArrayList<>();
+	private final long startTime = System.currentTimeMillis();
+	private final AtomicBoolean completed = new AtomicBoolean(false);
+	private final AtomicBoolean expired = new AtomicBoolean(false);
+	private volatile long timeout = DEFAULT_TIMEOUT;
+
+	// Whether the servlet has not returned from the service method yet. Guarded by this.
+	private boolean inService = true;
+	private boolean completePending = false;
+
+	/**
+	 * Listener and the request and response it has been registered with
+	 */
+	private static class ListenerEntry {
+		private final AsyncListener listener;
+		private final AsyncEvent event;
+
+		private ListenerEntry(AsyncListener listener, AsyncEvent event) {
+			this.listener = listener;
+			this.event = event;
+		}
+	}
+
+	NIOAsyncContext(NIOHTTPServer server, NIOServletRequest request, NIOServletResponse response, ServletRequest suppliedRequest, ServletResponse suppliedResponse) {
+		this.server = server;
+		this.request = request;
+		this.response = response;
+		this.suppliedRequest = suppliedRequest;
+		this.suppliedResponse = suppliedResponse;
+		response.enableFlush();
+	}
+
+	boolean isCompleted() {
+		return completed.get();
+	}
+
+	/**
+	 * Is called after the servlet has returned from the service method. A
+	 * completion during the service method takes effect now.
+	 */
+	void serviceReturned() {
+		synchronized (this) {
+			inService = false;
+			if (!completePending) {
+				return;
+			}
+		}
+		finish();
+	}
+
+	/**
+	 * Expires the context if its timeout has elapsed
+	 *
+	 * @param now
+	 *            current time in milliseconds
+	 */
+	void checkTimeout(long now) {
+		long currentTimeout = timeout;
+		if (currentTimeout <= 0 || completed.get() || now - startTime < currentTimeout) {
+			return;
+		}
+		if (expired.compareAndSet(false, true)) {
+			server.execute(this::expire);
+		}
+	}
+
+	/**
+	 * Notifies the listeners of a timeout and answers with an error, if none of
+	 * them has completed the request
+	 */
+	private void expire() {
+		for (ListenerEntry entry : listeners) {
+			try {
+				entry.listener.onTimeout(entry.event);
+			} catch (IOException | RuntimeException e) {
+				logger.warn("Async listener failed on timeout", e);
+			}
+		}
+		if (!completed.get()) {
+			if (!response.isCommitted()) {
+				response.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+			}
+			completeQuietly();
+		}
+	}
+
+	/**
+	 * Notifies the listeners that the connection has failed and completes the
+	 * request
+	 *
+	 * @param throwable
+	 */
+	void fail(Throwable throwable) {
+		if (completed.get()) {
+			return;
+		}
+		server.execute(() -> {
+			for (ListenerEntry entry : listeners) {
+				try {
+					entry.listener.onError(new AsyncEvent(this, entry.event.getSuppliedRequest(), entry.event.getSuppliedResponse(), throwable));
+				} catch (IOException | RuntimeException e) {
+					logger.warn("Async listener failed on error", e);
+				}
+			}
+			completeQuietly();
+		});
+	}
+
+	private void completeQuietly() {
+		try {
+			complete();
+		} catch (IllegalStateException e) {
+			// Has been completed concurrently
+		}
+	}
+
+	@Override
+	public ServletRequest getRequest() {
+		return suppliedRequest;
+	}
+
+	@Override
+	public ServletResponse getResponse() {
+		return suppliedResponse;
+	}
+
+	@Override
+	public boolean hasOriginalRequestAndResponse() {
+		return suppliedRequest == request && suppliedResponse == response;
+	}
+
+	@Override
+	public void dispatch() {
+		throw new UnsupportedOperationException("Dispatching is not supported by the NIO HTTP server");
+	}
+
+	@Override
+	public void dispatch(String path) {
+		throw new UnsupportedOperationException("Dispatching is not supported by the NIO HTTP server");
+	}
+
+	@Override
+	public void dispatch(ServletContext context, String path) {
+		throw new UnsupportedOperationException("Dispatching is not supported by the NIO HTTP server");
+	}
+
+	@Override
+	public void complete() {
+		if (!completed.compareAndSet(false, true)) {
+			throw new IllegalStateException("Asynchronous processing has already been completed");
+		}
+		synchronized (this) {
+			if (inService) {
+				completePending = true;
+				return;
+			}
+		}
+		finish();
+	}
+
+	private void finish() {
+		response.finish();
+		for (ListenerEntry entry : listeners) {
+			try {
+				entry.listener.onComplete(entry.event);
+			} catch (IOException | RuntimeException e) {
+				logger.warn("Async listener failed on completion", e);
+			}
+		}
+	}
+
+	@Override
+	public void start(Runnable run) {
+		server.execute(run);
+	}
+
+	@Override
+	public void addListener(AsyncListener listener) {
+		addListener(listener, suppliedRequest, suppliedResponse);
+	}
+
+	@Override
+	public void addListener(AsyncListener listener, ServletRequest servletRequest, ServletResponse servletResponse) {
+		listeners.add(new ListenerEntry(listener, new AsyncEvent(this, servletRequest, servletResponse)));
+	}
+
+	@Override
+	public <T extends AsyncListener> T createListener(Class<T> clazz) throws ServletException {
+		try {
+			return clazz.getDeclaredConstructor().newInstance();
+		} catch (ReflectiveOperationException e) {
+			throw new ServletException(e);
+		}
+	}
+
+	@Override
+	public void setTimeout(long timeout) {
+		this.timeout = timeout;
+	}
+
+	@Override
+	public long getTimeout() {
+		return timeout;
+	}
+}
@@ -0,0 +1,587 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.basyx.vab.protocol.http.server.nio;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.servlet.Filter;
+import javax.servlet.ServletConfig;
+import javax.servlet.ServletContext;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletResponse;
+
+import org.eclipse.basyx.vab.protocol.http.server.BaSyxContext;
+import org.eclipse.basyx.vab.protocol.http.server.CompressionFilter;
+import org.eclipse.basyx.vab.protocol.http.server.IHTTPServerBackend;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Lean HTTP/1.1 server that dispatches the requests directly to the servlets
+ * of a {@link BaSyxContext} without a servlet container. It is meant for
+ * devices with limited resources, where the startup time and footprint of
+ * Tomcat are not affordable.<br />
+ * <br />
+ * A single selector thread accepts the connections and reads and parses the
+ * requests. Complete requests are processed by a small pool of worker
+ * threads, so that threads are only bound while a request is actually
+ * processed and not while a connection is idle. Connections are kept alive
+ * and pipelined requests are answered in order, see {@link HTTPConnection}.
+ * Asynchronous processing is supported, e.g. for the asynchronous operation
+ * invocations and event streams of the VABHTTPInterface.<br />
+ * <br />
+ * The thread pool and connection settings of the context are applied, except
+ * for the minimum number of spare threads, since worker threads are started on
+ * demand and released when idle. SSL, the connector protocol, sessions,
+ * authentication and request dispatching are not supported.
+ *
+ * @author schnicke
+ *
+ */
+public class NIOHTTPServer implements IHTTPServerBackend {
+	private static Logger logger = LoggerFactory.getLogger(NIOHTTPServer.class);
+
+	/**
+	 * Default time in milliseconds to wait for a request or a stalled write
+	 */
+	public static final int DEFAULT_CONNECTION_TIMEOUT = 20000;
+
+	/**
+	 * Default maximum number of requests on a kept alive connection
+	 */
+	public static final int DEFAULT_MAX_KEEP_ALIVE_REQUESTS = 100;
+
+	/**
+	 * Default maximum number of open connections
+	 */
+	public static final int DEFAULT_MAX_CONNECTIONS = 10000;
+
+	/**
+	 * Default maximum number of connections waiting to be accepted
+	 */
+	public static final int DEFAULT_ACCEPT_COUNT = 100;
+
+	/**
+	 * Default number of worker threads. Operation invocations are usually
+	 * executed by the OperationExecutor, thus requests do not block the workers
+	 * for long.
+	 */
+	public static final int DEFAULT_MAX_THREADS = Math.max(4, 2 * Runtime.getRuntime().availableProcessors());
+
+	/**
+	 * Default maximum size of request bodies in bytes. Bodies are kept in
+	 * memory, thus the limit protects small devices from running out of it.
+	 */
+	public static final int DEFAULT_MAX_REQUEST_BODY_SIZE = 4 * 1024 * 1024;
+
+	/**
+	 * Maximum size of the request line and header fields in bytes
+	 */
+	public static final int MAX_HEADER_SIZE = 8192;
+
+	private static final long TIMEOUT_CHECK_INTERVAL = 1000;
+	private static final int READ_BUFFER_SIZE = 16 * 1024;
+	private static final long SHUTDOWN_TIMEOUT = 5000;
+
+	private final BaSyxContext context;
+	private final String contextPath;
+	private final ServletMapper mapper;
+	private final Filter filter;
+
+	private final int port;
+	private final int acceptCount;
+	private final int maxConnections;
+	private final int connectionTimeout;
+	private final int keepAliveTimeout;
+	private final int maxKeepAliveRequests;
+	private final int maxThreads;
+	private final int maxRequestBodySize;
+
+	private Executor executor;
+	private ThreadPoolExecutor ownExecutor;
+
+	private Selector selector;
+	private ServerSocketChannel serverChannel;
+	private SelectionKey acceptKey;
+	private Thread selectorThread;
+	private volatile boolean running = false;
+
+	// Tasks to be executed by the selector thread, e.g. changes of the interest sets
+	private final Queue<Runnable> selectorTasks = new ConcurrentLinkedQueue<>();
+	private final Set<HTTPConnection> connections = ConcurrentHashMap.newKeySet();
+
+	// Accessed by the selector thread only
+	private boolean acceptPaused = false;
+
+	/**
+	 * Creates a server hosting the servlets of the context. The server is
+	 * started by {@link #start()}.
+	 *
+	 * @param context
+	 */
+	public NIOHTTPServer(BaSyxContext context) {
+		if (context.isSecuredConnectionEnabled()) {
+			throw new IllegalArgumentException("SSL is not supported by the NIO HTTP server, use the Tomcat backend instead");
+		}
+		if (context.getProtocol() != null) {
+			logger.warn("The connector protocol " + context.getProtocol() + " is ignored by the NIO HTTP server");
+		}
+
+		this.context = context;
+		this.contextPath = normalizeContextPath(context.getContextPath());
+		this.mapper = new ServletMapper(context);
+		this.filter = context.isCompressionEnabled() ? new CompressionFilter(context) : null;
+
+		this.port = context.getPort();
+		this.acceptCount = valueOrDefault(context.getAcceptCount(), DEFAULT_ACCEPT_COUNT);
+		this.maxConnections = valueOrDefault(context.getMaxConnections(), DEFAULT_MAX_CONNECTIONS);
+		this.connectionTimeout = valueOrDefault(context.getConnectionTimeout(), DEFAULT_CONNECTION_TIMEOUT);
+		this.keepAliveTimeout = valueOrDefault(context.getKeepAliveTimeout(), connectionTimeout);
+		this.maxKeepAliveRequests = valueOrDefault(context.getMaxKeepAliveRequests(), DEFAULT_MAX_KEEP_ALIVE_REQUESTS);
+		this.maxThreads = valueOrDefault(context.getMaxThreads(), DEFAULT_MAX_THREADS);
+		this.maxRequestBodySize = valueOrDefault(context.getMaxRequestBodySize(), DEFAULT_MAX_REQUEST_BODY_SIZE);
+	}
+
+	private static int valueOrDefault(Integer value, int defaultValue) {
+		return value != null ? value : defaultValue;
+	}
+
+	private static String normalizeContextPath(String contextPath) {
+		if (contextPath == null || contextPath.equals("/")) {
+			return "";
+		}
+		String normalized = contextPath.startsWith("/") ? contextPath : "/" + contextPath;
+		return normalized.endsWith("/") ? normalized.substring(0, normalized.length() - 1) : normalized;
+	}
+
+	/**
+	 * Binds the port and starts the selector thread. Returns as soon as the
+	 * server accepts connections.
+	 *
+	 * @throws IllegalStateException
+	 *             if the port can not be bound
+	 */
+	@Override
+	public synchronized void start() {
+		if (running) {
+			return;
+		}
+		logger.trace("Starting NIO HTTP server.....");
+
+		try {
+			selector = Selector.open();
+			serverChannel = ServerSocketChannel.open();
+			serverChannel.setOption(StandardSocketOptions.SO_REUSEADDR, true);
+			serverChannel.bind(new InetSocketAddress(port), acceptCount);
+			serverChannel.configureBlocking(false);
+			acceptKey = serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+		} catch (IOException e) {
+			closeQuietly();
+			throw new IllegalStateException("Could not start the NIO HTTP server on port " + port, e);
+		}
+
+		initServlets();
+
+		executor = context.getExecutor();
+		if (executor == null) {
+			AtomicInteger threadCounter = new AtomicInteger();
+			ownExecutor = new ThreadPoolExecutor(maxThreads, maxThreads, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+				Thread thread = new Thread(r, "basyx-http-" + port + "-exec-" + threadCounter.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			});
+			// Threads are only kept while there are requests
+			ownExecutor.allowCoreThreadTimeOut(true);
+			executor = ownExecutor;
+		}
+
+		running = true;
+		// Keeps the JVM alive like the Tomcat server thread
+		selectorThread = new Thread(this::runSelector, "basyx-http-" + port + "-selector");
+		selectorThread.start();
+	}
+
+	/**
+	 * Initializes the servlets with their servlet parameters of the context
+	 */
+	private void initServlets() {
+		for (Entry<String, HttpServlet> entry : context.entrySet()) {
+			Map<String, String> parameters = context.getServletParameter(entry.getKey());
+			HttpServlet servlet = entry.getValue();
+			try {
+				servlet.init(new ServletConfig() {
+					@Override
+					public String getServletName() {
+						return Integer.toString(servlet.hashCode());
+					}
+
+					@Override
+					public ServletContext getServletContext() {
+						return null;
+					}
+
+					@Override
+					public String getInitParameter(String name) {
+						return parameters.get(name);
+					}
+
+					@Override
+					public Enumeration<String> getInitParameterNames() {
+						return Collections.enumeration(parameters.keySet());
+					}
+				});
+			} catch (ServletException e) {
+				logger.error("Exception in init of servlet " + entry.getKey(), e);
+			}
+		}
+	}
+
+	/**
+	 * Stops the selector thread, closes all connections and destroys the
+	 * servlets
+	 */
+	@Override
+	public synchronized void shutdown() {
+		if (!running) {
+			return;
+		}
+		logger.trace("Shutting down NIO HTTP server...");
+
+		running = false;
+		selector.wakeup();
+		try {
+			selectorThread.join(SHUTDOWN_TIMEOUT);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+
+		if (ownExecutor != null) {
+			ownExecutor.shutdown();
+			try {
+				if (!ownExecutor.awaitTermination(SHUTDOWN_TIMEOUT, TimeUnit.MILLISECONDS)) {
+					ownExecutor.shutdownNow();
+				}
+			} catch (InterruptedException e) {
+				ownExecutor.shutdownNow();
+				Thread.currentThread().interrupt();
+			}
+			ownExecutor = null;
+		}
+
+		for (HttpServlet servlet : context.values()) {
+			servlet.destroy();
+		}
+	}
+
+	private void runSelector() {
+		ByteBuffer readBuffer = ByteBuffer.allocateDirect(READ_BUFFER_SIZE);
+		long lastTimeoutCheck = System.currentTimeMillis();
+
+		while (running) {
+			try {
+				selector.select(TIMEOUT_CHECK_INTERVAL);
+
+				Runnable task;
+				while ((task = selectorTasks.poll()) != null) {
+					task.run();
+				}
+
+				Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+				while (keys.hasNext()) {
+					SelectionKey key = keys.next();
+					keys.remove();
+					handleKey(key, readBuffer);
+				}
+
+				long now = System.currentTimeMillis();
+				if (now - lastTimeoutCheck >= TIMEOUT_CHECK_INTERVAL) {
+					lastTimeoutCheck = now;
+					for (HTTPConnection connection : connections) {
+						connection.checkTimeouts(now);
+					}
+				}
+			} catch (IOException | RuntimeException e) {
+				logger.error("Exception in the selector loop", e);
+			}
+		}
+
+		for (HTTPConnection connection : connections) {
+			connection.close();
+		}
+		closeQuietly();
+	}
+
+	private void handleKey(SelectionKey key, ByteBuffer readBuffer) {
+		if (!key.isValid()) {
+			return;
+		}
+		if (key == acceptKey) {
+			accept();
+			return;
+		}
+
+		HTTPConnection connection = (HTTPConnection) key.attachment();
+		try {
+			if (key.isWritable()) {
+				connection.onWritable();
+			}
+			if (key.isValid() && key.isReadable()) {
+				connection.onReadable(readBuffer);
+			}
+		} catch (CancelledKeyException e) {
+			connection.close();
+		}
+	}
+
+	private void accept() {
+		try {
+			SocketChannel channel;
+			while ((channel = serverChannel.accept()) != null) {
+				channel.configureBlocking(false);
+				channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+				HTTPConnection connection = new HTTPConnection(this, channel);
+				connection.register(selector);
+				connections.add(connection);
+
+				if (connections.size() >= maxConnections) {
+					// Further connections wait in the backlog
+					acceptKey.interestOps(0);
+					acceptPaused = true;
+					return;
+				}
+			}
+		} catch (IOException e) {
+			logger.warn("Failed to accept connection", e);
+		}
+	}
+
+	/**
+	 * Is called by a connection after it has been closed
+	 *
+	 * @param connection
+	 */
+	void connectionClosed(HTTPConnection connection) {
+		if (connections.remove(connection)) {
+			schedule(() -> {
+				if (acceptPaused && acceptKey.isValid() && connections.size() < maxConnections) {
+					acceptKey.interestOps(SelectionKey.OP_ACCEPT);
+					acceptPaused = false;
+				}
+			});
+		}
+	}
+
+	/**
+	 * Executes a task in the selector thread
+	 *
+	 * @param task
+	 */
+	void schedule(Runnable task) {
+		if (Thread.currentThread() == selectorThread) {
+			task.run();
+			return;
+		}
+		selectorTasks.add(task);
+		Selector current = selector;
+		if (current != null) {
+			current.wakeup();
+		}
+	}
+
+	/**
+	 * Executes a task in a worker thread
+	 *
+	 * @param task
+	 */
+	void execute(Runnable task) {
+		executor.execute(task);
+	}
+
+	/**
+	 * Processes a request in a worker thread
+	 *
+	 * @param connection
+	 * @param message
+	 * @param keepAlive
+	 *            whether the connection is kept open after the response
+	 */
+	void process(HTTPConnection connection, HTTPRequestMessage message, boolean keepAlive) {
+		if (message.isFailed()) {
+			sendError(new NIOServletResponse(connection, message, false), message.getErrorStatus(), message.getErrorMessage());
+			return;
+		}
+
+		NIOServletResponse response = new NIOServletResponse(connection, message, keepAlive);
+		NIOServletRequest request = new NIOServletRequest(this, connection, message);
+		request.setResponse(response);
+
+		String path = request.getRequestURI();
+		if (!path.startsWith(contextPath) || (path.length() > contextPath.length() && path.charAt(contextPath.length()) != '/')) {
+			sendError(response, HttpServletResponse.SC_NOT_FOUND, null);
+			return;
+		}
+		String decodedPath;
+		try {
+			decodedPath = decodePath(path.substring(contextPath.length()));
+		} catch (IllegalArgumentException e) {
+			sendError(response, HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+			return;
+		}
+		ServletMapper.Match match = mapper.resolve(decodedPath.isEmpty() ? "/" : decodedPath);
+		if (match == null) {
+			sendError(response, HttpServletResponse.SC_NOT_FOUND, null);
+			return;
+		}
+		request.setMapping(match.getServletPath(), match.getPathInfo());
+		connection.setCurrent(request);
+
+		HttpServlet servlet = match.getServlet();
+		boolean failed = false;
+		try {
+			if (filter != null) {
+				filter.doFilter(request, response, (req, resp) -> servlet.service(req, resp));
+			} else {
+				servlet.service(request, response);
+			}
+		} catch (ServletException | IOException | RuntimeException e) {
+			logger.error("Exception in servlet " + match.getServletPath(), e);
+			failed = true;
+			if (!response.isCommitted()) {
+				response.reset();
+				response.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+			}
+		}
+
+		NIOAsyncContext asyncContext = request.getNIOAsyncContext();
+		if (asyncContext == null) {
+			response.finish();
+			return;
+		}
+		if (failed && !asyncContext.isCompleted()) {
+			asyncContext.complete();
+		}
+		asyncContext.serviceReturned();
+	}
+
+	private void sendError(NIOServletResponse response, int status, String message) {
+		try {
+			response.sendError(status, message);
+		} catch (IOException e) {
+			// The body is only buffered
+		}
+		response.finish();
+	}
+
+	/**
+	 * Decodes the percent-encoded octets of a path as UTF-8. Encoded slashes are
+	 * decoded as well, as done by the Tomcat backend.
+	 *
+	 * @param path
+	 * @return
+	 * @throws IllegalArgumentException
+	 *             if the path contains an invalid escape sequence
+	 */
+	static String decodePath(String path) {
+		if (path.indexOf('%') < 0) {
+			return path;
+		}
+		ByteArrayOutputStream decoded = new ByteArrayOutputStream(path.length());
+		for (int i = 0; i < path.length(); i++) {
+			char c = path.charAt(i);
+			if (c != '%') {
+				byte[] bytes = String.valueOf(c).getBytes(StandardCharsets.UTF_8);
+				decoded.write(bytes, 0, bytes.length);
+				continue;
+			}
+			if (i + 2 >= path.length()) {
+				throw new IllegalArgumentException("Invalid escape sequence in path");
+			}
+			int high = Character.digit(path.charAt(i + 1), 16);
+			int low = Character.digit(path.charAt(i + 2), 16);
+			if (high < 0 || low < 0) {
+				throw new IllegalArgumentException("Invalid escape sequence in path");
+			}
+			decoded.write(high * 16 + low);
+			i += 2;
+		}
+		return new String(decoded.toByteArray(), StandardCharsets.UTF_8);
+	}
+
+	private void closeQuietly() {
+		try {
+			if (serverChannel != null) {
+				serverChannel.close();
+			}
+			if (selector != null) {
+				selector.close();
+			}
+		} catch (IOException e) {
+			logger.trace("Exception while closing the server channel", e);
+		}
+	}
+
+	String getContextPath() {
+		return contextPath;
+	}
+
+	boolean isRunning() {
+		return running;
+	}
+
+	int getConnectionTimeout() {
+		return connectionTimeout;
+	}
+
+	int getKeepAliveTimeout() {
+		return keepAliveTimeout;
+	}
+
+	int getMaxKeepAliveRequests() {
+		return maxKeepAliveRequests;
+	}
+
+	int getMaxRequestBodySize() {
+		return maxRequestBodySize;
+	}
+
+	/**
+	 * Returns the port the server is bound to
+	 *
+	 * @return
+	 */
+	public int getPort() {
+		return port;
+	}
+}
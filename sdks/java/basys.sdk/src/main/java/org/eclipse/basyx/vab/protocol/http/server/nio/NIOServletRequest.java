@@ -0,0 +1,675 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.basyx.vab.protocol.http.server.nio;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UnsupportedEncodingException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.Principal;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.DispatcherType;
+import javax.servlet.ReadListener;
+import javax.servlet.RequestDispatcher;
+import javax.servlet.ServletContext;
+import javax.servlet.ServletException;
+import javax.servlet.ServletInputStream;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpSession;
+import javax.servlet.http.HttpUpgradeHandler;
+import javax.servlet.http.Part;
+
+/**
+ * Request passed to the servlets by the {@link NIOHTTPServer}. The body has
+ * been received completely before the request is processed, thus reading it
+ * never blocks.<br />
+ * <br />
+ * Sessions, authentication, multipart bodies, protocol upgrades and request
+ * dispatching are not supported. Parameters are only read from the query
+ * string.
+ *
+ * @author schnicke
+ *
+ */
+class NIOServletRequest implements HttpServletRequest {
+	private static final String DEFAULT_CHARSET = "ISO-8859-1";
+
+	private final NIOHTTPServer server;
+	private final HTTPConnection connection;
+	private final HTTPRequestMessage message;
+	private final String requestURI;
+	private final String queryString;
+	private final Map<String, Object> attributes = new HashMap<>();
+
+	private String servletPath = "";
+	private String pathInfo;
+	private NIOServletResponse response;
+	private Map<String, String[]> parameters;
+	private String characterEncoding;
+	private ServletInputStream inputStream;
+	private BufferedReader reader;
+
+	// Guarded by this
+	private NIOAsyncContext asyncContext;
+
+	NIOServletRequest(NIOHTTPServer server, HTTPConnection connection, HTTPRequestMessage message) {
+		this.server = server;
+		this.connection = connection;
+		this.message = message;
+
+		String target = stripAuthority(message.getTarget());
+		int query = target.indexOf('?');
+		requestURI = query < 0 ? target : target.substring(0, query);
+		queryString = query < 0 ? null : target.substring(query + 1);
+	}
+
+	/**
+	 * Removes scheme and authority of a request target in absolute form, e.g.
+	 * <i>http://localhost:4001/path</i>
+	 *
+	 * @param target
+	 * @return
+	 */
+	private static String stripAuthority(String target) {
+		int scheme = target.indexOf("://");
+		if (target.startsWith("/") || scheme < 0) {
+			return target;
+		}
+		int path = target.indexOf('/', scheme + 3);
+		if (path >= 0) {
+			return target.substring(path);
+		}
+		int query = target.indexOf('?', scheme + 3);
+		return query < 0 ? "/" : "/" + target.substring(query);
+	}
+
+	/**
+	 * Sets the servlet path and path info the request has been mapped to
+	 *
+	 * @param servletPath
+	 * @param pathInfo
+	 */
+	void setMapping(String servletPath, String pathInfo) {
+		this.servletPath = servletPath;
+		this.pathInfo = pathInfo;
+	}
+
+	void setResponse(NIOServletResponse response) {
+		this.response = response;
+	}
+
+	HTTPRequestMessage getMessage() {
+		return message;
+	}
+
+	synchronized NIOAsyncContext getNIOAsyncContext() {
+		return asyncContext;
+	}
+
+	@Override
+	public Object getAttribute(String name) {
+		return attributes.get(name);
+	}
+
+	@Override
+	public Enumeration<String> getAttributeNames() {
+		return Collections.enumeration(new ArrayList<>(attributes.keySet()));
+	}
+
+	@Override
+	public String getCharacterEncoding() {
+		if (characterEncoding != null) {
+			return characterEncoding;
+		}
+		return NIOServletResponse.getCharsetParameter(getContentType());
+	}
+
+	@Override
+	public void setCharacterEncoding(String env) throws UnsupportedEncodingException {
+		if (reader != null) {
+			return;
+		}
+		if (!Charset.isSupported(env)) {
+			throw new UnsupportedEncodingException(env);
+		}
+		characterEncoding = env;
+	}
+
+	@Override
+	public int getContentLength() {
+		return message.getBody().length;
+	}
+
+	@Override
+	public long getContentLengthLong() {
+		return message.getBody().length;
+	}
+
+	@Override
+	public String getContentType() {
+		return message.getHeaders().get("Content-Type");
+	}
+
+	@Override
+	public ServletInputStream getInputStream() throws IOException {
+		if (reader != null) {
+			throw new IllegalStateException("getReader() has already been called");
+		}
+		if (inputStream == null) {
+			inputStream = new BodyInputStream(message.getBody());
+		}
+		return inputStream;
+	}
+
+	@Override
+	public BufferedReader getReader() throws IOException {
+		if (inputStream != null) {
+			throw new IllegalStateException("getInputStream() has already been called");
+		}
+		if (reader == null) {
+			String charset = getCharacterEncoding() != null ? getCharacterEncoding() : DEFAULT_CHARSET;
+			reader = new BufferedReader(new InputStreamReader(new ByteArrayInputStream(message.getBody()), charset));
+		}
+		return reader;
+	}
+
+	@Override
+	public String getParameter(String name) {
+		String[] values = getParameters().get(name);
+		return values == null ? null : values[0];
+	}
+
+	@Override
+	public Enumeration<String> getParameterNames() {
+		return Collections.enumeration(getParameters().keySet());
+	}
+
+	@Override
+	public String[] getParameterValues(String name) {
+		String[] values = getParameters().get(name);
+		return values == null ? null : values.clone();
+	}
+
+	@Override
+	public Map<String, String[]> getParameterMap() {
+		return Collections.unmodifiableMap(getParameters());
+	}
+
+	/**
+	 * Parses the query string on first access, keeping the order of the
+	 * parameters
+	 *
+	 * @return
+	 */
+	private Map<String, String[]> getParameters() {
+		if (parameters != null) {
+			return parameters;
+		}
+
+		Map<String, List<String>> collected = new LinkedHashMap<>();
+		if (queryString != null && !queryString.isEmpty()) {
+			for (String parameter : queryString.split("&")) {
+				if (parameter.isEmpty()) {
+					continue;
+				}
+				int equals = parameter.indexOf('=');
+				String name = decodeParameter(equals < 0 ? parameter : parameter.substring(0, equals));
+				String value = equals < 0 ? "" : decodeParameter(parameter.substring(equals + 1));
+				collected.computeIfAbsent(name, k -> new ArrayList<>()).add(value);
+			}
+		}
+
+		parameters = new LinkedHashMap<>();
+		for (Entry<String, List<String>> entry : collected.entrySet()) {
+			parameters.put(entry.getKey(), entry.getValue().toArray(new String[0]));
+		}
+		return parameters;
+	}
+
+	private static String decodeParameter(String value) {
+		try {
+			return URLDecoder.decode(value, StandardCharsets.UTF_8.name());
+		} catch (UnsupportedEncodingException | IllegalArgumentException e) {
+			// Invalid escape sequences are kept
+			return value;
+		}
+	}
+
+	@Override
+	public String getProtocol() {
+		return message.getProtocol();
+	}
+
+	@Override
+	public String getScheme() {
+		return "http";
+	}
+
+	@Override
+	public String getServerName() {
+		String host = message.getHeaders().get("Host");
+		if (host == null || host.isEmpty()) {
+			return getLocalName();
+		}
+		// IPv6 literals are enclosed in brackets
+		int portSeparator = host.lastIndexOf(':');
+		if (portSeparator > host.lastIndexOf(']')) {
+			return host.substring(0, portSeparator);
+		}
+		return host;
+	}
+
+	@Override
+	public int getServerPort() {
+		String host = message.getHeaders().get("Host");
+		if (host != null) {
+			int portSeparator = host.lastIndexOf(':');
+			if (portSeparator > host.lastIndexOf(']')) {
+				try {
+					return Integer.parseInt(host.substring(portSeparator + 1));
+				} catch (NumberFormatException e) {
+					// Falls back to the local port
+				}
+			}
+		}
+		return getLocalPort();
+	}
+
+	@Override
+	public String getRemoteAddr() {
+		InetSocketAddress address = connection.getRemoteAddress();
+		return address == null ? null : address.getAddress().getHostAddress();
+	}
+
+	@Override
+	public String getRemoteHost() {
+		// Host names are not resolved to avoid blocking lookups
+		return getRemoteAddr();
+	}
+
+	@Override
+	public void setAttribute(String name, Object o) {
+		if (o == null) {
+			removeAttribute(name);
+		} else {
+			attributes.put(name, o);
+		}
+	}
+
+	@Override
+	public void removeAttribute(String name) {
+		attributes.remove(name);
+	}
+
+	@Override
+	public Locale getLocale() {
+		return getLocales().nextElement();
+	}
+
+	@Override
+	public Enumeration<Locale> getLocales() {
+		List<Locale> locales = new ArrayList<>();
+		String acceptLanguage = message.getHeaders().get("Accept-Language");
+		if (acceptLanguage != null) {
+			for (String element : acceptLanguage.split(",")) {
+				String tag = element.split(";")[0].trim();
+				if (!tag.isEmpty() && !tag.equals("*")) {
+					locales.add(Locale.forLanguageTag(tag));
+				}
+			}
+		}
+		if (locales.isEmpty()) {
+			locales.add(Locale.getDefault());
+		}
+		return Collections.enumeration(locales);
+	}
+
+	@Override
+	public boolean isSecure() {
+		return false;
+	}
+
+	@Override
+	public RequestDispatcher getRequestDispatcher(String path) {
+		return null;
+	}
+
+	@Override
+	@Deprecated
+	public String getRealPath(String path) {
+		return null;
+	}
+
+	@Override
+	public int getRemotePort() {
+		InetSocketAddress address = connection.getRemoteAddress();
+		return address == null ? -1 : address.getPort();
+	}
+
+	@Override
+	public String getLocalName() {
+		InetSocketAddress address = connection.getLocalAddress();
+		return address == null ? null : address.getHostString();
+	}
+
+	@Override
+	public String getLocalAddr() {
+		InetSocketAddress address = connection.getLocalAddress();
+		return address == null ? null : address.getAddress().getHostAddress();
+	}
+
+	@Override
+	public int getLocalPort() {
+		InetSocketAddress address = connection.getLocalAddress();
+		return address == null ? -1 : address.getPort();
+	}
+
+	@Override
+	public ServletContext getServletContext() {
+		return null;
+	}
+
+	@Override
+	public AsyncContext startAsync() throws IllegalStateException {
+		return startAsync(this, response);
+	}
+
+	@Override
+	public synchronized AsyncContext startAsync(ServletRequest servletRequest, ServletResponse servletResponse) throws IllegalStateException {
+		if (asyncContext != null) {
+			throw new IllegalStateException("Asynchronous processing has already been started");
+		}
+		asyncContext = new NIOAsyncContext(server, this, response, servletRequest, servletResponse);
+		return asyncContext;
+	}
+
+	@Override
+	public synchronized boolean isAsyncStarted() {
+		return asyncContext != null && !asyncContext.isCompleted();
+	}
+
+	@Override
+	public boolean isAsyncSupported() {
+		return true;
+	}
+
+	@Override
+	public synchronized AsyncContext getAsyncContext() {
+		if (asyncContext == null) {
+			throw new IllegalStateException("Asynchronous processing has not been started");
+		}
+		return asyncContext;
+	}
+
+	@Override
+	public DispatcherType getDispatcherType() {
+		return DispatcherType.REQUEST;
+	}
+
+	@Override
+	public String getAuthType() {
+		return null;
+	}
+
+	@Override
+	public Cookie[] getCookies() {
+		List<Cookie> cookies = new ArrayList<>();
+		for (String header : message.getHeaders().getAll("Cookie")) {
+			for (String pair : header.split(";")) {
+				int equals = pair.indexOf('=');
+				if (equals > 0) {
+					String value = pair.substring(equals + 1).trim();
+					if (value.length() > 1 && value.startsWith("\"") && value.endsWith("\"")) {
+						value = value.substring(1, value.length() - 1);
+					}
+					cookies.add(new Cookie(pair.substring(0, equals).trim(), value));
+				}
+			}
+		}
+		return cookies.isEmpty() ? null : cookies.toArray(new Cookie[0]);
+	}
+
+	@Override
+	public long getDateHeader(String name) {
+		String value = getHeader(name);
+		if (value == null) {
+			return -1;
+		}
+		try {
+			return ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+		} catch (DateTimeParseException e) {
+			throw new IllegalArgumentException("Invalid date in header " + name + ": " + value);
+		}
+	}
+
+	@Override
+	public String getHeader(String name) {
+		return message.getHeaders().get(name);
+	}
+
+	@Override
+	public Enumeration<String> getHeaders(String name) {
+		return Collections.enumeration(message.getHeaders().getAll(name));
+	}
+
+	@Override
+	public Enumeration<String> getHeaderNames() {
+		return Collections.enumeration(message.getHeaders().getNames());
+	}
+
+	@Override
+	public int getIntHeader(String name) {
+		String value = getHeader(name);
+		return value == null ? -1 : Integer.parseInt(value.trim());
+	}
+
+	@Override
+	public String getMethod() {
+		return message.getMethod();
+	}
+
+	@Override
+	public String getPathInfo() {
+		return pathInfo;
+	}
+
+	@Override
+	public String getPathTranslated() {
+		return null;
+	}
+
+	@Override
+	public String getContextPath() {
+		return server.getContextPath();
+	}
+
+	@Override
+	public String getQueryString() {
+		return queryString;
+	}
+
+	@Override
+	public String getRemoteUser() {
+		return null;
+	}
+
+	@Override
+	public boolean isUserInRole(String role) {
+		return false;
+	}
+
+	@Override
+	public Principal getUserPrincipal() {
+		return null;
+	}
+
+	@Override
+	public String getRequestedSessionId() {
+		return null;
+	}
+
+	@Override
+	public String getRequestURI() {
+		return requestURI;
+	}
+
+	@Override
+	public StringBuffer getRequestURL() {
+		StringBuffer url = new StringBuffer(getScheme()).append("://");
+		String host = message.getHeaders().get("Host");
+		url.append(host != null ? host : getLocalName() + ":" + getLocalPort());
+		return url.append(requestURI);
+	}
+
+	@Override
+	public String getServletPath() {
+		return servletPath;
+	}
+
+	@Override
+	public HttpSession getSession(boolean create) {
+		if (create) {
+			throw new IllegalStateException("Sessions are not supported");
+		}
+		return null;
+	}
+
+	@Override
+	public HttpSession getSession() {
+		return getSession(true);
+	}
+
+	@Override
+	public String changeSessionId() {
+		throw new IllegalStateException("Sessions are not supported");
+	}
+
+	@Override
+	public boolean isRequestedSessionIdValid() {
+		return false;
+	}
+
+	@Override
+	public boolean isRequestedSessionIdFromCookie() {
+		return false;
+	}
+
+	@Override
+	public boolean isRequestedSessionIdFromURL() {
+		return false;
+	}
+
+	@Override
+	@Deprecated
+	public boolean isRequestedSessionIdFromUrl() {
+		return false;
+	}
+
+	@Override
+	public boolean authenticate(HttpServletResponse response) throws IOException, ServletException {
+		return false;
+	}
+
+	@Override
+	public void login(String username, String password) throws ServletException {
+		throw new ServletException("Authentication is not supported");
+	}
+
+	@Override
+	public void logout() throws ServletException {
+	}
+
+	@Override
+	public Collection<Part> getParts() throws IOException, ServletException {
+		throw new ServletException("Multipart requests are not supported");
+	}
+
+	@Override
+	public Part getPart(String name) throws IOException, ServletException {
+		throw new ServletException("Multipart requests are not supported");
+	}
+
+	@Override
+	public <T extends HttpUpgradeHandler> T upgrade(Class<T> handlerClass) throws IOException, ServletException {
+		throw new ServletException("Protocol upgrades are not supported");
+	}
+
+	/**
+	 * Stream of the completely received body
+	 */
+	private static class BodyInputStream extends ServletInputStream {
+		private final ByteArrayInputStream in;
+
+		private BodyInputStream(byte[] body) {
+			in = new ByteArrayInputStream(body);
+		}
+
+		@Override
+		public int read() throws IOException {
+			return in.read();
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			return in.read(b, off, len);
+		}
+
+		@Override
+		public int available() throws IOException {
+			return in.available();
+		}
+
+		@Override
+		public boolean isFinished() {
+			return in.available() == 0;
+		}
+
+		@Override
+		public boolean isReady() {
+			return true;
+		}
+
+		@Override
+		public void setReadListener(ReadListener readListener) {
+			// All data is available immediately
+			try {
+				if (!isFinished()) {
+					readListener.onDataAvailable();
+				}
+				readListener.onAllDataRead();
+			} catch (IOException e) {
+				readListener.onError(e);
+			}
+		}
+	}
+}
@@ -0,0 +1,730 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.basyx.vab.protocol.http.server.nio;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Response passed to the servlets by the {@link NIOHTTPServer}.<br />
+ * <br />
+ * The body is buffered completely while the servlet processes the request
+ * synchronously, also if it is flushed in between. This way, it is sent with a
+ * <i>Content-Length</i> in a single gathering write when the servlet returns.
+ * Flushing the response of an asynchronous request commits it immediately,
+ * e.g. for streams of server-sent events. If the length is not known in this
+ * case, the chunked transfer coding is used.
+ *
+ * @author schnicke
+ *
+ */
+class NIOServletResponse implements HttpServletResponse {
+	public static final int DEFAULT_BUFFER_SIZE = 8192;
+
+	private static final String DEFAULT_CHARSET = "ISO-8859-1";
+	private static final byte[] CRLF = { '\r', '\n' };
+	private static final byte[] LAST_CHUNK = "0\r\n\r\n".getBytes(StandardCharsets.ISO_8859_1);
+
+	private static final Map<Integer, String> REASON_PHRASES = new HashMap<>();
+	static {
+		REASON_PHRASES.put(100, "Continue");
+		REASON_PHRASES.put(200, "OK");
+		REASON_PHRASES.put(201, "Created");
+		REASON_PHRASES.put(202, "Accepted");
+		REASON_PHRASES.put(204, "No Content");
+		REASON_PHRASES.put(301, "Moved Permanently");
+		REASON_PHRASES.put(302, "Found");
+		REASON_PHRASES.put(303, "See Other");
+		REASON_PHRASES.put(304, "Not Modified");
+		REASON_PHRASES.put(307, "Temporary Redirect");
+		REASON_PHRASES.put(400, "Bad Request");
+		REASON_PHRASES.put(401, "Unauthorized");
+		REASON_PHRASES.put(403, "Forbidden");
+		REASON_PHRASES.put(404, "Not Found");
+		REASON_PHRASES.put(405, "Method Not Allowed");
+		REASON_PHRASES.put(406, "Not Acceptable");
+		REASON_PHRASES.put(408, "Request Timeout");
+		REASON_PHRASES.put(409, "Conflict");
+		REASON_PHRASES.put(411, "Length Required");
+		REASON_PHRASES.put(412, "Precondition Failed");
+		REASON_PHRASES.put(413, "Payload Too Large");
+		REASON_PHRASES.put(415, "Unsupported Media Type");
+		REASON_PHRASES.put(500, "Internal Server Error");
+		REASON_PHRASES.put(501, "Not Implemented");
+		REASON_PHRASES.put(503, "Service Unavailable");
+		REASON_PHRASES.put(504, "Gateway Timeout");
+		REASON_PHRASES.put(505, "HTTP Version Not Supported");
+	}
+
+	// Formatted date of the current second, shared by all responses
+	private static volatile long dateSecond;
+	private static volatile String date;
+
+	private final HTTPConnection connection;
+	private final boolean http11;
+	private final boolean head;
+	private final ResponseOutputStream outputStream = new ResponseOutputStream();
+
+	// Guarded by this
+	private int status = SC_OK;
+	private final HTTPHeaders headers = new HTTPHeaders();
+	private String contentType;
+	private String characterEncoding;
+	private long contentLength = -1;
+	private Locale locale = Locale.getDefault();
+	private int bufferSize = DEFAULT_BUFFER_SIZE;
+	private PrintWriter writer;
+	private boolean usingOutputStream = false;
+	private boolean keepAlive;
+	private boolean committed = false;
+	private boolean chunked = false;
+	private boolean finished = false;
+
+	// Output after an error has been sent is ignored
+	private boolean suspended = false;
+
+	// Whether flushing sends the buffered body, i.e. the request is processed asynchronously
+	private boolean flushEnabled = false;
+
+	/**
+	 * @param connection
+	 * @param message
+	 *            the answered request
+	 * @param keepAlive
+	 *            whether the connection is kept open after this response
+	 */
+	NIOServletResponse(HTTPConnection connection, HTTPRequestMessage message, boolean keepAlive) {
+		this.connection = connection;
+		this.http11 = HTTPRequestMessage.HTTP_1_1.equals(message.getProtocol());
+		this.head = "HEAD".equals(message.getMethod());
+		this.keepAlive = keepAlive;
+	}
+
+	/**
+	 * Lets flushes commit the response, since the request is processed
+	 * asynchronously
+	 */
+	synchronized void enableFlush() {
+		flushEnabled = true;
+	}
+
+	synchronized boolean isFinished() {
+		return finished;
+	}
+
+	/**
+	 * Sends the remaining response and lets the connection proceed with the next
+	 * request. Has no effect if the response has already been finished.
+	 */
+	void finish() {
+		boolean closeConnection;
+		synchronized (this) {
+			if (finished) {
+				return;
+			}
+			// The remaining output of the writer is part of the final write
+			flushEnabled = false;
+			if (writer != null) {
+				writer.flush();
+			}
+			finished = true;
+
+			try {
+				if (!committed) {
+					committed = true;
+					ByteBuffer body = outputStream.takeBuffer();
+					ByteBuffer head = createHead(hasBody() ? Long.valueOf(body.remaining()) : null);
+					if (this.head || !hasBody()) {
+						connection.write(head);
+					} else {
+						connection.write(head, body);
+					}
+				} else {
+					outputStream.writeChunk();
+					if (chunked) {
+						connection.write(ByteBuffer.wrap(LAST_CHUNK));
+					}
+				}
+			} catch (IOException e) {
+				// The connection has been closed by the client
+				keepAlive = false;
+			}
+			closeConnection = !keepAlive;
+		}
+		connection.responseComplete(closeConnection);
+	}
+
+	/**
+	 * Commits the response before the body is complete, i.e. the length of the
+	 * body is only known if it has been set explicitly
+	 *
+	 * @throws IOException
+	 */
+	private void commitStream() throws IOException {
+		committed = true;
+		if (contentLength < 0) {
+			if (http11) {
+				chunked = true;
+			} else {
+				// The end of the body is signaled by closing the connection
+				keepAlive = false;
+			}
+		}
+		connection.write(createHead(contentLength < 0 ? null : contentLength));
+	}
+
+	private boolean hasBody() {
+		return status >= 200 && status != SC_NO_CONTENT && status != SC_NOT_MODIFIED;
+	}
+
+	/**
+	 * Creates the status line and header fields
+	 *
+	 * @param length
+	 *            length of the body or null, if it is unknown or there is none
+	 * @return
+	 */
+	private ByteBuffer createHead(Long length) {
+		StringBuilder builder = new StringBuilder(256);
+		builder.append(http11 ? HTTPRequestMessage.HTTP_1_1 : HTTPRequestMessage.HTTP_1_0).append(' ').append(status).append(' ');
+		String reason = REASON_PHRASES.get(status);
+		builder.append(reason != null ? reason : "Unknown").append("\r\n");
+
+		builder.append("Date: ").append(getDate()).append("\r\n");
+		String type = getContentType();
+		if (type != null) {
+			builder.append("Content-Type: ").append(type).append("\r\n");
+		}
+		if (length != null) {
+			builder.append("Content-Length: ").append(length).append("\r\n");
+		} else if (chunked) {
+			builder.append("Transfer-Encoding: chunked\r\n");
+		}
+		if (!keepAlive) {
+			builder.append("Connection: close\r\n");
+		} else if (!http11) {
+			builder.append("Connection: keep-alive\r\n");
+		}
+		headers.appendTo(builder);
+		builder.append("\r\n");
+		return ByteBuffer.wrap(builder.toString().getBytes(StandardCharsets.ISO_8859_1));
+	}
+
+	private static String getDate() {
+		long second = System.currentTimeMillis() / 1000;
+		String current = date;
+		if (current == null || second != dateSecond) {
+			current = DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.ofInstant(Instant.ofEpochSecond(second), ZoneOffset.UTC));
+			date = current;
+			dateSecond = second;
+		}
+		return current;
+	}
+
+	/**
+	 * Extracts the charset parameter of a content type
+	 *
+	 * @param contentType
+	 * @return the charset or null, if there is none
+	 */
+	static String getCharsetParameter(String contentType) {
+		if (contentType == null) {
+			return null;
+		}
+		for (String parameter : contentType.split(";")) {
+			String trimmed = parameter.trim();
+			if (trimmed.regionMatches(true, 0, "charset=", 0, 8)) {
+				String charset = trimmed.substring(8).trim();
+				if (charset.length() > 1 && charset.startsWith("\"") && charset.endsWith("\"")) {
+					charset = charset.substring(1, charset.length() - 1);
+				}
+				return charset;
+			}
+		}
+		return null;
+	}
+
+	@Override
+	public synchronized String getCharacterEncoding() {
+		return characterEncoding != null ? characterEncoding : DEFAULT_CHARSET;
+	}
+
+	@Override
+	public synchronized String getContentType() {
+		if (contentType == null) {
+			return null;
+		}
+		if (characterEncoding != null) {
+			return contentType + ";charset=" + characterEncoding;
+		}
+		return contentType;
+	}
+
+	@Override
+	public synchronized ServletOutputStream getOutputStream() throws IOException {
+		if (writer != null) {
+			throw new IllegalStateException("getWriter() has already been called");
+		}
+		usingOutputStream = true;
+		return outputStream;
+	}
+
+	@Override
+	public synchronized PrintWriter getWriter() throws IOException {
+		if (writer == null) {
+			if (usingOutputStream) {
+				throw new IllegalStateException("getOutputStream() has already been called");
+			}
+			// The charset used by the writer is declared in the content type
+			if (characterEncoding == null) {
+				characterEncoding = DEFAULT_CHARSET;
+			}
+			writer = new PrintWriter(new OutputStreamWriter(outputStream, characterEncoding));
+		}
+		return writer;
+	}
+
+	@Override
+	public synchronized void setCharacterEncoding(String charset) {
+		if (committed || writer != null || charset == null) {
+			return;
+		}
+		characterEncoding = charset;
+	}
+
+	@Override
+	public void setContentLength(int len) {
+		setContentLengthLong(len);
+	}
+
+	@Override
+	public synchronized void setContentLengthLong(long len) {
+		if (!committed) {
+			contentLength = len;
+		}
+	}
+
+	@Override
+	public synchronized void setContentType(String type) {
+		if (committed) {
+			return;
+		}
+		if (type == null) {
+			contentType = null;
+			return;
+		}
+
+		// The charset is kept separately to be able to change it
+		StringBuilder stripped = new StringBuilder();
+		for (String parameter : type.split(";")) {
+			String trimmed = parameter.trim();
+			if (trimmed.regionMatches(true, 0, "charset=", 0, 8)) {
+				setCharacterEncoding(getCharsetParameter(type));
+			} else if (stripped.length() == 0) {
+				stripped.append(trimmed);
+			} else {
+				stripped.append(";").append(trimmed);
+			}
+		}
+		contentType = stripped.toString();
+	}
+
+	@Override
+	public synchronized void setBufferSize(int size) {
+		if (committed || outputStream.count > 0) {
+			throw new IllegalStateException("Content has already been written");
+		}
+		bufferSize = Math.max(size, 1);
+	}
+
+	@Override
+	public synchronized int getBufferSize() {
+		return bufferSize;
+	}
+
+	@Override
+	public void flushBuffer() throws IOException {
+		PrintWriter currentWriter;
+		synchronized (this) {
+			currentWriter = writer;
+		}
+		if (currentWriter != null) {
+			currentWriter.flush();
+		} else {
+			outputStream.flush();
+		}
+	}
+
+	@Override
+	public synchronized void resetBuffer() {
+		if (committed) {
+			throw new IllegalStateException("Response has already been committed");
+		}
+		outputStream.count = 0;
+	}
+
+	@Override
+	public synchronized boolean isCommitted() {
+		return committed;
+	}
+
+	@Override
+	public synchronized void reset() {
+		resetBuffer();
+		status = SC_OK;
+		headers.clear();
+		contentType = null;
+		if (writer == null) {
+			characterEncoding = null;
+		}
+		contentLength = -1;
+		suspended = false;
+	}
+
+	@Override
+	public synchronized void setLocale(Locale loc) {
+		if (!committed && loc != null) {
+			locale = loc;
+		}
+	}
+
+	@Override
+	public synchronized Locale getLocale() {
+		return locale;
+	}
+
+	@Override
+	public synchronized void addCookie(Cookie cookie) {
+		StringBuilder value = new StringBuilder(cookie.getName()).append('=').append(cookie.getValue() != null ? cookie.getValue() : "");
+		if (cookie.getPath() != null) {
+			value.append("; Path=").append(cookie.getPath());
+		}
+		if (cookie.getDomain() != null) {
+			value.append("; Domain=").append(cookie.getDomain());
+		}
+		if (cookie.getMaxAge() >= 0) {
+			value.append("; Max-Age=").append(cookie.getMaxAge());
+		}
+		if (cookie.getSecure()) {
+			value.append("; Secure");
+		}
+		if (cookie.isHttpOnly()) {
+			value.append("; HttpOnly");
+		}
+		addHeader("Set-Cookie", value.toString());
+	}
+
+	@Override
+	public synchronized boolean containsHeader(String name) {
+		return getHeader(name) != null;
+	}
+
+	@Override
+	public String encodeURL(String url) {
+		return url;
+	}
+
+	@Override
+	public String encodeRedirectURL(String url) {
+		return url;
+	}
+
+	@Override
+	@Deprecated
+	public String encodeUrl(String url) {
+		return url;
+	}
+
+	@Override
+	@Deprecated
+	public String encodeRedirectUrl(String url) {
+		return url;
+	}
+
+	@Override
+	public synchronized void sendError(int sc, String msg) throws IOException {
+		if (committed) {
+			throw new IllegalStateException("Response has already been committed");
+		}
+		outputStream.count = 0;
+		status = sc;
+		contentLength = -1;
+		if (writer == null) {
+			contentType = "text/plain";
+			characterEncoding = "UTF-8";
+		}
+		if (msg != null) {
+			byte[] body = msg.getBytes(StandardCharsets.UTF_8);
+			outputStream.append(body, 0, body.length);
+		}
+		suspended = true;
+	}
+
+	@Override
+	public void sendError(int sc) throws IOException {
+		sendError(sc, null);
+	}
+
+	@Override
+	public synchronized void sendRedirect(String location) throws IOException {
+		if (committed) {
+			throw new IllegalStateException("Response has already been committed");
+		}
+		outputStream.count = 0;
+		status = SC_FOUND;
+		setHeader("Location", location);
+		suspended = true;
+	}
+
+	@Override
+	public void setDateHeader(String name, long date) {
+		setHeader(name, formatDate(date));
+	}
+
+	@Override
+	public void addDateHeader(String name, long date) {
+		addHeader(name, formatDate(date));
+	}
+
+	private static String formatDate(long date) {
+		return DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.ofInstant(Instant.ofEpochMilli(date), ZoneOffset.UTC));
+	}
+
+	@Override
+	public synchronized void setHeader(String name, String value) {
+		if (committed || name == null) {
+			return;
+		}
+		if (isSpecialHeader(name, value)) {
+			return;
+		}
+		if (value == null) {
+			headers.remove(name);
+		} else {
+			headers.set(name, value);
+		}
+	}
+
+	@Override
+	public synchronized void addHeader(String name, String value) {
+		if (committed || name == null || value == null) {
+			return;
+		}
+		if (!isSpecialHeader(name, value)) {
+			headers.add(name, value);
+		}
+	}
+
+	/**
+	 * Handles the header fields that are managed by the response itself
+	 *
+	 * @param name
+	 * @param value
+	 * @return true, if the field has been handled
+	 */
+	private boolean isSpecialHeader(String name, String value) {
+		if (name.equalsIgnoreCase("Content-Type")) {
+			setContentType(value);
+			return true;
+		}
+		if (name.equalsIgnoreCase("Content-Length")) {
+			try {
+				contentLength = value == null ? -1 : Long.parseLong(value.trim());
+			} catch (NumberFormatException e) {
+				// Invalid lengths are ignored
+			}
+			return true;
+		}
+		// The framing is determined by the server
+		return name.equalsIgnoreCase("Transfer-Encoding") || name.equalsIgnoreCase("Connection");
+	}
+
+	@Override
+	public void setIntHeader(String name, int value) {
+		setHeader(name, Integer.toString(value));
+	}
+
+	@Override
+	public void addIntHeader(String name, int value) {
+		addHeader(name, Integer.toString(value));
+	}
+
+	@Override
+	public synchronized void setStatus(int sc) {
+		if (!committed) {
+			status = sc;
+		}
+	}
+
+	@Override
+	@Deprecated
+	public void setStatus(int sc, String sm) {
+		setStatus(sc);
+	}
+
+	@Override
+	public synchronized int getStatus() {
+		return status;
+	}
+
+	@Override
+	public synchronized String getHeader(String name) {
+		if (name.equalsIgnoreCase("Content-Type")) {
+			return getContentType();
+		}
+		if (name.equalsIgnoreCase("Content-Length")) {
+			return contentLength < 0 ? null : Long.toString(contentLength);
+		}
+		return headers.get(name);
+	}
+
+	@Override
+	public synchronized Collection<String> getHeaders(String name) {
+		String special = getHeader(name);
+		if (name.equalsIgnoreCase("Content-Type") || name.equalsIgnoreCase("Content-Length")) {
+			return special == null ? new ArrayList<>() : new ArrayList<>(Arrays.asList(special));
+		}
+		return new ArrayList<>(headers.getAll(name));
+	}
+
+	@Override
+	public synchronized Collection<String> getHeaderNames() {
+		List<String> names = new ArrayList<>(headers.getNames());
+		if (contentType != null) {
+			names.add("Content-Type");
+		}
+		if (contentLength >= 0) {
+			names.add("Content-Length");
+		}
+		return names;
+	}
+
+	/**
+	 * Buffers the body. Once the response is committed, the buffer is sent
+	 * whenever it is flushed or full.
+	 */
+	private class ResponseOutputStream extends ServletOutputStream {
+		private byte[] buffer = new byte[0];
+		private int count = 0;
+
+		@Override
+		public void write(int b) throws IOException {
+			write(new byte[] { (byte) b }, 0, 1);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			synchronized (NIOServletResponse.this) {
+				if (connection.isClosed()) {
+					throw new IOException("Connection has been closed");
+				}
+				if (finished || suspended) {
+					return;
+				}
+				append(b, off, len);
+				if (committed && count >= bufferSize) {
+					writeChunk();
+				}
+			}
+		}
+
+		private void append(byte[] b, int off, int len) {
+			if (count + len > buffer.length) {
+				buffer = Arrays.copyOf(buffer, Math.max(Math.max(buffer.length * 2, count + len), 256));
+			}
+			System.arraycopy(b, off, buffer, count, len);
+			count += len;
+		}
+
+		@Override
+		public void flush() throws IOException {
+			synchronized (NIOServletResponse.this) {
+				if (finished || !flushEnabled) {
+					return;
+				}
+				if (connection.isClosed()) {
+					throw new IOException("Connection has been closed");
+				}
+				if (!committed) {
+					commitStream();
+				}
+				writeChunk();
+			}
+		}
+
+		/**
+		 * Hands the buffered bytes over to the connection. The buffer is replaced
+		 * instead of copied, since the connection may send it later.
+		 *
+		 * @return
+		 */
+		private ByteBuffer takeBuffer() {
+			ByteBuffer taken = ByteBuffer.wrap(buffer, 0, count);
+			buffer = new byte[0];
+			count = 0;
+			return taken;
+		}
+
+		/**
+		 * Sends the buffered bytes of a committed response
+		 *
+		 * @throws IOException
+		 */
+		private void writeChunk() throws IOException {
+			if (count == 0) {
+				return;
+			}
+			ByteBuffer data = takeBuffer();
+			if (head) {
+				return;
+			}
+			if (chunked) {
+				ByteBuffer size = ByteBuffer.wrap((Integer.toHexString(data.remaining()) + "\r\n").getBytes(StandardCharsets.ISO_8859_1));
+				connection.write(size, data, ByteBuffer.wrap(CRLF));
+			} else {
+				connection.write(data);
+			}
+		}
+
+		@Override
+		public boolean isReady() {
+			return true;
+		}
+
+		@Override
+		public void setWriteListener(WriteListener writeListener) {
+			// Writes never block, since they are buffered
+			try {
+				writeListener.onWritePossible();
+			} catch (IOException e) {
+				writeListener.onError(e);
+			}
+		}
+	}
+}
@@ -0,0 +1,126 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.basyx.vab.protocol.http.server.nio;
+
+import java.util.AbstractMap.SimpleEntry;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import javax.servlet.http.HttpServlet;
+
+/**
+ * Selects the servlet of a request according to the servlet mappings of the
+ * context, i.e. in the order exact match, longest path prefix (<i>/path/*</i>),
+ * extension (<i>*.ext</i>) and default servlet (<i>/</i>)
+ *
+ * @author schnicke
+ *
+ */
+class ServletMapper {
+	private final Map<String, HttpServlet> exactMappings = new HashMap<>();
+	private final List<Entry<String, HttpServlet>> prefixMappings = new ArrayList<>();
+	private final Map<String, HttpServlet> extensionMappings = new HashMap<>();
+	private HttpServlet rootServlet;
+	private HttpServlet defaultServlet;
+
+	/**
+	 * Selected servlet and the split of the request path
+	 */
+	static class Match {
+		private final HttpServlet servlet;
+		private final String servletPath;
+		private final String pathInfo;
+
+		private Match(HttpServlet servlet, String servletPath, String pathInfo) {
+			this.servlet = servlet;
+			this.servletPath = servletPath;
+			this.pathInfo = pathInfo;
+		}
+
+		public HttpServlet getServlet() {
+			return servlet;
+		}
+
+		public String getServletPath() {
+			return servletPath;
+		}
+
+		public String getPathInfo() {
+			return pathInfo;
+		}
+	}
+
+	ServletMapper(Map<String, HttpServlet> mappings) {
+		for (Entry<String, HttpServlet> mapping : mappings.entrySet()) {
+			String pattern = mapping.getKey();
+			HttpServlet servlet = mapping.getValue();
+			if (pattern.equals("/")) {
+				defaultServlet = servlet;
+			} else if (pattern.isEmpty()) {
+				// Empty pattern maps the context root
+				rootServlet = servlet;
+			} else if (pattern.endsWith("/*")) {
+				prefixMappings.add(new SimpleEntry<>(pattern.substring(0, pattern.length() - 2), servlet));
+			} else if (pattern.startsWith("*.")) {
+				extensionMappings.put(pattern.substring(2), servlet);
+			} else {
+				exactMappings.put(pattern, servlet);
+			}
+		}
+
+		// Longest prefixes take precedence
+		prefixMappings.sort((a, b) -> b.getKey().length() - a.getKey().length());
+	}
+
+	/**
+	 * Selects the servlet of a path
+	 *
+	 * @param path
+	 *            decoded request path within the context, starting with a slash
+	 * @return the match or null, if no servlet is mapped to the path
+	 */
+	public Match resolve(String path) {
+		if (rootServlet != null && path.equals("/")) {
+			return new Match(rootServlet, "", "/");
+		}
+
+		HttpServlet servlet = exactMappings.get(path);
+		if (servlet != null) {
+			return new Match(servlet, path, null);
+		}
+
+		for (Entry<String, HttpServlet> prefixMapping : prefixMappings) {
+			String prefix = prefixMapping.getKey();
+			if (path.equals(prefix)) {
+				return new Match(prefixMapping.getValue(), prefix, null);
+			}
+			if (path.startsWith(prefix + "/")) {
+				return new Match(prefixMapping.getValue(), prefix, path.substring(prefix.length()));
+			}
+		}
+
+		int lastSlash = path.lastIndexOf('/');
+		int dot = path.lastIndexOf('.');
+		if (dot > lastSlash) {
+			servlet = extensionMappings.get(path.substring(dot + 1));
+			if (servlet != null) {
+				return new Match(servlet, path, null);
+			}
+		}
+
+		if (defaultServlet != null) {
+			return new Match(defaultServlet, path, null);
+		}
+		return null;
+	}
+}
@@ -0,0 +1,26 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.basyx.testsuite.regression.aas.aggregator;
+
+import org.eclipse.basyx.aas.aggregator.ConcurrentAASAggregator;
+import org.eclipse.basyx.aas.aggregator.api.IAASAggregator;
+
+/**
+ * Tests the ConcurrentAASAggregator implementation.
+ * 
+ * @author schnicke
+ *
+ */
+public class TestConcurrentAASAggregator extends AASAggregatorSuite {
+	@Override
+	protected IAASAggregator getAggregator() {
+		return new ConcurrentAASAggregator();
+	}
+}
@@ -11,8 +11,13 @@ package org.eclipse.basyx.testsuite.regression.aas.manager;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
 import org.eclipse.basyx.aas.aggregator.AASAggregator;
 import org.eclipse.basyx.aas.aggregator.restapi.AASAggregatorProvider;
 import org.eclipse.basyx.aas.manager.ConnectedAssetAdministrationShellManager;
@@ -136,6 +141,45 @@ public class TestConnectedAssetAdministrationShellManager {
 		assertEquals("myStr", prop2Connected.getValue());
 	}
 
+	@Test
+	public void testAsyncRetrieval() throws Exception {
+		IIdentifier aasId = new Identifier(IdentifierType.CUSTOM, "aasId");
+		String aasIdShort = "aasName";
+		IIdentifier smId = new Identifier(IdentifierType.CUSTOM, "smId");
+		String smIdShort = "smName";
+
+		IModelProvider provider = new AASAggregatorProvider(new AASAggregator());
+		prepareConnectorProvider(provider);
+
+		AssetAdministrationShell aas = createTestAAS(aasId, aasIdShort);
+		manager.createAAS(aas, "/shells");
+
+		Submodel submodel = new Submodel(smIdShort, smId);
+		Property prop = new Property(7);
+		prop.setIdShort("prop1");
+		submodel.addSubmodelElement(prop);
+		manager.createSubmodel(aasId, submodel);
+
+		// Retrieve AAS and submodels without blocking
+		CompletableFuture<ConnectedAssetAdministrationShell> shell = manager.retrieveAASAsync(aasId);
+		CompletableFuture<ISubmodel> sm = manager.retrieveSubmodelAsync(aasId, smId);
+		CompletableFuture<Map<String, ISubmodel>> submodels = manager.retrieveSubmodelsAsync(aasId);
+		assertEquals(aasIdShort, shell.join().getIdShort());
+		assertEquals(smIdShort, sm.join().getIdShort());
+		assertEquals(smIdShort, submodels.join().get(smIdShort).getIdShort());
+
+		// Read a value within the submodel
+		assertEquals(7, manager.getSubmodelValueAsync(aasId, smId, "submodelElements/prop1/value").join());
+
+		// Failing lookups complete the future exceptionally
+		try {
+			manager.retrieveAASAsync(new Identifier(IdentifierType.CUSTOM, "nonexistentAAS")).join();
+			fail();
+		} catch (CompletionException e) {
+			assertTrue(e.getCause() instanceof ResourceNotFoundException);
+		}
+	}
+
 	@Test
 	public void testDeleteSubmodel() {
 		IIdentifier aasId = new Identifier(IdentifierType.CUSTOM, "aasId");
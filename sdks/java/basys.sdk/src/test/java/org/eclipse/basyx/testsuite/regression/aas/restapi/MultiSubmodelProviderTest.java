@@ -5,10 +5,16 @@ package org.eclipse.basyx.testsuite.regression.aas.restapi;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.eclipse.basyx.aas.metamodel.api.parts.asset.AssetKind;
 import org.eclipse.basyx.aas.metamodel.connected.ConnectedAssetAdministrationShell;
@@ -27,7 +33,10 @@ import org.eclipse.basyx.submodel.restapi.SubmodelProvider;
 import org.eclipse.basyx.testsuite.regression.submodel.restapi.SimpleAASSubmodel;
 import org.eclipse.basyx.testsuite.regression.vab.manager.VABConnectionManagerStub;
 import org.eclipse.basyx.vab.exception.provider.ProviderException;
+import org.eclipse.basyx.vab.exception.provider.ResourceNotFoundException;
 import org.eclipse.basyx.vab.modelprovider.VABElementProxy;
+import org.eclipse.basyx.vab.modelprovider.batch.BatchEntry;
+import org.eclipse.basyx.vab.modelprovider.batch.BatchResult;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -38,6 +47,7 @@ import org.junit.Test;
  *
  */
 public class MultiSubmodelProviderTest {
+	private MultiSubmodelProvider provider;
 	private VABElementProxy proxy;
 
 	// Used short ids
@@ -50,7 +60,7 @@ public class MultiSubmodelProviderTest {
 	public void build() {
 		VABConnectionManagerStub stub = new VABConnectionManagerStub();
 		String urn = "urn:fhg:es.iese:aas:1:1:submodel";
-		MultiSubmodelProvider provider = new MultiSubmodelProvider();
+		provider = new MultiSubmodelProvider();
 
 		// set dummy aas
 		AssetAdministrationShell aas = new AssetAdministrationShell(AASIDSHORT, AASURN, new Asset("assetIdShort", new Identifier(IdentifierType.CUSTOM, "assetId"), AssetKind.INSTANCE));
@@ -137,6 +147,52 @@ public class MultiSubmodelProviderTest {
 		}
 	}
 
+	@Test
+	public void batchTest() {
+		String simplePath = "/aas/submodels/SimpleAASSubmodel/submodel/submodelElements/";
+		String testPath = "/aas/submodels/TestSM/submodel/submodelElements/";
+		Submodel sm = new SimpleAASSubmodel("TestSM");
+		sm.setIdentification(IdentifierType.CUSTOM, "TestId");
+
+		List<BatchResult> results = proxy.processBatch(Arrays.asList(
+				BatchEntry.getValue(testPath + "integerProperty/value"),
+				// Creating the submodel is processed after the previous entry
+				BatchEntry.setValue("/aas/submodels/TestSM", sm),
+				// The following entries are processed in parallel per submodel
+				BatchEntry.setValue(testPath + "integerProperty/value", 5),
+				BatchEntry.invokeOperation(simplePath + "complex/" + Operation.INVOKE, 10, 3),
+				BatchEntry.getValue(testPath + "integerProperty/value"),
+				BatchEntry.getValue(simplePath + "integerProperty/value"),
+				BatchEntry.getValue(simplePath + "unknown/value")));
+
+		assertEquals(7, results.size());
+		assertTrue(results.get(0).getException() instanceof ResourceNotFoundException);
+		assertTrue(results.get(1).isSuccess());
+		assertTrue(results.get(2).isSuccess());
+		assertEquals(7, results.get(3).getValue());
+		assertEquals(5, results.get(4).getValue());
+		assertEquals(123, results.get(5).getValue());
+		assertTrue(results.get(6).getException() instanceof ResourceNotFoundException);
+	}
+
+	@Test
+	public void batchExecutorTest() {
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		AtomicInteger executed = new AtomicInteger();
+		provider.setBatchExecutor(task -> {
+			executed.incrementAndGet();
+			executor.execute(task);
+		});
+		try {
+			batchTest();
+		} finally {
+			executor.shutdown();
+		}
+
+		// One of the two submodel groups is processed by the calling thread
+		assertEquals(1, executed.get());
+	}
+
 	private void getTestRunner(String smId) {
 		// Get property value
 		Integer value = (Integer) proxy
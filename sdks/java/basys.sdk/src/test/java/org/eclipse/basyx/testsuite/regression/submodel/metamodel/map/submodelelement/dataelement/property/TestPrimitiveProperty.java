@@ -0,0 +1,173 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.basyx.testsuite.regression.submodel.metamodel.map.submodelelement.dataelement.property;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.basyx.submodel.metamodel.api.identifier.IdentifierType;
+import org.eclipse.basyx.submodel.metamodel.map.Submodel;
+import org.eclipse.basyx.submodel.metamodel.map.identifier.Identifier;
+import org.eclipse.basyx.submodel.metamodel.map.submodelelement.dataelement.property.PrimitiveProperty;
+import org.eclipse.basyx.submodel.metamodel.map.submodelelement.dataelement.property.Property;
+import org.eclipse.basyx.submodel.metamodel.map.submodelelement.dataelement.property.valuetype.ValueType;
+import org.eclipse.basyx.submodel.restapi.SubmodelProvider;
+import org.eclipse.basyx.vab.coder.json.serialization.DefaultTypeFactory;
+import org.eclipse.basyx.vab.coder.json.serialization.GSONTools;
+import org.junit.Test;
+
+/**
+ * Tests the typed slots of {@link PrimitiveProperty} and their conversion at
+ * the map and provider boundaries
+ * 
+ * @author schnicke
+ *
+ */
+public class TestPrimitiveProperty {
+
+	@Test
+	public void testTypedAccess() {
+		PrimitiveProperty longProp = new PrimitiveProperty("long", 5L);
+		longProp.setLong(Long.MAX_VALUE);
+		assertEquals(Long.MAX_VALUE, longProp.getLong());
+		assertEquals(Long.MAX_VALUE, longProp.getValue());
+		assertEquals(ValueType.Int64, longProp.getValueType());
+
+		PrimitiveProperty doubleProp = new PrimitiveProperty("double", 1.5);
+		doubleProp.setDouble(-2.25);
+		assertEquals(-2.25, doubleProp.getDouble(), 0);
+		assertEquals(-2.25, doubleProp.getValue());
+
+		PrimitiveProperty booleanProp = new PrimitiveProperty("boolean", false);
+		booleanProp.setBoolean(true);
+		assertTrue(booleanProp.getBoolean());
+		assertEquals(true, booleanProp.getValue());
+
+		PrimitiveProperty stringProp = new PrimitiveProperty("string", "a");
+		stringProp.setString(new String("running"));
+		assertTrue(stringProp.getString() == "running");
+
+		try {
+			stringProp.setLong(1);
+			fail();
+		} catch (UnsupportedOperationException e) {
+			// Expected
+		}
+	}
+
+	@Test
+	public void testBoxingByValueType() {
+		PrimitiveProperty intProp = new PrimitiveProperty("int", ValueType.Integer);
+		intProp.setLong(3);
+		assertEquals(3, intProp.getValue());
+
+		PrimitiveProperty byteProp = new PrimitiveProperty("byte", ValueType.Int8);
+		byteProp.setLong(-3);
+		assertEquals((byte) -3, byteProp.getValue());
+
+		PrimitiveProperty floatProp = new PrimitiveProperty("float", ValueType.Float);
+		floatProp.setDouble(0.5);
+		assertEquals(0.5f, floatProp.getValue());
+
+		try {
+			byteProp.setLong(128);
+			fail();
+		} catch (IllegalArgumentException e) {
+			// Expected
+		}
+
+		try {
+			new PrimitiveProperty("duration", ValueType.Duration);
+			fail();
+		} catch (IllegalArgumentException e) {
+			// Expected
+		}
+	}
+
+	@Test
+	public void testFixedValueType() {
+		PrimitiveProperty prop = new PrimitiveProperty("int", ValueType.Int32);
+
+		// Objects are converted to the fixed type
+		prop.setValue(7L);
+		assertEquals(7, prop.getValue());
+		prop.setValue("8");
+		assertEquals(8L, prop.getLong());
+		try {
+			prop.setValue(1.5);
+			fail();
+		} catch (IllegalArgumentException e) {
+			// Expected
+		}
+
+		try {
+			prop.setValueType(ValueType.String);
+			fail();
+		} catch (UnsupportedOperationException e) {
+			// Expected
+		}
+
+		// Updates of the value type through the map are ignored
+		prop.put(Property.VALUETYPE, ValueType.Int64.toString());
+		assertEquals(ValueType.Int32.toString(), prop.get(Property.VALUETYPE));
+	}
+
+	@Test
+	public void testMap() {
+		PrimitiveProperty prop = new PrimitiveProperty("prop", 1L);
+		prop.setLong(2);
+		assertEquals(2L, prop.get(Property.VALUE));
+		assertTrue(prop.containsKey(Property.VALUE));
+
+		// Copies contain the boxed value
+		Map<String, Object> copy = new HashMap<>(prop);
+		assertEquals(2L, copy.get(Property.VALUE));
+		assertEquals(ValueType.Int64.toString(), copy.get(Property.VALUETYPE));
+		assertTrue(Property.isValid(copy));
+
+		prop.put(Property.VALUE, 3);
+		assertEquals(3L, prop.getLong());
+
+		GSONTools tools = new GSONTools(new DefaultTypeFactory());
+		@SuppressWarnings("unchecked")
+		Map<String, Object> deserialized = (Map<String, Object>) tools.deserialize(tools.serialize(prop));
+		assertEquals(3, deserialized.get(Property.VALUE));
+	}
+
+	@Test
+	public void testProvider() {
+		Submodel submodel = new Submodel("submodel", new Identifier(IdentifierType.CUSTOM, "submodelId"));
+		PrimitiveProperty prop = new PrimitiveProperty("prop", ValueType.Int64);
+		PrimitiveProperty text = new PrimitiveProperty("text", ValueType.String);
+		submodel.addSubmodelElement(prop);
+		submodel.addSubmodelElement(text);
+		SubmodelProvider provider = new SubmodelProvider(submodel);
+
+		prop.setLong(42);
+		assertEquals(42L, provider.getValue("/submodel/submodelElements/prop/value"));
+
+		// Values written by the provider are converted to the fixed type
+		provider.setValue("/submodel/submodelElements/prop/value", 43);
+		assertEquals(43L, prop.getLong());
+		assertEquals(ValueType.Int64, prop.getValueType());
+		@SuppressWarnings("unchecked")
+		Map<String, Object> read = (Map<String, Object>) provider.getValue("/submodel/submodelElements/prop");
+		assertEquals(ValueType.Int64.toString(), read.get(Property.VALUETYPE));
+
+		assertNull(provider.getValue("/submodel/submodelElements/text/value"));
+		provider.setValue("/submodel/submodelElements/text/value", "on");
+		assertEquals("on", text.getString());
+	}
+}
@@ -0,0 +1,248 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.basyx.testsuite.regression.submodel.metamodel.map.submodelelement.dataelement.property;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.eclipse.basyx.submodel.metamodel.api.identifier.IdentifierType;
+import org.eclipse.basyx.submodel.metamodel.connected.submodelelement.dataelement.ConnectedProperty;
+import org.eclipse.basyx.submodel.metamodel.map.Submodel;
+import org.eclipse.basyx.submodel.metamodel.map.identifier.Identifier;
+import org.eclipse.basyx.submodel.metamodel.map.submodelelement.dataelement.property.PrimitiveProperty;
+import org.eclipse.basyx.submodel.metamodel.map.submodelelement.dataelement.property.Property;
+import org.eclipse.basyx.submodel.metamodel.map.submodelelement.dataelement.property.PropertyHistory;
+import org.eclipse.basyx.submodel.metamodel.map.submodelelement.dataelement.property.valuetype.ValueType;
+import org.eclipse.basyx.submodel.restapi.HistoryQuery;
+import org.eclipse.basyx.submodel.restapi.SubmodelProvider;
+import org.eclipse.basyx.submodel.restapi.concurrent.ConcurrentSubmodelAPI;
+import org.eclipse.basyx.vab.exception.provider.MalformedRequestException;
+import org.eclipse.basyx.vab.exception.provider.ResourceNotFoundException;
+import org.eclipse.basyx.vab.modelprovider.VABElementProxy;
+import org.junit.Test;
+
+/**
+ * Tests the {@link PropertyHistory} of a {@link PrimitiveProperty} and its
+ * access through the submodel providers
+ *
+ * @author schnicke
+ *
+ */
+public class TestPropertyHistory {
+
+	@Test
+	public void testRing() {
+		PrimitiveProperty prop = new PrimitiveProperty("prop", ValueType.Int32);
+		PropertyHistory history = prop.enableHistory(4);
+		assertEquals(0, history.read(Long.MIN_VALUE, Long.MAX_VALUE, 10).size());
+
+		for (int i = 1; i <= 6; i++) {
+			prop.setLong(i);
+		}
+
+		// Only the latest values are kept, boxed according to the value type
+		assertEquals(4, history.size());
+		assertEquals(Arrays.asList(3, 4, 5, 6), values(history.read(Long.MIN_VALUE, Long.MAX_VALUE, 10)));
+		assertEquals(Arrays.asList(5, 6), values(history.read(Long.MIN_VALUE, Long.MAX_VALUE, 2)));
+
+		// Values written as object are recorded as well
+		prop.setValue("7");
+		assertEquals(Arrays.asList(7), values(history.read(Long.MIN_VALUE, Long.MAX_VALUE, 1)));
+
+		prop.disableHistory();
+		assertNull(prop.getHistory());
+
+		try {
+			new PrimitiveProperty("text", "a").enableHistory(4);
+			fail();
+		} catch (UnsupportedOperationException e) {
+			// Expected
+		}
+	}
+
+	@Test
+	public void testTimeRange() throws InterruptedException {
+		PrimitiveProperty prop = new PrimitiveProperty("prop", 0.0);
+		PropertyHistory history = prop.enableHistory(10);
+		for (int i = 0; i < 4; i++) {
+			prop.setDouble(i * 0.5);
+			// Ensures distinct timestamps
+			Thread.sleep(2);
+		}
+
+		List<Map<String, Object>> records = history.read(Long.MIN_VALUE, Long.MAX_VALUE, 10);
+		long second = (long) records.get(1).get(PropertyHistory.TIMESTAMP);
+		long third = (long) records.get(2).get(PropertyHistory.TIMESTAMP);
+
+		assertEquals(Arrays.asList(0.5, 1.0), values(history.read(second, third, 10)));
+		assertEquals(Arrays.asList(1.0), values(history.read(second, third, 1)));
+		assertEquals(Arrays.asList(0.5, 1.0, 1.5), values(history.read(second, Long.MAX_VALUE, 10)));
+		assertEquals(0, history.read(third + 1, second, 10).size());
+	}
+
+	@SuppressWarnings("unchecked")
+	@Test
+	public void testProvider() {
+		Submodel submodel = new Submodel("submodel", new Identifier(IdentifierType.CUSTOM, "submodelId"));
+		PrimitiveProperty temperature = new PrimitiveProperty("temperature", ValueType.Double);
+		temperature.enableHistory(100);
+		submodel.addSubmodelElement(temperature);
+		submodel.addSubmodelElement(new Property("plain", 1));
+		SubmodelProvider provider = new SubmodelProvider(new ConcurrentSubmodelAPI(submodel));
+
+		provider.setValue("/submodel/submodelElements/temperature/value", 20.5);
+		temperature.setDouble(21.0);
+		temperature.setDouble(21.5);
+
+		Collection<Map<String, Object>> records = (Collection<Map<String, Object>>) provider.getValue("/submodel/submodelElements/temperature/history");
+		assertEquals(Arrays.asList(20.5, 21.0, 21.5), values(records));
+		records = (Collection<Map<String, Object>>) provider.getValueView("/submodel/submodelElements/temperature/history?limit=1");
+		assertEquals(Arrays.asList(21.5), values(records));
+
+		ConnectedProperty connected = new ConnectedProperty(new VABElementProxy("/submodel/submodelElements/temperature", provider));
+		assertEquals(Arrays.asList(21.0, 21.5), values(connected.getHistory(new HistoryQuery(Long.MIN_VALUE, Long.MAX_VALUE, 2))));
+
+		// The history is not part of the property
+		Map<String, Object> property = (Map<String, Object>) provider.getValue("/submodel/submodelElements/temperature");
+		assertFalse(property.containsKey(PropertyHistory.HISTORY));
+
+		try {
+			provider.getValue("/submodel/submodelElements/plain/history");
+			fail();
+		} catch (ResourceNotFoundException e) {
+			// Expected
+		}
+
+		try {
+			provider.getValue("/submodel/submodelElements/temperature/history?limit=x");
+			fail();
+		} catch (MalformedRequestException e) {
+			// Expected
+		}
+	}
+
+	@Test
+	public void testQuery() {
+		HistoryQuery query = HistoryQuery.parse("history?from=10&limit=5");
+		assertEquals(10, query.getFrom());
+		assertEquals(Long.MAX_VALUE, query.getTo());
+		assertEquals(5, query.getLimit());
+		assertEquals("history?from=10&limit=5", query.toString());
+		assertEquals("history", new HistoryQuery().toString());
+	}
+
+	@Test
+	public void testConcurrentReads() throws InterruptedException {
+		PrimitiveProperty counter = new PrimitiveProperty("counter", 0L);
+		PropertyHistory history = counter.enableHistory(64);
+		AtomicBoolean running = new AtomicBoolean(true);
+		Thread updater = new Thread(() -> {
+			for (long i = 1; running.get(); i++) {
+				counter.setLong(i);
+			}
+		});
+		updater.start();
+
+		try {
+			// Records overwritten while they are read must not be returned
+			for (int i = 0; i < 10000; i++) {
+				List<Object> values = values(history.read(Long.MIN_VALUE, Long.MAX_VALUE, 64));
+				for (int j = 1; j < values.size(); j++) {
+					assertEquals((long) values.get(j - 1) + 1, values.get(j));
+				}
+			}
+		} finally {
+			running.set(false);
+			updater.join();
+		}
+	}
+
+	@Test
+	public void testConcurrentUpdates() throws InterruptedException {
+		PrimitiveProperty counter = new PrimitiveProperty("counter", 0L);
+		PropertyHistory history = counter.enableHistory(1);
+		List<Thread> updaters = new ArrayList<>();
+		List<Throwable> errors = Collections.synchronizedList(new ArrayList<>());
+		for (int i = 0; i < 4; i++) {
+			Thread updater = new Thread(() -> {
+				for (long j = 1; j <= 100000; j++) {
+					counter.setLong(j);
+				}
+			});
+			updater.setUncaughtExceptionHandler((thread, e) -> errors.add(e));
+			updaters.add(updater);
+			updater.start();
+		}
+		for (Thread updater : updaters) {
+			updater.join();
+		}
+
+		// Unserialized updates are not supported, but must not write outside of the ring
+		assertEquals(Collections.emptyList(), errors);
+		assertEquals(1, history.size());
+		assertEquals(1, history.read(Long.MIN_VALUE, Long.MAX_VALUE, 10).size());
+	}
+
+	@Test
+	public void testConcurrentUpdatesOrdered() throws InterruptedException {
+		PrimitiveProperty counter = new PrimitiveProperty("counter", 0L);
+		PropertyHistory history = counter.enableHistory(64);
+		List<Thread> updaters = new ArrayList<>();
+		List<Throwable> errors = Collections.synchronizedList(new ArrayList<>());
+		for (int i = 0; i < 4; i++) {
+			Thread updater = new Thread(() -> {
+				for (long j = 1; j <= 20000; j++) {
+					counter.setLong(j);
+				}
+			});
+			updater.setUncaughtExceptionHandler((thread, e) -> errors.add(e));
+			updaters.add(updater);
+			updater.start();
+		}
+
+		// The published records are complete and ordered by their timestamps
+		while (updaters.stream().anyMatch(Thread::isAlive)) {
+			assertAscending(history.read(Long.MIN_VALUE, Long.MAX_VALUE, 64));
+		}
+		for (Thread updater : updaters) {
+			updater.join();
+		}
+		assertEquals(Collections.emptyList(), errors);
+		assertEquals(64, history.size());
+		List<Map<String, Object>> records = history.read(Long.MIN_VALUE, Long.MAX_VALUE, 64);
+		assertEquals(64, records.size());
+		assertAscending(records);
+	}
+
+	private static void assertAscending(List<Map<String, Object>> records) {
+		for (int i = 1; i < records.size(); i++) {
+			assertTrue((long) records.get(i - 1).get(PropertyHistory.TIMESTAMP) <= (long) records.get(i).get(PropertyHistory.TIMESTAMP));
+		}
+	}
+
+	private static List<Object> values(Collection<Map<String, Object>> records) {
+		List<Object> values = new ArrayList<>();
+		for (Map<String, Object> record : records) {
+			values.add(record.get(Property.VALUE));
+		}
+		return values;
+	}
+}
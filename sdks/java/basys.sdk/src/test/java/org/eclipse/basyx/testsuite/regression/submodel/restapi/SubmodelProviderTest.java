@@ -18,8 +18,10 @@ import static org.junit.Assert.fail;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.Set;
 
 import org.eclipse.basyx.submodel.metamodel.api.submodelelement.ISubmodelElement;
 import org.eclipse.basyx.submodel.metamodel.facade.SubmodelElementMapCollectionConverter;
@@ -36,6 +38,8 @@ import org.eclipse.basyx.submodel.restapi.operation.ExecutionState;
 import org.eclipse.basyx.submodel.restapi.operation.InvocationResponse;
 import org.eclipse.basyx.testsuite.regression.submodel.metamodel.map.submodelelement.operation.AsyncOperationHelper;
 import org.eclipse.basyx.testsuite.regression.vab.protocol.http.TestsuiteDirectory;
+import org.eclipse.basyx.vab.coder.json.serialization.DefaultTypeFactory;
+import org.eclipse.basyx.vab.coder.json.serialization.GSONTools;
 import org.eclipse.basyx.vab.exception.provider.MalformedRequestException;
 import org.eclipse.basyx.vab.exception.provider.ResourceNotFoundException;
 import org.eclipse.basyx.vab.manager.VABConnectionManager;
@@ -335,6 +339,41 @@ public class SubmodelProviderTest {
 		assertEquals(8, set.size());
 	}
 
+	/**
+	 * Test that the read-only views serialize to the same values as the copies
+	 */
+	@Test
+	public void testReadViews() {
+		VABElementProxy submodel = getConnectionManager().connectToVABElement(submodelAddr);
+		GSONTools tools = new GSONTools(new DefaultTypeFactory());
+		String[] paths = { "/submodel", "/submodel/submodelElements", "/submodel/submodelElements/" + SimpleAASSubmodel.INTPROPIDSHORT,
+				"/submodel/submodelElements/containerRoot", "/submodel/submodelElements/containerRoot/container",
+				"/submodel/submodelElements/containerRoot/container/value" };
+		for (String path : paths) {
+			Object copy = tools.deserialize(tools.serialize(submodel.getValue(path)));
+			Object view = tools.deserialize(tools.serialize(submodel.getValueView(path)));
+			assertEquals(path, withoutOrder(copy), withoutOrder(view));
+		}
+	}
+
+	/**
+	 * Replaces all collections by sets, since the order of submodel elements is not
+	 * fixed
+	 */
+	@SuppressWarnings("unchecked")
+	private Object withoutOrder(Object value) {
+		if (value instanceof Map<?, ?>) {
+			Map<Object, Object> result = new HashMap<>();
+			((Map<Object, Object>) value).forEach((k, v) -> result.put(k, withoutOrder(v)));
+			return result;
+		} else if (value instanceof Collection<?>) {
+			Set<Object> result = new HashSet<>();
+			((Collection<Object>) value).forEach(o -> result.add(withoutOrder(o)));
+			return result;
+		}
+		return value;
+	}
+
 	/**
 	 * Test deleting a single property
 	 */
@@ -0,0 +1,154 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.basyx.testsuite.regression.submodel.restapi;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Collection;
+import java.util.Map;
+
+import org.eclipse.basyx.submodel.metamodel.map.Submodel;
+import org.eclipse.basyx.submodel.metamodel.map.submodelelement.SubmodelElementCollection;
+import org.eclipse.basyx.submodel.metamodel.map.submodelelement.dataelement.property.Property;
+import org.eclipse.basyx.submodel.restapi.MultiSubmodelElementProvider;
+import org.eclipse.basyx.testsuite.regression.vab.support.RecordingProvider;
+import org.eclipse.basyx.vab.exception.provider.ResourceNotFoundException;
+import org.eclipse.basyx.vab.modelprovider.VABElementProxy;
+import org.eclipse.basyx.vab.modelprovider.map.VABMapProvider;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests that the {@link MultiSubmodelElementProvider} resolves the providers of
+ * the submodel elements once and keeps them consistent with the submodel
+ *
+ * @author schnicke
+ *
+ */
+public class TestMultiSubmodelElementProvider {
+	private static final String PROPERTY_VALUE = "submodelElements/" + SimpleAASSubmodel.INTPROPIDSHORT + "/value";
+
+	private RecordingProvider backend;
+	private MultiSubmodelElementProvider provider;
+
+	@Before
+	public void build() {
+		backend = new RecordingProvider(new VABMapProvider(new SimpleAASSubmodel()));
+		provider = new MultiSubmodelElementProvider(new VABElementProxy(Submodel.SUBMODELELEMENT, backend));
+	}
+
+	@Test
+	public void testRepeatedGetReadsOnce() {
+		assertEquals(123, provider.getValue(PROPERTY_VALUE));
+
+		backend.reset();
+		assertEquals(123, provider.getValue(PROPERTY_VALUE));
+		assertEquals(1, backend.getPaths().size());
+	}
+
+	@Test
+	public void testRepeatedInvokeReadsOnce() {
+		String path = "submodelElements/" + SimpleAASSubmodel.OPERATIONSIMPLEIDSHORT + "/invoke";
+		provider.invokeOperation(path, 1, 2);
+
+		backend.reset();
+		provider.invokeOperation(path, 1, 2);
+		assertEquals(1, backend.getPaths().size());
+	}
+
+	@Test
+	public void testGetAllResolvesElements() {
+		Collection<?> elements = (Collection<?>) provider.getValue("submodelElements");
+		assertEquals(1, backend.getPaths().size());
+
+		backend.reset();
+		assertEquals(123, provider.getValue(PROPERTY_VALUE));
+		assertEquals(1, backend.getPaths().size());
+
+		// Collections are returned as they are returned when they are retrieved on their own
+		for (Object element : elements) {
+			@SuppressWarnings("unchecked")
+			Map<String, Object> map = (Map<String, Object>) element;
+			if (SubmodelElementCollection.isSubmodelElementCollection(map)) {
+				assertEquals(provider.getValue("submodelElements/" + map.get("idShort")), map);
+			}
+		}
+	}
+
+	@Test
+	public void testReplacedElement() {
+		provider.getValue(PROPERTY_VALUE);
+
+		// Replace the property by a collection
+		SubmodelElementCollection collection = new SubmodelElementCollection();
+		collection.setIdShort(SimpleAASSubmodel.INTPROPIDSHORT);
+		Property property = new Property(5);
+		property.setIdShort("nested");
+		collection.addSubmodelElement(property);
+		provider.createValue("submodelElements/" + SimpleAASSubmodel.INTPROPIDSHORT, collection);
+
+		assertEquals(5, provider.getValue("submodelElements/" + SimpleAASSubmodel.INTPROPIDSHORT + "/nested/value"));
+	}
+
+	@Test
+	public void testDeletedElement() {
+		provider.getValue(PROPERTY_VALUE);
+		provider.deleteValue("submodelElements/" + SimpleAASSubmodel.INTPROPIDSHORT);
+
+		try {
+			provider.getValue(PROPERTY_VALUE);
+			fail();
+		} catch (ResourceNotFoundException e) {
+			// Expected
+		}
+	}
+
+	@Test
+	public void testElementDeletedOnBackend() {
+		provider.getValue(PROPERTY_VALUE);
+
+		// Delete the element without the provider noticing it
+		backend.deleteValue(Submodel.SUBMODELELEMENT + "/" + SimpleAASSubmodel.INTPROPIDSHORT);
+		try {
+			provider.getValue(PROPERTY_VALUE);
+			fail();
+		} catch (ResourceNotFoundException e) {
+			// Expected
+		}
+
+		// Recreating the element on the backend resolves it again
+		Property property = new Property(7);
+		property.setIdShort(SimpleAASSubmodel.INTPROPIDSHORT);
+		backend.createValue(Submodel.SUBMODELELEMENT + "/" + SimpleAASSubmodel.INTPROPIDSHORT, property);
+		assertEquals(7, provider.getValue(PROPERTY_VALUE));
+	}
+
+	@Test
+	public void testElementReplacedOnBackend() {
+		provider.getValue(PROPERTY_VALUE);
+
+		// Replace the property by a collection without the provider noticing it
+		SubmodelElementCollection collection = new SubmodelElementCollection();
+		collection.setIdShort(SimpleAASSubmodel.INTPROPIDSHORT);
+		Property property = new Property(5);
+		property.setIdShort("nested");
+		collection.addSubmodelElement(property);
+		backend.setValue(Submodel.SUBMODELELEMENT + "/" + SimpleAASSubmodel.INTPROPIDSHORT, collection);
+
+		// Reading the element notices the other type and resolves it again
+		@SuppressWarnings("unchecked")
+		Map<String, Object> element = (Map<String, Object>) provider.getValue("submodelElements/" + SimpleAASSubmodel.INTPROPIDSHORT);
+		assertTrue(SubmodelElementCollection.isSubmodelElementCollection(element));
+		assertTrue(element.get(Property.VALUE) instanceof Collection<?>);
+		assertEquals(5, provider.getValue("submodelElements/" + SimpleAASSubmodel.INTPROPIDSHORT + "/nested/value"));
+	}
+}
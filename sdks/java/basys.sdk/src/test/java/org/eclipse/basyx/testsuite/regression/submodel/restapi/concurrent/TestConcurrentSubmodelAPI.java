@@ -0,0 +1,224 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.basyx.testsuite.regression.submodel.restapi.concurrent;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.eclipse.basyx.submodel.metamodel.api.ISubmodel;
+import org.eclipse.basyx.submodel.metamodel.api.submodelelement.ISubmodelElement;
+import org.eclipse.basyx.submodel.metamodel.map.submodelelement.dataelement.property.Property;
+import org.eclipse.basyx.submodel.metamodel.map.submodelelement.dataelement.property.valuetype.ValueType;
+import org.eclipse.basyx.submodel.restapi.SubmodelProvider;
+import org.eclipse.basyx.submodel.restapi.concurrent.ConcurrentSubmodelAPI;
+import org.eclipse.basyx.submodel.restapi.vab.VABSubmodelAPI;
+import org.eclipse.basyx.testsuite.regression.submodel.restapi.SimpleAASSubmodel;
+import org.eclipse.basyx.vab.coder.json.serialization.DefaultTypeFactory;
+import org.eclipse.basyx.vab.coder.json.serialization.GSONTools;
+import org.eclipse.basyx.vab.exception.provider.NotSupportedException;
+import org.eclipse.basyx.vab.exception.provider.ResourceNotFoundException;
+import org.eclipse.basyx.vab.modelprovider.lambda.VABLambdaProvider;
+import org.eclipse.basyx.vab.modelprovider.lambda.VABLambdaProviderHelper;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the {@link ConcurrentSubmodelAPI}, especially that the values kept in
+ * slots follow the changes of the submodel
+ *
+ * @author schnicke
+ *
+ */
+public class TestConcurrentSubmodelAPI {
+	private static final String NESTED = "containerRoot/container/" + SimpleAASSubmodel.INTPROPIDSHORT;
+
+	private SimpleAASSubmodel submodel;
+	private ConcurrentSubmodelAPI api;
+
+	@Before
+	public void build() {
+		submodel = new SimpleAASSubmodel();
+		api = new ConcurrentSubmodelAPI(submodel);
+	}
+
+	@Test
+	public void testUpdatedValue() {
+		assertEquals(123, api.getSubmodelElementValue(SimpleAASSubmodel.INTPROPIDSHORT));
+		api.updateSubmodelElement(SimpleAASSubmodel.INTPROPIDSHORT, 5);
+		assertEquals(5, api.getSubmodelElementValue(SimpleAASSubmodel.INTPROPIDSHORT));
+		assertEquals(5, api.getSubmodelElementValue("/" + SimpleAASSubmodel.INTPROPIDSHORT + "/"));
+	}
+
+	@Test
+	public void testNestedValue() {
+		assertEquals(123, api.getSubmodelElementValue(NESTED));
+		api.updateSubmodelElement(NESTED, 7);
+		assertEquals(7, api.getSubmodelElementValue(NESTED));
+	}
+
+	@Test
+	public void testChangeOnSubmodel() {
+		assertEquals("Test", api.getSubmodelElementValue("stringProperty"));
+
+		// Change the property without using the API
+		Property property = (Property) submodel.getSubmodelElement("stringProperty");
+		property.setValue("Changed");
+		assertEquals("Changed", api.getSubmodelElementValue("stringProperty"));
+	}
+
+	@Test
+	public void testReplacedProperty() {
+		assertEquals(123, api.getSubmodelElementValue(SimpleAASSubmodel.INTPROPIDSHORT));
+		api.addSubmodelElement(new Property(SimpleAASSubmodel.INTPROPIDSHORT, "replaced"));
+		assertEquals("replaced", api.getSubmodelElementValue(SimpleAASSubmodel.INTPROPIDSHORT));
+	}
+
+	@Test
+	public void testDeletedProperty() {
+		api.getSubmodelElementValue(SimpleAASSubmodel.INTPROPIDSHORT);
+		api.deleteSubmodelElement(SimpleAASSubmodel.INTPROPIDSHORT);
+		try {
+			api.getSubmodelElementValue(SimpleAASSubmodel.INTPROPIDSHORT);
+			fail();
+		} catch (ResourceNotFoundException e) {
+			// Expected
+		}
+	}
+
+	@Test
+	public void testVersionsNotSupported() {
+		try {
+			api.compareAndSetSubmodelElementValue(SimpleAASSubmodel.INTPROPIDSHORT, 0, 1);
+			fail();
+		} catch (NotSupportedException e) {
+			// Expected
+		}
+		assertEquals(123, api.getSubmodelElementValue(SimpleAASSubmodel.INTPROPIDSHORT));
+	}
+
+	@Test
+	public void testDynamicProperty() {
+		AtomicInteger counter = new AtomicInteger();
+		Property dynamic = new Property();
+		dynamic.setIdShort("dynamic");
+		dynamic.set(VABLambdaProviderHelper.createSimple((Supplier<Object>) counter::incrementAndGet, null), ValueType.Integer);
+		submodel.addSubmodelElement(dynamic);
+
+		// Dynamic values are never kept in slots
+		int first = (int) api.getSubmodelElementValue("dynamic");
+		int second = (int) api.getSubmodelElementValue("dynamic");
+		assertTrue(second > first);
+	}
+
+	@Test
+	public void testConcurrentAccess() throws Exception {
+		int threads = 8;
+		int iterations = 200;
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int t = 0; t < threads; t++) {
+				int thread = t;
+				futures.add(executor.submit(() -> {
+					String idShort = "property" + thread;
+					for (int i = 0; i < iterations; i++) {
+						// Structural changes and value changes from all threads
+						api.addSubmodelElement(new Property(idShort, i));
+						assertEquals(i, api.getSubmodelElementValue(idShort));
+						api.updateSubmodelElement(SimpleAASSubmodel.INTPROPIDSHORT, i);
+						api.getSubmodelElementValue(SimpleAASSubmodel.INTPROPIDSHORT);
+						api.getSubmodelElements();
+						api.deleteSubmodelElement(idShort);
+					}
+				}));
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} finally {
+			executor.shutdown();
+		}
+
+		// Only the initial elements are left
+		assertEquals(new SimpleAASSubmodel().getSubmodelElements().keySet(), submodel.getSubmodelElements().keySet());
+		assertTrue((int) api.getSubmodelElementValue(SimpleAASSubmodel.INTPROPIDSHORT) < iterations);
+	}
+
+	@Test
+	public void testSerializeWhileChanging() throws Exception {
+		serializeWhileChanging(api);
+
+		// Backends returning views of the submodel itself
+		serializeWhileChanging(new ConcurrentSubmodelAPI(new VABSubmodelAPI(new VABLambdaProvider(submodel)) {
+			@Override
+			public ISubmodel getSubmodel() {
+				return getSubmodelView();
+			}
+
+			@Override
+			public ISubmodelElement getSubmodelElement(String idShortPath) {
+				return getSubmodelElementView(idShortPath);
+			}
+
+			@Override
+			public Collection<ISubmodelElement> getSubmodelElements() {
+				return getSubmodelElementViews();
+			}
+		}));
+	}
+
+	private void serializeWhileChanging(ConcurrentSubmodelAPI api) throws Exception {
+		int writers = 2;
+		int readers = 4;
+		int iterations = 1000;
+		SubmodelProvider provider = new SubmodelProvider(api);
+		GSONTools tools = new GSONTools(new DefaultTypeFactory());
+		ExecutorService executor = Executors.newFixedThreadPool(writers + readers);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int t = 0; t < writers; t++) {
+				String idShortPath = "containerRoot/container/child" + t;
+				futures.add(executor.submit(() -> {
+					for (int i = 0; i < iterations; i++) {
+						api.addSubmodelElement(idShortPath, new Property(idShortPath.substring(idShortPath.lastIndexOf('/') + 1), i));
+						api.deleteSubmodelElement(idShortPath);
+					}
+				}));
+			}
+			for (int t = 0; t < readers; t++) {
+				futures.add(executor.submit(() -> {
+					for (int i = 0; i < iterations; i++) {
+						// The returned copies are serialized without holding the lock
+						tools.serialize(provider.getValue("/submodel"));
+						tools.serialize(provider.getValue("/submodel/submodelElements/containerRoot"));
+						tools.serialize(provider.getValue("/submodel/submodelElements"));
+					}
+				}));
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} finally {
+			executor.shutdown();
+		}
+
+		assertEquals(123, api.getSubmodelElementValue(NESTED));
+	}
+}
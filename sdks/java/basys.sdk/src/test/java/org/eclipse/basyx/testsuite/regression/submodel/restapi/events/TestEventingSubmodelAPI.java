@@ -0,0 +1,139 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.basyx.testsuite.regression.submodel.restapi.events;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.eclipse.basyx.submodel.metamodel.map.submodelelement.dataelement.property.Property;
+import org.eclipse.basyx.submodel.restapi.SubmodelProvider;
+import org.eclipse.basyx.submodel.restapi.events.EventingSubmodelAPI;
+import org.eclipse.basyx.submodel.restapi.events.SubmodelElementEvent;
+import org.eclipse.basyx.submodel.restapi.vab.VABSubmodelAPI;
+import org.eclipse.basyx.testsuite.regression.submodel.restapi.SimpleAASSubmodel;
+import org.eclipse.basyx.testsuite.regression.vab.modelprovider.event.CollectingSubscriber;
+import org.eclipse.basyx.vab.exception.provider.MalformedRequestException;
+import org.eclipse.basyx.vab.modelprovider.event.EventPublisher;
+import org.eclipse.basyx.vab.modelprovider.lambda.VABLambdaProvider;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the events published by the {@link EventingSubmodelAPI} through the
+ * {@link SubmodelProvider}
+ *
+ * @author schnicke
+ *
+ */
+public class TestEventingSubmodelAPI {
+	private static final String ELEMENTS = "/submodel/submodelElements/";
+
+	private SubmodelProvider provider;
+
+	@Before
+	public void build() {
+		EventingSubmodelAPI api = new EventingSubmodelAPI(new VABSubmodelAPI(new VABLambdaProvider(new SimpleAASSubmodel())), new EventPublisher<>(Runnable::run, 16));
+		provider = new SubmodelProvider(api);
+	}
+
+	@Test
+	public void testUpdateEvent() {
+		CollectingSubscriber<Object> subscriber = new CollectingSubscriber<>();
+		provider.getEventPublisher(ELEMENTS + SimpleAASSubmodel.INTPROPIDSHORT + "/value").subscribe(subscriber);
+
+		provider.setValue(ELEMENTS + SimpleAASSubmodel.INTPROPIDSHORT + "/value", 5);
+
+		List<Object> events = subscriber.getEvents();
+		assertEquals(1, events.size());
+		SubmodelElementEvent event = (SubmodelElementEvent) events.get(0);
+		assertEquals(SubmodelElementEvent.UPDATED, event.getType());
+		assertEquals(SimpleAASSubmodel.INTPROPIDSHORT, event.getIdShortPath());
+		assertEquals(5, event.getValue());
+	}
+
+	@Test
+	public void testElementFilter() {
+		CollectingSubscriber<Object> elementSubscriber = new CollectingSubscriber<>();
+		provider.getEventPublisher(ELEMENTS + SimpleAASSubmodel.INTPROPIDSHORT).subscribe(elementSubscriber);
+		CollectingSubscriber<Object> submodelSubscriber = new CollectingSubscriber<>();
+		provider.getEventPublisher("/submodel").subscribe(submodelSubscriber);
+
+		provider.setValue(ELEMENTS + "stringProperty/value", "changed");
+
+		// Only the subscriber of the whole submodel is notified
+		assertTrue(elementSubscriber.getEvents().isEmpty());
+		assertEquals(1, submodelSubscriber.getEvents().size());
+	}
+
+	@Test
+	public void testNestedElement() {
+		CollectingSubscriber<Object> subscriber = new CollectingSubscriber<>();
+		provider.getEventPublisher(ELEMENTS + "containerRoot").subscribe(subscriber);
+
+		provider.setValue(ELEMENTS + "containerRoot/container/" + SimpleAASSubmodel.INTPROPIDSHORT + "/value", 7);
+
+		// Changes of children are published to the subscribers of their parent
+		SubmodelElementEvent event = (SubmodelElementEvent) subscriber.getEvents().get(0);
+		assertEquals("containerRoot/container/" + SimpleAASSubmodel.INTPROPIDSHORT, event.getIdShortPath());
+	}
+
+	@Test
+	public void testCreateDeleteEvents() {
+		CollectingSubscriber<Object> subscriber = new CollectingSubscriber<>();
+		provider.getEventPublisher("/submodel/submodelElements").subscribe(subscriber);
+
+		Property property = new Property("newProperty", 1);
+		provider.setValue(ELEMENTS + "newProperty", property);
+		provider.deleteValue(ELEMENTS + "newProperty");
+
+		List<Object> events = subscriber.getEvents();
+		assertEquals(2, events.size());
+		assertEquals(SubmodelElementEvent.ADDED, ((SubmodelElementEvent) events.get(0)).getType());
+		SubmodelElementEvent deleted = (SubmodelElementEvent) events.get(1);
+		assertEquals(SubmodelElementEvent.DELETED, deleted.getType());
+		assertEquals("newProperty", deleted.getIdShortPath());
+		assertNull(deleted.getValue());
+	}
+
+	@Test
+	public void testNoEventsWithoutSubscribers() {
+		CollectingSubscriber<Object> subscriber = new CollectingSubscriber<>();
+		provider.getEventPublisher("/submodel").subscribe(subscriber);
+		subscriber.getSubscription().cancel();
+
+		provider.setValue(ELEMENTS + SimpleAASSubmodel.INTPROPIDSHORT + "/value", 5);
+		assertTrue(subscriber.getEvents().isEmpty());
+	}
+
+	@Test
+	public void testConcerns() {
+		SubmodelElementEvent event = SubmodelElementEvent.updated("a/b", 1);
+		assertTrue(event.concerns(""));
+		assertTrue(event.concerns("a"));
+		assertTrue(event.concerns("a/b"));
+		assertTrue(event.concerns("a/b/c"));
+		assertFalse(event.concerns("a/c"));
+		assertFalse(event.concerns("b"));
+	}
+
+	@Test(expected = MalformedRequestException.class)
+	public void testEventsNotEnabled() {
+		new SubmodelProvider(new SimpleAASSubmodel()).getEventPublisher("/submodel");
+	}
+
+	@Test(expected = MalformedRequestException.class)
+	public void testUnsupportedPath() {
+		provider.getEventPublisher("/submodel/operations");
+	}
+}
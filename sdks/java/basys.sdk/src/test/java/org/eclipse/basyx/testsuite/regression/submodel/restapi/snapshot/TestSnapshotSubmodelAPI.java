@@ -0,0 +1,288 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.basyx.testsuite.regression.submodel.restapi.snapshot;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.eclipse.basyx.submodel.metamodel.map.submodelelement.SubmodelElementCollection;
+import org.eclipse.basyx.submodel.metamodel.map.submodelelement.dataelement.property.Property;
+import org.eclipse.basyx.submodel.restapi.SubmodelProvider;
+import org.eclipse.basyx.submodel.restapi.snapshot.SnapshotSubmodelAPI;
+import org.eclipse.basyx.submodel.restapi.snapshot.SubmodelSnapshot;
+import org.eclipse.basyx.testsuite.regression.submodel.restapi.SimpleAASSubmodel;
+import org.eclipse.basyx.vab.exception.provider.MalformedRequestException;
+import org.eclipse.basyx.vab.exception.provider.ResourceNotFoundException;
+import org.eclipse.basyx.vab.exception.provider.VersionConflictException;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the {@link SnapshotSubmodelAPI}, especially that snapshots are not
+ * affected by later changes
+ *
+ * @author schnicke
+ *
+ */
+public class TestSnapshotSubmodelAPI {
+	private static final String NESTED = "containerRoot/container/" + SimpleAASSubmodel.INTPROPIDSHORT;
+
+	private SimpleAASSubmodel submodel;
+	private SnapshotSubmodelAPI api;
+
+	@Before
+	public void build() {
+		submodel = new SimpleAASSubmodel();
+		api = new SnapshotSubmodelAPI(submodel);
+	}
+
+	@Test
+	public void testSnapshotIsolation() {
+		SubmodelSnapshot before = api.getSnapshot();
+		api.updateSubmodelElement(NESTED, 7);
+		api.deleteSubmodelElement(SimpleAASSubmodel.INTPROPIDSHORT);
+
+		// The old snapshot still contains the previous state
+		assertEquals(123, before.getSubmodelElementValue(NESTED));
+		assertEquals(123, before.getSubmodelElementValue(SimpleAASSubmodel.INTPROPIDSHORT));
+
+		assertEquals(7, api.getSubmodelElementValue(NESTED));
+		try {
+			api.getSubmodelElementValue(SimpleAASSubmodel.INTPROPIDSHORT);
+			fail();
+		} catch (ResourceNotFoundException e) {
+			// Expected
+		}
+	}
+
+	@Test
+	public void testVersion() {
+		long version = api.getVersion();
+		api.updateSubmodelElement(SimpleAASSubmodel.INTPROPIDSHORT, 5);
+		api.addSubmodelElement(new Property("added", "x"));
+		assertEquals(version + 2, api.getVersion());
+
+		// Failed changes do not create new versions
+		try {
+			api.deleteSubmodelElement("missing");
+			fail();
+		} catch (ResourceNotFoundException e) {
+			// Expected
+		}
+		assertEquals(version + 2, api.getSnapshot().getVersion());
+	}
+
+	@Test
+	public void testCopies() {
+		// Neither the passed submodel nor the returned copies are shared with the snapshot
+		Property property = (Property) submodel.getSubmodelElement("stringProperty");
+		property.setValue("Changed");
+		assertEquals("Test", api.getSubmodelElementValue("stringProperty"));
+
+		api.getSubmodel().getSubmodelElements().clear();
+		assertFalse(api.getSubmodelElements().isEmpty());
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void testReadOnlyView() {
+		Property property = (Property) api.getSubmodel().getSubmodelElement("stringProperty");
+		assertEquals("Test", property.getValue());
+		property.setValue("Changed");
+	}
+
+	@Test
+	public void testAddNested() {
+		api.addSubmodelElement("containerRoot/added", new Property("added", 1));
+		assertEquals(1, api.getSubmodelElementValue("containerRoot/added"));
+		api.deleteSubmodelElement("containerRoot/added");
+		try {
+			api.getSubmodelElement("containerRoot/added");
+			fail();
+		} catch (ResourceNotFoundException e) {
+			// Expected
+		}
+	}
+
+	@Test
+	public void testConcurrentAccess() throws Exception {
+		int threads = 8;
+		int iterations = 200;
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		long version = api.getVersion();
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int t = 0; t < threads; t++) {
+				int thread = t;
+				futures.add(executor.submit(() -> {
+					String idShort = "property" + thread;
+					for (int i = 0; i < iterations; i++) {
+						api.addSubmodelElement(new Property(idShort, i));
+						assertEquals(i, api.getSubmodelElementValue(idShort));
+						api.updateSubmodelElement(NESTED, i);
+						api.getSubmodelElements();
+						api.deleteSubmodelElement(idShort);
+					}
+				}));
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} finally {
+			executor.shutdown();
+		}
+
+		// No change has been lost
+		assertEquals(version + 3 * threads * iterations, api.getVersion());
+		assertEquals(submodel.getSubmodelElements().keySet(), api.getSubmodel().getSubmodelElements().keySet());
+	}
+
+	@Test
+	public void testElementVersions() {
+		long nested = api.getSubmodelElementVersion(NESTED);
+		long sibling = api.getSubmodelElementVersion(SimpleAASSubmodel.INTPROPIDSHORT);
+
+		// Changes of an element change the versions of the collections containing it
+		api.updateSubmodelElement(NESTED, 1);
+		long changed = api.getSubmodelElementVersion(NESTED);
+		assertTrue(changed > nested);
+		assertEquals(changed, api.getSubmodelElementVersion("containerRoot"));
+		assertEquals(sibling, api.getSubmodelElementVersion(SimpleAASSubmodel.INTPROPIDSHORT));
+
+		// Changes of a collection change the versions of the elements it contains
+		api.deleteSubmodelElement("containerRoot/container");
+		api.addSubmodelElement("containerRoot/container", new SubmodelElementCollection("container"));
+		api.addSubmodelElement(NESTED, new Property(SimpleAASSubmodel.INTPROPIDSHORT, 2));
+		assertEquals(api.getSubmodelElementVersion("containerRoot/container"), api.getSubmodelElementVersion(NESTED));
+		assertTrue(api.getSubmodelElementVersion(NESTED) > changed);
+
+		try {
+			api.getSubmodelElementVersion("missing");
+			fail();
+		} catch (ResourceNotFoundException e) {
+			// Expected
+		}
+	}
+
+	@Test
+	public void testCompareAndSet() {
+		long version = api.getSubmodelElementVersion(NESTED);
+		long next = api.compareAndSetSubmodelElementValue(NESTED, version, 1);
+		assertEquals(next, api.getSubmodelElementVersion(NESTED));
+		assertEquals(1, api.getSubmodelElementValue(NESTED));
+
+		// Updates based on an outdated version are rejected
+		try {
+			api.compareAndSetSubmodelElementValue(NESTED, version, 2);
+			fail();
+		} catch (VersionConflictException e) {
+			// Expected
+		}
+		assertEquals(1, api.getSubmodelElementValue(NESTED));
+
+		try {
+			api.compareAndSetSubmodelElementValue(NESTED, -1, 2);
+			fail();
+		} catch (MalformedRequestException e) {
+			// Expected
+		}
+	}
+
+	@Test
+	public void testCompareAndSetSibling() {
+		String sibling = "containerRoot/container/sibling";
+		api.addSubmodelElement(sibling, new Property("sibling", 0));
+		long version = api.getSubmodelElementVersion(NESTED);
+		long container = api.getSubmodelElementVersion("containerRoot/container");
+
+		// Changes of other elements in the same collection do not conflict
+		api.updateSubmodelElement(sibling, 1);
+		assertEquals(version, api.getSubmodelElementVersion(NESTED));
+		assertTrue(api.getSubmodelElementVersion("containerRoot/container") > container);
+		api.compareAndSetSubmodelElementValue(NESTED, version, 1);
+		assertEquals(1, api.getSubmodelElementValue(NESTED));
+	}
+
+	@Test
+	public void testCompareAndSetProvider() {
+		SubmodelProvider provider = new SubmodelProvider(api);
+		String path = "/submodel/submodelElements/" + NESTED;
+		long version = provider.getVersion(path);
+		assertEquals(version, provider.getVersion(path + "/value"));
+
+		long next = provider.compareAndSet(path + "/value", version, 3);
+		assertEquals(3, provider.getValue(path + "/value"));
+		try {
+			provider.compareAndSet(path + "/value", version, 4);
+			fail();
+		} catch (VersionConflictException e) {
+			// Expected
+		}
+		assertEquals(next, provider.getVersion(path));
+	}
+
+	@Test
+	public void testSupportsVersions() {
+		SubmodelProvider provider = new SubmodelProvider(api);
+		String path = "/submodel/submodelElements/" + NESTED;
+		assertTrue(provider.supportsVersions(path));
+		assertTrue(provider.supportsVersions(path + "/value"));
+		assertFalse(provider.supportsVersions("/submodel"));
+		assertFalse(provider.supportsVersions("/submodel/submodelElements"));
+
+		// Submodel APIs without versions do not support them for any path
+		assertFalse(new SubmodelProvider(submodel).supportsVersions(path));
+	}
+
+	@Test
+	public void testConcurrentCompareAndSet() throws Exception {
+		int threads = 8;
+		int increments = 100;
+		api.updateSubmodelElement(NESTED, 0);
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int t = 0; t < threads; t++) {
+				futures.add(executor.submit(() -> {
+					for (int i = 0; i < increments; i++) {
+						// Retries the increment until it is based on the current value
+						while (true) {
+							long version = api.getSubmodelElementVersion(NESTED);
+							int value = (int) api.getSubmodelElementValue(NESTED);
+							try {
+								api.compareAndSetSubmodelElementValue(NESTED, version, value + 1);
+								break;
+							} catch (VersionConflictException e) {
+								// Retry
+							}
+							// Changes of other elements do not affect the version
+							api.updateSubmodelElement(SimpleAASSubmodel.INTPROPIDSHORT, i);
+						}
+					}
+				}));
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} finally {
+			executor.shutdown();
+		}
+
+		// No increment has been lost
+		assertEquals(threads * increments, api.getSubmodelElementValue(NESTED));
+	}
+}
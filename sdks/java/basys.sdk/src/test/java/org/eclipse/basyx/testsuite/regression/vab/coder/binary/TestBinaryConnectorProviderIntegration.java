@@ -0,0 +1,53 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.basyx.testsuite.regression.vab.coder.binary;
+
+import java.nio.charset.StandardCharsets;
+
+import org.eclipse.basyx.testsuite.regression.vab.coder.json.IBasyxConnectorFacade;
+import org.eclipse.basyx.testsuite.regression.vab.modelprovider.SimpleVABElement;
+import org.eclipse.basyx.testsuite.regression.vab.modelprovider.TestProvider;
+import org.eclipse.basyx.testsuite.regression.vab.protocol.http.TestsuiteDirectory;
+import org.eclipse.basyx.vab.coder.binary.serialization.BinaryTools;
+import org.eclipse.basyx.vab.coder.json.connector.JSONConnector;
+import org.eclipse.basyx.vab.coder.json.provider.JSONProvider;
+import org.eclipse.basyx.vab.coder.json.serialization.DefaultTypeFactory;
+import org.eclipse.basyx.vab.manager.VABConnectionManager;
+import org.eclipse.basyx.vab.modelprovider.api.IModelProvider;
+import org.eclipse.basyx.vab.modelprovider.map.VABMapProvider;
+import org.eclipse.basyx.vab.protocol.api.ConnectorFactory;
+
+/**
+ * Test JSONConnector against JSONProvider using the binary encoding
+ *
+ * @author schnicke
+ *
+ */
+public class TestBinaryConnectorProviderIntegration extends TestProvider {
+
+	protected VABConnectionManager connManager = new VABConnectionManager(new TestsuiteDirectory(),
+			new ConnectorFactory() {
+
+				@Override
+				protected IModelProvider createProvider(String addr) {
+					VABMapProvider modelprovider = new VABMapProvider(new SimpleVABElement());
+
+					JSONProvider<VABMapProvider> provider = new JSONProvider<VABMapProvider>(modelprovider, new BinaryTools(new DefaultTypeFactory()));
+
+					// Binary messages are carried as ISO-8859-1 Strings
+					return new JSONConnector(new IBasyxConnectorFacade<VABMapProvider>(provider, StandardCharsets.ISO_8859_1), new BinaryTools(new DefaultTypeFactory()));
+				}
+			});
+
+	@Override
+	protected VABConnectionManager getConnectionManager() {
+		return connManager;
+	}
+}
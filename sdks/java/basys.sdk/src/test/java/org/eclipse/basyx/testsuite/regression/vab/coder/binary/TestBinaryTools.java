@@ -0,0 +1,245 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.basyx.testsuite.regression.vab.coder.binary;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.eclipse.basyx.vab.coder.binary.serialization.BinaryTools;
+import org.eclipse.basyx.vab.coder.json.serialization.DefaultTypeFactory;
+import org.eclipse.basyx.vab.coder.json.serialization.GSONTools;
+import org.eclipse.basyx.vab.exception.provider.MalformedRequestException;
+import org.junit.Test;
+
+/**
+ * Tests the binary (de-)serialization of {@link BinaryTools}
+ *
+ * @author schnicke
+ *
+ */
+public class TestBinaryTools {
+	private BinaryTools tools = new BinaryTools(new DefaultTypeFactory());
+
+	@Test
+	public void testPrimitives() throws IOException {
+		assertRoundTrip(12);
+		assertRoundTrip(-12);
+		assertRoundTrip(Integer.MIN_VALUE);
+		assertRoundTrip(Integer.MAX_VALUE);
+		assertRoundTrip(12L);
+		assertRoundTrip(Long.MIN_VALUE);
+		assertRoundTrip(Long.MAX_VALUE);
+		assertRoundTrip(new BigInteger("-10000000000000000000000000000000000000"));
+		assertRoundTrip(new BigDecimal("-1234.5678"));
+		assertRoundTrip(12.3);
+		assertRoundTrip(Double.NaN);
+		assertRoundTrip(1.5f);
+		assertRoundTrip(true);
+		assertRoundTrip(false);
+		assertRoundTrip("HelloWorld");
+		assertRoundTrip("\"äöü\" € \n");
+		assertRoundTrip("");
+		assertRoundTrip(null);
+	}
+
+	@Test
+	public void testWidening() throws IOException {
+		assertEquals(3, serializeAndDeserialize((short) 3));
+		assertEquals(4, serializeAndDeserialize((byte) 4));
+		assertEquals("c", serializeAndDeserialize('c'));
+	}
+
+	@Test
+	public void testListAndSet() throws IOException {
+		List<Object> list = Arrays.asList(1, "2", 3L, null);
+		Object deserializedList = serializeAndDeserialize(list);
+		assertTrue(deserializedList instanceof List<?>);
+		assertEquals(list, deserializedList);
+
+		Set<Object> set = new LinkedHashSet<>(Arrays.asList(1, 2, 3));
+		Object deserializedSet = serializeAndDeserialize(set);
+		assertTrue(deserializedSet instanceof Set<?>);
+		assertEquals(set, deserializedSet);
+	}
+
+	@Test
+	public void testNestedStructure() throws IOException {
+		Map<String, Object> inner = new HashMap<>();
+		inner.put("x", 123);
+		inner.put("set", new LinkedHashSet<>(Arrays.asList("a", "b")));
+		inner.put("list", Arrays.asList(1.0, 2.0));
+
+		Map<String, Object> root = new HashMap<>();
+		root.put("a", inner);
+		root.put("b", Arrays.asList("1", inner));
+		assertRoundTrip(root);
+	}
+
+	@Test
+	public void testRepeatedStrings() throws IOException {
+		StringBuilder builder = new StringBuilder();
+		for (int i = 0; i < 10000; i++) {
+			builder.append(i % 2 == 0 ? 'a' : 'ä');
+		}
+		String longString = builder.toString();
+
+		List<Object> list = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			Map<String, Object> map = new HashMap<>();
+			map.put("idShort", "property" + (i % 10));
+			map.put("äöü", "äöü");
+			map.put("long", longString);
+			list.add(map);
+		}
+		assertRoundTrip(list);
+	}
+
+	@Test
+	public void testRemoveNullAndEmpty() throws IOException {
+		Map<String, Object> map = new LinkedHashMap<>();
+		map.put("nullValue", null);
+		map.put("emptyList", new ArrayList<>());
+		map.put("value", 1);
+
+		Map<?, ?> result = (Map<?, ?>) serializeAndDeserialize(new BinaryTools(new DefaultTypeFactory(), true, true), map);
+		assertEquals(1, result.size());
+		assertEquals(1, result.get("value"));
+
+		result = (Map<?, ?>) serializeAndDeserialize(new BinaryTools(new DefaultTypeFactory(), false, false), map);
+		assertEquals(map, result);
+
+		// Null values in collections are always kept
+		List<Object> list = Arrays.asList(null, 1);
+		assertEquals(list, serializeAndDeserialize(new BinaryTools(new DefaultTypeFactory(), true, true), list));
+	}
+
+	@SuppressWarnings("unchecked")
+	@Test
+	public void testFunctions() throws IOException {
+		Supplier<Object> operation = () -> 5;
+		assertEquals(GSONTools.BASYXINVOCABLE, serializeAndDeserialize(operation));
+
+		Function<Object[], Object> serializable = (Function<Object[], Object> & Serializable) (v) -> (int) v[0] + 1;
+		Function<Object[], Object> deserialized = (Function<Object[], Object>) serializeAndDeserialize(serializable);
+		assertEquals(3, deserialized.apply(new Object[] { 2 }));
+	}
+
+	@Test
+	public void testStringCarrier() {
+		Map<String, Object> map = new HashMap<>();
+		map.put("key", Arrays.asList("äöü", 1L, new BigInteger("123456789012345678901234567890")));
+
+		String serialized = tools.serialize(map);
+		assertEquals(map, tools.deserialize(serialized));
+	}
+
+	@Test
+	public void testEmptyInput() throws IOException {
+		assertNull(tools.deserialize(""));
+		assertNull(tools.deserialize(new ByteArrayInputStream(new byte[0])));
+	}
+
+	@Test(expected = MalformedRequestException.class)
+	public void testIncompleteDocument() {
+		String serialized = tools.serialize(Arrays.asList(1, 2, 3));
+		tools.deserialize(serialized.substring(0, serialized.length() - 1));
+	}
+
+	@Test(expected = MalformedRequestException.class)
+	public void testTrailingData() {
+		tools.deserialize(tools.serialize(1) + tools.serialize(2));
+	}
+
+	@Test(expected = MalformedRequestException.class)
+	public void testUnknownVersion() {
+		tools.deserialize("[1]");
+	}
+
+	@Test
+	public void testSmallerThanJson() {
+		Collection<Object> values = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			Map<String, Object> map = new HashMap<>();
+			map.put("idShort", "property" + i);
+			map.put("value", i * 1000);
+			values.add(map);
+		}
+		String binary = tools.serialize(values);
+		String json = new GSONTools(new DefaultTypeFactory()).serialize(values);
+		assertFalse(binary.length() >= json.length());
+	}
+
+	private void assertRoundTrip(Object value) throws IOException {
+		Object deserialized = serializeAndDeserialize(value);
+		assertEquals(value, deserialized);
+		if (value != null) {
+			assertEquals(value.getClass(), deserialized.getClass());
+		}
+	}
+
+	@Test
+	public void testMediaType() {
+		assertTrue(BinaryTools.isBinaryMediaType(BinaryTools.MEDIATYPE));
+		assertTrue(BinaryTools.isBinaryMediaType("Application/X-BaSyx-Binary; charset=ISO-8859-1"));
+		assertFalse(BinaryTools.isBinaryMediaType("application/x-basyx-binary-v2"));
+		assertFalse(BinaryTools.isBinaryMediaType("application/json"));
+		assertFalse(BinaryTools.isBinaryMediaType(null));
+	}
+
+	@Test
+	public void testAccept() {
+		assertTrue(BinaryTools.isBinaryAccepted(BinaryTools.MEDIATYPE));
+		assertTrue(BinaryTools.isBinaryAccepted("application/json;q=0.5, application/x-basyx-binary"));
+		assertTrue(BinaryTools.isBinaryAccepted("application/x-basyx-binary, */*"));
+
+		// Excluded or less preferred than JSON
+		assertFalse(BinaryTools.isBinaryAccepted("application/json, application/x-basyx-binary;q=0"));
+		assertFalse(BinaryTools.isBinaryAccepted("application/x-basyx-binary;q=0.5, application/json"));
+		assertFalse(BinaryTools.isBinaryAccepted("application/x-basyx-binary;q=0.5, application/*;q=0.8"));
+
+		// The most specific range determines the quality of JSON
+		assertTrue(BinaryTools.isBinaryAccepted("application/x-basyx-binary;q=0.5, application/json;q=0.1, */*"));
+
+		// Wildcards alone do not select the binary encoding
+		assertFalse(BinaryTools.isBinaryAccepted("*/*"));
+		assertFalse(BinaryTools.isBinaryAccepted("application/x-basyx-binary-v2"));
+		assertFalse(BinaryTools.isBinaryAccepted(null));
+	}
+
+	private Object serializeAndDeserialize(Object value) throws IOException {
+		return serializeAndDeserialize(tools, value);
+	}
+
+	private Object serializeAndDeserialize(BinaryTools tools, Object value) throws IOException {
+		ByteArrayOutputStream outStream = new ByteArrayOutputStream();
+		tools.serialize(value, outStream);
+		return tools.deserialize(new ByteArrayInputStream(outStream.toByteArray()));
+	}
+}
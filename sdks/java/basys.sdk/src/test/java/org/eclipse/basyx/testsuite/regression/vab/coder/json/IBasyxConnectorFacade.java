@@ -9,14 +9,16 @@
  ******************************************************************************/
 package org.eclipse.basyx.testsuite.regression.vab.coder.json;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.UnsupportedEncodingException;
+import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 
 import org.eclipse.basyx.vab.coder.json.provider.JSONProvider;
 import org.eclipse.basyx.vab.exception.provider.ProviderException;
 import org.eclipse.basyx.vab.modelprovider.api.IModelProvider;
-import org.eclipse.basyx.vab.protocol.api.IBaSyxConnector;
+import org.eclipse.basyx.vab.protocol.api.IBaSyxVersionConnector;
 
 /**
  * This class is required for Meta-protocol integration testing. It makes
@@ -27,12 +29,23 @@ import org.eclipse.basyx.vab.protocol.api.IBaSyxConnector;
  * @param <T>
  *            should be VABMapProvider or stub
  */
-public class IBasyxConnectorFacade<T extends IModelProvider> implements IBaSyxConnector {
+public class IBasyxConnectorFacade<T extends IModelProvider> implements IBaSyxVersionConnector {
 	
 	JSONProvider<T> provider;
+	Charset charset;
 	
 	public IBasyxConnectorFacade(JSONProvider<T> p) {
+		this(p, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * @param p
+	 * @param charset
+	 *            charset used to represent the serialized messages as String
+	 */
+	public IBasyxConnectorFacade(JSONProvider<T> p, Charset charset) {
 		provider = p;
+		this.charset = charset;
 	}
 
 	/**
@@ -45,7 +58,7 @@ public class IBasyxConnectorFacade<T extends IModelProvider> implements IBaSyxCo
 		provider.processBaSysGet(path, outputStream);
 		
 		try {
-			return outputStream.toString(StandardCharsets.UTF_8.displayName());
+			return outputStream.toString(charset.displayName());
 		} catch (UnsupportedEncodingException e) {
 			throw new RuntimeException("Should not happen...");
 		}
@@ -61,7 +74,7 @@ public class IBasyxConnectorFacade<T extends IModelProvider> implements IBaSyxCo
 		provider.processBaSysSet(path, newValue, outputStream);
 		
 		try {
-			return outputStream.toString(StandardCharsets.UTF_8.displayName());
+			return outputStream.toString(charset.displayName());
 		} catch (UnsupportedEncodingException e) {
 			throw new RuntimeException("Should not happen...");
 		}
@@ -77,7 +90,7 @@ public class IBasyxConnectorFacade<T extends IModelProvider> implements IBaSyxCo
 		provider.processBaSysCreate(path, newEntity, outputStream);
 		
 		try {
-			return outputStream.toString(StandardCharsets.UTF_8.displayName());
+			return outputStream.toString(charset.displayName());
 		} catch (UnsupportedEncodingException e) {
 			throw new RuntimeException("Should not happen...");
 		}	
@@ -90,11 +103,11 @@ public class IBasyxConnectorFacade<T extends IModelProvider> implements IBaSyxCo
 	@Override
 	public String deleteValue(String path) throws ProviderException {
 		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-		String nullParam = "null";
+		String nullParam = provider.getStreamingSerializer().serialize(null);
 		provider.processBaSysDelete(path, nullParam, outputStream);
 		
 		try {
-			return outputStream.toString(StandardCharsets.UTF_8.displayName());
+			return outputStream.toString(charset.displayName());
 		} catch (UnsupportedEncodingException e) {
 			throw new RuntimeException("Should not happen...");
 		}
@@ -110,7 +123,7 @@ public class IBasyxConnectorFacade<T extends IModelProvider> implements IBaSyxCo
 		provider.processBaSysDelete(path, obj, outputStream);
 		
 		try {
-			return outputStream.toString(StandardCharsets.UTF_8.displayName());
+			return outputStream.toString(charset.displayName());
 		} catch (UnsupportedEncodingException e) {
 			throw new RuntimeException("Should not happen...");
 		}
@@ -126,7 +139,39 @@ public class IBasyxConnectorFacade<T extends IModelProvider> implements IBaSyxCo
 		provider.processBaSysInvoke(path, jsonObject, outputStream);
 		
 		try {
-			return outputStream.toString(StandardCharsets.UTF_8.displayName());
+			return outputStream.toString(charset.displayName());
+		} catch (UnsupportedEncodingException e) {
+			throw new RuntimeException("Should not happen...");
+		}
+	}
+
+	/**
+	 * Calls JSONProvider and writes result into outputstream to simulate response
+	 * message
+	 */
+	@Override
+	public String getVersion(String path) throws ProviderException {
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		provider.processBaSysGetVersion(path, outputStream);
+		
+		try {
+			return outputStream.toString(charset.displayName());
+		} catch (UnsupportedEncodingException e) {
+			throw new RuntimeException("Should not happen...");
+		}
+	}
+
+	/**
+	 * Calls JSONProvider and writes result into outputstream to simulate response
+	 * message
+	 */
+	@Override
+	public String compareAndSet(String path, long expectedVersion, String newValue) throws ProviderException {
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		provider.processBaSysCompareAndSet(path, expectedVersion, new ByteArrayInputStream(newValue.getBytes(charset)), outputStream);
+		
+		try {
+			return outputStream.toString(charset.displayName());
 		} catch (UnsupportedEncodingException e) {
 			throw new RuntimeException("Should not happen...");
 		}
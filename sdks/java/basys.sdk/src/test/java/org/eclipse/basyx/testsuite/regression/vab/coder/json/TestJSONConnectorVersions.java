@@ -0,0 +1,81 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.basyx.testsuite.regression.vab.coder.json;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.eclipse.basyx.submodel.restapi.SubmodelProvider;
+import org.eclipse.basyx.submodel.restapi.snapshot.SnapshotSubmodelAPI;
+import org.eclipse.basyx.testsuite.regression.submodel.restapi.SimpleAASSubmodel;
+import org.eclipse.basyx.vab.coder.json.connector.JSONConnector;
+import org.eclipse.basyx.vab.coder.json.provider.JSONProvider;
+import org.eclipse.basyx.vab.exception.provider.NotSupportedException;
+import org.eclipse.basyx.vab.exception.provider.VersionConflictException;
+import org.eclipse.basyx.vab.modelprovider.VABElementProxy;
+import org.junit.Test;
+
+/**
+ * Tests that versions and conditional changes are forwarded by the
+ * {@link VABElementProxy} and the {@link JSONConnector} to the
+ * {@link JSONProvider}
+ *
+ * @author schnicke
+ *
+ */
+public class TestJSONConnectorVersions {
+	private static final String NESTED = "submodelElements/containerRoot/container/" + SimpleAASSubmodel.INTPROPIDSHORT;
+
+	private static VABElementProxy connect(SubmodelProvider submodelProvider) {
+		JSONProvider<SubmodelProvider> provider = new JSONProvider<>(submodelProvider);
+		return new VABElementProxy("/submodel", new JSONConnector(new IBasyxConnectorFacade<>(provider)));
+	}
+
+	@Test
+	public void testCompareAndSet() {
+		VABElementProxy proxy = connect(new SubmodelProvider(new SnapshotSubmodelAPI(new SimpleAASSubmodel())));
+		long version = proxy.getVersion(NESTED);
+		assertEquals(version, proxy.getVersion(NESTED + "/value"));
+
+		long next = proxy.compareAndSet(NESTED + "/value", version, 5);
+		assertTrue(next > version);
+		assertEquals(next, proxy.getVersion(NESTED));
+		assertEquals(5, proxy.getValue(NESTED + "/value"));
+
+		// Changes based on an outdated version are rejected
+		try {
+			proxy.compareAndSet(NESTED + "/value", version, 6);
+			fail();
+		} catch (VersionConflictException e) {
+			// Expected
+		}
+		assertEquals(5, proxy.getValue(NESTED + "/value"));
+	}
+
+	@Test
+	public void testVersionsNotSupported() {
+		VABElementProxy proxy = connect(new SubmodelProvider(new SimpleAASSubmodel()));
+		try {
+			proxy.getVersion(NESTED);
+			fail();
+		} catch (NotSupportedException e) {
+			// Expected
+		}
+
+		try {
+			proxy.compareAndSet(NESTED + "/value", 0, 6);
+			fail();
+		} catch (NotSupportedException e) {
+			// Expected
+		}
+		assertEquals(123, proxy.getValue(NESTED + "/value"));
+	}
+}
@@ -0,0 +1,118 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.basyx.testsuite.regression.vab.coder.json;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.basyx.vab.coder.json.metaprotocol.Result;
+import org.eclipse.basyx.vab.coder.json.provider.JSONProvider;
+import org.eclipse.basyx.vab.coder.json.serialization.DefaultTypeFactory;
+import org.eclipse.basyx.vab.coder.json.serialization.GSONTools;
+import org.eclipse.basyx.vab.exception.provider.ProviderException;
+import org.eclipse.basyx.vab.modelprovider.map.VABMapProvider;
+import org.junit.Test;
+
+/**
+ * Tests that the {@link JSONProvider} does not append exceptions to partially
+ * written responses
+ *
+ * @author schnicke
+ *
+ */
+public class TestJSONProviderResponses {
+	/**
+	 * Value that can not be serialized completely. Serializing it fails after the
+	 * given number of bytes.
+	 */
+	private static class FailingValue {
+		private final int size;
+
+		private FailingValue(int size) {
+			this.size = size;
+		}
+	}
+
+	/**
+	 * Serializer that writes parts of {@link FailingValue}s before it fails
+	 */
+	private static class FailingSerializer extends GSONTools {
+		private FailingSerializer() {
+			super(new DefaultTypeFactory());
+		}
+
+		@Override
+		public void serialize(Object obj, OutputStream outputStream) throws IOException {
+			if (obj instanceof FailingValue) {
+				byte[] part = new byte[1024];
+				for (int i = 0; i < ((FailingValue) obj).size; i += part.length) {
+					outputStream.write(part);
+				}
+				throw new IOException("Serialization failed");
+			}
+			super.serialize(obj, outputStream);
+		}
+	}
+
+	private JSONProvider<VABMapProvider> createProvider() {
+		Map<String, Object> model = new HashMap<>();
+		model.put("small", new FailingValue(1024));
+		model.put("large", new FailingValue(2 * JSONProvider.RESPONSE_BUFFER_SIZE));
+		model.put("value", 5);
+		return new JSONProvider<>(new VABMapProvider(model), new FailingSerializer());
+	}
+
+	@Test
+	public void testFailureBeforeWriting() {
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		try {
+			createProvider().processBaSysGet("/small", outputStream);
+			fail();
+		} catch (ProviderException e) {
+			// Expected
+		}
+
+		// Only the serialized exception is sent
+		Object result = new GSONTools(new DefaultTypeFactory()).deserialize(new String(outputStream.toByteArray(), StandardCharsets.UTF_8));
+		assertEquals(false, ((Map<?, ?>) result).get(Result.SUCCESS));
+	}
+
+	@Test
+	public void testFailureAfterWriting() {
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		try {
+			createProvider().processBaSysGet("/large", outputStream);
+			fail();
+		} catch (ProviderException e) {
+			// Expected
+		}
+
+		// No exception is appended to the partial value
+		String written = new String(outputStream.toByteArray(), StandardCharsets.UTF_8);
+		assertTrue(written.length() > JSONProvider.RESPONSE_BUFFER_SIZE);
+		assertFalse(written.contains(Result.SUCCESS));
+	}
+
+	@Test
+	public void testSuccess() {
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		createProvider().processBaSysGet("/value", outputStream);
+		assertEquals("5", new String(outputStream.toByteArray(), StandardCharsets.UTF_8));
+	}
+}
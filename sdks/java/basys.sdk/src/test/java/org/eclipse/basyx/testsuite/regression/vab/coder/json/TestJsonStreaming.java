@@ -0,0 +1,152 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.basyx.testsuite.regression.vab.coder.json;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.Serializable;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.eclipse.basyx.vab.coder.json.serialization.DefaultTypeFactory;
+import org.eclipse.basyx.vab.coder.json.serialization.GSONTools;
+import org.junit.Test;
+
+/**
+ * Tests if the streaming (de-)serialization behaves exactly like the String
+ * based (de-)serialization
+ * 
+ * @author schnicke
+ *
+ */
+public class TestJsonStreaming {
+
+	@Test
+	public void testPrimitives() throws IOException {
+		assertSameOutput(12);
+		assertSameOutput(12.3);
+		assertSameOutput(Long.MAX_VALUE);
+		assertSameOutput(new BigInteger("10000000000000000000000000000000000000"));
+		assertSameOutput(Float.NaN);
+		assertSameOutput(true);
+		assertSameOutput("HelloWorld");
+		assertSameOutput(null);
+	}
+
+	@Test
+	public void testEscaping() throws IOException {
+		assertSameOutput("<a href='x'>\"äöü\" &   \n</a>");
+
+		Map<String, Object> map = new LinkedHashMap<>();
+		map.put("<key>", "=value=");
+		assertSameOutput(map);
+	}
+
+	@Test
+	public void testNestedStructure() throws IOException {
+		Map<String, Object> inner = new LinkedHashMap<>();
+		inner.put("x", 123);
+		inner.put("nullValue", null);
+		inner.put("emptyList", new ArrayList<>());
+		inner.put("set", new HashSet<>(Arrays.asList(1, 2, 3)));
+
+		Map<String, Object> root = new LinkedHashMap<>();
+		root.put("a", inner);
+		root.put("b", Arrays.asList("1", null, inner));
+		root.put("c", new ArrayList<>());
+		assertSameOutput(root);
+	}
+
+	@SuppressWarnings("unchecked")
+	@Test
+	public void testFunctions() throws IOException {
+		Map<String, Object> map = new LinkedHashMap<>();
+		map.put("operation", (Function<Object[], Object>) (v) -> v[0]);
+		map.put("lambda", (Supplier<Object> & Serializable) () -> 5);
+		assertSameOutput(map);
+	}
+
+	@Test
+	public void testDeserializeNumbers() throws IOException {
+		assertEquals(0, deserialize("0"));
+		assertEquals(-12, deserialize("-12"));
+		assertEquals(Integer.MAX_VALUE, deserialize(Integer.toString(Integer.MAX_VALUE)));
+		assertEquals(Integer.MIN_VALUE, deserialize(Integer.toString(Integer.MIN_VALUE)));
+		assertEquals(Integer.MAX_VALUE + 1L, deserialize(Long.toString(Integer.MAX_VALUE + 1L)));
+		assertEquals(Integer.MIN_VALUE - 1L, deserialize(Long.toString(Integer.MIN_VALUE - 1L)));
+		assertEquals(Long.MAX_VALUE, deserialize(Long.toString(Long.MAX_VALUE)));
+		assertEquals(Long.MIN_VALUE, deserialize(Long.toString(Long.MIN_VALUE)));
+		assertEquals(new BigInteger("9223372036854775808"), deserialize("9223372036854775808"));
+		assertEquals(new BigInteger("-10000000000000000000000000000000000000"), deserialize("-10000000000000000000000000000000000000"));
+		assertEquals(1.0, deserialize("1.0"));
+		assertEquals(-12.5, deserialize("-12.5"));
+		assertEquals(1.0E20, deserialize("100000000000000000000.0"));
+	}
+
+	@Test
+	public void testDeserializeStructures() throws IOException {
+		assertSameInput("{\"a\": { \"x\" : 123, \"y\": null}, \"b\": [\"123\", 1.5, true, [], {}]}");
+		assertSameInput("[{\"index\": 0, \"value\": \"<&>\"}, 2, 3]");
+		assertSameInput("\"HelloWorld\"");
+		assertSameInput("false");
+		assertSameInput("{\"op\": {\"" + GSONTools.BASYXFUNCTIONTYPE + "\": \"" + GSONTools.OPERATION + "\"}}");
+	}
+
+	@Test
+	public void testDeserializeEmpty() throws IOException {
+		assertNull(deserialize(""));
+		assertNull(deserialize("null"));
+	}
+
+	@Test(expected = RuntimeException.class)
+	public void testDeserializeIncompleteDocument() throws IOException {
+		deserialize("{\"a\": 1");
+	}
+
+	@Test(expected = RuntimeException.class)
+	public void testDeserializeTrailingData() throws IOException {
+		deserialize("{\"a\": 1} {\"b\": 2}");
+	}
+
+	private Object deserialize(String json) throws IOException {
+		GSONTools tools = new GSONTools(new DefaultTypeFactory());
+		Object result = tools.deserialize(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+		assertEquals(tools.deserialize(json), result);
+		return result;
+	}
+
+	private void assertSameInput(String json) throws IOException {
+		deserialize(json);
+	}
+
+	private void assertSameOutput(Object value) throws IOException {
+		assertSameOutput(new GSONTools(new DefaultTypeFactory()), value);
+		assertSameOutput(new GSONTools(new DefaultTypeFactory(), false, false), value);
+		assertSameOutput(new GSONTools(new DefaultTypeFactory(), true, true), value);
+		assertSameOutput(new GSONTools(new DefaultTypeFactory(), false, true), value);
+	}
+
+	private void assertSameOutput(GSONTools tools, Object value) throws IOException {
+		ByteArrayOutputStream stream = new ByteArrayOutputStream();
+		tools.serialize(value, stream);
+		assertEquals(tools.serialize(value), new String(stream.toByteArray(), StandardCharsets.UTF_8));
+	}
+}
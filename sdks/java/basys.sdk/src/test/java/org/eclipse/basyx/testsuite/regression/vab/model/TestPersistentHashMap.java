@@ -0,0 +1,143 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.basyx.testsuite.regression.vab.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.eclipse.basyx.vab.model.PersistentHashMap;
+import org.junit.Test;
+
+/**
+ * Tests the PersistentHashMap
+ *
+ * @author schnicke
+ *
+ */
+public class TestPersistentHashMap {
+
+	/**
+	 * Key with a configurable hash code to provoke collisions
+	 */
+	private static class Key {
+		private final String name;
+		private final int hash;
+
+		private Key(String name, int hash) {
+			this.name = name;
+			this.hash = hash;
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			return obj instanceof Key && ((Key) obj).name.equals(name);
+		}
+	}
+
+	@Test
+	public void testPlusAndMinus() {
+		PersistentHashMap<String, Object> empty = PersistentHashMap.empty();
+		PersistentHashMap<String, Object> a = empty.plus("a", 1);
+		PersistentHashMap<String, Object> ab = a.plus("b", 2);
+
+		// Previous versions are not changed
+		assertTrue(empty.isEmpty());
+		assertEquals(1, a.size());
+		assertEquals(2, ab.size());
+		assertEquals(1, ab.get("a"));
+		assertEquals(2, ab.get("b"));
+		assertNull(a.get("b"));
+
+		PersistentHashMap<String, Object> b = ab.minus("a");
+		assertEquals(1, b.size());
+		assertFalse(b.containsKey("a"));
+		assertEquals(1, ab.get("a"));
+	}
+
+	@Test
+	public void testUnchanged() {
+		PersistentHashMap<String, Object> map = PersistentHashMap.<String, Object>empty().plus("a", "x");
+		assertSame(map, map.plus("a", map.get("a")));
+		assertSame(map, map.minus("b"));
+	}
+
+	@Test
+	public void testNullValues() {
+		PersistentHashMap<String, Object> map = PersistentHashMap.<String, Object>empty().plus("a", null);
+		assertTrue(map.containsKey("a"));
+		assertNull(map.get("a"));
+		assertEquals(1, map.size());
+	}
+
+	@Test
+	public void testCollisions() {
+		Key a = new Key("a", 42);
+		Key b = new Key("b", 42);
+		Key c = new Key("c", 42);
+
+		PersistentHashMap<Key, Object> map = PersistentHashMap.<Key, Object>empty().plus(a, 1).plus(b, 2).plus(c, 3);
+		assertEquals(3, map.size());
+		assertEquals(1, map.get(a));
+		assertEquals(2, map.get(b));
+		assertEquals(3, map.get(c));
+
+		map = map.minus(b);
+		assertEquals(2, map.size());
+		assertFalse(map.containsKey(b));
+		assertEquals(3, map.get(c));
+
+		map = map.minus(a).minus(c);
+		assertTrue(map.isEmpty());
+	}
+
+	/**
+	 * Applies random changes to a persistent map and a HashMap and compares them
+	 */
+	@Test
+	public void testEqualsHashMap() {
+		Random random = new Random(0);
+		Map<Integer, Integer> expected = new HashMap<>();
+		PersistentHashMap<Integer, Integer> map = PersistentHashMap.empty();
+		for (int i = 0; i < 20000; i++) {
+			Integer key = random.nextInt(2000);
+			if (random.nextInt(3) == 0) {
+				expected.remove(key);
+				map = map.minus(key);
+			} else {
+				expected.put(key, i);
+				map = map.plus(key, i);
+			}
+		}
+
+		assertEquals(expected.size(), map.size());
+		assertEquals(expected, map);
+		assertEquals(map, expected);
+		assertEquals(expected.hashCode(), map.hashCode());
+		assertEquals(expected, new HashMap<>(map));
+		assertEquals(map, PersistentHashMap.copyOf(expected));
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void testImmutable() {
+		PersistentHashMap.<String, Object>empty().plus("a", 1).put("b", 2);
+	}
+}
@@ -0,0 +1,138 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.basyx.testsuite.regression.vab.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.basyx.vab.model.ReadOnlyViews;
+import org.junit.Test;
+
+/**
+ * Tests the ReadOnlyViews
+ *
+ * @author schnicke
+ *
+ */
+public class TestReadOnlyViews {
+
+	@SuppressWarnings("unchecked")
+	@Test
+	public void testNestedViews() {
+		Map<String, Object> inner = new HashMap<>();
+		inner.put("a", 1);
+		List<Object> list = new ArrayList<>(Arrays.asList(inner, "b"));
+		Map<String, Object> map = new HashMap<>();
+		map.put("list", list);
+		map.put("inner", inner);
+
+		Map<String, Object> view = (Map<String, Object>) ReadOnlyViews.of(map);
+		assertEquals(map, view);
+		assertTrue(ReadOnlyViews.isView(view.get("inner")));
+		List<Object> listView = (List<Object>) view.get("list");
+		assertTrue(ReadOnlyViews.isView(listView.get(0)));
+		assertEquals("b", listView.get(1));
+
+		// Views are not wrapped again
+		assertSame(view, ReadOnlyViews.of(view));
+
+		// Changes of the backing objects are visible
+		inner.put("c", 3);
+		assertEquals(3, ((Map<String, Object>) view.get("inner")).get("c"));
+	}
+
+	@SuppressWarnings("unchecked")
+	@Test
+	public void testModification() {
+		Map<String, Object> inner = new HashMap<>();
+		Map<String, Object> map = new HashMap<>();
+		map.put("inner", inner);
+		map.put("list", new ArrayList<>());
+		Map<String, Object> view = (Map<String, Object>) ReadOnlyViews.of(map);
+
+		assertUnsupported(() -> view.put("a", 1));
+		assertUnsupported(() -> view.remove("inner"));
+		assertUnsupported(() -> view.keySet().clear());
+		assertUnsupported(() -> view.entrySet().iterator().next().setValue(1));
+		assertUnsupported(() -> ((Map<String, Object>) view.get("inner")).put("a", 1));
+		assertUnsupported(() -> ((Collection<Object>) view.get("list")).add(1));
+		assertEquals(2, map.size());
+		assertTrue(inner.isEmpty());
+	}
+
+	@Test
+	public void testTransformIsLazy() {
+		Map<String, Integer> map = new HashMap<>();
+		for (int i = 0; i < 10; i++) {
+			map.put("e" + i, i);
+		}
+		AtomicInteger calls = new AtomicInteger();
+		Map<String, Integer> view = ReadOnlyViews.transform(map, i -> {
+			calls.incrementAndGet();
+			return i * 2;
+		});
+
+		assertEquals(10, view.size());
+		assertTrue(view.containsKey("e3"));
+		assertEquals(0, calls.get());
+		assertEquals(Integer.valueOf(6), view.get("e3"));
+		assertEquals(1, calls.get());
+		assertEquals(null, view.get("missing"));
+
+		Collection<Integer> values = ReadOnlyViews.transform(map.values(), i -> i + 1);
+		assertEquals(10, values.size());
+		assertTrue(values.contains(10));
+		assertFalse(values.contains(0));
+	}
+
+	@Test
+	public void testWithEntry() {
+		Map<String, Object> map = new HashMap<>();
+		map.put("a", 1);
+		map.put("b", 2);
+
+		Map<String, Object> replaced = ReadOnlyViews.withEntry(map, "a", 3);
+		assertEquals(2, replaced.size());
+		assertEquals(3, replaced.get("a"));
+		Map<String, Object> expected = new HashMap<>(map);
+		expected.put("a", 3);
+		assertEquals(expected, replaced);
+
+		Map<String, Object> added = ReadOnlyViews.withEntry(map, "c", 4);
+		assertEquals(3, added.size());
+		expected = new HashMap<>(map);
+		expected.put("c", 4);
+		assertEquals(expected, added);
+
+		// The backing map is not changed
+		assertEquals(2, map.size());
+		assertEquals(1, map.get("a"));
+	}
+
+	private void assertUnsupported(Runnable modification) {
+		try {
+			modification.run();
+			fail();
+		} catch (UnsupportedOperationException e) {
+			// Expected
+		}
+	}
+}
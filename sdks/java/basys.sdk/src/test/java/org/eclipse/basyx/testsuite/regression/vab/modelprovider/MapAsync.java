@@ -0,0 +1,83 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.basyx.testsuite.regression.vab.modelprovider;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import org.eclipse.basyx.submodel.metamodel.map.submodelelement.operation.Operation;
+import org.eclipse.basyx.vab.exception.provider.ResourceNotFoundException;
+import org.eclipse.basyx.vab.manager.VABConnectionManager;
+import org.eclipse.basyx.vab.modelprovider.VABElementProxy;
+
+/**
+ * Snippet to test the asynchronous requests of a IModelProvider
+ *
+ * @author schnicke
+ *
+ */
+public class MapAsync {
+
+	public static void test(VABConnectionManager connManager) {
+		// Connect to VAB element with ID "urn:fhg:es.iese:vab:1:1:simplevabelement"
+		VABElementProxy connVABElement = connManager.connectToVABElement("urn:fhg:es.iese:vab:1:1:simplevabelement");
+
+		// Parallel reads
+		List<CompletableFuture<Object>> futures = new ArrayList<>();
+		for (int i = 0; i < 50; i++) {
+			futures.add(connVABElement.getValueAsync("primitives/integer"));
+		}
+		for (CompletableFuture<Object> future : futures) {
+			assertEquals(123, future.join());
+		}
+
+		// Composed reads
+		Object sum = connVABElement.getValueAsync("primitives/integer")
+				.thenCombine(connVABElement.getValueAsync("special/nested/nested/value"), (a, b) -> (Integer) a + (Integer) b).join();
+		assertEquals(223, sum);
+
+		// Update
+		connVABElement.setValueAsync("primitives/integer", 12).join();
+		assertEquals(12, connVABElement.getValueAsync("primitives/integer").join());
+		connVABElement.setValueAsync("primitives/integer", 123).join();
+
+		// Create and delete
+		connVABElement.createValueAsync("structure/map/async", "value").join();
+		assertEquals("value", connVABElement.getValueAsync("structure/map/async").join());
+		connVABElement.deleteValueAsync("structure/map/async").join();
+		assertNotFound(connVABElement.getValueAsync("structure/map/async"));
+
+		// Failures complete the future exceptionally
+		assertNotFound(connVABElement.getValueAsync("unknown/x"));
+	}
+
+	public static void testInvoke(VABConnectionManager connManager) {
+		// Connect to VAB element with ID "urn:fhg:es.iese:vab:1:1:simplevabelement"
+		VABElementProxy connVABElement = connManager.connectToVABElement("urn:fhg:es.iese:vab:1:1:simplevabelement");
+
+		assertEquals(46, connVABElement.invokeOperationAsync("operations/complex/" + Operation.INVOKE, 12, 34).join());
+		assertNotFound(connVABElement.invokeOperationAsync("operations/unknown/" + Operation.INVOKE));
+	}
+
+	private static void assertNotFound(CompletableFuture<Object> future) {
+		try {
+			future.join();
+			fail();
+		} catch (CompletionException e) {
+			assertTrue(e.getCause() instanceof ResourceNotFoundException);
+		}
+	}
+}
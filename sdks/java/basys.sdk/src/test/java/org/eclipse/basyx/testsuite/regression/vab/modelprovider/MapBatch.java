@@ -0,0 +1,80 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.basyx.testsuite.regression.vab.modelprovider;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.basyx.submodel.metamodel.map.submodelelement.operation.Operation;
+import org.eclipse.basyx.vab.exception.provider.ResourceNotFoundException;
+import org.eclipse.basyx.vab.manager.VABConnectionManager;
+import org.eclipse.basyx.vab.modelprovider.VABElementProxy;
+import org.eclipse.basyx.vab.modelprovider.batch.BatchEntry;
+import org.eclipse.basyx.vab.modelprovider.batch.BatchResult;
+
+/**
+ * Snippet to test batch functionality of a IModelProvider
+ *
+ * @author schnicke
+ *
+ */
+public class MapBatch {
+
+	public static void test(VABConnectionManager connManager) {
+		// Connect to VAB element with ID "urn:fhg:es.iese:vab:1:1:simplevabelement"
+		VABElementProxy connVABElement = connManager.connectToVABElement("urn:fhg:es.iese:vab:1:1:simplevabelement");
+
+		List<BatchResult> results = connVABElement.processBatch(Arrays.asList(
+				BatchEntry.setValue("primitives/integer", 12),
+				BatchEntry.getValue("primitives/integer"),
+				BatchEntry.getValue("unknown/element"),
+				BatchEntry.getValue("special/nested/nested/value"),
+				BatchEntry.setValue("primitives/integer", 123),
+				BatchEntry.getValue("primitives/integer")));
+
+		// Results are returned in the order of the entries
+		assertEquals(6, results.size());
+		assertTrue(results.get(0).isSuccess());
+		assertEquals(12, results.get(1).getValue());
+		assertEquals(100, results.get(3).getValue());
+		assertEquals(123, results.get(5).getValue());
+
+		// Failing entries do not abort the batch
+		assertFalse(results.get(2).isSuccess());
+		assertTrue(results.get(2).getException() instanceof ResourceNotFoundException);
+		try {
+			results.get(2).getValue();
+			fail();
+		} catch (ResourceNotFoundException e) {}
+
+		// Empty batch
+		assertTrue(connVABElement.processBatch(Arrays.asList()).isEmpty());
+	}
+
+	public static void testInvoke(VABConnectionManager connManager) {
+		// Connect to VAB element with ID "urn:fhg:es.iese:vab:1:1:simplevabelement"
+		VABElementProxy connVABElement = connManager.connectToVABElement("urn:fhg:es.iese:vab:1:1:simplevabelement");
+
+		List<BatchResult> results = connVABElement.processBatch(Arrays.asList(
+				BatchEntry.invokeOperation("operations/complex/" + Operation.INVOKE, 12, 34),
+				BatchEntry.invokeOperation("operations/providerException/" + Operation.INVOKE),
+				BatchEntry.invokeOperation("operations/complex/" + Operation.INVOKE, 1, 2)));
+
+		assertEquals(3, results.size());
+		assertEquals(46, results.get(0).getValue());
+		assertFalse(results.get(1).isSuccess());
+		assertEquals(3, results.get(2).getValue());
+	}
+}
@@ -42,6 +42,26 @@ public abstract class TestProvider {
 		MapInvoke.test(getConnectionManager());
 	}
 
+	@Test
+	public void testMapBatch() {
+		MapBatch.test(getConnectionManager());
+	}
+
+	@Test
+	public void testMapBatchInvoke() {
+		MapBatch.testInvoke(getConnectionManager());
+	}
+
+	@Test
+	public void testMapAsync() {
+		MapAsync.test(getConnectionManager());
+	}
+
+	@Test
+	public void testMapAsyncInvoke() {
+		MapAsync.testInvoke(getConnectionManager());
+	}
+
 	@Test
 	public void testCollectionCreateDelete() throws Exception {
 		TestCollectionProperty.testCreateDelete(getConnectionManager());
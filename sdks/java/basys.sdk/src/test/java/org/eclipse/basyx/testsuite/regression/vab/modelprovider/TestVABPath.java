@@ -0,0 +1,114 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.basyx.testsuite.regression.vab.modelprovider;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.eclipse.basyx.vab.exception.provider.MalformedRequestException;
+import org.eclipse.basyx.vab.modelprovider.VABPath;
+import org.eclipse.basyx.vab.modelprovider.VABPathTools;
+import org.junit.Test;
+
+/**
+ * Tests the parsing, slicing and string representation of {@link VABPath}
+ * 
+ * @author schnicke
+ *
+ */
+public class TestVABPath {
+
+	@Test
+	public void testParseMatchesSplitPath() {
+		String[] paths = new String[] { "", "/", "a", "/a", "a/", "/a/", "a/b/c", "//a//b///c//", "/aas/submodels/sm/submodel/submodelElements/a/b/value" };
+		for (String path : paths) {
+			assertArrayEquals(VABPathTools.splitPath(path), VABPath.parse(path).toArray());
+			assertEquals(path, VABPathTools.stripSlashes(path).replaceAll("/+", "/"), VABPath.parse(path).toString());
+		}
+	}
+
+	@Test
+	public void testEmpty() {
+		assertSame(VABPath.EMPTY, VABPath.parse("/"));
+		assertTrue(VABPath.EMPTY.isEmpty());
+		assertNull(VABPath.EMPTY.getFirstElement());
+		assertNull(VABPath.EMPTY.getLastElement());
+		assertFalse(VABPath.EMPTY.startsWith(""));
+		assertSame(VABPath.EMPTY, VABPath.EMPTY.getParent());
+	}
+
+	@Test(expected = MalformedRequestException.class)
+	public void testParseNull() {
+		VABPath.parse(null);
+	}
+
+	@Test
+	public void testNormalizedStringIsReused() {
+		String path = "a/b/c";
+		assertSame(path, VABPath.parse(path).toString());
+	}
+
+	@Test
+	public void testElements() {
+		VABPath path = VABPath.parse("/a/b/c/");
+		assertEquals(3, path.size());
+		assertEquals("a", path.getFirstElement());
+		assertEquals("b", path.getElement(1));
+		assertEquals("c", path.getLastElement());
+		assertTrue(path.startsWith("a"));
+		assertTrue(path.endsWith("c"));
+		assertFalse(path.startsWith("b"));
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void testElementOutOfBounds() {
+		VABPath.parse("a/b/c").skip(1).getElement(2);
+	}
+
+	@Test
+	public void testSlicing() {
+		VABPath path = VABPath.parse("a/b/c/d");
+		assertEquals("c/d", path.skip(2).toString());
+		assertEquals("d", path.skip(2).skip(1).toString());
+		assertTrue(path.skip(5).isEmpty());
+		assertEquals("a/b/c", path.getParent().toString());
+		assertEquals("b/c", path.subPath(1, 3).toString());
+		assertEquals("c", path.subPath(1, 3).getLastElement());
+		assertEquals("b", path.subPath(1, 3).getParent().toString());
+		assertSame(path, path.skip(0));
+	}
+
+	@Test
+	public void testAppend() {
+		VABPath path = VABPath.parse("a/b/c").skip(1);
+		assertEquals("b/c/d/e", path.append("/d/e/").toString());
+		assertEquals("b/c", path.append("").toString());
+		assertEquals("d", VABPath.EMPTY.append("d").toString());
+		assertEquals("b/c/a/b", path.append(VABPath.parse("a/b/c").getParent()).toString());
+	}
+
+	@Test
+	public void testOf() {
+		assertEquals(VABPath.parse("submodelElements/a/b/value"), VABPath.of("submodelElements", "a/b", "value"));
+		assertEquals(4, VABPath.of("submodelElements", "/a/b/", "value").size());
+	}
+
+	@Test
+	public void testEquals() {
+		VABPath path = VABPath.parse("x/a/b");
+		assertEquals(VABPath.parse("/a/b/"), path.skip(1));
+		assertEquals(VABPath.parse("/a/b/").hashCode(), path.skip(1).hashCode());
+		assertFalse(path.equals(VABPath.parse("x/a")));
+	}
+}
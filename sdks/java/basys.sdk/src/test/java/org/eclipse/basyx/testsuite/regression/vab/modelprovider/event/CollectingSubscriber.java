@@ -0,0 +1,114 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.basyx.testsuite.regression.vab.modelprovider.event;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.basyx.vab.modelprovider.event.ISubscriber;
+import org.eclipse.basyx.vab.modelprovider.event.ISubscription;
+
+/**
+ * Subscriber that collects all received signals for testing
+ *
+ * @author schnicke
+ *
+ */
+public class CollectingSubscriber<T> implements ISubscriber<T> {
+	private final long initialRequest;
+	private final BlockingQueue<T> events = new LinkedBlockingQueue<>();
+	private final CountDownLatch subscribed = new CountDownLatch(1);
+	private final CountDownLatch terminated = new CountDownLatch(1);
+
+	private volatile ISubscription subscription;
+	private volatile Throwable error;
+	private volatile boolean completed;
+
+	/**
+	 * Creates a subscriber with unbounded demand
+	 */
+	public CollectingSubscriber() {
+		this(Long.MAX_VALUE);
+	}
+
+	/**
+	 * @param initialRequest
+	 *            number of events requested on subscription, 0 for none
+	 */
+	public CollectingSubscriber(long initialRequest) {
+		this.initialRequest = initialRequest;
+	}
+
+	@Override
+	public void onSubscribe(ISubscription subscription) {
+		this.subscription = subscription;
+		if (initialRequest > 0) {
+			subscription.request(initialRequest);
+		}
+		subscribed.countDown();
+	}
+
+	@Override
+	public void onNext(T item) {
+		events.add(item);
+	}
+
+	@Override
+	public void onError(Throwable throwable) {
+		error = throwable;
+		terminated.countDown();
+	}
+
+	@Override
+	public void onComplete() {
+		completed = true;
+		terminated.countDown();
+	}
+
+	public ISubscription getSubscription() {
+		return subscription;
+	}
+
+	/**
+	 * Returns all events received so far
+	 */
+	public List<T> getEvents() {
+		return new ArrayList<>(events);
+	}
+
+	/**
+	 * Waits for the next event
+	 *
+	 * @return the event or null, if there was none within the timeout
+	 */
+	public T awaitEvent(long timeoutMillis) throws InterruptedException {
+		return events.poll(timeoutMillis, TimeUnit.MILLISECONDS);
+	}
+
+	public boolean awaitSubscription(long timeoutMillis) throws InterruptedException {
+		return subscribed.await(timeoutMillis, TimeUnit.MILLISECONDS);
+	}
+
+	public boolean awaitTermination(long timeoutMillis) throws InterruptedException {
+		return terminated.await(timeoutMillis, TimeUnit.MILLISECONDS);
+	}
+
+	public Throwable getError() {
+		return error;
+	}
+
+	public boolean isCompleted() {
+		return completed;
+	}
+}
@@ -0,0 +1,183 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.basyx.testsuite.regression.vab.modelprovider.event;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.ForkJoinPool;
+
+import org.eclipse.basyx.vab.modelprovider.event.EventPublisher;
+import org.eclipse.basyx.vab.modelprovider.event.IPublisher;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the delivery of events by the {@link EventPublisher}. Events are
+ * delivered synchronously to make the tests deterministic.
+ *
+ * @author schnicke
+ *
+ */
+public class TestEventPublisher {
+	private static final int BUFFER_CAPACITY = 4;
+
+	private EventPublisher<Integer> publisher;
+
+	@Before
+	public void build() {
+		publisher = new EventPublisher<>(Runnable::run, BUFFER_CAPACITY);
+	}
+
+	@Test
+	public void testSubmit() {
+		CollectingSubscriber<Integer> subscriber = new CollectingSubscriber<>();
+		publisher.subscribe(subscriber);
+		assertTrue(publisher.hasSubscribers());
+
+		publisher.submit(1);
+		publisher.submit(2);
+		assertEquals(Arrays.asList(1, 2), subscriber.getEvents());
+	}
+
+	@Test
+	public void testDemand() {
+		CollectingSubscriber<Integer> subscriber = new CollectingSubscriber<>(0);
+		publisher.subscribe(subscriber);
+
+		// Events are buffered until they are requested
+		publisher.submit(1);
+		publisher.submit(2);
+		publisher.submit(3);
+		assertTrue(subscriber.getEvents().isEmpty());
+
+		subscriber.getSubscription().request(2);
+		assertEquals(Arrays.asList(1, 2), subscriber.getEvents());
+
+		subscriber.getSubscription().request(1);
+		assertEquals(Arrays.asList(1, 2, 3), subscriber.getEvents());
+	}
+
+	@Test
+	public void testFilter() {
+		CollectingSubscriber<Integer> subscriber = new CollectingSubscriber<>();
+		publisher.filter(i -> i % 2 == 0).subscribe(subscriber);
+
+		for (int i = 0; i < 5; i++) {
+			publisher.submit(i);
+		}
+		assertEquals(Arrays.asList(0, 2, 4), subscriber.getEvents());
+	}
+
+	@Test
+	public void testMap() {
+		CollectingSubscriber<String> subscriber = new CollectingSubscriber<>();
+		IPublisher<String> mapped = publisher.map(i -> "event" + i);
+		mapped.subscribe(subscriber);
+
+		publisher.submit(1);
+		assertEquals(Collections.singletonList("event1"), subscriber.getEvents());
+	}
+
+	@Test
+	public void testBufferOverflow() {
+		CollectingSubscriber<Integer> subscriber = new CollectingSubscriber<>(0);
+		publisher.subscribe(subscriber);
+
+		for (int i = 0; i <= BUFFER_CAPACITY; i++) {
+			publisher.submit(i);
+		}
+
+		// Slow subscribers fail instead of blocking the publisher
+		assertTrue(subscriber.getError() instanceof IllegalStateException);
+		assertFalse(publisher.hasSubscribers());
+	}
+
+	@Test
+	public void testInvalidRequest() {
+		CollectingSubscriber<Integer> subscriber = new CollectingSubscriber<>(0);
+		publisher.subscribe(subscriber);
+
+		subscriber.getSubscription().request(0);
+		assertTrue(subscriber.getError() instanceof IllegalArgumentException);
+	}
+
+	@Test
+	public void testCancel() {
+		CollectingSubscriber<Integer> subscriber = new CollectingSubscriber<>();
+		publisher.subscribe(subscriber);
+
+		publisher.submit(1);
+		subscriber.getSubscription().cancel();
+		publisher.submit(2);
+
+		assertEquals(Collections.singletonList(1), subscriber.getEvents());
+		assertFalse(publisher.hasSubscribers());
+		assertNull(subscriber.getError());
+		assertFalse(subscriber.isCompleted());
+	}
+
+	@Test
+	public void testClose() {
+		CollectingSubscriber<Integer> subscriber = new CollectingSubscriber<>(0);
+		publisher.subscribe(subscriber);
+		publisher.submit(1);
+		publisher.close();
+
+		// Buffered events are delivered before completing
+		assertFalse(subscriber.isCompleted());
+		subscriber.getSubscription().request(1);
+		assertEquals(Collections.singletonList(1), subscriber.getEvents());
+		assertTrue(subscriber.isCompleted());
+
+		// Later subscribers are completed immediately
+		CollectingSubscriber<Integer> late = new CollectingSubscriber<>();
+		publisher.subscribe(late);
+		assertTrue(late.isCompleted());
+	}
+
+	@Test
+	public void testFailingSubscriber() {
+		publisher.subscribe(new CollectingSubscriber<Integer>() {
+			@Override
+			public void onNext(Integer item) {
+				throw new RuntimeException("Subscriber failed");
+			}
+		});
+
+		// The failing subscriber is removed without affecting the publisher
+		publisher.submit(1);
+		assertFalse(publisher.hasSubscribers());
+	}
+
+	@Test
+	public void testDefaultExecutor() throws InterruptedException {
+		EventPublisher<String> defaultPublisher = new EventPublisher<>();
+		CollectingSubscriber<String> subscriber = new CollectingSubscriber<String>() {
+			@Override
+			public void onNext(String item) {
+				super.onNext(Thread.currentThread().getName());
+			}
+		};
+		defaultPublisher.subscribe(subscriber);
+		assertTrue(subscriber.awaitSubscription(5000));
+		defaultPublisher.submit("event");
+
+		// Subscribers that block do not affect the common pool
+		String thread = subscriber.awaitEvent(5000);
+		assertTrue(thread.startsWith("basyx-events-"));
+		assertNotEquals(ForkJoinPool.commonPool(), EventPublisher.getDefaultExecutor());
+	}
+}
@@ -60,4 +60,14 @@ public class TestFileSystemProvider extends TestProvider {
 	public void testMapInvoke() {
 		// not implemented for file system providers
 	}
+
+	@Override
+	public void testMapBatchInvoke() {
+		// not implemented for file system providers
+	}
+
+	@Override
+	public void testMapAsyncInvoke() {
+		// not implemented for file system providers
+	}
 }
@@ -0,0 +1,195 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.basyx.testsuite.regression.vab.modelprovider.lambda;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.eclipse.basyx.vab.modelprovider.lambda.ConcurrentGetterResolver;
+import org.eclipse.basyx.vab.modelprovider.lambda.ConcurrentGetterResolver.Fallback;
+import org.eclipse.basyx.vab.modelprovider.lambda.VABLambdaProvider;
+import org.eclipse.basyx.vab.modelprovider.lambda.VABLambdaProviderHelper;
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Tests the concurrent, memoised and time-bounded resolution of lambda
+ * properties by a {@link ConcurrentGetterResolver}
+ * 
+ * @author schnicke
+ *
+ */
+public class TestConcurrentGetterResolver {
+	private static final int GETTERS = 8;
+
+	private final ExecutorService executor = Executors.newFixedThreadPool(GETTERS);
+
+	@After
+	public void shutdown() {
+		executor.shutdownNow();
+	}
+
+	@SuppressWarnings("unchecked")
+	@Test
+	public void testConcurrentCalls() {
+		// Each getter only returns its value, if all getters are called at the same time
+		CountDownLatch allCalled = new CountDownLatch(GETTERS);
+		AtomicInteger calls = new AtomicInteger();
+		Map<String, Object> root = new HashMap<>();
+		for (int i = 0; i < GETTERS; i++) {
+			int value = i;
+			root.put("p" + i, VABLambdaProviderHelper.createSimple(() -> {
+				calls.incrementAndGet();
+				allCalled.countDown();
+				return await(allCalled) ? value : -1;
+			}, null));
+		}
+
+		VABLambdaProvider provider = new VABLambdaProvider(root, new ConcurrentGetterResolver(executor, 5000));
+		Map<String, Object> resolved = (Map<String, Object>) provider.getValue("");
+		for (int i = 0; i < GETTERS; i++) {
+			assertEquals(i, resolved.get("p" + i));
+		}
+
+		// The calls started in advance are used by the request
+		assertEquals(GETTERS, calls.get());
+	}
+
+	@Test
+	public void testTimeout() {
+		CountDownLatch release = new CountDownLatch(1);
+		AtomicInteger calls = new AtomicInteger();
+		Map<String, Object> root = new HashMap<>();
+		root.put("hanging", VABLambdaProviderHelper.createSimple(() -> {
+			// Returns right away for the first call only
+			if (calls.incrementAndGet() > 1) {
+				await(release);
+			}
+			return "value";
+		}, null));
+
+		try {
+			VABLambdaProvider lastKnown = new VABLambdaProvider(root, new ConcurrentGetterResolver(executor, 500));
+			assertEquals("value", lastKnown.getValue("hanging"));
+			assertEquals("value", lastKnown.getValue("hanging"));
+
+			VABLambdaProvider marker = new VABLambdaProvider(root, new ConcurrentGetterResolver(executor, 50, 0, Fallback.ERROR_MARKER, "error"));
+			assertEquals("error", marker.getValue("hanging"));
+
+			// The hanging call is not repeated
+			assertEquals("error", marker.getValue("hanging"));
+			assertEquals(3, calls.get());
+		} finally {
+			release.countDown();
+		}
+	}
+
+	@Test
+	public void testFailure() {
+		Map<String, Object> root = new HashMap<>();
+		root.put("failing", VABLambdaProviderHelper.createSimple(() -> {
+			throw new IllegalStateException("Device not available");
+		}, null));
+
+		VABLambdaProvider provider = new VABLambdaProvider(root, new ConcurrentGetterResolver(executor, 1000, 0, Fallback.ERROR_MARKER, "error"));
+		assertEquals("error", provider.getValue("failing"));
+	}
+
+	@Test
+	public void testFreshness() throws Exception {
+		AtomicInteger calls = new AtomicInteger();
+		AtomicInteger value = new AtomicInteger(1);
+		CountDownLatch release = new CountDownLatch(1);
+		Map<String, Object> root = new HashMap<>();
+		root.put("counted", VABLambdaProviderHelper.createSimple(() -> {
+			calls.incrementAndGet();
+			await(release);
+			return value.get();
+		}, v -> value.set((Integer) v)));
+
+		VABLambdaProvider provider = new VABLambdaProvider(root, new ConcurrentGetterResolver(executor, 5000, 60000, Fallback.LAST_KNOWN_VALUE, null));
+
+		// Concurrent requests share one call
+		ExecutorService requests = Executors.newFixedThreadPool(2);
+		try {
+			Supplier<Object> get = () -> provider.getValue("counted");
+			Future<Object> first = requests.submit(get::get);
+			Future<Object> second = requests.submit(get::get);
+			Thread.sleep(50);
+			release.countDown();
+			assertEquals(1, first.get(5, TimeUnit.SECONDS));
+			assertEquals(1, second.get(5, TimeUnit.SECONDS));
+		} finally {
+			requests.shutdownNow();
+		}
+
+		// Fresh values are reused until the property is changed
+		assertEquals(1, provider.getValue("counted"));
+		assertEquals(1, calls.get());
+		provider.setValue("counted", 2);
+		assertEquals(2, provider.getValue("counted"));
+		assertEquals(2, calls.get());
+	}
+
+	@Test
+	public void testChangeDuringCall() throws Exception {
+		AtomicInteger calls = new AtomicInteger();
+		AtomicInteger value = new AtomicInteger(1);
+		CountDownLatch release = new CountDownLatch(1);
+		Map<String, Object> root = new HashMap<>();
+		root.put("slow", VABLambdaProviderHelper.createSimple(() -> {
+			// Reads the value before it is changed, but returns it afterwards
+			int read = value.get();
+			if (calls.incrementAndGet() == 1) {
+				await(release);
+			}
+			return read;
+		}, v -> value.set((Integer) v)));
+
+		VABLambdaProvider provider = new VABLambdaProvider(root, new ConcurrentGetterResolver(executor, 5000, 60000, Fallback.LAST_KNOWN_VALUE, null));
+
+		ExecutorService requests = Executors.newFixedThreadPool(2);
+		try {
+			Future<Object> first = requests.submit(() -> provider.getValue("slow"));
+			Thread.sleep(50);
+			provider.setValue("slow", 2);
+
+			// The running call is not repeated while it runs, but its value is not reused
+			Future<Object> second = requests.submit(() -> provider.getValue("slow"));
+			Thread.sleep(50);
+			assertEquals(1, calls.get());
+			release.countDown();
+			assertEquals(1, first.get(5, TimeUnit.SECONDS));
+			assertEquals(2, second.get(5, TimeUnit.SECONDS));
+		} finally {
+			requests.shutdownNow();
+		}
+
+		assertEquals(2, provider.getValue("slow"));
+		assertEquals(2, calls.get());
+	}
+
+	private static boolean await(CountDownLatch latch) {
+		try {
+			return latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			return false;
+		}
+	}
+}
@@ -0,0 +1,181 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.basyx.testsuite.regression.vab.protocol.basyx;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.basyx.testsuite.regression.vab.modelprovider.SimpleVABElement;
+import org.eclipse.basyx.vab.coder.json.connector.JSONConnector;
+import org.eclipse.basyx.vab.modelprovider.map.VABMapProvider;
+import org.eclipse.basyx.vab.protocol.basyx.CoderTools;
+import org.eclipse.basyx.vab.protocol.basyx.connector.BaSyxConnectionConfiguration;
+import org.eclipse.basyx.vab.protocol.basyx.connector.BaSyxConnectionPool;
+import org.eclipse.basyx.vab.protocol.basyx.connector.BaSyxConnector;
+import org.eclipse.basyx.vab.protocol.basyx.server.BaSyxTCPServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the persistent and pipelined connections of the BaSyxConnector. This
+ * is an integration test
+ * 
+ * @author schnicke
+ *
+ */
+public class TestBaSyxConnectionPool {
+	private static final int PORT = 6998;
+	private static final InetSocketAddress ADDRESS = new InetSocketAddress("localhost", PORT);
+
+	private BaSyxTCPServer<VABMapProvider> server;
+	private BaSyxConnectionPool pool;
+	private JSONConnector connector;
+
+	@Before
+	public void build() {
+		server = startServer();
+		BaSyxConnectionConfiguration configuration = new BaSyxConnectionConfiguration();
+		configuration.setMaxConnectionsPerEndpoint(2);
+		pool = new BaSyxConnectionPool(configuration);
+		connector = new JSONConnector(new BaSyxConnector("localhost", PORT, pool));
+	}
+
+	@After
+	public void tearDown() {
+		pool.close();
+		server.stop();
+	}
+
+	@Test
+	public void testReuse() {
+		for (int i = 0; i < 20; i++) {
+			assertEquals(123, connector.getValue("primitives/integer"));
+		}
+		assertEquals(1, pool.getConnectionCount(ADDRESS));
+	}
+
+	@Test
+	public void testPipelining() {
+		// Requests are answered in order, although they are sent without waiting for the responses
+		List<CompletableFuture<Object>> futures = new ArrayList<>();
+		for (int i = 0; i < 200; i++) {
+			connector.setValueAsync("primitives/integer", i);
+			futures.add(connector.getValueAsync("primitives/integer"));
+		}
+		for (int i = 0; i < 200; i++) {
+			Object value = futures.get(i).join();
+			assertTrue(value instanceof Integer);
+		}
+		assertTrue(pool.getConnectionCount(ADDRESS) <= 2);
+	}
+
+	@Test
+	public void testInOrderOnSingleConnection() {
+		BaSyxConnectionConfiguration configuration = new BaSyxConnectionConfiguration();
+		configuration.setMaxConnectionsPerEndpoint(1);
+		BaSyxConnectionPool singlePool = new BaSyxConnectionPool(configuration);
+		JSONConnector singleConnector = new JSONConnector(new BaSyxConnector("localhost", PORT, singlePool));
+
+		List<CompletableFuture<Object>> futures = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			singleConnector.setValueAsync("primitives/integer", i);
+			futures.add(singleConnector.getValueAsync("primitives/integer"));
+		}
+		for (int i = 0; i < 100; i++) {
+			assertEquals(i, futures.get(i).join());
+		}
+		assertEquals(1, singlePool.getConnectionCount(ADDRESS));
+		singlePool.close();
+	}
+
+	@Test
+	public void testReconnect() throws InterruptedException {
+		assertEquals(123, connector.getValue("primitives/integer"));
+		connector.setValue("primitives/integer", 5);
+
+		// The restarted server has a new model
+		server.stop();
+		server = startServer();
+
+		assertEquals(123, connector.getValue("primitives/integer"));
+	}
+
+	@Test
+	public void testNoRetryOfWrittenRequests() throws Exception {
+		BaSyxConnectionConfiguration configuration = new BaSyxConnectionConfiguration();
+		configuration.setProtocolVersion(1);
+		BaSyxConnectionPool legacyPool = new BaSyxConnectionPool(configuration);
+
+		// Answers the first request and closes the connection after receiving the second one
+		AtomicInteger received = new AtomicInteger();
+		try (ServerSocket serverSocket = new ServerSocket(0)) {
+			Thread serverThread = new Thread(() -> {
+				try {
+					while (true) {
+						try (Socket socket = serverSocket.accept()) {
+							DataInputStream input = new DataInputStream(socket.getInputStream());
+							readFrame(input);
+							received.incrementAndGet();
+							OutputStream output = socket.getOutputStream();
+							output.write(CoderTools.setInt32(new byte[5], 0, 1));
+							output.flush();
+							readFrame(input);
+							received.incrementAndGet();
+						}
+					}
+				} catch (IOException e) {
+					// Server socket closed
+				}
+			});
+			serverThread.start();
+
+			InetSocketAddress address = new InetSocketAddress("localhost", serverSocket.getLocalPort());
+			byte[] call = CoderTools.setInt32(new byte[5], 0, 1);
+			legacyPool.send(address, call, false).join();
+
+			// The server may have processed the request before closing the connection, thus it is not sent again
+			try {
+				legacyPool.send(address, call, false).join();
+				fail();
+			} catch (CompletionException e) {
+				assertTrue(e.getCause() instanceof IOException);
+			}
+			assertEquals(2, received.get());
+		} finally {
+			legacyPool.close();
+		}
+	}
+
+	private static void readFrame(DataInputStream input) throws IOException {
+		byte[] length = new byte[4];
+		input.readFully(length);
+		input.readFully(new byte[CoderTools.getInt32(length, 0)]);
+	}
+
+	private static BaSyxTCPServer<VABMapProvider> startServer() {
+		BaSyxTCPServer<VABMapProvider> server = new BaSyxTCPServer<>(new VABMapProvider(new SimpleVABElement()), PORT);
+		server.start();
+		return server;
+	}
+}
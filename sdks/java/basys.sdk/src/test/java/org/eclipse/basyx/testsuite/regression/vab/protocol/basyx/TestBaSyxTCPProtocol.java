@@ -0,0 +1,346 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.basyx.testsuite.regression.vab.protocol.basyx;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.basyx.testsuite.regression.vab.modelprovider.SimpleVABElement;
+import org.eclipse.basyx.vab.coder.json.connector.JSONConnector;
+import org.eclipse.basyx.vab.exception.provider.ResourceNotFoundException;
+import org.eclipse.basyx.vab.modelprovider.map.VABMapProvider;
+import org.eclipse.basyx.vab.protocol.basyx.CoderTools;
+import org.eclipse.basyx.vab.protocol.basyx.connector.BaSyxConnectionConfiguration;
+import org.eclipse.basyx.vab.protocol.basyx.connector.BaSyxConnectionPool;
+import org.eclipse.basyx.vab.protocol.basyx.connector.BaSyxConnector;
+import org.eclipse.basyx.vab.protocol.basyx.server.BaSyxTCPServer;
+import org.eclipse.basyx.vab.protocol.basyx.server.TCPServerMode;
+import org.eclipse.basyx.vab.protocol.basyx.server.VABBaSyxTCPInterface;
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Tests version 2 of the BaSyx TCP protocol and its compatibility with version
+ * 1. This is an integration test
+ * 
+ * @author schnicke
+ *
+ */
+public class TestBaSyxTCPProtocol {
+	private static final int PORT = 6998;
+	private static final InetSocketAddress ADDRESS = new InetSocketAddress("localhost", PORT);
+
+	private BaSyxTCPServer<VABMapProvider> server;
+	private BaSyxConnectionPool pool;
+
+	@After
+	public void tearDown() {
+		if (pool != null) {
+			pool.close();
+		}
+		if (server != null) {
+			server.stop();
+		}
+	}
+
+	@Test
+	public void testVersionNegotiation() {
+		startServer(TCPServerMode.THREAD_PER_CONNECTION, new VABMapProvider(new SimpleVABElement()));
+		JSONConnector connector = createConnector(new BaSyxConnectionConfiguration());
+
+		assertEquals(123, connector.getValue("primitives/integer"));
+		assertEquals(2, pool.getProtocolVersion(ADDRESS));
+	}
+
+	@Test
+	public void testVersion1Client() {
+		startServer(TCPServerMode.NIO, new VABMapProvider(new SimpleVABElement()));
+		BaSyxConnectionConfiguration configuration = new BaSyxConnectionConfiguration();
+		configuration.setProtocolVersion(1);
+		JSONConnector connector = createConnector(configuration);
+
+		assertEquals(123, connector.getValue("primitives/integer"));
+		assertEquals(1, pool.getProtocolVersion(ADDRESS));
+	}
+
+	/**
+	 * Tests that the connector falls back to version 1 for a server that does
+	 * not answer the handshake
+	 */
+	@Test
+	public void testVersion1Server() throws Exception {
+		ServerSocket legacyServer = new ServerSocket(PORT);
+		Thread serverThread = new Thread(() -> serveVersion1(legacyServer));
+		serverThread.setDaemon(true);
+		serverThread.start();
+
+		try {
+			BaSyxConnectionConfiguration configuration = new BaSyxConnectionConfiguration();
+			configuration.setHandshakeTimeout(200);
+			JSONConnector connector = createConnector(configuration);
+
+			assertEquals("legacy", connector.getValue("primitives/string"));
+			assertEquals(1, pool.getProtocolVersion(ADDRESS));
+		} finally {
+			// The port is released as soon as the accepting thread has ended
+			legacyServer.close();
+			serverThread.join();
+		}
+	}
+
+	@Test
+	public void testNonAsciiPath() {
+		startServer(TCPServerMode.THREAD_PER_CONNECTION, new VABMapProvider(new SimpleVABElement()));
+		JSONConnector connector = createConnector(new BaSyxConnectionConfiguration());
+
+		connector.createValue("primitives/größe", "Maß");
+		assertEquals("Maß", connector.getValue("primitives/größe"));
+	}
+
+	@Test
+	public void testCompression() {
+		startServer(TCPServerMode.NIO, new VABMapProvider(new SimpleVABElement()));
+		BaSyxConnectionConfiguration configuration = new BaSyxConnectionConfiguration();
+		configuration.setCompressionThreshold(16);
+		JSONConnector connector = createConnector(configuration);
+
+		StringBuilder value = new StringBuilder();
+		for (int i = 0; i < 10000; i++) {
+			value.append("value ").append(i);
+		}
+		connector.setValue("primitives/string", value.toString());
+		assertEquals(value.toString(), connector.getValue("primitives/string"));
+	}
+
+	@Test
+	public void testStatus() throws Exception {
+		startServer(TCPServerMode.THREAD_PER_CONNECTION, new VABMapProvider(new SimpleVABElement()));
+		try (Socket socket = new Socket("localhost", PORT)) {
+			OutputStream out = socket.getOutputStream();
+			DataInputStream in = new DataInputStream(socket.getInputStream());
+			handshake(out, in);
+
+			out.write(createFrame(1, VABBaSyxTCPInterface.BASYX_GET, "primitives/unknown"));
+			byte[] response = readFrame(in);
+			assertEquals(1, CoderTools.getInt32(response, 1));
+			assertEquals(VABBaSyxTCPInterface.BASYX_RESULT_NOT_FOUND, response[5]);
+
+			// Unknown commands do not end the connection
+			out.write(createFrame(2, (byte) 0x7F, "primitives/integer"));
+			response = readFrame(in);
+			assertEquals(VABBaSyxTCPInterface.BASYX_RESULT_UNKNOWN_COMMAND, response[5]);
+
+			out.write(createFrame(3, VABBaSyxTCPInterface.BASYX_GET, "primitives/integer"));
+			response = readFrame(in);
+			assertEquals(3, CoderTools.getInt32(response, 1));
+			assertEquals(VABBaSyxTCPInterface.BASYX_RESULT_OK, response[5]);
+			assertTrue(getResult(response).contains("123"));
+		}
+	}
+
+	@Test
+	public void testStatusException() {
+		startServer(TCPServerMode.NIO, new VABMapProvider(new SimpleVABElement()));
+		JSONConnector connector = createConnector(new BaSyxConnectionConfiguration());
+		try {
+			connector.getValue("primitives/unknown");
+		} catch (ResourceNotFoundException e) {
+			return;
+		}
+		throw new AssertionError("Expected a ResourceNotFoundException");
+	}
+
+	@Test
+	public void testBatchFrame() throws Exception {
+		startServer(TCPServerMode.THREAD_PER_CONNECTION, new VABMapProvider(new SimpleVABElement()));
+		try (Socket socket = new Socket("localhost", PORT)) {
+			OutputStream out = socket.getOutputStream();
+			DataInputStream in = new DataInputStream(socket.getInputStream());
+			handshake(out, in);
+
+			byte[][] frames = { createFrame(10, VABBaSyxTCPInterface.BASYX_GET, "primitives/integer"), createFrame(11, VABBaSyxTCPInterface.BASYX_GET, "primitives/string"), createFrame(12, VABBaSyxTCPInterface.BASYX_GET, "primitives/unknown") };
+			int size = 1 + 4;
+			for (byte[] frame : frames) {
+				size += frame.length;
+			}
+			byte[] batch = new byte[4 + size];
+			CoderTools.setInt32(batch, 0, size);
+			batch[4] = VABBaSyxTCPInterface.BASYX_FLAG_BATCH;
+			CoderTools.setInt32(batch, 5, frames.length);
+			int position = 9;
+			for (byte[] frame : frames) {
+				System.arraycopy(frame, 0, batch, position, frame.length);
+				position += frame.length;
+			}
+			out.write(batch);
+
+			boolean[] answered = new boolean[3];
+			for (int i = 0; i < frames.length; i++) {
+				byte[] response = readFrame(in);
+				int id = CoderTools.getInt32(response, 1);
+				answered[id - 10] = true;
+				byte expectedStatus = id == 12 ? VABBaSyxTCPInterface.BASYX_RESULT_NOT_FOUND : VABBaSyxTCPInterface.BASYX_RESULT_OK;
+				assertEquals(expectedStatus, response[5]);
+			}
+			assertTrue(answered[0] && answered[1] && answered[2]);
+		}
+	}
+
+	/**
+	 * Tests that a fast request is answered before a slow request, that has
+	 * been sent before
+	 */
+	@Test
+	public void testOutOfOrderResponses() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		VABMapProvider provider = new VABMapProvider(new SimpleVABElement()) {
+			@Override
+			public Object getValue(String path) {
+				awaitRelease(path);
+				return super.getValue(path);
+			}
+
+			@Override
+			public Object getValueView(String path) {
+				awaitRelease(path);
+				return super.getValueView(path);
+			}
+
+			private void awaitRelease(String path) {
+				if (path.contains("string")) {
+					try {
+						release.await(5, TimeUnit.SECONDS);
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+				}
+			}
+		};
+		startServer(TCPServerMode.NIO, provider);
+
+		try (Socket socket = new Socket("localhost", PORT)) {
+			OutputStream out = socket.getOutputStream();
+			DataInputStream in = new DataInputStream(socket.getInputStream());
+			handshake(out, in);
+
+			out.write(createFrame(1, VABBaSyxTCPInterface.BASYX_GET, "primitives/string"));
+			out.write(createFrame(2, VABBaSyxTCPInterface.BASYX_GET, "primitives/integer"));
+
+			byte[] first = readFrame(in);
+			assertEquals(2, CoderTools.getInt32(first, 1));
+			release.countDown();
+			byte[] second = readFrame(in);
+			assertEquals(1, CoderTools.getInt32(second, 1));
+			assertTrue(getResult(second).contains("TestValue"));
+		}
+	}
+
+	private void startServer(TCPServerMode mode, VABMapProvider provider) {
+		server = new BaSyxTCPServer<>(provider, PORT, mode);
+		server.start();
+	}
+
+	private JSONConnector createConnector(BaSyxConnectionConfiguration configuration) {
+		pool = new BaSyxConnectionPool(configuration);
+		return new JSONConnector(new BaSyxConnector("localhost", PORT, pool));
+	}
+
+	private static void handshake(OutputStream out, DataInputStream in) throws IOException {
+		byte[] hello = new byte[4 + 3];
+		CoderTools.setInt32(hello, 0, 3);
+		hello[4] = VABBaSyxTCPInterface.BASYX_HELLO;
+		hello[5] = VABBaSyxTCPInterface.BASYX_PROTOCOL_VERSION;
+		hello[6] = 0;
+		out.write(hello);
+
+		byte[] response = readFrame(in);
+		assertEquals(VABBaSyxTCPInterface.BASYX_RESULT_OK, response[0]);
+		assertEquals(2, CoderTools.getInt32(response, 1));
+		assertEquals(VABBaSyxTCPInterface.BASYX_PROTOCOL_VERSION, response[5]);
+	}
+
+	/**
+	 * Creates a version 2 request frame without value
+	 */
+	private static byte[] createFrame(int id, byte command, String path) {
+		byte[] pathBytes = path.getBytes(StandardCharsets.UTF_8);
+		byte[] frame = new byte[4 + 1 + 4 + 1 + 4 + pathBytes.length];
+		CoderTools.setInt32(frame, 0, frame.length - 4);
+		CoderTools.setInt32(frame, 5, id);
+		frame[9] = command;
+		CoderTools.setInt32(frame, 10, pathBytes.length);
+		System.arraycopy(pathBytes, 0, frame, 14, pathBytes.length);
+		return frame;
+	}
+
+	private static byte[] readFrame(DataInputStream in) throws IOException {
+		byte[] header = new byte[4];
+		in.readFully(header);
+		byte[] frame = new byte[CoderTools.getInt32(header, 0)];
+		in.readFully(frame);
+		return frame;
+	}
+
+	/**
+	 * Returns the result of a version 2 response frame
+	 */
+	private static String getResult(byte[] response) {
+		int length = CoderTools.getInt32(response, 6);
+		return new String(response, 10, length, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Serves version 1 frames like a server that does not know the handshake,
+	 * i.e. it does not answer it
+	 */
+	private static void serveVersion1(ServerSocket serverSocket) {
+		while (!serverSocket.isClosed()) {
+			try {
+				Socket socket = serverSocket.accept();
+				Thread connection = new Thread(() -> {
+					try (Socket s = socket) {
+						InputStream in = s.getInputStream();
+						DataInputStream data = new DataInputStream(in);
+						OutputStream out = s.getOutputStream();
+						while (true) {
+							byte[] frame = readFrame(data);
+							if (frame[0] == VABBaSyxTCPInterface.BASYX_HELLO) {
+								continue;
+							}
+							byte[] result = "\"legacy\"".getBytes(StandardCharsets.UTF_8);
+							byte[] response = new byte[4 + 1 + 4 + result.length];
+							CoderTools.setInt32(response, 0, response.length - 4);
+							CoderTools.setInt32(response, 5, result.length);
+							System.arraycopy(result, 0, response, 9, result.length);
+							out.write(response);
+						}
+					} catch (IOException e) {
+						// Connection has been closed
+					}
+				});
+				connection.setDaemon(true);
+				connection.start();
+			} catch (IOException e) {
+				return;
+			}
+		}
+	}
+}
@@ -17,9 +17,12 @@ import org.eclipse.basyx.testsuite.regression.vab.modelprovider.SimpleVABElement
 import org.eclipse.basyx.testsuite.regression.vab.modelprovider.TestProvider;
 import org.eclipse.basyx.vab.manager.VABConnectionManager;
 import org.eclipse.basyx.vab.modelprovider.map.VABMapProvider;
+import org.eclipse.basyx.vab.protocol.basyx.connector.BaSyxConnectionConfiguration;
+import org.eclipse.basyx.vab.protocol.basyx.connector.BaSyxConnectionPool;
 import org.eclipse.basyx.vab.protocol.basyx.connector.BaSyxConnector;
 import org.eclipse.basyx.vab.protocol.basyx.connector.BaSyxConnectorFactory;
 import org.eclipse.basyx.vab.protocol.basyx.server.VABBaSyxTCPInterface;
+import org.junit.After;
 import org.junit.Rule;
 import org.junit.Test;
 
@@ -30,28 +33,37 @@ import org.junit.Test;
  *
  */
 public class TestVABBaSyxTCP extends TestProvider {
+	// The server is restarted for each test, thus the connections are not shared with other tests
+	private BaSyxConnectionPool connectionPool = new BaSyxConnectionPool(new BaSyxConnectionConfiguration());
 	protected VABConnectionManager connManager = new VABConnectionManager(new TestsuiteDirectory_BaSyxNative(),
-			new BaSyxConnectorFactory());
+			new BaSyxConnectorFactory(connectionPool));
 
 	@Rule
 	public VABTCPServerResource res = new VABTCPServerResource(new VABMapProvider(new SimpleVABElement()));
 
+	@After
+	public void closeConnections() {
+		connectionPool.close();
+	}
+
 	@Override
 	protected VABConnectionManager getConnectionManager() {
 		return connManager;
 	}
 
 	/**
-	 * Tests if a call to {@link BaSyxConnector#closeConnection} of the
-	 * BaSyxConnector also terminates the thread on the server side
+	 * Tests if closing the connections of the BaSyxConnector also terminates the
+	 * thread on the server side
 	 * 
 	 * @throws InterruptedException
 	 */
 	@Test
 	public void testSuccessfulShutdown() throws InterruptedException {
-		BaSyxConnector connector = new BaSyxConnector("localhost", 6998);
+		BaSyxConnectionPool pool = new BaSyxConnectionPool(new BaSyxConnectionConfiguration());
+		BaSyxConnector connector = new BaSyxConnector("localhost", 6998, pool);
 
 		connector.getValue("integer");
+		pool.close();
 
 		// Wait until thread is closed on server
 		Thread.sleep(100);
@@ -0,0 +1,142 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.basyx.testsuite.regression.vab.protocol.basyx;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.basyx.testsuite.regression.vab.modelprovider.SimpleVABElement;
+import org.eclipse.basyx.testsuite.regression.vab.modelprovider.TestProvider;
+import org.eclipse.basyx.vab.manager.VABConnectionManager;
+import org.eclipse.basyx.vab.modelprovider.map.VABMapProvider;
+import org.eclipse.basyx.vab.protocol.basyx.CoderTools;
+import org.eclipse.basyx.vab.protocol.basyx.connector.BaSyxConnectionConfiguration;
+import org.eclipse.basyx.vab.protocol.basyx.connector.BaSyxConnectionPool;
+import org.eclipse.basyx.vab.protocol.basyx.connector.BaSyxConnectorFactory;
+import org.eclipse.basyx.vab.protocol.basyx.server.TCPServerMode;
+import org.eclipse.basyx.vab.protocol.basyx.server.VABBaSyxTCPInterface;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+
+/**
+ * Test VAB using the BaSyx protocol served by the selector-based mode of the
+ * BaSyxTCPServer. This is an integration test
+ * 
+ * @author schnicke
+ *
+ */
+public class TestVABBaSyxTCPNIO extends TestProvider {
+	// The server is restarted for each test, thus the connections are not shared with other tests
+	private BaSyxConnectionPool connectionPool = new BaSyxConnectionPool(new BaSyxConnectionConfiguration());
+	protected VABConnectionManager connManager = new VABConnectionManager(new TestsuiteDirectory_BaSyxNative(), new BaSyxConnectorFactory(connectionPool));
+
+	@Rule
+	public VABTCPServerResource res = new VABTCPServerResource(new VABMapProvider(new SimpleVABElement()), TCPServerMode.NIO);
+
+	@After
+	public void closeConnections() {
+		connectionPool.close();
+	}
+
+	@Override
+	protected VABConnectionManager getConnectionManager() {
+		return connManager;
+	}
+
+	/**
+	 * Tests that frames split over several writes and several frames in a single
+	 * write are answered in order
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void testSplitAndPipelinedFrames() throws Exception {
+		try (Socket socket = new Socket("localhost", 6998)) {
+			OutputStream out = socket.getOutputStream();
+			DataInputStream in = new DataInputStream(socket.getInputStream());
+
+			// First frame in two parts
+			byte[] first = createGetFrame("primitives/integer");
+			out.write(first, 0, 3);
+			out.flush();
+			Thread.sleep(50);
+			out.write(first, 3, first.length - 3);
+			out.flush();
+
+			// Two frames at once
+			byte[] second = createGetFrame("primitives/integer");
+			byte[] third = createGetFrame("primitives/string");
+			byte[] both = new byte[second.length + third.length];
+			System.arraycopy(second, 0, both, 0, second.length);
+			System.arraycopy(third, 0, both, second.length, third.length);
+			out.write(both);
+			out.flush();
+
+			assertTrue(readResponse(in).contains("123"));
+			assertTrue(readResponse(in).contains("123"));
+			assertTrue(readResponse(in).contains("Test"));
+		}
+	}
+
+	/**
+	 * Tests that more connections than worker threads can be open and served at
+	 * the same time
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void testManyConnections() throws Exception {
+		List<Socket> sockets = new ArrayList<>();
+		try {
+			for (int i = 0; i < 64; i++) {
+				sockets.add(new Socket("localhost", 6998));
+			}
+			for (Socket socket : sockets) {
+				socket.getOutputStream().write(createGetFrame("primitives/integer"));
+			}
+			for (Socket socket : sockets) {
+				assertTrue(readResponse(new DataInputStream(socket.getInputStream())).contains("123"));
+			}
+		} finally {
+			for (Socket socket : sockets) {
+				socket.close();
+			}
+		}
+	}
+
+	private static byte[] createGetFrame(String path) {
+		byte[] pathBytes = path.getBytes(StandardCharsets.UTF_8);
+		byte[] frame = new byte[4 + 1 + 4 + pathBytes.length];
+		CoderTools.setInt32(frame, 0, 1 + 4 + pathBytes.length);
+		frame[4] = VABBaSyxTCPInterface.BASYX_GET;
+		CoderTools.setInt32(frame, 5, pathBytes.length);
+		System.arraycopy(pathBytes, 0, frame, 9, pathBytes.length);
+		return frame;
+	}
+
+	private static String readResponse(DataInputStream in) throws IOException {
+		byte[] header = new byte[4];
+		in.readFully(header);
+		byte[] frame = new byte[CoderTools.getInt32(header, 0)];
+		in.readFully(frame);
+		assertEquals(VABBaSyxTCPInterface.BASYX_RESULT_OK, frame[0]);
+		int length = CoderTools.getInt32(frame, 1);
+		return new String(frame, 5, length, StandardCharsets.UTF_8);
+	}
+}
@@ -11,6 +11,7 @@ package org.eclipse.basyx.testsuite.regression.vab.protocol.basyx;
 
 import org.eclipse.basyx.vab.modelprovider.api.IModelProvider;
 import org.eclipse.basyx.vab.protocol.basyx.server.BaSyxTCPServer;
+import org.eclipse.basyx.vab.protocol.basyx.server.TCPServerMode;
 import org.junit.rules.ExternalResource;
 
 /**
@@ -22,18 +23,27 @@ import org.junit.rules.ExternalResource;
  */
 public class VABTCPServerResource extends ExternalResource {
 	private IModelProvider provider;
+	private TCPServerMode mode;
 	private BaSyxTCPServer<IModelProvider> server;
 
 	/**
 	 * Constructor taking the provider of the requested server resource
 	 */
 	public VABTCPServerResource(IModelProvider provider) {
+		this(provider, TCPServerMode.THREAD_PER_CONNECTION);
+	}
+
+	/**
+	 * Constructor taking the provider and how the server handles its connections
+	 */
+	public VABTCPServerResource(IModelProvider provider, TCPServerMode mode) {
 		this.provider = provider;
+		this.mode = mode;
 	}
 
 	@Override
 	protected void before() {
-		server = new BaSyxTCPServer<IModelProvider>(provider);
+		server = new BaSyxTCPServer<IModelProvider>(provider, 6998, mode);
 		server.start();
 	}
 
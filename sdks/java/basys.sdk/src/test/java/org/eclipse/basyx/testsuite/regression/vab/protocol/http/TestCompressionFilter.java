@@ -0,0 +1,53 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.basyx.testsuite.regression.vab.protocol.http;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.Arrays;
+
+import org.eclipse.basyx.vab.protocol.http.server.CompressionFilter;
+import org.junit.Test;
+
+/**
+ * Tests the negotiation of the content encoding of {@link CompressionFilter}
+ *
+ * @author schnicke
+ *
+ */
+public class TestCompressionFilter {
+	@Test
+	public void testSelectEncoding() {
+		assertEquals(CompressionFilter.GZIP, CompressionFilter.selectEncoding("gzip, deflate"));
+		assertEquals(CompressionFilter.GZIP, CompressionFilter.selectEncoding("deflate, gzip"));
+		assertEquals(CompressionFilter.DEFLATE, CompressionFilter.selectEncoding("deflate"));
+		assertEquals(CompressionFilter.GZIP, CompressionFilter.selectEncoding("*"));
+	}
+
+	@Test
+	public void testRejectedEncoding() {
+		assertEquals(CompressionFilter.DEFLATE, CompressionFilter.selectEncoding("gzip;q=0, deflate;q=0.5"));
+		assertEquals(CompressionFilter.DEFLATE, CompressionFilter.selectEncoding("*, gzip;q=0"));
+		assertNull(CompressionFilter.selectEncoding("gzip;q=0"));
+	}
+
+	@Test
+	public void testNoCompression() {
+		assertNull(CompressionFilter.selectEncoding(null));
+		assertNull(CompressionFilter.selectEncoding("identity"));
+		assertNull(CompressionFilter.selectEncoding("br"));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidLevel() {
+		new CompressionFilter(0, 10, Arrays.asList("application/json"));
+	}
+}
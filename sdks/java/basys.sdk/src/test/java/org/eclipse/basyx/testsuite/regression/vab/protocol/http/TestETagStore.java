@@ -0,0 +1,86 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.basyx.testsuite.regression.vab.protocol.http;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import org.eclipse.basyx.vab.protocol.http.connector.ETagStore;
+import org.eclipse.basyx.vab.protocol.http.connector.HTTPClientConfiguration;
+import org.eclipse.basyx.vab.protocol.http.connector.HTTPClientPool;
+import org.junit.Test;
+
+/**
+ * Tests that the {@link ETagStore} is bounded by the total size of the stored
+ * responses
+ *
+ * @author schnicke
+ *
+ */
+public class TestETagStore {
+	// Each entry has a size of 2 * (1 + 3 + 16) bytes
+	private static final String BODY = "0123456789abcdef";
+
+	@Test
+	public void testLeastRecentlyUsedEvicted() {
+		ETagStore store = new ETagStore(120);
+		store.put("a", "\"1\"", BODY);
+		store.put("b", "\"1\"", BODY);
+		store.put("c", "\"1\"", BODY);
+		assertEquals(120, store.getSize());
+
+		// Reading an entry makes it the most recently used one
+		assertNotNull(store.get("a"));
+		store.put("d", "\"1\"", BODY);
+		assertNull(store.get("b"));
+		assertNotNull(store.get("a"));
+		assertNotNull(store.get("c"));
+		assertNotNull(store.get("d"));
+		assertEquals(120, store.getSize());
+	}
+
+	@Test
+	public void testReplacedEntry() {
+		ETagStore store = new ETagStore(120);
+		store.put("a", "\"1\"", BODY);
+		store.put("a", "\"2\"", BODY + BODY);
+		assertEquals("\"2\"", store.get("a").getETag());
+		assertEquals(72, store.getSize());
+
+		store.remove("a");
+		assertNull(store.get("a"));
+		assertEquals(0, store.getSize());
+	}
+
+	@Test
+	public void testOversizedEntry() {
+		ETagStore store = new ETagStore(60);
+		store.put("a", "\"1\"", BODY);
+
+		// Responses larger than the store are not kept and do not evict others
+		store.put("b", "\"1\"", BODY + BODY);
+		assertNull(store.get("b"));
+		assertNotNull(store.get("a"));
+	}
+
+	@Test
+	public void testDisabledByDefault() {
+		HTTPClientPool pool = new HTTPClientPool(new HTTPClientConfiguration());
+		assertNull(pool.getETagStore());
+		pool.close();
+
+		HTTPClientConfiguration configuration = new HTTPClientConfiguration();
+		configuration.setETagCacheSize(1024);
+		pool = new HTTPClientPool(configuration);
+		assertNotNull(pool.getETagStore());
+		pool.close();
+	}
+}
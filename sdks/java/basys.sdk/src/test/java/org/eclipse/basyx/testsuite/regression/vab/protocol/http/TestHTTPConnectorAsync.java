@@ -0,0 +1,118 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.basyx.testsuite.regression.vab.protocol.http;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import org.eclipse.basyx.vab.exception.provider.ResourceNotFoundException;
+import org.eclipse.basyx.vab.protocol.http.connector.HTTPClientConfiguration;
+import org.eclipse.basyx.vab.protocol.http.connector.HTTPClientPool;
+import org.eclipse.basyx.vab.protocol.http.connector.HTTPConnector;
+import org.eclipse.basyx.vab.protocol.http.server.BaSyxContext;
+import org.junit.Rule;
+import org.junit.Test;
+
+/**
+ * Tests the asynchronous requests and the pooled clients of the HTTPConnector.
+ * This is an integration test
+ * 
+ * @author schnicke
+ *
+ */
+public class TestHTTPConnectorAsync {
+	private static final String ADDRESS = "http://localhost:8080/basys.sdk/Testsuite/SimpleVAB";
+
+	@Rule
+	public AASHTTPServerResource res = new AASHTTPServerResource(new BaSyxContext("/basys.sdk", System.getProperty("java.io.tmpdir"))
+			.addServletMapping("/Testsuite/SimpleVAB/*", new SimpleVABElementServlet()));
+
+	private HTTPConnector connector = new HTTPConnector(ADDRESS);
+
+	@Test
+	public void testGetSet() {
+		assertEquals("123", connector.getValueAsync("/primitives/integer").join());
+
+		connector.setValueAsync("/primitives/integer", "456").join();
+		assertEquals("456", connector.getValueAsync("/primitives/integer").join());
+	}
+
+	@Test
+	public void testCreateDelete() {
+		connector.createValueAsync("/structure/list/", "5").join();
+		connector.createValueAsync("/structure/map/test", "\"value\"").join();
+		assertEquals("[5]", connector.getValueAsync("/structure/list/").join());
+		assertEquals("\"value\"", connector.getValueAsync("/structure/map/test").join());
+
+		connector.deleteValueAsync("/structure/list/", "5").join();
+		connector.deleteValueAsync("/structure/map/test").join();
+		assertEquals("[]", connector.getValueAsync("/structure/list/").join());
+	}
+
+	@Test
+	public void testInvoke() {
+		assertEquals("46", connector.invokeOperationAsync("/operations/complex", "[12,34]").join());
+	}
+
+	@Test
+	public void testFailure() {
+		try {
+			connector.getValueAsync("/unknown/element").join();
+			fail();
+		} catch (CompletionException e) {
+			assertTrue(e.getCause() instanceof ResourceNotFoundException);
+		}
+
+		// The connection of the failed request is reused
+		assertEquals("123", connector.getValueAsync("/primitives/integer").join());
+	}
+
+	@Test
+	public void testConcurrentRequests() {
+		List<CompletableFuture<String>> futures = new ArrayList<>();
+		for (int i = 0; i < 200; i++) {
+			futures.add(connector.getValueAsync("/primitives/integer"));
+		}
+		for (CompletableFuture<String> future : futures) {
+			assertEquals("123", future.join());
+		}
+	}
+
+	@Test
+	public void testSharedClients() {
+		HTTPClientConfiguration configuration = new HTTPClientConfiguration();
+		configuration.setMaxConnectionsPerHost(2);
+		HTTPClientPool pool = new HTTPClientPool(configuration);
+
+		// Clients are shared per host
+		assertSame(pool.getClient("http://localhost:8080/a", false), pool.getClient("http://LOCALHOST:8080/b/c", false));
+		assertNotSame(pool.getClient("http://localhost:8080/a", false), pool.getClient("http://localhost:8081/a", false));
+		assertNotSame(pool.getClient("http://localhost:8080/a", false), pool.getClient("http://localhost:8080/a", true));
+
+		// More concurrent requests than connections wait for a free connection
+		HTTPConnector pooledConnector = new HTTPConnector(ADDRESS, "application/json;charset=UTF-8", false, pool);
+		List<CompletableFuture<String>> futures = new ArrayList<>();
+		for (int i = 0; i < 20; i++) {
+			futures.add(pooledConnector.getValueAsync("/primitives/string"));
+		}
+		for (CompletableFuture<String> future : futures) {
+			assertEquals("\"TestValue\"", future.join());
+		}
+		pool.close();
+	}
+}
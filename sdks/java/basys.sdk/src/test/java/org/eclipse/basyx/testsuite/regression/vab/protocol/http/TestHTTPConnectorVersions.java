@@ -0,0 +1,81 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.basyx.testsuite.regression.vab.protocol.http;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.eclipse.basyx.submodel.restapi.SubmodelProvider;
+import org.eclipse.basyx.submodel.restapi.snapshot.SnapshotSubmodelAPI;
+import org.eclipse.basyx.testsuite.regression.submodel.restapi.SimpleAASSubmodel;
+import org.eclipse.basyx.vab.coder.json.connector.JSONConnector;
+import org.eclipse.basyx.vab.exception.provider.NotSupportedException;
+import org.eclipse.basyx.vab.exception.provider.VersionConflictException;
+import org.eclipse.basyx.vab.modelprovider.VABElementProxy;
+import org.eclipse.basyx.vab.protocol.http.connector.HTTPConnector;
+import org.eclipse.basyx.vab.protocol.http.server.BaSyxContext;
+import org.eclipse.basyx.vab.protocol.http.server.VABHTTPInterface;
+import org.junit.Rule;
+import org.junit.Test;
+
+/**
+ * Tests the versions and conditional changes of the HTTPConnector. This is an
+ * integration test
+ *
+ * @author schnicke
+ *
+ */
+public class TestHTTPConnectorVersions {
+	private static final String ADDRESS = "http://localhost:8080/basys.sdk/Testsuite/";
+	private static final String NESTED = "submodelElements/containerRoot/container/" + SimpleAASSubmodel.INTPROPIDSHORT;
+
+	@Rule
+	public AASHTTPServerResource res = new AASHTTPServerResource(new BaSyxContext("/basys.sdk", System.getProperty("java.io.tmpdir"))
+			.addServletMapping("/Testsuite/Versioned/*", new VABHTTPInterface<>(new SubmodelProvider(new SnapshotSubmodelAPI(new SimpleAASSubmodel()))))
+			.addServletMapping("/Testsuite/Unversioned/*", new VABHTTPInterface<>(new SubmodelProvider(new SimpleAASSubmodel()))));
+
+	private static VABElementProxy connect(String servlet) {
+		return new VABElementProxy("/submodel", new JSONConnector(new HTTPConnector(ADDRESS + servlet)));
+	}
+
+	@Test
+	public void testCompareAndSet() {
+		VABElementProxy proxy = connect("Versioned");
+		long version = proxy.getVersion(NESTED);
+		assertEquals(version, proxy.getVersion(NESTED + "/value"));
+
+		long next = proxy.compareAndSet(NESTED + "/value", version, 5);
+		assertTrue(next > version);
+		assertEquals(next, proxy.getVersion(NESTED));
+		assertEquals(5, proxy.getValue(NESTED + "/value"));
+
+		// Changes based on an outdated version are rejected
+		try {
+			proxy.compareAndSet(NESTED + "/value", version, 6);
+			fail();
+		} catch (VersionConflictException e) {
+			// Expected
+		}
+		assertEquals(5, proxy.getValue(NESTED + "/value"));
+	}
+
+	@Test
+	public void testVersionsNotSupported() {
+		VABElementProxy proxy = connect("Unversioned");
+		try {
+			proxy.compareAndSet(NESTED + "/value", 0, 6);
+			fail();
+		} catch (NotSupportedException e) {
+			// Expected
+		}
+		assertEquals(123, proxy.getValue(NESTED + "/value"));
+	}
+}
@@ -0,0 +1,343 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.basyx.testsuite.regression.vab.protocol.http;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.DeflaterOutputStream;
+
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.eclipse.basyx.vab.protocol.http.server.BaSyxContext;
+import org.eclipse.basyx.vab.protocol.http.server.HTTPServerBackend;
+import org.junit.Rule;
+import org.junit.Test;
+
+/**
+ * Tests the connection handling of the NIO HTTP server backend on the wire,
+ * i.e. keep-alive, pipelining, chunked requests and error responses
+ *
+ * @author schnicke
+ *
+ */
+public class TestNIOHTTPServer {
+	private static final int PORT = 8080;
+	private static final int MAX_BODY_SIZE = 32;
+
+	@Rule
+	public AASHTTPServerResource res = new AASHTTPServerResource(createContext());
+
+	/**
+	 * Answers GET requests with the path info and POST requests with the body
+	 */
+	private static class EchoServlet extends HttpServlet {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+			resp.setContentType("text/plain");
+			resp.getWriter().write(req.getPathInfo());
+		}
+
+		@Override
+		protected void doPost(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+			resp.setContentType("text/plain");
+			InputStream in = req.getInputStream();
+			OutputStream out = resp.getOutputStream();
+			byte[] buffer = new byte[1024];
+			int read;
+			while ((read = in.read(buffer)) >= 0) {
+				out.write(buffer, 0, read);
+			}
+		}
+	}
+
+	/**
+	 * Fails after writing more than the buffer size of the response
+	 */
+	private static class FailingServlet extends HttpServlet {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+			resp.setContentType("text/plain");
+			resp.getOutputStream().write(new byte[4 * resp.getBufferSize()]);
+			throw new IOException("Failed after the response has been committed");
+		}
+	}
+
+	/**
+	 * Response read from the socket
+	 */
+	static class Response {
+		int status;
+		Map<String, String> headers = new HashMap<>();
+		String body;
+	}
+
+	private static BaSyxContext createContext() {
+		BaSyxContext context = new BaSyxContext("/basys.sdk", System.getProperty("java.io.tmpdir"))
+				.addServletMapping("/Testsuite/Echo/*", new EchoServlet())
+				.addServletMapping("/Testsuite/Failing/*", new FailingServlet())
+				.addServletMapping("/Testsuite/SimpleVAB/*", new SimpleVABElementServlet());
+		context.setServerBackend(HTTPServerBackend.NIO);
+		context.setMaxRequestBodySize(MAX_BODY_SIZE);
+		context.setCompressionEnabled(true);
+		return context;
+	}
+
+	@Test
+	public void testKeepAlive() throws IOException {
+		try (Socket socket = new Socket("localhost", PORT)) {
+			for (int i = 0; i < 3; i++) {
+				send(socket, get("/basys.sdk/Testsuite/Echo/request" + i));
+				Response response = read(socket.getInputStream());
+				assertEquals(200, response.status);
+				assertEquals("/request" + i, response.body);
+			}
+		}
+	}
+
+	@Test
+	public void testPipelining() throws IOException {
+		try (Socket socket = new Socket("localhost", PORT)) {
+			StringBuilder requests = new StringBuilder();
+			for (int i = 0; i < 5; i++) {
+				requests.append(get("/basys.sdk/Testsuite/Echo/request" + i));
+			}
+			send(socket, requests.toString());
+
+			// Responses have to be in the order of the requests
+			InputStream in = socket.getInputStream();
+			for (int i = 0; i < 5; i++) {
+				Response response = read(in);
+				assertEquals(200, response.status);
+				assertEquals("/request" + i, response.body);
+			}
+		}
+	}
+
+	@Test
+	public void testChunkedRequest() throws IOException {
+		try (Socket socket = new Socket("localhost", PORT)) {
+			send(socket, "POST /basys.sdk/Testsuite/Echo/ HTTP/1.1\r\nHost: localhost\r\nTransfer-Encoding: chunked\r\n\r\n"
+					+ "5\r\nHello\r\n7\r\n, World\r\n0\r\n\r\n");
+			Response response = read(socket.getInputStream());
+			assertEquals(200, response.status);
+			assertEquals("Hello, World", response.body);
+		}
+	}
+
+	@Test
+	public void testBodySizeLimit() throws IOException {
+		String body = new String(new char[MAX_BODY_SIZE]).replace('\0', 'x');
+		try (Socket socket = new Socket("localhost", PORT)) {
+			send(socket, post("/basys.sdk/Testsuite/Echo/", body));
+			assertEquals(body, read(socket.getInputStream()).body);
+		}
+
+		// Larger bodies are rejected before they are received completely
+		try (Socket socket = new Socket("localhost", PORT)) {
+			send(socket, "POST /basys.sdk/Testsuite/Echo/ HTTP/1.1\r\nHost: localhost\r\nContent-Length: " + (MAX_BODY_SIZE + 1) + "\r\n\r\n");
+			assertEquals(413, read(socket.getInputStream()).status);
+		}
+
+		try (Socket socket = new Socket("localhost", PORT)) {
+			send(socket, "POST /basys.sdk/Testsuite/Echo/ HTTP/1.1\r\nHost: localhost\r\nTransfer-Encoding: chunked\r\n\r\n"
+					+ "20\r\n" + body + "\r\n1\r\n");
+			assertEquals(413, read(socket.getInputStream()).status);
+		}
+	}
+
+	@Test
+	public void testDecompressedBodySizeLimit() throws IOException {
+		String body = new String(new char[MAX_BODY_SIZE]).replace('\0', 'x');
+		try (Socket socket = new Socket("localhost", PORT)) {
+			send(socket, postDeflated("/basys.sdk/Testsuite/Echo/", body));
+			Response response = read(socket.getInputStream());
+			assertEquals(200, response.status);
+			assertEquals(body, response.body);
+		}
+
+		// Small compressed bodies are rejected, if they are too large after decompression
+		String largeBody = new String(new char[1000 * MAX_BODY_SIZE]).replace('\0', 'x');
+		try (Socket socket = new Socket("localhost", PORT)) {
+			String request = postDeflated("/basys.sdk/Testsuite/Echo/", largeBody);
+			assertTrue(request.length() < 1000);
+			send(socket, request);
+			Response response = read(socket.getInputStream());
+			assertEquals(413, response.status);
+			assertTrue(response.body.length() < largeBody.length());
+		}
+	}
+
+	@Test
+	public void testFailedResponse() throws IOException {
+		try (Socket socket = new Socket("localhost", PORT)) {
+			send(socket, get("/basys.sdk/Testsuite/Failing/"));
+
+			// Responses are buffered completely, thus the partial body is discarded
+			Response response = read(socket.getInputStream());
+			assertEquals(500, response.status);
+			assertTrue(response.body.isEmpty());
+		}
+	}
+
+	@Test
+	public void testEncodedPath() throws IOException {
+		try (Socket socket = new Socket("localhost", PORT)) {
+			send(socket, get("/basys.sdk/Testsuite/Echo/a%20b%2Fc"));
+			Response response = read(socket.getInputStream());
+			assertEquals("/a b/c", response.body);
+		}
+	}
+
+	@Test
+	public void testHTTP10() throws IOException {
+		try (Socket socket = new Socket("localhost", PORT)) {
+			send(socket, "GET /basys.sdk/Testsuite/Echo/old HTTP/1.0\r\n\r\n");
+			InputStream in = socket.getInputStream();
+			Response response = read(in);
+			assertEquals("/old", response.body);
+
+			// Connection is closed after the response
+			assertEquals(-1, in.read());
+		}
+	}
+
+	@Test
+	public void testConnectionClose() throws IOException {
+		try (Socket socket = new Socket("localhost", PORT)) {
+			send(socket, "GET /basys.sdk/Testsuite/Echo/last HTTP/1.1\r\nHost: localhost\r\nConnection: close\r\n\r\n");
+			InputStream in = socket.getInputStream();
+			Response response = read(in);
+			assertEquals("close", response.headers.get("connection"));
+			assertEquals(-1, in.read());
+		}
+	}
+
+	@Test
+	public void testNotFound() throws IOException {
+		try (Socket socket = new Socket("localhost", PORT)) {
+			send(socket, get("/basys.sdk/Testsuite/Unknown/"));
+			assertEquals(404, read(socket.getInputStream()).status);
+
+			// Connection stays usable
+			send(socket, get("/basys.sdk/Testsuite/Echo/after"));
+			assertEquals("/after", read(socket.getInputStream()).body);
+		}
+	}
+
+	@Test
+	public void testMalformedRequest() throws IOException {
+		try (Socket socket = new Socket("localhost", PORT)) {
+			send(socket, "GET /basys.sdk/Testsuite/Echo/ HTTP/1.1\r\n\r\n");
+			InputStream in = socket.getInputStream();
+
+			// Missing host header
+			assertEquals(400, read(in).status);
+			assertEquals(-1, in.read());
+		}
+	}
+
+	@Test
+	public void testVABRequest() throws IOException {
+		try (Socket socket = new Socket("localhost", PORT)) {
+			send(socket, get("/basys.sdk/Testsuite/SimpleVAB/primitives/integer"));
+			Response response = read(socket.getInputStream());
+			assertEquals(200, response.status);
+			assertTrue(response.headers.get("content-type").startsWith("application/json"));
+			assertEquals("123", response.body);
+		}
+	}
+
+	static String get(String path) {
+		return "GET " + path + " HTTP/1.1\r\nHost: localhost\r\n\r\n";
+	}
+
+	private static String post(String path, String body) {
+		return "POST " + path + " HTTP/1.1\r\nHost: localhost\r\nContent-Length: " + body.length() + "\r\n\r\n" + body;
+	}
+
+	private static String postDeflated(String path, String body) throws IOException {
+		ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+		try (DeflaterOutputStream out = new DeflaterOutputStream(compressed)) {
+			out.write(body.getBytes(StandardCharsets.ISO_8859_1));
+		}
+		return "POST " + path + " HTTP/1.1\r\nHost: localhost\r\nContent-Encoding: deflate\r\nContent-Length: " + compressed.size() + "\r\n\r\n"
+				+ new String(compressed.toByteArray(), StandardCharsets.ISO_8859_1);
+	}
+
+	static void send(Socket socket, String request) throws IOException {
+		socket.getOutputStream().write(request.getBytes(StandardCharsets.ISO_8859_1));
+		socket.getOutputStream().flush();
+	}
+
+	static Response read(InputStream in) throws IOException {
+		Response response = new Response();
+		String statusLine = readLine(in);
+		response.status = Integer.parseInt(statusLine.split(" ")[1]);
+
+		String line;
+		while (!(line = readLine(in)).isEmpty()) {
+			int colon = line.indexOf(':');
+			response.headers.put(line.substring(0, colon).trim().toLowerCase(), line.substring(colon + 1).trim());
+		}
+
+		ByteArrayOutputStream body = new ByteArrayOutputStream();
+		if ("chunked".equals(response.headers.get("transfer-encoding"))) {
+			int size;
+			while ((size = Integer.parseInt(readLine(in), 16)) > 0) {
+				readFully(in, body, size);
+				readLine(in);
+			}
+			readLine(in);
+		} else {
+			readFully(in, body, Integer.parseInt(response.headers.getOrDefault("content-length", "0")));
+		}
+		response.body = new String(body.toByteArray(), StandardCharsets.UTF_8);
+		return response;
+	}
+
+	private static void readFully(InputStream in, ByteArrayOutputStream out, int length) throws IOException {
+		for (int i = 0; i < length; i++) {
+			int b = in.read();
+			if (b < 0) {
+				throw new IOException("Unexpected end of response");
+			}
+			out.write(b);
+		}
+	}
+
+	private static String readLine(InputStream in) throws IOException {
+		StringBuilder line = new StringBuilder();
+		int b;
+		while ((b = in.read()) != '\n') {
+			if (b < 0) {
+				throw new IOException("Unexpected end of response");
+			}
+			if (b != '\r') {
+				line.append((char) b);
+			}
+		}
+		return line.toString();
+	}
+}
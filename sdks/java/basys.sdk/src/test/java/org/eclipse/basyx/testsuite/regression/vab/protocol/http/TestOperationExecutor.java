@@ -0,0 +1,142 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.basyx.testsuite.regression.vab.protocol.http;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.basyx.vab.modelprovider.map.VABMapProvider;
+import org.eclipse.basyx.vab.protocol.http.server.BaSyxContext;
+import org.eclipse.basyx.vab.protocol.http.server.BaSyxHTTPServer;
+import org.eclipse.basyx.vab.protocol.http.server.HTTPServerBackend;
+import org.eclipse.basyx.vab.protocol.http.server.OperationExecutor;
+import org.eclipse.basyx.vab.protocol.http.server.VABHTTPInterface;
+import org.junit.Test;
+
+/**
+ * Tests the bounds of the {@link OperationExecutor} and its use by the
+ * {@link BaSyxHTTPServer}
+ * 
+ * @author schnicke
+ *
+ */
+public class TestOperationExecutor {
+	@Test
+	public void testExecute() throws InterruptedException {
+		OperationExecutor executor = new OperationExecutor(2, 2, 1000);
+		CountDownLatch latch = new CountDownLatch(4);
+		for (int i = 0; i < 4; i++) {
+			executor.execute(latch::countDown);
+		}
+		assertTrue(latch.await(5, TimeUnit.SECONDS));
+		assertEquals(1000, executor.getTimeout());
+		executor.shutdown();
+	}
+
+	@Test(expected = RejectedExecutionException.class)
+	public void testSaturation() {
+		OperationExecutor executor = new OperationExecutor(1, 1, 0);
+		CountDownLatch blocker = new CountDownLatch(1);
+		try {
+			// One running and one queued invocation
+			executor.execute(() -> awaitUninterruptibly(blocker));
+			executor.execute(() -> awaitUninterruptibly(blocker));
+			executor.execute(() -> {
+			});
+		} finally {
+			blocker.countDown();
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testCancel() throws InterruptedException {
+		OperationExecutor executor = new OperationExecutor(1, 1, 0);
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch interrupted = new CountDownLatch(1);
+		Future<?> future = executor.submit(() -> {
+			started.countDown();
+			try {
+				new CountDownLatch(1).await();
+			} catch (InterruptedException e) {
+				interrupted.countDown();
+			}
+		});
+		assertTrue(started.await(5, TimeUnit.SECONDS));
+
+		// Cancelling interrupts the running invocation
+		future.cancel(true);
+		assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+		executor.shutdown();
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidThreads() {
+		new OperationExecutor(0, 1, 0);
+	}
+
+	@Test
+	public void testServerExecutor() {
+		VABHTTPInterface<?> servlet = new VABHTTPInterface<>(new VABMapProvider(new HashMap<>()));
+		BaSyxContext context = new BaSyxContext("/basys.sdk", System.getProperty("java.io.tmpdir"))
+				.addServletMapping("/Testsuite/AsyncVAB/*", servlet);
+		context.setServerBackend(HTTPServerBackend.NIO);
+
+		// Operations are invoked in the request threads by default
+		new BaSyxHTTPServer(context).shutdown();
+		assertNull(servlet.getOperationExecutor());
+
+		context.setOperationThreads(1);
+		BaSyxHTTPServer server = new BaSyxHTTPServer(context);
+		OperationExecutor first = servlet.getOperationExecutor();
+		assertNotNull(first);
+
+		// The executor of a stopped server is not kept by the servlet
+		server.shutdown();
+		assertNull(servlet.getOperationExecutor());
+
+		server = new BaSyxHTTPServer(context);
+		assertNotNull(servlet.getOperationExecutor());
+		assertNotSame(first, servlet.getOperationExecutor());
+		server.shutdown();
+	}
+
+	@Test
+	public void testOwnExecutor() {
+		OperationExecutor executor = new OperationExecutor(1, 1, 0);
+		VABHTTPInterface<?> servlet = new VABHTTPInterface<>(new VABMapProvider(new HashMap<>())).withOperationExecutor(executor);
+		BaSyxContext context = new BaSyxContext("/basys.sdk", System.getProperty("java.io.tmpdir"))
+				.addServletMapping("/Testsuite/AsyncVAB/*", servlet);
+		context.setServerBackend(HTTPServerBackend.NIO);
+		context.setOperationThreads(1);
+
+		// Executors set by the application are neither replaced nor removed
+		new BaSyxHTTPServer(context).shutdown();
+		assertEquals(executor, servlet.getOperationExecutor());
+		executor.shutdown();
+	}
+
+	private static void awaitUninterruptibly(CountDownLatch latch) {
+		try {
+			latch.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
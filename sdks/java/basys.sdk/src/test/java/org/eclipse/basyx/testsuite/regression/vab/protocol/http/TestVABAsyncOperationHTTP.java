@@ -0,0 +1,121 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.basyx.testsuite.regression.vab.protocol.http;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.eclipse.basyx.vab.coder.json.connector.JSONConnector;
+import org.eclipse.basyx.vab.exception.provider.ProviderException;
+import org.eclipse.basyx.vab.modelprovider.VABElementProxy;
+import org.eclipse.basyx.vab.modelprovider.map.VABMapProvider;
+import org.eclipse.basyx.vab.protocol.http.connector.HTTPConnector;
+import org.eclipse.basyx.vab.protocol.http.server.BaSyxContext;
+import org.eclipse.basyx.vab.protocol.http.server.VABHTTPInterface;
+import org.junit.Rule;
+import org.junit.Test;
+
+/**
+ * Tests the asynchronous invocation of operations by the VAB HTTP server. This
+ * is an integration test
+ * 
+ * @author schnicke
+ *
+ */
+public class TestVABAsyncOperationHTTP {
+	private static final long OPERATION_TIMEOUT = 500;
+
+	private static volatile CountDownLatch interrupted = new CountDownLatch(1);
+
+	@Rule
+	public AASHTTPServerResource res = new AASHTTPServerResource(createContext());
+
+	private VABElementProxy proxy = new VABElementProxy("", new JSONConnector(new HTTPConnector("http://localhost:8080/basys.sdk/Testsuite/AsyncVAB")));
+
+	@Test
+	public void testInvoke() {
+		assertEquals(5, proxy.invokeOperation("/operations/add/invoke", 2, 3));
+	}
+
+	@Test
+	public void testReadDuringInvoke() throws InterruptedException {
+		Thread invocation = new Thread(() -> proxy.invokeOperation("/operations/sleep/invoke", OPERATION_TIMEOUT / 2));
+		invocation.start();
+
+		// Reads are not blocked by the running invocation
+		assertEquals(42, proxy.getValue("/value"));
+		invocation.join();
+	}
+
+	@Test(expected = ProviderException.class)
+	public void testTimeout() {
+		proxy.invokeOperation("/operations/sleep/invoke", OPERATION_TIMEOUT * 4);
+	}
+
+	@Test
+	public void testTimeoutCancelsInvocation() throws InterruptedException {
+		interrupted = new CountDownLatch(1);
+		try {
+			proxy.invokeOperation("/operations/block/invoke");
+			fail();
+		} catch (ProviderException e) {
+			// Expected
+		}
+
+		// The timed out invocation is interrupted
+		assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+	}
+
+	@Test(expected = ProviderException.class)
+	public void testException() {
+		proxy.invokeOperation("/operations/fail/invoke");
+	}
+
+	private static BaSyxContext createContext() {
+		Map<String, Object> operations = new HashMap<>();
+		operations.put("add", (Function<Object[], Object>) v -> (int) v[0] + (int) v[1]);
+		operations.put("sleep", (Function<Object[], Object>) v -> {
+			try {
+				Thread.sleep(((Number) v[0]).longValue());
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return null;
+		});
+		operations.put("block", (Function<Object[], Object>) v -> {
+			try {
+				Thread.sleep(OPERATION_TIMEOUT * 20);
+			} catch (InterruptedException e) {
+				interrupted.countDown();
+			}
+			return null;
+		});
+		operations.put("fail", (Function<Object[], Object>) v -> {
+			throw new ProviderException("Operation failed");
+		});
+
+		Map<String, Object> model = new HashMap<>();
+		model.put("value", 42);
+		model.put("operations", operations);
+
+		BaSyxContext context = new BaSyxContext("/basys.sdk", System.getProperty("java.io.tmpdir"))
+				.addServletMapping("/Testsuite/AsyncVAB/*", new VABHTTPInterface<>(new VABMapProvider(model)));
+		context.setOperationThreads(2);
+		context.setOperationTimeout(OPERATION_TIMEOUT);
+		return context;
+	}
+}
@@ -0,0 +1,43 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.basyx.testsuite.regression.vab.protocol.http;
+
+import org.eclipse.basyx.testsuite.regression.vab.modelprovider.TestProvider;
+import org.eclipse.basyx.vab.manager.VABConnectionManager;
+import org.eclipse.basyx.vab.protocol.http.connector.HTTPConnectorFactory;
+import org.eclipse.basyx.vab.protocol.http.server.BaSyxContext;
+import org.eclipse.basyx.vab.protocol.http.server.VABResponseCache;
+import org.junit.Rule;
+
+/**
+ * Test VAB using HTTP protocol with a response cache on the server side. This
+ * is an integration test
+ *
+ * @author schnicke
+ *
+ */
+public class TestVABCachedHTTP extends TestProvider {
+	protected VABConnectionManager connManager = new VABConnectionManager(new TestsuiteDirectory(),
+			new HTTPConnectorFactory());
+
+	/**
+	 * Makes sure Tomcat Server is started after before each test case
+	 */
+	@Rule
+	public AASHTTPServerResource res = new AASHTTPServerResource(
+			new BaSyxContext("/basys.sdk", System.getProperty("java.io.tmpdir"))
+					.addServletMapping("/Testsuite/SimpleVAB/*", new SimpleVABElementServlet()
+							.withResponseCache(new VABResponseCache())));
+
+	@Override
+	protected VABConnectionManager getConnectionManager() {
+		return connManager;
+	}
+}
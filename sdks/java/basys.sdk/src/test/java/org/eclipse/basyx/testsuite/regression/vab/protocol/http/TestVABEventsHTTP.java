@@ -0,0 +1,121 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.basyx.testsuite.regression.vab.protocol.http;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import org.eclipse.basyx.submodel.metamodel.connected.ConnectedSubmodel;
+import org.eclipse.basyx.submodel.metamodel.connected.submodelelement.dataelement.ConnectedProperty;
+import org.eclipse.basyx.submodel.restapi.SubmodelProvider;
+import org.eclipse.basyx.submodel.restapi.events.EventingSubmodelAPI;
+import org.eclipse.basyx.submodel.restapi.events.SubmodelElementEvent;
+import org.eclipse.basyx.submodel.restapi.vab.VABSubmodelAPI;
+import org.eclipse.basyx.testsuite.regression.submodel.restapi.SimpleAASSubmodel;
+import org.eclipse.basyx.testsuite.regression.vab.modelprovider.event.CollectingSubscriber;
+import org.eclipse.basyx.vab.coder.json.connector.JSONConnector;
+import org.eclipse.basyx.vab.exception.provider.ProviderException;
+import org.eclipse.basyx.vab.modelprovider.VABElementProxy;
+import org.eclipse.basyx.vab.modelprovider.event.EventPublisher;
+import org.eclipse.basyx.vab.modelprovider.lambda.VABLambdaProvider;
+import org.eclipse.basyx.vab.protocol.http.connector.HTTPConnector;
+import org.eclipse.basyx.vab.protocol.http.server.BaSyxContext;
+import org.eclipse.basyx.vab.protocol.http.server.VABHTTPInterface;
+import org.junit.Rule;
+import org.junit.Test;
+
+/**
+ * Tests the server-sent events of submodel elements. This is an integration
+ * test
+ *
+ * @author schnicke
+ *
+ */
+public class TestVABEventsHTTP {
+	private static final long TIMEOUT = 5000;
+	private static final String SERVER_URL = "http://localhost:8080/basys.sdk/Testsuite/Events";
+	private static final String PROPERTY_PATH = "/submodel/submodelElements/" + SimpleAASSubmodel.INTPROPIDSHORT;
+
+	private EventPublisher<SubmodelElementEvent> publisher = new EventPublisher<>();
+
+	@Rule
+	public AASHTTPServerResource res = new AASHTTPServerResource(createContext());
+
+	private VABElementProxy createProxy(String path) {
+		return new VABElementProxy(path, new JSONConnector(new HTTPConnector(SERVER_URL)));
+	}
+
+	@Test
+	public void testPropertyEvents() throws InterruptedException {
+		ConnectedProperty property = new ConnectedProperty(createProxy(PROPERTY_PATH));
+		CollectingSubscriber<SubmodelElementEvent> subscriber = new CollectingSubscriber<>();
+		property.subscribe().subscribe(subscriber);
+		awaitServerSubscription();
+
+		property.setValue(5);
+
+		SubmodelElementEvent event = subscriber.awaitEvent(TIMEOUT);
+		assertNotNull(event);
+		assertEquals(SubmodelElementEvent.UPDATED, event.getType());
+		assertEquals(SimpleAASSubmodel.INTPROPIDSHORT, event.getIdShortPath());
+		assertEquals(5, event.getValue());
+
+		// Cancelling closes the stream, which the server notices when sending the next events
+		subscriber.getSubscription().cancel();
+		long end = System.currentTimeMillis() + TIMEOUT;
+		for (int i = 6; publisher.hasSubscribers() && System.currentTimeMillis() < end; i++) {
+			property.setValue(i);
+			Thread.sleep(50);
+		}
+		assertFalse(publisher.hasSubscribers());
+		assertFalse(subscriber.awaitTermination(100));
+	}
+
+	@Test
+	public void testSubmodelEvents() throws InterruptedException {
+		ConnectedSubmodel submodel = new ConnectedSubmodel(createProxy("/submodel"));
+		CollectingSubscriber<SubmodelElementEvent> subscriber = new CollectingSubscriber<>();
+		submodel.subscribe().subscribe(subscriber);
+		awaitServerSubscription();
+
+		submodel.deleteSubmodelElement("stringProperty");
+
+		SubmodelElementEvent event = subscriber.awaitEvent(TIMEOUT);
+		assertNotNull(event);
+		assertEquals(SubmodelElementEvent.DELETED, event.getType());
+		assertEquals("stringProperty", event.getIdShortPath());
+		subscriber.getSubscription().cancel();
+	}
+
+	@Test
+	public void testUnsupportedPath() throws InterruptedException {
+		CollectingSubscriber<Object> subscriber = new CollectingSubscriber<>();
+		createProxy("/submodel/operations").getEventPublisher("").subscribe(subscriber);
+
+		assertTrue(subscriber.awaitTermination(TIMEOUT));
+		assertTrue(subscriber.getError() instanceof ProviderException);
+	}
+
+	private void awaitServerSubscription() throws InterruptedException {
+		long end = System.currentTimeMillis() + TIMEOUT;
+		while (!publisher.hasSubscribers() && System.currentTimeMillis() < end) {
+			Thread.sleep(10);
+		}
+		assertTrue(publisher.hasSubscribers());
+	}
+
+	private BaSyxContext createContext() {
+		EventingSubmodelAPI api = new EventingSubmodelAPI(new VABSubmodelAPI(new VABLambdaProvider(new SimpleAASSubmodel())), publisher);
+		return new BaSyxContext("/basys.sdk", System.getProperty("java.io.tmpdir"))
+				.addServletMapping("/Testsuite/Events/*", new VABHTTPInterface<>(new SubmodelProvider(api)));
+	}
+}
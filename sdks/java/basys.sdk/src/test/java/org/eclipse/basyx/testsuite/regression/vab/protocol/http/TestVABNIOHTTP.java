@@ -0,0 +1,47 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.basyx.testsuite.regression.vab.protocol.http;
+
+import org.eclipse.basyx.testsuite.regression.vab.modelprovider.TestProvider;
+import org.eclipse.basyx.vab.manager.VABConnectionManager;
+import org.eclipse.basyx.vab.protocol.http.connector.HTTPConnectorFactory;
+import org.eclipse.basyx.vab.protocol.http.server.BaSyxContext;
+import org.eclipse.basyx.vab.protocol.http.server.HTTPServerBackend;
+import org.junit.Rule;
+
+/**
+ * Test VAB using HTTP protocol served by the NIO HTTP server backend. This is
+ * an integration test
+ *
+ * @author schnicke
+ *
+ */
+public class TestVABNIOHTTP extends TestProvider {
+	protected VABConnectionManager connManager = new VABConnectionManager(new TestsuiteDirectory(),
+			new HTTPConnectorFactory());
+
+	/**
+	 * Makes sure the server is started before each test case
+	 */
+	@Rule
+	public AASHTTPServerResource res = new AASHTTPServerResource(createContext());
+
+	@Override
+	protected VABConnectionManager getConnectionManager() {
+		return connManager;
+	}
+
+	private static BaSyxContext createContext() {
+		BaSyxContext context = new BaSyxContext("/basys.sdk", System.getProperty("java.io.tmpdir"))
+				.addServletMapping("/Testsuite/SimpleVAB/*", new SimpleVABElementServlet());
+		context.setServerBackend(HTTPServerBackend.NIO);
+		return context;
+	}
+}
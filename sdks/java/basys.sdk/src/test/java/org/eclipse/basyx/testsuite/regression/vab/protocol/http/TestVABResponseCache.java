@@ -0,0 +1,125 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.basyx.testsuite.regression.vab.protocol.http;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+
+import org.eclipse.basyx.vab.protocol.http.server.VABResponseCache;
+import org.junit.Test;
+
+/**
+ * Tests the versioning of {@link VABResponseCache}
+ *
+ * @author schnicke
+ *
+ */
+public class TestVABResponseCache {
+	private static final String SUBMODEL = "/aas/submodels/sm/submodel";
+	private static final String PROPERTY = SUBMODEL + "/submodelElements/prop";
+	private static final String VALUE = PROPERTY + "/value";
+	private static final String OTHER = "/aas/submodels/other/submodel";
+
+	private VABResponseCache cache = new VABResponseCache();
+
+	@Test
+	public void testModificationBelow() {
+		long submodel = cache.getVersion(SUBMODEL);
+		long other = cache.getVersion(OTHER);
+
+		cache.invalidate(VALUE);
+
+		assertNotEquals(submodel, cache.getVersion(SUBMODEL));
+		assertNotEquals(submodel, cache.getVersion("/aas"));
+		assertEquals(other, cache.getVersion(OTHER));
+	}
+
+	@Test
+	public void testModificationAbove() {
+		long value = cache.getVersion(VALUE);
+		cache.invalidate(SUBMODEL);
+		assertNotEquals(value, cache.getVersion(VALUE));
+	}
+
+	@Test
+	public void testModificationOfSibling() {
+		// e.g. /submodel/values exposes the values of /submodel/submodelElements
+		long values = cache.getVersion(SUBMODEL + "/values");
+		cache.invalidate(PROPERTY);
+		assertNotEquals(values, cache.getVersion(SUBMODEL + "/values"));
+	}
+
+	@Test
+	public void testUnrelatedModification() {
+		long value = cache.getVersion(VALUE);
+		cache.invalidate(OTHER + "/submodelElements/prop/value");
+		assertEquals(value, cache.getVersion(VALUE));
+	}
+
+	@Test
+	public void testVersionsIncrease() {
+		cache.invalidate(VALUE);
+		long first = cache.getVersion(VALUE);
+		cache.invalidate(SUBMODEL);
+		long second = cache.getVersion(VALUE);
+		cache.invalidate(VALUE);
+		long third = cache.getVersion(VALUE);
+
+		assertEquals(true, first < second);
+		assertEquals(true, second < third);
+	}
+
+	@Test
+	public void testInvalidateAll() {
+		long value = cache.getVersion(VALUE);
+		long other = cache.getVersion(OTHER);
+		cache.put("json:" + VALUE, value, new byte[] { 1 });
+
+		cache.invalidateAll();
+
+		assertNotEquals(value, cache.getVersion(VALUE));
+		assertNotEquals(other, cache.getVersion(OTHER));
+		assertNull(cache.get("json:" + VALUE, value));
+	}
+
+	@Test
+	public void testCachedResponses() {
+		long version = cache.getVersion(VALUE);
+		byte[] data = new byte[] { 1, 2, 3 };
+		cache.put("json:" + VALUE, version, data);
+
+		assertArrayEquals(data, cache.get("json:" + VALUE, version));
+		assertNull(cache.get("binary:" + VALUE, version));
+
+		// Responses of outdated versions are not returned
+		cache.invalidate(VALUE);
+		assertNull(cache.get("json:" + VALUE, cache.getVersion(VALUE)));
+	}
+
+	@Test
+	public void testEviction() {
+		VABResponseCache smallCache = new VABResponseCache(2);
+		smallCache.put("a", 0, new byte[0]);
+		smallCache.put("b", 0, new byte[0]);
+		smallCache.put("c", 0, new byte[0]);
+
+		assertNull(smallCache.get("a", 0));
+	}
+
+	@Test
+	public void testETag() {
+		String json = cache.getETag(1, "json");
+		assertNotEquals(json, cache.getETag(1, "binary"));
+		assertNotEquals(json, cache.getETag(2, "json"));
+		assertEquals(json, cache.getETag(1, "json"));
+	}
+}
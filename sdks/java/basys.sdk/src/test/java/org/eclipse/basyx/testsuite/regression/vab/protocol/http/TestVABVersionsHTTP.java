@@ -0,0 +1,181 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.basyx.testsuite.regression.vab.protocol.http;
+
+import static org.eclipse.basyx.testsuite.regression.vab.protocol.http.TestNIOHTTPServer.get;
+import static org.eclipse.basyx.testsuite.regression.vab.protocol.http.TestNIOHTTPServer.read;
+import static org.eclipse.basyx.testsuite.regression.vab.protocol.http.TestNIOHTTPServer.send;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.IOException;
+import java.net.Socket;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.basyx.submodel.restapi.SubmodelProvider;
+import org.eclipse.basyx.submodel.restapi.snapshot.SnapshotSubmodelAPI;
+import org.eclipse.basyx.testsuite.regression.submodel.restapi.SimpleAASSubmodel;
+import org.eclipse.basyx.testsuite.regression.vab.protocol.http.TestNIOHTTPServer.Response;
+import org.eclipse.basyx.vab.protocol.http.server.BaSyxContext;
+import org.eclipse.basyx.vab.protocol.http.server.HTTPServerBackend;
+import org.eclipse.basyx.vab.protocol.http.server.VABHTTPInterface;
+import org.eclipse.basyx.vab.protocol.http.server.VABResponseCache;
+import org.junit.Rule;
+import org.junit.Test;
+
+/**
+ * Tests the versions of elements on the wire, i.e. the ETags of GET responses,
+ * conditional PUT requests with If-Match and the $version path
+ *
+ * @author schnicke
+ *
+ */
+public class TestVABVersionsHTTP {
+	private static final int PORT = 8080;
+	private static final String NESTED = "/submodel/submodelElements/containerRoot/container/" + SimpleAASSubmodel.INTPROPIDSHORT;
+	private static final String VERSIONED = "/basys.sdk/Testsuite/Versioned" + NESTED;
+	private static final String CACHED = "/basys.sdk/Testsuite/Cached" + NESTED;
+	private static final String UNVERSIONED = "/basys.sdk/Testsuite/Unversioned" + NESTED;
+
+	private static final AtomicInteger unversionedRequests = new AtomicInteger();
+
+	@Rule
+	public AASHTTPServerResource res = new AASHTTPServerResource(createContext());
+
+	private static BaSyxContext createContext() {
+		BaSyxContext context = new BaSyxContext("/basys.sdk", System.getProperty("java.io.tmpdir"))
+				.addServletMapping("/Testsuite/Versioned/*", new VABHTTPInterface<>(new SubmodelProvider(new SnapshotSubmodelAPI(new SimpleAASSubmodel()))))
+				.addServletMapping("/Testsuite/Cached/*", new VABHTTPInterface<>(new SubmodelProvider(new SnapshotSubmodelAPI(new SimpleAASSubmodel())))
+						.withResponseCache(new VABResponseCache()))
+				.addServletMapping("/Testsuite/Unversioned/*", new VABHTTPInterface<>(new SubmodelProvider(new SimpleAASSubmodel()) {
+					@Override
+					public long getVersion(String path) {
+						unversionedRequests.incrementAndGet();
+						return super.getVersion(path);
+					}
+				}));
+		context.setServerBackend(HTTPServerBackend.NIO);
+		return context;
+	}
+
+	@Test
+	public void testCompareAndSet() throws IOException {
+		try (Socket socket = new Socket("localhost", PORT)) {
+			// The ETag of the element is its version
+			send(socket, get(VERSIONED));
+			Response element = read(socket.getInputStream());
+			assertEquals(200, element.status);
+			String eTag = element.headers.get("etag");
+			assertEquals(eTag, weak(getVersion(socket, VERSIONED)));
+
+			send(socket, put(VERSIONED + "/value", eTag, "5"));
+			Response changed = read(socket.getInputStream());
+			assertEquals(200, changed.status);
+			String newETag = changed.headers.get("etag");
+			assertNotEquals(eTag, newETag);
+			assertEquals(newETag, weak(changed.body));
+			assertEquals(newETag, weak(getVersion(socket, VERSIONED)));
+
+			// Changes based on an outdated version are rejected
+			send(socket, put(VERSIONED + "/value", eTag, "6"));
+			assertEquals(412, read(socket.getInputStream()).status);
+
+			// Versions are accepted as strong ETags as well
+			send(socket, put(VERSIONED + "/value", newETag.substring(2), "7"));
+			assertEquals(200, read(socket.getInputStream()).status);
+
+			send(socket, get(VERSIONED + "/value"));
+			assertEquals("7", read(socket.getInputStream()).body);
+		}
+	}
+
+	@Test
+	public void testForeignETags() throws IOException {
+		try (Socket socket = new Socket("localhost", PORT)) {
+			// Well-formed ETags that are no versions never match
+			send(socket, put(VERSIONED + "/value", "\"abc\"", "5"));
+			assertEquals(412, read(socket.getInputStream()).status);
+
+			send(socket, put(VERSIONED + "/value", "\"-1\"", "5"));
+			assertEquals(412, read(socket.getInputStream()).status);
+
+			// Malformed headers are rejected
+			send(socket, put(VERSIONED + "/value", "abc", "5"));
+			assertEquals(400, read(socket.getInputStream()).status);
+
+			send(socket, get(VERSIONED + "/value"));
+			assertEquals("123", read(socket.getInputStream()).body);
+		}
+	}
+
+	@Test
+	public void testCachedResponses() throws IOException {
+		try (Socket socket = new Socket("localhost", PORT)) {
+			// The version takes precedence over the ETag of the cache
+			send(socket, get(CACHED));
+			String eTag = read(socket.getInputStream()).headers.get("etag");
+			assertEquals(eTag, weak(getVersion(socket, CACHED)));
+
+			send(socket, getIfNoneMatch(CACHED, eTag));
+			assertEquals(304, read(socket.getInputStream()).status);
+
+			send(socket, put(CACHED + "/value", eTag, "5"));
+			assertEquals(200, read(socket.getInputStream()).status);
+
+			send(socket, getIfNoneMatch(CACHED, eTag));
+			Response changed = read(socket.getInputStream());
+			assertEquals(200, changed.status);
+			assertNotEquals(eTag, changed.headers.get("etag"));
+		}
+	}
+
+	@Test
+	public void testVersionsNotSupported() throws IOException {
+		unversionedRequests.set(0);
+		try (Socket socket = new Socket("localhost", PORT)) {
+			// GET requests do not ask for versions, if they are not supported
+			send(socket, get(UNVERSIONED));
+			Response element = read(socket.getInputStream());
+			assertEquals(200, element.status);
+			assertNull(element.headers.get("etag"));
+			assertEquals(0, unversionedRequests.get());
+
+			send(socket, get(UNVERSIONED + "/$version"));
+			assertEquals(501, read(socket.getInputStream()).status);
+
+			send(socket, put(UNVERSIONED + "/value", "\"0\"", "5"));
+			assertEquals(501, read(socket.getInputStream()).status);
+
+			send(socket, get(UNVERSIONED + "/value"));
+			assertEquals("123", read(socket.getInputStream()).body);
+		}
+	}
+
+	private static String getVersion(Socket socket, String path) throws IOException {
+		send(socket, get(path + "/$version"));
+		Response response = read(socket.getInputStream());
+		assertEquals(200, response.status);
+		return response.body;
+	}
+
+	private static String getIfNoneMatch(String path, String eTag) {
+		return "GET " + path + " HTTP/1.1\r\nHost: localhost\r\nIf-None-Match: " + eTag + "\r\n\r\n";
+	}
+
+	private static String put(String path, String ifMatch, String body) {
+		return "PUT " + path + " HTTP/1.1\r\nHost: localhost\r\nContent-Type: application/json\r\nIf-Match: " + ifMatch + "\r\nContent-Length: "
+				+ body.length() + "\r\n\r\n" + body;
+	}
+
+	private static String weak(String version) {
+		return "W/\"" + version + "\"";
+	}
+}